@@ -0,0 +1,59 @@
+package com.extractor.unraveldocs.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Fixtures shared by the benchmarks. Binary samples live in {@code src/jmh/resources/samples};
+ * text fixtures are generated deterministically so every run measures the same input.
+ */
+public final class BenchmarkSamples {
+    public static final String TEXT_PDF = "samples/sample-text.pdf";
+    public static final String SCAN_PNG = "samples/sample-scan.png";
+
+    private static final String PARAGRAPH = "Payment terms are net thirty days from the date of issue. "
+            + "Late payments accrue interest at two percent per month on the outstanding balance. ";
+
+    private BenchmarkSamples() {}
+
+    public static byte[] load(String resource) {
+        try (InputStream in = BenchmarkSamples.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing benchmark sample: " + resource);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * OCR-style plain text: page markers between pages of repeated paragraphs.
+     */
+    public static String plainText(int pages) {
+        return IntStream.rangeClosed(1, pages)
+                .mapToObj(page -> ("Page " + page + " heading\n\n" + PARAGRAPH.repeat(6) + "\n\n").repeat(3))
+                .collect(Collectors.joining("\n--- Page N ---\n"));
+    }
+
+    /**
+     * Edited-content HTML as produced by the rich text editor, including markup the
+     * sanitizer has to strip.
+     */
+    public static String editorHtml(int sections) {
+        String section = """
+                <h2 style="color:#333">Section heading</h2>
+                <p style="text-align:justify">%s<strong>Total:</strong> <em>4.24 EUR</em></p>
+                <ul><li>First item <a href="https://example.com" target="_blank" rel="noopener">link</a></li>
+                <li>Second item <span style="font-weight:bold">bold</span></li></ul>
+                <ol><li>Numbered</li><li>List <code>code()</code></li></ol>
+                <table><tr><th>Qty</th><th>Amount</th></tr><tr><td>12</td><td>0.24</td></tr></table>
+                <img src="x" onerror="alert(1)"><script>document.cookie</script>
+                <div onclick="steal()">Clickable <mark>marked</mark> text<br><sub>1</sub><sup>2</sup></div>
+                """.formatted(PARAGRAPH);
+        return section.repeat(sections);
+    }
+}
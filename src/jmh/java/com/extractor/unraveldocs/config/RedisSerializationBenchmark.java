@@ -0,0 +1,70 @@
+package com.extractor.unraveldocs.config;
+
+import com.extractor.unraveldocs.auth.datamodel.Role;
+import com.extractor.unraveldocs.user.dto.UserData;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache value (de)serialization with the typed Jackson serializer from {@link RedisConfig},
+ * for a single profile entry and a page of fifty.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedisSerializationBenchmark {
+    private GenericJackson2JsonRedisSerializer serializer;
+    private UserData profile;
+    private List<UserData> page;
+    private byte[] serializedProfile;
+    private byte[] serializedPage;
+
+    @Setup
+    public void setUp() {
+        serializer = RedisConfig.cacheValueSerializer();
+        profile = userData(0);
+        page = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            page.add(userData(i));
+        }
+        serializedProfile = serializer.serialize(profile);
+        serializedPage = serializer.serialize(page);
+    }
+
+    private static UserData userData(int i) {
+        OffsetDateTime timestamp = OffsetDateTime.of(2026, 3, 1, 9, 30, 0, 0, ZoneOffset.UTC).plusMinutes(i);
+        return new UserData("user-" + i, "https://cdn.example.com/avatars/" + i + ".png",
+                "https://cdn.example.com/renditions/avatars/" + i + "-256.jpg", "Ada", "Okafor",
+                "ada" + i + "@example.com", Role.USER, timestamp, true, "NG", "Accountant", "UnravelDocs",
+                timestamp.minusDays(90), timestamp);
+    }
+
+    @Benchmark
+    public byte[] serializeProfile() {
+        return serializer.serialize(profile);
+    }
+
+    @Benchmark
+    public Object deserializeProfile() {
+        return serializer.deserialize(serializedProfile);
+    }
+
+    @Benchmark
+    public byte[] serializePage() {
+        return serializer.serialize(page);
+    }
+
+    @Benchmark
+    public Object deserializePage() {
+        return serializer.deserialize(serializedPage);
+    }
+}
@@ -0,0 +1,51 @@
+package com.extractor.unraveldocs.encryption.impl;
+
+import com.extractor.unraveldocs.encryption.config.EncryptionProperties;
+import com.extractor.unraveldocs.encryption.interfaces.EncryptionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AES-256-GCM round trips at a small-image and a typical-scan payload size.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AesEncryptionBenchmark {
+    @Param({"65536", "2097152"})
+    public int payloadBytes;
+
+    private AesEncryptionServiceImpl encryptionService;
+    private byte[] plaintext;
+    private EncryptionService.EncryptionResult encrypted;
+
+    @Setup
+    public void setUp() {
+        byte[] key = new byte[32];
+        new Random(42).nextBytes(key);
+        EncryptionProperties properties = new EncryptionProperties();
+        properties.setMasterKey(Base64.getEncoder().encodeToString(key));
+        encryptionService = new AesEncryptionServiceImpl(properties);
+        encryptionService.init();
+
+        plaintext = new byte[payloadBytes];
+        new Random(7).nextBytes(plaintext);
+        encrypted = encryptionService.encrypt(plaintext);
+    }
+
+    @Benchmark
+    public EncryptionService.EncryptionResult encrypt() {
+        return encryptionService.encrypt(plaintext);
+    }
+
+    @Benchmark
+    public byte[] decrypt() {
+        return encryptionService.decrypt(encrypted.encryptedData(), encrypted.iv());
+    }
+}
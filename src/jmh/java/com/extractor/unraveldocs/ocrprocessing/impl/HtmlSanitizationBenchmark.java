@@ -0,0 +1,33 @@
+package com.extractor.unraveldocs.ocrprocessing.impl;
+
+import com.extractor.unraveldocs.benchmark.BenchmarkSamples;
+import com.extractor.unraveldocs.ocrprocessing.datamodel.ContentFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jsoup safelist cleaning applied when a user saves edited OCR content as HTML.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HtmlSanitizationBenchmark {
+    @Param({"5", "50"})
+    public int sections;
+
+    private String html;
+
+    @Setup
+    public void setUp() {
+        html = BenchmarkSamples.editorHtml(sections);
+    }
+
+    @Benchmark
+    public String sanitize() {
+        return UpdateOcrContentImpl.sanitizeContent(html, ContentFormat.HTML);
+    }
+}
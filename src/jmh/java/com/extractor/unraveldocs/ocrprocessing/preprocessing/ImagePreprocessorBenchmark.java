@@ -0,0 +1,110 @@
+package com.extractor.unraveldocs.ocrprocessing.preprocessing;
+
+import com.extractor.unraveldocs.ocrprocessing.config.OcrProperties;
+import com.extractor.unraveldocs.ocrprocessing.metrics.OcrMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The OpenCV pipeline run on every page before Tesseract, on an A4 page at 300 DPI.
+ * A born-digital page takes the fast path (grayscale, deskew, crop); a shaded, speckled
+ * and skewed phone scan goes through denoising, adaptive binarization and deskew.
+ * Pages are drawn from a fixed seed, so every run measures the same pixels.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImagePreprocessorBenchmark {
+    private static final int PAGE_WIDTH = 2480;
+    private static final int PAGE_HEIGHT = 3508;
+
+    private ImagePreprocessor preprocessor;
+    private BufferedImage cleanPage;
+    private BufferedImage noisySkewedPage;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        preprocessor = new ImagePreprocessor(new OcrProperties(), new OcrMetrics(meterRegistry));
+        if (!preprocessor.isEnabled()) {
+            throw new IllegalStateException("OpenCV could not be loaded; nothing to measure");
+        }
+        cleanPage = cleanPage();
+        noisySkewedPage = noisySkewedPage();
+
+        // Each page must take the path it is meant to measure
+        preprocessor.process(cleanPage);
+        preprocessor.process(noisySkewedPage);
+        if (meterRegistry.counter("ocr.preprocessing.images", "path", "fast").count() != 1
+                || meterRegistry.counter("ocr.preprocessing.images", "path", "full").count() != 1) {
+            throw new IllegalStateException("Sample pages did not take the fast and full paths");
+        }
+    }
+
+    @Benchmark
+    public BufferedImage processCleanPage() {
+        return preprocessor.process(cleanPage);
+    }
+
+    @Benchmark
+    public BufferedImage processNoisySkewedPage() {
+        return preprocessor.process(noisySkewedPage);
+    }
+
+    private static BufferedImage cleanPage() {
+        BufferedImage page = new BufferedImage(PAGE_WIDTH, PAGE_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = page.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, PAGE_WIDTH, PAGE_HEIGHT);
+        graphics.setColor(Color.BLACK);
+        drawTextLines(graphics, new Random(42));
+        graphics.dispose();
+        return page;
+    }
+
+    private static BufferedImage noisySkewedPage() {
+        Random random = new Random(7);
+        BufferedImage page = new BufferedImage(PAGE_WIDTH, PAGE_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = page.createGraphics();
+        // Uneven lighting: paper darkens towards one corner
+        for (int x = 0; x < PAGE_WIDTH; x += 8) {
+            int shade = 200 - x * 70 / PAGE_WIDTH;
+            graphics.setColor(new Color(shade, shade, shade - 10));
+            graphics.fillRect(x, 0, 8, PAGE_HEIGHT);
+        }
+        graphics.setColor(new Color(45, 45, 50));
+        graphics.rotate(Math.toRadians(3), PAGE_WIDTH / 2.0, PAGE_HEIGHT / 2.0);
+        drawTextLines(graphics, random);
+        graphics.dispose();
+
+        // Sensor speckle
+        for (int i = 0; i < PAGE_WIDTH * PAGE_HEIGHT / 50; i++) {
+            int gray = random.nextInt(256);
+            page.setRGB(random.nextInt(PAGE_WIDTH), random.nextInt(PAGE_HEIGHT), new Color(gray, gray, gray).getRGB());
+        }
+        return page;
+    }
+
+    /**
+     * Rows of word-sized blocks between 1 inch margins, like a page of body text.
+     */
+    private static void drawTextLines(Graphics2D graphics, Random random) {
+        for (int y = 300; y < PAGE_HEIGHT - 300; y += 70) {
+            int x = 300;
+            while (x < PAGE_WIDTH - 400) {
+                int word = 60 + random.nextInt(160);
+                graphics.fillRect(x, y, word, 36);
+                x += word + 28;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.extractor.unraveldocs.ocrprocessing.provider;
+
+import com.extractor.unraveldocs.benchmark.BenchmarkSamples;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Image preparation that runs before Tesseract sees a page: decoding an uploaded scan
+ * and rasterising a PDF page at the 300 DPI used for OCR. Tesseract itself needs native
+ * libraries and language data, so recognition is not measured here.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TesseractPreprocessingBenchmark {
+    private byte[] scanBytes;
+    private byte[] pdfBytes;
+
+    @Setup
+    public void setUp() {
+        scanBytes = BenchmarkSamples.load(BenchmarkSamples.SCAN_PNG);
+        pdfBytes = BenchmarkSamples.load(BenchmarkSamples.TEXT_PDF);
+    }
+
+    @Benchmark
+    public BufferedImage decodeScan() throws Exception {
+        return ImageIO.read(new ByteArrayInputStream(scanBytes));
+    }
+
+    @Benchmark
+    public BufferedImage renderPdfPageForOcr() throws Exception {
+        try (PDDocument document = Loader.loadPDF(pdfBytes)) {
+            return new PDFRenderer(document).renderImageWithDPI(0, 300);
+        }
+    }
+}
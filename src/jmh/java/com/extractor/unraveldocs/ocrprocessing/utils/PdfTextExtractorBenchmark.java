@@ -0,0 +1,29 @@
+package com.extractor.unraveldocs.ocrprocessing.utils;
+
+import com.extractor.unraveldocs.benchmark.BenchmarkSamples;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Direct text extraction from a 12-page digital PDF, the path taken before any OCR fallback.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfTextExtractorBenchmark {
+    private byte[] pdfBytes;
+
+    @Setup
+    public void setUp() {
+        pdfBytes = BenchmarkSamples.load(BenchmarkSamples.TEXT_PDF);
+    }
+
+    @Benchmark
+    public String extractAllPages() throws Exception {
+        return PdfTextExtractor.extractTextFromBytes(pdfBytes, null, null, "eng");
+    }
+}
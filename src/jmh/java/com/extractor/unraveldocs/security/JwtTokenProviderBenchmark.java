@@ -0,0 +1,52 @@
+package com.extractor.unraveldocs.security;
+
+import com.extractor.unraveldocs.auth.datamodel.Role;
+import com.extractor.unraveldocs.user.model.User;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token parsing as done by the authentication filter on every request.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+    private JwtTokenProvider jwtTokenProvider;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        byte[] secret = new byte[64];
+        new Random(42).nextBytes(secret);
+        jwtTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", Base64.getEncoder().encodeToString(secret));
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtAccessExpirationInMs", 3_600_000L);
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtRefreshExpirationInMs", 2_592_000_000L);
+
+        User user = new User();
+        user.setId("2f1c7a52-3a8e-4a4e-9d0b-6f1f0f3c9b11");
+        user.setEmail("benchmark@example.com");
+        user.setRole(Role.USER);
+        user.setVerified(true);
+        accessToken = jwtTokenProvider.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(accessToken);
+    }
+
+    @Benchmark
+    public Claims parseClaims() {
+        return jwtTokenProvider.getAllClaimsFromToken(accessToken);
+    }
+}
@@ -0,0 +1,38 @@
+package com.extractor.unraveldocs.wordexport.impl;
+
+import com.extractor.unraveldocs.benchmark.BenchmarkSamples;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DOCX generation for plain OCR text and for editor HTML, written to a discarding stream.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocxExportBenchmark {
+    private final DocxExportServiceImpl docxExportService = new DocxExportServiceImpl();
+    private String plainText;
+    private String html;
+
+    @Setup
+    public void setUp() {
+        plainText = BenchmarkSamples.plainText(10);
+        html = BenchmarkSamples.editorHtml(20);
+    }
+
+    @Benchmark
+    public void exportPlainText() throws Exception {
+        docxExportService.writeDocx(plainText, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void exportHtml() throws Exception {
+        docxExportService.writeDocx(html, OutputStream.nullOutputStream());
+    }
+}
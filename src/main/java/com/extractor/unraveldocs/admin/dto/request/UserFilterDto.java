@@ -30,6 +30,17 @@ public class UserFilterDto {
     private Boolean hasTeam;
     private Boolean isBlocked;
 
+    /**
+     * Cursor returned as {@code nextCursor} by the previous page. Takes precedence over
+     * {@code page}; use it for anything past the first few pages.
+     */
+    private String cursor;
+
+    /**
+     * Count the matching users exactly instead of returning the planner's estimate.
+     */
+    private boolean exactCount = false;
+
     @Min(value = 0, message = "Page must not be negative")
     private int page = 0;
 
@@ -15,4 +15,14 @@ public class UserListData {
     private int totalPages;
     private int currentPage;
     private int pageSize;
+
+    /**
+     * Cursor to pass in the next request to get the following page; null on the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * Whether {@code totalUsers} is an exact count rather than an estimate.
+     */
+    private boolean totalExact = true;
 }
@@ -1,33 +1,60 @@
 package com.extractor.unraveldocs.admin.impl;
 
 import com.extractor.unraveldocs.admin.repository.OtpRepository;
+import com.extractor.unraveldocs.scheduling.ChunkResult;
+import com.extractor.unraveldocs.scheduling.ClusterJob;
+import com.extractor.unraveldocs.scheduling.ClusterJobRunner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 
 /**
  * Service responsible for OTP cleanup operations:
  * 1. Marks expired OTPs (runs every 5 minutes)
- * 2. Deletes OTPs expired for more than 24 hours (runs daily at 2 AM)
+ * 2. Deletes OTPs expired for more than 24 hours (runs daily at 1 AM)
+ * <p>
+ * Each cleanup is a single bulk statement, so it runs once per cluster as a
+ * single-chunk job rather than on every node.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class OtpCleanupServiceImpl {
+    static final String MARK_EXPIRED_JOB = "otp-mark-expired";
+    static final String DELETE_EXPIRED_JOB = "otp-delete-expired";
+
     private final OtpRepository otpRepository;
+    private final ClusterJobRunner clusterJobRunner;
 
     /**
      * Scheduled task to mark expired OTPs as expired.
      * Runs every 5 minutes for timely expiration status updates.
-     * Uses bulk update for efficiency.
      */
     @Scheduled(cron = "0 */5 * * * ?")
-    @Transactional
-    public void markExpiredOtps() {
+    public void scheduleMarkExpiredOtps() {
+        clusterJobRunner.run(ClusterJob.single(MARK_EXPIRED_JOB,
+                (range, runStartedAt) -> ChunkResult.of(markExpiredOtps())));
+    }
+
+    /**
+     * Scheduled task to delete OTPs that have been expired for more than 24 hours.
+     * Runs daily at 1:00 AM to clean up old OTP records.
+     */
+    @Scheduled(cron = "0 0 1 * * ?")
+    public void scheduleDeleteOldExpiredOtps() {
+        clusterJobRunner.run(ClusterJob.single(DELETE_EXPIRED_JOB,
+                (range, runStartedAt) -> ChunkResult.of(deleteOldExpiredOtps())));
+    }
+
+    /**
+     * Marks expired OTPs as expired. Uses bulk update for efficiency.
+     *
+     * @return number of OTPs marked
+     */
+    public int markExpiredOtps() {
         try {
             OffsetDateTime now = OffsetDateTime.now();
             int updatedCount = otpRepository.markExpiredOtps(now);
@@ -35,19 +62,20 @@ public class OtpCleanupServiceImpl {
             if (updatedCount > 0) {
                 log.info("Marked {} OTP(s) as expired", updatedCount);
             }
+            return updatedCount;
         } catch (Exception e) {
             log.error("Error marking expired OTPs: {}", e.getMessage(), e);
+            return 0;
         }
     }
 
     /**
-     * Scheduled task to delete OTPs that have been expired for more than 24 hours.
-     * Runs daily at 1:00 AM to clean up old OTP records.
-     * Uses bulk delete for efficiency.
+     * Deletes OTPs that have been expired for more than 24 hours. Uses bulk delete for
+     * efficiency.
+     *
+     * @return number of OTPs deleted
      */
-    @Scheduled(cron = "0 0 1 * * ?")
-    @Transactional
-    public void deleteOldExpiredOtps() {
+    public int deleteOldExpiredOtps() {
         try {
             OffsetDateTime threshold = OffsetDateTime.now().minusHours(24);
             int deletedCount = otpRepository.deleteExpiredOtpsOlderThan(threshold);
@@ -55,9 +83,10 @@ public class OtpCleanupServiceImpl {
             if (deletedCount > 0) {
                 log.info("Deleted {} expired OTP(s) older than 24 hours", deletedCount);
             }
+            return deletedCount;
         } catch (Exception e) {
             log.error("Error deleting old expired OTPs: {}", e.getMessage(), e);
+            return 0;
         }
     }
 }
-
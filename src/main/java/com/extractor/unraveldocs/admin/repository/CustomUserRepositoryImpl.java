@@ -1,125 +1,299 @@
 package com.extractor.unraveldocs.admin.repository;
 
 import com.extractor.unraveldocs.admin.dto.request.UserFilterDto;
-import com.extractor.unraveldocs.user.model.User;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.TypedQuery;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
+import com.extractor.unraveldocs.admin.dto.response.UserSummary;
+import com.extractor.unraveldocs.auth.datamodel.Role;
+import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+/**
+ * Admin user listing on PostgreSQL.
+ * <p>
+ * Searches match substrings of the lowered names and email through the trigram
+ * indexes of V69. Pages after the first few are read by keyset: the cursor holds the
+ * sort value and id of the last user returned and the next page starts right after
+ * it, using the {@code (column, id)} index of the sort column. The total is the
+ * planner's row estimate for the filter unless an exact count is asked for, or the
+ * last page has been reached and the total is known anyway. The page and the total
+ * are read in one read-only transaction.
+ */
+@Slf4j
 @Repository
+@RequiredArgsConstructor
 public class CustomUserRepositoryImpl implements CustomUserRepository {
 
-    @PersistenceContext
-    private EntityManager entityManager;
+    /**
+     * Sortable properties and their columns. Only {@code last_login} can be null.
+     */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "createdAt", "u.created_at",
+            "lastLogin", "u.last_login",
+            "email", "u.email",
+            "firstName", "u.first_name",
+            "lastName", "u.last_name");
 
+    private static final String SELECT_SQL = """
+            SELECT u.id, u.image_url, u.first_name, u.last_name, u.email, u.role, u.is_active,
+                   u.is_verified, u.last_login, u.created_at, u.updated_at
+            FROM users u
+            """;
+
+    private static final String COUNT_SQL = "SELECT count(*) FROM users u";
+
+    private static final String ESTIMATE_SQL = "EXPLAIN SELECT 1 FROM users u";
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+    private static final RowMapper<UserSummary> USER_SUMMARY = (rs, rowNum) -> {
+        Timestamp lastLogin = rs.getTimestamp("last_login");
+        return new UserSummary(
+                rs.getString("id"),
+                rs.getString("image_url"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("email"),
+                Role.valueOf(rs.getString("role").toUpperCase(Locale.ROOT)),
+                rs.getBoolean("is_active"),
+                rs.getBoolean("is_verified"),
+                lastLogin != null ? OffsetDateTime.ofInstant(lastLogin.toInstant(), ZoneId.systemDefault()) : null,
+                rs.getObject("created_at", OffsetDateTime.class),
+                rs.getObject("updated_at", OffsetDateTime.class));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Read-only, so it is routed to a replica when routing is enabled, and repeatable
+     * read, so the page and its total come from one snapshot.
+     */
     @Override
-    public Page<User> findAllUsers(UserFilterDto filter, Pageable pageable) {
-        StringBuilder selectStr = new StringBuilder("SELECT DISTINCT u FROM User u ");
-        StringBuilder countSelectStr = new StringBuilder("SELECT COUNT(DISTINCT u) FROM User u ");
-        
-        StringBuilder joins = new StringBuilder();
-        StringBuilder where = new StringBuilder(" WHERE u.deletedAt IS NULL ");
-
-        // Complex Joins based on filters
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public UserSearchPage searchUsers(UserFilterDto filter) {
+        String sortBy = filter.getSortBy();
+        String sortColumn = SORT_COLUMNS.get(sortBy);
+        if (sortColumn == null) {
+            throw new BadRequestException("Cannot sort users by " + sortBy);
+        }
+        boolean descending = "desc".equalsIgnoreCase(filter.getSortOrder());
+        int size = filter.getSize();
+
+        UserSearchCursor cursor = null;
+        if (filter.getCursor() != null && !filter.getCursor().isBlank()) {
+            cursor = UserSearchCursor.decode(filter.getCursor(), objectMapper);
+            if (!cursor.sortBy().equals(sortBy) || cursor.descending() != descending) {
+                throw new BadRequestException("Cursor does not match the requested sort order");
+            }
+        }
+        int page = cursor != null ? cursor.page() : filter.getPage();
+
+        List<Object> filterArgs = new ArrayList<>();
+        String where = buildWhere(filter, filterArgs);
+
+        // One row more than the page tells whether there is a next page
+        StringBuilder sql = new StringBuilder(SELECT_SQL).append(where);
+        List<Object> args = new ArrayList<>(filterArgs);
+        if (cursor != null) {
+            sql.append(keysetPredicate(sortColumn, descending, cursor, args));
+        }
+        String direction = descending ? "DESC" : "ASC";
+        sql.append(" ORDER BY ").append(sortColumn).append(' ').append(direction)
+                .append(", u.id ").append(direction)
+                .append(" LIMIT ?");
+        args.add(size + 1);
+        if (cursor == null && page > 0) {
+            sql.append(" OFFSET ?");
+            args.add((long) page * size);
+        }
+
+        List<UserSummary> users = new ArrayList<>(jdbcTemplate.query(sql.toString(), USER_SUMMARY, args.toArray()));
+        boolean hasMore = users.size() > size;
+        if (hasMore) {
+            users = users.subList(0, size);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            UserSummary last = users.getLast();
+            nextCursor = new UserSearchCursor(sortBy, descending, sortValue(sortBy, last), last.getId(), page + 1)
+                    .encode(objectMapper);
+        }
+
+        long seen = (long) page * size + users.size();
+        if (!hasMore && (page == 0 || !users.isEmpty())) {
+            return new UserSearchPage(users, page, seen, true, null);
+        }
+        if (filter.isExactCount()) {
+            return new UserSearchPage(users, page, count(where, filterArgs), true, nextCursor);
+        }
+        long estimate = estimate(where, filterArgs);
+        if (estimate < 0) {
+            return new UserSearchPage(users, page, count(where, filterArgs), true, nextCursor);
+        }
+        // There is at least one more user than those seen so far
+        return new UserSearchPage(users, page, Math.max(estimate, seen + (hasMore ? 1 : 0)), false, nextCursor);
+    }
+
+    private String buildWhere(UserFilterDto filter, List<Object> args) {
+        StringBuilder where = new StringBuilder(" WHERE u.deleted_at IS NULL");
+
         if (filter.getSubscriptionPlan() != null) {
-            joins.append(" LEFT JOIN u.subscription sub LEFT JOIN sub.plan p ");
-            where.append(" AND p.name = :subscriptionPlan");
+            where.append(" AND EXISTS (SELECT 1 FROM user_subscriptions s JOIN subscription_plans p ON p.id = s.plan_id")
+                    .append(" WHERE s.user_id = u.id AND p.name = ?)");
+            args.add(filter.getSubscriptionPlan().name());
         }
         if (filter.getIsBlocked() != null) {
-            joins.append(" LEFT JOIN u.loginAttempts la ");
-            where.append(" AND la.isBlocked = :isBlocked");
+            where.append(" AND EXISTS (SELECT 1 FROM login_attempts la WHERE la.user_id = u.id AND la.is_blocked = ?)");
+            args.add(filter.getIsBlocked());
         }
         if (filter.getHasTeam() != null) {
-            if (filter.getHasTeam()) {
-                where.append(" AND EXISTS (SELECT 1 FROM TeamMember tm WHERE tm.user = u) ");
-            } else {
-                where.append(" AND NOT EXISTS (SELECT 1 FROM TeamMember tm WHERE tm.user = u) ");
-            }
+            where.append(filter.getHasTeam() ? " AND EXISTS" : " AND NOT EXISTS")
+                    .append(" (SELECT 1 FROM team_members tm WHERE tm.user_id = u.id)");
         }
 
-        // Basic Filters
+        // Each condition matches one trigram index
         if (filter.getSearch() != null && !filter.getSearch().trim().isEmpty()) {
-            where.append(" AND (LOWER(u.firstName) LIKE LOWER(CONCAT('%', :search, '%'))")
-                 .append(" OR LOWER(u.lastName) LIKE LOWER(CONCAT('%', :search, '%'))")
-                 .append(" OR LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')))");
-        }
-        if (filter.getFirstName() != null) where.append(" AND u.firstName = :firstName");
-        if (filter.getLastName() != null) where.append(" AND u.lastName = :lastName");
-        if (filter.getEmail() != null) where.append(" AND u.email = :email");
-        if (filter.getRole() != null) where.append(" AND u.role = :role");
-        if (filter.getIsActive() != null) where.append(" AND u.isActive = :isActive");
-        if (filter.getIsVerified() != null) where.append(" AND u.isVerified = :isVerified");
-        if (filter.getIsPlatformAdmin() != null) where.append(" AND u.isPlatformAdmin = :isPlatformAdmin");
-        if (filter.getIsOrganizationAdmin() != null) where.append(" AND u.isOrganizationAdmin = :isOrganizationAdmin");
-        if (filter.getCountry() != null) where.append(" AND u.country = :country");
-        if (filter.getProfession() != null) where.append(" AND u.profession = :profession");
-        if (filter.getOrganization() != null) where.append(" AND u.organization = :organization");
-        if (filter.getCreatedAfter() != null) where.append(" AND u.createdAt >= :createdAfter");
-        if (filter.getCreatedBefore() != null) where.append(" AND u.createdAt <= :createdBefore");
-        if (filter.getLastLoginAfter() != null) where.append(" AND u.lastLogin >= :lastLoginAfter");
-        if (filter.getLastLoginBefore() != null) where.append(" AND u.lastLogin <= :lastLoginBefore");
-
-        // Order By
-        StringBuilder orderBy = new StringBuilder();
-        if (pageable.getSort().isSorted()) {
-            orderBy.append(" ORDER BY ");
-            pageable.getSort().forEach(order -> {
-                orderBy.append("u.").append(order.getProperty()).append(" ").append(order.getDirection().name()).append(", ");
-            });
-            orderBy.setLength(orderBy.length() - 2); // remove last comma
-        }
-
-        // Create Queries
-        String fullDataQuery = selectStr.toString() + joins.toString() + where.toString() + orderBy.toString();
-        String fullCountQuery = countSelectStr.toString() + joins.toString() + where.toString();
-
-        TypedQuery<User> query = entityManager.createQuery(fullDataQuery, User.class);
-        TypedQuery<Long> countQuery = entityManager.createQuery(fullCountQuery, Long.class);
-
-        // Set parameters
-        if (filter.getSubscriptionPlan() != null) {
-            query.setParameter("subscriptionPlan", filter.getSubscriptionPlan().name());
-            countQuery.setParameter("subscriptionPlan", filter.getSubscriptionPlan().name());
+            String pattern = "%" + escapeLike(filter.getSearch().trim().toLowerCase(Locale.ROOT)) + "%";
+            where.append(" AND (lower(u.first_name) LIKE ? OR lower(u.last_name) LIKE ? OR lower(u.email) LIKE ?)");
+            args.add(pattern);
+            args.add(pattern);
+            args.add(pattern);
         }
-        if (filter.getIsBlocked() != null) {
-            query.setParameter("isBlocked", filter.getIsBlocked());
-            countQuery.setParameter("isBlocked", filter.getIsBlocked());
+
+        appendEquals(where, args, "u.first_name", filter.getFirstName());
+        appendEquals(where, args, "u.last_name", filter.getLastName());
+        appendEquals(where, args, "u.email", filter.getEmail());
+        appendEquals(where, args, "u.role", filter.getRole() != null ? filter.getRole().name() : null);
+        appendEquals(where, args, "u.is_active", filter.getIsActive());
+        appendEquals(where, args, "u.is_verified", filter.getIsVerified());
+        appendEquals(where, args, "u.is_platform_admin", filter.getIsPlatformAdmin());
+        appendEquals(where, args, "u.is_organization_admin", filter.getIsOrganizationAdmin());
+        appendEquals(where, args, "u.country", filter.getCountry());
+        appendEquals(where, args, "u.profession", filter.getProfession());
+        appendEquals(where, args, "u.organization", filter.getOrganization());
+        appendBound(where, args, "u.created_at >= ?", filter.getCreatedAfter());
+        appendBound(where, args, "u.created_at <= ?", filter.getCreatedBefore());
+        appendBound(where, args, "u.last_login >= ?", toLastLogin(filter.getLastLoginAfter()));
+        appendBound(where, args, "u.last_login <= ?", toLastLogin(filter.getLastLoginBefore()));
+
+        return where.toString();
+    }
+
+    /**
+     * Rows after the cursor in {@code ORDER BY column, id}, with PostgreSQL's default null
+     * placement: nulls last when ascending, first when descending.
+     */
+    private String keysetPredicate(String column, boolean descending, UserSearchCursor cursor, List<Object> args) {
+        Object value = cursorValue(cursor);
+        if (!descending) {
+            if (value == null) {
+                args.add(cursor.id());
+                return " AND (" + column + " IS NULL AND u.id > ?)";
+            }
+            args.add(value);
+            args.add(cursor.id());
+            return " AND ((" + column + ", u.id) > (?, ?) OR " + column + " IS NULL)";
         }
+        if (value == null) {
+            args.add(cursor.id());
+            return " AND ((" + column + " IS NULL AND u.id < ?) OR " + column + " IS NOT NULL)";
+        }
+        args.add(value);
+        args.add(cursor.id());
+        return " AND (" + column + ", u.id) < (?, ?)";
+    }
 
-        if (filter.getSearch() != null && !filter.getSearch().trim().isEmpty()) {
-            query.setParameter("search", filter.getSearch().trim());
-            countQuery.setParameter("search", filter.getSearch().trim());
-        }
-        if (filter.getFirstName() != null) { query.setParameter("firstName", filter.getFirstName()); countQuery.setParameter("firstName", filter.getFirstName()); }
-        if (filter.getLastName() != null) { query.setParameter("lastName", filter.getLastName()); countQuery.setParameter("lastName", filter.getLastName()); }
-        if (filter.getEmail() != null) { query.setParameter("email", filter.getEmail()); countQuery.setParameter("email", filter.getEmail()); }
-        if (filter.getRole() != null) { query.setParameter("role", filter.getRole()); countQuery.setParameter("role", filter.getRole()); }
-        if (filter.getIsActive() != null) { query.setParameter("isActive", filter.getIsActive()); countQuery.setParameter("isActive", filter.getIsActive()); }
-        if (filter.getIsVerified() != null) { query.setParameter("isVerified", filter.getIsVerified()); countQuery.setParameter("isVerified", filter.getIsVerified()); }
-        if (filter.getIsPlatformAdmin() != null) { query.setParameter("isPlatformAdmin", filter.getIsPlatformAdmin()); countQuery.setParameter("isPlatformAdmin", filter.getIsPlatformAdmin()); }
-        if (filter.getIsOrganizationAdmin() != null) { query.setParameter("isOrganizationAdmin", filter.getIsOrganizationAdmin()); countQuery.setParameter("isOrganizationAdmin", filter.getIsOrganizationAdmin()); }
-        if (filter.getCountry() != null) { query.setParameter("country", filter.getCountry()); countQuery.setParameter("country", filter.getCountry()); }
-        if (filter.getProfession() != null) { query.setParameter("profession", filter.getProfession()); countQuery.setParameter("profession", filter.getProfession()); }
-        if (filter.getOrganization() != null) { query.setParameter("organization", filter.getOrganization()); countQuery.setParameter("organization", filter.getOrganization()); }
-        if (filter.getCreatedAfter() != null) { query.setParameter("createdAfter", filter.getCreatedAfter()); countQuery.setParameter("createdAfter", filter.getCreatedAfter()); }
-        if (filter.getCreatedBefore() != null) { query.setParameter("createdBefore", filter.getCreatedBefore()); countQuery.setParameter("createdBefore", filter.getCreatedBefore()); }
-        if (filter.getLastLoginAfter() != null) { query.setParameter("lastLoginAfter", filter.getLastLoginAfter()); countQuery.setParameter("lastLoginAfter", filter.getLastLoginAfter()); }
-        if (filter.getLastLoginBefore() != null) { query.setParameter("lastLoginBefore", filter.getLastLoginBefore()); countQuery.setParameter("lastLoginBefore", filter.getLastLoginBefore()); }
-
-        Long total = countQuery.getSingleResult();
-
-        query.setFirstResult((int) pageable.getOffset());
-        query.setMaxResults(pageable.getPageSize());
-
-        List<User> users = query.getResultList();
-
-        return new PageImpl<>(users, pageable, total);
+    private long count(String where, List<Object> args) {
+        Long total = jdbcTemplate.queryForObject(COUNT_SQL + where, Long.class, args.toArray());
+        return total != null ? total : 0L;
+    }
+
+    /**
+     * @return the planner's estimate of the matching rows, or -1 if it could not be read
+     */
+    private long estimate(String where, List<Object> args) {
+        try {
+            List<String> plan = jdbcTemplate.queryForList(ESTIMATE_SQL + where, String.class, args.toArray());
+            if (!plan.isEmpty()) {
+                Matcher rows = PLAN_ROWS.matcher(plan.getFirst());
+                if (rows.find()) {
+                    return Long.parseLong(rows.group(1));
+                }
+            }
+            log.warn("No row estimate in user search plan: {}", plan);
+        } catch (DataAccessException e) {
+            log.warn("Could not estimate user search total, counting instead: {}", e.getMessage());
+        }
+        return -1;
+    }
+
+    private static String sortValue(String sortBy, UserSummary user) {
+        Object value = switch (sortBy) {
+            case "createdAt" -> user.getCreatedAt();
+            case "lastLogin" -> user.getLastLogin();
+            case "email" -> user.getEmail();
+            case "firstName" -> user.getFirstName();
+            default -> user.getLastName();
+        };
+        return value != null ? value.toString() : null;
     }
-}
 
+    private static Object cursorValue(UserSearchCursor cursor) {
+        if (cursor.value() == null) {
+            return null;
+        }
+        try {
+            return switch (cursor.sortBy()) {
+                case "createdAt" -> OffsetDateTime.parse(cursor.value());
+                case "lastLogin" -> toLastLogin(OffsetDateTime.parse(cursor.value()));
+                default -> cursor.value();
+            };
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid user search cursor");
+        }
+    }
+
+    /**
+     * {@code users.last_login} is stored without a time zone, in the application's zone.
+     */
+    private static LocalDateTime toLastLogin(OffsetDateTime value) {
+        return value != null ? value.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime() : null;
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static void appendEquals(StringBuilder where, List<Object> args, String column, Object value) {
+        if (value != null) {
+            where.append(" AND ").append(column).append(" = ?");
+            args.add(value);
+        }
+    }
+
+    private static void appendBound(StringBuilder where, List<Object> args, String condition, Object value) {
+        if (value != null) {
+            where.append(" AND ").append(condition);
+            args.add(value);
+        }
+    }
+}
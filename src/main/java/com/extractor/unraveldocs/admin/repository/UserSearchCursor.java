@@ -0,0 +1,41 @@
+package com.extractor.unraveldocs.admin.repository;
+
+import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Base64;
+
+/**
+ * Position in the admin user listing: the sort key and id of the last user returned.
+ * Handed to clients as an opaque string.
+ *
+ * @param sortBy     Property the pages are sorted by
+ * @param descending Whether the pages are sorted in descending order
+ * @param value      Sort value of the last user of the previous page, null if it had none
+ * @param id         Id of the last user of the previous page
+ * @param page       Number of the page the cursor leads to
+ */
+public record UserSearchCursor(String sortBy, boolean descending, String value, String id, int page) {
+
+    public String encode(ObjectMapper mapper) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mapper.writeValueAsBytes(this));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not encode user search cursor", e);
+        }
+    }
+
+    public static UserSearchCursor decode(String cursor, ObjectMapper mapper) {
+        try {
+            UserSearchCursor decoded = mapper.readValue(Base64.getUrlDecoder().decode(cursor), UserSearchCursor.class);
+            if (decoded.sortBy() == null || decoded.id() == null || decoded.page() < 1) {
+                throw new BadRequestException("Invalid user search cursor");
+            }
+            return decoded;
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new BadRequestException("Invalid user search cursor");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.extractor.unraveldocs.admin.repository;
+
+import com.extractor.unraveldocs.admin.dto.response.UserSummary;
+
+import java.util.List;
+
+/**
+ * One page of the admin user listing.
+ *
+ * @param users      Users on the page
+ * @param page       Number of the page
+ * @param total      Number of matching users, estimated unless {@code totalExact}
+ * @param totalExact Whether {@code total} was counted
+ * @param nextCursor Cursor to the following page, null on the last page
+ */
+public record UserSearchPage(List<UserSummary> users, int page, long total, boolean totalExact, String nextCursor) {
+}
@@ -2,17 +2,16 @@ package com.extractor.unraveldocs.admin.service.impl;
 
 import com.extractor.unraveldocs.admin.dto.response.DocumentStatsDto;
 import com.extractor.unraveldocs.admin.interfaces.AdminDocumentStatsService;
-import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
+import com.extractor.unraveldocs.metrics.kpi.model.KpiTotals;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiQueryService;
 import com.extractor.unraveldocs.shared.response.ResponseBuilderService;
 import com.extractor.unraveldocs.shared.response.UnravelDocsResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 
 @Service
@@ -20,31 +19,27 @@ import java.util.Map;
 @Slf4j
 public class AdminDocumentStatsServiceImpl implements AdminDocumentStatsService {
 
-    private final DocumentCollectionRepository documentCollectionRepository;
+    private final KpiQueryService kpiQueryService;
     private final ResponseBuilderService responseBuilderService;
 
     @Override
-    @Transactional(readOnly = true)
     public UnravelDocsResponse<DocumentStatsDto> getDocumentStats() {
         log.info("Fetching admin document statistics");
 
-        long totalCollections = documentCollectionRepository.count();
-        long totalFiles = documentCollectionRepository.countTotalFiles();
-        long totalStorageBytes = documentCollectionRepository.sumTotalStorageBytes();
-        long encryptedDocuments = documentCollectionRepository.countEncryptedDocuments();
+        // Precomputed by the KPI store and corrected by its reconciliation job
+        KpiTotals totals = kpiQueryService.totals();
+        long totalCollections = totals.get(KpiTotals.COLLECTIONS);
+        long totalFiles = totals.get(KpiTotals.FILES);
+        long totalStorageBytes = totals.get(KpiTotals.FILE_BYTES);
+        long encryptedDocuments = totals.get(KpiTotals.FILES_ENCRYPTED);
 
-        List<Object[]> filesByTypeRaw = documentCollectionRepository.countFilesByType();
-        Map<String, Long> filesByType = new LinkedHashMap<>();
-        for (Object[] row : filesByTypeRaw) {
-            filesByType.put((String) row[0], ((Number) row[1]).longValue());
-        }
+        Map<String, Long> filesByType = new LinkedHashMap<>(totals.family(KpiTotals.FILES_BY_TYPE));
 
-        List<Object[]> filesByStatusRaw = documentCollectionRepository.countFilesByStatus();
         Map<String, Long> filesByStatus = new LinkedHashMap<>();
         long successCount = 0;
-        for (Object[] row : filesByStatusRaw) {
-            String status = (String) row[0];
-            long count = ((Number) row[1]).longValue();
+        for (Map.Entry<String, Long> entry : totals.family(KpiTotals.FILES_BY_STATUS).entrySet()) {
+            String status = entry.getKey();
+            long count = entry.getValue();
             filesByStatus.put(status, count);
             if ("COMPLETED".equalsIgnoreCase(status) || "SUCCESS".equalsIgnoreCase(status)) {
                 successCount += count;
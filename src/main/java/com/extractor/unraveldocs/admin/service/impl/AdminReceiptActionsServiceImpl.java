@@ -2,10 +2,12 @@ package com.extractor.unraveldocs.admin.service.impl;
 
 import com.extractor.unraveldocs.admin.interfaces.AdminReceiptActionsService;
 import com.extractor.unraveldocs.payment.receipt.dto.ReceiptData;
+import com.extractor.unraveldocs.payment.receipt.enums.ReceiptStage;
 import com.extractor.unraveldocs.payment.receipt.model.Receipt;
 import com.extractor.unraveldocs.payment.receipt.repository.ReceiptRepository;
 import com.extractor.unraveldocs.payment.receipt.service.ReceiptEmailService;
 import com.extractor.unraveldocs.payment.receipt.service.ReceiptPdfService;
+import com.extractor.unraveldocs.payment.receipt.service.ReceiptPipeline;
 import com.extractor.unraveldocs.shared.response.ResponseBuilderService;
 import com.extractor.unraveldocs.shared.response.UnravelDocsResponse;
 import com.extractor.unraveldocs.user.model.User;
@@ -26,6 +28,7 @@ public class AdminReceiptActionsServiceImpl implements AdminReceiptActionsServic
     private final ReceiptRepository receiptRepository;
     private final ReceiptPdfService receiptPdfService;
     private final ReceiptEmailService receiptEmailService;
+    private final ReceiptPipeline receiptPipeline;
     private final ResponseBuilderService responseBuilder;
 
     @Override
@@ -41,6 +44,15 @@ public class AdminReceiptActionsServiceImpl implements AdminReceiptActionsServic
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Receipt does not have a valid associated user email");
         }
 
+        // A receipt still in the pipeline is emailed by its deliver stage
+        if (receipt.getStage() != null && receipt.getStage() != ReceiptStage.DONE) {
+            if (receiptPipeline.resume(receiptId)) {
+                log.info("Resumed parked receipt ID {} at stage {}", receiptId, receipt.getStage());
+                return responseBuilder.buildUserResponse("Receipt processing resumed", HttpStatus.OK, "Success");
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Receipt is still being processed");
+        }
+
         try {
             // Reconstruct ReceiptData
             ReceiptData data = ReceiptData.builder()
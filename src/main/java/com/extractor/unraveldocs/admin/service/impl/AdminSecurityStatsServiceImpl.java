@@ -3,6 +3,7 @@ package com.extractor.unraveldocs.admin.service.impl;
 import com.extractor.unraveldocs.admin.dto.response.SecurityStatsDto;
 import com.extractor.unraveldocs.admin.interfaces.AdminSecurityStatsService;
 import com.extractor.unraveldocs.auth.datamodel.Role;
+import com.extractor.unraveldocs.loginattempts.interfaces.LoginAttemptsService;
 import com.extractor.unraveldocs.loginattempts.repository.LoginAttemptsRepository;
 import com.extractor.unraveldocs.shared.response.ResponseBuilderService;
 import com.extractor.unraveldocs.shared.response.UnravelDocsResponse;
@@ -13,7 +14,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +25,7 @@ public class AdminSecurityStatsServiceImpl implements AdminSecurityStatsService
 
     private final UserRepository userRepository;
     private final LoginAttemptsRepository loginAttemptsRepository;
+    private final LoginAttemptsService loginAttemptsService;
     private final ResponseBuilderService responseBuilderService;
 
     @Override
@@ -35,8 +36,7 @@ public class AdminSecurityStatsServiceImpl implements AdminSecurityStatsService
         long activeBans = loginAttemptsRepository.countByIsBlockedTrue();
         long twoFactorEnabledUsers = 0; // Not yet implemented in the user model
 
-        LocalDateTime twentyFourHoursAgo = LocalDateTime.now().minusHours(24);
-        long recentFailedLogins = loginAttemptsRepository.sumFailedLoginsSince(twentyFourHoursAgo);
+        long recentFailedLogins = loginAttemptsService.countRecentFailedLogins();
 
         List<Object[]> rolesRaw = userRepository.countByRoleGrouped();
         Map<String, Long> userRoles = new LinkedHashMap<>();
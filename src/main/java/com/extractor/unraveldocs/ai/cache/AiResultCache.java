@@ -0,0 +1,213 @@
+package com.extractor.unraveldocs.ai.cache;
+
+import com.extractor.unraveldocs.ai.config.AiModelConfig;
+import com.extractor.unraveldocs.ai.config.AiProperties;
+import com.extractor.unraveldocs.ai.datamodel.AiCacheOperation;
+import com.extractor.unraveldocs.ai.provider.AiModelProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Two-tier, content-addressed cache for AI results.
+ * <p>
+ * Keys are derived from a SHA-256 hash of the normalized input text combined with
+ * the operation, the model provider, the provider's configured model and a
+ * fingerprint of the prompt template (plus the configured prompt version). Identical
+ * documents therefore share results no matter which upload they came from, and any
+ * change to a prompt template or model yields new keys so stale results are never
+ * served.
+ * <p>
+ * Lookups check a small node-local LRU first and then Redis. Redis errors are
+ * logged and treated as misses so the cache can never break an AI request.
+ */
+@Slf4j
+@Component
+public class AiResultCache {
+
+    private static final String KEY_PREFIX = "ai:result:";
+    private static final String METRIC_NAME = "ai.cache.lookups";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final StringRedisTemplate redisTemplate;
+    private final AiProperties aiProperties;
+    private final AiModelConfig aiModelConfig;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, LocalEntry> localEntries;
+
+    public AiResultCache(StringRedisTemplate redisTemplate, AiProperties aiProperties,
+                         AiModelConfig aiModelConfig, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.aiProperties = aiProperties;
+        this.aiModelConfig = aiModelConfig;
+        this.meterRegistry = meterRegistry;
+        int maxEntries = Math.max(1, aiProperties.getCache().getLocalMaxEntries());
+        this.localEntries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LocalEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Hash the normalized form of the input text.
+     * Normalization applies Unicode NFKC and collapses whitespace runs, so texts that
+     * differ only in OCR spacing or line endings share one entry.
+     *
+     * @param text The raw input text
+     * @return A hex-encoded SHA-256 digest
+     */
+    public String hashContent(String text) {
+        String normalized = WHITESPACE.matcher(Normalizer.normalize(text, Normalizer.Form.NFKC))
+                .replaceAll(" ")
+                .strip();
+        return sha256(normalized);
+    }
+
+    /**
+     * Look up a cached result, trying each provider in order.
+     *
+     * @param operation      The AI operation
+     * @param providers      Providers whose results are acceptable, in order of preference
+     * @param promptTemplate The prompt template (or templates) used to produce the result
+     * @param contentHash    The hash returned by {@link #hashContent(String)}
+     * @return The cached result, if any
+     */
+    public Optional<CachedAiResult> get(AiCacheOperation operation, List<AiModelProvider> providers,
+                                        String promptTemplate, String contentHash) {
+        if (!aiProperties.getCache().isEnabled()) {
+            return Optional.empty();
+        }
+
+        for (AiModelProvider provider : providers) {
+            String key = buildKey(operation, provider, promptTemplate, contentHash);
+
+            String local = getLocal(key);
+            if (local != null) {
+                record(operation, "hit_local");
+                return Optional.of(new CachedAiResult(local, provider));
+            }
+
+            String remote = getRemote(key);
+            if (remote != null) {
+                record(operation, "hit_redis");
+                putLocal(key, remote, ttlFor(operation));
+                return Optional.of(new CachedAiResult(remote, provider));
+            }
+        }
+
+        record(operation, "miss");
+        return Optional.empty();
+    }
+
+    /**
+     * Store a result under the provider that actually produced it.
+     *
+     * @param operation      The AI operation
+     * @param provider       The provider that produced the result
+     * @param promptTemplate The prompt template (or templates) used to produce the result
+     * @param contentHash    The hash returned by {@link #hashContent(String)}
+     * @param content        The model output
+     */
+    public void put(AiCacheOperation operation, AiModelProvider provider, String promptTemplate,
+                    String contentHash, String content) {
+        if (!aiProperties.getCache().isEnabled() || content == null || content.isBlank()) {
+            return;
+        }
+
+        String key = buildKey(operation, provider, promptTemplate, contentHash);
+        Duration ttl = ttlFor(operation);
+        putLocal(key, content, ttl);
+        try {
+            redisTemplate.opsForValue().set(key, content, ttl);
+        } catch (Exception e) {
+            log.warn("Failed to write AI result to Redis cache: {}", e.getMessage());
+        }
+    }
+
+    String buildKey(AiCacheOperation operation, AiModelProvider provider, String promptTemplate,
+                    String contentHash) {
+        String promptFingerprint = sha256(aiProperties.getCache().getPromptVersion() + "\n" + promptTemplate)
+                .substring(0, 16);
+        // Model names may contain ':' ("ft:gpt-4o:org"), so they are hashed like the prompt
+        String modelFingerprint = sha256(aiModelConfig.getModelName(provider)).substring(0, 12);
+        return KEY_PREFIX + operation.getKey() + ":" + provider.getKey() + ":" + modelFingerprint + ":"
+                + promptFingerprint + ":" + contentHash;
+    }
+
+    private String getRemote(String key) {
+        try {
+            return redisTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            log.warn("Failed to read AI result from Redis cache: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private String getLocal(String key) {
+        synchronized (localEntries) {
+            LocalEntry entry = localEntries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAtMillis() < System.currentTimeMillis()) {
+                localEntries.remove(key);
+                return null;
+            }
+            return entry.content();
+        }
+    }
+
+    private void putLocal(String key, String content, Duration ttl) {
+        long localTtlMillis = Math.min(ttl.toMillis(),
+                Duration.ofMinutes(aiProperties.getCache().getLocalTtlMinutes()).toMillis());
+        synchronized (localEntries) {
+            localEntries.put(key, new LocalEntry(content, System.currentTimeMillis() + localTtlMillis));
+        }
+    }
+
+    private Duration ttlFor(AiCacheOperation operation) {
+        AiProperties.CacheConfig config = aiProperties.getCache();
+        return switch (operation) {
+            case SHORT_SUMMARY, DETAILED_SUMMARY -> Duration.ofHours(config.getSummaryTtlHours());
+            case CHUNK_SUMMARY -> Duration.ofHours(config.getChunkSummaryTtlHours());
+            case CLASSIFICATION -> Duration.ofHours(config.getClassificationTtlHours());
+        };
+    }
+
+    private void record(AiCacheOperation operation, String result) {
+        meterRegistry.counter(METRIC_NAME, "operation", operation.getKey(), "result", result).increment();
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record LocalEntry(String content, long expiresAtMillis) {
+    }
+
+    /**
+     * A cached AI result and the provider that produced it.
+     */
+    public record CachedAiResult(String content, AiModelProvider provider) {
+    }
+}
@@ -1,32 +1,40 @@
 package com.extractor.unraveldocs.ai.config;
 
 import com.extractor.unraveldocs.ai.provider.AiModelProvider;
+import com.extractor.unraveldocs.ai.provider.GuardedChatModel;
+import com.extractor.unraveldocs.outbound.service.OutboundCallGuard;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.mistralai.MistralAiChatModel;
 import org.springframework.ai.openai.OpenAiChatModel;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
 /**
  * Configuration for AI model selection and fallback logic.
  * Provides the appropriate ChatModel based on the requested provider,
  * with automatic fallback to a secondary provider if the primary is
- * unavailable.
+ * unavailable. Models are wrapped in the provider's circuit breaker, so a
+ * provider that keeps failing or timing out is skipped until it recovers.
  */
 @Slf4j
 @Configuration
 public class AiModelConfig {
 
-    private final OpenAiChatModel openAiChatModel;
-    private final MistralAiChatModel mistralAiChatModel;
+    private final ChatModel openAiChatModel;
+    private final ChatModel mistralAiChatModel;
     private final AiProperties aiProperties;
 
     public AiModelConfig(
             OpenAiChatModel openAiChatModel,
             MistralAiChatModel mistralAiChatModel,
-            AiProperties aiProperties) {
-        this.openAiChatModel = openAiChatModel;
-        this.mistralAiChatModel = mistralAiChatModel;
+            AiProperties aiProperties,
+            OutboundCallGuard outboundCallGuard) {
+        this.openAiChatModel = new GuardedChatModel(openAiChatModel, outboundCallGuard, AiModelProvider.OPENAI);
+        this.mistralAiChatModel = new GuardedChatModel(
+                mistralAiChatModel, outboundCallGuard, AiModelProvider.MISTRAL_AI);
         this.aiProperties = aiProperties;
     }
 
@@ -43,6 +51,18 @@ public class AiModelConfig {
         };
     }
 
+    /**
+     * Get the name of the model a provider is configured to use, e.g. {@code gpt-4o-mini}.
+     *
+     * @param provider The AI model provider
+     * @return The configured model name, or {@code "default"} if the provider does not report one
+     */
+    public String getModelName(AiModelProvider provider) {
+        ChatOptions options = getModel(provider).getDefaultOptions();
+        String model = options != null ? options.getModel() : null;
+        return model != null && !model.isBlank() ? model : "default";
+    }
+
     /**
      * Get the default AI model provider.
      *
@@ -69,4 +89,19 @@ public class AiModelConfig {
     public boolean isFallbackEnabled() {
         return aiProperties.isFallbackEnabled();
     }
+
+    /**
+     * Get the providers whose output is acceptable for a request to the given provider:
+     * the provider itself, followed by the fallback provider when fallback is enabled.
+     *
+     * @param provider The requested provider
+     * @return The acceptable providers in order of preference
+     */
+    public List<AiModelProvider> getAcceptableProviders(AiModelProvider provider) {
+        AiModelProvider fallback = getFallbackProvider();
+        if (isFallbackEnabled() && fallback != null && fallback != provider) {
+            return List.of(provider, fallback);
+        }
+        return List.of(provider);
+    }
 }
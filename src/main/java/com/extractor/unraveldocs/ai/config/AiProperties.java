@@ -40,8 +40,9 @@ public class AiProperties {
     private int maxRetries = 2;
 
     /**
-     * Maximum input text length (in characters) to send to the AI model.
-     * Longer texts will be truncated.
+     * Maximum input text length (in characters) to send to the AI model
+     * in a single prompt. Longer texts are truncated for classification;
+     * summarization splits them into chunks instead.
      */
     private int maxInputLength = 30000;
 
@@ -60,6 +61,11 @@ public class AiProperties {
      */
     private ClassificationConfig classification = new ClassificationConfig();
 
+    /**
+     * Content-addressed result cache settings.
+     */
+    private CacheConfig cache = new CacheConfig();
+
     /**
      * AI quota configuration controlling per-tier monthly allowances.
      */
@@ -111,6 +117,28 @@ public class AiProperties {
          * Temperature for summarization requests (lower = more deterministic).
          */
         private double temperature = 0.3;
+
+        /**
+         * Estimated token budget of each chunk sent to the model.
+         * Documents that fit within one chunk are summarized in a single call.
+         */
+        private int chunkTokenBudget = 3000;
+
+        /**
+         * Average characters per token used to estimate prompt sizes.
+         */
+        private int charsPerToken = 4;
+
+        /**
+         * Maximum number of concurrent model calls per node for one provider.
+         */
+        private int maxConcurrency = 4;
+
+        /**
+         * Upper bound on the number of chunks summarized for a single document.
+         * Text beyond this limit is ignored to keep the cost of one request bounded.
+         */
+        private int maxChunks = 200;
     }
 
     /**
@@ -128,4 +156,48 @@ public class AiProperties {
          */
         private double temperature = 0.2;
     }
+
+    /**
+     * Settings for the content-addressed AI result cache.
+     * Entries are keyed by a hash of the normalized input text, the operation,
+     * the model provider and the prompt template, so edits to a prompt
+     * template automatically stop older entries from being served.
+     */
+    @Data
+    public static class CacheConfig {
+        /**
+         * Whether AI results are cached.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Manual prompt version. Bump to invalidate every cached result at once.
+         */
+        private String promptVersion = "v1";
+
+        /**
+         * Maximum number of entries held in the node-local tier.
+         */
+        private int localMaxEntries = 2000;
+
+        /**
+         * Upper bound for how long an entry stays in the node-local tier, in minutes.
+         */
+        private long localTtlMinutes = 30;
+
+        /**
+         * Time-to-live of cached document summaries, in hours.
+         */
+        private long summaryTtlHours = 720;
+
+        /**
+         * Time-to-live of cached chunk summaries, in hours.
+         */
+        private long chunkSummaryTtlHours = 168;
+
+        /**
+         * Time-to-live of cached classifications, in hours.
+         */
+        private long classificationTtlHours = 720;
+    }
 }
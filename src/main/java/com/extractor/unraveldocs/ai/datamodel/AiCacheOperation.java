@@ -0,0 +1,24 @@
+package com.extractor.unraveldocs.ai.datamodel;
+
+import lombok.Getter;
+
+/**
+ * AI operations whose results can be cached by input content.
+ */
+@Getter
+public enum AiCacheOperation {
+    SHORT_SUMMARY("summary-short"),
+    DETAILED_SUMMARY("summary-detailed"),
+    CHUNK_SUMMARY("summary-chunk"),
+    CLASSIFICATION("classification");
+
+    private final String key;
+
+    AiCacheOperation(String key) {
+        this.key = key;
+    }
+
+    public static AiCacheOperation forSummary(SummaryType summaryType) {
+        return summaryType == SummaryType.DETAILED ? DETAILED_SUMMARY : SHORT_SUMMARY;
+    }
+}
@@ -0,0 +1,47 @@
+package com.extractor.unraveldocs.ai.provider;
+
+import com.extractor.unraveldocs.outbound.resilience.TransientFailures;
+import com.extractor.unraveldocs.outbound.service.OutboundCallGuard;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.TransientAiException;
+import reactor.core.publisher.Flux;
+
+/**
+ * ChatModel decorator that runs every blocking call under the provider's circuit
+ * breaker and concurrency limit. While a provider's circuit is open, calls fail
+ * immediately, so callers move straight to the fallback provider.
+ */
+public class GuardedChatModel implements ChatModel {
+
+    private final ChatModel delegate;
+    private final OutboundCallGuard outboundCallGuard;
+    private final String provider;
+
+    public GuardedChatModel(ChatModel delegate, OutboundCallGuard outboundCallGuard, AiModelProvider provider) {
+        this.delegate = delegate;
+        this.outboundCallGuard = outboundCallGuard;
+        this.provider = provider.getKey();
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        return outboundCallGuard.execute(provider, () -> delegate.call(prompt), GuardedChatModel::isTransient);
+    }
+
+    private static boolean isTransient(Exception e) {
+        return e instanceof TransientAiException || TransientFailures.isTransient(e);
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return delegate.stream(prompt);
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return delegate.getDefaultOptions();
+    }
+}
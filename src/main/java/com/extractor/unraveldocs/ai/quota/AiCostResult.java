@@ -17,7 +17,7 @@ public class AiCostResult {
     private boolean allowed;
 
     /**
-     * The billing source used: "subscription", "credits", or null if denied.
+     * The billing source used: "subscription", "credits", "cache", or null if denied.
      */
     private String source;
 
@@ -47,6 +47,14 @@ public class AiCostResult {
                 .build();
     }
 
+    public static AiCostResult fromCache() {
+        return AiCostResult.builder()
+                .allowed(true)
+                .source("cache")
+                .creditsCharged(0)
+                .build();
+    }
+
     public static AiCostResult denied(String reason) {
         return AiCostResult.builder()
                 .allowed(false)
@@ -98,6 +98,40 @@ public class AiQuotaService {
                         + "Please purchase more credits or upgrade your subscription plan.");
     }
 
+    /**
+     * Give back an AI operation consumed by {@link #consumeAiOperation} whose result was
+     * never delivered, e.g. because the model call failed: the subscription allowance
+     * is restored or the credits are refunded.
+     *
+     * @param userId     The user's ID
+     * @param costResult The result returned when the operation was consumed
+     */
+    @Transactional
+    public void refundAiOperation(String userId, AiCostResult costResult) {
+        if (costResult == null || !costResult.isAllowed()) {
+            return;
+        }
+        if ("subscription".equals(costResult.getSource())) {
+            userSubscriptionRepository.findByUserIdWithPlan(userId).ifPresent(subscription -> {
+                Integer used = subscription.getAiOperationsUsed();
+                if (used != null && used > 0) {
+                    subscription.setAiOperationsUsed(used - 1);
+                    userSubscriptionRepository.save(subscription);
+                }
+            });
+            log.debug("AI operation returned to subscription allowance for user {}.",
+                    sanitizer.sanitizeLogging(userId));
+        } else if ("credits".equals(costResult.getSource()) && costResult.getCreditsCharged() > 0) {
+            userRepository.findById(userId).ifPresent(user -> creditBalanceService.refundCredits(
+                    user,
+                    costResult.getCreditsCharged(),
+                    "ai-operation",
+                    "Refund for failed AI operation"));
+            log.debug("AI operation refunded {} credits.",
+                    sanitizer.sanitizeLoggingInteger(costResult.getCreditsCharged()));
+        }
+    }
+
     /**
      * Check if a user has access to premium AI models (GPT-4o, Mistral Large)
      * based on their subscription tier.
@@ -1,7 +1,9 @@
 package com.extractor.unraveldocs.ai.service;
 
+import com.extractor.unraveldocs.ai.cache.AiResultCache;
 import com.extractor.unraveldocs.ai.config.AiModelConfig;
 import com.extractor.unraveldocs.ai.config.AiProperties;
+import com.extractor.unraveldocs.ai.datamodel.AiCacheOperation;
 import com.extractor.unraveldocs.ai.dto.response.ClassifyResponse;
 import com.extractor.unraveldocs.ai.provider.AiModelProvider;
 import com.extractor.unraveldocs.ai.quota.AiCostResult;
@@ -25,6 +27,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Service for AI-powered document classification and tagging.
@@ -42,6 +45,7 @@ public class AiClassificationService {
     private final OcrDataRepository ocrDataRepository;
     private final ObjectMapper objectMapper;
     private final SanitizeLogging sanitizer;
+    private final AiResultCache aiResultCache;
 
     private static final String CLASSIFICATION_PROMPT = """
             Analyze the following document text and classify it. Return your response as a JSON object with \
@@ -56,8 +60,13 @@ public class AiClassificationService {
             Document text:
             %s""";
 
+    private static final ClassificationResult UNPARSEABLE_RESULT =
+            new ClassificationResult("other", List.of("unclassified"), 0.0);
+
     /**
      * Classify a document and generate tags from its OCR text.
+     * Text classified before with the same prompt is served from the result
+     * cache without consuming quota.
      *
      * @param userId     The authenticated user's ID
      * @param documentId The document to classify
@@ -80,23 +89,42 @@ public class AiClassificationService {
             throw new BadRequestException("No extracted text available for classification.");
         }
 
-        // 2. Check billing
-        int creditCost = aiProperties.getClassification().getClassificationCreditCost();
-        AiCostResult costResult = aiQuotaService.consumeAiOperation(userId, creditCost);
-        if (!costResult.isAllowed()) {
-            throw new BadRequestException(costResult.getReason());
-        }
-
-        // 3. Determine model provider
         AiModelProvider provider = aiModelConfig.getDefaultProvider();
-
-        // 4. Build prompt and call AI model
         String inputText = truncateText(extractedText);
-        String promptText = String.format(CLASSIFICATION_PROMPT, inputText);
-        String aiResponse = callAiModel(provider, promptText);
 
-        // 5. Parse AI response
+        // 2. Serve repeated content from the result cache, free of charge
+        String contentHash = aiResultCache.hashContent(inputText);
+        Optional<AiResultCache.CachedAiResult> cached = aiResultCache.get(AiCacheOperation.CLASSIFICATION,
+                aiModelConfig.getAcceptableProviders(provider), CLASSIFICATION_PROMPT, contentHash);
+
+        AiCostResult costResult;
+        AiModelProvider modelUsed;
+        String aiResponse;
+        if (cached.isPresent()) {
+            costResult = AiCostResult.fromCache();
+            modelUsed = cached.get().provider();
+            aiResponse = cached.get().content();
+        } else {
+            // 3. Check billing
+            int creditCost = aiProperties.getClassification().getClassificationCreditCost();
+            costResult = aiQuotaService.consumeAiOperation(userId, creditCost);
+            if (!costResult.isAllowed()) {
+                throw new BadRequestException(costResult.getReason());
+            }
+
+            // 4. Build prompt and call AI model
+            String promptText = String.format(CLASSIFICATION_PROMPT, inputText);
+            ModelOutput output = callAiModel(provider, promptText);
+            modelUsed = output.provider();
+            aiResponse = output.text();
+        }
+
+        // 5. Parse AI response; only well-formed responses are worth caching
         ClassificationResult result = parseClassificationResponse(aiResponse);
+        if (cached.isEmpty() && result != UNPARSEABLE_RESULT) {
+            aiResultCache.put(AiCacheOperation.CLASSIFICATION, modelUsed, CLASSIFICATION_PROMPT,
+                    contentHash, aiResponse);
+        }
 
         // 6. Persist on OcrData
         ocrData.setDocumentType(result.documentType());
@@ -109,7 +137,7 @@ public class AiClassificationService {
                 .documentType(result.documentType())
                 .tags(result.tags())
                 .confidence(result.confidence())
-                .modelUsed(provider.getDisplayName())
+                .modelUsed(modelUsed.getDisplayName())
                 .creditsCharged(costResult.getCreditsCharged())
                 .billingSource(costResult.getSource())
                 .build();
@@ -118,12 +146,12 @@ public class AiClassificationService {
     /**
      * Call the AI model with fallback support.
      */
-    private String callAiModel(AiModelProvider provider, String promptText) {
+    private ModelOutput callAiModel(AiModelProvider provider, String promptText) {
         try {
             ChatModel model = aiModelConfig.getModel(provider);
             ChatResponse response = model.call(new Prompt(promptText));
             //return response.getResult().getOutput().getText();
-            return Objects.requireNonNull(response.getResult()).getOutput().getText();
+            return new ModelOutput(Objects.requireNonNull(response.getResult()).getOutput().getText(), provider);
         } catch (Exception e) {
             log.warn("Primary AI model ({}) failed: {}. Attempting fallback...",
                     sanitizer.sanitizeLogging(provider.getDisplayName()), e.getMessage());
@@ -134,7 +162,8 @@ public class AiClassificationService {
                     ChatModel fallbackModel = aiModelConfig.getModel(fallback);
                     ChatResponse response = fallbackModel.call(new Prompt(promptText));
 
-                    return Objects.requireNonNull(response.getResult()).getOutput().getText();
+                    return new ModelOutput(Objects.requireNonNull(response.getResult()).getOutput().getText(),
+                            fallback);
                 } catch (Exception fallbackEx) {
                     log.error("Fallback AI model also failed: {}", fallbackEx.getMessage());
                     throw new BadRequestException(
@@ -180,8 +209,7 @@ public class AiClassificationService {
             log.warn("Failed to parse AI classification response: {}. Raw: {}",
                     e.getMessage(), aiResponse);
             // Return defaults instead of failing
-            return new ClassificationResult("other",
-                    List.of("unclassified"), 0.0);
+            return UNPARSEABLE_RESULT;
         }
     }
 
@@ -197,6 +225,12 @@ public class AiClassificationService {
         return text;
     }
 
+    /**
+     * Internal record for a model response and the provider that produced it.
+     */
+    private record ModelOutput(String text, AiModelProvider provider) {
+    }
+
     /**
      * Internal record for parsed classification results.
      */
@@ -1,7 +1,9 @@
 package com.extractor.unraveldocs.ai.service;
 
+import com.extractor.unraveldocs.ai.cache.AiResultCache;
 import com.extractor.unraveldocs.ai.config.AiModelConfig;
 import com.extractor.unraveldocs.ai.config.AiProperties;
+import com.extractor.unraveldocs.ai.datamodel.AiCacheOperation;
 import com.extractor.unraveldocs.ai.datamodel.SummaryType;
 import com.extractor.unraveldocs.ai.dto.request.SummarizeRequest;
 import com.extractor.unraveldocs.ai.dto.response.SummarizeResponse;
@@ -15,13 +17,10 @@ import com.extractor.unraveldocs.ocrprocessing.model.OcrData;
 import com.extractor.unraveldocs.ocrprocessing.repository.OcrDataRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.ai.chat.model.ChatModel;
-import org.springframework.ai.chat.model.ChatResponse;
-import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Objects;
+import java.time.OffsetDateTime;
+import java.util.Optional;
 
 /**
  * Service for AI-powered document summarization.
@@ -37,33 +36,24 @@ public class AiSummarizationService {
     private final AiProperties aiProperties;
     private final AiQuotaService aiQuotaService;
     private final OcrDataRepository ocrDataRepository;
-
-    private static final String SHORT_SUMMARY_PROMPT = """
-            Summarize the following document text in 1-2 concise sentences. \
-            Focus on the main topic and key takeaway.
-            
-            Document text:
-            %s""";
-
-    private static final String DETAILED_SUMMARY_PROMPT = """
-            Provide a detailed summary of the following document. \
-            Include:
-            - A brief overview (1-2 sentences)
-            - Key points as a bullet list
-            - Any notable details, dates, or figures mentioned
-            
-            Document text:
-            %s""";
+    private final SummarizationEngine summarizationEngine;
+    private final AiResultCache aiResultCache;
 
     /**
      * Summarize the OCR text of a document.
+     * <p>
+     * Deliberately not transactional: model calls can take seconds, so the OCR
+     * data is read up front and the summary is written back in its own short
+     * transaction once the engine has finished. The AI operation is consumed before
+     * the engine runs and refunded if no summary is produced and saved. Identical text
+     * summarized before with the same prompts is served from the result cache without
+     * consuming quota.
      *
      * @param userId  The authenticated user's ID
      * @param request The summarization request containing documentId and
      *                summaryType
      * @return SummarizeResponse with the generated summary and billing info
      */
-    @Transactional
     public SummarizeResponse summarize(String userId, SummarizeRequest request) {
         // 1. Load and validate OCR data
         OcrData ocrData = ocrDataRepository.findByDocumentId(request.getDocumentId())
@@ -80,11 +70,30 @@ public class AiSummarizationService {
             throw new BadRequestException("No extracted text available for summarization.");
         }
 
-        // 2. Check billing (subscription allowance → credits → denied)
         SummaryType summaryType = request.getSummaryType() != null
                 ? request.getSummaryType()
                 : SummaryType.SHORT;
 
+        AiModelProvider provider = request.getModelPreference() != null
+                ? AiModelProvider.fromKey(request.getModelPreference())
+                : aiModelConfig.getDefaultProvider();
+
+        // 2. Serve repeated content from the result cache, free of charge
+        AiCacheOperation operation = AiCacheOperation.forSummary(summaryType);
+        String promptFingerprint = summarizationEngine.promptFingerprint(summaryType);
+        String contentHash = aiResultCache.hashContent(extractedText);
+        Optional<AiResultCache.CachedAiResult> cached = aiResultCache.get(
+                operation, aiModelConfig.getAcceptableProviders(provider), promptFingerprint, contentHash);
+        if (cached.isPresent()) {
+            String summary = cached.get().content();
+            if (!summary.equals(ocrData.getAiSummary())) {
+                ocrDataRepository.updateAiSummary(ocrData.getDocumentId(), summary, OffsetDateTime.now());
+            }
+            return buildResponse(request.getDocumentId(), summary, summaryType, cached.get().provider(),
+                    AiCostResult.fromCache());
+        }
+
+        // 3. Check billing (subscription allowance → credits → denied)
         int creditCost = summaryType == SummaryType.DETAILED
                 ? aiProperties.getSummarization().getDetailedSummaryCreditCost()
                 : aiProperties.getSummarization().getShortSummaryCreditCost();
@@ -94,25 +103,29 @@ public class AiSummarizationService {
             throw new BadRequestException(costResult.getReason());
         }
 
-        // 3. Determine model provider
-        AiModelProvider provider = request.getModelPreference() != null
-                ? AiModelProvider.fromKey(request.getModelPreference())
-                : aiModelConfig.getDefaultProvider();
-
-        // 4. Truncate text if needed
-        String inputText = truncateText(extractedText);
-
-        // 5. Build prompt and call AI model
-        String promptText = buildPrompt(summaryType, inputText);
-        String summary = callAiModel(provider, promptText);
+        // 4. Summarize the full text (chunked map-reduce for long documents)
+        SummarizationEngine.SummarizationResult result;
+        try {
+            result = summarizationEngine.summarize(extractedText, summaryType, provider);
+
+            // 5. Persist summary on OcrData
+            ocrDataRepository.updateAiSummary(ocrData.getDocumentId(), result.summary(), OffsetDateTime.now());
+        } catch (RuntimeException e) {
+            // Nothing was delivered, so nothing is charged
+            aiQuotaService.refundAiOperation(userId, costResult);
+            throw e;
+        }
+        String summary = result.summary();
+        aiResultCache.put(operation, result.provider(), promptFingerprint, contentHash, summary);
 
-        // 6. Persist summary on OcrData
-        ocrData.setAiSummary(summary);
-        ocrDataRepository.save(ocrData);
+        // 6. Build response
+        return buildResponse(request.getDocumentId(), summary, summaryType, result.provider(), costResult);
+    }
 
-        // 7. Build response
+    private SummarizeResponse buildResponse(String documentId, String summary, SummaryType summaryType,
+                                            AiModelProvider provider, AiCostResult costResult) {
         return SummarizeResponse.builder()
-                .documentId(request.getDocumentId())
+                .documentId(documentId)
                 .summary(summary)
                 .summaryType(summaryType)
                 .modelUsed(provider.getDisplayName())
@@ -120,53 +133,4 @@ public class AiSummarizationService {
                 .billingSource(costResult.getSource())
                 .build();
     }
-
-    /**
-     * Call the AI model with fallback support.
-     */
-    private String callAiModel(AiModelProvider provider, String promptText) {
-        try {
-            ChatModel model = aiModelConfig.getModel(provider);
-            ChatResponse response = model.call(new Prompt(promptText));
-
-            return Objects.requireNonNull(response.getResult()).getOutput().getText();
-        } catch (Exception e) {
-
-            if (aiModelConfig.isFallbackEnabled()) {
-                try {
-                    AiModelProvider fallback = aiModelConfig.getFallbackProvider();
-                    ChatModel fallbackModel = aiModelConfig.getModel(fallback);
-                    ChatResponse response = fallbackModel.call(new Prompt(promptText));
-
-                    return Objects.requireNonNull(response.getResult()).getOutput().getText();
-                } catch (Exception fallbackEx) {
-                    throw new BadRequestException(
-                            "AI summarization failed. Please try again later.");
-                }
-            }
-            throw new BadRequestException(
-                    "AI summarization failed and fallback is disabled. Please try again later.");
-        }
-    }
-
-    /**
-     * Build the prompt text based on summary type.
-     */
-    private String buildPrompt(SummaryType summaryType, String text) {
-        return switch (summaryType) {
-            case SHORT -> String.format(SHORT_SUMMARY_PROMPT, text);
-            case DETAILED -> String.format(DETAILED_SUMMARY_PROMPT, text);
-        };
-    }
-
-    /**
-     * Truncate text to the configured maximum input length.
-     */
-    private String truncateText(String text) {
-        int maxLength = aiProperties.getMaxInputLength();
-        if (text.length() > maxLength) {
-            return text.substring(0, maxLength);
-        }
-        return text;
-    }
 }
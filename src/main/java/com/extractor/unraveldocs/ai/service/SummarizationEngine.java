@@ -0,0 +1,329 @@
+package com.extractor.unraveldocs.ai.service;
+
+import com.extractor.unraveldocs.ai.cache.AiResultCache;
+import com.extractor.unraveldocs.ai.config.AiModelConfig;
+import com.extractor.unraveldocs.ai.config.AiProperties;
+import com.extractor.unraveldocs.ai.datamodel.AiCacheOperation;
+import com.extractor.unraveldocs.ai.datamodel.SummaryType;
+import com.extractor.unraveldocs.ai.provider.AiModelProvider;
+import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Map-reduce summarization engine for documents of any length.
+ * <p>
+ * Short documents are summarized with a single model call. Longer documents are
+ * split by {@link TextChunker} on page or paragraph boundaries, each chunk is
+ * summarized concurrently, and the partial summaries are reduced hierarchically
+ * until they fit in one final prompt. Concurrent calls are capped per provider
+ * so a large document cannot exhaust the provider's rate limit on its own.
+ * Chunk summaries are cached by content, so pages repeated across documents
+ * (templates, boilerplate, re-uploads) are only summarized once.
+ * <p>
+ * The engine performs no database access; callers must not hold a transaction
+ * open while it runs.
+ */
+@Slf4j
+@Service
+public class SummarizationEngine {
+
+    private static final String SHORT_SUMMARY_PROMPT = """
+            Summarize the following document text in 1-2 concise sentences. \
+            Focus on the main topic and key takeaway.
+            
+            Document text:
+            %s""";
+
+    private static final String DETAILED_SUMMARY_PROMPT = """
+            Provide a detailed summary of the following document. \
+            Include:
+            - A brief overview (1-2 sentences)
+            - Key points as a bullet list
+            - Any notable details, dates, or figures mentioned
+            
+            Document text:
+            %s""";
+
+    private static final String CHUNK_SUMMARY_PROMPT = """
+            The following text is section %d of %d of a longer document. \
+            Summarize this section in a short paragraph. Preserve names, dates, \
+            figures and conclusions; do not add information that is not in the text.
+            
+            Section text:
+            %s""";
+
+    private static final String REDUCE_PROMPT = """
+            The following are summaries of consecutive sections of one document. \
+            Merge them into a single coherent summary that keeps every important \
+            fact, date and figure, in document order.
+            
+            Section summaries:
+            %s""";
+
+    private static final String PARTIAL_SEPARATOR = "\n\n";
+
+    private final AiModelConfig aiModelConfig;
+    private final AiProperties aiProperties;
+    private final TextChunker textChunker;
+    private final AiResultCache aiResultCache;
+    private final ExecutorService executor;
+    private final Map<AiModelProvider, Semaphore> providerPermits = new EnumMap<>(AiModelProvider.class);
+
+    public SummarizationEngine(AiModelConfig aiModelConfig, AiProperties aiProperties, TextChunker textChunker,
+                               AiResultCache aiResultCache) {
+        this.aiModelConfig = aiModelConfig;
+        this.aiProperties = aiProperties;
+        this.textChunker = textChunker;
+        this.aiResultCache = aiResultCache;
+        // Model calls are I/O bound; virtual threads keep waiting calls off the platform pools
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        int permits = Math.max(1, aiProperties.getSummarization().getMaxConcurrency());
+        for (AiModelProvider provider : AiModelProvider.values()) {
+            providerPermits.put(provider, new Semaphore(permits, true));
+        }
+    }
+
+    /**
+     * Summarize the full text of a document.
+     *
+     * @param text        The document text
+     * @param summaryType The kind of summary to produce
+     * @param provider    The preferred model provider
+     * @return The summary along with the provider that produced the final output
+     */
+    public SummarizationResult summarize(String text, SummaryType summaryType, AiModelProvider provider) {
+        AiProperties.SummarizationConfig config = aiProperties.getSummarization();
+        int budget = config.getChunkTokenBudget();
+        int charsPerToken = config.getCharsPerToken();
+
+        List<String> chunks = textChunker.chunk(text, budget, charsPerToken);
+        if (chunks.size() > config.getMaxChunks()) {
+            log.warn("Document produced {} chunks; only the first {} will be summarized",
+                    chunks.size(), config.getMaxChunks());
+            chunks = chunks.subList(0, config.getMaxChunks());
+        }
+
+        if (chunks.size() <= 1) {
+            ModelOutput output = callWithFallback(provider, buildFinalPrompt(summaryType, text.strip()));
+            return new SummarizationResult(output.text(), output.provider(), 1);
+        }
+
+        // Map: summarize every chunk concurrently, reusing cached summaries of identical chunks
+        int total = chunks.size();
+        List<AiModelProvider> acceptableProviders = aiModelConfig.getAcceptableProviders(provider);
+        String[] partialSummaries = new String[total];
+        List<Integer> pending = new ArrayList<>();
+        List<String> pendingHashes = new ArrayList<>();
+        List<String> mapPrompts = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            // The prompt names the chunk's position, so a summary is reused only at the same position
+            String mapPrompt = String.format(CHUNK_SUMMARY_PROMPT, i + 1, total, chunks.get(i));
+            String chunkHash = aiResultCache.hashContent(mapPrompt);
+            Optional<AiResultCache.CachedAiResult> cached = aiResultCache.get(
+                    AiCacheOperation.CHUNK_SUMMARY, acceptableProviders, CHUNK_SUMMARY_PROMPT, chunkHash);
+            if (cached.isPresent()) {
+                partialSummaries[i] = cached.get().content();
+            } else {
+                pending.add(i);
+                pendingHashes.add(chunkHash);
+                mapPrompts.add(mapPrompt);
+            }
+        }
+
+        List<ModelOutput> mapOutputs = callAll(provider, mapPrompts);
+        for (int j = 0; j < pending.size(); j++) {
+            ModelOutput output = mapOutputs.get(j);
+            partialSummaries[pending.get(j)] = output.text();
+            aiResultCache.put(AiCacheOperation.CHUNK_SUMMARY, output.provider(), CHUNK_SUMMARY_PROMPT,
+                    pendingHashes.get(j), output.text());
+        }
+        List<String> partials = List.of(partialSummaries);
+
+        // Reduce: merge groups of partial summaries until they fit in one prompt
+        int rounds = 0;
+        while (textChunker.estimateTokens(String.join(PARTIAL_SEPARATOR, partials), charsPerToken) > budget) {
+            List<String> groups = groupPartials(partials, budget, charsPerToken);
+            if (groups.size() >= partials.size()) {
+                // Every partial already fills a whole chunk; merging pairs guarantees progress
+                groups = pairPartials(partials);
+            }
+            List<String> reducePrompts = groups.stream()
+                    .map(group -> String.format(REDUCE_PROMPT, group))
+                    .toList();
+            partials = callAll(provider, reducePrompts).stream().map(ModelOutput::text).toList();
+            rounds++;
+        }
+        log.debug("Summarized {} chunks with {} reduce rounds", total, rounds);
+
+        ModelOutput output = callWithFallback(provider,
+                buildFinalPrompt(summaryType, String.join(PARTIAL_SEPARATOR, partials)));
+        return new SummarizationResult(output.text(), output.provider(), total);
+    }
+
+    private List<String> groupPartials(List<String> partials, int budget, int charsPerToken) {
+        List<String> groups = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String partial : partials) {
+            String candidate = current.isEmpty() ? partial : current + PARTIAL_SEPARATOR + partial;
+            if (!current.isEmpty() && textChunker.estimateTokens(candidate, charsPerToken) > budget) {
+                groups.add(current.toString());
+                current.setLength(0);
+                current.append(partial);
+            } else {
+                current.setLength(0);
+                current.append(candidate);
+            }
+        }
+        if (!current.isEmpty()) {
+            groups.add(current.toString());
+        }
+        return groups;
+    }
+
+    private List<String> pairPartials(List<String> partials) {
+        List<String> pairs = new ArrayList<>();
+        for (int i = 0; i < partials.size(); i += 2) {
+            pairs.add(i + 1 < partials.size()
+                    ? partials.get(i) + PARTIAL_SEPARATOR + partials.get(i + 1)
+                    : partials.get(i));
+        }
+        return pairs;
+    }
+
+    /**
+     * Run the prompts concurrently and return the outputs in prompt order.
+     */
+    private List<ModelOutput> callAll(AiModelProvider provider, List<String> prompts) {
+        List<Future<ModelOutput>> futures = new ArrayList<>(prompts.size());
+        for (String prompt : prompts) {
+            futures.add(executor.submit(() -> callWithFallback(provider, prompt)));
+        }
+
+        // Calls run in waves of at most maxConcurrency, each wave bounded by the per-call timeout
+        int concurrency = Math.max(1, aiProperties.getSummarization().getMaxConcurrency());
+        int waves = (prompts.size() + concurrency - 1) / concurrency;
+        long deadline = System.nanoTime()
+                + TimeUnit.SECONDS.toNanos((long) aiProperties.getTimeoutSeconds() * Math.max(1, waves));
+        List<ModelOutput> outputs = new ArrayList<>(prompts.size());
+        try {
+            for (Future<ModelOutput> future : futures) {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                outputs.add(future.get(remaining, TimeUnit.NANOSECONDS));
+            }
+            return outputs;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BadRequestException("AI summarization was interrupted. Please try again later.");
+        } catch (ExecutionException | TimeoutException e) {
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            if (cause instanceof BadRequestException badRequest) {
+                throw badRequest;
+            }
+            log.error("Chunk summarization failed: {}", cause.getMessage());
+            throw new BadRequestException("AI summarization failed. Please try again later.");
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Call the AI model with fallback support, honoring the per-provider concurrency limit.
+     */
+    private ModelOutput callWithFallback(AiModelProvider provider, String promptText) {
+        try {
+            return new ModelOutput(callModel(provider, promptText), provider);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (aiModelConfig.isFallbackEnabled()) {
+                log.warn("Primary AI model ({}) failed: {}. Attempting fallback...",
+                        provider.getDisplayName(), e.getMessage());
+                AiModelProvider fallback = aiModelConfig.getFallbackProvider();
+                try {
+                    return new ModelOutput(callModel(fallback, promptText), fallback);
+                } catch (Exception fallbackEx) {
+                    if (fallbackEx instanceof InterruptedException) {
+                        Thread.currentThread().interrupt();
+                    }
+                    log.error("Fallback AI model also failed: {}", fallbackEx.getMessage());
+                    throw new BadRequestException(
+                            "AI summarization failed. Please try again later.");
+                }
+            }
+            throw new BadRequestException(
+                    "AI summarization failed and fallback is disabled. Please try again later.");
+        }
+    }
+
+    private String callModel(AiModelProvider provider, String promptText) throws InterruptedException {
+        Semaphore permits = providerPermits.get(provider);
+        permits.acquire();
+        try {
+            ChatModel model = aiModelConfig.getModel(provider);
+            ChatResponse response = model.call(new Prompt(promptText));
+            return Objects.requireNonNull(response.getResult()).getOutput().getText();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Fingerprint of every prompt template and setting that shapes a document summary.
+     * Used as part of the result cache key, so editing any template invalidates cached summaries.
+     *
+     * @param summaryType The kind of summary
+     * @return A string that changes whenever the summary pipeline's prompts change
+     */
+    public String promptFingerprint(SummaryType summaryType) {
+        return buildFinalPrompt(summaryType, "") + CHUNK_SUMMARY_PROMPT + REDUCE_PROMPT
+                + aiProperties.getSummarization().getChunkTokenBudget();
+    }
+
+    private String buildFinalPrompt(SummaryType summaryType, String text) {
+        return switch (summaryType) {
+            case SHORT -> String.format(SHORT_SUMMARY_PROMPT, text);
+            case DETAILED -> String.format(DETAILED_SUMMARY_PROMPT, text);
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Output of a single model call and the provider that served it.
+     */
+    private record ModelOutput(String text, AiModelProvider provider) {
+    }
+
+    /**
+     * Result of a full summarization run.
+     *
+     * @param summary    The final summary text
+     * @param provider   The provider that produced the final summary
+     * @param chunkCount The number of chunks the document was split into
+     */
+    public record SummarizationResult(String summary, AiModelProvider provider, int chunkCount) {
+    }
+}
@@ -0,0 +1,102 @@
+package com.extractor.unraveldocs.ai.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Splits long document text into chunks that fit a token budget.
+ * <p>
+ * Boundaries are chosen in order of preference: page markers written by the
+ * OCR pipeline ({@code --- Page N ---}), blank-line paragraph breaks, single
+ * line breaks and finally whitespace. A hard split is only used for a single
+ * run of text that has no whitespace at all. Token counts are estimated from
+ * character length, which is accurate enough for budgeting prompt sizes.
+ */
+@Component
+public class TextChunker {
+
+    private static final Pattern PAGE_BOUNDARY = Pattern.compile("(?=\\n--- Page \\d+ ---\\n)");
+    private static final Pattern PARAGRAPH_BOUNDARY = Pattern.compile("(?<=\\n)\\s*\\n");
+    private static final Pattern LINE_BOUNDARY = Pattern.compile("(?<=\\n)");
+    private static final Pattern WORD_BOUNDARY = Pattern.compile("(?<=\\s)");
+
+    private static final List<Pattern> BOUNDARIES = List.of(
+            PAGE_BOUNDARY, PARAGRAPH_BOUNDARY, LINE_BOUNDARY, WORD_BOUNDARY);
+
+    /**
+     * Estimate the number of tokens in the given text.
+     *
+     * @param text          The text to measure
+     * @param charsPerToken Average characters per token for the target model
+     * @return The estimated token count
+     */
+    public int estimateTokens(String text, int charsPerToken) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        return (text.length() + charsPerToken - 1) / charsPerToken;
+    }
+
+    /**
+     * Split text into chunks of at most {@code maxTokens} estimated tokens.
+     *
+     * @param text          The text to split
+     * @param maxTokens     The token budget of each chunk
+     * @param charsPerToken Average characters per token for the target model
+     * @return The chunks in document order; empty if the text is blank
+     */
+    public List<String> chunk(String text, int maxTokens, int charsPerToken) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        int maxChars = Math.max(1, maxTokens) * Math.max(1, charsPerToken);
+
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String piece : split(text, maxChars, 0)) {
+            if (!current.isEmpty() && current.length() + piece.length() > maxChars) {
+                addChunk(chunks, current);
+                current.setLength(0);
+            }
+            current.append(piece);
+        }
+        addChunk(chunks, current);
+        return chunks;
+    }
+
+    /**
+     * Split text at the coarsest boundary level, recursing into finer levels only
+     * for segments that are still larger than the budget.
+     */
+    private List<String> split(String text, int maxChars, int level) {
+        if (text.length() <= maxChars) {
+            return List.of(text);
+        }
+        if (level >= BOUNDARIES.size()) {
+            List<String> hardSplit = new ArrayList<>();
+            for (int start = 0; start < text.length(); start += maxChars) {
+                hardSplit.add(text.substring(start, Math.min(start + maxChars, text.length())));
+            }
+            return hardSplit;
+        }
+
+        List<String> pieces = new ArrayList<>();
+        for (String segment : BOUNDARIES.get(level).split(text)) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            pieces.addAll(split(segment, maxChars, level + 1));
+        }
+        return pieces;
+    }
+
+    private void addChunk(List<String> chunks, StringBuilder current) {
+        String chunk = current.toString().strip();
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.extractor.unraveldocs.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tuning for the login path: lockout policy, password verification capacity
+ * and the write-behind buffer for last-login timestamps.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.login")
+public class LoginProperties {
+    /**
+     * Failed attempts allowed before the account is locked.
+     */
+    private int maxFailedAttempts = 4;
+
+    /**
+     * How long a lockout lasts, in hours.
+     */
+    private long lockoutHours = 120;
+
+    /**
+     * Failed attempts older than this window no longer count towards a lockout, in hours.
+     */
+    private long attemptWindowHours = 24;
+
+    /**
+     * Threads dedicated to BCrypt verification. 0 means one per available processor.
+     */
+    private int hashingThreads = 0;
+
+    /**
+     * Verifications allowed to wait for a hashing thread before new logins are shed with a 503.
+     */
+    private int hashingQueueCapacity = 64;
+
+    /**
+     * Maximum time a login waits for its verification result, in milliseconds.
+     */
+    private long hashingTimeoutMs = 5000;
+
+    /**
+     * Interval between last-login flushes, in milliseconds.
+     */
+    private long lastLoginFlushIntervalMs = 30000;
+
+    /**
+     * Maximum user IDs per last-login update statement.
+     */
+    private int lastLoginBatchSize = 500;
+}
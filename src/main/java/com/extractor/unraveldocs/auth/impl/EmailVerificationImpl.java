@@ -11,6 +11,7 @@ import com.extractor.unraveldocs.brokers.kafka.events.EventMetadata;
 import com.extractor.unraveldocs.brokers.kafka.events.EventPublisherService;
 import com.extractor.unraveldocs.brokers.kafka.events.EventTypes;
 import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiRecorder;
 import com.extractor.unraveldocs.shared.response.UnravelDocsResponse;
 import com.extractor.unraveldocs.user.model.User;
 import com.extractor.unraveldocs.user.repository.UserRepository;
@@ -38,6 +39,7 @@ public class EmailVerificationImpl implements EmailVerificationService {
     private final DateHelper dateHelper;
     private final ResponseBuilderService responseBuilder;
     private final EventPublisherService eventPublisherService;
+    private final KpiRecorder kpiRecorder;
 
     private static final String RESEND_GENERIC_MESSAGE = "If an account with this email exists and is unverified, a verification email has been sent.";
 
@@ -146,6 +148,7 @@ public class EmailVerificationImpl implements EmailVerificationService {
         user.setActive(true);
 
         User updatedUser = userRepository.save(user);
+        kpiRecorder.userVerified();
 
         // Registering a synchronization to publish the event after commit
         TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
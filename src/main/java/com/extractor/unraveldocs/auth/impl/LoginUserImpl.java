@@ -4,6 +4,8 @@ import com.extractor.unraveldocs.auth.dto.LoginData;
 import com.extractor.unraveldocs.auth.dto.LoginResult;
 import com.extractor.unraveldocs.auth.dto.request.LoginRequestDto;
 import com.extractor.unraveldocs.auth.interfaces.LoginUserService;
+import com.extractor.unraveldocs.auth.service.LastLoginWriteBehindBuffer;
+import com.extractor.unraveldocs.auth.service.PasswordVerificationService;
 import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
 import com.extractor.unraveldocs.exceptions.custom.ForbiddenException;
 import com.extractor.unraveldocs.exceptions.custom.TokenProcessingException;
@@ -11,6 +13,7 @@ import com.extractor.unraveldocs.exceptions.custom.UnauthorizedException;
 import com.extractor.unraveldocs.shared.response.ResponseBuilderService;
 import com.extractor.unraveldocs.shared.response.UnravelDocsResponse;
 import com.extractor.unraveldocs.loginattempts.interfaces.LoginAttemptsService;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiRecorder;
 import com.extractor.unraveldocs.security.JwtTokenProvider;
 import com.extractor.unraveldocs.security.RefreshTokenService;
 import com.extractor.unraveldocs.user.model.User;
@@ -19,8 +22,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.*;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
 import org.springframework.stereotype.Service;
 
 import java.time.OffsetDateTime;
@@ -30,7 +33,11 @@ import java.util.Optional;
 @Service
 @RequiredArgsConstructor
 public class LoginUserImpl implements LoginUserService {
-    private final AuthenticationManager authenticationManager;
+    private final UserDetailsChecker accountStatusChecker = new AccountStatusUserDetailsChecker();
+
+    private final PasswordVerificationService passwordVerificationService;
+    private final LastLoginWriteBehindBuffer lastLoginWriteBehindBuffer;
+    private final KpiRecorder kpiRecorder;
     private final JwtTokenProvider jwtTokenProvider;
     private final LoginAttemptsService loginAttemptsService;
     private final ResponseBuilderService responseBuilder;
@@ -52,10 +59,9 @@ public class LoginUserImpl implements LoginUserService {
 
         userOpt.ifPresent(loginAttemptsService::checkIfUserBlocked);
 
-        Authentication authentication;
+        User authenticatedUser;
         try {
-            authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(request.email(), request.password()));
+            authenticatedUser = authenticate(userOpt, request.password());
         } catch (BadCredentialsException e) {
             userOpt.ifPresent(loginAttemptsService::recordFailedLoginAttempt);
             throw new UnauthorizedException("Invalid email or password", "INVALID_CREDENTIALS");
@@ -75,11 +81,8 @@ public class LoginUserImpl implements LoginUserService {
                     "INVALID_CREDENTIALS");
         }
 
-        User authenticatedUser = (User) authentication.getPrincipal();
-
         loginAttemptsService.resetLoginAttempts(authenticatedUser);
 
-        assert authenticatedUser != null;
         String accessToken = jwtTokenProvider.generateAccessToken(authenticatedUser);
         String refreshToken = jwtTokenProvider.generateRefreshToken(authenticatedUser);
 
@@ -91,8 +94,11 @@ public class LoginUserImpl implements LoginUserService {
             throw new TokenProcessingException("Error processing refresh token.");
         }
 
-        authenticatedUser.setLastLogin(OffsetDateTime.now());
-        userRepository.save(authenticatedUser);
+        // Persisted in bulk by the write-behind buffer rather than saving the user here
+        OffsetDateTime loginTime = OffsetDateTime.now();
+        authenticatedUser.setLastLogin(loginTime);
+        lastLoginWriteBehindBuffer.record(authenticatedUser.getId(), loginTime);
+        kpiRecorder.userLoggedIn(authenticatedUser.getId());
 
         // Issue #8: Login response contains only token data — profile via GET
         // /api/v1/user/me
@@ -109,4 +115,21 @@ public class LoginUserImpl implements LoginUserService {
         // Return refresh token separately for cookie setting by controller
         return new LoginResult(response, refreshToken);
     }
+
+    /**
+     * Authenticate against the already-loaded user, mirroring the provider checks
+     * (account status first, then password) without a second lookup by email.
+     * Unknown emails still pay for a hash comparison so response times do not
+     * reveal which addresses are registered.
+     */
+    private User authenticate(Optional<User> userOpt, String rawPassword) {
+        userOpt.ifPresent(accountStatusChecker::check);
+
+        boolean passwordMatches = passwordVerificationService.matches(
+                rawPassword, userOpt.map(User::getPassword).orElse(null));
+        if (!passwordMatches || userOpt.isEmpty()) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        return userOpt.get();
+    }
 }
@@ -21,6 +21,7 @@ import com.extractor.unraveldocs.pushnotification.interfaces.NotificationService
 import com.extractor.unraveldocs.shared.response.ResponseBuilderService;
 import com.extractor.unraveldocs.shared.response.UnravelDocsResponse;
 import com.extractor.unraveldocs.loginattempts.model.LoginAttempts;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiRecorder;
 import com.extractor.unraveldocs.subscription.impl.AssignSubscriptionService;
 import com.extractor.unraveldocs.subscription.model.UserSubscription;
 import com.extractor.unraveldocs.user.model.User;
@@ -58,6 +59,7 @@ public class SignupUserImpl implements SignupUserService {
         private final Optional<ElasticsearchIndexingService> elasticsearchIndexingService;
         private final NotificationService notificationService;
         private final CreditBalanceService creditBalanceService;
+        private final KpiRecorder kpiRecorder;
 
         @Override
         @Transactional
@@ -111,6 +113,7 @@ public class SignupUserImpl implements SignupUserService {
                 user.setSubscription(subscription);
 
                 User savedUser = userRepository.save(user);
+                kpiRecorder.userSignedUp();
 
                 // Registering a synchronization to publish the event after commit
                 TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
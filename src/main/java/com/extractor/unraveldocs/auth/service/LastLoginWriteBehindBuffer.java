@@ -0,0 +1,77 @@
+package com.extractor.unraveldocs.auth.service;
+
+import com.extractor.unraveldocs.auth.config.LoginProperties;
+import com.extractor.unraveldocs.user.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Buffers successful-login timestamps and writes them in bulk.
+ * <p>
+ * Saving the user on every login turns a login burst into a burst of row updates.
+ * Instead, logins are collected per user (latest wins) and flushed on a fixed delay,
+ * grouped by second so one statement covers every user who logged in during it.
+ * A failed flush puts its entries back for the next run.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LastLoginWriteBehindBuffer {
+    private final UserRepository userRepository;
+    private final LoginProperties loginProperties;
+
+    private final Map<String, OffsetDateTime> pending = new ConcurrentHashMap<>();
+
+    public void record(String userId, OffsetDateTime loginTime) {
+        pending.merge(userId, loginTime, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${auth.login.last-login-flush-interval-ms:30000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<OffsetDateTime, List<String>> usersBySecond = new TreeMap<>();
+        for (String userId : List.copyOf(pending.keySet())) {
+            OffsetDateTime loginTime = pending.remove(userId);
+            if (loginTime != null) {
+                usersBySecond.computeIfAbsent(loginTime.truncatedTo(ChronoUnit.SECONDS), key -> new ArrayList<>())
+                        .add(userId);
+            }
+        }
+
+        int batchSize = Math.max(1, loginProperties.getLastLoginBatchSize());
+        int updated = 0;
+        for (Map.Entry<OffsetDateTime, List<String>> entry : usersBySecond.entrySet()) {
+            List<String> userIds = entry.getValue();
+            for (int from = 0; from < userIds.size(); from += batchSize) {
+                List<String> batch = userIds.subList(from, Math.min(from + batchSize, userIds.size()));
+                try {
+                    updated += userRepository.updateLastLogin(batch, entry.getKey());
+                } catch (RuntimeException e) {
+                    log.warn("Failed to flush last login for {} users, will retry: {}", batch.size(), e.getMessage());
+                    batch.forEach(userId -> record(userId, entry.getKey()));
+                }
+            }
+        }
+        log.debug("Flushed last login for {} users", updated);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
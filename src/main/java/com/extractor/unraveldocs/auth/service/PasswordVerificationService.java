@@ -0,0 +1,99 @@
+package com.extractor.unraveldocs.auth.service;
+
+import com.extractor.unraveldocs.auth.config.LoginProperties;
+import com.extractor.unraveldocs.exceptions.custom.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * Runs password hash verification on a fixed pool sized to the CPU.
+ * <p>
+ * BCrypt is deliberately expensive, so letting every request thread hash at once
+ * during a login burst only makes all of them slow. Verifications queue here up to
+ * a fixed depth; beyond that new logins are rejected with a 503 and a
+ * {@code Retry-After} hint, keeping latency flat for the logins that are accepted.
+ */
+@Slf4j
+@Service
+public class PasswordVerificationService {
+    private static final String OVERLOADED_MESSAGE =
+            "We are receiving too many sign-in requests right now. Please try again in a moment.";
+
+    private final PasswordEncoder passwordEncoder;
+    private final LoginProperties loginProperties;
+    private final ThreadPoolExecutor executor;
+    private final Counter shedCounter;
+    private final String dummyHash;
+
+    public PasswordVerificationService(
+            PasswordEncoder passwordEncoder,
+            LoginProperties loginProperties,
+            MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.loginProperties = loginProperties;
+
+        int threads = loginProperties.getHashingThreads() > 0
+                ? loginProperties.getHashingThreads()
+                : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, loginProperties.getHashingQueueCapacity())),
+                Thread.ofPlatform().name("password-verify-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        meterRegistry.gauge("auth.password.verification.queued", executor, e -> e.getQueue().size());
+        this.shedCounter = Counter.builder("auth.password.verification.shed")
+                .description("Logins rejected because the password verification queue was full")
+                .register(meterRegistry);
+
+        // Unknown emails are checked against this so they cost the same as real accounts
+        this.dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+    }
+
+    /**
+     * Verify a raw password against its stored hash.
+     *
+     * @param rawPassword     The password supplied by the client
+     * @param encodedPassword The stored hash, or {@code null} when the account does not exist
+     * @return {@code true} only when a hash was supplied and it matches
+     * @throws ServiceUnavailableException if the verification pool is saturated
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        boolean accountExists = encodedPassword != null;
+        String hash = accountExists ? encodedPassword : dummyHash;
+
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> passwordEncoder.matches(rawPassword, hash));
+        } catch (RejectedExecutionException e) {
+            shedCounter.increment();
+            log.warn("Password verification queue full ({} waiting); shedding login", executor.getQueue().size());
+            throw new ServiceUnavailableException(OVERLOADED_MESSAGE, 1);
+        }
+
+        try {
+            return result.get(loginProperties.getHashingTimeoutMs(), TimeUnit.MILLISECONDS) && accountExists;
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            shedCounter.increment();
+            throw new ServiceUnavailableException(OVERLOADED_MESSAGE, 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(OVERLOADED_MESSAGE, 1);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password verification failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -35,6 +35,11 @@ public class MessagingProperties {
      * RabbitMQ-specific configuration
      */
     private RabbitMQProperties rabbitmq = new RabbitMQProperties();
+
+    /**
+     * Transactional outbox configuration.
+     */
+    private OutboxProperties outbox = new OutboxProperties();
     
     @Getter
     @Setter
@@ -170,4 +175,58 @@ public class MessagingProperties {
          */
         private String queuePrefix = "unraveldocs";
     }
+
+    @Getter
+    @Setter
+    public static class OutboxProperties {
+        /**
+         * Whether the relay drains the outbox. Events are still written when disabled.
+         */
+        private boolean relayEnabled = true;
+
+        /**
+         * Delay between relay polls in milliseconds.
+         */
+        private long pollIntervalMs = 500;
+
+        /**
+         * Maximum number of events locked and sent per batch.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Maximum number of full batches drained in one poll before yielding.
+         */
+        private int maxBatchesPerPoll = 20;
+
+        /**
+         * Time to wait for a batch to be acknowledged by the broker, in seconds.
+         */
+        private long sendTimeoutSeconds = 30;
+
+        /**
+         * Producer linger for the relay, in milliseconds. Higher values build larger compressed batches.
+         */
+        private int lingerMs = 20;
+
+        /**
+         * Producer batch size for the relay, in bytes.
+         */
+        private int producerBatchSize = 262144;
+
+        /**
+         * Compression codec used by the relay producer.
+         */
+        private String compressionType = "lz4";
+
+        /**
+         * Days a published event is kept before its partition is dropped.
+         */
+        private int retentionDays = 3;
+
+        /**
+         * Number of daily partitions created ahead of the current day.
+         */
+        private int partitionsAhead = 3;
+    }
 }
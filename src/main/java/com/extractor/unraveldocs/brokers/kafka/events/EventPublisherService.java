@@ -1,21 +1,18 @@
 package com.extractor.unraveldocs.brokers.kafka.events;
 
-import com.extractor.unraveldocs.brokers.core.Message;
-import com.extractor.unraveldocs.brokers.core.MessageBrokerFactory;
 import com.extractor.unraveldocs.brokers.core.MessageBrokerType;
 import com.extractor.unraveldocs.brokers.core.MessagingException;
 import com.extractor.unraveldocs.brokers.kafka.config.KafkaTopicConfig;
+import com.extractor.unraveldocs.brokers.outbox.service.OutboxService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
-
 /**
  * Service for publishing events to Kafka.
  * Provides a unified way to publish different types of events to their
- * respective topics.
+ * respective topics. Events go through the outbox and are sent by {@code OutboxRelay}.
  */
 @Slf4j
 @Service
@@ -23,45 +20,34 @@ import java.util.Map;
 @ConditionalOnProperty(name = "spring.kafka.bootstrap-servers")
 public class EventPublisherService {
 
-    private final MessageBrokerFactory messageBrokerFactory;
+    private final OutboxService outboxService;
 
     /**
-     * Publishes an event to Kafka.
+     * Publishes an event to Kafka through the transactional outbox.
+     * <p>
+     * Inside a transaction the event is written with it and relayed only if it commits;
+     * a broker outage delays delivery instead of failing the caller.
      *
      * @param topic The Kafka topic to publish to
      * @param event The event to publish
      * @param <T>   The payload type
-     * @throws MessagingException if publishing fails
+     * @throws MessagingException if the event cannot be written to the outbox
      */
     public <T> void publishEvent(String topic, BaseEvent<T> event) {
+        String eventType = event.getMetadata().getEventType();
+        String correlationId = event.getMetadata().getCorrelationId();
         try {
-            Object payload = event.getPayload();
-            String eventType = event.getMetadata().getEventType();
-            String correlationId = event.getMetadata().getCorrelationId();
-
-            Message<Object> message = Message.of(
-                    payload,
-                    topic,
-                    correlationId,
-                    Map.of("event-type", eventType));
-
-            messageBrokerFactory.getProducer(MessageBrokerType.KAFKA)
-                    .send(message)
-                    .thenAccept(result -> {
-                        if (result.success()) {
-                            log.info("Published event of type '{}' with correlationId '{}' to topic '{}'",
-                                    eventType, correlationId, topic);
-                        } else {
-                            log.error("Failed to publish event to topic '{}': {}",
-                                    topic, result.errorMessage());
-                        }
-                    });
+            outboxService.enqueue(topic, event);
+            log.debug("Queued event of type '{}' with correlationId '{}' for topic '{}'",
+                    eventType, correlationId, topic);
+        } catch (MessagingException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to publish event. CorrelationId: '{}', Topic: '{}'. Error: {}",
-                    event.getMetadata().getCorrelationId(), topic, e.getMessage(), e);
+                    correlationId, topic, e.getMessage(), e);
             throw MessagingException.sendFailed(
                     MessageBrokerType.KAFKA,
-                    event.getMetadata().getCorrelationId(),
+                    correlationId,
                     topic,
                     e);
         }
@@ -0,0 +1,43 @@
+package com.extractor.unraveldocs.brokers.outbox.config;
+
+import com.extractor.unraveldocs.brokers.config.MessagingProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.Map;
+
+/**
+ * Producer used by the outbox relay. It shares the main producer's serializers and
+ * idempotence settings, with a longer linger, larger batches and its own compression
+ * codec, since the relay sends hundreds of records at once rather than one per request.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.bootstrap-servers")
+public class OutboxKafkaConfig {
+
+    private final MessagingProperties messagingProperties;
+
+    @Bean
+    public KafkaTemplate<String, Object> outboxKafkaTemplate(ProducerFactory<String, Object> producerFactory) {
+        var outbox = messagingProperties.getOutbox();
+        Map<String, Object> overrides = Map.of(
+                ProducerConfig.LINGER_MS_CONFIG, outbox.getLingerMs(),
+                ProducerConfig.BATCH_SIZE_CONFIG, outbox.getProducerBatchSize(),
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, outbox.getCompressionType(),
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+
+        log.info("Outbox relay producer configured with linger={}ms, batch={}B, compression={}",
+                outbox.getLingerMs(), outbox.getProducerBatchSize(), outbox.getCompressionType());
+
+        // The template owns the overridden copy of the factory and closes it on shutdown
+        return new KafkaTemplate<>(producerFactory, overrides);
+    }
+}
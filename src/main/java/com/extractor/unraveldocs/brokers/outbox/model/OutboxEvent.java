@@ -0,0 +1,27 @@
+package com.extractor.unraveldocs.brokers.outbox.model;
+
+import java.time.OffsetDateTime;
+
+/**
+ * One row of the outbox: a serialized event waiting to be relayed to Kafka.
+ *
+ * @param id          Sequence id; the relay sends events in this order. Null until inserted.
+ * @param createdAt   Time the event was written; also the partition key. Null until inserted.
+ * @param messageId   Stable id sent as the {@code message-id} header, so redeliveries can be deduplicated
+ * @param topic       Destination topic
+ * @param messageKey  Record key (the event's correlation id)
+ * @param eventType   Sent as the {@code event-type} header
+ * @param payloadType Class name of the payload, used to rebuild it before sending
+ * @param payload     Payload as JSON
+ */
+public record OutboxEvent(
+        Long id,
+        OffsetDateTime createdAt,
+        String messageId,
+        String topic,
+        String messageKey,
+        String eventType,
+        String payloadType,
+        String payload
+) {
+}
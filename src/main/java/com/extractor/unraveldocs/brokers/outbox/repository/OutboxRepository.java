@@ -0,0 +1,270 @@
+package com.extractor.unraveldocs.brokers.outbox.repository;
+
+import com.extractor.unraveldocs.brokers.outbox.model.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC access to the partitioned {@code outbox_events} table. Plain JDBC keeps inserts
+ * to a single batched statement and lets the relay claim record keys with advisory locks.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    public static final String TABLE = "outbox_events";
+    public static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final String PARTITION_PREFIX = TABLE + "_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO outbox_events (message_id, topic, message_key, event_type, payload_type, payload)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    /**
+     * Takes a transaction-scoped advisory lock on each record key among the oldest
+     * unpublished events, skipping keys another relay holds. Keys are hashed per topic
+     * into the two-key lock space, under a namespace derived from the table name.
+     */
+    private static final String CLAIM_KEYS_SQL = """
+            SELECT key_hash
+            FROM (
+                SELECT hashtext(topic || '/' || coalesce(message_key, '')) AS key_hash, min(id) AS first_id
+                FROM (
+                    SELECT id, topic, message_key
+                    FROM outbox_events
+                    WHERE published_at IS NULL
+                    ORDER BY id
+                    LIMIT ?
+                ) oldest
+                GROUP BY 1
+            ) candidates
+            WHERE pg_try_advisory_xact_lock(hashtext('outbox_events'), key_hash)
+            ORDER BY first_id
+            """;
+
+    private static final String LOCK_BATCH_SQL = """
+            SELECT id, created_at, message_id, topic, message_key, event_type, payload_type, payload
+            FROM outbox_events
+            WHERE published_at IS NULL
+              AND hashtext(topic || '/' || coalesce(message_key, '')) = ANY(?)
+            ORDER BY id
+            LIMIT ?
+            FOR UPDATE
+            """;
+
+    private static final String MARK_PUBLISHED_SQL = """
+            UPDATE outbox_events SET published_at = now()
+            WHERE id = ANY(?) AND published_at IS NULL
+            """;
+
+    private static final String PENDING_SQL = """
+            SELECT count(*) AS pending, min(created_at) AS oldest
+            FROM outbox_events
+            WHERE published_at IS NULL
+            """;
+
+    private static final String LIST_PARTITIONS_SQL = """
+            SELECT child.relname
+            FROM pg_inherits
+            JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+            JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+            WHERE parent.relname = ?
+            """;
+
+    private static final RowMapper<OutboxEvent> ROW_MAPPER = (rs, rowNum) -> new OutboxEvent(
+            rs.getLong("id"),
+            rs.getObject("created_at", OffsetDateTime.class),
+            rs.getString("message_id"),
+            rs.getString("topic"),
+            rs.getString("message_key"),
+            rs.getString("event_type"),
+            rs.getString("payload_type"),
+            rs.getString("payload"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert events as one JDBC batch.
+     */
+    public void insertAll(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.messageId());
+            ps.setString(2, event.topic());
+            ps.setString(3, event.messageKey());
+            ps.setString(4, event.eventType());
+            ps.setString(5, event.payloadType());
+            ps.setString(6, event.payload());
+        });
+    }
+
+    /**
+     * Lock the oldest unpublished events of the record keys this relay can claim. A key
+     * is claimed by one relay at a time, so all its events are sent by the same relay in
+     * id order; events of keys claimed elsewhere are left for later. Must be called
+     * inside a transaction; the claims and row locks are held until it ends.
+     */
+    public List<OutboxEvent> lockUnpublished(int limit) {
+        List<Integer> keyHashes = jdbcTemplate.queryForList(CLAIM_KEYS_SQL, Integer.class, limit);
+        if (keyHashes.isEmpty()) {
+            return List.of();
+        }
+        // Read after the claims, so rows published by the previous holder are seen as such
+        return jdbcTemplate.execute((Connection connection) -> {
+            Array array = connection.createArrayOf("integer", keyHashes.toArray());
+            try (PreparedStatement ps = connection.prepareStatement(LOCK_BATCH_SQL)) {
+                ps.setArray(1, array);
+                ps.setInt(2, limit);
+                List<OutboxEvent> events = new ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        events.add(ROW_MAPPER.mapRow(rs, events.size()));
+                    }
+                }
+                return events;
+            } finally {
+                array.free();
+            }
+        });
+    }
+
+    public int markPublished(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.execute((Connection connection) -> {
+            Array array = connection.createArrayOf("bigint", ids.toArray());
+            try (PreparedStatement ps = connection.prepareStatement(MARK_PUBLISHED_SQL)) {
+                ps.setArray(1, array);
+                return ps.executeUpdate();
+            } finally {
+                array.free();
+            }
+        });
+    }
+
+    /**
+     * Number of unpublished events and the creation time of the oldest, or null if none.
+     */
+    public PendingStats pendingStats() {
+        return jdbcTemplate.queryForObject(PENDING_SQL, (rs, rowNum) -> new PendingStats(
+                rs.getLong("pending"),
+                rs.getObject("oldest", OffsetDateTime.class)));
+    }
+
+    public List<String> listPartitions() {
+        return jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class, TABLE);
+    }
+
+    /**
+     * Create the partition holding events created on {@code day} (UTC), if it does not exist.
+     */
+    public void createDailyPartition(LocalDate day) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(day)
+                + " PARTITION OF " + TABLE
+                + " FOR VALUES FROM ('" + day + " 00:00:00+00') TO ('" + day.plusDays(1) + " 00:00:00+00')");
+    }
+
+    public boolean partitionExists(LocalDate day) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, partitionName(day));
+        return Boolean.TRUE.equals(exists);
+    }
+
+    /**
+     * Whether rows created on {@code day} (UTC) sit in the default partition. A partition
+     * for that day cannot be created while they do.
+     */
+    public boolean defaultHasRows(LocalDate day) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + " WHERE created_at >= ? AND created_at < ?)",
+                Boolean.class, dayStart(day), dayStart(day.plusDays(1)));
+        return Boolean.TRUE.equals(exists);
+    }
+
+    /**
+     * Create the partition for {@code day} and move that day's rows out of the default
+     * partition into it. The default partition is detached meanwhile, which blocks
+     * inserts into the outbox until the transaction ends.
+     *
+     * @return rows moved
+     */
+    @Transactional
+    public int createDailyPartitionFromDefault(LocalDate day) {
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + DEFAULT_PARTITION);
+        createDailyPartition(day);
+        jdbcTemplate.update("INSERT INTO " + TABLE + " SELECT * FROM " + DEFAULT_PARTITION
+                + " WHERE created_at >= ? AND created_at < ?", dayStart(day), dayStart(day.plusDays(1)));
+        int moved = jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION
+                + " WHERE created_at >= ? AND created_at < ?", dayStart(day), dayStart(day.plusDays(1)));
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+        return moved;
+    }
+
+    public boolean hasUnpublished(String partition) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + partition + " WHERE published_at IS NULL)", Boolean.class);
+        return Boolean.TRUE.equals(exists);
+    }
+
+    public void dropPartition(String partition) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+    }
+
+    /**
+     * Delete published rows that landed in the default partition before {@code cutoff}.
+     */
+    public int deletePublishedFromDefault(OffsetDateTime cutoff) {
+        return jdbcTemplate.update(
+                "DELETE FROM " + DEFAULT_PARTITION + " WHERE published_at IS NOT NULL AND created_at < ?",
+                cutoff);
+    }
+
+    private static OffsetDateTime dayStart(LocalDate day) {
+        return day.atStartOfDay().atOffset(ZoneOffset.UTC);
+    }
+
+    public static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + PARTITION_SUFFIX.format(day);
+    }
+
+    /**
+     * The day a daily partition covers, or null if the name is not a daily partition.
+     */
+    public static LocalDate partitionDay(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    public record PendingStats(long pending, OffsetDateTime oldest) {
+        public double lagSeconds(OffsetDateTime now) {
+            return oldest == null ? 0 : Math.max(0, Duration.between(oldest, now).toMillis() / 1000.0);
+        }
+    }
+}
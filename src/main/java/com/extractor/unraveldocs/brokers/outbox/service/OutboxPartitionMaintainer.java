@@ -0,0 +1,91 @@
+package com.extractor.unraveldocs.brokers.outbox.service;
+
+import com.extractor.unraveldocs.brokers.config.MessagingProperties;
+import com.extractor.unraveldocs.brokers.outbox.repository.OutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Keeps the outbox small without row-by-row deletes. Daily partitions are created a few
+ * days ahead, and a partition is dropped once it is past the retention period and holds
+ * no unpublished events. Rows that fell into the default partition are deleted instead.
+ * <p>
+ * If maintenance did not run in time and a day's rows already landed in the default
+ * partition, that day's partition is created by moving them out of it. Failures are
+ * logged as errors and counted in {@code outbox.partition.failures}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxPartitionMaintainer {
+
+    private final OutboxRepository outboxRepository;
+    private final MessagingProperties messagingProperties;
+    private final MeterRegistry meterRegistry;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "0 15 0 * * *", zone = "UTC")
+    public void maintain() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        createUpcomingPartitions(today);
+        dropExpiredPartitions(today);
+    }
+
+    void createUpcomingPartitions(LocalDate today) {
+        int ahead = Math.max(1, messagingProperties.getOutbox().getPartitionsAhead());
+        for (int offset = 0; offset <= ahead; offset++) {
+            LocalDate day = today.plusDays(offset);
+            try {
+                if (!outboxRepository.partitionExists(day) && outboxRepository.defaultHasRows(day)) {
+                    int moved = outboxRepository.createDailyPartitionFromDefault(day);
+                    log.warn("Created outbox partition for {} by moving {} events out of the default partition",
+                            day, moved);
+                } else {
+                    outboxRepository.createDailyPartition(day);
+                }
+            } catch (RuntimeException e) {
+                meterRegistry.counter("outbox.partition.failures", "operation", "create").increment();
+                log.error("Could not create outbox partition for {}: {}", day, e.getMessage(), e);
+            }
+        }
+    }
+
+    void dropExpiredPartitions(LocalDate today) {
+        LocalDate oldestKept = today.minusDays(Math.max(1, messagingProperties.getOutbox().getRetentionDays()));
+        try {
+            for (String partition : outboxRepository.listPartitions()) {
+                LocalDate day = OutboxRepository.partitionDay(partition);
+                if (day == null || !day.isBefore(oldestKept)) {
+                    continue;
+                }
+                if (outboxRepository.hasUnpublished(partition)) {
+                    log.warn("Keeping expired outbox partition {}: it still has unpublished events", partition);
+                    continue;
+                }
+                outboxRepository.dropPartition(partition);
+                log.info("Dropped outbox partition {}", partition);
+            }
+
+            int deleted = outboxRepository.deletePublishedFromDefault(
+                    oldestKept.atStartOfDay().atOffset(ZoneOffset.UTC));
+            if (deleted > 0) {
+                log.info("Deleted {} published events from the default outbox partition", deleted);
+            }
+        } catch (RuntimeException e) {
+            meterRegistry.counter("outbox.partition.failures", "operation", "drop").increment();
+            log.error("Outbox partition cleanup failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.extractor.unraveldocs.brokers.outbox.service;
+
+import com.extractor.unraveldocs.brokers.config.MessagingProperties;
+import com.extractor.unraveldocs.brokers.outbox.model.OutboxEvent;
+import com.extractor.unraveldocs.brokers.outbox.repository.OutboxRepository;
+import com.extractor.unraveldocs.brokers.outbox.repository.OutboxRepository.PendingStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox to Kafka.
+ * <p>
+ * Each batch runs in its own transaction: the relay claims the record keys of the
+ * oldest unpublished rows with advisory locks, locks those keys' rows, sends them in id
+ * order through a batching producer, and marks the acknowledged ones published before
+ * the locks are released. Other instances skip claimed keys, so the events of one key
+ * are only ever sent by one relay at a time and keep their order on Kafka. Delivery is
+ * at least once: a row whose send was not acknowledged is sent again on a later poll,
+ * under the same {@code message-id} header, and so are the later rows of its key, so
+ * nothing of that key is published past the gap.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.kafka.bootstrap-servers")
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final KafkaTemplate<String, Object> outboxKafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MessagingProperties.OutboxProperties properties;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       @Qualifier("outboxKafkaTemplate") KafkaTemplate<String, Object> outboxKafkaTemplate,
+                       TransactionTemplate transactionTemplate,
+                       ObjectMapper objectMapper,
+                       MessagingProperties messagingProperties,
+                       MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.outboxKafkaTemplate = outboxKafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = messagingProperties.getOutbox();
+
+        Gauge.builder("outbox.pending", pending, AtomicLong::get)
+                .description("Events written to the outbox but not yet published")
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag.seconds", lagMillis, value -> value.get() / 1000.0)
+                .description("Age of the oldest unpublished outbox event")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("outbox.events")
+                .description("Outbox events relayed to Kafka")
+                .tag("result", "published")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.events")
+                .description("Outbox events relayed to Kafka")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time to lock, send and mark one outbox batch")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${messaging.outbox.poll-interval-ms:500}")
+    public void relay() {
+        if (!properties.isRelayEnabled()) {
+            return;
+        }
+        int batchSize = Math.max(1, properties.getBatchSize());
+        try {
+            for (int batch = 0; batch < Math.max(1, properties.getMaxBatchesPerPoll()); batch++) {
+                BatchResult result = batchTimer.record(() -> transactionTemplate.execute(status -> relayBatch(batchSize)));
+                if (result == null || result.locked() < batchSize || result.failed() > 0) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Outbox relay poll failed: {}", e.getMessage(), e);
+        }
+        refreshLag();
+    }
+
+    BatchResult relayBatch(int batchSize) {
+        List<OutboxEvent> events = outboxRepository.lockUnpublished(batchSize);
+        if (events.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+
+        // A transactional producer refuses sends outside a Kafka transaction
+        List<CompletableFuture<SendResult<String, Object>>> sends = outboxKafkaTemplate.isTransactional()
+                ? outboxKafkaTemplate.executeInTransaction(operations -> sendAll(operations, events))
+                : sendAll(outboxKafkaTemplate, events);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(properties.getSendTimeoutSeconds());
+        List<Long> published = new ArrayList<>(events.size());
+        Set<String> failedKeys = new HashSet<>();
+        int failed = 0;
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            boolean acknowledged = awaitAck(sends.get(i), deadline, event);
+            // Once a key has a failed event, its later events wait for that one to go first
+            if (acknowledged && !failedKeys.contains(orderingKey(event))) {
+                published.add(event.id());
+            } else {
+                failedKeys.add(orderingKey(event));
+                failed++;
+            }
+        }
+
+        outboxRepository.markPublished(published);
+        publishedCounter.increment(published.size());
+        failedCounter.increment(failed);
+        if (failed > 0) {
+            log.warn("Outbox batch: {} published, {} failed and left for the next poll", published.size(), failed);
+        } else {
+            log.debug("Outbox batch: {} published", published.size());
+        }
+        return new BatchResult(events.size(), failed);
+    }
+
+    private static String orderingKey(OutboxEvent event) {
+        return event.topic() + "/" + event.messageKey();
+    }
+
+    private List<CompletableFuture<SendResult<String, Object>>> sendAll(
+            KafkaOperations<String, Object> operations, List<OutboxEvent> events) {
+        List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            sends.add(operations.send(toRecord(event)));
+        }
+        operations.flush();
+        return sends;
+    }
+
+    private boolean awaitAck(CompletableFuture<SendResult<String, Object>> send, long deadline, OutboxEvent event) {
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Outbox event {} to topic '{}' not acknowledged: {}", event.id(), event.topic(), e.getMessage());
+            return false;
+        }
+    }
+
+    private ProducerRecord<String, Object> toRecord(OutboxEvent event) {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(
+                event.topic(),
+                null,
+                event.createdAt().toInstant().toEpochMilli(),
+                event.messageKey(),
+                readPayload(event));
+        record.headers().add(new RecordHeader("message-id", event.messageId().getBytes(StandardCharsets.UTF_8)));
+        record.headers().add(new RecordHeader("event-type", event.eventType().getBytes(StandardCharsets.UTF_8)));
+        return record;
+    }
+
+    /**
+     * Rebuild the payload as its original class so the serializer adds the same type
+     * headers as a direct send. If the class is gone or has changed shape, the payload
+     * is sent as a map; listeners already map those by event type.
+     */
+    private Object readPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.payload(), Class.forName(event.payloadType()));
+        } catch (Exception e) {
+            log.warn("Outbox event {} payload could not be read as {}, sending as a map: {}",
+                    event.id(), event.payloadType(), e.getMessage());
+            try {
+                return objectMapper.readValue(event.payload(), Map.class);
+            } catch (Exception mapFailure) {
+                return event.payload();
+            }
+        }
+    }
+
+    private void refreshLag() {
+        try {
+            PendingStats stats = outboxRepository.pendingStats();
+            if (stats != null) {
+                pending.set(stats.pending());
+                lagMillis.set(Math.round(stats.lagSeconds(OffsetDateTime.now()) * 1000));
+            }
+        } catch (RuntimeException e) {
+            log.debug("Could not read outbox lag: {}", e.getMessage());
+        }
+    }
+
+    record BatchResult(int locked, int failed) {
+    }
+}
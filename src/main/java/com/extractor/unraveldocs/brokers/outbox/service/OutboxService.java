@@ -0,0 +1,88 @@
+package com.extractor.unraveldocs.brokers.outbox.service;
+
+import com.extractor.unraveldocs.brokers.core.MessageBrokerType;
+import com.extractor.unraveldocs.brokers.core.MessagingException;
+import com.extractor.unraveldocs.brokers.kafka.events.BaseEvent;
+import com.extractor.unraveldocs.brokers.outbox.model.OutboxEvent;
+import com.extractor.unraveldocs.brokers.outbox.repository.OutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes events to the transactional outbox.
+ * <p>
+ * Inside a transaction, events are buffered and inserted as one batch just before the
+ * transaction commits, so they become visible to the relay exactly when the business
+ * change does, and a rollback discards them. Outside a transaction each event is
+ * inserted immediately.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public <T> void enqueue(String topic, BaseEvent<T> event) {
+        OutboxEvent outboxEvent = toOutboxEvent(topic, event);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            outboxRepository.insertAll(List.of(outboxEvent));
+            return;
+        }
+        currentBuffer().add(outboxEvent);
+    }
+
+    private <T> OutboxEvent toOutboxEvent(String topic, BaseEvent<T> event) {
+        String correlationId = event.getMetadata().getCorrelationId();
+        Object payload = event.getPayload();
+        try {
+            return new OutboxEvent(
+                    null,
+                    null,
+                    UUID.randomUUID().toString(),
+                    topic,
+                    correlationId,
+                    event.getMetadata().getEventType(),
+                    payload.getClass().getName(),
+                    objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw MessagingException.sendFailed(MessageBrokerType.KAFKA, correlationId, topic, e);
+        }
+    }
+
+    /**
+     * The buffer of the current transaction. Synchronizations are suspended along with
+     * their transaction, so a REQUIRES_NEW transaction gets its own buffer.
+     */
+    private List<OutboxEvent> currentBuffer() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof OutboxFlush flush) {
+                return flush.events;
+            }
+        }
+        OutboxFlush flush = new OutboxFlush();
+        TransactionSynchronizationManager.registerSynchronization(flush);
+        return flush.events;
+    }
+
+    private final class OutboxFlush implements TransactionSynchronization {
+        private final List<OutboxEvent> events = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            outboxRepository.insertAll(events);
+            log.debug("Wrote {} events to the outbox", events.size());
+        }
+    }
+}
@@ -18,6 +18,25 @@ import java.time.Duration;
 public class RedisConfig {
         @Bean
         public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+                GenericJackson2JsonRedisSerializer serializer = cacheValueSerializer();
+
+                RedisCacheConfiguration redisCacheConfiguration = RedisCacheConfiguration
+                                .defaultCacheConfig()
+                                .entryTtl(Duration.ofHours(1))
+                                .disableCachingNullValues()
+                                .serializeValuesWith(
+                                                RedisSerializationContext.SerializationPair.fromSerializer(serializer));
+
+                return RedisCacheManager.builder(connectionFactory)
+                                .cacheDefaults(redisCacheConfiguration)
+                                .build();
+        }
+
+        /**
+         * Value serializer for cached entries. Public so the benchmark suite measures
+         * exactly the serializer the cache manager uses.
+         */
+        public static GenericJackson2JsonRedisSerializer cacheValueSerializer() {
                 // Build a type validator that permits our application classes and common JDK types
                 BasicPolymorphicTypeValidator typeValidator = BasicPolymorphicTypeValidator.builder()
                                 .allowIfBaseType(Object.class)
@@ -34,18 +53,6 @@ public class RedisConfig {
                                 ObjectMapper.DefaultTyping.NON_FINAL,
                                 JsonTypeInfo.As.PROPERTY);
 
-                GenericJackson2JsonRedisSerializer serializer =
-                                new GenericJackson2JsonRedisSerializer(objectMapper);
-
-                RedisCacheConfiguration redisCacheConfiguration = RedisCacheConfiguration
-                                .defaultCacheConfig()
-                                .entryTtl(Duration.ofHours(1))
-                                .disableCachingNullValues()
-                                .serializeValuesWith(
-                                                RedisSerializationContext.SerializationPair.fromSerializer(serializer));
-
-                return RedisCacheManager.builder(connectionFactory)
-                                .cacheDefaults(redisCacheConfiguration)
-                                .build();
+                return new GenericJackson2JsonRedisSerializer(objectMapper);
         }
 }
@@ -0,0 +1,37 @@
+package com.extractor.unraveldocs.coupon.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tuning for coupon redemption: how long a checkout may hold a usage slot and how
+ * often confirmed usages are written back to the coupon rows.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "coupon.redemption")
+public class CouponRedemptionProperties {
+    /**
+     * How long a reserved usage slot is held for a checkout that has not been paid, in
+     * minutes. An expired reservation frees its slot for other users.
+     */
+    private long reservationTtlMinutes = 30;
+
+    /**
+     * How long the Redis counters of a coupon are kept after the coupon expires, in
+     * hours, so late payment webhooks still find them.
+     */
+    private long counterRetentionHours = 72;
+
+    /**
+     * How often confirmed usages are reconciled to {@code coupons.current_usage_count},
+     * in milliseconds.
+     */
+    private long reconcileIntervalMs = 10000;
+
+    /**
+     * Coupons reconciled per pass.
+     */
+    private int reconcileBatchSize = 200;
+}
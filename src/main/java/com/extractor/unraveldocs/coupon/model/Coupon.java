@@ -51,7 +51,11 @@ public class Coupon {
     @Column(name = "max_usage_per_user", nullable = false)
     private Integer maxUsagePerUser = 1;
 
-    @Column(name = "current_usage_count", nullable = false)
+    /**
+     * Recorded usages, reconciled from {@code coupon_usage} in the background. Never
+     * written through the entity, so saving a coupon cannot overwrite it.
+     */
+    @Column(name = "current_usage_count", nullable = false, updatable = false)
     private Integer currentUsageCount = 0;
 
     @Column(name = "is_active", nullable = false)
@@ -71,7 +75,7 @@ public class Coupon {
     private CouponTemplate template;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "created_by", nullable = false)
+    @JoinColumn(name = "created_by")
     private User createdBy;
 
     @OneToMany(mappedBy = "coupon", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -91,9 +95,7 @@ public class Coupon {
     private OffsetDateTime updatedAt;
 
     /**
-     * Version field for optimistic locking.
-     * Prevents race conditions when multiple requests try to increment usage count
-     * simultaneously.
+     * Version field for optimistic locking of admin edits.
      */
     @Version
     @Column(name = "version", nullable = false)
@@ -113,11 +115,4 @@ public class Coupon {
     public boolean hasReachedUsageLimit() {
         return maxUsageCount != null && currentUsageCount >= maxUsageCount;
     }
-
-    /**
-     * Increments the usage count.
-     */
-    public void incrementUsageCount() {
-        this.currentUsageCount++;
-    }
 }
@@ -0,0 +1,277 @@
+package com.extractor.unraveldocs.coupon.redemption;
+
+import com.extractor.unraveldocs.coupon.config.CouponRedemptionProperties;
+import com.extractor.unraveldocs.coupon.model.Coupon;
+import com.extractor.unraveldocs.coupon.repository.CouponUsageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Usage slots of coupons, held in Redis so that checkouts on a hot coupon do not
+ * queue on its database row.
+ * <p>
+ * Each coupon has a total counter and a per-user counter of slots held, plus the
+ * open reservations keyed by payment reference. A checkout reserves a slot, a paid
+ * webhook confirms it, and a failed payment or an expired reservation gives it back.
+ * All keys of one coupon share a hash tag, so each script runs on one node of a
+ * Redis cluster. Counters are seeded from {@code coupon_usage} on first use, which
+ * makes Redis a cache of the durable usages rather than their source of truth.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponRedemptionStore {
+
+    static final String DIRTY_KEY = "coupon:redemption:dirty";
+
+    private static final String KEY_PREFIX = "coupon:redemption:{";
+    private static final int SWEEP_LIMIT = 100;
+
+    private static final long RESERVED = 1;
+    private static final long NEEDS_SEED = -1;
+    private static final long TOTAL_LIMIT = -2;
+    private static final long USER_LIMIT = -3;
+
+    /**
+     * KEYS: total, per-user, reservations, reservation expiries.
+     * ARGV: reference, userId, max total (0 = none), max per user (0 = none), now,
+     * reservation expiry, key expiry; times in epoch milliseconds.
+     */
+    private static final RedisScript<Long> RESERVE = RedisScript.of("""
+            local expired = redis.call('ZRANGEBYSCORE', KEYS[4], '-inf', ARGV[5], 'LIMIT', 0, %d)
+            for _, ref in ipairs(expired) do
+                local owner = redis.call('HGET', KEYS[3], ref)
+                if owner then
+                    redis.call('HDEL', KEYS[3], ref)
+                    redis.call('DECR', KEYS[1])
+                    redis.call('HINCRBY', KEYS[2], owner, -1)
+                end
+                redis.call('ZREM', KEYS[4], ref)
+            end
+            if redis.call('HEXISTS', KEYS[3], ARGV[1]) == 1 then
+                redis.call('ZADD', KEYS[4], ARGV[6], ARGV[1])
+                return 1
+            end
+            local total = redis.call('GET', KEYS[1])
+            local mine = redis.call('HGET', KEYS[2], ARGV[2])
+            if not total or not mine then
+                return -1
+            end
+            if tonumber(ARGV[3]) > 0 and tonumber(total) >= tonumber(ARGV[3]) then
+                return -2
+            end
+            if tonumber(ARGV[4]) > 0 and tonumber(mine) >= tonumber(ARGV[4]) then
+                return -3
+            end
+            redis.call('INCR', KEYS[1])
+            redis.call('HINCRBY', KEYS[2], ARGV[2], 1)
+            redis.call('HSET', KEYS[3], ARGV[1], ARGV[2])
+            redis.call('ZADD', KEYS[4], ARGV[6], ARGV[1])
+            for i = 1, 4 do
+                redis.call('PEXPIREAT', KEYS[i], ARGV[7])
+            end
+            return 1
+            """.formatted(SWEEP_LIMIT), Long.class);
+
+    /**
+     * KEYS: total, per-user. ARGV: total usages, userId, user's usages, key expiry.
+     * Only fills counters that are missing, so concurrent seeds agree.
+     */
+    private static final RedisScript<Long> SEED = RedisScript.of("""
+            redis.call('SET', KEYS[1], ARGV[1], 'NX')
+            redis.call('HSETNX', KEYS[2], ARGV[2], ARGV[3])
+            redis.call('PEXPIREAT', KEYS[1], ARGV[4])
+            redis.call('PEXPIREAT', KEYS[2], ARGV[4])
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS: total, per-user, reservations, reservation expiries. ARGV: reference, userId.
+     * A paid reservation keeps its slot. A payment whose reservation already expired
+     * still counts, so its slot is taken again.
+     */
+    private static final RedisScript<Long> CONFIRM = RedisScript.of("""
+            if redis.call('HDEL', KEYS[3], ARGV[1]) == 1 then
+                redis.call('ZREM', KEYS[4], ARGV[1])
+                return 1
+            end
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                redis.call('INCR', KEYS[1])
+            end
+            if redis.call('HEXISTS', KEYS[2], ARGV[2]) == 1 then
+                redis.call('HINCRBY', KEYS[2], ARGV[2], 1)
+            end
+            return 0
+            """, Long.class);
+
+    /**
+     * KEYS: total, per-user, reservations, reservation expiries. ARGV: reference.
+     */
+    private static final RedisScript<Long> RELEASE = RedisScript.of("""
+            local owner = redis.call('HGET', KEYS[3], ARGV[1])
+            if not owner then
+                return 0
+            end
+            redis.call('HDEL', KEYS[3], ARGV[1])
+            redis.call('ZREM', KEYS[4], ARGV[1])
+            redis.call('DECR', KEYS[1])
+            redis.call('HINCRBY', KEYS[2], owner, -1)
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final CouponUsageRepository couponUsageRepository;
+    private final CouponRedemptionProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Reserve one usage slot of the coupon for a checkout. Reserving the same reference
+     * again only extends its reservation.
+     */
+    public ReservationOutcome reserve(Coupon coupon, String userId, String reference) {
+        List<String> keys = keys(coupon.getId());
+        long now = System.currentTimeMillis();
+        String[] args = {
+                reference,
+                userId,
+                String.valueOf(limit(coupon.getMaxUsageCount())),
+                String.valueOf(limit(coupon.getMaxUsagePerUser())),
+                String.valueOf(now),
+                String.valueOf(now + Duration.ofMinutes(properties.getReservationTtlMinutes()).toMillis()),
+                String.valueOf(keyExpiry(coupon))
+        };
+
+        ReservationOutcome outcome;
+        try {
+            Long result = redisTemplate.execute(RESERVE, keys, (Object[]) args);
+            if (result != null && result == NEEDS_SEED) {
+                seed(coupon, userId, keys);
+                result = redisTemplate.execute(RESERVE, keys, (Object[]) args);
+            }
+            outcome = toOutcome(result);
+        } catch (DataAccessException e) {
+            log.warn("Could not reserve coupon {} for reference {}: {}", coupon.getId(), reference, e.getMessage());
+            outcome = ReservationOutcome.UNAVAILABLE;
+        }
+        Counter.builder("coupon.redemption.reservations")
+                .description("Coupon usage slot reservations by outcome")
+                .tag("outcome", outcome.name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+        return outcome;
+    }
+
+    /**
+     * Keep the reserved slot of a paid checkout and queue the coupon for reconciliation.
+     *
+     * @return false if Redis could not be reached; the caller must then update the
+     *         coupon's durable counter itself
+     */
+    public boolean confirm(String couponId, String userId, String reference) {
+        try {
+            redisTemplate.execute(CONFIRM, keys(couponId), reference, userId);
+            redisTemplate.opsForSet().add(DIRTY_KEY, couponId);
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Could not confirm coupon {} for reference {}: {}", couponId, reference, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Give back the slot held by a checkout that will not be paid. Unknown or already
+     * expired references are ignored.
+     */
+    public void release(String couponId, String reference) {
+        try {
+            Long released = redisTemplate.execute(RELEASE, keys(couponId), reference);
+            if (released != null && released == 1) {
+                log.debug("Released coupon {} reservation {}", couponId, reference);
+            }
+        } catch (DataAccessException e) {
+            // The reservation expires on its own
+            log.warn("Could not release coupon {} reservation {}: {}", couponId, reference, e.getMessage());
+        }
+    }
+
+    /**
+     * Take up to {@code count} coupons with confirmed usages not yet reconciled.
+     */
+    public List<String> popDirty(int count) {
+        List<String> ids = redisTemplate.opsForSet().pop(DIRTY_KEY, count);
+        return ids != null ? ids : List.of();
+    }
+
+    /**
+     * Queue coupons for another reconciliation attempt.
+     */
+    public void markDirty(Collection<String> couponIds) {
+        if (couponIds.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.opsForSet().add(DIRTY_KEY, couponIds.toArray(String[]::new));
+        } catch (DataAccessException e) {
+            // The next confirmed usage of each coupon queues it again
+            log.warn("Could not requeue {} coupons for reconciliation: {}", couponIds.size(), e.getMessage());
+        }
+    }
+
+    private void seed(Coupon coupon, String userId, List<String> keys) {
+        long total = couponUsageRepository.countByCouponId(coupon.getId());
+        int mine = couponUsageRepository.countByCouponIdAndUserId(coupon.getId(), userId);
+        redisTemplate.execute(SEED, keys.subList(0, 2),
+                String.valueOf(total), userId, String.valueOf(mine), String.valueOf(keyExpiry(coupon)));
+    }
+
+    private long keyExpiry(Coupon coupon) {
+        Instant validUntil = coupon.getValidUntil() != null ? coupon.getValidUntil().toInstant() : Instant.now();
+        return validUntil.plus(Duration.ofHours(properties.getCounterRetentionHours())).toEpochMilli();
+    }
+
+    private static long limit(Integer max) {
+        return max != null && max > 0 ? max : 0;
+    }
+
+    private static ReservationOutcome toOutcome(Long result) {
+        if (result == null) {
+            return ReservationOutcome.UNAVAILABLE;
+        }
+        if (result == RESERVED) {
+            return ReservationOutcome.RESERVED;
+        }
+        if (result == TOTAL_LIMIT) {
+            return ReservationOutcome.TOTAL_LIMIT_REACHED;
+        }
+        if (result == USER_LIMIT) {
+            return ReservationOutcome.USER_LIMIT_REACHED;
+        }
+        return ReservationOutcome.UNAVAILABLE;
+    }
+
+    static List<String> keys(String couponId) {
+        String prefix = KEY_PREFIX + couponId + "}:";
+        return List.of(prefix + "total", prefix + "users", prefix + "reservations", prefix + "expiries");
+    }
+
+    public enum ReservationOutcome {
+        RESERVED,
+        TOTAL_LIMIT_REACHED,
+        USER_LIMIT_REACHED,
+        /**
+         * Redis could not be reached; the database checks made during validation apply.
+         */
+        UNAVAILABLE
+    }
+}
@@ -0,0 +1,73 @@
+package com.extractor.unraveldocs.coupon.redemption;
+
+import com.extractor.unraveldocs.coupon.config.CouponRedemptionProperties;
+import com.extractor.unraveldocs.coupon.repository.CouponRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Writes confirmed coupon usages back to {@code coupons.current_usage_count}.
+ * <p>
+ * Each pass pops a batch of coupons from the dirty set and recounts their usages in
+ * one statement, so a burst of payments on a hot coupon becomes one row update per
+ * pass instead of one contended increment per payment. Popping hands each coupon to
+ * one node; coupons whose update fails go back into the set.
+ */
+@Slf4j
+@Component
+public class CouponUsageReconciler {
+
+    private final CouponRedemptionStore redemptionStore;
+    private final CouponRepository couponRepository;
+    private final CouponRedemptionProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public CouponUsageReconciler(CouponRedemptionStore redemptionStore,
+                                 CouponRepository couponRepository,
+                                 CouponRedemptionProperties properties,
+                                 PlatformTransactionManager transactionManager) {
+        this.redemptionStore = redemptionStore;
+        this.couponRepository = couponRepository;
+        this.properties = properties;
+        // Also called after a usage's transaction has committed, so it needs its own
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.redemption.reconcile-interval-ms:10000}")
+    public void reconcile() {
+        List<String> couponIds;
+        try {
+            couponIds = redemptionStore.popDirty(properties.getReconcileBatchSize());
+        } catch (DataAccessException e) {
+            log.warn("Could not read coupons to reconcile: {}", e.getMessage());
+            return;
+        }
+        if (couponIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            reconcile(couponIds);
+        } catch (RuntimeException e) {
+            log.error("Failed to reconcile usage counts of {} coupons: {}", couponIds.size(), e.getMessage(), e);
+            redemptionStore.markDirty(couponIds);
+        }
+    }
+
+    /**
+     * Recount the usages of the given coupons now, for when the dirty set cannot be
+     * reached.
+     */
+    public void reconcile(List<String> couponIds) {
+        Integer updated = transactionTemplate.execute(status -> couponRepository.reconcileUsageCounts(couponIds));
+        log.debug("Reconciled usage counts of {} coupons", updated);
+    }
+}
@@ -2,10 +2,13 @@ package com.extractor.unraveldocs.coupon.repository;
 
 import com.extractor.unraveldocs.coupon.model.CouponRecipient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +35,26 @@ public interface CouponRecipientRepository extends JpaRepository<CouponRecipient
     @Query("SELECT r FROM CouponRecipient r WHERE r.coupon.id = :couponId AND r.expiryNotifiedAt IS NULL")
     List<CouponRecipient> findExpiryUnnotifiedByCouponId(@Param("couponId") String couponId);
 
+    /**
+     * Mark the given users' assignments as notified about the coupon, in one statement.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE CouponRecipient r SET r.notifiedAt = :notifiedAt " +
+            "WHERE r.coupon.id = :couponId AND r.user.id IN :userIds")
+    int markNotified(@Param("couponId") String couponId, @Param("userIds") List<String> userIds,
+            @Param("notifiedAt") OffsetDateTime notifiedAt);
+
+    /**
+     * Mark the given users' assignments as notified about the coupon's expiry, in one statement.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE CouponRecipient r SET r.expiryNotifiedAt = :notifiedAt " +
+            "WHERE r.coupon.id = :couponId AND r.user.id IN :userIds")
+    int markExpiryNotified(@Param("couponId") String couponId, @Param("userIds") List<String> userIds,
+            @Param("notifiedAt") OffsetDateTime notifiedAt);
+
     /**
      * Find all coupons available for a specific user (via recipient assignments).
      */
@@ -5,12 +5,14 @@ import com.extractor.unraveldocs.coupon.model.Coupon;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -68,6 +70,16 @@ public interface CouponRepository extends JpaRepository<Coupon, String> {
             "ORDER BY c.createdAt DESC")
     List<Coupon> findAllValidCoupons(@Param("now") OffsetDateTime now, Pageable pageable);
 
+    /**
+     * Set the usage counts of the given coupons to their recorded usages. Leaves the
+     * version alone, so admin edits in flight are not rejected by a usage.
+     */
+    @Modifying
+    @Query(value = "UPDATE coupons c SET current_usage_count = " +
+            "(SELECT COUNT(*) FROM coupon_usage u WHERE u.coupon_id = c.id) " +
+            "WHERE c.id IN (:couponIds)", nativeQuery = true)
+    int reconcileUsageCounts(@Param("couponIds") Collection<String> couponIds);
+
     /**
      * Count coupons by template.
      */
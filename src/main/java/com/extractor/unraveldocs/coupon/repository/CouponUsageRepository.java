@@ -23,6 +23,13 @@ public interface CouponUsageRepository extends JpaRepository<CouponUsage, String
 
     Page<CouponUsage> findByUserId(String userId, Pageable pageable);
 
+    long countByCouponId(String couponId);
+
+    /**
+     * Check if a payment's coupon usage was already recorded, for repeated webhooks.
+     */
+    boolean existsByCouponIdAndPaymentReference(String couponId, String paymentReference);
+
     /**
      * Count usage by coupon and user for per-user limit enforcement.
      */
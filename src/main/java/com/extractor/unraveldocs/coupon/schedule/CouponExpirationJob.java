@@ -4,18 +4,21 @@ import com.extractor.unraveldocs.coupon.model.Coupon;
 import com.extractor.unraveldocs.coupon.repository.CouponRepository;
 import com.extractor.unraveldocs.coupon.service.CouponNotificationService;
 import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import com.extractor.unraveldocs.scheduling.ChunkResult;
+import com.extractor.unraveldocs.scheduling.ClusterJob;
+import com.extractor.unraveldocs.scheduling.ClusterJobRunner;
+import com.extractor.unraveldocs.scheduling.KeyRange;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.util.List;
 
 /**
  * Scheduled job to notify admins and recipients about expiring coupons.
- * Runs daily at 9 AM.
+ * Runs daily at 9 AM, once per cluster as a single-chunk job.
  */
 @Slf4j
 @Component
@@ -25,35 +28,42 @@ public class CouponExpirationJob {
     private final CouponRepository couponRepository;
     private final CouponNotificationService couponNotificationService;
     private final SanitizeLogging sanitizer;
+    private final ClusterJobRunner clusterJobRunner;
+
+    static final String JOB_NAME = "coupon-expiration-notifications";
 
     /**
      * Checks for coupons expiring in 7, 3, and 1 days and sends notifications.
      */
     @Scheduled(cron = "${coupon.expiration.check.cron:0 0 9 * * *}")
-    @Transactional
     public void checkExpiringCoupons() {
         log.info("Starting coupon expiration check job");
+        clusterJobRunner.run(ClusterJob.single(JOB_NAME, this::notifyExpiringCoupons));
+        log.info("Coupon expiration check job completed");
+    }
 
-        OffsetDateTime now = OffsetDateTime.now();
+    ChunkResult notifyExpiringCoupons(KeyRange range, OffsetDateTime now) {
+        ChunkResult result = ChunkResult.EMPTY;
 
         // Check coupons expiring in 7 days
-        checkExpiringInDays(now, 7);
+        result = result.plus(checkExpiringInDays(now, 7));
 
         // Check coupons expiring in 3 days
-        checkExpiringInDays(now, 3);
+        result = result.plus(checkExpiringInDays(now, 3));
 
         // Check coupons expiring in 1 day
-        checkExpiringInDays(now, 1);
+        result = result.plus(checkExpiringInDays(now, 1));
 
-        log.info("Coupon expiration check job completed");
+        return result;
     }
 
-    private void checkExpiringInDays(OffsetDateTime now, int days) {
+    private ChunkResult checkExpiringInDays(OffsetDateTime now, int days) {
         OffsetDateTime expiryDate = now.plusDays(days);
         List<Coupon> expiringCoupons = couponRepository.findCouponsExpiringBetween(now, expiryDate);
 
         log.info("Found {} coupons expiring in {} days", sanitizer.sanitizeLoggingInteger(expiringCoupons.size()), sanitizer.sanitizeLoggingInteger(days));
 
+        int failed = 0;
         for (Coupon coupon : expiringCoupons) {
             try {
                 // Send notifications to admins and recipients
@@ -66,7 +76,9 @@ public class CouponExpirationJob {
                 }
             } catch (Exception e) {
                 log.error("Failed to send expiration notifications for coupon: {}", sanitizer.sanitizeLogging(coupon.getCode()), e);
+                failed++;
             }
         }
+        return new ChunkResult(expiringCoupons.size() - failed, failed);
     }
 }
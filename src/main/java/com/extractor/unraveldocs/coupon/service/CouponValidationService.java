@@ -26,7 +26,23 @@ public interface CouponValidationService {
     DiscountCalculationData applyCouponToAmount(ApplyCouponRequest request, User user);
 
     /**
-     * Records a successful coupon usage after payment.
+     * Reserves one usage slot of the coupon for a checkout until its payment is
+     * confirmed, released or the reservation expires.
+     *
+     * Throws InvalidCouponException if the coupon or the user has no slot left.
+     *
+     * @param reference Payment reference the slot is held under
+     */
+    void reserveCouponUsage(String couponCode, User user, String reference);
+
+    /**
+     * Gives back the slot reserved for a checkout that will not be paid.
+     */
+    void releaseCouponReservation(String couponCode, String reference);
+
+    /**
+     * Records a successful coupon usage after payment and confirms its reserved slot.
+     * A payment whose usage is already recorded is ignored.
      */
     void recordCouponUsage(
             Coupon coupon,
@@ -6,6 +6,9 @@ import com.extractor.unraveldocs.coupon.model.CouponRecipient;
 import com.extractor.unraveldocs.coupon.repository.CouponRecipientRepository;
 import com.extractor.unraveldocs.coupon.service.CouponNotificationService;
 import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import com.extractor.unraveldocs.messaging.dto.BulkEmailMessage;
+import com.extractor.unraveldocs.messaging.dto.BulkEmailRecipient;
+import com.extractor.unraveldocs.messaging.dto.BulkEmailResult;
 import com.extractor.unraveldocs.messaging.dto.EmailMessage;
 import com.extractor.unraveldocs.messaging.emailservice.EmailOrchestratorService;
 import com.extractor.unraveldocs.pushnotification.datamodel.NotificationType;
@@ -22,8 +25,12 @@ import org.springframework.stereotype.Service;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -40,6 +47,9 @@ public class CouponNotificationServiceImpl implements CouponNotificationService
     private static final String COUPON_EMAIL_TEMPLATE = "coupon-notification";
     private static final String COUPON_EXPIRY_EMAIL_TEMPLATE = "coupon-expiration";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMMM dd, yyyy");
+    private static final String COUPON_PUSH_TITLE = "New Coupon Available! 🎉";
+    private static final String USER_NAME = "userName";
+    private static final int MARK_NOTIFIED_CHUNK_SIZE = 1000;
 
     @Override
     @Async
@@ -57,24 +67,40 @@ public class CouponNotificationServiceImpl implements CouponNotificationService
     @Override
     @Async
     public void notifyRecipients(Coupon coupon, List<User> recipients) {
-        for (User recipient : recipients) {
-            try {
-                sendCouponEmail(recipient, coupon);
-                sendCouponPushNotification(recipient, coupon);
-
-                // Update notification status for specific recipients
-                if (coupon.getRecipientCategory() == RecipientCategory.SPECIFIC_USERS) {
-                    couponRecipientRepository.findByCouponIdAndUserId(coupon.getId(), recipient.getId())
-                            .ifPresent(r -> {
-                                r.markAsNotified();
-                                couponRecipientRepository.save(r);
-                            });
-                }
-            } catch (Exception e) {
-                log.error("Failed to notify user {} about coupon {}: {}",
-                        sanitizer.sanitizeLogging(recipient.getEmail()),
-                        sanitizer.sanitizeLogging(coupon.getCode()), e.getMessage());
-            }
+        if (recipients.isEmpty()) {
+            return;
+        }
+
+        // One render and one API call per batch of recipients, instead of one of each per user
+        Set<String> rejected = sendBulkEmail(BulkEmailMessage.builder()
+                .campaignId("coupon-" + coupon.getId())
+                .subject("🎉 You have a new coupon: " + coupon.getCode())
+                .templateName(COUPON_EMAIL_TEMPLATE)
+                .sharedModel(buildCouponEmailModel(coupon))
+                .recipientVariables(Set.of(USER_NAME))
+                .recipients(toBulkRecipients(recipients))
+                .build(), coupon);
+
+        try {
+            notificationService.sendToUsers(
+                    recipients.stream().map(User::getId).distinct().toList(),
+                    NotificationType.COUPON_RECEIVED,
+                    COUPON_PUSH_TITLE,
+                    couponPushMessage(coupon),
+                    couponPushData(coupon));
+        } catch (Exception e) {
+            log.error("Failed to send coupon push notifications for coupon {}: {}",
+                    sanitizer.sanitizeLogging(coupon.getCode()), e.getMessage());
+        }
+
+        // Update notification status for specific recipients
+        if (coupon.getRecipientCategory() == RecipientCategory.SPECIFIC_USERS) {
+            List<String> notifiedUserIds = recipients.stream()
+                    .filter(user -> !rejected.contains(user.getEmail()))
+                    .map(User::getId)
+                    .toList();
+            OffsetDateTime now = OffsetDateTime.now();
+            forEachChunk(notifiedUserIds, chunk -> couponRecipientRepository.markNotified(coupon.getId(), chunk, now));
         }
     }
 
@@ -85,7 +111,8 @@ public class CouponNotificationServiceImpl implements CouponNotificationService
                 sanitizer.sanitizeLogging(coupon.getCode()));
 
         try {
-            Map<String, Object> templateModel = buildCouponEmailModel(user, coupon);
+            Map<String, Object> templateModel = buildCouponEmailModel(coupon);
+            templateModel.put(USER_NAME, displayName(user));
 
             EmailMessage emailMessage = EmailMessage.builder()
                     .to(user.getEmail())
@@ -109,21 +136,12 @@ public class CouponNotificationServiceImpl implements CouponNotificationService
                 sanitizer.sanitizeLogging(coupon.getCode()));
 
         try {
-            String title = "New Coupon Available! 🎉";
-            String message = String.format("Use code %s and get %s%% off your next subscription!",
-                    coupon.getCode(), coupon.getDiscountPercentage().intValue());
-
-            Map<String, String> data = new HashMap<>();
-            data.put("couponCode", coupon.getCode());
-            data.put("discountPercentage", coupon.getDiscountPercentage().toString());
-            data.put("validUntil", coupon.getValidUntil().format(DATE_FORMATTER));
-
             notificationService.sendToUser(
                     user.getId(),
                     NotificationType.COUPON_RECEIVED,
-                    title,
-                    message,
-                    data);
+                    COUPON_PUSH_TITLE,
+                    couponPushMessage(coupon),
+                    couponPushData(coupon));
 
             log.debug("Coupon push notification sent to: {}", sanitizer.sanitizeLogging(user.getEmail()));
         } catch (Exception e) {
@@ -144,18 +162,32 @@ public class CouponNotificationServiceImpl implements CouponNotificationService
 
         // Notify recipients who haven't used the coupon
         if (coupon.getRecipientCategory() == RecipientCategory.SPECIFIC_USERS) {
-            var recipients = couponRecipientRepository.findExpiryUnnotifiedByCouponId(coupon.getId());
-            for (CouponRecipient recipient : recipients) {
-                try {
-                    sendExpirationEmailToUser(recipient.getUser(), coupon, daysUntilExpiry);
-                    sendExpirationPushToUser(recipient.getUser(), coupon, daysUntilExpiry);
-                    recipient.markAsExpiryNotified();
-                    couponRecipientRepository.save(recipient);
-                } catch (Exception e) {
-                    log.error("Failed to send expiration notification to user: {}",
-                            sanitizer.sanitizeLogging(recipient.getUser().getEmail()), e);
-                }
+            List<User> recipients = couponRecipientRepository.findExpiryUnnotifiedByCouponId(coupon.getId())
+                    .stream()
+                    .map(CouponRecipient::getUser)
+                    .toList();
+            if (recipients.isEmpty()) {
+                return;
             }
+
+            Set<String> rejected = sendBulkEmail(BulkEmailMessage.builder()
+                    .campaignId("coupon-expiry-" + daysUntilExpiry + "d-" + coupon.getId())
+                    .subject(String.format("⏰ Your coupon %s expires in %d day(s)!", coupon.getCode(), daysUntilExpiry))
+                    .templateName(COUPON_EXPIRY_EMAIL_TEMPLATE)
+                    .sharedModel(buildExpirationEmailModel(coupon, daysUntilExpiry))
+                    .recipientVariables(Set.of(USER_NAME))
+                    .recipients(toBulkRecipients(recipients))
+                    .build(), coupon);
+
+            sendExpirationPush(recipients.stream().map(User::getId).toList(), coupon, daysUntilExpiry);
+
+            List<String> notifiedUserIds = recipients.stream()
+                    .filter(user -> !rejected.contains(user.getEmail()))
+                    .map(User::getId)
+                    .toList();
+            OffsetDateTime now = OffsetDateTime.now();
+            forEachChunk(notifiedUserIds,
+                    chunk -> couponRecipientRepository.markExpiryNotified(coupon.getId(), chunk, now));
         }
     }
 
@@ -206,36 +238,9 @@ public class CouponNotificationServiceImpl implements CouponNotificationService
         }
     }
 
-    private void sendExpirationEmailToUser(User user, Coupon coupon, int daysUntilExpiry) {
-        log.debug("Sending expiration email to user: {} for coupon: {}",
-                sanitizer.sanitizeLogging(user.getEmail()),
-                sanitizer.sanitizeLogging(coupon.getCode()));
-
-        try {
-            Map<String, Object> templateModel = new HashMap<>();
-            templateModel.put("userName", user.getFirstName() != null ? user.getFirstName() : "User");
-            templateModel.put("couponCode", coupon.getCode());
-            templateModel.put("discountPercentage", coupon.getDiscountPercentage().intValue());
-            templateModel.put("daysUntilExpiry", daysUntilExpiry);
-            templateModel.put("expiryDate", coupon.getValidUntil().format(DATE_FORMATTER));
-
-            EmailMessage emailMessage = EmailMessage.builder()
-                    .to(user.getEmail())
-                    .subject(String.format("⏰ Your coupon %s expires in %d day(s)!", coupon.getCode(), daysUntilExpiry))
-                    .templateName(COUPON_EXPIRY_EMAIL_TEMPLATE)
-                    .templateModel(templateModel)
-                    .build();
-
-            emailOrchestratorService.sendEmail(emailMessage);
-        } catch (Exception e) {
-            log.error("Failed to send expiration email to {}: {}",
-                    sanitizer.sanitizeLogging(user.getEmail()), e.getMessage());
-        }
-    }
-
-    private void sendExpirationPushToUser(User user, Coupon coupon, int daysUntilExpiry) {
-        log.debug("Sending expiration push to user: {} for coupon: {}",
-                sanitizer.sanitizeLogging(user.getEmail()),
+    private void sendExpirationPush(List<String> userIds, Coupon coupon, int daysUntilExpiry) {
+        log.debug("Sending expiration push to {} users for coupon: {}",
+                sanitizer.sanitizeLoggingInteger(userIds.size()),
                 sanitizer.sanitizeLogging(coupon.getCode()));
 
         try {
@@ -248,23 +253,82 @@ public class CouponNotificationServiceImpl implements CouponNotificationService
             data.put("daysUntilExpiry", String.valueOf(daysUntilExpiry));
             data.put("discountPercentage", coupon.getDiscountPercentage().toString());
 
-            notificationService.sendToUser(
-                    user.getId(),
+            notificationService.sendToUsers(
+                    userIds,
                     getExpiryNotificationType(daysUntilExpiry),
                     title,
                     message,
                     data);
         } catch (Exception e) {
-            log.error("Failed to send expiration push to {}: {}",
-                    sanitizer.sanitizeLogging(user.getEmail()), e.getMessage());
+            log.error("Failed to send expiration push for coupon {}: {}",
+                    sanitizer.sanitizeLogging(coupon.getCode()), e.getMessage());
+        }
+    }
+
+    /**
+     * Send a bulk email, logging its outcome.
+     *
+     * @return addresses that could not be sent to
+     */
+    private Set<String> sendBulkEmail(BulkEmailMessage message, Coupon coupon) {
+        try {
+            BulkEmailResult result = emailOrchestratorService.sendBulkEmail(message);
+            log.info("Coupon email campaign {} for coupon {}: accepted={}, rejected={}",
+                    sanitizer.sanitizeLogging(result.campaignId()),
+                    sanitizer.sanitizeLogging(coupon.getCode()),
+                    sanitizer.sanitizeLoggingInteger(result.accepted()),
+                    sanitizer.sanitizeLoggingInteger(result.rejected()));
+            return new HashSet<>(result.rejectedRecipients());
+        } catch (Exception e) {
+            log.error("Failed to send coupon email campaign {}: {}",
+                    sanitizer.sanitizeLogging(message.getCampaignId()), e.getMessage());
+            Set<String> all = new HashSet<>();
+            message.getRecipients().forEach(recipient -> all.add(recipient.to()));
+            return all;
         }
     }
 
     // ========== Helper Methods ==========
 
-    private Map<String, Object> buildCouponEmailModel(User user, Coupon coupon) {
+    private static String couponPushMessage(Coupon coupon) {
+        return String.format("Use code %s and get %s%% off your next subscription!",
+                coupon.getCode(), coupon.getDiscountPercentage().intValue());
+    }
+
+    private static Map<String, String> couponPushData(Coupon coupon) {
+        Map<String, String> data = new HashMap<>();
+        data.put("couponCode", coupon.getCode());
+        data.put("discountPercentage", coupon.getDiscountPercentage().toString());
+        data.put("validUntil", coupon.getValidUntil().format(DATE_FORMATTER));
+        return data;
+    }
+
+    private static String displayName(User user) {
+        return user.getFirstName() != null ? user.getFirstName() : "User";
+    }
+
+    /**
+     * One bulk recipient per distinct address; the user's name is filled in by the provider.
+     */
+    private static List<BulkEmailRecipient> toBulkRecipients(List<User> users) {
+        Map<String, BulkEmailRecipient> byEmail = new LinkedHashMap<>();
+        for (User user : users) {
+            if (user.getEmail() != null) {
+                byEmail.putIfAbsent(user.getEmail(),
+                        new BulkEmailRecipient(user.getEmail(), Map.of(USER_NAME, displayName(user))));
+            }
+        }
+        return List.copyOf(byEmail.values());
+    }
+
+    private static void forEachChunk(List<String> ids, Consumer<List<String>> action) {
+        for (int from = 0; from < ids.size(); from += MARK_NOTIFIED_CHUNK_SIZE) {
+            action.accept(ids.subList(from, Math.min(from + MARK_NOTIFIED_CHUNK_SIZE, ids.size())));
+        }
+    }
+
+    private Map<String, Object> buildCouponEmailModel(Coupon coupon) {
         Map<String, Object> model = new HashMap<>();
-        model.put("userName", user.getFirstName() != null ? user.getFirstName() : "User");
         model.put("couponCode", coupon.getCode());
         model.put("discountPercentage", coupon.getDiscountPercentage().intValue());
         model.put("validFrom", coupon.getValidFrom().format(DATE_FORMATTER));
@@ -276,6 +340,15 @@ public class CouponNotificationServiceImpl implements CouponNotificationService
         return model;
     }
 
+    private Map<String, Object> buildExpirationEmailModel(Coupon coupon, int daysUntilExpiry) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("couponCode", coupon.getCode());
+        model.put("discountPercentage", coupon.getDiscountPercentage().intValue());
+        model.put("daysUntilExpiry", daysUntilExpiry);
+        model.put("expiryDate", coupon.getValidUntil().format(DATE_FORMATTER));
+        return model;
+    }
+
     private Map<String, Object> buildAdminExpirationEmailModel(Coupon coupon, int daysUntilExpiry) {
         Map<String, Object> model = new HashMap<>();
         model.put("couponCode", coupon.getCode());
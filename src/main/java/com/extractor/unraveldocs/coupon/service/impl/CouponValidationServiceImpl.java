@@ -5,11 +5,12 @@ import com.extractor.unraveldocs.coupon.dto.request.ApplyCouponRequest;
 import com.extractor.unraveldocs.coupon.dto.response.CouponValidationResponse;
 import com.extractor.unraveldocs.coupon.dto.response.DiscountCalculationData;
 import com.extractor.unraveldocs.coupon.enums.RecipientCategory;
-import com.extractor.unraveldocs.coupon.exception.CouponConcurrentUsageException;
 import com.extractor.unraveldocs.coupon.exception.InvalidCouponException;
 import com.extractor.unraveldocs.coupon.helpers.CouponMapper;
 import com.extractor.unraveldocs.coupon.model.Coupon;
 import com.extractor.unraveldocs.coupon.model.CouponUsage;
+import com.extractor.unraveldocs.coupon.redemption.CouponRedemptionStore;
+import com.extractor.unraveldocs.coupon.redemption.CouponUsageReconciler;
 import com.extractor.unraveldocs.coupon.repository.CouponRecipientRepository;
 import com.extractor.unraveldocs.coupon.repository.CouponRepository;
 import com.extractor.unraveldocs.coupon.repository.CouponUsageRepository;
@@ -23,11 +24,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.util.List;
 
 @Slf4j
 @Service
@@ -39,6 +43,8 @@ public class CouponValidationServiceImpl implements CouponValidationService {
     private final CouponRecipientRepository couponRecipientRepository;
     private final UserSubscriptionRepository userSubscriptionRepository;
     private final CouponMapper couponMapper;
+    private final CouponRedemptionStore redemptionStore;
+    private final CouponUsageReconciler usageReconciler;
     private final SanitizeLogging sanitizer;
 
     @Override
@@ -53,6 +59,21 @@ public class CouponValidationServiceImpl implements CouponValidationService {
             return CouponValidationResponse.invalid("Coupon not found", "COUPON_NOT_FOUND");
         }
 
+        CouponValidationResponse validation = validate(coupon, user);
+        if (validation != null) {
+            return validation;
+        }
+
+        CouponData couponData = couponMapper.toCouponData(coupon);
+        return CouponValidationResponse.valid(couponData);
+    }
+
+    /**
+     * Checks a loaded coupon for the user.
+     *
+     * @return the reason the coupon cannot be used, or null if it can
+     */
+    private CouponValidationResponse validate(Coupon coupon, User user) {
         // Check if active
         if (!coupon.isActive()) {
             return CouponValidationResponse.invalid("Coupon is inactive", "COUPON_INACTIVE");
@@ -67,7 +88,8 @@ public class CouponValidationServiceImpl implements CouponValidationService {
             return CouponValidationResponse.invalid("Coupon has expired", "COUPON_EXPIRED");
         }
 
-        // Check total usage limit
+        // Check total usage limit. The recorded count lags behind payments in flight;
+        // the slot reserved at checkout enforces the limit exactly.
         if (coupon.hasReachedUsageLimit()) {
             return CouponValidationResponse.invalid("Coupon usage limit reached", "USAGE_LIMIT_REACHED");
         }
@@ -87,9 +109,7 @@ public class CouponValidationServiceImpl implements CouponValidationService {
                     "You are not eligible for this coupon",
                     "USER_NOT_ELIGIBLE");
         }
-
-        CouponData couponData = couponMapper.toCouponData(coupon);
-        return CouponValidationResponse.valid(couponData);
+        return null;
     }
 
     @Override
@@ -99,14 +119,14 @@ public class CouponValidationServiceImpl implements CouponValidationService {
                 sanitizer.sanitizeLoggingObject(request.getAmount()));
 
         // Validate coupon first
-        CouponValidationResponse validation = validateCoupon(request.getCouponCode(), user);
-        if (!validation.isValid()) {
+        Coupon coupon = couponRepository.findByCode(request.getCouponCode().toUpperCase())
+                .orElseThrow(() -> new InvalidCouponException("Coupon not found"));
+        CouponValidationResponse validation = validate(coupon, user);
+        if (validation != null) {
             // Throw exception with the specific validation message
             throw new InvalidCouponException(validation.getMessage());
         }
 
-        Coupon coupon = couponRepository.findByCode(request.getCouponCode().toUpperCase()).orElseThrow();
-
         // Check minimum purchase amount
         if (coupon.getMinPurchaseAmount() != null &&
                 request.getAmount().compareTo(coupon.getMinPurchaseAmount()) < 0) {
@@ -142,6 +162,31 @@ public class CouponValidationServiceImpl implements CouponValidationService {
                 .build();
     }
 
+    @Override
+    public void reserveCouponUsage(String couponCode, User user, String reference) {
+        Coupon coupon = couponRepository.findByCode(couponCode.toUpperCase())
+                .orElseThrow(() -> new InvalidCouponException("Coupon not found"));
+
+        switch (redemptionStore.reserve(coupon, user.getId(), reference)) {
+            case RESERVED -> log.debug("Reserved coupon {} for payment {}",
+                    sanitizer.sanitizeLogging(coupon.getCode()),
+                    sanitizer.sanitizeLogging(reference));
+            case TOTAL_LIMIT_REACHED -> throw new InvalidCouponException("Coupon usage limit reached");
+            case USER_LIMIT_REACHED -> throw new InvalidCouponException(
+                    "You have already used this coupon the maximum number of times");
+            // The usage limits were checked against the database during validation
+            case UNAVAILABLE -> log.warn("Coupon {} not reserved for payment {}: redemption store unavailable",
+                    sanitizer.sanitizeLogging(coupon.getCode()),
+                    sanitizer.sanitizeLogging(reference));
+        }
+    }
+
+    @Override
+    public void releaseCouponReservation(String couponCode, String reference) {
+        couponRepository.findByCode(couponCode.toUpperCase())
+                .ifPresent(coupon -> redemptionStore.release(coupon.getId(), reference));
+    }
+
     @Override
     @Transactional
     public void recordCouponUsage(
@@ -152,6 +197,13 @@ public class CouponValidationServiceImpl implements CouponValidationService {
             String paymentReference,
             String subscriptionPlan) {
 
+        if (paymentReference != null &&
+                couponUsageRepository.existsByCouponIdAndPaymentReference(coupon.getId(), paymentReference)) {
+            log.info("Coupon usage for payment {} already recorded",
+                    sanitizer.sanitizeLogging(paymentReference));
+            return;
+        }
+
         log.info("Recording coupon usage: {} for user: {}",
                 sanitizer.sanitizeLogging(coupon.getCode()),
                 sanitizer.sanitizeLogging(user.getEmail()));
@@ -171,17 +223,24 @@ public class CouponValidationServiceImpl implements CouponValidationService {
 
         couponUsageRepository.save(usage);
 
-        // Increment coupon usage count with optimistic locking protection
-        try {
-            coupon.incrementUsageCount();
-            couponRepository.save(coupon);
-            log.info("Coupon usage recorded. New usage count: {}",
-                    sanitizer.sanitizeLoggingInteger(coupon.getCurrentUsageCount()));
-        } catch (org.springframework.dao.OptimisticLockingFailureException e) {
-            log.warn("Concurrent coupon usage detected for coupon: {}. Retrying is recommended.",
-                    sanitizer.sanitizeLogging(coupon.getCode()));
-            throw new CouponConcurrentUsageException(
-                    "Coupon was modified concurrently. Please try again.", e);
+        // The coupon row is not touched here: its usage count is reconciled from
+        // coupon_usage in the background, so concurrent payments do not contend on it
+        String couponId = coupon.getId();
+        String userId = user.getId();
+        Runnable confirm = () -> {
+            if (!redemptionStore.confirm(couponId, userId, paymentReference)) {
+                usageReconciler.reconcile(List.of(couponId));
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    confirm.run();
+                }
+            });
+        } else {
+            confirm.run();
         }
     }
 
@@ -129,6 +129,27 @@ public class CreditBalanceService {
                 transactionRepository.save(transaction);
         }
 
+        /**
+         * Return credits deducted for work that did not complete and log the refund.
+         */
+        @Transactional
+        public void refundCredits(User user, int credits, String referenceId, String description) {
+                UserCreditBalance balance = getOrCreateBalance(user.getId());
+                balance.setBalance(balance.getBalance() + credits);
+                balance.setTotalUsed(Math.max(0, balance.getTotalUsed() - credits));
+                creditBalanceRepository.save(balance);
+
+                CreditTransaction transaction = CreditTransaction.builder()
+                                .user(user)
+                                .type(CreditTransactionType.REFUND)
+                                .amount(credits)
+                                .balanceAfter(balance.getBalance())
+                                .description(description)
+                                .referenceId(referenceId)
+                                .build();
+                transactionRepository.save(transaction);
+        }
+
         /**
          * Check if a user has enough credits.
          */
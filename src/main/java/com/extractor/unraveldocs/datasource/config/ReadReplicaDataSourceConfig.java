@@ -0,0 +1,106 @@
+package com.extractor.unraveldocs.datasource.config;
+
+import com.extractor.unraveldocs.datasource.routing.ReadYourWritesTracker;
+import com.extractor.unraveldocs.datasource.routing.ReplicaLagMonitor;
+import com.extractor.unraveldocs.datasource.routing.ReplicaPool;
+import com.extractor.unraveldocs.datasource.routing.ReplicaRoutingDataSource;
+import com.extractor.unraveldocs.datasource.routing.WriteTrackingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured data source with one that sends
+ * {@code @Transactional(readOnly = true)} work to read replicas.
+ * <p>
+ * The primary pool is still configured from "spring.datasource". A
+ * {@link LazyConnectionDataSourceProxy} defers fetching a physical connection until
+ * the first statement, by which time the transaction's read-only flag is known, and
+ * hands read-only transactions to {@link ReplicaRoutingDataSource}. Everything else,
+ * including Flyway and non-transactional access, uses the primary.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "database.routing", name = "enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    private static final long REPLICA_CONNECTION_TIMEOUT_MS = 2000;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReadReplicaProperties properties) {
+        return new ReadYourWritesTracker(properties.getReadYourWritesWindowMs());
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            ReadReplicaProperties properties,
+            DataSourceProperties dataSourceProperties,
+            ReadYourWritesTracker readYourWritesTracker,
+            MeterRegistry meterRegistry) {
+        List<ReplicaPool> replicas = properties.getReplicas().stream()
+                .filter(replica -> StringUtils.hasText(replica.getUrl()))
+                .map(replica -> new ReplicaPool(replica.getName(),
+                        createReplicaPool(replica, dataSourceProperties, meterRegistry)))
+                .toList();
+        log.info("Routing read-only transactions to {} replica(s), max lag {}ms",
+                replicas.size(), properties.getMaxLagMs());
+        return new ReplicaLagMonitor(replicas, readYourWritesTracker, properties.getMaxLagMs(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            HikariDataSource primaryDataSource,
+            ReplicaLagMonitor replicaLagMonitor,
+            ReadYourWritesTracker readYourWritesTracker,
+            MeterRegistry meterRegistry) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(
+                new WriteTrackingDataSource(primaryDataSource, readYourWritesTracker));
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(
+                primaryDataSource, replicaLagMonitor.getReplicas(), readYourWritesTracker, meterRegistry));
+        return dataSource;
+    }
+
+    private HikariDataSource createReplicaPool(
+            ReadReplicaProperties.Replica replica,
+            DataSourceProperties primary,
+            MeterRegistry meterRegistry) {
+        HikariDataSource pool = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(primary.getDriverClassName())
+                .url(replica.getUrl())
+                .username(StringUtils.hasText(replica.getUsername()) ? replica.getUsername() : primary.getUsername())
+                .password(StringUtils.hasText(replica.getPassword()) ? replica.getPassword() : primary.getPassword())
+                .build();
+        pool.setPoolName("replica-" + replica.getName());
+        pool.setReadOnly(true);
+        pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+        pool.setMinimumIdle(replica.getMinimumIdle());
+        pool.setConnectionTimeout(REPLICA_CONNECTION_TIMEOUT_MS);
+        // A replica that is down at startup must not stop the application; the lag check marks it unhealthy.
+        pool.setInitializationFailTimeout(-1);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
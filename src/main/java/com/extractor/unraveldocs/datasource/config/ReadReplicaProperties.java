@@ -0,0 +1,75 @@
+package com.extractor.unraveldocs.datasource.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routing of read-only transactions to PostgreSQL streaming replicas.
+ * When disabled (the default), the single primary pool from "spring.datasource" is used for everything.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "database.routing")
+public class ReadReplicaProperties {
+    /**
+     * Whether read-only transactions are routed to the replicas below.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Replicas that serve read-only transactions, used in round-robin order.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Replicas further behind the primary than this are skipped, in milliseconds.
+     */
+    private long maxLagMs = 2000;
+
+    /**
+     * Interval between replication-lag checks, in milliseconds.
+     */
+    private long lagCheckIntervalMs = 1000;
+
+    /**
+     * After a user's write commits, their reads go to the primary for this long, in milliseconds.
+     */
+    private long readYourWritesWindowMs = 5000;
+
+    @Data
+    public static class Replica {
+        /**
+         * Name used for the pool and in metrics.
+         */
+        private String name;
+
+        /**
+         * JDBC URL of the replica.
+         */
+        private String url;
+
+        /**
+         * Username; defaults to the primary's.
+         */
+        private String username;
+
+        /**
+         * Password; defaults to the primary's.
+         */
+        private String password;
+
+        /**
+         * Maximum connections in this replica's pool.
+         */
+        private int maximumPoolSize = 10;
+
+        /**
+         * Idle connections kept open in this replica's pool.
+         */
+        private int minimumIdle = 2;
+    }
+}
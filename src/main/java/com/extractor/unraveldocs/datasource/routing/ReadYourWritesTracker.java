@@ -0,0 +1,82 @@
+package com.extractor.unraveldocs.datasource.routing;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers which users committed a write recently, so their next reads go to the
+ * primary instead of a replica that may not have replayed the write yet. Users are
+ * identified by the authenticated principal name; anonymous work is never pinned.
+ * <p>
+ * The window is tracked per application node. Requests routed to another node rely on
+ * the lag limit alone, which should be kept below the window.
+ */
+public class ReadYourWritesTracker {
+
+    private final long windowMs;
+    private final LongSupplier clock;
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long windowMs) {
+        this(windowMs, System::currentTimeMillis);
+    }
+
+    ReadYourWritesTracker(long windowMs, LongSupplier clock) {
+        this.windowMs = windowMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Pin the current user's reads to the primary for the configured window.
+     */
+    public void recordWrite() {
+        String user = currentUser();
+        if (user != null && windowMs > 0) {
+            pinnedUntil.put(user, clock.getAsLong() + windowMs);
+        }
+    }
+
+    /**
+     * Whether the current user wrote within the window and must read from the primary.
+     */
+    public boolean isPinnedToPrimary() {
+        String user = currentUser();
+        if (user == null) {
+            return false;
+        }
+        Long until = pinnedUntil.get(user);
+        if (until == null) {
+            return false;
+        }
+        if (until <= clock.getAsLong()) {
+            pinnedUntil.remove(user, until);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Drop expired entries for users who have not read since their window closed.
+     */
+    public void evictExpired() {
+        long now = clock.getAsLong();
+        pinnedUntil.values().removeIf(until -> until <= now);
+    }
+
+    int pinnedUsers() {
+        return pinnedUntil.size();
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || "anonymousUser".equals(authentication.getPrincipal())) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
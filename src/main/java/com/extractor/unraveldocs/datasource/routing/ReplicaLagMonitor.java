@@ -0,0 +1,102 @@
+package com.extractor.unraveldocs.datasource.routing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Periodically measures each replica's replication lag and marks replicas that are
+ * unreachable or too far behind as unhealthy, so reads skip them until they catch up.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    /**
+     * Zero when the replica has replayed everything it received (an idle primary
+     * would otherwise look stale), else the age of the last replayed transaction.
+     */
+    static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+            END
+            """;
+
+    @Getter
+    private final List<ReplicaPool> replicas;
+    private final ReadYourWritesTracker tracker;
+    private final long maxLagMs;
+
+    public ReplicaLagMonitor(List<ReplicaPool> replicas, ReadYourWritesTracker tracker,
+                             long maxLagMs, MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+        this.tracker = tracker;
+        this.maxLagMs = maxLagMs;
+        for (ReplicaPool replica : this.replicas) {
+            Gauge.builder("db.replica.lag", replica, ReplicaPool::getLagMs)
+                    .description("Replication lag at the last check, in milliseconds")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+            Gauge.builder("db.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                    .description("Whether the replica is serving reads")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${database.routing.lag-check-interval-ms:1000}")
+    public void checkReplicas() {
+        replicas.forEach(this::check);
+        tracker.evictExpired();
+    }
+
+    /**
+     * Close the replica pools; the primary pool is closed by Spring.
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (ReplicaPool replica : replicas) {
+            if (replica.getDataSource() instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close replica pool {}: {}", replica.getName(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    void check(ReplicaPool replica) {
+        boolean wasHealthy = replica.isHealthy();
+        try (Connection connection = replica.getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(1);
+            try (ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                resultSet.next();
+                long lagMs = (long) resultSet.getDouble(1);
+                replica.setLagMs(lagMs);
+                replica.setHealthy(lagMs <= maxLagMs);
+            }
+        } catch (SQLException e) {
+            replica.setHealthy(false);
+            if (wasHealthy) {
+                log.warn("Replica {} failed its lag check: {}", replica.getName(), e.getMessage());
+            }
+            return;
+        }
+        if (wasHealthy != replica.isHealthy()) {
+            log.info("Replica {} is now {} (lag {}ms)", replica.getName(),
+                    replica.isHealthy() ? "serving reads" : "skipped", replica.getLagMs());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.extractor.unraveldocs.datasource.routing;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.sql.DataSource;
+
+/**
+ * A replica's connection pool and its last observed replication state.
+ */
+@Getter
+public class ReplicaPool {
+    private final String name;
+    private final DataSource dataSource;
+
+    /**
+     * Replication lag at the last check, in milliseconds.
+     */
+    @Setter
+    private volatile long lagMs;
+
+    /**
+     * Whether the replica answered its last check within the allowed lag.
+     */
+    @Setter
+    private volatile boolean healthy;
+
+    public ReplicaPool(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+}
@@ -0,0 +1,94 @@
+package com.extractor.unraveldocs.datasource.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Data source for read-only transactions. Picks the next healthy replica in
+ * round-robin order, and falls back to the primary when the current user has just
+ * written, when every replica is lagging or down, or when the chosen replica
+ * refuses a connection.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final List<ReplicaPool> replicas;
+    private final ReadYourWritesTracker tracker;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Map<String, Counter> replicaReads;
+    private final Counter pinnedToPrimary;
+    private final Counter noHealthyReplica;
+    private final Counter replicaUnreachable;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<ReplicaPool> replicas,
+                                    ReadYourWritesTracker tracker, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.tracker = tracker;
+        this.replicaReads = this.replicas.stream().collect(Collectors.toMap(
+                ReplicaPool::getName, replica -> readsCounter(meterRegistry, replica.getName(), "replica")));
+        this.pinnedToPrimary = readsCounter(meterRegistry, "primary", "read_your_writes");
+        this.noHealthyReplica = readsCounter(meterRegistry, "primary", "no_healthy_replica");
+        this.replicaUnreachable = readsCounter(meterRegistry, "primary", "replica_unreachable");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (tracker.isPinnedToPrimary()) {
+            pinnedToPrimary.increment();
+            return primary.getConnection();
+        }
+        ReplicaPool replica = nextHealthyReplica();
+        if (replica == null) {
+            noHealthyReplica.increment();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.getDataSource().getConnection();
+            replicaReads.get(replica.getName()).increment();
+            return connection;
+        } catch (SQLException e) {
+            log.warn("Replica {} refused a connection, reading from primary: {}", replica.getName(), e.getMessage());
+            replica.setHealthy(false);
+            replicaUnreachable.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    private ReplicaPool nextHealthyReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, size));
+        for (int i = 0; i < size; i++) {
+            ReplicaPool candidate = replicas.get((start + i) % size);
+            if (candidate.isHealthy()) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static Counter readsCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("db.routing.reads")
+                .description("Read-only connections handed out, by pool")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,54 @@
+package com.extractor.unraveldocs.datasource.routing;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Primary data source that notes when a read-write transaction commits, so the
+ * writing user's following reads can be pinned to the primary.
+ */
+public class WriteTrackingDataSource extends DelegatingDataSource {
+
+    private final ReadYourWritesTracker tracker;
+
+    public WriteTrackingDataSource(DataSource primary, ReadYourWritesTracker tracker) {
+        super(primary);
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        registerCommitCallback();
+        return super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        registerCommitCallback();
+        return super.getConnection(username, password);
+    }
+
+    private void registerCommitCallback() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        boolean registered = TransactionSynchronizationManager.getSynchronizations().stream()
+                .anyMatch(RecordWriteOnCommit.class::isInstance);
+        if (!registered) {
+            TransactionSynchronizationManager.registerSynchronization(new RecordWriteOnCommit(tracker));
+        }
+    }
+
+    private record RecordWriteOnCommit(ReadYourWritesTracker tracker) implements TransactionSynchronization {
+        @Override
+        public void afterCommit() {
+            tracker.recordWrite();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.extractor.unraveldocs.documents.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration for direct-to-storage upload sessions.
+ * Clients upload to presigned S3 URLs, so these limits replace the multipart
+ * request limits of {@code /documents/upload} for session uploads.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "documents.upload-session")
+public class UploadSessionProperties {
+
+    /**
+     * Minutes a session stays open. Presigned URLs expire at the same time.
+     */
+    private int ttlMinutes = 60;
+
+    /**
+     * Largest file accepted in a session, in megabytes.
+     */
+    private long maxFileSizeMb = 2048;
+
+    /**
+     * Most files accepted in one session.
+     */
+    private int maxFilesPerSession = 50;
+
+    /**
+     * Files at or above this size, in megabytes, are uploaded in parts.
+     */
+    private long multipartThresholdMb = 64;
+
+    /**
+     * Size of each multipart part in megabytes. S3 requires at least 5 MB for all
+     * parts except the last.
+     */
+    private long partSizeMb = 16;
+
+    /**
+     * Interval between sweeps that complete uploaded sessions and expire stale ones.
+     */
+    private long sweepIntervalMs = 300_000;
+
+    /**
+     * Open sessions examined per sweep.
+     */
+    private int sweepBatchSize = 100;
+
+    /**
+     * Days a finished session record is kept before the sweeper removes it.
+     */
+    private int retentionDays = 7;
+}
@@ -1,5 +1,6 @@
 package com.extractor.unraveldocs.documents.controller;
 
+import com.extractor.unraveldocs.documents.dto.request.CreateUploadSessionRequest;
 import com.extractor.unraveldocs.documents.dto.request.MoveDocumentRequest;
 import com.extractor.unraveldocs.documents.dto.request.UpdateCollectionRequest;
 import com.extractor.unraveldocs.documents.dto.request.UpdateDocumentRequest;
@@ -22,12 +23,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
@@ -135,6 +138,21 @@ public class DocumentController {
                 return ResponseEntity.ok(response);
         }
 
+        @Operation(summary = "Get a document preview", description = "Redirects to a resized JPEG preview of the document: the image itself, scaled down, or the first page of a PDF. Previews of documents stored before previews existed are generated on first request.", responses = {
+                        @ApiResponse(responseCode = "302", description = "Redirect to the preview image"),
+                        @ApiResponse(responseCode = "403", description = "Forbidden - User not authorized or not logged in"),
+                        @ApiResponse(responseCode = "404", description = "Not Found - Collection or file not found, or no preview can be made")
+        })
+        @GetMapping("/collection/{collectionId}/document/{documentId}/preview")
+        public ResponseEntity<Void> getDocumentPreview(
+                        @Parameter(description = "ID of the document collection") @PathVariable String collectionId,
+                        @Parameter(description = "Document ID of the file") @PathVariable String documentId,
+                        Authentication authenticatedUser) {
+                User user = getAuthenticatedUser(authenticatedUser);
+                String previewUrl = documentService.getPreviewUrl(collectionId, documentId, user.getId());
+                return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(previewUrl)).build();
+        }
+
         @Operation(summary = "Delete a document collection", description = "Allows users to delete their uploaded document collections.")
         @DeleteMapping("/collection/{collectionId}")
         public ResponseEntity<Void> deleteDocument(
@@ -223,4 +241,65 @@ public class DocumentController {
                                 documentId, request, user.getId());
                 return ResponseEntity.ok(response);
         }
-}
\ No newline at end of file
+
+        // =====================================================================
+        // Direct-to-storage upload sessions
+        // =====================================================================
+
+        @Operation(summary = "Start a direct upload session", description = "Issues presigned S3 URLs so the client uploads files straight to storage. "
+                        + "Files below the multipart threshold get one PUT URL; larger files get one URL per part. "
+                        + "Uploads are gated by available storage capacity. Encryption is not available for direct uploads.", responses = {
+                                        @ApiResponse(responseCode = "201", description = "Upload session created", content = @Content(mediaType = "application/json", schema = @Schema(implementation = UploadSessionData.class))),
+                                        @ApiResponse(responseCode = "400", description = "Bad Request - Invalid file type, file too large, or storage limit exceeded"),
+                                        @ApiResponse(responseCode = "403", description = "Forbidden - User not logged in")
+                        })
+        @PostMapping("/upload-sessions")
+        public ResponseEntity<DocumentCollectionResponse<UploadSessionData>> createUploadSession(
+                        @Valid @RequestBody CreateUploadSessionRequest request,
+                        Authentication authenticatedUser) {
+                User user = getAuthenticatedUser(authenticatedUser);
+
+                Bucket bucket = this.rateLimitBuckets.computeIfAbsent(user.getId(), this::createRateLimitBucket);
+                if (!bucket.tryConsume(1)) {
+                        throw new TooManyRequestsException("Rate limit exceeded. Please try again later.");
+                }
+
+                DocumentCollectionResponse<UploadSessionData> response = documentService.createUploadSession(request,
+                                user);
+                return ResponseEntity.status(response.getStatusCode()).body(response);
+        }
+
+        @Operation(summary = "Complete a direct upload session", description = "Verifies the uploaded objects and creates the document collection. "
+                        + "Files that were not uploaded or do not match their declared size and type are reported as failed. "
+                        + "Calling it again returns the same result.", responses = {
+                                        @ApiResponse(responseCode = "200", description = "Session completed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DocumentCollectionResponse.class))),
+                                        @ApiResponse(responseCode = "202", description = "Session completed and text extraction queued"),
+                                        @ApiResponse(responseCode = "400", description = "Bad Request - Session was aborted or expired"),
+                                        @ApiResponse(responseCode = "403", description = "Forbidden - Session belongs to another user"),
+                                        @ApiResponse(responseCode = "404", description = "Not Found - Session not found")
+                        })
+        @PostMapping("/upload-sessions/{sessionId}/complete")
+        public ResponseEntity<DocumentCollectionResponse<DocumentCollectionUploadData>> completeUploadSession(
+                        @Parameter(description = "ID of the upload session") @PathVariable String sessionId,
+                        Authentication authenticatedUser) {
+                User user = getAuthenticatedUser(authenticatedUser);
+                DocumentCollectionResponse<DocumentCollectionUploadData> response = documentService
+                                .completeUploadSession(sessionId, user);
+                return ResponseEntity.status(response.getStatusCode()).body(response);
+        }
+
+        @Operation(summary = "Abort a direct upload session", description = "Cancels an open session and removes anything already uploaded to it.", responses = {
+                        @ApiResponse(responseCode = "204", description = "Session aborted"),
+                        @ApiResponse(responseCode = "400", description = "Bad Request - Session is no longer open"),
+                        @ApiResponse(responseCode = "403", description = "Forbidden - Session belongs to another user"),
+                        @ApiResponse(responseCode = "404", description = "Not Found - Session not found")
+        })
+        @DeleteMapping("/upload-sessions/{sessionId}")
+        public ResponseEntity<Void> abortUploadSession(
+                        @Parameter(description = "ID of the upload session") @PathVariable String sessionId,
+                        Authentication authenticatedUser) {
+                User user = getAuthenticatedUser(authenticatedUser);
+                documentService.abortUploadSession(sessionId, user);
+                return ResponseEntity.noContent().build();
+        }
+}
@@ -0,0 +1,17 @@
+package com.extractor.unraveldocs.documents.datamodel;
+
+public enum UploadMethod {
+    SINGLE("single"),
+    MULTIPART("multipart");
+
+    private final String method;
+
+    UploadMethod(String method) {
+        this.method = method;
+    }
+
+    @Override
+    public String toString() {
+        return method;
+    }
+}
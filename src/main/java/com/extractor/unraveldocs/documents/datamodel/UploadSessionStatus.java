@@ -0,0 +1,19 @@
+package com.extractor.unraveldocs.documents.datamodel;
+
+public enum UploadSessionStatus {
+    OPEN("open"),
+    COMPLETED("completed"),
+    ABORTED("aborted"),
+    EXPIRED("expired");
+
+    private final String status;
+
+    UploadSessionStatus(String status) {
+        this.status = status;
+    }
+
+    @Override
+    public String toString() {
+        return status;
+    }
+}
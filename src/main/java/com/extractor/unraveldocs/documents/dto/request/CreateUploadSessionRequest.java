@@ -0,0 +1,46 @@
+package com.extractor.unraveldocs.documents.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateUploadSessionRequest {
+    @Size(max = 255, message = "Collection name must not exceed 255 characters")
+    private String collectionName;
+
+    /**
+     * Queue OCR for every file once the session completes.
+     */
+    private boolean extractText;
+
+    @NotEmpty(message = "At least one file is required")
+    @Valid
+    private List<UploadFile> files;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UploadFile {
+        @NotBlank(message = "File name is required")
+        @Size(max = 255, message = "File name must not exceed 255 characters")
+        @Pattern(regexp = "^[^/\\\\]+\\.[A-Za-z0-9]+$", message = "File name must have an extension and no path")
+        private String fileName;
+
+        @NotBlank(message = "Content type is required")
+        private String contentType;
+
+        @Positive(message = "File size must be greater than zero")
+        private long size;
+    }
+}
@@ -12,6 +12,7 @@ public class FileEntryData {
     private String displayName;
     private long fileSize;
     private String fileUrl;
+    private String previewUrl;
     private String status;
     private boolean isEncrypted;
 }
\ No newline at end of file
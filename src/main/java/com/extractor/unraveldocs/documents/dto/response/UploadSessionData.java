@@ -0,0 +1,47 @@
+package com.extractor.unraveldocs.documents.dto.response;
+
+import com.extractor.unraveldocs.documents.datamodel.UploadMethod;
+import com.extractor.unraveldocs.documents.datamodel.UploadSessionStatus;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+public class UploadSessionData {
+    private String sessionId;
+    private UploadSessionStatus status;
+    private OffsetDateTime expiresAt;
+    private List<UploadTarget> files;
+
+    /**
+     * Where and how to upload one file. A single upload is a PUT of the whole file to
+     * {@code uploadUrl} with the declared {@code Content-Type}; a multipart upload is
+     * a PUT of each {@code partSize} slice to its part URL.
+     */
+    @Getter
+    @Setter
+    @Builder
+    public static class UploadTarget {
+        private String documentId;
+        private String fileName;
+        private String contentType;
+        private long size;
+        private UploadMethod method;
+        private String uploadUrl;
+        private Long partSize;
+        private List<UploadPart> parts;
+    }
+
+    @Getter
+    @Setter
+    @Builder
+    public static class UploadPart {
+        private int partNumber;
+        private String uploadUrl;
+    }
+}
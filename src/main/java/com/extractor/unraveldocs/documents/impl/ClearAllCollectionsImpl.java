@@ -9,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.stream.Stream;
 
 @Slf4j
@@ -26,10 +27,22 @@ public class ClearAllCollectionsImpl implements ClearAllCollectionsService {
                 .flatMap(collection -> collection.getFiles() != null ? collection.getFiles().stream() : Stream.empty())
                 .filter(fileEntry -> fileEntry.getStorageId() != null && fileEntry.getFileUrl() != null)
                 .forEach(this::deleteFileSafely);
+        deletePreviewsSafely(documentCollectionRepository.findUnsharedPreviewUrlsByUserId(userId));
 
         documentCollectionRepository.deleteAllByUserId(userId);
     }
 
+    private void deletePreviewsSafely(List<String> previewUrls) {
+        if (previewUrls.isEmpty()) {
+            return;
+        }
+        try {
+            awsS3Service.deleteFiles(previewUrls);
+        } catch (Exception e) {
+            log.error("Failed to delete {} document previews: {}", previewUrls.size(), e.getMessage());
+        }
+    }
+
     private void deleteFileSafely(FileEntry fileEntry) {
         try {
             awsS3Service.deleteFile(fileEntry.getFileUrl());
@@ -151,6 +151,7 @@ public class CollectionUpdateServiceImpl implements CollectionUpdateService {
                 .displayName(fileEntry.getDisplayName())
                 .fileSize(fileEntry.getFileSize())
                 .fileUrl(fileEntry.getFileUrl())
+                .previewUrl(fileEntry.getPreviewUrl())
                 .status(fileEntry.getUploadStatus())
                 .isEncrypted(fileEntry.isEncrypted())
                 .build();
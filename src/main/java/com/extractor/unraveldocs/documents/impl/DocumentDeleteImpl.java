@@ -3,6 +3,7 @@ package com.extractor.unraveldocs.documents.impl;
 import com.extractor.unraveldocs.documents.datamodel.DocumentStatus;
 import com.extractor.unraveldocs.documents.datamodel.DocumentUploadState;
 import com.extractor.unraveldocs.documents.interfaces.DocumentDeleteService;
+import com.extractor.unraveldocs.documents.interfaces.DocumentPreviewService;
 import com.extractor.unraveldocs.documents.model.DocumentCollection;
 import com.extractor.unraveldocs.documents.model.FileEntry;
 import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
@@ -22,6 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -34,6 +36,7 @@ public class DocumentDeleteImpl implements DocumentDeleteService {
     private final SanitizeLogging s;
     private final StorageAllocationService storageAllocationService;
     private final NotificationService notificationService;
+    private final DocumentPreviewService documentPreviewService;
 
     @Override
     @Transactional
@@ -72,6 +75,7 @@ public class DocumentDeleteImpl implements DocumentDeleteService {
                 }
             }
         }
+        documentPreviewService.deleteUnreferencedPreviews(collection.getFiles());
         documentCollectionRepository.delete(collection);
 
         // Reclaim storage after successful deletion
@@ -127,6 +131,8 @@ public class DocumentDeleteImpl implements DocumentDeleteService {
             }
         }
 
+        documentPreviewService.deleteUnreferencedPreviews(List.of(entryToRemove));
+
         // Capture file size before removal for storage reclamation
         long fileSizeToReclaim = DocumentUploadState.SUCCESS.toString().equals(entryToRemove.getUploadStatus())
                 ? entryToRemove.getFileSize()
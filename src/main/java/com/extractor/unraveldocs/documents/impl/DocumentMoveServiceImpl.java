@@ -105,6 +105,7 @@ public class DocumentMoveServiceImpl implements DocumentMoveService {
                 .displayName(fileToMove.getDisplayName())
                 .fileSize(fileToMove.getFileSize())
                 .fileUrl(fileToMove.getFileUrl())
+                .previewUrl(fileToMove.getPreviewUrl())
                 .status(fileToMove.getUploadStatus())
                 .isEncrypted(fileToMove.isEncrypted())
                 .build();
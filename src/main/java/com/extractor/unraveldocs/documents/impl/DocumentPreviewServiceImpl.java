@@ -0,0 +1,106 @@
+package com.extractor.unraveldocs.documents.impl;
+
+import com.extractor.unraveldocs.documents.datamodel.DocumentUploadState;
+import com.extractor.unraveldocs.documents.interfaces.DocumentPreviewService;
+import com.extractor.unraveldocs.documents.model.DocumentCollection;
+import com.extractor.unraveldocs.documents.model.FileEntry;
+import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
+import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import com.extractor.unraveldocs.exceptions.custom.ForbiddenException;
+import com.extractor.unraveldocs.exceptions.custom.NotFoundException;
+import com.extractor.unraveldocs.utils.imageupload.rendition.RenditionProfile;
+import com.extractor.unraveldocs.utils.imageupload.rendition.RenditionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentPreviewServiceImpl implements DocumentPreviewService {
+    private final DocumentCollectionRepository documentCollectionRepository;
+    private final RenditionService renditionService;
+    private final CacheManager cacheManager;
+    private final SanitizeLogging s;
+
+    /**
+     * URL of a document's preview. Documents stored before previews existed, or uploaded
+     * directly to storage, get their preview generated here on first request.
+     */
+    @Override
+    @Transactional
+    public String getPreviewUrl(String collectionId, String documentId, String userId) {
+        DocumentCollection collection = documentCollectionRepository.findById(collectionId)
+                .orElseThrow(() -> new NotFoundException("Document collection not found with ID: " + collectionId));
+
+        if (!collection.getUser().getId().equals(userId)) {
+            throw new ForbiddenException("You are not authorized to access this document collection.");
+        }
+
+        FileEntry fileEntry = collection.getFiles().stream()
+                .filter(entry -> documentId.equals(entry.getDocumentId()))
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException(
+                        "File with document ID: " + documentId + " not found in collection: " + collectionId));
+
+        if (fileEntry.getPreviewUrl() != null) {
+            return fileEntry.getPreviewUrl();
+        }
+
+        if (fileEntry.isEncrypted()
+                || !DocumentUploadState.SUCCESS.toString().equals(fileEntry.getUploadStatus())
+                || fileEntry.getFileUrl() == null) {
+            throw new NotFoundException("No preview is available for document ID: " + documentId);
+        }
+
+        String previewUrl = renditionService.createRenditionFromStored(
+                        fileEntry.getFileUrl(), fileEntry.getFileType(), fileEntry.getFileSize(),
+                        RenditionProfile.DOCUMENT_PREVIEW)
+                .orElseThrow(() -> new NotFoundException("No preview is available for document ID: " + documentId));
+
+        fileEntry.setPreviewUrl(previewUrl);
+        documentCollectionRepository.save(collection);
+        evictCachedCollection(collectionId, documentId);
+
+        log.info("Generated preview for document {} in collection {}",
+                s.sanitizeLogging(documentId), s.sanitizeLogging(collectionId));
+        return previewUrl;
+    }
+
+    /**
+     * Delete the previews of removed documents. Identical uploads share a preview, so a
+     * preview another document still uses is kept.
+     */
+    @Override
+    public void deleteUnreferencedPreviews(Collection<FileEntry> removedEntries) {
+        List<String> removedDocumentIds = removedEntries.stream()
+                .map(FileEntry::getDocumentId)
+                .toList();
+
+        removedEntries.stream()
+                .map(FileEntry::getPreviewUrl)
+                .filter(Objects::nonNull)
+                .distinct()
+                .filter(previewUrl ->
+                        documentCollectionRepository.countPreviewReferences(previewUrl, removedDocumentIds) == 0)
+                .forEach(renditionService::deleteRendition);
+    }
+
+    private void evictCachedCollection(String collectionId, String documentId) {
+        Cache collectionCache = cacheManager.getCache("documentCollection");
+        if (collectionCache != null) {
+            collectionCache.evict(collectionId);
+        }
+        Cache fileEntryCache = cacheManager.getCache("fileEntry");
+        if (fileEntryCache != null) {
+            fileEntryCache.evict(collectionId + "-" + documentId);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.extractor.unraveldocs.documents.interfaces.DocumentUploadService;
 import com.extractor.unraveldocs.documents.model.DocumentCollection;
 import com.extractor.unraveldocs.documents.model.FileEntry;
 import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiRecorder;
 import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
 import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
 import com.extractor.unraveldocs.ocrprocessing.utils.FileStorageService;
@@ -44,6 +45,7 @@ public class DocumentUploadImpl implements DocumentUploadService {
     private final FileStorageService fileStorageService;
     private final StorageAllocationService storageAllocationService;
     private final NotificationService notificationService;
+    private final KpiRecorder kpiRecorder;
     private final com.extractor.unraveldocs.encryption.interfaces.EncryptionService encryptionService;
     private final com.extractor.unraveldocs.subscription.service.SubscriptionFeatureService subscriptionFeatureService;
 
@@ -98,6 +100,7 @@ public class DocumentUploadImpl implements DocumentUploadService {
 
                     fileEntryDataBuilder.documentId(fileEntry.getDocumentId())
                             .fileUrl(fileEntry.getFileUrl())
+                            .previewUrl(fileEntry.getPreviewUrl())
                             .status(DocumentUploadState.SUCCESS.toString());
                     successfulUploads++;
                 } catch (Exception storageEx) {
@@ -145,6 +148,7 @@ public class DocumentUploadImpl implements DocumentUploadService {
 
             DocumentCollection savedCollection = documentCollectionRepository.save(documentCollection);
             savedCollectionId = savedCollection.getId();
+            kpiRecorder.documentsUploaded(processedFileEntries);
 
             // Update storage used for successfully uploaded files
             long successfulUploadSize = processedFileEntries.stream()
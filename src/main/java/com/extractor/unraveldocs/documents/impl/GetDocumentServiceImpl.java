@@ -135,6 +135,7 @@ public class GetDocumentServiceImpl implements GetDocumentService {
                                 .displayName(fileEntry.getDisplayName())
                                 .fileSize(fileEntry.getFileSize())
                                 .fileUrl(fileEntry.getFileUrl())
+                                .previewUrl(fileEntry.getPreviewUrl())
                                 .status(fileEntry.getUploadStatus())
                                 .isEncrypted(fileEntry.isEncrypted())
                                 .build();
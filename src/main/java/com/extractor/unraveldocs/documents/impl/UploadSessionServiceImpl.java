@@ -0,0 +1,202 @@
+package com.extractor.unraveldocs.documents.impl;
+
+import com.extractor.unraveldocs.documents.config.UploadSessionProperties;
+import com.extractor.unraveldocs.documents.datamodel.DocumentStatus;
+import com.extractor.unraveldocs.documents.datamodel.DocumentUploadState;
+import com.extractor.unraveldocs.documents.datamodel.UploadMethod;
+import com.extractor.unraveldocs.documents.datamodel.UploadSessionStatus;
+import com.extractor.unraveldocs.documents.dto.request.CreateUploadSessionRequest;
+import com.extractor.unraveldocs.documents.dto.response.DocumentCollectionResponse;
+import com.extractor.unraveldocs.documents.dto.response.DocumentCollectionUploadData;
+import com.extractor.unraveldocs.documents.dto.response.UploadSessionData;
+import com.extractor.unraveldocs.documents.interfaces.UploadSessionService;
+import com.extractor.unraveldocs.documents.model.UploadSession;
+import com.extractor.unraveldocs.documents.model.UploadSessionFile;
+import com.extractor.unraveldocs.documents.repository.UploadSessionRepository;
+import com.extractor.unraveldocs.documents.service.UploadSessionFinalizer;
+import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import com.extractor.unraveldocs.exceptions.custom.ForbiddenException;
+import com.extractor.unraveldocs.exceptions.custom.NotFoundException;
+import com.extractor.unraveldocs.storage.service.StorageAllocationService;
+import com.extractor.unraveldocs.user.model.User;
+import com.extractor.unraveldocs.utils.imageupload.FileType;
+import com.extractor.unraveldocs.utils.imageupload.aws.AwsS3Service;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UploadSessionServiceImpl implements UploadSessionService {
+    private static final long MEGABYTE = 1024 * 1024;
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final UploadSessionFinalizer uploadSessionFinalizer;
+    private final AwsS3Service awsS3Service;
+    private final StorageAllocationService storageAllocationService;
+    private final UploadSessionProperties properties;
+    private final SanitizeLogging s;
+
+    @Override
+    @Transactional
+    public DocumentCollectionResponse<UploadSessionData> createSession(CreateUploadSessionRequest request, User user) {
+        List<CreateUploadSessionRequest.UploadFile> files = request.getFiles();
+        if (files.size() > properties.getMaxFilesPerSession()) {
+            throw new BadRequestException("An upload session accepts at most "
+                    + properties.getMaxFilesPerSession() + " files.");
+        }
+
+        long maxFileSize = properties.getMaxFileSizeMb() * MEGABYTE;
+        for (CreateUploadSessionRequest.UploadFile file : files) {
+            if (!FileType.FILE.isValid(file.getContentType())) {
+                throw new BadRequestException("Invalid file type: " + file.getContentType() + " for file "
+                        + file.getFileName() + ". Allowed types are: " + String.join(", ", FileType.FILE.getMimeTypes()));
+            }
+            if (file.getSize() > maxFileSize) {
+                throw new BadRequestException("The file size must not exceed " + properties.getMaxFileSizeMb() + " MB.");
+            }
+        }
+        storageAllocationService.checkStorageAvailable(user,
+                files.stream().mapToLong(CreateUploadSessionRequest.UploadFile::getSize).sum());
+
+        Duration validity = Duration.ofMinutes(properties.getTtlMinutes());
+        long multipartThreshold = properties.getMultipartThresholdMb() * MEGABYTE;
+        long partSize = properties.getPartSizeMb() * MEGABYTE;
+
+        UploadSession session = UploadSession.builder()
+                .user(user)
+                .collectionName(request.getCollectionName())
+                .extractText(request.isExtractText())
+                .status(UploadSessionStatus.OPEN)
+                .expiresAt(OffsetDateTime.now().plus(validity))
+                .build();
+
+        List<UploadSessionData.UploadTarget> targets = new ArrayList<>(files.size());
+        for (CreateUploadSessionRequest.UploadFile file : files) {
+            String key = awsS3Service.generateFileName(file.getFileName(), AwsS3Service.getDOCUMENT_PICTURE_FOLDER());
+            UploadSessionFile sessionFile = UploadSessionFile.builder()
+                    .originalFileName(file.getFileName())
+                    .storageKey(key)
+                    .contentType(file.getContentType())
+                    .declaredSize(file.getSize())
+                    .build();
+
+            UploadSessionData.UploadTarget.UploadTargetBuilder target = UploadSessionData.UploadTarget.builder()
+                    .documentId(sessionFile.getDocumentId())
+                    .fileName(file.getFileName())
+                    .contentType(file.getContentType())
+                    .size(file.getSize());
+
+            if (file.getSize() >= multipartThreshold) {
+                int partCount = (int) ((file.getSize() + partSize - 1) / partSize);
+                String uploadId = awsS3Service.createMultipartUpload(key, file.getContentType());
+                sessionFile.setMultipartUploadId(uploadId);
+                sessionFile.setPartCount(partCount);
+
+                List<UploadSessionData.UploadPart> parts = new ArrayList<>(partCount);
+                for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+                    long partLength = Math.min(partSize, file.getSize() - (partNumber - 1) * partSize);
+                    parts.add(UploadSessionData.UploadPart.builder()
+                            .partNumber(partNumber)
+                            .uploadUrl(awsS3Service.presignUploadPart(key, uploadId, partNumber, partLength, validity))
+                            .build());
+                }
+                target.method(UploadMethod.MULTIPART).partSize(partSize).parts(parts);
+            } else {
+                target.method(UploadMethod.SINGLE)
+                        .uploadUrl(awsS3Service.presignPut(key, file.getContentType(), file.getSize(), validity));
+            }
+
+            session.getFiles().add(sessionFile);
+            targets.add(target.build());
+        }
+
+        UploadSession savedSession = uploadSessionRepository.save(session);
+        log.info("Upload session {} opened with {} files for user {}",
+                s.sanitizeLogging(savedSession.getId()), files.size(), s.sanitizeLogging(user.getId()));
+
+        UploadSessionData data = UploadSessionData.builder()
+                .sessionId(savedSession.getId())
+                .status(savedSession.getStatus())
+                .expiresAt(savedSession.getExpiresAt())
+                .files(targets)
+                .build();
+
+        return DocumentCollectionResponse.<UploadSessionData>builder()
+                .statusCode(HttpStatus.CREATED.value())
+                .status("success")
+                .message("Upload session created. Upload each file to its URL, then complete the session.")
+                .data(data)
+                .build();
+    }
+
+    @Override
+    public DocumentCollectionResponse<DocumentCollectionUploadData> completeSession(String sessionId, User user) {
+        DocumentCollectionUploadData data = uploadSessionFinalizer.finalizeSession(sessionId, user.getId(), true);
+
+        long uploaded = data.getFiles().stream()
+                .filter(file -> DocumentUploadState.SUCCESS.toString().equals(file.getStatus()))
+                .count();
+        int total = data.getFiles().size();
+
+        String status;
+        String message;
+        if (uploaded == total) {
+            status = "success";
+            message = "All " + total + " document(s) uploaded successfully.";
+        } else if (uploaded > 0) {
+            status = "partial_success";
+            message = String.format("%d of %d document(s) uploaded successfully. Check individual statuses.",
+                    uploaded, total);
+        } else {
+            status = "failure";
+            message = "No documents were uploaded. Check individual statuses.";
+        }
+        if (uploaded > 0 && data.getOverallStatus() == DocumentStatus.PROCESSING) {
+            message += " Text extraction has been queued.";
+        }
+
+        return DocumentCollectionResponse.<DocumentCollectionUploadData>builder()
+                .statusCode(data.getOverallStatus() == DocumentStatus.PROCESSING
+                        ? HttpStatus.ACCEPTED.value() : HttpStatus.OK.value())
+                .status(status)
+                .message(message)
+                .data(data)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public void abortSession(String sessionId, User user) {
+        UploadSession session = uploadSessionRepository.findByIdForUpdate(sessionId)
+                .orElseThrow(() -> new NotFoundException("Upload session not found with ID: " + sessionId));
+        if (!session.getUser().getId().equals(user.getId())) {
+            throw new ForbiddenException("You are not authorized to abort this upload session.");
+        }
+        if (session.getStatus() != UploadSessionStatus.OPEN) {
+            throw new BadRequestException("Upload session is " + session.getStatus() + ".");
+        }
+
+        for (UploadSessionFile file : session.getFiles()) {
+            if (file.getMultipartUploadId() != null) {
+                awsS3Service.abortMultipartUpload(file.getStorageKey(), file.getMultipartUploadId());
+            }
+        }
+        awsS3Service.deleteFiles(session.getFiles().stream()
+                .map(file -> awsS3Service.getFileUrl(file.getStorageKey()))
+                .toList());
+
+        session.setStatus(UploadSessionStatus.ABORTED);
+        uploadSessionRepository.save(session);
+        log.info("Upload session {} aborted by user {}", s.sanitizeLogging(sessionId), s.sanitizeLogging(user.getId()));
+    }
+}
@@ -0,0 +1,10 @@
+package com.extractor.unraveldocs.documents.interfaces;
+
+import com.extractor.unraveldocs.documents.model.FileEntry;
+
+import java.util.Collection;
+
+public interface DocumentPreviewService {
+    String getPreviewUrl(String collectionId, String documentId, String userId);
+    void deleteUnreferencedPreviews(Collection<FileEntry> removedEntries);
+}
@@ -0,0 +1,15 @@
+package com.extractor.unraveldocs.documents.interfaces;
+
+import com.extractor.unraveldocs.documents.dto.request.CreateUploadSessionRequest;
+import com.extractor.unraveldocs.documents.dto.response.DocumentCollectionResponse;
+import com.extractor.unraveldocs.documents.dto.response.DocumentCollectionUploadData;
+import com.extractor.unraveldocs.documents.dto.response.UploadSessionData;
+import com.extractor.unraveldocs.user.model.User;
+
+public interface UploadSessionService {
+    DocumentCollectionResponse<UploadSessionData> createSession(CreateUploadSessionRequest request, User user);
+
+    DocumentCollectionResponse<DocumentCollectionUploadData> completeSession(String sessionId, User user);
+
+    void abortSession(String sessionId, User user);
+}
@@ -1,9 +1,12 @@
 package com.extractor.unraveldocs.documents.model;
 
+import com.extractor.unraveldocs.documents.probe.DocumentProbe;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
@@ -28,6 +31,9 @@ public class FileEntry {
     @Column(name = "file_url", length = 1024)
     private String fileUrl;
 
+    @Column(name = "preview_url", length = 1024)
+    private String previewUrl;
+
     @Column(name = "file_type", nullable = false)
     private String fileType;
 
@@ -50,6 +56,16 @@ public class FileEntry {
     @Column(name = "encryption_iv")
     private String encryptionIv;
 
+    @Column(name = "page_count")
+    private Integer pageCount;
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "probe", columnDefinition = "jsonb")
+    private DocumentProbe probe;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false, nullable = false)
     @Builder.Default
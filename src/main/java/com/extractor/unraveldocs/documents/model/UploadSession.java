@@ -0,0 +1,66 @@
+package com.extractor.unraveldocs.documents.model;
+
+import com.extractor.unraveldocs.documents.datamodel.UploadSessionStatus;
+import com.extractor.unraveldocs.user.model.User;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Table(name = "upload_sessions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSession {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", referencedColumnName = "id", nullable = false)
+    private User user;
+
+    @Column(name = "collection_name")
+    private String collectionName;
+
+    @Column(name = "extract_text", nullable = false)
+    private boolean extractText;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private UploadSessionStatus status;
+
+    /**
+     * Collection created when the session completed, if any file was uploaded.
+     */
+    @Column(name = "collection_id")
+    private String collectionId;
+
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "upload_session_files", joinColumns = @JoinColumn(name = "upload_session_id"))
+    @OrderColumn(name = "file_index")
+    @Builder.Default
+    private List<UploadSessionFile> files = new ArrayList<>();
+
+    @Column(name = "expires_at", nullable = false)
+    private OffsetDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    public boolean isExpired(OffsetDateTime now) {
+        return expiresAt.isBefore(now);
+    }
+}
@@ -0,0 +1,62 @@
+package com.extractor.unraveldocs.documents.model;
+
+import com.extractor.unraveldocs.documents.datamodel.DocumentUploadState;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.util.UUID;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessionFile {
+    public static final String PENDING = "pending";
+
+    @Builder.Default
+    @Column(name = "document_id", nullable = false)
+    private String documentId = UUID.randomUUID().toString();
+
+    @Column(name = "original_file_name", nullable = false)
+    private String originalFileName;
+
+    @Column(name = "storage_key", nullable = false, length = 1024)
+    private String storageKey;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "declared_size", nullable = false)
+    private long declaredSize;
+
+    /**
+     * S3 multipart upload ID; null for a single presigned PUT.
+     */
+    @Column(name = "multipart_upload_id", length = 1024)
+    private String multipartUploadId;
+
+    @Column(name = "part_count", nullable = false)
+    @Builder.Default
+    private int partCount = 1;
+
+    /**
+     * {@link #PENDING} until verified, then a {@link DocumentUploadState} value.
+     */
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private String status = PENDING;
+
+    @Column(name = "error_message")
+    private String errorMessage;
+
+    public boolean isPending() {
+        return PENDING.equals(status);
+    }
+
+    public boolean isUploaded() {
+        return DocumentUploadState.SUCCESS.toString().equals(status);
+    }
+}
@@ -0,0 +1,72 @@
+package com.extractor.unraveldocs.documents.probe;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * What is known about an uploaded file from reading it once: page count, per-page text
+ * layer and dimensions, image resolution, PDF encryption and a content hash. Stored on
+ * the file entry so credit checks, OCR routing and page fan-out do not parse the file
+ * again.
+ *
+ * @param pageCount    Number of pages; null if the file could not be read as pages
+ * @param pdfEncrypted Whether the PDF is encrypted. A PDF that needs a password to open
+ *                     has no page data.
+ * @param contentHash  Hex SHA-256 of the file content
+ * @param pages        Per-page findings in page order, empty for files without pages
+ */
+public record DocumentProbe(Integer pageCount, boolean pdfEncrypted, String contentHash, List<PageProbe> pages) {
+
+    public DocumentProbe {
+        pages = pages != null ? List.copyOf(pages) : List.of();
+    }
+
+    /**
+     * A probe of a file that has no page structure, such as a Word document.
+     */
+    public static DocumentProbe unpaged(String contentHash) {
+        return new DocumentProbe(null, false, contentHash, List.of());
+    }
+
+    /**
+     * Whether per-page data is available to route pages by.
+     */
+    public boolean hasPageData() {
+        return pageCount != null && pages.size() == pageCount;
+    }
+
+    /**
+     * @param pageIndex 0-indexed page
+     */
+    public boolean hasTextLayer(int pageIndex) {
+        return pageIndex >= 0 && pageIndex < pages.size() && pages.get(pageIndex).textLayer();
+    }
+
+    /**
+     * 0-indexed pages that have a text layer.
+     */
+    public Set<Integer> textLayerPages() {
+        return IntStream.range(0, pages.size())
+                .filter(this::hasTextLayer)
+                .boxed()
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Whether every page in the selection has a text layer. False without page data.
+     *
+     * @param pageIndexes 0-indexed pages, or null for all pages
+     */
+    public boolean allHaveTextLayer(Collection<Integer> pageIndexes) {
+        if (!hasPageData() || pageCount == 0) {
+            return false;
+        }
+        if (pageIndexes == null) {
+            return pages.stream().allMatch(PageProbe::textLayer);
+        }
+        return !pageIndexes.isEmpty() && pageIndexes.stream().allMatch(this::hasTextLayer);
+    }
+}
@@ -0,0 +1,281 @@
+package com.extractor.unraveldocs.documents.probe;
+
+import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.w3c.dom.Node;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Reads an uploaded file once and records what later steps need to know about it.
+ * <p>
+ * The content is hashed while it is read. A PDF is spooled to a temporary file and
+ * opened with a temp-file stream cache, so large PDFs are not held on the heap. A page
+ * counts as having a text layer when it, or a form it draws, has font resources.
+ * Callers that need the parsed PDF as well get it through an {@link OpenPdfHandler}
+ * while the probe has it open, instead of loading it again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentProbeService {
+
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of(
+            "png", "jpg", "jpeg", "tiff", "tif", "bmp", "gif", "webp");
+    private static final String PDF_EXTENSION = "pdf";
+    private static final String PDF_CONTENT_TYPE = "application/pdf";
+    private static final int MAX_FORM_DEPTH = 3;
+    private static final float POINTS_PER_INCH = 72f;
+    private static final double MM_PER_INCH = 25.4;
+
+    private final SanitizeLogging sanitizer;
+
+    /**
+     * Receives a probed PDF before it is closed. Not called for PDFs that cannot be opened.
+     */
+    @FunctionalInterface
+    public interface OpenPdfHandler {
+        /**
+         * @param document    The open PDF; closed by the probe once this returns
+         * @param contentHash Hex SHA-256 of the file content
+         */
+        void accept(PDDocument document, String contentHash);
+    }
+
+    /**
+     * Probe an uploaded file. Files that cannot be parsed still get a content hash.
+     */
+    public DocumentProbe probe(MultipartFile file) {
+        return probe(file, null);
+    }
+
+    /**
+     * Probe an uploaded file and hand a PDF to {@code onOpenPdf} while it is open.
+     * Failures of the handler are logged and do not affect the probe.
+     *
+     * @param onOpenPdf Handler for the open PDF, or null
+     */
+    public DocumentProbe probe(MultipartFile file, OpenPdfHandler onOpenPdf) {
+        String filename = Objects.requireNonNullElse(file.getOriginalFilename(), "unknown");
+        try {
+            if (isPdf(file.getContentType(), filename)) {
+                return probePdf(file, filename, onOpenPdf);
+            }
+            if (isImage(file.getContentType(), filename)) {
+                return probeImage(file, filename);
+            }
+            return DocumentProbe.unpaged(hash(file));
+        } catch (IOException e) {
+            log.warn("Could not probe '{}': {}", sanitizer.sanitizeLogging(filename), e.getMessage());
+            return DocumentProbe.unpaged(null);
+        }
+    }
+
+    private DocumentProbe probePdf(MultipartFile file, String filename, OpenPdfHandler onOpenPdf)
+            throws IOException {
+        MessageDigest digest = newDigest();
+        Path spool = Files.createTempFile("probe-", ".pdf");
+        try {
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, spool, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+
+            try (PDDocument document = Loader.loadPDF(spool.toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+                List<PageProbe> pages = new ArrayList<>(document.getNumberOfPages());
+                for (PDPage page : document.getPages()) {
+                    pages.add(probePage(page));
+                }
+                log.debug("Probed PDF '{}': {} pages, encrypted: {}",
+                        sanitizer.sanitizeLogging(filename),
+                        sanitizer.sanitizeLoggingInteger(pages.size()),
+                        document.isEncrypted());
+                if (onOpenPdf != null) {
+                    try {
+                        onOpenPdf.accept(document, contentHash);
+                    } catch (RuntimeException e) {
+                        log.warn("Handling open PDF '{}' failed: {}", sanitizer.sanitizeLogging(filename), e.getMessage());
+                    }
+                }
+                return new DocumentProbe(pages.size(), document.isEncrypted(), contentHash, pages);
+            } catch (InvalidPasswordException e) {
+                log.debug("PDF '{}' needs a password to open", sanitizer.sanitizeLogging(filename));
+                return new DocumentProbe(null, true, contentHash, List.of());
+            } catch (IOException e) {
+                log.warn("Failed to parse PDF '{}': {}", sanitizer.sanitizeLogging(filename), e.getMessage());
+                return DocumentProbe.unpaged(contentHash);
+            }
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    private PageProbe probePage(PDPage page) {
+        PDRectangle box = page.getCropBox();
+        PDResources resources = page.getResources();
+        try {
+            return new PageProbe(box.getWidth(), box.getHeight(),
+                    hasFonts(resources, 0), largestImageDpi(resources, box.getWidth()));
+        } catch (IOException e) {
+            // Unreadable resources: treat the page as needing OCR
+            return new PageProbe(box.getWidth(), box.getHeight(), false, null);
+        }
+    }
+
+    private boolean hasFonts(PDResources resources, int depth) throws IOException {
+        if (resources == null) {
+            return false;
+        }
+        if (resources.getFontNames().iterator().hasNext()) {
+            return true;
+        }
+        if (depth >= MAX_FORM_DEPTH) {
+            return false;
+        }
+        for (COSName name : resources.getXObjectNames()) {
+            PDXObject xObject = resources.getXObject(name);
+            if (xObject instanceof PDFormXObject form && hasFonts(form.getResources(), depth + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resolution of the widest image on the page, assuming it spans the page width as
+     * scanned pages do.
+     */
+    private Integer largestImageDpi(PDResources resources, float pageWidthPt) throws IOException {
+        if (resources == null || pageWidthPt <= 0) {
+            return null;
+        }
+        int widest = 0;
+        for (COSName name : resources.getXObjectNames()) {
+            if (resources.getXObject(name) instanceof PDImageXObject image) {
+                widest = Math.max(widest, image.getWidth());
+            }
+        }
+        return widest > 0 ? Math.round(widest * POINTS_PER_INCH / pageWidthPt) : null;
+    }
+
+    private DocumentProbe probeImage(MultipartFile file, String filename) throws IOException {
+        MessageDigest digest = newDigest();
+        PageProbe page = null;
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            try (ImageInputStream images = ImageIO.createImageInputStream(in)) {
+                Iterator<ImageReader> readers = ImageIO.getImageReaders(images);
+                if (readers.hasNext()) {
+                    ImageReader reader = readers.next();
+                    try {
+                        reader.setInput(images, true, false);
+                        page = new PageProbe(reader.getWidth(0), reader.getHeight(0), false,
+                                dpiOf(reader.getImageMetadata(0)));
+                    } catch (IOException | RuntimeException e) {
+                        log.debug("Could not read image header of '{}': {}",
+                                sanitizer.sanitizeLogging(filename), e.getMessage());
+                    } finally {
+                        reader.dispose();
+                    }
+                }
+                // Hash the bytes the reader did not need
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+        }
+        String contentHash = HexFormat.of().formatHex(digest.digest());
+        return new DocumentProbe(1, false, contentHash, page != null ? List.of(page) : List.of());
+    }
+
+    /**
+     * Horizontal resolution from the standard image metadata, which records it as
+     * millimetres per pixel.
+     */
+    private Integer dpiOf(IIOMetadata metadata) {
+        if (metadata == null || !metadata.isStandardMetadataFormatSupported()) {
+            return null;
+        }
+        Node root = metadata.getAsTree("javax_imageio_1.0");
+        for (Node dimension = root.getFirstChild(); dimension != null; dimension = dimension.getNextSibling()) {
+            if (!"Dimension".equals(dimension.getNodeName())) {
+                continue;
+            }
+            for (Node child = dimension.getFirstChild(); child != null; child = child.getNextSibling()) {
+                if ("HorizontalPixelSize".equals(child.getNodeName())) {
+                    Node value = child.getAttributes().getNamedItem("value");
+                    try {
+                        double mmPerPixel = Double.parseDouble(value.getNodeValue());
+                        return mmPerPixel > 0 ? (int) Math.round(MM_PER_INCH / mmPerPixel) : null;
+                    } catch (RuntimeException e) {
+                        return null;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private String hash(MultipartFile file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static boolean isPdf(String contentType, String filename) {
+        return PDF_CONTENT_TYPE.equalsIgnoreCase(contentType) || PDF_EXTENSION.equals(extension(filename));
+    }
+
+    static boolean isImage(String contentType, String filename) {
+        return (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("image/"))
+                || IMAGE_EXTENSIONS.contains(extension(filename));
+    }
+
+    private static String extension(String filename) {
+        int lastDot = filename.lastIndexOf('.');
+        if (lastDot < 0 || lastDot == filename.length() - 1) {
+            return "";
+        }
+        return filename.substring(lastDot + 1).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,12 @@
+package com.extractor.unraveldocs.documents.probe;
+
+/**
+ * What the probe found on one page.
+ *
+ * @param widthPt   Page width in PDF points (1/72 inch); pixels for images
+ * @param heightPt  Page height in PDF points (1/72 inch); pixels for images
+ * @param textLayer Whether the page has a text layer that can be extracted without OCR
+ * @param imageDpi  Resolution of the largest image on the page, or null if it has none
+ */
+public record PageProbe(float widthPt, float heightPt, boolean textLayer, Integer imageDpi) {
+}
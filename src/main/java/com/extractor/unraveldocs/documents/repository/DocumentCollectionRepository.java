@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface DocumentCollectionRepository extends JpaRepository<DocumentCollection, String> {
@@ -15,6 +16,24 @@ public interface DocumentCollectionRepository extends JpaRepository<DocumentColl
     @Query("SELECT COUNT(dc) FROM DocumentCollection dc WHERE dc.user.id = :userId")
     Long countByUserId(@Param("userId") String userId);
 
+    @Query("SELECT f.fileUrl FROM DocumentCollection dc JOIN dc.files f WHERE dc.user.id = :userId AND f.fileUrl IS NOT NULL")
+    List<String> findFileUrlsByUserId(@Param("userId") String userId);
+
+    /**
+     * Previews of the account's documents that no other account's document shares.
+     * Identical uploads share one content-addressed preview.
+     */
+    @Query("SELECT DISTINCT f.previewUrl FROM DocumentCollection dc JOIN dc.files f " +
+            "WHERE dc.user.id = :userId AND f.previewUrl IS NOT NULL AND NOT EXISTS (" +
+            "SELECT 1 FROM DocumentCollection other JOIN other.files o " +
+            "WHERE other.user.id <> :userId AND o.previewUrl = f.previewUrl)")
+    List<String> findUnsharedPreviewUrlsByUserId(@Param("userId") String userId);
+
+    @Query("SELECT COUNT(f) FROM DocumentCollection dc JOIN dc.files f " +
+            "WHERE f.previewUrl = :previewUrl AND f.documentId NOT IN :excludedDocumentIds")
+    long countPreviewReferences(@Param("previewUrl") String previewUrl,
+                                @Param("excludedDocumentIds") Collection<String> excludedDocumentIds);
+
     @Modifying
     @Query("DELETE FROM DocumentCollection dc WHERE dc.user.id = :userId")
     void deleteAllByUserId(@Param("userId") String userId);
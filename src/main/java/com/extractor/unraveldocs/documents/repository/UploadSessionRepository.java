@@ -0,0 +1,34 @@
+package com.extractor.unraveldocs.documents.repository;
+
+import com.extractor.unraveldocs.documents.datamodel.UploadSessionStatus;
+import com.extractor.unraveldocs.documents.model.UploadSession;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    /**
+     * Load a session with a row lock, so a completion call and the sweeper never
+     * finalize the same session twice.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UploadSession s WHERE s.id = :id")
+    Optional<UploadSession> findByIdForUpdate(@Param("id") String id);
+
+    List<UploadSession> findByStatusOrderByCreatedAtAsc(UploadSessionStatus status, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM UploadSession s WHERE s.status <> :status AND s.updatedAt < :before")
+    int deleteFinishedBefore(@Param("status") UploadSessionStatus openStatus, @Param("before") OffsetDateTime before);
+}
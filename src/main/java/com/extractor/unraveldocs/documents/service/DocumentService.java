@@ -1,5 +1,6 @@
 package com.extractor.unraveldocs.documents.service;
 
+import com.extractor.unraveldocs.documents.dto.request.CreateUploadSessionRequest;
 import com.extractor.unraveldocs.documents.dto.request.MoveDocumentRequest;
 import com.extractor.unraveldocs.documents.dto.request.UpdateCollectionRequest;
 import com.extractor.unraveldocs.documents.dto.request.UpdateDocumentRequest;
@@ -8,8 +9,10 @@ import com.extractor.unraveldocs.documents.interfaces.ClearAllCollectionsService
 import com.extractor.unraveldocs.documents.interfaces.CollectionUpdateService;
 import com.extractor.unraveldocs.documents.interfaces.DocumentDeleteService;
 import com.extractor.unraveldocs.documents.interfaces.DocumentMoveService;
+import com.extractor.unraveldocs.documents.interfaces.DocumentPreviewService;
 import com.extractor.unraveldocs.documents.interfaces.DocumentUploadService;
 import com.extractor.unraveldocs.documents.interfaces.GetDocumentService;
+import com.extractor.unraveldocs.documents.interfaces.UploadSessionService;
 import com.extractor.unraveldocs.user.model.User;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -26,6 +29,8 @@ public class DocumentService {
     private final GetDocumentService getDocumentService;
     private final DocumentMoveService documentMoveService;
     private final CollectionUpdateService collectionUpdateService;
+    private final UploadSessionService uploadSessionService;
+    private final DocumentPreviewService documentPreviewService;
 
     public DocumentCollectionResponse<DocumentCollectionUploadData> uploadDocuments(
             MultipartFile[] files, User user, String collectionName, boolean enableEncryption) {
@@ -59,6 +64,10 @@ public class DocumentService {
         return getDocumentService.getFileFromCollection(collectionId, documentId, userId);
     }
 
+    public String getPreviewUrl(String collectionId, String documentId, String userId) {
+        return documentPreviewService.getPreviewUrl(collectionId, documentId, userId);
+    }
+
     public void clearAllCollections(String userId) {
         clearAllCollectionsService.clearAllCollections(userId);
     }
@@ -77,4 +86,18 @@ public class DocumentService {
             String collectionId, String documentId, UpdateDocumentRequest request, String userId) {
         return collectionUpdateService.updateDocumentName(collectionId, documentId, request, userId);
     }
-}
\ No newline at end of file
+
+    // direct-to-storage upload sessions
+    public DocumentCollectionResponse<UploadSessionData> createUploadSession(
+            CreateUploadSessionRequest request, User user) {
+        return uploadSessionService.createSession(request, user);
+    }
+
+    public DocumentCollectionResponse<DocumentCollectionUploadData> completeUploadSession(String sessionId, User user) {
+        return uploadSessionService.completeSession(sessionId, user);
+    }
+
+    public void abortUploadSession(String sessionId, User user) {
+        uploadSessionService.abortSession(sessionId, user);
+    }
+}
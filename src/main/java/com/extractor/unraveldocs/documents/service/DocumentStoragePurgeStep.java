@@ -0,0 +1,39 @@
+package com.extractor.unraveldocs.documents.service;
+
+import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
+import com.extractor.unraveldocs.user.lifecycle.AccountPurgeStep;
+import com.extractor.unraveldocs.user.lifecycle.PurgeTarget;
+import com.extractor.unraveldocs.utils.imageupload.aws.AwsS3Service;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Removes an account's uploaded documents and their previews from S3. The document
+ * rows go with the account through ON DELETE CASCADE.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DocumentStoragePurgeStep implements AccountPurgeStep {
+    private final DocumentCollectionRepository documentCollectionRepository;
+    private final AwsS3Service awsS3Service;
+
+    @Override
+    public String getStepName() {
+        return "document-storage";
+    }
+
+    @Override
+    public void purge(PurgeTarget target) {
+        List<String> fileUrls = new ArrayList<>(documentCollectionRepository.findFileUrlsByUserId(target.userId()));
+        fileUrls.addAll(documentCollectionRepository.findUnsharedPreviewUrlsByUserId(target.userId()));
+        if (!fileUrls.isEmpty()) {
+            awsS3Service.deleteFiles(fileUrls);
+            log.debug("Deleted {} stored documents for account {}", fileUrls.size(), target.userId());
+        }
+    }
+}
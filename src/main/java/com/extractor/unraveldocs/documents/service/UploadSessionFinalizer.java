@@ -0,0 +1,299 @@
+package com.extractor.unraveldocs.documents.service;
+
+import com.extractor.unraveldocs.documents.datamodel.DocumentStatus;
+import com.extractor.unraveldocs.documents.datamodel.DocumentUploadState;
+import com.extractor.unraveldocs.documents.datamodel.UploadSessionStatus;
+import com.extractor.unraveldocs.documents.dto.response.DocumentCollectionUploadData;
+import com.extractor.unraveldocs.documents.dto.response.FileEntryData;
+import com.extractor.unraveldocs.documents.model.DocumentCollection;
+import com.extractor.unraveldocs.documents.model.FileEntry;
+import com.extractor.unraveldocs.documents.model.UploadSession;
+import com.extractor.unraveldocs.documents.model.UploadSessionFile;
+import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiRecorder;
+import com.extractor.unraveldocs.documents.repository.UploadSessionRepository;
+import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import com.extractor.unraveldocs.exceptions.custom.ForbiddenException;
+import com.extractor.unraveldocs.exceptions.custom.NotFoundException;
+import com.extractor.unraveldocs.ocrprocessing.datamodel.OcrStatus;
+import com.extractor.unraveldocs.ocrprocessing.events.OcrEventMapper;
+import com.extractor.unraveldocs.ocrprocessing.events.OcrEventPublisher;
+import com.extractor.unraveldocs.ocrprocessing.model.OcrData;
+import com.extractor.unraveldocs.ocrprocessing.repository.OcrDataRepository;
+import com.extractor.unraveldocs.pushnotification.datamodel.NotificationType;
+import com.extractor.unraveldocs.pushnotification.interfaces.NotificationService;
+import com.extractor.unraveldocs.storage.service.StorageAllocationService;
+import com.extractor.unraveldocs.user.model.User;
+import com.extractor.unraveldocs.utils.imageupload.aws.AwsS3Service;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Turns the objects uploaded in an {@link UploadSession} into a document collection.
+ * <p>
+ * Used by the completion endpoint and by {@link UploadSessionSweeper}. Each file is
+ * verified against S3 before it becomes a {@link FileEntry}: multipart uploads are
+ * assembled from the parts S3 holds, and the object's size and content type must
+ * match what was declared when the session was created. The session row is locked
+ * for the duration, so a file is never turned into two documents.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UploadSessionFinalizer {
+    private final UploadSessionRepository uploadSessionRepository;
+    private final DocumentCollectionRepository documentCollectionRepository;
+    private final OcrDataRepository ocrDataRepository;
+    private final Optional<OcrEventPublisher> ocrEventPublisher;
+    private final OcrEventMapper ocrEventMapper;
+    private final AwsS3Service awsS3Service;
+    private final StorageAllocationService storageAllocationService;
+    private final NotificationService notificationService;
+    private final KpiRecorder kpiRecorder;
+    private final SanitizeLogging s;
+
+    /**
+     * Verify a session's uploads and create its document collection.
+     *
+     * @param force finalize even if some files have not arrived; those are marked failed
+     * @return the upload result, or null if the session is still waiting for files
+     */
+    @Transactional
+    @CacheEvict(value = "documentCollections", key = "#userId")
+    public DocumentCollectionUploadData finalizeSession(String sessionId, String userId, boolean force) {
+        UploadSession session = uploadSessionRepository.findByIdForUpdate(sessionId)
+                .orElseThrow(() -> new NotFoundException("Upload session not found with ID: " + sessionId));
+        if (!session.getUser().getId().equals(userId)) {
+            throw new ForbiddenException("You are not authorized to complete this upload session.");
+        }
+
+        switch (session.getStatus()) {
+            case COMPLETED -> {
+                return toUploadData(session, overallStatus(session));
+            }
+            case ABORTED, EXPIRED -> throw new BadRequestException("Upload session is " + session.getStatus() + ".");
+            case OPEN -> { }
+        }
+
+        for (UploadSessionFile file : session.getFiles()) {
+            if (file.isPending()) {
+                verify(file);
+            }
+        }
+
+        boolean waiting = session.getFiles().stream().anyMatch(UploadSessionFile::isPending);
+        if (waiting && !force) {
+            return null;
+        }
+        for (UploadSessionFile file : session.getFiles()) {
+            if (file.isPending()) {
+                reject(file, DocumentUploadState.FAILED_STORAGE_UPLOAD, "File was not uploaded before the session closed");
+            }
+        }
+
+        List<UploadSessionFile> uploaded = session.getFiles().stream().filter(UploadSessionFile::isUploaded).toList();
+        if (uploaded.isEmpty()) {
+            session.setStatus(session.isExpired(OffsetDateTime.now())
+                    ? UploadSessionStatus.EXPIRED : UploadSessionStatus.COMPLETED);
+            uploadSessionRepository.save(session);
+            log.info("Upload session {} closed with no uploaded files", s.sanitizeLogging(sessionId));
+            return toUploadData(session, DocumentStatus.FAILED_UPLOAD);
+        }
+
+        DocumentCollection collection = createCollection(session, uploaded);
+        session.setStatus(UploadSessionStatus.COMPLETED);
+        session.setCollectionId(collection.getId());
+        uploadSessionRepository.save(session);
+
+        log.info("Upload session {} completed as collection {} with {} of {} files",
+                s.sanitizeLogging(sessionId), s.sanitizeLogging(collection.getId()),
+                uploaded.size(), session.getFiles().size());
+        sendCompletionNotification(session.getUser(), collection, uploaded.size(), session.getFiles().size());
+        return toUploadData(session, collection.getCollectionStatus());
+    }
+
+    /**
+     * Check one file against S3 and record the outcome. A file that has not arrived yet
+     * stays pending.
+     */
+    private void verify(UploadSessionFile file) {
+        if (file.getMultipartUploadId() != null) {
+            List<CompletedPart> parts;
+            try {
+                parts = awsS3Service.listUploadedParts(file.getStorageKey(), file.getMultipartUploadId());
+            } catch (RuntimeException e) {
+                // The upload no longer exists, e.g. it was completed by an earlier attempt
+                parts = null;
+            }
+            if (parts != null) {
+                if (parts.size() < file.getPartCount()) {
+                    return;
+                }
+                awsS3Service.completeMultipartUpload(file.getStorageKey(), file.getMultipartUploadId(), parts);
+            }
+        }
+
+        Optional<HeadObjectResponse> head = awsS3Service.headObject(file.getStorageKey());
+        if (head.isEmpty()) {
+            return;
+        }
+        HeadObjectResponse object = head.get();
+        if (object.contentLength() == null || object.contentLength() != file.getDeclaredSize()) {
+            reject(file, DocumentUploadState.FAILED_VALIDATION, "Uploaded size " + object.contentLength()
+                    + " does not match the declared size " + file.getDeclaredSize());
+            return;
+        }
+        if (!sameMediaType(object.contentType(), file.getContentType())) {
+            reject(file, DocumentUploadState.FAILED_VALIDATION, "Uploaded content type " + object.contentType()
+                    + " does not match the declared type " + file.getContentType());
+            return;
+        }
+        file.setStatus(DocumentUploadState.SUCCESS.toString());
+    }
+
+    /**
+     * Mark a file failed and release whatever it left in the bucket.
+     */
+    private void reject(UploadSessionFile file, DocumentUploadState state, String reason) {
+        file.setStatus(state.toString());
+        file.setErrorMessage(reason);
+        if (file.getMultipartUploadId() != null) {
+            awsS3Service.abortMultipartUpload(file.getStorageKey(), file.getMultipartUploadId());
+        }
+        awsS3Service.deleteFiles(List.of(awsS3Service.getFileUrl(file.getStorageKey())));
+        log.warn("Upload {} rejected: {}", s.sanitizeLogging(file.getOriginalFileName()), s.sanitizeLogging(reason));
+    }
+
+    private DocumentCollection createCollection(UploadSession session, List<UploadSessionFile> uploaded) {
+        User user = session.getUser();
+        List<FileEntry> fileEntries = new ArrayList<>(uploaded.size());
+        for (UploadSessionFile file : uploaded) {
+            fileEntries.add(FileEntry.builder()
+                    .documentId(file.getDocumentId())
+                    .originalFileName(file.getOriginalFileName())
+                    .fileUrl(awsS3Service.getFileUrl(file.getStorageKey()))
+                    .storageId(awsS3Service.generateRandomPublicId(file.getOriginalFileName()))
+                    .fileType(file.getContentType())
+                    .fileSize(file.getDeclaredSize())
+                    .uploadStatus(DocumentUploadState.SUCCESS.toString())
+                    .build());
+        }
+
+        DocumentStatus status;
+        if (session.isExtractText()) {
+            status = DocumentStatus.PROCESSING;
+        } else if (uploaded.size() == session.getFiles().size()) {
+            status = DocumentStatus.COMPLETED;
+        } else {
+            status = DocumentStatus.PARTIALLY_COMPLETED;
+        }
+
+        String collectionName = session.getCollectionName() != null && !session.getCollectionName().isBlank()
+                ? session.getCollectionName().trim()
+                : "Collection-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd-HHmmss"));
+        DocumentCollection collection = documentCollectionRepository.saveAndFlush(DocumentCollection.builder()
+                .user(user)
+                .name(collectionName)
+                .files(fileEntries)
+                .collectionStatus(status)
+                .uploadTimestamp(OffsetDateTime.now())
+                .build());
+        kpiRecorder.documentsUploaded(fileEntries);
+
+        storageAllocationService.updateStorageUsed(user, fileEntries.stream().mapToLong(FileEntry::getFileSize).sum());
+        storageAllocationService.updateMonthlyDocumentsUploaded(user.getId(), fileEntries.size());
+
+        if (session.isExtractText()) {
+            queueOcr(collection.getId(), fileEntries);
+        }
+        return collection;
+    }
+
+    private void queueOcr(String collectionId, List<FileEntry> fileEntries) {
+        List<OcrData> ocrDataToSave = fileEntries.stream().map(fileEntry -> {
+            OcrData ocrData = new OcrData();
+            ocrData.setDocumentId(fileEntry.getDocumentId());
+            ocrData.setStatus(OcrStatus.PENDING);
+            return ocrData;
+        }).toList();
+        ocrDataRepository.saveAll(ocrDataToSave);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ocrEventPublisher.ifPresent(publisher -> fileEntries.forEach(fileEntry ->
+                        publisher.publishOcrRequest(ocrEventMapper.toOcrRequestedEvent(fileEntry, collectionId))));
+            }
+        });
+    }
+
+    private static boolean sameMediaType(String actual, String declared) {
+        if (actual == null) {
+            return false;
+        }
+        int parameters = actual.indexOf(';');
+        String mediaType = parameters >= 0 ? actual.substring(0, parameters) : actual;
+        return mediaType.trim().equalsIgnoreCase(declared);
+    }
+
+    private static DocumentStatus overallStatus(UploadSession session) {
+        if (session.getCollectionId() == null) {
+            return DocumentStatus.FAILED_UPLOAD;
+        }
+        boolean allUploaded = session.getFiles().stream().allMatch(UploadSessionFile::isUploaded);
+        if (session.isExtractText()) {
+            return DocumentStatus.PROCESSING;
+        }
+        return allUploaded ? DocumentStatus.COMPLETED : DocumentStatus.PARTIALLY_COMPLETED;
+    }
+
+    private DocumentCollectionUploadData toUploadData(UploadSession session, DocumentStatus overallStatus) {
+        List<FileEntryData> files = session.getFiles().stream()
+                .map(file -> FileEntryData.builder()
+                        .documentId(file.getDocumentId())
+                        .originalFileName(file.getOriginalFileName())
+                        .fileSize(file.getDeclaredSize())
+                        .fileUrl(file.isUploaded() ? awsS3Service.getFileUrl(file.getStorageKey()) : null)
+                        .status(file.getStatus())
+                        .build())
+                .toList();
+        return DocumentCollectionUploadData.builder()
+                .collectionId(session.getCollectionId())
+                .overallStatus(overallStatus)
+                .files(files)
+                .build();
+    }
+
+    private void sendCompletionNotification(User user, DocumentCollection collection, int uploaded, int total) {
+        try {
+            String message = uploaded == total
+                    ? String.format("%d document(s) uploaded successfully. You can see them in the Documents section.", uploaded)
+                    : String.format("%d of %d document(s) uploaded. Please check individual document statuses in the Documents section.",
+                            uploaded, total);
+            notificationService.sendToUser(user.getId(), NotificationType.DOCUMENT_UPLOAD_SUCCESS,
+                    uploaded == total ? "Documents Uploaded Successfully" : "Documents Partially Uploaded",
+                    message,
+                    Map.of("collectionId", collection.getId(),
+                            "status", collection.getCollectionStatus().toString(),
+                            "successCount", String.valueOf(uploaded)));
+        } catch (Exception e) {
+            log.error("Failed to send upload session notification: {}", e.getMessage());
+        }
+    }
+}
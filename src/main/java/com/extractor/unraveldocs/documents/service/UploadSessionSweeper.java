@@ -0,0 +1,63 @@
+package com.extractor.unraveldocs.documents.service;
+
+import com.extractor.unraveldocs.documents.config.UploadSessionProperties;
+import com.extractor.unraveldocs.documents.datamodel.UploadSessionStatus;
+import com.extractor.unraveldocs.documents.model.UploadSession;
+import com.extractor.unraveldocs.documents.repository.UploadSessionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Completes upload sessions on the server side. Sessions whose files have all
+ * arrived are finalized even if the client never calls complete, and sessions past
+ * their expiry are finalized with whatever was uploaded, releasing the rest.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UploadSessionSweeper {
+    private final UploadSessionRepository uploadSessionRepository;
+    private final UploadSessionFinalizer uploadSessionFinalizer;
+    private final UploadSessionProperties properties;
+
+    @Scheduled(fixedDelayString = "${documents.upload-session.sweep-interval-ms:300000}",
+            initialDelayString = "${documents.upload-session.sweep-interval-ms:300000}")
+    public void sweep() {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<UploadSession> open = uploadSessionRepository.findByStatusOrderByCreatedAtAsc(
+                UploadSessionStatus.OPEN, PageRequest.of(0, properties.getSweepBatchSize()));
+
+        int finalized = 0;
+        for (UploadSession session : open) {
+            try {
+                if (uploadSessionFinalizer.finalizeSession(session.getId(), session.getUser().getId(),
+                        session.isExpired(now)) != null) {
+                    finalized++;
+                }
+            } catch (RuntimeException e) {
+                // Completed or aborted by the client since it was listed, or S3 is unavailable
+                log.warn("Could not finalize upload session {}: {}", session.getId(), e.getMessage());
+            }
+        }
+        if (finalized > 0) {
+            log.info("Finalized {} of {} open upload sessions", finalized, open.size());
+        }
+    }
+
+    @Transactional
+    @Scheduled(cron = "0 30 2 * * ?")
+    public void purgeFinishedSessions() {
+        int deleted = uploadSessionRepository.deleteFinishedBefore(UploadSessionStatus.OPEN,
+                OffsetDateTime.now().minusDays(properties.getRetentionDays()));
+        if (deleted > 0) {
+            log.info("Removed {} finished upload sessions", deleted);
+        }
+    }
+}
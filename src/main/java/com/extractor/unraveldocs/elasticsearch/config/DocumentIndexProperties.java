@@ -0,0 +1,60 @@
+package com.extractor.unraveldocs.elasticsearch.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Layout and lifecycle of the document search index.
+ * The application reads and writes through an alias named after the document entity's
+ * index. The concrete index behind it is named after a hash of its settings and
+ * mappings, so a change to either is rolled out by reindexing into a new index and
+ * moving the alias.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "elasticsearch.documents")
+public class DocumentIndexProperties {
+
+    /**
+     * Whether the application creates and migrates the document index. Disable when the
+     * index is managed outside the application.
+     */
+    private boolean manageIndex = true;
+
+    /**
+     * Primary shards of a newly created index.
+     */
+    private int shards = 6;
+
+    /**
+     * Most primary shards the index can be split into. Must be a multiple of
+     * {@code shards}; splits double the shard count up to this limit.
+     */
+    private int maxShards = 48;
+
+    /**
+     * Replicas of each primary shard.
+     */
+    private int replicas = 1;
+
+    /**
+     * Average primary shard size, in gigabytes, above which the index is split.
+     */
+    private long maxPrimaryShardSizeGb = 30;
+
+    /**
+     * Cron expression of the shard size check.
+     */
+    private String sizeCheckCron = "0 20 3 * * ?";
+
+    /**
+     * Whether the previous index is deleted once the alias has moved to its replacement.
+     */
+    private boolean deletePreviousIndex = true;
+
+    /**
+     * Interval between progress checks of a running reindex or split, in milliseconds.
+     */
+    private long taskPollIntervalMs = 5000;
+}
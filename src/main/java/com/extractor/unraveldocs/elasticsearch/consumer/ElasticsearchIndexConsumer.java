@@ -71,7 +71,11 @@ public class ElasticsearchIndexConsumer {
 
     private void processDocumentEvent(ElasticsearchIndexEvent event) {
         if (event.getAction() == IndexAction.DELETE) {
-            documentSearchRepository.deleteById(event.getDocumentId());
+            if (event.getRouting() != null) {
+                documentSearchRepository.deleteByIdAndUserId(event.getDocumentId(), event.getRouting());
+            } else {
+                documentSearchRepository.deleteByIdOnAllShards(event.getDocumentId());
+            }
             log.debug("Deleted document from index: {}", sanitize.sanitizeLogging(event.getDocumentId()));
         } else {
             if (event.getPayload() == null) {
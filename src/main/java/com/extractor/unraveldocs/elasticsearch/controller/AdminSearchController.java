@@ -18,6 +18,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * REST controller for admin search operations.
  * Provides search endpoints for users and payments.
@@ -61,6 +64,7 @@ public class AdminSearchController {
             @Parameter(description = "Filter by role") @RequestParam(required = false) String role,
             @Parameter(description = "Filter by active status") @RequestParam(required = false) Boolean isActive,
             @Parameter(description = "Filter by country") @RequestParam(required = false) String country,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
             @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort by field") @RequestParam(defaultValue = "createdAt") String sortBy,
@@ -68,18 +72,23 @@ public class AdminSearchController {
 
         SearchRequest.SearchRequestBuilder requestBuilder = SearchRequest.builder()
                 .query(query)
+                .cursor(cursor)
                 .page(page)
                 .size(size)
                 .sortBy(sortBy)
                 .sortDirection(sortDirection);
 
+        Map<String, Object> filters = new HashMap<>();
         if (role != null) {
-            requestBuilder.filters(java.util.Map.of("role", role));
-        } else if (isActive != null) {
-            requestBuilder.filters(java.util.Map.of("isActive", isActive));
-        } else if (country != null) {
-            requestBuilder.filters(java.util.Map.of("country", country));
+            filters.put("role", role);
+        }
+        if (isActive != null) {
+            filters.put("isActive", isActive);
+        }
+        if (country != null) {
+            filters.put("country", country);
         }
+        requestBuilder.filters(filters);
 
         SearchResponse<UserSearchIndex> response = userSearchService.searchUsers(requestBuilder.build());
         return ResponseEntity.ok(response);
@@ -111,6 +120,7 @@ public class AdminSearchController {
             @Parameter(description = "Filter by payment provider") @RequestParam(required = false) String paymentProvider,
             @Parameter(description = "Filter by status") @RequestParam(required = false) String status,
             @Parameter(description = "Filter by currency") @RequestParam(required = false) String currency,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
             @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort by field") @RequestParam(defaultValue = "createdAt") String sortBy,
@@ -118,18 +128,23 @@ public class AdminSearchController {
 
         SearchRequest.SearchRequestBuilder requestBuilder = SearchRequest.builder()
                 .query(query)
+                .cursor(cursor)
                 .page(page)
                 .size(size)
                 .sortBy(sortBy)
                 .sortDirection(sortDirection);
 
+        Map<String, Object> filters = new HashMap<>();
         if (paymentProvider != null) {
-            requestBuilder.filters(java.util.Map.of("paymentProvider", paymentProvider));
-        } else if (status != null) {
-            requestBuilder.filters(java.util.Map.of("status", status));
-        } else if (currency != null) {
-            requestBuilder.filters(java.util.Map.of("currency", currency));
+            filters.put("paymentProvider", paymentProvider);
+        }
+        if (status != null) {
+            filters.put("status", status);
+        }
+        if (currency != null) {
+            filters.put("currency", currency);
         }
+        requestBuilder.filters(filters);
 
         SearchResponse<PaymentSearchIndex> response = paymentSearchService.searchPayments(requestBuilder.build());
         return ResponseEntity.ok(response);
@@ -1,15 +1,19 @@
 package com.extractor.unraveldocs.elasticsearch.controller;
 
+import com.extractor.unraveldocs.elasticsearch.dto.DocumentIndexStatus;
+import com.extractor.unraveldocs.elasticsearch.service.DocumentIndexManager;
 import com.extractor.unraveldocs.elasticsearch.service.ElasticsearchSyncService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.Map;
 
 /**
@@ -26,6 +30,7 @@ import java.util.Map;
 public class ElasticsearchSyncController {
 
     private final ElasticsearchSyncService syncService;
+    private final DocumentIndexManager documentIndexManager;
 
     /**
      * Triggers a full synchronization of all data to Elasticsearch.
@@ -87,4 +92,47 @@ public class ElasticsearchSyncController {
                 "message", "Payment synchronization completed",
                 "paymentsIndexed", count));
     }
+
+    /**
+     * Describes the document index behind its alias.
+     */
+    @GetMapping("/index/documents")
+    @Operation(summary = "Document index status", description = "Show the index behind the documents alias, its shards and size")
+    public ResponseEntity<DocumentIndexStatus> getDocumentIndexStatus() throws IOException {
+        return ResponseEntity.ok(documentIndexManager.getStatus());
+    }
+
+    /**
+     * Re-applies the document index definition: creates the index, starts a reindex
+     * if its settings or mappings changed, or applies shard and replica changes.
+     */
+    @PostMapping("/index/documents/reconcile")
+    @Operation(summary = "Reconcile document index", description = "Apply the document index settings and mappings defined in code")
+    public ResponseEntity<Map<String, String>> reconcileDocumentIndex() throws IOException {
+        log.info("Document index reconciliation triggered");
+
+        documentIndexManager.ensureIndex();
+
+        return ResponseEntity.accepted().body(Map.of(
+                "message", "Document index reconciliation started",
+                "status", "STARTED"));
+    }
+
+    /**
+     * Splits the document index into twice its shards.
+     */
+    @PostMapping("/index/documents/split")
+    @Operation(summary = "Split document index", description = "Split the document index into twice its primary shards")
+    public ResponseEntity<Map<String, String>> splitDocumentIndex() throws IOException {
+        log.info("Document index split triggered");
+
+        if (!documentIndexManager.requestSplit()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "message", "Index is at its shard limit or maintenance is already running",
+                    "status", "REJECTED"));
+        }
+        return ResponseEntity.accepted().body(Map.of(
+                "message", "Document index split started in background",
+                "status", "STARTED"));
+    }
 }
@@ -15,12 +15,17 @@ import java.util.List;
  * Elasticsearch document for indexing documents and their OCR content.
  * Combines document metadata from DocumentCollection/FileEntry with
  * extracted text from OcrData.
+ * <p>
+ * The index name is an alias managed by {@code DocumentIndexManager}. Documents are
+ * routed by their owner, so a user's documents live on one shard and per-user queries
+ * and deletes must pass the user ID as routing.
  */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Document(indexName = "documents")
+@Document(indexName = "documents", createIndex = false)
+@Routing("userId")
 @Setting(settingPath = "/elasticsearch/document-settings.json")
 public class DocumentSearchIndex {
 
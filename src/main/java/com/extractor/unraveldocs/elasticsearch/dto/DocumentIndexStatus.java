@@ -0,0 +1,61 @@
+package com.extractor.unraveldocs.elasticsearch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * State of the document index behind its alias.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentIndexStatus {
+
+    /**
+     * Alias the application reads and writes through.
+     */
+    private String alias;
+
+    /**
+     * Concrete index the alias points to, or null if it does not exist yet.
+     */
+    private String index;
+
+    /**
+     * Version of the settings and mappings defined in code.
+     */
+    private String expectedVersion;
+
+    /**
+     * Whether the index was created from the settings and mappings defined in code.
+     */
+    private boolean upToDate;
+
+    /**
+     * Primary shards of the index.
+     */
+    private Integer shards;
+
+    /**
+     * Replicas of each primary shard.
+     */
+    private Integer replicas;
+
+    /**
+     * Size of the primary shards, in bytes.
+     */
+    private Long primaryStoreBytes;
+
+    /**
+     * Number of documents in the index.
+     */
+    private Long documentCount;
+
+    /**
+     * Whether a reindex or split is running on this instance.
+     */
+    private boolean maintenanceRunning;
+}
@@ -25,6 +25,12 @@ public class SearchRequest {
      */
     private String query;
 
+    /**
+     * Cursor returned as {@code nextCursor} by the previous page. Takes precedence over
+     * {@code page}; use it for anything past the first few pages.
+     */
+    private String cursor;
+
     /**
      * Page number (0-indexed).
      */
@@ -53,7 +59,8 @@ public class SearchRequest {
     private String sortDirection = "desc";
 
     /**
-     * Filter criteria as key-value pairs.
+     * Filter criteria as key-value pairs. A value may be a list, matching any of its
+     * elements. All filters apply together.
      */
     @Builder.Default
     private Map<String, Object> filters = new HashMap<>();
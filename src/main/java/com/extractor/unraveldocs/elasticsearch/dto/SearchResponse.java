@@ -64,6 +64,17 @@ public class SearchResponse<T> {
     @Builder.Default
     private Map<String, Map<String, Long>> facets = new HashMap<>();
 
+    /**
+     * Sums per facet bucket, such as revenue per currency.
+     */
+    @Builder.Default
+    private Map<String, Map<String, Double>> totals = new HashMap<>();
+
+    /**
+     * Cursor to pass in the next request to get the following page; null on the last page.
+     */
+    private String nextCursor;
+
     /**
      * Whether there are more pages available.
      */
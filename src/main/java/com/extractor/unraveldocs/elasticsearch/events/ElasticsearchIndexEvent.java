@@ -46,6 +46,12 @@ public class ElasticsearchIndexEvent implements Serializable {
      */
     private String payload;
 
+    /**
+     * Routing value of the document, for indices routed by owner.
+     * Null on events published before routing was introduced.
+     */
+    private String routing;
+
     /**
      * Creates a new CREATE event.
      */
@@ -83,4 +89,17 @@ public class ElasticsearchIndexEvent implements Serializable {
                 .timestamp(OffsetDateTime.now())
                 .build();
     }
+
+    /**
+     * Creates a new DELETE event for a document stored under the given routing value.
+     */
+    public static ElasticsearchIndexEvent deleteEvent(String documentId, IndexType indexType, String routing) {
+        return ElasticsearchIndexEvent.builder()
+                .documentId(documentId)
+                .action(IndexAction.DELETE)
+                .indexType(indexType)
+                .routing(routing)
+                .timestamp(OffsetDateTime.now())
+                .build();
+    }
 }
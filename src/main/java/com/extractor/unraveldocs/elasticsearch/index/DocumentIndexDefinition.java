@@ -0,0 +1,98 @@
+package com.extractor.unraveldocs.elasticsearch.index;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * The settings and mappings a document index is created with, and the concrete index
+ * name derived from them.
+ * <p>
+ * The name is {@code <alias>-<hash>-<shards>}, where the hash covers the analysis
+ * settings, the routing shard count and the mappings. A change to any of them yields a
+ * new name and so a reindex; a split only changes the shard suffix. Replicas are left
+ * out of the hash because they can be changed on a live index.
+ *
+ * @param alias         Alias the application reads and writes through
+ * @param version       Hash of the settings and mappings
+ * @param shards        Primary shards
+ * @param routingShards Routing shards, which bound later splits
+ * @param body          Create-index request body
+ */
+public record DocumentIndexDefinition(String alias, String version, int shards, int routingShards, String body) {
+
+    public String indexName() {
+        return indexName(shards);
+    }
+
+    /**
+     * Name of the index with the same definition split into {@code shardCount} shards.
+     */
+    public String indexName(int shardCount) {
+        return alias + "-" + version + "-" + shardCount;
+    }
+
+    /**
+     * Whether the index is one of this definition's indices, at any shard count.
+     */
+    public boolean isVersionOf(String indexName) {
+        return indexName.startsWith(alias + "-" + version + "-");
+    }
+
+    /**
+     * Build a definition. Documents are routed by their owner, so the mapping requires
+     * a routing value on every write.
+     *
+     * @param settingsJson  Index settings from the entity's settings file
+     * @param mapping       Mapping generated from the entity's field annotations
+     * @param shards        Primary shards
+     * @param routingShards Most shards the index may be split into
+     * @param replicas      Replicas of each primary shard
+     */
+    public static DocumentIndexDefinition of(String alias, String settingsJson, Map<String, Object> mapping,
+                                             int shards, int routingShards, int replicas, ObjectMapper mapper) {
+        if (routingShards < shards || routingShards % shards != 0) {
+            throw new IllegalArgumentException(
+                    "Routing shards (" + routingShards + ") must be a multiple of shards (" + shards + ")");
+        }
+        try {
+            ObjectNode settings = (ObjectNode) mapper.readTree(settingsJson);
+            ObjectNode index = settings.has("index") ? (ObjectNode) settings.get("index") : settings.putObject("index");
+            index.remove("number_of_shards");
+            index.remove("number_of_replicas");
+            index.put("number_of_routing_shards", routingShards);
+
+            ObjectNode mappings = mapper.valueToTree(mapping);
+            mappings.putObject("_routing").put("required", true);
+
+            // Hashed before the shard and replica counts are added: a split or a replica
+            // change keeps the version, anything else gets a new one.
+            String version = hash(mapper.writeValueAsString(settings) + mapper.writeValueAsString(mappings));
+            mappings.putObject("_meta").put("version", version);
+            index.put("number_of_shards", shards);
+            index.put("number_of_replicas", replicas);
+
+            ObjectNode body = mapper.createObjectNode();
+            body.set("settings", settings);
+            body.set("mappings", mappings);
+
+            return new DocumentIndexDefinition(alias, version, shards, routingShards, mapper.writeValueAsString(body));
+        } catch (Exception e) {
+            throw new IllegalStateException("Invalid document index definition", e);
+        }
+    }
+
+    private static String hash(String definition) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(definition.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
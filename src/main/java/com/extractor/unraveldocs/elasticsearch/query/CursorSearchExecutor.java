@@ -0,0 +1,194 @@
+package com.extractor.unraveldocs.elasticsearch.query;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.extractor.unraveldocs.elasticsearch.dto.SearchRequest;
+import com.extractor.unraveldocs.elasticsearch.dto.SearchResponse;
+import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.UncategorizedElasticsearchException;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs a search against a point-in-time snapshot and pages through it with
+ * {@code search_after}, so deep pages cost the same as the first one and do not shift
+ * while documents are written.
+ * <p>
+ * The first request opens the point in time and also returns the aggregations: terms
+ * aggregations become facet counts, and a {@value #TOTAL_AGGREGATION} sum inside a terms
+ * aggregation becomes a per-bucket total. Each response carries a cursor to the next
+ * page until the last page, when the point in time is closed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.elasticsearch.uris")
+public class CursorSearchExecutor {
+
+    /**
+     * Name of the sum sub-aggregation reported in {@link SearchResponse#getTotals()}.
+     */
+    public static final String TOTAL_AGGREGATION = "total";
+
+    /**
+     * How long a point in time stays open between two page requests.
+     */
+    private static final Duration POINT_IN_TIME_KEEP_ALIVE = Duration.ofMinutes(2);
+
+    private final ElasticsearchOperations operations;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Run one page of a search.
+     *
+     * @param type           Index document type
+     * @param request        Page size, sort and cursor or page number
+     * @param query          Query to run
+     * @param sortableFields Fields the request may sort by
+     * @param aggregations   Aggregations computed on the first page
+     * @return Page of hits with facets, totals and the cursor to the next page
+     */
+    public <T> SearchResponse<T> search(Class<T> type, SearchRequest request, Query query,
+                                        Set<String> sortableFields, Map<String, Aggregation> aggregations) {
+        int size = request.getSize() != null ? request.getSize() : 10;
+        Sort sort = sort(request, sortableFields);
+        SearchCursor cursor = request.getCursor() != null && !request.getCursor().isBlank()
+                ? SearchCursor.decode(request.getCursor(), objectMapper)
+                : null;
+
+        int page;
+        String pointInTimeId;
+        if (cursor != null) {
+            page = cursor.page();
+            pointInTimeId = cursor.pointInTimeId();
+        } else {
+            page = request.getPage() != null ? request.getPage() : 0;
+            pointInTimeId = operations.openPointInTime(
+                    operations.getIndexCoordinatesFor(type), POINT_IN_TIME_KEEP_ALIVE);
+        }
+
+        NativeQueryBuilder builder = NativeQuery.builder()
+                .withQuery(query)
+                .withPointInTime(new org.springframework.data.elasticsearch.core.query.Query.PointInTime(
+                        pointInTimeId, POINT_IN_TIME_KEEP_ALIVE))
+                .withTrackTotalHits(true);
+        if (cursor != null) {
+            builder.withSort(sort)
+                    .withMaxResults(size)
+                    .withSearchAfter(cursor.searchAfter());
+        } else {
+            builder.withPageable(PageRequest.of(page, size, sort));
+            aggregations.forEach(builder::withAggregation);
+        }
+
+        SearchHits<T> hits;
+        try {
+            hits = operations.search(builder.build(), type);
+        } catch (UncategorizedElasticsearchException e) {
+            if (cursor != null && Integer.valueOf(404).equals(e.getStatusCode())) {
+                throw new BadRequestException("The search cursor has expired. Start the search again.");
+            }
+            throw e;
+        }
+
+        List<SearchHit<T>> searchHits = hits.getSearchHits();
+        String currentPointInTimeId = hits.getPointInTimeId() != null ? hits.getPointInTimeId() : pointInTimeId;
+        String nextCursor = null;
+        if (searchHits.size() == size && (long) (page + 1) * size < hits.getTotalHits()) {
+            nextCursor = new SearchCursor(currentPointInTimeId, searchHits.getLast().getSortValues(), page + 1)
+                    .encode(objectMapper);
+        } else {
+            closePointInTime(currentPointInTimeId);
+        }
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        Map<String, Map<String, Double>> totals = new LinkedHashMap<>();
+        if (hits.getAggregations() instanceof ElasticsearchAggregations container) {
+            container.aggregationsAsMap().forEach((name, aggregation) ->
+                    collectBuckets(name, aggregation.aggregation().getAggregate(), facets, totals));
+        }
+
+        return SearchResponse.<T>builder()
+                .results(searchHits.stream().map(SearchHit::getContent).toList())
+                .totalHits(hits.getTotalHits())
+                .page(page)
+                .size(size)
+                .totalPages((int) ((hits.getTotalHits() + size - 1) / size))
+                .nextCursor(nextCursor)
+                .facets(facets)
+                .totals(totals)
+                .build();
+    }
+
+    private Sort sort(SearchRequest request, Set<String> sortableFields) {
+        String sortBy = request.getSortBy() != null ? request.getSortBy() : "createdAt";
+        if (!sortableFields.contains(sortBy)) {
+            throw new BadRequestException("Unsupported sort field: " + sortBy + ". Allowed: " + sortableFields);
+        }
+        Sort.Direction direction = "asc".equalsIgnoreCase(request.getSortDirection())
+                ? Sort.Direction.ASC
+                : Sort.Direction.DESC;
+        return Sort.by(direction, sortBy);
+    }
+
+    private static void collectBuckets(String name, Aggregate aggregate,
+                                       Map<String, Map<String, Long>> facets,
+                                       Map<String, Map<String, Double>> totals) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        Map<String, Double> sums = new LinkedHashMap<>();
+        if (aggregate.isSterms()) {
+            aggregate.sterms().buckets().array().forEach(bucket -> {
+                String key = bucket.key().stringValue();
+                counts.put(key, bucket.docCount());
+                addTotal(key, bucket.aggregations(), sums);
+            });
+        } else if (aggregate.isLterms()) {
+            // Boolean fields aggregate as long terms keyed 0/1, with "false"/"true" as the string key
+            aggregate.lterms().buckets().array().forEach(bucket -> {
+                String key = bucket.keyAsString() != null ? bucket.keyAsString() : String.valueOf(bucket.key());
+                counts.put(key, bucket.docCount());
+                addTotal(key, bucket.aggregations(), sums);
+            });
+        } else {
+            return;
+        }
+        facets.put(name, counts);
+        if (!sums.isEmpty()) {
+            totals.put(name, sums);
+        }
+    }
+
+    private static void addTotal(String key, Map<String, Aggregate> subAggregations, Map<String, Double> sums) {
+        Aggregate total = subAggregations.get(TOTAL_AGGREGATION);
+        if (total != null && total.isSum()) {
+            sums.put(key, total.sum().value());
+        }
+    }
+
+    private void closePointInTime(String pointInTimeId) {
+        try {
+            operations.closePointInTime(pointInTimeId);
+        } catch (Exception e) {
+            // Expires on its own after the keep-alive
+            log.debug("Could not close point in time: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.extractor.unraveldocs.elasticsearch.query;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+
+/**
+ * Aggregations understood by {@link CursorSearchExecutor}.
+ */
+public final class SearchAggregations {
+
+    private SearchAggregations() {
+    }
+
+    /**
+     * Document counts for the {@code size} most frequent values of a field.
+     */
+    public static Aggregation facet(String field, int size) {
+        return Aggregation.of(a -> a.terms(t -> t.field(field).size(size)));
+    }
+
+    /**
+     * Document counts for the most frequent values of a field, plus the sum of
+     * {@code sumField} within each value.
+     */
+    public static Aggregation facetWithTotal(String field, int size, String sumField) {
+        return Aggregation.of(a -> a
+                .terms(t -> t.field(field).size(size))
+                .aggregations(CursorSearchExecutor.TOTAL_AGGREGATION, s -> s.sum(m -> m.field(sumField))));
+    }
+}
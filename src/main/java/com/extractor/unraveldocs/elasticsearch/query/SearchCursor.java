@@ -0,0 +1,44 @@
+package com.extractor.unraveldocs.elasticsearch.query;
+
+import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Position in a paged search: the point in time the search reads from and the sort
+ * values of the last hit returned. Handed to clients as an opaque string.
+ *
+ * @param pointInTimeId Point in time the pages are read from
+ * @param searchAfter   Sort values of the last hit of the previous page
+ * @param page          Number of the page the cursor leads to
+ */
+public record SearchCursor(String pointInTimeId, List<Object> searchAfter, int page) {
+
+    public String encode(ObjectMapper mapper) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mapper.writeValueAsBytes(this));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not encode search cursor", e);
+        }
+    }
+
+    public static SearchCursor decode(String cursor, ObjectMapper mapper) {
+        try {
+            SearchCursor decoded = mapper.readValue(Base64.getUrlDecoder().decode(cursor), SearchCursor.class);
+            if (decoded.pointInTimeId() == null || decoded.searchAfter() == null || decoded.searchAfter().isEmpty()) {
+                throw new BadRequestException("Invalid search cursor");
+            }
+            // JSON reads small longs back as integers; sort values are longs
+            List<Object> searchAfter = decoded.searchAfter().stream()
+                    .map(value -> value instanceof Integer i ? (Object) i.longValue() : value)
+                    .toList();
+            return new SearchCursor(decoded.pointInTimeId(), searchAfter, decoded.page());
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new BadRequestException("Invalid search cursor");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.extractor.unraveldocs.elasticsearch.query;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns request filters into filter-context clauses. Filter clauses are not scored and
+ * Elasticsearch caches them, so any combination of filters can be applied together
+ * without slowing the query down.
+ */
+public final class SearchFilters {
+
+    private SearchFilters() {
+    }
+
+    /**
+     * Build one clause per filter: a {@code term} for a single value, a {@code terms} for
+     * a collection of values.
+     *
+     * @param filters       Filter field to value(s)
+     * @param allowedFields Fields that may be filtered on
+     * @throws BadRequestException if a filter names a field that is not allowed
+     */
+    public static List<Query> of(Map<String, Object> filters, Set<String> allowedFields) {
+        List<Query> clauses = new ArrayList<>();
+        if (filters == null) {
+            return clauses;
+        }
+        filters.forEach((field, value) -> {
+            if (!allowedFields.contains(field)) {
+                throw new BadRequestException("Unsupported filter: " + field + ". Allowed filters: " + allowedFields);
+            }
+            if (value == null) {
+                return;
+            }
+            if (value instanceof Collection<?> values) {
+                if (values.isEmpty()) {
+                    return;
+                }
+                List<FieldValue> fieldValues = values.stream().map(SearchFilters::toFieldValue).toList();
+                clauses.add(Query.of(q -> q.terms(t -> t.field(field).terms(v -> v.value(fieldValues)))));
+            } else {
+                clauses.add(Query.of(q -> q.term(t -> t.field(field).value(toFieldValue(value)))));
+            }
+        });
+        return clauses;
+    }
+
+    /**
+     * Build a range clause on a date field. Either bound may be null; with both null
+     * there is no clause.
+     */
+    public static List<Query> dateRange(String field, OffsetDateTime from, OffsetDateTime to) {
+        if (from == null && to == null) {
+            return List.of();
+        }
+        return List.of(Query.of(q -> q.range(r -> r.date(d -> {
+            d.field(field);
+            if (from != null) {
+                d.gte(from.toString());
+            }
+            if (to != null) {
+                d.lte(to.toString());
+            }
+            return d;
+        }))));
+    }
+
+    static FieldValue toFieldValue(Object value) {
+        return switch (value) {
+            case Boolean b -> FieldValue.of(b.booleanValue());
+            case Integer i -> FieldValue.of(i.longValue());
+            case Long l -> FieldValue.of(l.longValue());
+            case Number n -> FieldValue.of(n.doubleValue());
+            default -> FieldValue.of(value.toString());
+        };
+    }
+}
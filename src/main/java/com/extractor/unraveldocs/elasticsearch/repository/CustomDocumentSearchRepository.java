@@ -0,0 +1,43 @@
+package com.extractor.unraveldocs.elasticsearch.repository;
+
+import com.extractor.unraveldocs.elasticsearch.document.DocumentSearchIndex;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Per-user document queries. Documents are routed by their owner, so these are sent
+ * to the owner's shard only instead of fanning out to every shard.
+ */
+public interface CustomDocumentSearchRepository {
+
+    /**
+     * Find documents by user ID.
+     */
+    Page<DocumentSearchIndex> findByUserId(String userId, Pageable pageable);
+
+    /**
+     * Find documents containing extracted text matching the query.
+     */
+    Page<DocumentSearchIndex> searchByUserIdAndExtractedText(String userId, String query, Pageable pageable);
+
+    /**
+     * Full-text search across multiple fields.
+     */
+    Page<DocumentSearchIndex> searchDocuments(String userId, String query, Pageable pageable);
+
+    /**
+     * Delete a document of the given user.
+     */
+    void deleteByIdAndUserId(String documentId, String userId);
+
+    /**
+     * Delete a document whose owner is not known. Searches every shard, so only meant
+     * for events published before documents were routed.
+     */
+    void deleteByIdOnAllShards(String documentId);
+
+    /**
+     * Delete all documents by user ID.
+     */
+    void deleteByUserId(String userId);
+}
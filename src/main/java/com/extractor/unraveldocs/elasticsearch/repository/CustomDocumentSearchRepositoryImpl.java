@@ -0,0 +1,85 @@
+package com.extractor.unraveldocs.elasticsearch.repository;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.extractor.unraveldocs.elasticsearch.document.DocumentSearchIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.DeleteQuery;
+import org.springframework.data.elasticsearch.core.routing.RoutingResolver;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class CustomDocumentSearchRepositoryImpl implements CustomDocumentSearchRepository {
+    private static final String USER_ID = "userId";
+
+    private final ElasticsearchOperations operations;
+
+    @Override
+    public Page<DocumentSearchIndex> findByUserId(String userId, Pageable pageable) {
+        return search(userId, ownedBy(userId), pageable);
+    }
+
+    @Override
+    public Page<DocumentSearchIndex> searchByUserIdAndExtractedText(String userId, String query, Pageable pageable) {
+        Query textQuery = Query.of(q -> q.bool(b -> b
+                .filter(ownedBy(userId))
+                .must(m -> m.match(t -> t.field("extractedText").query(query)))));
+        return search(userId, textQuery, pageable);
+    }
+
+    @Override
+    public Page<DocumentSearchIndex> searchDocuments(String userId, String query, Pageable pageable) {
+        Query fullTextQuery = Query.of(q -> q.bool(b -> b
+                .filter(ownedBy(userId))
+                .should(s -> s.match(t -> t.field("extractedText").query(query).boost(2f)))
+                .should(s -> s.match(t -> t.field("fileName").query(query).boost(1.5f)))
+                .should(s -> s.wildcard(w -> w.field("fileName.keyword").value("*" + query + "*").boost(1f)))
+                .minimumShouldMatch("1")));
+        return search(userId, fullTextQuery, pageable);
+    }
+
+    @Override
+    public void deleteByIdAndUserId(String documentId, String userId) {
+        operations.withRouting(RoutingResolver.just(userId)).delete(documentId, DocumentSearchIndex.class);
+    }
+
+    @Override
+    public void deleteByIdOnAllShards(String documentId) {
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(q -> q.ids(i -> i.values(documentId)))
+                .build();
+        operations.delete(DeleteQuery.builder(query).build(), DocumentSearchIndex.class);
+    }
+
+    @Override
+    public void deleteByUserId(String userId) {
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(ownedBy(userId))
+                .build();
+        operations.delete(DeleteQuery.builder(query).withRouting(userId).build(), DocumentSearchIndex.class);
+    }
+
+    private Page<DocumentSearchIndex> search(String userId, Query query, Pageable pageable) {
+        NativeQuery nativeQuery = NativeQuery.builder()
+                .withQuery(query)
+                .withPageable(pageable)
+                .withRoute(userId)
+                .build();
+        SearchHits<DocumentSearchIndex> hits = operations.search(nativeQuery, DocumentSearchIndex.class);
+        List<DocumentSearchIndex> content = hits.getSearchHits().stream()
+                .map(SearchHit::getContent)
+                .toList();
+        return new PageImpl<>(content, pageable, hits.getTotalHits());
+    }
+
+    private static Query ownedBy(String userId) {
+        return Query.of(q -> q.term(t -> t.field(USER_ID).value(userId)));
+    }
+}
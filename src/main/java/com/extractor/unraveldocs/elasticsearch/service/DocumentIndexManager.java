@@ -0,0 +1,384 @@
+package com.extractor.unraveldocs.elasticsearch.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Conflicts;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.HealthStatus;
+import co.elastic.clients.elasticsearch._types.SlicesCalculation;
+import co.elastic.clients.elasticsearch._types.VersionType;
+import co.elastic.clients.elasticsearch.indices.IndexSettings;
+import co.elastic.clients.elasticsearch.indices.IndicesBlockOptions;
+import co.elastic.clients.elasticsearch.indices.stats.IndicesStats;
+import co.elastic.clients.elasticsearch.tasks.GetTasksResponse;
+import com.extractor.unraveldocs.elasticsearch.config.DocumentIndexProperties;
+import com.extractor.unraveldocs.elasticsearch.document.DocumentSearchIndex;
+import com.extractor.unraveldocs.elasticsearch.dto.DocumentIndexStatus;
+import com.extractor.unraveldocs.elasticsearch.index.DocumentIndexDefinition;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.json.JsonArray;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.elasticsearch.annotations.Setting;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Creates and evolves the document index behind its alias.
+ * <p>
+ * On startup the index is created if missing. If the settings or mappings in code no
+ * longer match the live index, its documents are reindexed in the background into a new
+ * index and the alias is moved once the copy has caught up. A scheduled check splits the
+ * index into twice the shards when its primary shards outgrow the configured size.
+ * Writes are blocked on the old index for the final copy pass and during a split; the
+ * index consumer retries them until the alias has moved.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.elasticsearch.uris")
+public class DocumentIndexManager implements SmartInitializingSingleton {
+    private static final String ROUTING_SCRIPT =
+            "if (ctx._source.userId != null) { ctx._routing = ctx._source.userId }";
+    private static final long BYTES_PER_GB = 1024L * 1024 * 1024;
+
+    private final ElasticsearchClient client;
+    private final ElasticsearchOperations operations;
+    private final DocumentIndexProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicBoolean maintenanceRunning = new AtomicBoolean();
+    private volatile DocumentIndexDefinition definition;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!properties.isManageIndex()) {
+            return;
+        }
+        try {
+            ensureIndex();
+        } catch (Exception e) {
+            // Search is optional; the application starts without it
+            log.error("Could not prepare the document index: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Create the index if it is missing, start a reindex if its definition changed, and
+     * otherwise apply shard and replica changes from the configuration.
+     */
+    public void ensureIndex() throws IOException {
+        DocumentIndexDefinition current = definition();
+        String index = currentIndex();
+
+        if (index == null) {
+            if (client.indices().exists(e -> e.index(current.alias())).value()) {
+                log.info("Index '{}' predates the alias, migrating it to '{}'", current.alias(), current.indexName());
+                startMaintenance(() -> migrate(current.alias(), current));
+            } else {
+                createIndex(current.indexName(), current);
+                log.info("Created document index '{}' behind alias '{}'", current.indexName(), current.alias());
+            }
+            return;
+        }
+
+        if (!current.isVersionOf(index)) {
+            log.info("Document index '{}' is out of date, migrating it to '{}'", index, current.indexName());
+            startMaintenance(() -> migrate(index, current));
+            return;
+        }
+
+        IndexSettings settings = settings(index);
+        int shards = Integer.parseInt(settings.numberOfShards());
+        if (properties.getShards() > shards) {
+            startMaintenance(() -> split(index, shards, properties.getShards()));
+        } else if (!String.valueOf(properties.getReplicas()).equals(settings.numberOfReplicas())) {
+            client.indices().putSettings(p -> p
+                    .index(index)
+                    .settings(s -> s.numberOfReplicas(String.valueOf(properties.getReplicas()))));
+            log.info("Set replicas of document index '{}' to {}", index, properties.getReplicas());
+        }
+    }
+
+    /**
+     * Split the index into twice the shards once its average primary shard is larger
+     * than the configured limit.
+     */
+    @Scheduled(cron = "${elasticsearch.documents.size-check-cron:0 20 3 * * ?}")
+    public void checkShardSize() {
+        if (!properties.isManageIndex() || maintenanceRunning.get()) {
+            return;
+        }
+        try {
+            String index = currentIndex();
+            if (index == null) {
+                return;
+            }
+            int shards = Integer.parseInt(settings(index).numberOfShards());
+            long averageShardBytes = primaryStoreBytes(index) / shards;
+            if (averageShardBytes < properties.getMaxPrimaryShardSizeGb() * BYTES_PER_GB) {
+                return;
+            }
+            if (shards * 2 > properties.getMaxShards()) {
+                log.warn("Document index '{}' has {} GB primary shards but is already at {} of at most {} shards",
+                        index, averageShardBytes / BYTES_PER_GB, shards, properties.getMaxShards());
+                return;
+            }
+            startMaintenance(() -> split(index, shards, shards * 2));
+        } catch (Exception e) {
+            log.error("Document index size check failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Describe the index behind the alias.
+     */
+    public DocumentIndexStatus getStatus() throws IOException {
+        DocumentIndexDefinition current = definition();
+        DocumentIndexStatus.DocumentIndexStatusBuilder status = DocumentIndexStatus.builder()
+                .alias(current.alias())
+                .expectedVersion(current.version())
+                .maintenanceRunning(maintenanceRunning.get());
+
+        String index = currentIndex();
+        if (index == null) {
+            return status.build();
+        }
+        IndexSettings settings = settings(index);
+        IndicesStats stats = stats(index);
+        return status
+                .index(index)
+                .upToDate(current.isVersionOf(index))
+                .shards(Integer.parseInt(settings.numberOfShards()))
+                .replicas(Integer.parseInt(settings.numberOfReplicas()))
+                .primaryStoreBytes(stats.primaries().store().sizeInBytes())
+                .documentCount(stats.primaries().docs().count())
+                .build();
+    }
+
+    /**
+     * Start a split of the index into twice its shards, regardless of its size.
+     *
+     * @return false if the index is at its shard limit or other maintenance is running
+     */
+    public boolean requestSplit() throws IOException {
+        String index = currentIndex();
+        if (index == null) {
+            return false;
+        }
+        int shards = Integer.parseInt(settings(index).numberOfShards());
+        if (shards * 2 > properties.getMaxShards()) {
+            return false;
+        }
+        return startMaintenance(() -> split(index, shards, shards * 2));
+    }
+
+    private boolean startMaintenance(MaintenanceTask task) {
+        if (!maintenanceRunning.compareAndSet(false, true)) {
+            log.info("Document index maintenance already running, skipping");
+            return false;
+        }
+        Thread.ofVirtual().name("document-index-maintenance").start(() -> {
+            try {
+                task.run();
+            } catch (ElasticsearchException e) {
+                if ("resource_already_exists_exception".equals(e.error().type())) {
+                    log.info("Target index already exists, another instance is maintaining the document index. "
+                            + "Delete the target index if that run did not complete.");
+                } else {
+                    log.error("Document index maintenance failed: {}", e.getMessage(), e);
+                }
+            } catch (Exception e) {
+                log.error("Document index maintenance failed: {}", e.getMessage(), e);
+            } finally {
+                maintenanceRunning.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Copy the documents of {@code source} into a new index built from the definition,
+     * then move the alias to it.
+     */
+    private void migrate(String source, DocumentIndexDefinition target) throws Exception {
+        String targetIndex = target.indexName();
+        client.indices().create(c -> c.index(targetIndex).withJson(new StringReader(target.body())));
+        // Faster bulk loading; restored before the alias moves
+        client.indices().putSettings(p -> p
+                .index(targetIndex)
+                .settings(s -> s.numberOfReplicas("0").refreshInterval(t -> t.time("-1"))));
+
+        // The first pass copies while writes continue. External versioning lets the
+        // second pass, with writes blocked, copy only what changed in between.
+        reindex(source, targetIndex);
+        client.indices().addBlock(b -> b.index(source).block(IndicesBlockOptions.Write));
+        try {
+            reindex(source, targetIndex);
+            client.indices().putSettings(p -> p
+                    .index(targetIndex)
+                    .settings(s -> s
+                            .numberOfReplicas(String.valueOf(properties.getReplicas()))
+                            .refreshInterval(t -> t.time("1s"))));
+            client.indices().refresh(r -> r.index(targetIndex));
+            awaitHealth(targetIndex);
+            moveAlias(source, targetIndex);
+        } catch (Exception e) {
+            unblockWrites(source);
+            throw e;
+        }
+        log.info("Migrated document index '{}' to '{}'", source, targetIndex);
+    }
+
+    /**
+     * Split {@code source} into {@code targetShards} shards and move the alias to the
+     * new index.
+     */
+    private void split(String source, int shards, int targetShards) throws Exception {
+        if (targetShards % shards != 0 || properties.getMaxShards() % targetShards != 0) {
+            log.warn("Cannot split document index '{}' from {} into {} shards with at most {} shards",
+                    source, shards, targetShards, properties.getMaxShards());
+            return;
+        }
+        String targetIndex = definition().indexName(targetShards);
+        client.indices().addBlock(b -> b.index(source).block(IndicesBlockOptions.Write));
+        try {
+            client.indices().split(s -> s.index(source).target(targetIndex));
+            // The target copies the source settings, write block included
+            unblockWrites(targetIndex);
+            awaitHealth(targetIndex);
+            moveAlias(source, targetIndex);
+        } catch (Exception e) {
+            unblockWrites(source);
+            throw e;
+        }
+        log.info("Split document index '{}' into '{}' with {} shards", source, targetIndex, targetShards);
+    }
+
+    private void reindex(String source, String target) throws IOException, InterruptedException {
+        String task = client.reindex(r -> r
+                .source(s -> s.index(source))
+                .dest(d -> d.index(target).versionType(VersionType.External))
+                .script(s -> s.source(src -> src.scriptString(ROUTING_SCRIPT)))
+                .conflicts(Conflicts.Proceed)
+                .slices(s -> s.computed(SlicesCalculation.Auto))
+                .waitForCompletion(false)).task();
+        awaitTask(task);
+    }
+
+    private void awaitTask(String taskId) throws IOException, InterruptedException {
+        while (true) {
+            GetTasksResponse task = client.tasks().get(t -> t.taskId(taskId));
+            if (task.completed()) {
+                if (task.error() != null) {
+                    throw new IllegalStateException("Task " + taskId + " failed: " + task.error().reason());
+                }
+                JsonArray failures = task.response().toJson().asJsonObject().getJsonArray("failures");
+                if (failures != null && !failures.isEmpty()) {
+                    throw new IllegalStateException("Task " + taskId + " failed: " + failures.getFirst());
+                }
+                return;
+            }
+            Thread.sleep(properties.getTaskPollIntervalMs());
+        }
+    }
+
+    private void awaitHealth(String index) throws IOException {
+        client.cluster().health(h -> h
+                .index(index)
+                .waitForStatus(HealthStatus.Yellow)
+                .timeout(t -> t.time("10m")));
+    }
+
+    /**
+     * Point the alias at {@code target} in one step. An index named like the alias
+     * itself is deleted in the same request, since the alias cannot be created while
+     * it exists.
+     */
+    private void moveAlias(String source, String target) throws IOException {
+        String alias = definition().alias();
+        boolean legacy = source.equals(alias);
+        client.indices().updateAliases(u -> u
+                .actions(a -> a.add(add -> add.index(target).alias(alias).isWriteIndex(true)))
+                .actions(a -> legacy
+                        ? a.removeIndex(r -> r.index(source))
+                        : a.remove(r -> r.index(source).alias(alias))));
+        if (!legacy && properties.isDeletePreviousIndex()) {
+            client.indices().delete(d -> d.index(source));
+        }
+    }
+
+    private void unblockWrites(String index) {
+        try {
+            client.indices().putSettings(p -> p
+                    .index(index)
+                    .settings(s -> s.blocks(b -> b.write(false))));
+        } catch (Exception e) {
+            log.error("Could not remove the write block from index '{}': {}", index, e.getMessage(), e);
+        }
+    }
+
+    private void createIndex(String name, DocumentIndexDefinition target) throws IOException {
+        client.indices().create(c -> c
+                .index(name)
+                .withJson(new StringReader(target.body()))
+                .aliases(target.alias(), a -> a.isWriteIndex(true)));
+    }
+
+    /**
+     * The index the alias points to, or null if there is no alias.
+     */
+    private String currentIndex() throws IOException {
+        String alias = definition().alias();
+        if (!client.indices().existsAlias(e -> e.name(alias)).value()) {
+            return null;
+        }
+        Map<String, ?> indices = client.indices().getAlias(g -> g.name(alias)).aliases();
+        return indices.keySet().iterator().next();
+    }
+
+    private IndexSettings settings(String index) throws IOException {
+        IndexSettings settings = client.indices().getSettings(g -> g.index(index)).get(index).settings();
+        return settings.index() != null ? settings.index() : settings;
+    }
+
+    private IndicesStats stats(String index) throws IOException {
+        return client.indices().stats(s -> s.index(index)).indices().get(index);
+    }
+
+    private long primaryStoreBytes(String index) throws IOException {
+        return stats(index).primaries().store().sizeInBytes();
+    }
+
+    private DocumentIndexDefinition definition() throws IOException {
+        if (definition == null) {
+            IndexOperations indexOps = operations.indexOps(DocumentSearchIndex.class);
+            Setting setting = DocumentSearchIndex.class.getAnnotation(Setting.class);
+            String settingsJson = new ClassPathResource(setting.settingPath()).getContentAsString(StandardCharsets.UTF_8);
+            definition = DocumentIndexDefinition.of(
+                    indexOps.getIndexCoordinates().getIndexName(),
+                    settingsJson,
+                    indexOps.createMapping(),
+                    properties.getShards(),
+                    properties.getMaxShards(),
+                    properties.getReplicas(),
+                    objectMapper);
+        }
+        return definition;
+    }
+
+    @FunctionalInterface
+    private interface MaintenanceTask {
+        void run() throws Exception;
+    }
+}
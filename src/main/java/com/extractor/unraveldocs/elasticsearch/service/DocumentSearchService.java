@@ -141,13 +141,15 @@ public class DocumentSearchService {
      * Deletes a document from the search index.
      *
      * @param documentId The document ID to delete
+     * @param userId     The document's owner
      */
-    public void deleteDocument(String documentId) {
+    public void deleteDocument(String documentId, String userId) {
         log.debug("Deleting document from index: {}", sanitizer.sanitizeLogging(documentId));
 
         ElasticsearchIndexEvent event = ElasticsearchIndexEvent.deleteEvent(
                 documentId,
-                IndexType.DOCUMENT);
+                IndexType.DOCUMENT,
+                userId);
         eventPublisher.publishDocumentIndexEvent(event);
     }
 
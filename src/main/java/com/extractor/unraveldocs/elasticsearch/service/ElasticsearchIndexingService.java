@@ -120,10 +120,13 @@ public class ElasticsearchIndexingService {
 
     /**
      * Publishes a delete event for a document.
+     *
+     * @param documentId The document to delete
+     * @param userId     The document's owner, which routes the delete
      */
-    public void deleteDocumentFromIndex(String documentId) {
+    public void deleteDocumentFromIndex(String documentId, String userId) {
         try {
-            ElasticsearchIndexEvent event = ElasticsearchIndexEvent.deleteEvent(documentId, IndexType.DOCUMENT);
+            ElasticsearchIndexEvent event = ElasticsearchIndexEvent.deleteEvent(documentId, IndexType.DOCUMENT, userId);
             eventPublisher.publishDocumentIndexEvent(event);
             log.debug("Published DELETE index event for document: {}", documentId);
         } catch (Exception e) {
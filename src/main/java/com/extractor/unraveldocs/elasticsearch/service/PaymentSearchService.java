@@ -1,5 +1,7 @@
 package com.extractor.unraveldocs.elasticsearch.service;
 
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
 import com.extractor.unraveldocs.elasticsearch.document.PaymentSearchIndex;
 import com.extractor.unraveldocs.elasticsearch.dto.SearchRequest;
@@ -7,16 +9,20 @@ import com.extractor.unraveldocs.elasticsearch.dto.SearchResponse;
 import com.extractor.unraveldocs.elasticsearch.events.ElasticsearchIndexEvent;
 import com.extractor.unraveldocs.elasticsearch.events.IndexType;
 import com.extractor.unraveldocs.elasticsearch.publisher.ElasticsearchEventPublisher;
+import com.extractor.unraveldocs.elasticsearch.query.CursorSearchExecutor;
+import com.extractor.unraveldocs.elasticsearch.query.SearchAggregations;
+import com.extractor.unraveldocs.elasticsearch.query.SearchFilters;
 import com.extractor.unraveldocs.elasticsearch.repository.PaymentSearchRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Service for payment search operations using Elasticsearch.
  * Used for admin payment oversight and user payment history.
@@ -27,12 +33,28 @@ import org.springframework.stereotype.Service;
 @ConditionalOnProperty(name = "spring.elasticsearch.uris")
 public class PaymentSearchService {
 
+    private static final Set<String> FILTER_FIELDS = Set.of(
+            "userId", "paymentProvider", "status", "currency", "paymentType",
+            "paymentMethod", "subscriptionPlan", "emailSent");
+    private static final Set<String> SORT_FIELDS = Set.of(
+            "createdAt", "updatedAt", "paidAt", "amount", "receiptNumber", "userEmail",
+            "status", "paymentProvider", "currency");
+    private static final Map<String, Aggregation> FACETS = Map.of(
+            "status", SearchAggregations.facet("status", 10),
+            "paymentProvider", SearchAggregations.facet("paymentProvider", 10),
+            "paymentType", SearchAggregations.facet("paymentType", 10),
+            "subscriptionPlan", SearchAggregations.facet("subscriptionPlan", 20),
+            // Amounts only add up within one currency
+            "currency", SearchAggregations.facetWithTotal("currency", 20, "amount"));
+
     private final PaymentSearchRepository paymentSearchRepository;
+    private final CursorSearchExecutor cursorSearchExecutor;
     private final ElasticsearchEventPublisher eventPublisher;
     private final SanitizeLogging sanitizer;
 
     /**
-     * Searches payments with optional filters.
+     * Searches payments. All filters apply together, and the first page also carries
+     * facet counts and the revenue per currency of all matching payments.
      *
      * @param request The search request
      * @return Search response with matching payments
@@ -40,42 +62,23 @@ public class PaymentSearchService {
     public SearchResponse<PaymentSearchIndex> searchPayments(SearchRequest request) {
         log.debug("Searching payments: query='{}'", sanitizer.sanitizeLogging(request.getQuery()));
 
-        Pageable pageable = createPageable(request);
-        Page<PaymentSearchIndex> page;
-
-        if (request.getQuery() != null && !request.getQuery().isBlank()) {
-            // Check for provider filter
-            if (request.getFilters().containsKey("paymentProvider")) {
-                String provider = request.getFilters().get("paymentProvider").toString();
-                page = paymentSearchRepository.searchPaymentsByProvider(request.getQuery(), provider, pageable);
-            }
-            // Check for status filter
-            else if (request.getFilters().containsKey("status")) {
-                String status = request.getFilters().get("status").toString();
-                page = paymentSearchRepository.searchPaymentsByStatus(request.getQuery(), status, pageable);
-            } else {
-                page = paymentSearchRepository.searchPayments(request.getQuery(), pageable);
+        Query query = Query.of(q -> q.bool(b -> {
+            b.filter(SearchFilters.of(request.getFilters(), FILTER_FIELDS));
+            b.filter(SearchFilters.dateRange("paidAt", request.getDateFrom(), request.getDateTo()));
+            if (request.getQuery() != null && !request.getQuery().isBlank()) {
+                String text = request.getQuery();
+                b.must(m -> m.bool(t -> t
+                        .should(s -> s.term(f -> f.field("receiptNumber").value(text)))
+                        .should(s -> s.wildcard(f -> f.field("userEmail").value("*" + text + "*")))
+                        .should(s -> s.match(f -> f.field("userName").query(text)))
+                        .should(s -> s.match(f -> f.field("description").query(text)))
+                        .should(s -> s.term(f -> f.field("externalPaymentId").value(text)))
+                        .minimumShouldMatch("1")));
             }
-        } else {
-            // No query - apply filters directly
-            if (request.getFilters().containsKey("paymentProvider")) {
-                String provider = request.getFilters().get("paymentProvider").toString();
-                page = paymentSearchRepository.findByPaymentProvider(provider, pageable);
-            } else if (request.getFilters().containsKey("status")) {
-                String status = request.getFilters().get("status").toString();
-                page = paymentSearchRepository.findByStatus(status, pageable);
-            } else if (request.getFilters().containsKey("currency")) {
-                String currency = request.getFilters().get("currency").toString();
-                page = paymentSearchRepository.findByCurrency(currency, pageable);
-            } else if (request.getDateFrom() != null && request.getDateTo() != null) {
-                page = paymentSearchRepository.findByPaidAtBetween(
-                        request.getDateFrom(), request.getDateTo(), pageable);
-            } else {
-                page = paymentSearchRepository.findAll(pageable);
-            }
-        }
+            return b;
+        }));
 
-        return SearchResponse.fromPage(page);
+        return cursorSearchExecutor.search(PaymentSearchIndex.class, request, query, SORT_FIELDS, FACETS);
     }
 
     /**
@@ -149,18 +152,4 @@ public class PaymentSearchService {
         log.info("Deleting all payments for user: {}", sanitizer.sanitizeLogging(userId));
         paymentSearchRepository.deleteByUserId(userId);
     }
-
-    private Pageable createPageable(SearchRequest request) {
-        String sortBy = request.getSortBy() != null ? request.getSortBy() : "createdAt";
-        String sortDirection = request.getSortDirection() != null ? request.getSortDirection() : "desc";
-        int page = request.getPage() != null ? request.getPage() : 0;
-        int size = request.getSize() != null ? request.getSize() : 10;
-
-        Sort sort = Sort.by(
-                sortDirection.equalsIgnoreCase("asc")
-                        ? Sort.Direction.ASC
-                        : Sort.Direction.DESC,
-                sortBy);
-        return PageRequest.of(page, size, sort);
-    }
 }
@@ -0,0 +1,36 @@
+package com.extractor.unraveldocs.elasticsearch.service;
+
+import com.extractor.unraveldocs.elasticsearch.repository.DocumentSearchRepository;
+import com.extractor.unraveldocs.elasticsearch.repository.UserSearchRepository;
+import com.extractor.unraveldocs.user.lifecycle.AccountPurgeStep;
+import com.extractor.unraveldocs.user.lifecycle.PurgeTarget;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Removes an account's documents and its user entry from the search indices.
+ * Both deletes are by ID or query, so repeating them is harmless. The document
+ * delete is routed to the account's shard.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.elasticsearch.uris")
+public class SearchIndexPurgeStep implements AccountPurgeStep {
+    private final DocumentSearchRepository documentSearchRepository;
+    private final UserSearchRepository userSearchRepository;
+
+    @Override
+    public String getStepName() {
+        return "search-index";
+    }
+
+    @Override
+    public void purge(PurgeTarget target) {
+        documentSearchRepository.deleteByUserId(target.userId());
+        userSearchRepository.deleteById(target.userId());
+        log.debug("Removed account {} from the search indices", target.userId());
+    }
+}
@@ -1,5 +1,7 @@
 package com.extractor.unraveldocs.elasticsearch.service;
 
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
 import com.extractor.unraveldocs.elasticsearch.document.UserSearchIndex;
 import com.extractor.unraveldocs.elasticsearch.dto.SearchRequest;
@@ -7,16 +9,20 @@ import com.extractor.unraveldocs.elasticsearch.dto.SearchResponse;
 import com.extractor.unraveldocs.elasticsearch.events.ElasticsearchIndexEvent;
 import com.extractor.unraveldocs.elasticsearch.events.IndexType;
 import com.extractor.unraveldocs.elasticsearch.publisher.ElasticsearchEventPublisher;
+import com.extractor.unraveldocs.elasticsearch.query.CursorSearchExecutor;
+import com.extractor.unraveldocs.elasticsearch.query.SearchAggregations;
+import com.extractor.unraveldocs.elasticsearch.query.SearchFilters;
 import com.extractor.unraveldocs.elasticsearch.repository.UserSearchRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Service for user search operations using Elasticsearch.
  * Used by admin dashboard for fast user lookups.
@@ -27,12 +33,27 @@ import org.springframework.stereotype.Service;
 @ConditionalOnProperty(name = "spring.elasticsearch.uris")
 public class UserSearchService {
 
+    private static final Set<String> FILTER_FIELDS = Set.of(
+            "role", "isActive", "isVerified", "isPlatformAdmin", "isOrganizationAdmin",
+            "country", "subscriptionPlan", "subscriptionStatus");
+    private static final Set<String> SORT_FIELDS = Set.of(
+            "createdAt", "updatedAt", "lastLogin", "email", "role", "country", "documentCount");
+    private static final Map<String, Aggregation> FACETS = Map.of(
+            "role", SearchAggregations.facet("role", 10),
+            "isActive", SearchAggregations.facet("isActive", 2),
+            "isVerified", SearchAggregations.facet("isVerified", 2),
+            "country", SearchAggregations.facet("country", 20),
+            "subscriptionPlan", SearchAggregations.facet("subscriptionPlan", 20),
+            "subscriptionStatus", SearchAggregations.facet("subscriptionStatus", 10));
+
     private final UserSearchRepository userSearchRepository;
+    private final CursorSearchExecutor cursorSearchExecutor;
     private final ElasticsearchEventPublisher eventPublisher;
     private final SanitizeLogging sanitizer;
 
     /**
-     * Searches users with optional filters.
+     * Searches users. All filters apply together, and the first page also carries facet
+     * counts by role, status, country and subscription.
      *
      * @param request The search request
      * @return Search response with matching users
@@ -40,39 +61,23 @@ public class UserSearchService {
     public SearchResponse<UserSearchIndex> searchUsers(SearchRequest request) {
         log.debug("Searching users: query='{}'", sanitizer.sanitizeLogging(request.getQuery()));
 
-        Pageable pageable = createPageable(request);
-        Page<UserSearchIndex> page;
-
-        if (request.getQuery() != null && !request.getQuery().isBlank()) {
-            // Check for role filter
-            if (request.getFilters().containsKey("role")) {
-                String role = request.getFilters().get("role").toString();
-                page = userSearchRepository.searchUsersByRole(request.getQuery(), role, pageable);
-            }
-            // Check for active status filter
-            else if (request.getFilters().containsKey("isActive")) {
-                Boolean isActive = Boolean.valueOf(request.getFilters().get("isActive").toString());
-                page = userSearchRepository.searchUsersByActiveStatus(request.getQuery(), isActive, pageable);
-            } else {
-                page = userSearchRepository.searchUsers(request.getQuery(), pageable);
+        Query query = Query.of(q -> q.bool(b -> {
+            b.filter(SearchFilters.of(request.getFilters(), FILTER_FIELDS));
+            b.filter(SearchFilters.dateRange("createdAt", request.getDateFrom(), request.getDateTo()));
+            if (request.getQuery() != null && !request.getQuery().isBlank()) {
+                String text = request.getQuery();
+                b.must(m -> m.bool(t -> t
+                        .should(s -> s.match(f -> f.field("firstName").query(text).boost(2f)))
+                        .should(s -> s.match(f -> f.field("lastName").query(text).boost(2f)))
+                        .should(s -> s.wildcard(f -> f.field("email").value("*" + text + "*").boost(1.5f)))
+                        .should(s -> s.match(f -> f.field("organization").query(text)))
+                        .should(s -> s.match(f -> f.field("profession").query(text)))
+                        .minimumShouldMatch("1")));
             }
-        } else {
-            // No query - apply filters directly
-            if (request.getFilters().containsKey("role")) {
-                String role = request.getFilters().get("role").toString();
-                page = userSearchRepository.findByRole(role, pageable);
-            } else if (request.getFilters().containsKey("isActive")) {
-                Boolean isActive = Boolean.valueOf(request.getFilters().get("isActive").toString());
-                page = userSearchRepository.findByIsActive(isActive, pageable);
-            } else if (request.getFilters().containsKey("country")) {
-                String country = request.getFilters().get("country").toString();
-                page = userSearchRepository.findByCountry(country, pageable);
-            } else {
-                page = userSearchRepository.findAll(pageable);
-            }
-        }
+            return b;
+        }));
 
-        return SearchResponse.fromPage(page);
+        return cursorSearchExecutor.search(UserSearchIndex.class, request, query, SORT_FIELDS, FACETS);
     }
 
     /**
@@ -163,18 +168,4 @@ public class UserSearchService {
                 IndexType.USER);
         eventPublisher.publishUserIndexEvent(event);
     }
-
-    private Pageable createPageable(SearchRequest request) {
-        String sortBy = request.getSortBy() != null ? request.getSortBy() : "createdAt";
-        String sortDirection = request.getSortDirection() != null ? request.getSortDirection() : "desc";
-        int page = request.getPage() != null ? request.getPage() : 0;
-        int size = request.getSize() != null ? request.getSize() : 10;
-
-        Sort sort = Sort.by(
-                sortDirection.equalsIgnoreCase("asc")
-                        ? Sort.Direction.ASC
-                        : Sort.Direction.DESC,
-                sortBy);
-        return PageRequest.of(page, size, sort);
-    }
 }
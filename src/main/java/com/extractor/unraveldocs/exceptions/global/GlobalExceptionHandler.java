@@ -5,6 +5,7 @@ import com.extractor.unraveldocs.coupon.exception.InvalidCouponException;
 import com.extractor.unraveldocs.exceptions.custom.*;
 import com.extractor.unraveldocs.exceptions.response.ErrorResponse;
 import lombok.NonNull;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -158,6 +159,18 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(errorResponse);
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<@NonNull ErrorResponse> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        ErrorResponse specificErrorResponse = new ErrorResponse();
+        specificErrorResponse.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+        specificErrorResponse.setError(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase());
+        specificErrorResponse.setMessage(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(specificErrorResponse);
+    }
+
     @ExceptionHandler(HttpMessageNotReadableException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<@NonNull ErrorResponse> handleHttpMessageNotReadableException(
@@ -6,6 +6,10 @@ import com.extractor.unraveldocs.ocrprocessing.provider.OcrProvider;
 import com.extractor.unraveldocs.ocrprocessing.provider.OcrProviderType;
 import com.extractor.unraveldocs.ocrprocessing.provider.OcrRequest;
 import com.extractor.unraveldocs.ocrprocessing.provider.OcrResult;
+import com.extractor.unraveldocs.outbound.resilience.TransientFailures;
+import com.extractor.unraveldocs.outbound.service.OutboundCallGuard;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
 import com.google.cloud.vision.v1.*;
 import com.google.protobuf.ByteString;
 import lombok.extern.slf4j.Slf4j;
@@ -19,7 +23,6 @@ import java.net.URL;
 
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Google Cloud Vision OCR provider implementation.
@@ -40,15 +43,28 @@ public class GoogleVisionOcrProvider implements OcrProvider {
             "image/webp",
             "application/pdf");
 
+    private static final String PROVIDER = "google-vision";
+
+    /**
+     * gRPC codes that count against the provider's circuit; anything else is a rejected request.
+     */
+    private static final Set<StatusCode.Code> TRANSIENT_CODES = Set.of(
+            StatusCode.Code.UNAVAILABLE,
+            StatusCode.Code.DEADLINE_EXCEEDED,
+            StatusCode.Code.RESOURCE_EXHAUSTED,
+            StatusCode.Code.INTERNAL);
+
     private final ImageAnnotatorClient visionClient;
     private final GoogleVisionProperties properties;
-    private final AtomicBoolean isAvailable = new AtomicBoolean(true);
+    private final OutboundCallGuard outboundCallGuard;
 
     public GoogleVisionOcrProvider(
             ImageAnnotatorClient visionClient,
-            GoogleVisionProperties properties) {
+            GoogleVisionProperties properties,
+            OutboundCallGuard outboundCallGuard) {
         this.visionClient = visionClient;
         this.properties = properties;
+        this.outboundCallGuard = outboundCallGuard;
         log.info("GoogleVisionOcrProvider initialized with {} supported languages",
                 properties.getLanguages().size());
     }
@@ -94,8 +110,9 @@ public class GoogleVisionOcrProvider implements OcrProvider {
                     .build();
 
             // Execute Vision API call
-            BatchAnnotateImagesResponse response = visionClient.batchAnnotateImages(
-                    List.of(visionRequest));
+            BatchAnnotateImagesResponse response = outboundCallGuard.execute(PROVIDER,
+                    () -> visionClient.batchAnnotateImages(List.of(visionRequest)),
+                    GoogleVisionOcrProvider::isTransient);
 
             // Process response
             return processResponse(response, request, startTime);
@@ -111,17 +128,18 @@ public class GoogleVisionOcrProvider implements OcrProvider {
             long processingTime = System.currentTimeMillis() - startTime;
             log.error("Vision API error: {}", e.getMessage(), e);
 
-            // Check if this is a transient error
-            if (isTransientError(e)) {
-                isAvailable.set(false);
-                // TODO: Schedule availability check (in production, use a health check)
-            }
-
             return OcrResult.failure(e, OcrProviderType.GOOGLE_VISION, processingTime)
                     .withMetadata("documentId", request.getDocumentId());
         }
     }
 
+    private static boolean isTransient(Exception e) {
+        if (e instanceof ApiException api) {
+            return TRANSIENT_CODES.contains(api.getStatusCode().getCode());
+        }
+        return TransientFailures.isTransient(e);
+    }
+
     @Override
     public boolean supports(String mimeType) {
         if (mimeType == null) {
@@ -137,7 +155,7 @@ public class GoogleVisionOcrProvider implements OcrProvider {
 
     @Override
     public boolean isAvailable() {
-        return isAvailable.get() && visionClient != null;
+        return visionClient != null && outboundCallGuard.forProvider(PROVIDER).isAvailable();
     }
 
     @Override
@@ -330,21 +348,4 @@ public class GoogleVisionOcrProvider implements OcrProvider {
 
         return null;
     }
-
-    /**
-     * Check if the error is transient and the provider should be marked
-     * unavailable.
-     */
-    private boolean isTransientError(Exception e) {
-        String message = e.getMessage();
-        if (message == null) {
-            return false;
-        }
-
-        // Check for common transient errors
-        return message.contains("UNAVAILABLE") ||
-                message.contains("DEADLINE_EXCEEDED") ||
-                message.contains("RESOURCE_EXHAUSTED") ||
-                message.contains("rate limit");
-    }
 }
@@ -6,4 +6,9 @@ public interface LoginAttemptsService {
     void checkIfUserBlocked(User user);
     void recordFailedLoginAttempt(User user);
     void resetLoginAttempts(User user);
+
+    /**
+     * Failed logins across all users in roughly the last 24 hours.
+     */
+    long countRecentFailedLogins();
 }
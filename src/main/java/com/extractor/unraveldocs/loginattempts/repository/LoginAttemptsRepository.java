@@ -3,8 +3,14 @@ package com.extractor.unraveldocs.loginattempts.repository;
 import com.extractor.unraveldocs.loginattempts.model.LoginAttempts;
 import com.extractor.unraveldocs.user.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,6 +19,13 @@ public interface LoginAttemptsRepository extends JpaRepository<LoginAttempts, St
 
     long countByIsBlockedTrue();
 
-    @org.springframework.data.jpa.repository.Query("SELECT COALESCE(SUM(l.loginAttempts), 0) FROM LoginAttempts l WHERE l.updatedAt >= :since")
-    long sumFailedLoginsSince(@org.springframework.data.repository.query.Param("since") java.time.LocalDateTime since);
+    @Query("SELECT l FROM LoginAttempts l JOIN FETCH l.user " +
+            "WHERE l.isBlocked = true AND l.blockedUntil > :now")
+    List<LoginAttempts> findActiveBlocks(@Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE LoginAttempts l SET l.isBlocked = false, l.blockedUntil = NULL " +
+            "WHERE l.isBlocked = true AND l.blockedUntil < :now")
+    int releaseExpiredBlocks(@Param("now") LocalDateTime now);
 }
@@ -1,116 +1,249 @@
 package com.extractor.unraveldocs.loginattempts.service;
 
+import com.extractor.unraveldocs.auth.config.LoginProperties;
 import com.extractor.unraveldocs.exceptions.custom.ForbiddenException;
 import com.extractor.unraveldocs.loginattempts.interfaces.LoginAttemptsService;
 import com.extractor.unraveldocs.loginattempts.model.LoginAttempts;
 import com.extractor.unraveldocs.loginattempts.repository.LoginAttemptsRepository;
 import com.extractor.unraveldocs.user.model.User;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Optional;
-
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Failed-login counting and lockout backed by Redis.
+ * <p>
+ * Each failure is a single atomic {@code INCR} on a per-user counter that expires
+ * after the attempt window; reaching the limit sets a lock key whose TTL is the
+ * lockout. Successful logins and lock checks never touch the database. Lockouts
+ * are still recorded in {@code login_attempts} so admin statistics keep working,
+ * and expired ones are released there by a scheduled job. Failures are also counted
+ * in hourly Redis buckets that feed the recent-failed-logins statistic.
+ * <p>
+ * Lockouts already in {@code login_attempts} are copied into Redis on startup, and the
+ * table is consulted when Redis cannot be read, so a lock always runs its full term.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class LoginAttemptsImpl implements LoginAttemptsService {
-    private static final int MAX_LOGIN_ATTEMPTS = 4;
-    private static final int LOCKOUT_DURATION_DAYS = 5;
+    private static final String FAILURES_KEY_PREFIX = "login:failures:";
+    private static final String LOCK_KEY_PREFIX = "login:lock:";
+    private static final String FAILED_TOTAL_KEY_PREFIX = "login:failed-total:";
+    private static final int STATS_WINDOW_HOURS = 24;
+    private static final Duration STATS_BUCKET_TTL = Duration.ofHours(STATS_WINDOW_HOURS + 1);
+
+    /**
+     * Increment the user's counter and start its expiry window on the first failure,
+     * and count the failure in the current hourly statistics bucket, atomically.
+     */
+    private static final RedisScript<Long> INCREMENT_WITH_EXPIRY = RedisScript.of("""
+            local count = redis.call('INCR', KEYS[1])
+            if count == 1 then
+                redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            end
+            if redis.call('INCR', KEYS[2]) == 1 then
+                redis.call('PEXPIRE', KEYS[2], ARGV[2])
+            end
+            return count
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
     private final LoginAttemptsRepository loginAttemptsRepository;
+    private final LoginProperties loginProperties;
 
     @Override
     public void checkIfUserBlocked(User user) {
-        Optional<LoginAttempts> attemptsOpt = loginAttemptsRepository.findByUser(user);
-        if (attemptsOpt.isPresent()) {
-            LoginAttempts attempts = attemptsOpt.get();
-            if (
-                    attempts.isBlocked() &&
-                    attempts.getBlockedUntil() != null &&
-                    attempts.getBlockedUntil().isAfter(LocalDateTime.now())) {
-
-                LocalDateTime now = LocalDateTime.now();
-                LocalDateTime blockedUntilTime = attempts.getBlockedUntil();
-
-                Duration remainingDuration = Duration.between(now, blockedUntilTime);
-                String displayMessage = getDisplayMessage(remainingDuration);
-                throw new ForbiddenException(displayMessage);
+        Long remainingSeconds;
+        try {
+            remainingSeconds = redisTemplate.getExpire(LOCK_KEY_PREFIX + user.getId(), TimeUnit.SECONDS);
+        } catch (DataAccessException e) {
+            // The password check still applies; an unreachable Redis must not lock everyone out
+            log.warn("Could not read login lock for user {}: {}", user.getId(), e.getMessage());
+            checkRecordedLockout(user);
+            return;
+        }
+
+        if (remainingSeconds != null && remainingSeconds > 0) {
+            throw new ForbiddenException(getDisplayMessage(Duration.ofSeconds(remainingSeconds)));
+        }
+    }
+
+    private void checkRecordedLockout(User user) {
+        LoginAttempts attempts;
+        try {
+            attempts = loginAttemptsRepository.findByUser(user).orElse(null);
+        } catch (DataAccessException e) {
+            log.warn("Could not read recorded lockout for user {}: {}", user.getId(), e.getMessage());
+            return;
+        }
+
+        if (attempts != null && attempts.isBlocked() && attempts.getBlockedUntil() != null) {
+            Duration remaining = Duration.between(LocalDateTime.now(), attempts.getBlockedUntil());
+            if (remaining.isPositive()) {
+                throw new ForbiddenException(getDisplayMessage(remaining));
             }
         }
     }
 
     private static String getDisplayMessage(Duration remainingDuration) {
-        long totalRemainingSeconds = remainingDuration.getSeconds();
-
-        if (totalRemainingSeconds <= 0) {
+        if (remainingDuration.getSeconds() <= 0) {
             return "Your account is temporarily locked. Try again in 1 minute.";
         }
+        return "Your account is temporarily locked. Try again in %s.".formatted(getDisplayDuration(remainingDuration));
+    }
 
-        long days = remainingDuration.toDays();
+    private static String getDisplayDuration(Duration duration) {
+        long days = duration.toDays();
         if (days >= 1) {
-            String dayWord = days == 1 ? "day" : "days";
-            return "Your account is temporarily locked. Try again in %d %s.".formatted(days, dayWord);
+            return "%d %s".formatted(days, days == 1 ? "day" : "days");
         }
 
-        long hours = remainingDuration.toHours();
+        long hours = duration.toHours();
         if (hours >= 1) {
-            String hourWord = hours == 1 ? "hour" : "hours";
-            return "Your account is temporarily locked. Try again in %d %s.".formatted(hours, hourWord);
+            return "%d %s".formatted(hours, hours == 1 ? "hour" : "hours");
         }
 
-        long minutes = remainingDuration.toMinutes();
-        if (minutes < 1) {
-            minutes = 1;
-        }
-        String minuteWord = minutes == 1 ? "minute" : "minutes";
-        return "Your account is temporarily locked. Try again in %d %s.".formatted(minutes, minuteWord);
+        long minutes = Math.max(1, duration.toMinutes());
+        return "%d %s".formatted(minutes, minutes == 1 ? "minute" : "minutes");
     }
 
     @Override
     public void recordFailedLoginAttempt(User user) {
-        LoginAttempts attempts = loginAttemptsRepository.findByUser(user)
-                .orElseGet(() -> {
-                    LoginAttempts newAttempts = new LoginAttempts();
-                    newAttempts.setUser(user);
-                    return newAttempts;
-                });
-
-        // Check if block period has expired and reset if needed
-        if (attempts.isBlocked() &&
-                attempts.getBlockedUntil() != null &&
-                attempts.getBlockedUntil().isBefore(LocalDateTime.now())) {
-            attempts.setLoginAttempts(0);
-            attempts.setBlocked(false);
-            attempts.setBlockedUntil(null);
-        }
-
-        // Now increment the attempt count
-        attempts.setLoginAttempts(attempts.getLoginAttempts() + 1);
-
-        if (attempts.getLoginAttempts() >= MAX_LOGIN_ATTEMPTS) {
-            attempts.setBlocked(true);
-            attempts.setBlockedUntil(LocalDateTime.now().plusDays(LOCKOUT_DURATION_DAYS));
-            loginAttemptsRepository.save(attempts);
-            throw new ForbiddenException("Your account has been locked. " + "Try again in " + LOCKOUT_DURATION_DAYS + " days.");
-        } else {
-            loginAttemptsRepository.save(attempts);
-            int attemptsRemaining = MAX_LOGIN_ATTEMPTS - attempts.getLoginAttempts();
-            String attemptWord = attemptsRemaining == 1 ? "attempt" : "attempts";
-            throw new ForbiddenException("Invalid credentials. You have " + attemptsRemaining + " " + attemptWord + " left.");
+        int maxAttempts = loginProperties.getMaxFailedAttempts();
+        long lockoutHours = loginProperties.getLockoutHours();
+
+        Long failures = null;
+        try {
+            failures = redisTemplate.execute(
+                    INCREMENT_WITH_EXPIRY,
+                    List.of(FAILURES_KEY_PREFIX + user.getId(), failedTotalKey(currentHour())),
+                    String.valueOf(Duration.ofHours(loginProperties.getAttemptWindowHours()).toMillis()),
+                    String.valueOf(STATS_BUCKET_TTL.toMillis()));
+        } catch (DataAccessException e) {
+            log.warn("Could not record failed login for user {}: {}", user.getId(), e.getMessage());
+        }
+
+        if (failures == null) {
+            throw new ForbiddenException("Invalid credentials.");
         }
+
+        if (failures >= maxAttempts) {
+            redisTemplate.opsForValue().set(LOCK_KEY_PREFIX + user.getId(), "1", Duration.ofHours(lockoutHours));
+            redisTemplate.delete(FAILURES_KEY_PREFIX + user.getId());
+            recordLockout(user, failures.intValue(), LocalDateTime.now().plusHours(lockoutHours));
+            throw new ForbiddenException("Your account has been locked. Try again in "
+                    + getDisplayDuration(Duration.ofHours(lockoutHours)) + ".");
+        }
+
+        long attemptsRemaining = maxAttempts - failures;
+        String attemptWord = attemptsRemaining == 1 ? "attempt" : "attempts";
+        throw new ForbiddenException("Invalid credentials. You have " + attemptsRemaining + " " + attemptWord + " left.");
     }
 
     @Override
     public void resetLoginAttempts(User user) {
-        Optional<LoginAttempts> attemptsOpt = loginAttemptsRepository.findByUser(user);
-        if (attemptsOpt.isPresent()) {
-            LoginAttempts attempts = attemptsOpt.get();
-            if (attempts.getLoginAttempts() != 0 || attempts.isBlocked() || attempts.getBlockedUntil() != null) {
-                attempts.setLoginAttempts(0);
-                attempts.setBlocked(false);
-                attempts.setBlockedUntil(null);
-                loginAttemptsRepository.save(attempts);
+        try {
+            redisTemplate.delete(FAILURES_KEY_PREFIX + user.getId());
+        } catch (DataAccessException e) {
+            log.warn("Could not reset failed logins for user {}: {}", user.getId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public long countRecentFailedLogins() {
+        long hour = currentHour();
+        List<String> keys = new ArrayList<>(STATS_WINDOW_HOURS);
+        for (int i = 0; i < STATS_WINDOW_HOURS; i++) {
+            keys.add(failedTotalKey(hour - i));
+        }
+
+        List<String> counts;
+        try {
+            counts = redisTemplate.opsForValue().multiGet(keys);
+        } catch (DataAccessException e) {
+            log.warn("Could not read failed login statistics: {}", e.getMessage());
+            return 0;
+        }
+        if (counts == null) {
+            return 0;
+        }
+        return counts.stream().filter(Objects::nonNull).mapToLong(Long::parseLong).sum();
+    }
+
+    /**
+     * Copy lockouts recorded in {@code login_attempts} that are still running into Redis,
+     * so locks written before Redis held them, or lost with a Redis restart, stay in force.
+     * Existing lock keys are left untouched.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreRecordedLockouts() {
+        LocalDateTime now = LocalDateTime.now();
+        int restored = 0;
+        try {
+            for (LoginAttempts attempts : loginAttemptsRepository.findActiveBlocks(now)) {
+                Duration remaining = Duration.between(now, attempts.getBlockedUntil());
+                Boolean set = redisTemplate.opsForValue()
+                        .setIfAbsent(LOCK_KEY_PREFIX + attempts.getUser().getId(), "1", remaining);
+                if (Boolean.TRUE.equals(set)) {
+                    restored++;
+                }
             }
+        } catch (DataAccessException e) {
+            log.warn("Could not restore recorded login lockouts: {}", e.getMessage());
+            return;
+        }
+        if (restored > 0) {
+            log.info("Restored {} recorded login lockouts", restored);
+        }
+    }
+
+    /**
+     * Clear lockouts that have run out in Redis from the admin-facing table.
+     */
+    @Scheduled(cron = "${auth.login.lockout-release-cron:0 0 * * * ?}")
+    public void releaseExpiredLockouts() {
+        int released = loginAttemptsRepository.releaseExpiredBlocks(LocalDateTime.now());
+        if (released > 0) {
+            log.info("Released {} expired login lockouts", released);
+        }
+    }
+
+    private static long currentHour() {
+        return TimeUnit.MILLISECONDS.toHours(System.currentTimeMillis());
+    }
+
+    private static String failedTotalKey(long epochHour) {
+        return FAILED_TOTAL_KEY_PREFIX + epochHour;
+    }
+
+    private void recordLockout(User user, int failures, LocalDateTime blockedUntil) {
+        try {
+            LoginAttempts attempts = loginAttemptsRepository.findByUser(user)
+                    .orElseGet(() -> {
+                        LoginAttempts newAttempts = new LoginAttempts();
+                        newAttempts.setUser(user);
+                        return newAttempts;
+                    });
+            attempts.setLoginAttempts(failures);
+            attempts.setBlocked(true);
+            attempts.setBlockedUntil(blockedUntil);
+            loginAttemptsRepository.save(attempts);
+        } catch (DataAccessException e) {
+            log.warn("Could not persist lockout for user {}: {}", user.getId(), e.getMessage());
         }
     }
 }
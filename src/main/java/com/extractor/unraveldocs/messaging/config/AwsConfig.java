@@ -10,9 +10,13 @@ import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.ses.SesClient;
 import software.amazon.awssdk.services.sns.SnsClient;
 
+import java.net.URI;
+
 
 @Configuration
 public class AwsConfig {
@@ -25,6 +29,13 @@ public class AwsConfig {
     @Value("${aws.secret-key}")
     private String awsSecretKey;
 
+    /**
+     * Optional S3-compatible endpoint (LocalStack, MinIO) used instead of AWS. Requests
+     * then use path-style addressing, which those stand-ins expect.
+     */
+    @Value("${aws.s3.endpoint:}")
+    private String s3Endpoint;
+
     @Getter
     @Value("${aws.from-email}")
     private String awsFromEmail;
@@ -37,9 +48,30 @@ public class AwsConfig {
                 .credentialsProvider(awsCredentialsProvider)
                 .region(Region.of(awsRegion));
 
+        if (!s3Endpoint.isBlank()) {
+            s3ClientBuilder.endpointOverride(URI.create(s3Endpoint)).forcePathStyle(true);
+        }
+
         return s3ClientBuilder.build();
     }
 
+    @Bean(destroyMethod = "close")
+    public S3Presigner s3Presigner() {
+        StaticCredentialsProvider awsCredentialsProvider = StaticCredentialsProvider.create(
+                AwsBasicCredentials.create(awsAccessKey, awsSecretKey));
+
+        S3Presigner.Builder presignerBuilder = S3Presigner.builder()
+                .credentialsProvider(awsCredentialsProvider)
+                .region(Region.of(awsRegion));
+
+        if (!s3Endpoint.isBlank()) {
+            presignerBuilder.endpointOverride(URI.create(s3Endpoint))
+                    .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build());
+        }
+
+        return presignerBuilder.build();
+    }
+
     @Bean
     public SesClient sesClient() {
         StaticCredentialsProvider awsCredentialsProvider = StaticCredentialsProvider.create(
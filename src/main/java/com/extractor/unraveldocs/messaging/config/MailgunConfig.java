@@ -1,16 +1,22 @@
 package com.extractor.unraveldocs.messaging.config;
 
+import com.extractor.unraveldocs.outbound.config.OutboundProperties;
 import com.mailgun.api.v3.MailgunMessagesApi;
 import com.mailgun.client.MailgunClient;
+import feign.Request;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 @RequiredArgsConstructor
 public class MailgunConfig {
+    private final OutboundProperties outboundProperties;
+
     @Value("${mailgun.api-key}")
     String mailgunApiKey;
 
@@ -22,9 +28,25 @@ public class MailgunConfig {
     @Value("${mailgun.from-email}")
     String mailgunFromEmail;
 
+    /**
+     * Recipients per batch call; Mailgun accepts at most 1000.
+     */
+    @Getter
+    @Value("${mailgun.batch-size:1000}")
+    int batchSize;
+
+    @Getter
+    @Value("${mailgun.campaign-stats-ttl-days:30}")
+    long campaignStatsTtlDays;
+
     @Bean
     public MailgunMessagesApi mailgunApi() {
+        OutboundProperties.ProviderSettings settings = outboundProperties.forProvider("mailgun");
         return MailgunClient.config(mailgunApiKey)
+                .options(new Request.Options(
+                        settings.getConnectTimeoutMs(), TimeUnit.MILLISECONDS,
+                        settings.getReadTimeoutMs(), TimeUnit.MILLISECONDS,
+                        true))
                 .createApi(MailgunMessagesApi.class);
     }
 
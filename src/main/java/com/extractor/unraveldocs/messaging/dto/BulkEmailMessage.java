@@ -0,0 +1,35 @@
+package com.extractor.unraveldocs.messaging.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The same templated email sent to many recipients. The template is rendered once with
+ * {@code sharedModel}; each name in {@code recipientVariables} is left as a placeholder
+ * that the provider fills in from the recipient's {@link BulkEmailRecipient#variables()}.
+ * <p>
+ * Per-recipient values can only be printed, e.g. with {@code th:text}; the template cannot
+ * branch on them.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEmailMessage implements Serializable {
+    /**
+     * Groups the delivery results of this send, e.g. {@code coupon-<id>}.
+     */
+    private String campaignId;
+    private String subject;
+    private String templateName;
+    private Map<String, Object> sharedModel;
+    private Set<String> recipientVariables;
+    private List<BulkEmailRecipient> recipients;
+}
@@ -0,0 +1,18 @@
+package com.extractor.unraveldocs.messaging.dto;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * One recipient of a bulk email.
+ *
+ * @param to        Email address
+ * @param variables Values substituted for this recipient into the shared body, by model
+ *                  name. Plain text; they are HTML-escaped before sending.
+ */
+public record BulkEmailRecipient(String to, Map<String, String> variables) implements Serializable {
+
+    public BulkEmailRecipient {
+        variables = variables == null ? Map.of() : Map.copyOf(variables);
+    }
+}
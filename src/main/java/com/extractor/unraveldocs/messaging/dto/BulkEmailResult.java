@@ -0,0 +1,18 @@
+package com.extractor.unraveldocs.messaging.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk send.
+ *
+ * @param campaignId         Campaign the send was tracked under
+ * @param accepted           Recipients the provider accepted for delivery
+ * @param rejectedRecipients Addresses in batches the provider refused or that could not
+ *                           be sent
+ */
+public record BulkEmailResult(String campaignId, int accepted, List<String> rejectedRecipients) {
+
+    public int rejected() {
+        return rejectedRecipients.size();
+    }
+}
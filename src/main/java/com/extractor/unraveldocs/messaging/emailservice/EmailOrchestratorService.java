@@ -1,5 +1,7 @@
 package com.extractor.unraveldocs.messaging.emailservice;
 
+import com.extractor.unraveldocs.messaging.dto.BulkEmailMessage;
+import com.extractor.unraveldocs.messaging.dto.BulkEmailResult;
 import com.extractor.unraveldocs.messaging.dto.EmailMessage;
 import com.extractor.unraveldocs.messaging.emailservice.mailgun.service.MailgunEmailService;
 import com.extractor.unraveldocs.messaging.thymleafservice.ThymeleafEmailService;
@@ -7,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -28,6 +31,29 @@ public class EmailOrchestratorService {
         );
     }
 
+    /**
+     * Send one template to many recipients: the template is rendered once and sent in
+     * provider batches, with each recipient's variables filled in by the provider.
+     */
+    public BulkEmailResult sendBulkEmail(BulkEmailMessage bulkEmailMessage) {
+        if (bulkEmailMessage.getRecipients() == null || bulkEmailMessage.getRecipients().isEmpty()) {
+            return new BulkEmailResult(bulkEmailMessage.getCampaignId(), 0, List.of());
+        }
+
+        String htmlBody = thymeleafEmailService.createBulkEmail(
+                bulkEmailMessage.getTemplateName(),
+                bulkEmailMessage.getSharedModel(),
+                bulkEmailMessage.getRecipientVariables()
+        );
+
+        return mailgunEmailService.sendBatchedHtmlEmail(
+                bulkEmailMessage.getCampaignId(),
+                bulkEmailMessage.getSubject(),
+                htmlBody,
+                bulkEmailMessage.getRecipients()
+        );
+    }
+
     public void sendEmailWithAttachment(EmailMessage emailMessage, File attachment) {
         String htmlBody = thymeleafEmailService.createEmail(
                 emailMessage.getTemplateName(),
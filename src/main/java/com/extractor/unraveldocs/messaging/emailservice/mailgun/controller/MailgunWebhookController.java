@@ -1,6 +1,7 @@
 package com.extractor.unraveldocs.messaging.emailservice.mailgun.controller;
 
 import com.extractor.unraveldocs.messaging.emailservice.mailgun.dto.WebhookResult;
+import com.extractor.unraveldocs.messaging.emailservice.mailgun.service.EmailCampaignTracker;
 //import com.extractor.unraveldocs.user.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
@@ -17,6 +18,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class MailgunWebhookController {
     //private final UserService userService;
+    private final EmailCampaignTracker campaignTracker;
 
     @Operation(summary = "Handle Mailgun webhook events")
     @PostMapping("/mailgun")
@@ -25,6 +27,11 @@ public class MailgunWebhookController {
         String recipient = payload.recipient();
         String event = payload.event();
 
+        // Bulk sends carry their campaign so results can be counted per campaign
+        if (payload.userVariables() != null) {
+            campaignTracker.recordEvent(payload.userVariables().get(EmailCampaignTracker.CAMPAIGN_VARIABLE), event);
+        }
+
         switch (event) {
             case "delivered":
                 // Handle email delivery
@@ -1,7 +1,12 @@
 package com.extractor.unraveldocs.messaging.emailservice.mailgun.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
 public record WebhookResult(
         String recipient,
-        String event
+        String event,
+        @JsonProperty("user-variables") Map<String, String> userVariables
 ) {
 }
@@ -0,0 +1,106 @@
+package com.extractor.unraveldocs.messaging.emailservice.mailgun.service;
+
+import com.extractor.unraveldocs.messaging.config.MailgunConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Delivery counts of bulk email campaigns, one Redis hash per campaign.
+ * <p>
+ * Sends are counted per batch: one increment for the recipients a call accepted, one for
+ * those it did not. Mailgun's delivery, open, click and failure events carry the campaign
+ * id as a user variable and are counted as they arrive. Tracking never fails a send.
+ */
+@Slf4j
+@Component
+public class EmailCampaignTracker {
+
+    public static final String CAMPAIGN_VARIABLE = "campaign";
+
+    static final String ACCEPTED = "accepted";
+    static final String REJECTED = "rejected";
+
+    private static final String KEY_PREFIX = "email:campaign:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final MailgunConfig mailgunConfig;
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+
+    public EmailCampaignTracker(StringRedisTemplate redisTemplate,
+                                MailgunConfig mailgunConfig,
+                                MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.mailgunConfig = mailgunConfig;
+        this.acceptedCounter = Counter.builder("email.bulk.recipients")
+                .description("Bulk email recipients by send outcome")
+                .tag("outcome", ACCEPTED)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("email.bulk.recipients")
+                .description("Bulk email recipients by send outcome")
+                .tag("outcome", REJECTED)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Count the outcome of one batch call.
+     */
+    public void recordBatch(String campaignId, int accepted, int rejected) {
+        acceptedCounter.increment(accepted);
+        rejectedCounter.increment(rejected);
+        if (accepted > 0) {
+            increment(campaignId, ACCEPTED, accepted);
+        }
+        if (rejected > 0) {
+            increment(campaignId, REJECTED, rejected);
+        }
+    }
+
+    /**
+     * Count a delivery event reported by Mailgun, e.g. {@code delivered} or {@code failed}.
+     */
+    public void recordEvent(String campaignId, String event) {
+        if (event != null && !event.isBlank()) {
+            increment(campaignId, event, 1);
+        }
+    }
+
+    /**
+     * Counts recorded for the campaign so far, by send outcome and event.
+     */
+    public Map<String, Long> getStats(String campaignId) {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        try {
+            redisTemplate.<String, String>opsForHash().entries(key(campaignId))
+                    .forEach((field, value) -> stats.put(field, Long.parseLong(value)));
+        } catch (DataAccessException e) {
+            log.warn("Could not read stats of campaign {}: {}", campaignId, e.getMessage());
+        }
+        return stats;
+    }
+
+    private void increment(String campaignId, String field, long delta) {
+        if (campaignId == null || campaignId.isBlank()) {
+            return;
+        }
+        String key = key(campaignId);
+        try {
+            redisTemplate.opsForHash().increment(key, field, delta);
+            redisTemplate.expire(key, Duration.ofDays(mailgunConfig.getCampaignStatsTtlDays()));
+        } catch (DataAccessException e) {
+            log.warn("Could not record {} for campaign {}: {}", field, campaignId, e.getMessage());
+        }
+    }
+
+    private static String key(String campaignId) {
+        return KEY_PREFIX + campaignId;
+    }
+}
@@ -1,26 +1,46 @@
 package com.extractor.unraveldocs.messaging.emailservice.mailgun.service;
 
 import com.extractor.unraveldocs.messaging.config.MailgunConfig;
+import com.extractor.unraveldocs.messaging.dto.BulkEmailRecipient;
+import com.extractor.unraveldocs.messaging.dto.BulkEmailResult;
+import com.extractor.unraveldocs.outbound.resilience.TransientFailures;
+import com.extractor.unraveldocs.outbound.service.OutboundCallGuard;
 import com.mailgun.api.v3.MailgunMessagesApi;
 import com.mailgun.exception.MailGunException;
 import com.mailgun.model.message.Message;
+import feign.FeignException;
+import feign.RetryableException;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+@Slf4j
 @Service
 public class MailgunEmailService {
 
     private final MailgunMessagesApi mailgunMessagesApi;
     private final MailgunConfig mailgunConfig;
+    private final OutboundCallGuard outboundCallGuard;
+    private final EmailCampaignTracker campaignTracker;
 
     @Autowired
     public MailgunEmailService(
             MailgunMessagesApi mailgunMessagesApi,
-            MailgunConfig mailgunConfig) {
+            MailgunConfig mailgunConfig,
+            OutboundCallGuard outboundCallGuard,
+            EmailCampaignTracker campaignTracker) {
         this.mailgunMessagesApi = mailgunMessagesApi;
         this.mailgunConfig = mailgunConfig;
+        this.outboundCallGuard = outboundCallGuard;
+        this.campaignTracker = campaignTracker;
     }
 
     public void sendWithAttachment(String to, String subject, String body, File attachment) {
@@ -33,7 +53,7 @@ public class MailgunEmailService {
                 .build();
 
         try {
-            mailgunMessagesApi.sendMessage(mailgunConfig.getMailgunDomain(), message);
+            send(message);
         } catch (MailGunException e) {
             throw new RuntimeException("Failed to send email with attachment: " + e.getMessage(), e);
         }
@@ -52,7 +72,7 @@ public class MailgunEmailService {
                 .build();
 
         try {
-            mailgunMessagesApi.sendMessage(mailgunConfig.getMailgunDomain(), message);
+            send(message);
         } catch (MailGunException e) {
             throw new RuntimeException("Failed to send HTML email with attachment: " + e.getMessage(), e);
         }
@@ -67,9 +87,75 @@ public class MailgunEmailService {
                 .build();
 
         try {
-            mailgunMessagesApi.sendMessage(mailgunConfig.getMailgunDomain(), message);
+            send(message);
         } catch (MailGunException e) {
             throw new RuntimeException("Failed to send HTML email: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Send one HTML body to many recipients, up to {@code mailgun.batch-size} per call.
+     * Mailgun replaces {@code %recipient.<name>%} in the subject and body with each
+     * recipient's variables. Every recipient gets a variables entry, so each message is
+     * addressed to its recipient alone rather than listing the whole batch.
+     * <p>
+     * A batch that fails is counted as rejected and the remaining batches are still sent.
+     */
+    public BulkEmailResult sendBatchedHtmlEmail(String campaignId, String subject, String htmlBody,
+                                                List<BulkEmailRecipient> recipients) {
+        int batchSize = Math.clamp(mailgunConfig.getBatchSize(), 1, 1000);
+        int accepted = 0;
+        List<String> rejected = new ArrayList<>();
+
+        for (int from = 0; from < recipients.size(); from += batchSize) {
+            List<BulkEmailRecipient> batch = recipients.subList(from, Math.min(from + batchSize, recipients.size()));
+            List<String> to = new ArrayList<>(batch.size());
+            Map<String, Object> recipientVariables = new LinkedHashMap<>();
+            for (BulkEmailRecipient recipient : batch) {
+                to.add(recipient.to());
+                recipientVariables.put(recipient.to(), escaped(recipient.variables()));
+            }
+
+            Message message = Message.builder()
+                    .from(mailgunConfig.getMailgunFromEmail())
+                    .to(to)
+                    .subject(subject)
+                    .html(htmlBody)
+                    .recipientVariables(recipientVariables)
+                    .mailgunVariables(Map.of(EmailCampaignTracker.CAMPAIGN_VARIABLE, campaignId))
+                    .build();
+
+            try {
+                send(message);
+                accepted += batch.size();
+                campaignTracker.recordBatch(campaignId, batch.size(), 0);
+            } catch (RuntimeException e) {
+                log.error("Failed to send batch of {} emails for campaign {}: {}",
+                        batch.size(), campaignId, e.getMessage());
+                rejected.addAll(to);
+                campaignTracker.recordBatch(campaignId, 0, batch.size());
+            }
+        }
+        return new BulkEmailResult(campaignId, accepted, rejected);
+    }
+
+    private static Map<String, String> escaped(Map<String, String> variables) {
+        // Substituted into HTML as is, unlike model values rendered by Thymeleaf
+        Map<String, String> escaped = new HashMap<>(variables.size());
+        variables.forEach((name, value) -> escaped.put(name, value == null ? "" : HtmlUtils.htmlEscape(value)));
+        return escaped;
+    }
+
+    private void send(Message message) {
+        outboundCallGuard.execute("mailgun",
+                () -> mailgunMessagesApi.sendMessage(mailgunConfig.getMailgunDomain(), message),
+                MailgunEmailService::isTransient);
+    }
+
+    private static boolean isTransient(Exception e) {
+        if (e instanceof FeignException feign) {
+            return feign instanceof RetryableException || TransientFailures.isTransientStatus(feign.status());
+        }
+        return TransientFailures.isTransient(e);
+    }
 }
@@ -1,33 +1,64 @@
 package com.extractor.unraveldocs.messaging.smsservice.twilio;
 
-import com.twilio.Twilio;
+import com.extractor.unraveldocs.outbound.config.OutboundProperties;
+import com.extractor.unraveldocs.outbound.resilience.TransientFailures;
+import com.extractor.unraveldocs.outbound.service.OutboundCallGuard;
+import com.twilio.exception.ApiConnectionException;
+import com.twilio.exception.ApiException;
+import com.twilio.http.NetworkHttpClient;
+import com.twilio.http.TwilioRestClient;
 import com.twilio.rest.api.v2010.account.Message;
 import com.twilio.type.PhoneNumber;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Slf4j
 @Service
 public class TwilioSmsService {
-    @Value("${twilio.account-sid}")
-    private String accountSid;
+    private static final String PROVIDER = "twilio";
 
-    @Value("${twilio.auth-token}")
-    private String authToken;
+    private final TwilioRestClient twilioRestClient;
+    private final OutboundCallGuard outboundCallGuard;
 
     @Value("${twilio.phone-number}")
     private String phoneNumber;
 
-    public void sendSms(String to, String message) {
-        Twilio.init(accountSid, authToken);
+    public TwilioSmsService(
+            @Value("${twilio.account-sid}") String accountSid,
+            @Value("${twilio.auth-token}") String authToken,
+            OutboundProperties outboundProperties,
+            OutboundCallGuard outboundCallGuard) {
+        OutboundProperties.ProviderSettings settings = outboundProperties.forProvider(PROVIDER);
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) settings.getConnectTimeoutMs())
+                .setConnectionRequestTimeout((int) settings.getConnectTimeoutMs())
+                .setSocketTimeout((int) settings.getReadTimeoutMs())
+                .build();
+        this.twilioRestClient = new TwilioRestClient.Builder(accountSid, authToken)
+                .httpClient(new NetworkHttpClient(requestConfig))
+                .build();
+        this.outboundCallGuard = outboundCallGuard;
+    }
 
-        Message messageResponse = Message.creator(
+    public void sendSms(String to, String message) {
+        Message messageResponse = outboundCallGuard.execute(PROVIDER, () -> Message.creator(
                 new PhoneNumber(to),
                 new PhoneNumber(phoneNumber),
                 message
-        ).create();
+        ).create(twilioRestClient), TwilioSmsService::isTransient);
 
         log.info("Message sent: {}", messageResponse.getSid());
     }
+
+    private static boolean isTransient(Exception e) {
+        if (e instanceof ApiConnectionException) {
+            return true;
+        }
+        if (e instanceof ApiException api) {
+            return api.getStatusCode() != null && TransientFailures.isTransientStatus(api.getStatusCode());
+        }
+        return TransientFailures.isTransient(e);
+    }
 }
@@ -6,6 +6,7 @@ import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
 import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -17,4 +18,25 @@ public class ThymeleafEmailService {
         context.setVariables(templateModel);
         return templateEngine.process(templateName, context);
     }
+
+    /**
+     * Render a template once for many recipients. Each variable in
+     * {@code recipientVariables} is rendered as the placeholder
+     * {@code %recipient.<name>%}, which the email provider fills in per recipient.
+     */
+    public String createBulkEmail(String templateName, Map<String, Object> sharedModel,
+                                  Set<String> recipientVariables) {
+        Context context = new Context();
+        if (sharedModel != null) {
+            context.setVariables(sharedModel);
+        }
+        if (recipientVariables != null) {
+            recipientVariables.forEach(name -> context.setVariable(name, recipientPlaceholder(name)));
+        }
+        return templateEngine.process(templateName, context);
+    }
+
+    public static String recipientPlaceholder(String name) {
+        return "%recipient." + name + "%";
+    }
 }
\ No newline at end of file
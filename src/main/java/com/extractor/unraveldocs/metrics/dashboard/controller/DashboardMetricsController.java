@@ -1,18 +1,25 @@
 package com.extractor.unraveldocs.metrics.dashboard.controller;
 
 import com.extractor.unraveldocs.metrics.dashboard.dto.DashboardKpiStatsDto;
+import com.extractor.unraveldocs.metrics.dashboard.dto.KpiDailyValueDto;
 import com.extractor.unraveldocs.metrics.dashboard.service.DashboardMetricsService;
 import com.extractor.unraveldocs.shared.response.UnravelDocsResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/admin/dashboard")
@@ -28,4 +35,14 @@ public class DashboardMetricsController {
     public ResponseEntity<UnravelDocsResponse<DashboardKpiStatsDto>> getDashboardKpiStats() {
         return ResponseEntity.ok(dashboardMetricsService.getDashboardKpiStats());
     }
+
+    @Operation(summary = "Get Daily KPI Values", description = "Fetches one KPI per day and dimension over a date range of up to 366 days")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MODERATOR') or hasRole('SUPER_ADMIN')")
+    @GetMapping("/kpis/{metric}/daily")
+    public ResponseEntity<UnravelDocsResponse<List<KpiDailyValueDto>>> getDailyKpi(
+            @PathVariable String metric,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(dashboardMetricsService.getDailyKpi(metric, from, to));
+    }
 }
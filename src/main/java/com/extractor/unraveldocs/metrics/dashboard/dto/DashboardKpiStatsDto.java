@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.util.Map;
 
 @Data
@@ -36,4 +37,12 @@ public class DashboardKpiStatsDto {
     // --- Document/Storage KPIs ---
     private long totalStorageUsed;
     private double averageStorageUsed;
+    private long documentsUploadedToday;
+    private long documentsUploadedThisMonth;
+    private long ocrCompletedThisMonth;
+    private long ocrFailedThisMonth;
+
+    // --- Payment KPIs ---
+    private long paymentsThisMonth;
+    private Map<String, BigDecimal> revenueThisMonth;
 }
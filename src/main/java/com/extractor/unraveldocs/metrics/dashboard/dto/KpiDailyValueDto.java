@@ -0,0 +1,18 @@
+package com.extractor.unraveldocs.metrics.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KpiDailyValueDto {
+    private LocalDate day;
+    private String dimension;
+    private long value;
+}
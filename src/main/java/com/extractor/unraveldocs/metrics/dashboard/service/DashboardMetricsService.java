@@ -1,8 +1,14 @@
 package com.extractor.unraveldocs.metrics.dashboard.service;
 
 import com.extractor.unraveldocs.metrics.dashboard.dto.DashboardKpiStatsDto;
+import com.extractor.unraveldocs.metrics.dashboard.dto.KpiDailyValueDto;
 import com.extractor.unraveldocs.shared.response.UnravelDocsResponse;
 
+import java.time.LocalDate;
+import java.util.List;
+
 public interface DashboardMetricsService {
     UnravelDocsResponse<DashboardKpiStatsDto> getDashboardKpiStats();
+
+    UnravelDocsResponse<List<KpiDailyValueDto>> getDailyKpi(String metric, LocalDate from, LocalDate to);
 }
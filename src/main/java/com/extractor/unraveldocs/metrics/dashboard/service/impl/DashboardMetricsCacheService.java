@@ -1,130 +1,100 @@
 package com.extractor.unraveldocs.metrics.dashboard.service.impl;
 
-import com.extractor.unraveldocs.loginattempts.repository.LoginAttemptsRepository;
 import com.extractor.unraveldocs.metrics.dashboard.dto.DashboardKpiStatsDto;
+import com.extractor.unraveldocs.metrics.kpi.model.KpiMetric;
+import com.extractor.unraveldocs.metrics.kpi.model.KpiTotals;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiQueryService;
 import com.extractor.unraveldocs.subscription.datamodel.SubscriptionPlans;
-import com.extractor.unraveldocs.subscription.repository.UserSubscriptionRepository;
-import com.extractor.unraveldocs.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
+import java.math.BigDecimal;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
+/**
+ * Assembles the dashboard KPIs from the precomputed KPI store: totals from the Redis
+ * counters, windows of days from the daily rollups. Every value is read, not counted,
+ * so the stats are no longer cached.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class DashboardMetricsCacheService {
 
-    private final UserRepository userRepository;
-    private final LoginAttemptsRepository loginAttemptsRepository;
-    private final UserSubscriptionRepository userSubscriptionRepository;
+    private final KpiQueryService kpiQueryService;
 
-    @Transactional(readOnly = true)
-    @Cacheable(value = "dashboardKpiStatsData", key = "'stats'", unless = "#result == null")
     public DashboardKpiStatsDto getDashboardKpiStatsData() {
-        log.info("Computing Dashboard KPI Stats...");
+        log.info("Reading Dashboard KPI Stats...");
 
-        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-        OffsetDateTime startOfToday = now.toLocalDate().atStartOfDay().atOffset(ZoneOffset.UTC);
-        OffsetDateTime startOfWeek = now.minusDays(7);
-        OffsetDateTime startOfMonth = now.minusDays(30);
+        KpiTotals totals = kpiQueryService.totals();
 
         // User KPIs
-        long totalUsers = userRepository.countByDeletedAtIsNull();
-        long activeUsers = userRepository.countByIsActiveTrueAndIsVerifiedTrueAndDeletedAtIsNull();
-        long verifiedUsers = userRepository.countByIsVerifiedTrueAndDeletedAtIsNull();
-        long unverifiedUsers = userRepository.countByIsVerifiedFalseAndDeletedAtIsNull();
-        long blockedUsers = loginAttemptsRepository.countByIsBlockedTrue();
-
-        long newUsersToday = userRepository.countByCreatedAtAfterAndDeletedAtIsNull(startOfToday);
-        long newUsersThisWeek = userRepository.countByCreatedAtAfterAndDeletedAtIsNull(startOfWeek);
-        long newUsersThisMonth = userRepository.countByCreatedAtAfterAndDeletedAtIsNull(startOfMonth);
-
-        long dailyActiveUsers = userRepository.countByLastLoginAfterAndDeletedAtIsNull(startOfToday);
-        long weeklyActiveUsers = userRepository.countByLastLoginAfterAndDeletedAtIsNull(startOfWeek);
-        long monthlyActiveUsers = userRepository.countByLastLoginAfterAndDeletedAtIsNull(startOfMonth);
+        long totalUsers = totals.get(KpiTotals.USERS_TOTAL);
 
         // Subscription KPIs
-        long activeSubscriptions = userSubscriptionRepository.countByStatusIgnoreCase("ACTIVE");
-        long trialSubscriptions = userSubscriptionRepository.countByStatusIgnoreCase("TRIAL");
-        long cancelledSubscriptions = userSubscriptionRepository.countByStatusIgnoreCase("CANCELLED");
-        long expiredSubscriptions = userSubscriptionRepository.countByStatusIgnoreCase("EXPIRED");
-
-        Map<String, Long> usersByPlan = fetchUsersByPlan();
-        Map<String, Long> usersByStatus = fetchUsersByStatus();
+        Map<String, Long> usersByPlan = fetchUsersByPlan(totals);
+        Map<String, Long> usersByStatus = fetchUsersByStatus(totals);
 
         // Storage KPIs
-        Long totalStorage = userSubscriptionRepository.sumTotalStorageUsed();
-        long totalStorageUsed = totalStorage != null ? totalStorage : 0L;
+        long totalStorageUsed = totals.get(KpiTotals.STORAGE_USED);
         double averageStorageUsed = totalUsers > 0 ? (double) totalStorageUsed / totalUsers : 0.0;
 
         return DashboardKpiStatsDto.builder()
                 .totalUsers(totalUsers)
-                .activeUsers(activeUsers)
-                .newUsersToday(newUsersToday)
-                .newUsersThisWeek(newUsersThisWeek)
-                .newUsersThisMonth(newUsersThisMonth)
-                .verifiedUsers(verifiedUsers)
-                .unverifiedUsers(unverifiedUsers)
-                .blockedUsers(blockedUsers)
-                .dailyActiveUsers(dailyActiveUsers)
-                .weeklyActiveUsers(weeklyActiveUsers)
-                .monthlyActiveUsers(monthlyActiveUsers)
+                .activeUsers(totals.get(KpiTotals.USERS_ACTIVE))
+                .newUsersToday(kpiQueryService.sumLastDays(KpiMetric.USERS_SIGNED_UP, 1))
+                .newUsersThisWeek(kpiQueryService.sumLastDays(KpiMetric.USERS_SIGNED_UP, 7))
+                .newUsersThisMonth(kpiQueryService.sumLastDays(KpiMetric.USERS_SIGNED_UP, 30))
+                .verifiedUsers(totals.get(KpiTotals.USERS_VERIFIED))
+                .unverifiedUsers(totals.get(KpiTotals.USERS_UNVERIFIED))
+                .blockedUsers(totals.get(KpiTotals.USERS_BLOCKED))
+                .dailyActiveUsers(kpiQueryService.activeUsers(1))
+                .weeklyActiveUsers(kpiQueryService.activeUsers(7))
+                .monthlyActiveUsers(kpiQueryService.activeUsers(30))
                 .usersByPlan(usersByPlan)
                 .usersByStatus(usersByStatus)
-                .activeSubscriptions(activeSubscriptions)
-                .trialSubscriptions(trialSubscriptions)
-                .cancelledSubscriptions(cancelledSubscriptions)
-                .expiredSubscriptions(expiredSubscriptions)
+                .activeSubscriptions(usersByStatus.get("ACTIVE"))
+                .trialSubscriptions(usersByStatus.get("TRIAL"))
+                .cancelledSubscriptions(usersByStatus.get("CANCELLED"))
+                .expiredSubscriptions(usersByStatus.get("EXPIRED"))
                 .totalStorageUsed(totalStorageUsed)
                 .averageStorageUsed(averageStorageUsed)
+                .documentsUploadedToday(kpiQueryService.sumLastDays(KpiMetric.DOCUMENTS_UPLOADED, 1))
+                .documentsUploadedThisMonth(kpiQueryService.sumLastDays(KpiMetric.DOCUMENTS_UPLOADED, 30))
+                .ocrCompletedThisMonth(kpiQueryService.sumLastDays(KpiMetric.OCR_COMPLETED, 30))
+                .ocrFailedThisMonth(kpiQueryService.sumLastDays(KpiMetric.OCR_FAILED, 30))
+                .paymentsThisMonth(kpiQueryService.sumLastDays(KpiMetric.PAYMENTS_RECEIVED, 30))
+                .revenueThisMonth(fetchRevenue(kpiQueryService.sumLastDaysByDimension(KpiMetric.PAYMENT_AMOUNT_MINOR, 30)))
                 .build();
     }
 
-    private Map<String, Long> fetchUsersByPlan() {
+    private Map<String, Long> fetchUsersByPlan(KpiTotals totals) {
         Map<String, Long> planCountMap = new HashMap<>();
         // Fill defaults so clients always receive all known plans.
         for (SubscriptionPlans plan : SubscriptionPlans.values()) {
             planCountMap.put(plan.name(), 0L);
         }
-
-        List<Object[]> queryResults = userSubscriptionRepository.countUsersByPlan();
-        for (Object[] result : queryResults) {
-            String planName = "UNKNOWN";
-            if (result[0] instanceof SubscriptionPlans) {
-                planName = ((SubscriptionPlans) result[0]).name();
-            } else if (result[0] != null) {
-                planName = result[0].toString();
-            }
-            Long count = (Long) result[1];
-            planCountMap.put(planName, count);
-        }
+        planCountMap.putAll(totals.family(KpiTotals.SUBSCRIPTIONS_BY_PLAN));
         return planCountMap;
     }
 
-    private Map<String, Long> fetchUsersByStatus() {
+    private Map<String, Long> fetchUsersByStatus(KpiTotals totals) {
         Map<String, Long> statusCountMap = new HashMap<>();
         statusCountMap.put("ACTIVE", 0L);
         statusCountMap.put("TRIAL", 0L);
         statusCountMap.put("CANCELLED", 0L);
         statusCountMap.put("EXPIRED", 0L);
         statusCountMap.put("PENDING", 0L);
-
-        List<Object[]> queryResults = userSubscriptionRepository.countUsersByStatus();
-        for (Object[] result : queryResults) {
-            String statusName = result[0] != null ? result[0].toString() : "UNKNOWN";
-            Long count = (Long) result[1];
-            statusCountMap.put(statusName.toUpperCase(), count);
-        }
+        statusCountMap.putAll(totals.family(KpiTotals.SUBSCRIPTIONS_BY_STATUS));
         return statusCountMap;
     }
-}
-
 
+    private Map<String, BigDecimal> fetchRevenue(Map<String, Long> amountsMinor) {
+        Map<String, BigDecimal> revenue = new TreeMap<>();
+        amountsMinor.forEach((currency, amount) -> revenue.put(currency, BigDecimal.valueOf(amount, 2)));
+        return revenue;
+    }
+}
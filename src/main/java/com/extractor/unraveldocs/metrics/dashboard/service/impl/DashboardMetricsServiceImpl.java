@@ -1,7 +1,11 @@
 package com.extractor.unraveldocs.metrics.dashboard.service.impl;
 
+import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
 import com.extractor.unraveldocs.metrics.dashboard.dto.DashboardKpiStatsDto;
+import com.extractor.unraveldocs.metrics.dashboard.dto.KpiDailyValueDto;
 import com.extractor.unraveldocs.metrics.dashboard.service.DashboardMetricsService;
+import com.extractor.unraveldocs.metrics.kpi.model.KpiMetric;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiQueryService;
 import com.extractor.unraveldocs.shared.response.ResponseBuilderService;
 import com.extractor.unraveldocs.shared.response.UnravelDocsResponse;
 import lombok.RequiredArgsConstructor;
@@ -9,12 +13,20 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class DashboardMetricsServiceImpl implements DashboardMetricsService {
 
+    private static final long MAX_DAILY_RANGE_DAYS = 366;
+
     private final DashboardMetricsCacheService dashboardMetricsCacheService;
+    private final KpiQueryService kpiQueryService;
     private final ResponseBuilderService responseBuilderService;
 
     @Override
@@ -24,4 +36,33 @@ public class DashboardMetricsServiceImpl implements DashboardMetricsService {
 
         return responseBuilderService.buildUserResponse(statsDto, HttpStatus.OK, "Successfully fetched dashboard KPI stats");
     }
+
+    @Override
+    public UnravelDocsResponse<List<KpiDailyValueDto>> getDailyKpi(String metric, LocalDate from, LocalDate to) {
+        KpiMetric kpiMetric = parseMetric(metric);
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAILY_RANGE_DAYS) {
+            throw new BadRequestException("Date range must not exceed " + MAX_DAILY_RANGE_DAYS + " days");
+        }
+
+        List<KpiDailyValueDto> values = kpiQueryService.daily(kpiMetric, from, to).stream()
+                .map(value -> KpiDailyValueDto.builder()
+                        .day(value.day())
+                        .dimension(value.dimension())
+                        .value(value.value())
+                        .build())
+                .toList();
+
+        return responseBuilderService.buildUserResponse(values, HttpStatus.OK, "Successfully fetched daily KPI values");
+    }
+
+    private static KpiMetric parseMetric(String metric) {
+        try {
+            return KpiMetric.valueOf(metric.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown KPI metric: " + metric);
+        }
+    }
 }
@@ -0,0 +1,35 @@
+package com.extractor.unraveldocs.metrics.kpi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Incrementally maintained dashboard KPIs: the write-behind buffer for daily rollups
+ * and the reconciliation that corrects their drift.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "metrics.kpi")
+public class KpiProperties {
+    /**
+     * Delay between flushes of buffered rollup increments, in milliseconds.
+     */
+    private long flushIntervalMs = 5000;
+
+    /**
+     * Cron expression of the reconciliation job, which recounts recent rollups and all
+     * totals from the source tables.
+     */
+    private String reconcileCron = "0 */15 * * * *";
+
+    /**
+     * Days, counting today, whose rollups each reconciliation recounts. Older days are final.
+     */
+    private int reconcileDays = 2;
+
+    /**
+     * Days of logins kept for the active-user counts; the widest window the dashboard reports.
+     */
+    private int activeUserDays = 30;
+}
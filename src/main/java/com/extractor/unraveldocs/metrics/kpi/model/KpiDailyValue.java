@@ -0,0 +1,9 @@
+package com.extractor.unraveldocs.metrics.kpi.model;
+
+import java.time.LocalDate;
+
+/**
+ * A metric's value on one day for one dimension.
+ */
+public record KpiDailyValue(LocalDate day, String dimension, long value) {
+}
@@ -0,0 +1,21 @@
+package com.extractor.unraveldocs.metrics.kpi.model;
+
+/**
+ * Metrics kept as per-day rollups. Stored by name in {@code kpi_daily_rollups.metric}.
+ */
+public enum KpiMetric {
+    /** Accounts created */
+    USERS_SIGNED_UP,
+    /** Files stored by uploads */
+    DOCUMENTS_UPLOADED,
+    /** Bytes of files stored by uploads */
+    DOCUMENT_BYTES_UPLOADED,
+    /** OCR runs that completed, by the day the run started */
+    OCR_COMPLETED,
+    /** OCR runs that failed, by the day the run started */
+    OCR_FAILED,
+    /** Payments receipted, by currency */
+    PAYMENTS_RECEIVED,
+    /** Amount of payments receipted in minor units (cents), by currency */
+    PAYMENT_AMOUNT_MINOR
+}
@@ -0,0 +1,43 @@
+package com.extractor.unraveldocs.metrics.kpi.model;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Current totals of the dashboard, keyed by field name. Fields ending in a dot are
+ * prefixes of a family of fields, one per plan, status or file type.
+ */
+public record KpiTotals(Map<String, Long> values) {
+
+    public static final String USERS_TOTAL = "users.total";
+    public static final String USERS_ACTIVE = "users.active";
+    public static final String USERS_VERIFIED = "users.verified";
+    public static final String USERS_UNVERIFIED = "users.unverified";
+    public static final String USERS_BLOCKED = "users.blocked";
+    public static final String SUBSCRIPTIONS_BY_STATUS = "subscriptions.status.";
+    public static final String SUBSCRIPTIONS_BY_PLAN = "subscriptions.plan.";
+    public static final String STORAGE_USED = "storage.used";
+    public static final String COLLECTIONS = "documents.collections";
+    public static final String FILES = "documents.files";
+    public static final String FILE_BYTES = "documents.bytes";
+    public static final String FILES_ENCRYPTED = "documents.encrypted";
+    public static final String FILES_BY_TYPE = "documents.type.";
+    public static final String FILES_BY_STATUS = "documents.status.";
+
+    public long get(String field) {
+        return values.getOrDefault(field, 0L);
+    }
+
+    /**
+     * Fields of a family, keyed by what follows the prefix.
+     */
+    public Map<String, Long> family(String prefix) {
+        Map<String, Long> family = new TreeMap<>();
+        values.forEach((field, value) -> {
+            if (field.startsWith(prefix)) {
+                family.put(field.substring(prefix.length()), value);
+            }
+        });
+        return family;
+    }
+}
@@ -0,0 +1,11 @@
+package com.extractor.unraveldocs.metrics.kpi.model;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Buffered change to one rollup row.
+ *
+ * @param recordedBefore every event in {@code delta} was recorded before this time
+ */
+public record RollupIncrement(RollupKey key, long delta, OffsetDateTime recordedBefore) {
+}
@@ -0,0 +1,19 @@
+package com.extractor.unraveldocs.metrics.kpi.model;
+
+import java.time.LocalDate;
+
+/**
+ * One row of {@code kpi_daily_rollups}.
+ *
+ * @param dimension empty for metrics without one
+ */
+public record RollupKey(KpiMetric metric, LocalDate day, String dimension) {
+
+    public RollupKey {
+        dimension = dimension != null ? dimension : "";
+    }
+
+    public static RollupKey of(KpiMetric metric, LocalDate day) {
+        return new RollupKey(metric, day, "");
+    }
+}
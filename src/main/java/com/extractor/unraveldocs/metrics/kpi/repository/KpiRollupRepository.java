@@ -0,0 +1,183 @@
+package com.extractor.unraveldocs.metrics.kpi.repository;
+
+import com.extractor.unraveldocs.metrics.kpi.model.KpiDailyValue;
+import com.extractor.unraveldocs.metrics.kpi.model.KpiMetric;
+import com.extractor.unraveldocs.metrics.kpi.model.RollupIncrement;
+import com.extractor.unraveldocs.metrics.kpi.model.RollupKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * JDBC access to {@code kpi_daily_rollups}.
+ * <p>
+ * Events add to the rows of their day. Reconciliation replaces the rows of recent
+ * days with counts taken from the source tables, in one transaction, so a reader
+ * never sees a day half recounted.
+ * <p>
+ * A recount counts the source rows created before its watermark, kept in
+ * {@code kpi_reconcile_state}. Increments of events recorded at or before the watermark
+ * on a recounted day are already in the recount, so they are dropped when added. Every
+ * node's buffered increments are filtered this way, not just those of the node that ran
+ * the recount. Adds lock the watermark row FOR SHARE and the recount updates it first,
+ * so an add sees either the rows before a recount or the watermark after it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class KpiRollupRepository {
+
+    private static final String ADD_SQL = """
+            WITH state AS (
+                SELECT recounted_from, watermark
+                FROM kpi_reconcile_state
+                WHERE id = 1
+                FOR SHARE)
+            INSERT INTO kpi_daily_rollups (metric, day, dimension, value)
+            SELECT ?, ?::date, ?, ?::bigint
+            WHERE NOT EXISTS (
+                SELECT 1 FROM state
+                WHERE watermark IS NOT NULL AND ?::date >= recounted_from AND ? <= watermark)
+            ON CONFLICT (metric, day, dimension)
+            DO UPDATE SET value = kpi_daily_rollups.value + EXCLUDED.value, updated_at = now()
+            """;
+
+    private static final String SUM_SQL = """
+            SELECT dimension, sum(value) AS total
+            FROM kpi_daily_rollups
+            WHERE metric = ? AND day BETWEEN ? AND ?
+            GROUP BY dimension
+            """;
+
+    private static final String DAILY_SQL = """
+            SELECT day, dimension, value
+            FROM kpi_daily_rollups
+            WHERE metric = ? AND day BETWEEN ? AND ?
+            ORDER BY day, dimension
+            """;
+
+    private static final String ADVANCE_WATERMARK_SQL = """
+            UPDATE kpi_reconcile_state
+            SET recounted_from = ?, watermark = clock_timestamp()
+            WHERE id = 1
+            RETURNING watermark
+            """;
+
+    /**
+     * Each statement recounts the events of one source from the first parameter up to the
+     * watermark, the second, by UTC day: the day the live increment was recorded on.
+     * Sign-ups include purged accounts, and OCR runs count on the day they finished.
+     */
+    private static final List<String> RECOUNT_SQL = List.of("""
+            INSERT INTO kpi_daily_rollups (metric, day, dimension, value)
+            SELECT 'USERS_SIGNED_UP', (created_at AT TIME ZONE 'UTC')::date, '', count(*)
+            FROM (SELECT created_at FROM users
+                  UNION ALL
+                  SELECT created_at FROM purged_user_signups) signups
+            WHERE created_at >= ? AND created_at < ?
+            GROUP BY 2
+            """, """
+            INSERT INTO kpi_daily_rollups (metric, day, dimension, value)
+            SELECT metric, day, '', value
+            FROM (SELECT (created_at AT TIME ZONE 'UTC')::date AS day, count(*) AS files, sum(file_size) AS bytes
+                  FROM document_file_entries
+                  WHERE created_at >= ? AND created_at < ? AND upload_status = 'success'
+                  GROUP BY 1) uploads
+            CROSS JOIN LATERAL (VALUES ('DOCUMENTS_UPLOADED', files),
+                                       ('DOCUMENT_BYTES_UPLOADED', bytes)) AS m(metric, value)
+            """, """
+            INSERT INTO kpi_daily_rollups (metric, day, dimension, value)
+            SELECT CASE status WHEN 'COMPLETED' THEN 'OCR_COMPLETED' ELSE 'OCR_FAILED' END,
+                   (completed_at AT TIME ZONE 'UTC')::date, '', count(*)
+            FROM ocr_data
+            WHERE completed_at >= ? AND completed_at < ? AND status IN ('COMPLETED', 'FAILED')
+            GROUP BY 1, 2
+            """, """
+            INSERT INTO kpi_daily_rollups (metric, day, dimension, value)
+            SELECT metric, day, currency, value
+            FROM (SELECT (created_at AT TIME ZONE 'UTC')::date AS day, upper(currency) AS currency,
+                         count(*) AS payments, sum(round(amount * 100))::bigint AS amount_minor
+                  FROM receipts
+                  WHERE created_at >= ? AND created_at < ?
+                  GROUP BY 1, 2) payments
+            CROSS JOIN LATERAL (VALUES ('PAYMENTS_RECEIVED', payments),
+                                       ('PAYMENT_AMOUNT_MINOR', amount_minor)) AS m(metric, value)
+            """);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Add buffered increments to their rows, except those the last recount already counted.
+     */
+    public void addAll(List<RollupIncrement> increments) {
+        List<Object[]> rows = new ArrayList<>(increments.size());
+        for (RollupIncrement increment : increments) {
+            RollupKey key = increment.key();
+            Date day = Date.valueOf(key.day());
+            rows.add(new Object[]{key.metric().name(), day, key.dimension(), increment.delta(),
+                    day, increment.recordedBefore()});
+        }
+        jdbcTemplate.batchUpdate(ADD_SQL, rows);
+    }
+
+    /**
+     * Replace every row from {@code from} on with counts from the source tables, taken up
+     * to a new watermark. Must run in a transaction; increments are held back until it
+     * commits.
+     *
+     * @return rows written
+     */
+    public int recountFrom(LocalDate from) {
+        OffsetDateTime since = from.atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime watermark = jdbcTemplate.queryForObject(ADVANCE_WATERMARK_SQL, OffsetDateTime.class,
+                Date.valueOf(from));
+        jdbcTemplate.update("DELETE FROM kpi_daily_rollups WHERE day >= ?", Date.valueOf(from));
+        // Days before the recounted range are final, so their purged sign-ups are no longer needed
+        jdbcTemplate.update("DELETE FROM purged_user_signups WHERE created_at < ?", since);
+        int written = 0;
+        for (String sql : RECOUNT_SQL) {
+            written += jdbcTemplate.update(sql, since, watermark);
+        }
+        return written;
+    }
+
+    /**
+     * Sum of a metric over the days {@code from} to {@code to}, inclusive, per dimension.
+     */
+    public Map<String, Long> sum(KpiMetric metric, LocalDate from, LocalDate to) {
+        Map<String, Long> sums = new LinkedHashMap<>();
+        jdbcTemplate.query(SUM_SQL, rs -> {
+            sums.put(rs.getString("dimension"), rs.getLong("total"));
+        }, metric.name(), Date.valueOf(from), Date.valueOf(to));
+        return sums;
+    }
+
+    public List<KpiDailyValue> daily(KpiMetric metric, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(DAILY_SQL, (rs, rowNum) -> new KpiDailyValue(
+                rs.getDate("day").toLocalDate(), rs.getString("dimension"), rs.getLong("value")),
+                metric.name(), Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Stream the users whose last login falls on {@code from} or later, with that day.
+     * {@code users.last_login} is stored without a time zone, in the application's zone.
+     */
+    public void forEachLastLoginSince(LocalDate from, BiConsumer<LocalDate, String> consumer) {
+        jdbcTemplate.query("""
+                SELECT id, last_login::date AS day
+                FROM users
+                WHERE last_login >= ? AND deleted_at IS NULL
+                """, rs -> {
+            consumer.accept(rs.getDate("day").toLocalDate(), rs.getString("id"));
+        }, from.atStartOfDay());
+    }
+}
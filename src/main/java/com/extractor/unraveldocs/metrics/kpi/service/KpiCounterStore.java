@@ -0,0 +1,147 @@
+package com.extractor.unraveldocs.metrics.kpi.service;
+
+import com.extractor.unraveldocs.metrics.kpi.config.KpiProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Redis side of the dashboard KPIs.
+ * <p>
+ * Totals live in one hash, so the dashboard reads all of them with one command. The
+ * hash is written whole by reconciliation and then moved by events; an event finding
+ * no hash leaves it alone, and the next read or reconciliation writes it again. Logins
+ * go into one HyperLogLog per day, which counts distinct users over any run of days
+ * with a fixed, small error.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KpiCounterStore {
+
+    static final String TOTALS_KEY = "kpi:totals";
+    private static final String TOTALS_NEXT_KEY = "kpi:totals:next";
+    private static final String ACTIVE_KEY_PREFIX = "kpi:active:";
+
+    /**
+     * Add ARGV pairs of field and delta to the hash, if it exists.
+     */
+    private static final RedisScript<Long> ADJUST_IF_PRESENT = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return 0
+            end
+            for i = 1, #ARGV, 2 do
+                redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1])
+            end
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final KpiProperties properties;
+
+    // ==================== Totals ====================
+
+    /**
+     * @return the totals, or empty if they are not in Redis or Redis cannot be reached
+     */
+    public Optional<Map<String, Long>> getTotals() {
+        try {
+            Map<Object, Object> hash = redisTemplate.opsForHash().entries(TOTALS_KEY);
+            if (hash.isEmpty()) {
+                return Optional.empty();
+            }
+            Map<String, Long> totals = new HashMap<>(hash.size());
+            hash.forEach((field, value) -> totals.put((String) field, Long.parseLong((String) value)));
+            return Optional.of(totals);
+        } catch (DataAccessException | NumberFormatException e) {
+            log.warn("Could not read KPI totals: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Move existing totals. Totals that are not in Redis are left to the next reconciliation.
+     */
+    public void adjustTotals(Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<String> args = new ArrayList<>(deltas.size() * 2);
+        deltas.forEach((field, delta) -> {
+            args.add(field);
+            args.add(String.valueOf(delta));
+        });
+        try {
+            redisTemplate.execute(ADJUST_IF_PRESENT, List.of(TOTALS_KEY), args.toArray());
+        } catch (DataAccessException e) {
+            log.warn("Could not update KPI totals: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replace all totals at once: the new hash is written under another key and renamed,
+     * so readers see either the old totals or the new ones.
+     */
+    public void replaceTotals(Map<String, Long> totals) {
+        Map<String, String> hash = new HashMap<>(totals.size());
+        totals.forEach((field, value) -> hash.put(field, String.valueOf(value)));
+        try {
+            redisTemplate.delete(TOTALS_NEXT_KEY);
+            redisTemplate.opsForHash().putAll(TOTALS_NEXT_KEY, hash);
+            redisTemplate.rename(TOTALS_NEXT_KEY, TOTALS_KEY);
+        } catch (DataAccessException e) {
+            log.warn("Could not store KPI totals: {}", e.getMessage());
+        }
+    }
+
+    // ==================== Active users ====================
+
+    public void markActive(LocalDate day, Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        String key = activeKey(day);
+        try {
+            redisTemplate.opsForHyperLogLog().add(key, userIds.toArray(String[]::new));
+            redisTemplate.expire(key, Duration.ofDays(properties.getActiveUserDays() + 2L));
+        } catch (DataAccessException e) {
+            log.warn("Could not record {} active users for {}: {}", userIds.size(), day, e.getMessage());
+        }
+    }
+
+    /**
+     * Distinct users active from {@code from} to {@code to}, inclusive.
+     *
+     * @return the estimate, or empty if Redis cannot be reached
+     */
+    public OptionalLong countActive(LocalDate from, LocalDate to) {
+        List<String> keys = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            keys.add(activeKey(day));
+        }
+        try {
+            Long count = redisTemplate.opsForHyperLogLog().size(keys.toArray(String[]::new));
+            return OptionalLong.of(count != null ? count : 0L);
+        } catch (DataAccessException e) {
+            log.warn("Could not count active users from {} to {}: {}", from, to, e.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    private static String activeKey(LocalDate day) {
+        return ACTIVE_KEY_PREFIX + day;
+    }
+}
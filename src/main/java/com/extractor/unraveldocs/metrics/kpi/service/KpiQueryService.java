@@ -0,0 +1,71 @@
+package com.extractor.unraveldocs.metrics.kpi.service;
+
+import com.extractor.unraveldocs.metrics.kpi.model.KpiDailyValue;
+import com.extractor.unraveldocs.metrics.kpi.model.KpiMetric;
+import com.extractor.unraveldocs.metrics.kpi.model.KpiTotals;
+import com.extractor.unraveldocs.metrics.kpi.repository.KpiRollupRepository;
+import com.extractor.unraveldocs.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read side of the dashboard KPIs. Totals come from one Redis hash, windows of days
+ * from the rollup rows of those days, and active users from the daily HyperLogLogs,
+ * so no read scans a source table while Redis is up.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class KpiQueryService {
+
+    private final KpiCounterStore counterStore;
+    private final KpiRollupRepository rollupRepository;
+    private final KpiSnapshotService snapshotService;
+    private final UserRepository userRepository;
+
+    /**
+     * Current totals. If Redis has none yet they are counted and stored.
+     */
+    public KpiTotals totals() {
+        return counterStore.getTotals()
+                .map(KpiTotals::new)
+                .orElseGet(snapshotService::refreshTotals);
+    }
+
+    /**
+     * Sum of a metric over the last {@code days} days including today, over all dimensions.
+     */
+    public long sumLastDays(KpiMetric metric, int days) {
+        return sumLastDaysByDimension(metric, days).values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public Map<String, Long> sumLastDaysByDimension(KpiMetric metric, int days) {
+        LocalDate today = today();
+        return rollupRepository.sum(metric, today.minusDays(Math.max(1, days) - 1L), today);
+    }
+
+    public List<KpiDailyValue> daily(KpiMetric metric, LocalDate from, LocalDate to) {
+        return rollupRepository.daily(metric, from, to);
+    }
+
+    /**
+     * Distinct users who logged in during the last {@code days} days including today.
+     * Counted from the database if Redis cannot be reached.
+     */
+    public long activeUsers(int days) {
+        LocalDate today = today();
+        LocalDate from = today.minusDays(Math.max(1, days) - 1L);
+        return counterStore.countActive(from, today).orElseGet(() -> userRepository
+                .countByLastLoginAfterAndDeletedAtIsNull(from.atStartOfDay().atOffset(ZoneOffset.UTC)));
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+}
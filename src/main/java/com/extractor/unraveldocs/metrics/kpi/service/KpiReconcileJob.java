@@ -0,0 +1,63 @@
+package com.extractor.unraveldocs.metrics.kpi.service;
+
+import com.extractor.unraveldocs.metrics.kpi.config.KpiProperties;
+import com.extractor.unraveldocs.metrics.kpi.repository.KpiRollupRepository;
+import com.extractor.unraveldocs.scheduling.ChunkResult;
+import com.extractor.unraveldocs.scheduling.ClusterJob;
+import com.extractor.unraveldocs.scheduling.ClusterJobRunner;
+import com.extractor.unraveldocs.scheduling.KeyRange;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Corrects the drift of the incrementally maintained KPIs, once per cluster.
+ * <p>
+ * Events recorded by {@link KpiRecorder} can be lost (a node stops with buffered
+ * increments, Redis is unreachable) or miss changes no event reports, such as
+ * deletions or subscription status changes. Each run recounts the rollups of the last
+ * {@code reconcile-days} days, replaces the Redis totals with exact counts and fills
+ * the active-user counters from {@code users.last_login}. The recount counts source
+ * rows up to a watermark, and increments recorded before it are not added on top.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class KpiReconcileJob {
+
+    static final String JOB_NAME = "kpi-reconcile";
+
+    private final KpiRollupRepository rollupRepository;
+    private final KpiSnapshotService snapshotService;
+    private final KpiRecorder kpiRecorder;
+    private final KpiProperties properties;
+    private final ClusterJobRunner clusterJobRunner;
+
+    @Scheduled(cron = "${metrics.kpi.reconcile-cron:0 */15 * * * *}")
+    public void reconcileKpis() {
+        clusterJobRunner.run(ClusterJob.single(JOB_NAME, this::reconcile));
+    }
+
+    ChunkResult reconcile(KeyRange range, OffsetDateTime runStartedAt) {
+        // Write this node's buffered increments first, so the recount replaces them.
+        // Increments any node flushes later are dropped if the recount already counted them.
+        kpiRecorder.flush();
+
+        LocalDate from = runStartedAt.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate()
+                .minusDays(Math.max(1, properties.getReconcileDays()) - 1L);
+        int rollups = rollupRepository.recountFrom(from);
+        snapshotService.refreshTotals();
+        int activeUsers = snapshotService.seedActiveUsers();
+
+        log.info("Completed KPI reconciliation: rollupRows={}, from={}, activeUsersSeeded={}",
+                rollups, from, activeUsers);
+        return ChunkResult.of(rollups);
+    }
+}
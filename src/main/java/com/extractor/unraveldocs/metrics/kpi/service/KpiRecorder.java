@@ -0,0 +1,220 @@
+package com.extractor.unraveldocs.metrics.kpi.service;
+
+import com.extractor.unraveldocs.documents.datamodel.DocumentUploadState;
+import com.extractor.unraveldocs.documents.model.FileEntry;
+import com.extractor.unraveldocs.metrics.kpi.model.KpiMetric;
+import com.extractor.unraveldocs.metrics.kpi.model.KpiTotals;
+import com.extractor.unraveldocs.metrics.kpi.model.RollupIncrement;
+import com.extractor.unraveldocs.metrics.kpi.model.RollupKey;
+import com.extractor.unraveldocs.metrics.kpi.repository.KpiRollupRepository;
+import com.extractor.unraveldocs.ocrprocessing.datamodel.OcrStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the domain events behind the dashboard KPIs.
+ * <p>
+ * Called from the services where the events happen. Each event moves the Redis totals
+ * and adds to the rollup rows of its day once its transaction has committed, so a
+ * rolled-back sign-up or upload is not counted. Rollup increments are buffered and
+ * written in one batch per flush, which turns a burst of events on the same day into
+ * one row update instead of a queue on that row. Increments are kept per second they
+ * were recorded in, so a flush can drop the ones a recount on any node has already
+ * counted. Recording never fails the caller: anything lost is corrected by
+ * {@link KpiReconcileJob}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KpiRecorder {
+
+    private final KpiRollupRepository rollupRepository;
+    private final KpiCounterStore counterStore;
+
+    private final Map<PendingKey, Long> pending = new ConcurrentHashMap<>();
+
+    public void userSignedUp() {
+        afterCommit(() -> {
+            add(RollupKey.of(KpiMetric.USERS_SIGNED_UP, today()), 1);
+            counterStore.adjustTotals(Map.of(KpiTotals.USERS_TOTAL, 1L, KpiTotals.USERS_UNVERIFIED, 1L));
+        });
+    }
+
+    /**
+     * A user verified their email, which also activates the account.
+     */
+    public void userVerified() {
+        afterCommit(() -> counterStore.adjustTotals(Map.of(
+                KpiTotals.USERS_VERIFIED, 1L,
+                KpiTotals.USERS_UNVERIFIED, -1L,
+                KpiTotals.USERS_ACTIVE, 1L)));
+    }
+
+    public void userLoggedIn(String userId) {
+        try {
+            counterStore.markActive(today(), List.of(userId));
+        } catch (RuntimeException e) {
+            log.warn("Could not record login for KPIs: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * A new document collection was saved with these files.
+     */
+    public void documentsUploaded(List<FileEntry> files) {
+        long storedFiles = 0;
+        long storedBytes = 0;
+        Map<String, Long> totals = new HashMap<>();
+        totals.put(KpiTotals.COLLECTIONS, 1L);
+        totals.put(KpiTotals.FILES, (long) files.size());
+        for (FileEntry file : files) {
+            totals.merge(KpiTotals.FILE_BYTES, file.getFileSize(), Long::sum);
+            totals.merge(KpiTotals.FILES_BY_TYPE + file.getFileType(), 1L, Long::sum);
+            totals.merge(KpiTotals.FILES_BY_STATUS + file.getUploadStatus(), 1L, Long::sum);
+            if (file.isEncrypted()) {
+                totals.merge(KpiTotals.FILES_ENCRYPTED, 1L, Long::sum);
+            }
+            if (DocumentUploadState.SUCCESS.toString().equals(file.getUploadStatus())) {
+                storedFiles++;
+                storedBytes += file.getFileSize();
+            }
+        }
+
+        long uploaded = storedFiles;
+        long uploadedBytes = storedBytes;
+        afterCommit(() -> {
+            LocalDate day = today();
+            add(RollupKey.of(KpiMetric.DOCUMENTS_UPLOADED, day), uploaded);
+            add(RollupKey.of(KpiMetric.DOCUMENT_BYTES_UPLOADED, day), uploadedBytes);
+            counterStore.adjustTotals(totals);
+        });
+    }
+
+    /**
+     * A user's own storage usage changed. Team storage is not part of the totals.
+     */
+    public void storageChanged(long bytesChange) {
+        if (bytesChange == 0) {
+            return;
+        }
+        afterCommit(() -> counterStore.adjustTotals(Map.of(KpiTotals.STORAGE_USED, bytesChange)));
+    }
+
+    /**
+     * An OCR run ended. Runs are counted on the day they finished, the day of
+     * {@code ocr_data.completed_at} that reconciliation recounts them by.
+     */
+    public void ocrFinished(OcrStatus status, OffsetDateTime completedAt) {
+        KpiMetric metric = switch (status) {
+            case COMPLETED -> KpiMetric.OCR_COMPLETED;
+            case FAILED -> KpiMetric.OCR_FAILED;
+            default -> null;
+        };
+        if (metric == null) {
+            return;
+        }
+        LocalDate day = completedAt != null
+                ? completedAt.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate()
+                : today();
+        afterCommit(() -> add(RollupKey.of(metric, day), 1));
+    }
+
+    public void paymentReceived(String currency, BigDecimal amount) {
+        String dimension = currency != null ? currency.toUpperCase(Locale.ROOT) : "";
+        long amountMinor = amount != null ? amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue() : 0L;
+        afterCommit(() -> {
+            LocalDate day = today();
+            add(new RollupKey(KpiMetric.PAYMENTS_RECEIVED, day, dimension), 1);
+            add(new RollupKey(KpiMetric.PAYMENT_AMOUNT_MINOR, day, dimension), amountMinor);
+        });
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${metrics.kpi.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<PendingKey, Long> batch = new HashMap<>();
+        for (PendingKey key : List.copyOf(pending.keySet())) {
+            Long delta = pending.remove(key);
+            if (delta != null && delta != 0) {
+                batch.put(key, delta);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<RollupIncrement> increments = new ArrayList<>(batch.size());
+        batch.forEach((key, delta) -> increments.add(new RollupIncrement(key.rollup(), delta,
+                Instant.ofEpochSecond(key.second() + 1).atOffset(ZoneOffset.UTC))));
+        try {
+            rollupRepository.addAll(increments);
+            log.debug("Flushed {} KPI rollup increments", increments.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush {} KPI rollup increments, will retry: {}", increments.size(), e.getMessage());
+            batch.forEach((key, delta) -> pending.merge(key, delta, Long::sum));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void add(RollupKey key, long delta) {
+        pending.merge(new PendingKey(key, Instant.now().getEpochSecond()), delta, Long::sum);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    run(action);
+                }
+            });
+        } else {
+            run(action);
+        }
+    }
+
+    private static void run(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            log.warn("Could not record KPI event: {}", e.getMessage());
+        }
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+
+    /**
+     * Increments of a rollup row recorded within one second, since the epoch.
+     */
+    private record PendingKey(RollupKey rollup, long second) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.extractor.unraveldocs.metrics.kpi.service;
+
+import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
+import com.extractor.unraveldocs.loginattempts.repository.LoginAttemptsRepository;
+import com.extractor.unraveldocs.metrics.kpi.config.KpiProperties;
+import com.extractor.unraveldocs.metrics.kpi.model.KpiTotals;
+import com.extractor.unraveldocs.metrics.kpi.repository.KpiRollupRepository;
+import com.extractor.unraveldocs.subscription.datamodel.SubscriptionPlans;
+import com.extractor.unraveldocs.subscription.repository.UserSubscriptionRepository;
+import com.extractor.unraveldocs.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Exact KPI values counted from the source tables. These are the full scans the
+ * dashboard used to run on every cache miss; they now run once per reconciliation,
+ * and on a read only when Redis holds no totals.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class KpiSnapshotService {
+
+    private static final int ACTIVE_USER_BATCH_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final LoginAttemptsRepository loginAttemptsRepository;
+    private final UserSubscriptionRepository userSubscriptionRepository;
+    private final DocumentCollectionRepository documentCollectionRepository;
+    private final KpiRollupRepository rollupRepository;
+    private final KpiCounterStore counterStore;
+    private final KpiProperties properties;
+
+    /**
+     * Count the totals and store them in Redis.
+     */
+    public KpiTotals refreshTotals() {
+        KpiTotals totals = computeTotals();
+        counterStore.replaceTotals(totals.values());
+        return totals;
+    }
+
+    @Transactional(readOnly = true)
+    public KpiTotals computeTotals() {
+        log.info("Counting KPI totals from the database");
+        Map<String, Long> values = new HashMap<>();
+
+        // User KPIs
+        values.put(KpiTotals.USERS_TOTAL, userRepository.countByDeletedAtIsNull());
+        values.put(KpiTotals.USERS_ACTIVE, userRepository.countByIsActiveTrueAndIsVerifiedTrueAndDeletedAtIsNull());
+        values.put(KpiTotals.USERS_VERIFIED, userRepository.countByIsVerifiedTrueAndDeletedAtIsNull());
+        values.put(KpiTotals.USERS_UNVERIFIED, userRepository.countByIsVerifiedFalseAndDeletedAtIsNull());
+        values.put(KpiTotals.USERS_BLOCKED, loginAttemptsRepository.countByIsBlockedTrue());
+
+        // Subscription KPIs
+        for (SubscriptionPlans plan : SubscriptionPlans.values()) {
+            values.put(KpiTotals.SUBSCRIPTIONS_BY_PLAN + plan.name(), 0L);
+        }
+        for (Object[] row : userSubscriptionRepository.countUsersByPlan()) {
+            String plan = row[0] instanceof SubscriptionPlans p ? p.name() : row[0] != null ? row[0].toString() : "UNKNOWN";
+            values.put(KpiTotals.SUBSCRIPTIONS_BY_PLAN + plan, ((Number) row[1]).longValue());
+        }
+        for (Object[] row : userSubscriptionRepository.countUsersByStatus()) {
+            String status = row[0] != null ? row[0].toString().toUpperCase(Locale.ROOT) : "UNKNOWN";
+            values.merge(KpiTotals.SUBSCRIPTIONS_BY_STATUS + status, ((Number) row[1]).longValue(), Long::sum);
+        }
+        Long storageUsed = userSubscriptionRepository.sumTotalStorageUsed();
+        values.put(KpiTotals.STORAGE_USED, storageUsed != null ? storageUsed : 0L);
+
+        // Document KPIs
+        values.put(KpiTotals.COLLECTIONS, documentCollectionRepository.count());
+        values.put(KpiTotals.FILES, documentCollectionRepository.countTotalFiles());
+        values.put(KpiTotals.FILE_BYTES, documentCollectionRepository.sumTotalStorageBytes());
+        values.put(KpiTotals.FILES_ENCRYPTED, documentCollectionRepository.countEncryptedDocuments());
+        for (Object[] row : documentCollectionRepository.countFilesByType()) {
+            values.put(KpiTotals.FILES_BY_TYPE + row[0], ((Number) row[1]).longValue());
+        }
+        for (Object[] row : documentCollectionRepository.countFilesByStatus()) {
+            values.put(KpiTotals.FILES_BY_STATUS + row[0], ((Number) row[1]).longValue());
+        }
+
+        return new KpiTotals(values);
+    }
+
+    /**
+     * Put every user whose last login falls in the active-user window into the HyperLogLog
+     * of that day. Adding is idempotent, so this only fills in logins Redis missed.
+     *
+     * @return users added
+     */
+    public int seedActiveUsers() {
+        LocalDate from = LocalDate.now(ZoneOffset.UTC).minusDays(Math.max(1, properties.getActiveUserDays()) - 1L);
+        Map<LocalDate, List<String>> batches = new HashMap<>();
+        int[] seeded = {0};
+        rollupRepository.forEachLastLoginSince(from, (day, userId) -> {
+            List<String> batch = batches.computeIfAbsent(day, key -> new ArrayList<>());
+            batch.add(userId);
+            seeded[0]++;
+            if (batch.size() >= ACTIVE_USER_BATCH_SIZE) {
+                counterStore.markActive(day, batch);
+                batch.clear();
+            }
+        });
+        batches.forEach(counterStore::markActive);
+        return seeded[0];
+    }
+}
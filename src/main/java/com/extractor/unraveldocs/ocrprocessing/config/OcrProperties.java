@@ -71,6 +71,11 @@ public class OcrProperties {
      */
     private TesseractConfig tesseract = new TesseractConfig();
 
+    /**
+     * Image cleanup applied before Tesseract.
+     */
+    private PreprocessingConfig preprocessing = new PreprocessingConfig();
+
     /**
      * Check if a provider is enabled.
      */
@@ -179,4 +184,83 @@ public class OcrProperties {
          */
         private int ocrEngineMode = 3;
     }
+
+    /**
+     * Configuration of the OpenCV pipeline that prepares images for Tesseract.
+     * Steps run in the order of the fields below; each can be switched off.
+     */
+    @Data
+    public static class PreprocessingConfig {
+        /**
+         * Whether images are preprocessed at all. When off, Tesseract gets the
+         * decoded image unchanged.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Resolution Tesseract works best at. PDF pages are rendered at this DPI and
+         * images are scaled down to it.
+         */
+        private int targetDpi = 300;
+
+        /**
+         * Longest page side, in inches, assumed for images without a usable DPI. Together
+         * with the target DPI this caps the longest side of an image in pixels
+         * (11.7 in is the long side of A4).
+         */
+        private double maxPageInches = 11.7;
+
+        /**
+         * Whether to binarize with a local (adaptive Gaussian) threshold, which copes with
+         * shadows and uneven lighting in photos.
+         */
+        private boolean binarize = true;
+
+        /**
+         * Neighbourhood size in pixels of the adaptive threshold. Must be odd.
+         */
+        private int binarizeBlockSize = 31;
+
+        /**
+         * Constant subtracted from the neighbourhood mean of the adaptive threshold.
+         */
+        private double binarizeOffset = 15;
+
+        /**
+         * Whether to straighten rotated scans.
+         */
+        private boolean deskew = true;
+
+        /**
+         * Skew angles below this, in degrees, are left alone.
+         */
+        private double deskewMinAngle = 0.5;
+
+        /**
+         * Skew angles above this, in degrees, are taken for page layout rather than skew
+         * and left alone.
+         */
+        private double deskewMaxAngle = 15;
+
+        /**
+         * Whether to remove speckle noise with a median filter before binarizing.
+         */
+        private boolean denoise = true;
+
+        /**
+         * Whether to crop blank margins around the text.
+         */
+        private boolean cropMargins = true;
+
+        /**
+         * Blank pixels kept around the text when cropping.
+         */
+        private int cropPadding = 20;
+
+        /**
+         * Images whose pixels are at least this share near black or white are treated as
+         * clean (born-digital pages, flatbed scans) and skip denoising and binarization.
+         */
+        private double cleanImageRatio = 0.97;
+    }
 }
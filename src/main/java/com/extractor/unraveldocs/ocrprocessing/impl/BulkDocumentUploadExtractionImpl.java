@@ -8,6 +8,7 @@ import com.extractor.unraveldocs.documents.datamodel.DocumentUploadState;
 import com.extractor.unraveldocs.documents.model.DocumentCollection;
 import com.extractor.unraveldocs.documents.model.FileEntry;
 import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiRecorder;
 import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
 import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
 import com.extractor.unraveldocs.ocrprocessing.datamodel.OcrStatus;
@@ -50,6 +51,7 @@ public class BulkDocumentUploadExtractionImpl implements BulkDocumentUploadExtra
     private final SanitizeLogging s;
     private final FileStorageService fileStorageService;
     private final StorageAllocationService storageAllocationService;
+    private final KpiRecorder kpiRecorder;
 
     @Override
     @Transactional
@@ -97,6 +99,7 @@ public class BulkDocumentUploadExtractionImpl implements BulkDocumentUploadExtra
 
                     fileEntryDataBuilder.documentId(fileEntry.getDocumentId())
                             .fileUrl(fileEntry.getFileUrl())
+                            .previewUrl(fileEntry.getPreviewUrl())
                             .status(DocumentUploadState.SUCCESS.toString());
                     successfulUploads++;
                 } catch (Exception e) {
@@ -143,6 +146,7 @@ public class BulkDocumentUploadExtractionImpl implements BulkDocumentUploadExtra
             // saving OCR data
             DocumentCollection savedCollection = documentCollectionRepository.saveAndFlush(documentCollection);
             savedCollectionId = savedCollection.getId();
+            kpiRecorder.documentsUploaded(processedFiles);
 
             if (!ocrDataToSave.isEmpty()) {
                 ocrDataRepository.saveAll(ocrDataToSave);
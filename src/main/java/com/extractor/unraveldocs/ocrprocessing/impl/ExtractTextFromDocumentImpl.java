@@ -3,6 +3,7 @@ package com.extractor.unraveldocs.ocrprocessing.impl;
 import com.extractor.unraveldocs.documents.model.FileEntry;
 import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
 import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiRecorder;
 import com.extractor.unraveldocs.ocrprocessing.datamodel.OcrStatus;
 import com.extractor.unraveldocs.ocrprocessing.interfaces.ExtractTextFromDocumentService;
 import com.extractor.unraveldocs.ocrprocessing.model.OcrData;
@@ -19,6 +20,7 @@ import org.hibernate.service.spi.ServiceException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +35,7 @@ public class ExtractTextFromDocumentImpl implements ExtractTextFromDocumentServi
     private final OcrProcessingService ocrProcessingService;
     private final CreditBalanceService creditBalanceService;
     private final UserRepository userRepository;
+    private final KpiRecorder kpiRecorder;
 
     @Override
     @Transactional
@@ -70,6 +73,7 @@ public class ExtractTextFromDocumentImpl implements ExtractTextFromDocumentServi
                     .startPage(startPage)
                     .endPage(endPage)
                     .pages(pages)
+                    .probe(fileEntry.getProbe())
                     .fallbackEnabled(true)
                     .build();
 
@@ -124,6 +128,8 @@ public class ExtractTextFromDocumentImpl implements ExtractTextFromDocumentServi
                     new RuntimeException(t));
         }
 
+        ocrData.setCompletedAt(OffsetDateTime.now());
+        kpiRecorder.ocrFinished(ocrData.getStatus(), ocrData.getCompletedAt());
         return ocrDataRepository.save(ocrData);
     }
 }
@@ -42,7 +42,7 @@ public class UpdateOcrContentImpl implements UpdateOcrContentService {
      * Safelist for HTML sanitization.
      * Allows common formatting tags while stripping scripts, event handlers, etc.
      */
-    private static final Safelist HTML_SAFELIST = Safelist.relaxed()
+    static final Safelist HTML_SAFELIST = Safelist.relaxed()
             .addTags("span", "div", "br", "hr", "pre", "code", "mark", "sub", "sup", "u", "s")
             .addAttributes("a", "href", "title", "target", "rel")
             .addAttributes("span", "style")
@@ -95,7 +95,7 @@ public class UpdateOcrContentImpl implements UpdateOcrContentService {
      * HTML content is sanitized using Jsoup to prevent XSS.
      * Markdown content is stored as-is since it has no executable content.
      */
-    private String sanitizeContent(String content, ContentFormat format) {
+    static String sanitizeContent(String content, ContentFormat format) {
         if (format == ContentFormat.HTML) {
             return Jsoup.clean(content, HTML_SAFELIST);
         }
@@ -142,6 +142,26 @@ public class OcrMetrics {
                 "tier", tier).increment();
     }
 
+    /**
+     * Record the duration of one image preprocessing step.
+     */
+    public void recordPreprocessingStep(String step, long durationNanos) {
+        Timer.builder(METRIC_PREFIX + ".preprocessing.step.duration")
+                .description("Duration of an image preprocessing step")
+                .tag("step", step)
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record a preprocessed image and whether it took the fast path for clean images.
+     */
+    public void recordPreprocessedImage(boolean fastPath) {
+        meterRegistry.counter(
+                METRIC_PREFIX + ".preprocessing.images",
+                "path", fastPath ? "fast" : "full").increment();
+    }
+
     /**
      * Create a timer sample for measuring duration.
      */
@@ -56,6 +56,9 @@ public class OcrData {
     @Column(name = "ai_tags", length = 500)
     private String aiTags; // Comma-separated tags generated by AI classification
 
+    @Column(name = "completed_at")
+    private OffsetDateTime completedAt;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
@@ -0,0 +1,345 @@
+package com.extractor.unraveldocs.ocrprocessing.preprocessing;
+
+import com.extractor.unraveldocs.ocrprocessing.config.OcrProperties;
+import com.extractor.unraveldocs.ocrprocessing.metrics.OcrMetrics;
+import lombok.extern.slf4j.Slf4j;
+import nu.pattern.OpenCV;
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfPoint;
+import org.opencv.core.MatOfPoint2f;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.core.RotatedRect;
+import org.opencv.core.Scalar;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+import org.springframework.stereotype.Component;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Prepares page images for Tesseract with OpenCV.
+ * <p>
+ * Steps, each optional: scale down to the target DPI, grayscale, denoise, adaptive
+ * binarization, deskew and cropping of blank margins. Images that are already nearly
+ * black and white (born-digital pages, clean scans) take a fast path that skips
+ * denoising and binarization, which Tesseract's own thresholding handles well for them.
+ * The duration of every step is recorded in {@link OcrMetrics}.
+ * <p>
+ * Preprocessing never fails OCR: if OpenCV cannot be loaded or a step throws, the
+ * original image is returned.
+ */
+@Slf4j
+@Component
+public class ImagePreprocessor {
+
+    /**
+     * Gray levels at or below this count as ink, at or above {@link #NEAR_WHITE} as paper.
+     */
+    private static final int NEAR_BLACK = 40;
+    private static final int NEAR_WHITE = 215;
+
+    /**
+     * Longest side of the mask the skew angle is measured on. The angle does not depend
+     * on the scale, and measuring on a small mask keeps the step cheap.
+     */
+    private static final int SKEW_MASK_SIZE = 1000;
+
+    private final OcrProperties ocrProperties;
+    private final OcrMetrics ocrMetrics;
+    private final boolean openCvLoaded;
+
+    public ImagePreprocessor(OcrProperties ocrProperties, OcrMetrics ocrMetrics) {
+        this.ocrProperties = ocrProperties;
+        this.ocrMetrics = ocrMetrics;
+        this.openCvLoaded = loadOpenCv();
+    }
+
+    public boolean isEnabled() {
+        return openCvLoaded && ocrProperties.getPreprocessing().isEnabled();
+    }
+
+    /**
+     * Resolution to render a PDF page at: the target DPI, lowered for large-format pages
+     * so the longest side stays within the pixel cap.
+     */
+    public int renderDpi(float widthPoints, float heightPoints) {
+        OcrProperties.PreprocessingConfig config = ocrProperties.getPreprocessing();
+        double longSideInches = Math.max(widthPoints, heightPoints) / 72.0;
+        if (longSideInches <= 0) {
+            return config.getTargetDpi();
+        }
+        int capped = (int) Math.floor(maxPixels(config) / longSideInches);
+        return Math.max(1, Math.min(config.getTargetDpi(), capped));
+    }
+
+    /**
+     * Run the pipeline on an image.
+     *
+     * @return a grayscale image ready for OCR, or the image unchanged if preprocessing
+     * is disabled or fails
+     */
+    public BufferedImage process(BufferedImage image) {
+        if (image == null || !isEnabled()) {
+            return image;
+        }
+        OcrProperties.PreprocessingConfig config = ocrProperties.getPreprocessing();
+        List<Mat> mats = new ArrayList<>();
+        try {
+            Mat current = track(mats, toMat(image));
+
+            Mat source = current;
+            current = track(mats, timed("downscale", () -> downscale(source, maxPixels(config))));
+
+            Mat colour = current;
+            current = track(mats, timed("grayscale", () -> grayscale(colour)));
+
+            Mat gray = current;
+            boolean clean = timed("classify", () -> isClean(gray, config.getCleanImageRatio()));
+            ocrMetrics.recordPreprocessedImage(clean);
+
+            boolean binarized = false;
+            if (!clean) {
+                if (config.isDenoise()) {
+                    Mat noisy = current;
+                    current = track(mats, timed("denoise", () -> denoise(noisy)));
+                }
+                if (config.isBinarize()) {
+                    Mat shaded = current;
+                    current = track(mats, timed("binarize", () -> binarize(shaded, config)));
+                    binarized = true;
+                }
+            }
+            boolean bilevel = binarized;
+            if (config.isDeskew()) {
+                Mat skewed = current;
+                current = track(mats, timed("deskew", () -> deskew(skewed, bilevel, config)));
+            }
+            if (config.isCropMargins()) {
+                Mat padded = current;
+                current = track(mats, timed("crop", () -> cropMargins(padded, bilevel, config.getCropPadding())));
+            }
+
+            return toBufferedImage(current);
+        } catch (RuntimeException e) {
+            log.warn("Image preprocessing failed, running OCR on the original image: {}", e.getMessage());
+            return image;
+        } finally {
+            mats.forEach(Mat::release);
+        }
+    }
+
+    private static Mat downscale(Mat image, int maxPixels) {
+        int longSide = Math.max(image.cols(), image.rows());
+        if (longSide <= maxPixels) {
+            return image;
+        }
+        double scale = (double) maxPixels / longSide;
+        Mat resized = new Mat();
+        Imgproc.resize(image, resized, new Size(), scale, scale, Imgproc.INTER_AREA);
+        return resized;
+    }
+
+    private static Mat grayscale(Mat image) {
+        if (image.channels() == 1) {
+            return image;
+        }
+        Mat gray = new Mat();
+        Imgproc.cvtColor(image, gray, Imgproc.COLOR_RGB2GRAY);
+        return gray;
+    }
+
+    /**
+     * Whether at least {@code ratio} of the pixels are near black or near white.
+     */
+    private static boolean isClean(Mat gray, double ratio) {
+        Mat midTones = new Mat();
+        try {
+            Core.inRange(gray, new Scalar(NEAR_BLACK + 1), new Scalar(NEAR_WHITE - 1), midTones);
+            double total = (double) gray.rows() * gray.cols();
+            return total > 0 && 1.0 - Core.countNonZero(midTones) / total >= ratio;
+        } finally {
+            midTones.release();
+        }
+    }
+
+    private static Mat denoise(Mat gray) {
+        Mat denoised = new Mat();
+        Imgproc.medianBlur(gray, denoised, 3);
+        return denoised;
+    }
+
+    private static Mat binarize(Mat gray, OcrProperties.PreprocessingConfig config) {
+        int blockSize = Math.max(3, config.getBinarizeBlockSize() | 1);
+        Mat binary = new Mat();
+        Imgproc.adaptiveThreshold(gray, binary, 255, Imgproc.ADAPTIVE_THRESH_GAUSSIAN_C,
+                Imgproc.THRESH_BINARY, blockSize, config.getBinarizeOffset());
+        return binary;
+    }
+
+    /**
+     * Rotate the page so the box around its ink is upright. Angles outside the configured
+     * band are left alone.
+     */
+    private static Mat deskew(Mat gray, boolean binarized, OcrProperties.PreprocessingConfig config) {
+        double angle = skewAngle(gray, binarized);
+        if (Double.isNaN(angle)
+                || Math.abs(angle) < config.getDeskewMinAngle()
+                || Math.abs(angle) > config.getDeskewMaxAngle()) {
+            return gray;
+        }
+        Point center = new Point(gray.cols() / 2.0, gray.rows() / 2.0);
+        Mat rotation = Imgproc.getRotationMatrix2D(center, angle, 1.0);
+        Mat rotated = new Mat();
+        try {
+            Imgproc.warpAffine(gray, rotated, rotation, gray.size(),
+                    binarized ? Imgproc.INTER_NEAREST : Imgproc.INTER_LINEAR,
+                    Core.BORDER_CONSTANT, new Scalar(255));
+        } finally {
+            rotation.release();
+        }
+        return rotated;
+    }
+
+    /**
+     * @return the skew in degrees, positive counter-clockwise, or NaN for a blank page
+     */
+    private static double skewAngle(Mat gray, boolean binarized) {
+        Mat small = downscale(gray, SKEW_MASK_SIZE);
+        Mat mask = inkMask(small, binarized);
+        MatOfPoint points = new MatOfPoint();
+        MatOfPoint2f points2f = new MatOfPoint2f();
+        try {
+            Core.findNonZero(mask, points);
+            if (points.empty()) {
+                return Double.NaN;
+            }
+            points.convertTo(points2f, CvType.CV_32FC2);
+            RotatedRect box = Imgproc.minAreaRect(points2f);
+            // minAreaRect reports [0, 90); a box leaning the other way reads as close to 90
+            double angle = box.angle;
+            if (angle > 45) {
+                angle -= 90;
+            }
+            return angle;
+        } finally {
+            if (small != gray) {
+                small.release();
+            }
+            mask.release();
+            points.release();
+            points2f.release();
+        }
+    }
+
+    private static Mat cropMargins(Mat gray, boolean binarized, int padding) {
+        Mat mask = inkMask(gray, binarized);
+        Rect ink;
+        try {
+            ink = Imgproc.boundingRect(mask);
+        } finally {
+            mask.release();
+        }
+        if (ink.width == 0 || ink.height == 0) {
+            return gray;
+        }
+        int x = Math.max(0, ink.x - padding);
+        int y = Math.max(0, ink.y - padding);
+        int width = Math.min(gray.cols(), ink.x + ink.width + padding) - x;
+        int height = Math.min(gray.rows(), ink.y + ink.height + padding) - y;
+        if (width == gray.cols() && height == gray.rows()) {
+            return gray;
+        }
+        return gray.submat(new Rect(x, y, width, height)).clone();
+    }
+
+    /**
+     * Ink as white on black: the inverted page if it is already binarized, otherwise an
+     * Otsu threshold of it.
+     */
+    private static Mat inkMask(Mat gray, boolean binarized) {
+        Mat mask = new Mat();
+        if (binarized) {
+            Core.bitwise_not(gray, mask);
+        } else {
+            Imgproc.threshold(gray, mask, 0, 255, Imgproc.THRESH_BINARY_INV | Imgproc.THRESH_OTSU);
+        }
+        return mask;
+    }
+
+    private <T> T timed(String step, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            ocrMetrics.recordPreprocessingStep(step, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Steps return their input when they have nothing to do, so each Mat is released once.
+     */
+    private static Mat track(List<Mat> mats, Mat mat) {
+        if (!mats.contains(mat)) {
+            mats.add(mat);
+        }
+        return mat;
+    }
+
+    private static int maxPixels(OcrProperties.PreprocessingConfig config) {
+        return (int) Math.round(config.getTargetDpi() * config.getMaxPageInches());
+    }
+
+    /**
+     * Copy an image into a Mat: 8-bit gray as one channel, anything else as RGB on a
+     * white background so transparent areas read as paper.
+     */
+    private static Mat toMat(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+            Mat mat = new Mat(height, width, CvType.CV_8UC1);
+            mat.put(0, 0, (byte[]) image.getRaster().getDataElements(0, 0, width, height, null));
+            return mat;
+        }
+        BufferedImage rgb = image;
+        if (image.getType() != BufferedImage.TYPE_3BYTE_BGR) {
+            rgb = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+            Graphics2D graphics = rgb.createGraphics();
+            try {
+                graphics.drawImage(image, 0, 0, Color.WHITE, null);
+            } finally {
+                graphics.dispose();
+            }
+        }
+        // Data elements come in band order, R G B, whatever the layout in memory
+        Mat mat = new Mat(height, width, CvType.CV_8UC3);
+        mat.put(0, 0, (byte[]) rgb.getRaster().getDataElements(0, 0, width, height, null));
+        return mat;
+    }
+
+    private static BufferedImage toBufferedImage(Mat gray) {
+        BufferedImage image = new BufferedImage(gray.cols(), gray.rows(), BufferedImage.TYPE_BYTE_GRAY);
+        byte[] pixels = new byte[gray.cols() * gray.rows()];
+        gray.get(0, 0, pixels);
+        image.getRaster().setDataElements(0, 0, gray.cols(), gray.rows(), pixels);
+        return image;
+    }
+
+    private static boolean loadOpenCv() {
+        try {
+            OpenCV.loadLocally();
+            return true;
+        } catch (RuntimeException | LinkageError e) {
+            log.warn("OpenCV could not be loaded, OCR images will not be preprocessed: {}", e.getMessage());
+            return false;
+        }
+    }
+}
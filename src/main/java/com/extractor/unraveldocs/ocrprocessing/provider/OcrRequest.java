@@ -1,5 +1,6 @@
 package com.extractor.unraveldocs.ocrprocessing.provider;
 
+import com.extractor.unraveldocs.documents.probe.DocumentProbe;
 import com.extractor.unraveldocs.ocrprocessing.dto.request.PdfPageRange;
 import lombok.Builder;
 import lombok.Data;
@@ -98,6 +99,11 @@ public class OcrRequest {
      */
     private java.util.List<Integer> pages;
 
+    /**
+     * What the upload probe found about the file. Null for files that were not probed.
+     */
+    private DocumentProbe probe;
+
     /**
      * Build a PdfPageRange from the page selection fields.
      * Returns null if no page selection is specified.
@@ -112,6 +118,25 @@ public class OcrRequest {
         return new PdfPageRange(startPage, endPage);
     }
 
+    /**
+     * 0-indexed pages this request covers, resolved against the probed page count.
+     * Returns null when the file has no probed page data.
+     *
+     * @throws IllegalArgumentException if the page selection does not fit the document
+     */
+    public java.util.List<Integer> resolveSelectedPages() {
+        if (probe == null || !probe.hasPageData()) {
+            return null;
+        }
+        int totalPages = probe.pageCount();
+        PdfPageRange pageRange = getPdfPageRange();
+        if (pageRange == null) {
+            return java.util.stream.IntStream.range(0, totalPages).boxed().toList();
+        }
+        pageRange.validate(totalPages);
+        return pageRange.getEffectivePages(totalPages);
+    }
+
     /**
      * Check if the request has image data via URL.
      */
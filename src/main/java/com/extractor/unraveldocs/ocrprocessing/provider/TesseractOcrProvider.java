@@ -3,6 +3,7 @@ package com.extractor.unraveldocs.ocrprocessing.provider;
 import com.extractor.unraveldocs.ocrprocessing.config.OcrProperties;
 import com.extractor.unraveldocs.ocrprocessing.dto.request.PdfPageRange;
 import com.extractor.unraveldocs.ocrprocessing.exception.OcrProcessingException;
+import com.extractor.unraveldocs.ocrprocessing.preprocessing.ImagePreprocessor;
 import com.extractor.unraveldocs.ocrprocessing.utils.PdfTextExtractor;
 import lombok.extern.slf4j.Slf4j;
 import net.sourceforge.tess4j.Tesseract;
@@ -22,6 +23,7 @@ import java.util.Set;
  * Tesseract OCR provider implementation.
  * Uses the local Tesseract engine for OCR processing.
  * Supports both images and PDF files.
+ * Images and scanned PDF pages are cleaned up by the {@link ImagePreprocessor} first.
  */
 @Slf4j
 @Component
@@ -42,10 +44,12 @@ public class TesseractOcrProvider implements OcrProvider {
             "eng", "deu", "fra", "spa", "ita", "por", "nld", "pol", "rus", "jpn", "kor", "chi_sim", "chi_tra");
 
     private final OcrProperties ocrProperties;
+    private final ImagePreprocessor imagePreprocessor;
     private final String tesseractDataPath;
 
-    public TesseractOcrProvider(OcrProperties ocrProperties) {
+    public TesseractOcrProvider(OcrProperties ocrProperties, ImagePreprocessor imagePreprocessor) {
         this.ocrProperties = ocrProperties;
+        this.imagePreprocessor = imagePreprocessor;
         this.tesseractDataPath = ocrProperties.getTesseract().getDataPath();
         log.info("TesseractOcrProvider initialized with datapath: {}", tesseractDataPath);
     }
@@ -88,7 +92,7 @@ public class TesseractOcrProvider implements OcrProvider {
             Tesseract tesseract = createTesseractInstance(request);
 
             // Perform OCR
-            String extractedText = tesseract.doOCR(image);
+            String extractedText = tesseract.doOCR(imagePreprocessor.process(image));
             long processingTime = System.currentTimeMillis() - startTime;
 
             return OcrResult.builder()
@@ -168,14 +172,20 @@ public class TesseractOcrProvider implements OcrProvider {
         }
 
         PdfPageRange pageRange = request.getPdfPageRange();
+        // Route pages by the upload probe's text layer when the file was probed
+        Set<Integer> textLayerPages = request.getProbe() != null && request.getProbe().hasPageData()
+                ? request.getProbe().textLayerPages()
+                : null;
         String extractedText;
 
         if (request.hasImageBytes()) {
             extractedText = PdfTextExtractor.extractTextFromBytes(
-                    request.getImageBytes(), pageRange, tesseractDataPath, language);
+                    request.getImageBytes(), pageRange, textLayerPages, tesseractDataPath, language,
+                    imagePreprocessor);
         } else if (request.hasImageUrl()) {
             extractedText = PdfTextExtractor.extractTextFromUrl(
-                    request.getImageUrl(), pageRange, tesseractDataPath, language);
+                    request.getImageUrl(), pageRange, textLayerPages, tesseractDataPath, language,
+                    imagePreprocessor);
         } else {
             throw new IOException("No PDF source available");
         }
@@ -2,9 +2,12 @@ package com.extractor.unraveldocs.ocrprocessing.repository;
 
 import com.extractor.unraveldocs.ocrprocessing.model.OcrData;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +16,33 @@ public interface OcrDataRepository extends JpaRepository<OcrData, String> {
 
     @Query("SELECT o FROM OcrData o WHERE o.documentId IN :documentIds")
     List<OcrData> findByDocumentIdIn(@Param("documentIds") List<String> documentIds);
+
+    /**
+     * Write an AI summary in its own short transaction, without loading the entity.
+     *
+     * @return Number of rows updated
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OcrData o SET o.aiSummary = :summary, o.updatedAt = :now WHERE o.documentId = :documentId")
+    int updateAiSummary(@Param("documentId") String documentId, @Param("summary") String summary,
+                        @Param("now") OffsetDateTime now);
+
+    /**
+     * Delete up to {@code limit} OCR rows belonging to a user's documents, in its own
+     * short transaction. Call repeatedly until it returns 0.
+     *
+     * @return Number of rows deleted
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM ocr_data WHERE id IN (
+                SELECT o.id FROM ocr_data o
+                JOIN document_file_entries f ON f.document_id = o.document_id
+                JOIN document_collections c ON c.id = f.document_collection_id
+                WHERE c.user_id = :userId
+                LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteBatchByUserId(@Param("userId") String userId, @Param("limit") int limit);
 }
@@ -0,0 +1,38 @@
+package com.extractor.unraveldocs.ocrprocessing.service;
+
+import com.extractor.unraveldocs.ocrprocessing.repository.OcrDataRepository;
+import com.extractor.unraveldocs.user.config.AccountLifecycleProperties;
+import com.extractor.unraveldocs.user.lifecycle.AccountPurgeStep;
+import com.extractor.unraveldocs.user.lifecycle.PurgeTarget;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes an account's OCR results in bounded batches. Extracted text can be large,
+ * so leaving it to the account's cascading delete would make that one statement slow.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OcrDataPurgeStep implements AccountPurgeStep {
+    private final OcrDataRepository ocrDataRepository;
+    private final AccountLifecycleProperties lifecycleProperties;
+
+    @Override
+    public String getStepName() {
+        return "ocr-data";
+    }
+
+    @Override
+    public void purge(PurgeTarget target) {
+        int batchSize = Math.max(1, lifecycleProperties.getPurgeDeleteBatchSize());
+        int total = 0;
+        int deleted;
+        do {
+            deleted = ocrDataRepository.deleteBatchByUserId(target.userId(), batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        log.debug("Deleted {} OCR rows for account {}", total, target.userId());
+    }
+}
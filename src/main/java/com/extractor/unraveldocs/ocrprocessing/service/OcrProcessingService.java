@@ -39,6 +39,8 @@ public class OcrProcessingService {
      * subscription plan and credit balance.
      *
      * Provider selection rules:
+     * - Probed text layer on every selected page → Tesseract, which extracts the text
+     *   layer without OCR (no credits deducted)
      * - Paid plan (any tier) → Google Vision (no credits deducted)
      * - Free plan + enough credits → Google Vision (credits deducted)
      * - Free plan + not enough credits → Tesseract (no credits deducted)
@@ -54,8 +56,8 @@ public class OcrProcessingService {
         OcrProvider primaryProvider = null;
 
         try {
-            // Resolve provider based on subscription + credit balance
-            OcrProviderType providerType = resolveProvider(userId);
+            // Resolve provider based on the probed text layer, subscription and credit balance
+            OcrProviderType providerType = resolveProvider(request, userId);
             primaryProvider = getProviderWithFallbackToDefault(providerType);
             ocrMetrics.recordRequestStart(primaryProvider.getProviderType());
 
@@ -111,6 +113,28 @@ public class OcrProcessingService {
      * @return The appropriate OCR provider type
      */
     OcrProviderType resolveProvider(String userId) {
+        return resolveProvider(null, userId);
+    }
+
+    /**
+     * Resolve the OCR provider for a request. When the upload probe found a text layer on
+     * every selected page, the text is extracted locally by the Tesseract provider without
+     * OCR, so no Vision call is made and no credits are used. Otherwise the provider is
+     * chosen by plan and credit balance.
+     *
+     * @param request The OCR request, or null to decide by plan and credits alone
+     * @param userId  The user's ID
+     * @return The appropriate OCR provider type
+     */
+    OcrProviderType resolveProvider(OcrRequest request, String userId) {
+        if (request != null && request.getProbe() != null
+                && request.getProbe().allHaveTextLayer(request.resolveSelectedPages())
+                && providerFactory.isProviderAvailable(OcrProviderType.TESSERACT)) {
+            log.debug("Document {} has a text layer on every selected page, extracting it locally",
+                    sanitizer.sanitizeLogging(request.getDocumentId()));
+            return OcrProviderType.TESSERACT;
+        }
+
         boolean isPaid = subscriptionFeatureService.hasPaidSubscription(userId);
 
         if (isPaid) {
@@ -7,6 +7,7 @@ import com.extractor.unraveldocs.documents.model.FileEntry;
 import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
 import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
 import com.extractor.unraveldocs.exceptions.custom.NotFoundException;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiRecorder;
 import com.extractor.unraveldocs.ocrprocessing.datamodel.OcrStatus;
 import com.extractor.unraveldocs.ocrprocessing.interfaces.ProcessOcrService;
 import com.extractor.unraveldocs.ocrprocessing.model.OcrData;
@@ -23,6 +24,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -45,6 +47,7 @@ public class ProcessOcr implements ProcessOcrService {
     private final UserRepository userRepository;
     private final Optional<ElasticsearchIndexingService> elasticsearchIndexingService;
     private final NotificationService notificationService;
+    private final KpiRecorder kpiRecorder;
 
     @Override
     @Transactional
@@ -138,9 +141,11 @@ public class ProcessOcr implements ProcessOcrService {
                     "OCR processing failed: " + e.getMessage(),
                     documentId, collection.getId());
         } finally {
+            ocrData.setCompletedAt(OffsetDateTime.now());
             updateCollectionStatus(collection);
             ocrDataRepository.save(ocrData);
             documentCollectionRepository.save(collection);
+            kpiRecorder.ocrFinished(ocrData.getStatus(), ocrData.getCompletedAt());
 
             // Index document in Elasticsearch after OCR completion
             if (ocrData.getStatus() == OcrStatus.COMPLETED) {
@@ -164,6 +169,7 @@ public class ProcessOcr implements ProcessOcrService {
                 .startPage(startPage)
                 .endPage(endPage)
                 .pages(pages)
+                .probe(fileEntry.getProbe())
                 .fallbackEnabled(true)
                 .build();
     }
@@ -2,19 +2,26 @@ package com.extractor.unraveldocs.ocrprocessing.utils;
 
 import com.extractor.unraveldocs.documents.datamodel.DocumentUploadState;
 import com.extractor.unraveldocs.documents.model.FileEntry;
+import com.extractor.unraveldocs.documents.probe.DocumentProbe;
+import com.extractor.unraveldocs.documents.probe.DocumentProbeService;
 import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
 import com.extractor.unraveldocs.utils.imageupload.aws.AwsS3Service;
+import com.extractor.unraveldocs.utils.imageupload.rendition.RenditionProfile;
+import com.extractor.unraveldocs.utils.imageupload.rendition.RenditionService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Component
 @RequiredArgsConstructor
 public class FileStorageService {
     private final AwsS3Service awsS3Service;
+    private final RenditionService renditionService;
+    private final DocumentProbeService documentProbeService;
 
     public static int getStorageFailures(
             List<FileEntry> processedFiles,
@@ -38,7 +45,10 @@ public class FileStorageService {
     }
 
     /**
-     * Handles the successful upload of a file to storage.
+     * Handles the successful upload of a file to storage. The file is probed once and the
+     * probe is kept on the entry. A preview rendition is stored alongside the file when
+     * one can be made; if not, it is generated on first request. A PDF's preview is
+     * rendered from the document the probe has open, so the PDF is parsed once.
      *
      * @param file              The uploaded file.
      * @param originalFileName  The original filename of the uploaded file.
@@ -49,14 +59,26 @@ public class FileStorageService {
         String fileUrl = awsS3Service.uploadFile(file, fileName);
 
         String publicId = awsS3Service.generateRandomPublicId(originalFileName);
+        AtomicReference<String> pdfPreviewUrl = new AtomicReference<>();
+        DocumentProbe probe = documentProbeService.probe(file, (document, contentHash) ->
+                renditionService.createRendition(document, contentHash, file.getSize(),
+                        RenditionProfile.DOCUMENT_PREVIEW).ifPresent(pdfPreviewUrl::set));
+        // A PDF the probe could not open, or that needs a password, gets no preview
+        String previewUrl = DocumentProbeService.isPdf(file.getContentType(), originalFileName)
+                ? pdfPreviewUrl.get()
+                : renditionService.createRendition(file, RenditionProfile.DOCUMENT_PREVIEW).orElse(null);
 
         return FileEntry.builder()
                 .originalFileName(originalFileName)
                 .fileUrl(fileUrl)
+                .previewUrl(previewUrl)
                 .storageId(publicId)
                 .fileType(file.getContentType())
                 .fileSize(file.getSize())
                 .uploadStatus(DocumentUploadState.SUCCESS.toString())
+                .pageCount(probe.pageCount())
+                .contentHash(probe.contentHash())
+                .probe(probe)
                 .build();
     }
 }
@@ -1,11 +1,14 @@
 package com.extractor.unraveldocs.ocrprocessing.utils;
 
 import com.extractor.unraveldocs.ocrprocessing.dto.request.PdfPageRange;
+import com.extractor.unraveldocs.ocrprocessing.preprocessing.ImagePreprocessor;
 import lombok.extern.slf4j.Slf4j;
 import net.sourceforge.tess4j.Tesseract;
 import net.sourceforge.tess4j.TesseractException;
 import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
 import org.apache.pdfbox.rendering.PDFRenderer;
 import org.apache.pdfbox.text.PDFTextStripper;
 
@@ -14,6 +17,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Utility for extracting text from PDF files.
@@ -27,6 +31,14 @@ import java.util.List;
  * </ol>
  * Supports optional page selection — either a contiguous range or discrete
  * pages.
+ * <p>
+ * When the upload probe has recorded which pages have a text layer, each page is
+ * routed on its own instead: text-layer pages are extracted directly and only the
+ * other pages are rendered and OCR'd.
+ * <p>
+ * With an {@link ImagePreprocessor}, scanned pages are rendered in gray at the
+ * preprocessor's DPI and cleaned up before OCR; without one they are rendered in
+ * colour at 300 DPI.
  */
 @Slf4j
 public final class PdfTextExtractor {
@@ -41,9 +53,32 @@ public final class PdfTextExtractor {
     public static String extractTextFromUrl(String pdfUrl, PdfPageRange pageRange,
             String tesseractDataPath, String language)
             throws IOException, TesseractException {
+        return extractTextFromUrl(pdfUrl, pageRange, null, tesseractDataPath, language);
+    }
+
+    /**
+     * Extract text from a PDF URL, routing each page by its probed text layer.
+     *
+     * @param textLayerPages 0-indexed pages with a text layer, or null if unknown
+     */
+    public static String extractTextFromUrl(String pdfUrl, PdfPageRange pageRange, Set<Integer> textLayerPages,
+            String tesseractDataPath, String language)
+            throws IOException, TesseractException {
+        return extractTextFromUrl(pdfUrl, pageRange, textLayerPages, tesseractDataPath, language, null);
+    }
+
+    /**
+     * Extract text from a PDF URL, preprocessing the pages that are OCR'd.
+     *
+     * @param preprocessor cleans up rendered pages before OCR, or null for none
+     */
+    public static String extractTextFromUrl(String pdfUrl, PdfPageRange pageRange, Set<Integer> textLayerPages,
+            String tesseractDataPath, String language, ImagePreprocessor preprocessor)
+            throws IOException, TesseractException {
         try (InputStream is = URI.create(pdfUrl).toURL().openStream()) {
             byte[] pdfBytes = is.readAllBytes();
-            return extractTextFromBytes(pdfBytes, pageRange, tesseractDataPath, language);
+            return extractTextFromBytes(pdfBytes, pageRange, textLayerPages, tesseractDataPath, language,
+                    preprocessor);
         }
     }
 
@@ -53,6 +88,28 @@ public final class PdfTextExtractor {
     public static String extractTextFromBytes(byte[] pdfBytes, PdfPageRange pageRange,
             String tesseractDataPath, String language)
             throws IOException, TesseractException {
+        return extractTextFromBytes(pdfBytes, pageRange, null, tesseractDataPath, language);
+    }
+
+    /**
+     * Extract text from PDF bytes, routing each page by its probed text layer.
+     *
+     * @param textLayerPages 0-indexed pages with a text layer, or null if unknown
+     */
+    public static String extractTextFromBytes(byte[] pdfBytes, PdfPageRange pageRange, Set<Integer> textLayerPages,
+            String tesseractDataPath, String language)
+            throws IOException, TesseractException {
+        return extractTextFromBytes(pdfBytes, pageRange, textLayerPages, tesseractDataPath, language, null);
+    }
+
+    /**
+     * Extract text from PDF bytes, preprocessing the pages that are OCR'd.
+     *
+     * @param preprocessor cleans up rendered pages before OCR, or null for none
+     */
+    public static String extractTextFromBytes(byte[] pdfBytes, PdfPageRange pageRange, Set<Integer> textLayerPages,
+            String tesseractDataPath, String language, ImagePreprocessor preprocessor)
+            throws IOException, TesseractException {
         try (PDDocument document = Loader.loadPDF(pdfBytes)) {
             int totalPages = document.getNumberOfPages();
             log.info("PDF loaded with {} pages", totalPages);
@@ -64,6 +121,11 @@ public final class PdfTextExtractor {
             // Resolve which pages to process (0-indexed)
             List<Integer> pagesToProcess = resolvePages(pageRange, totalPages);
 
+            if (textLayerPages != null) {
+                return extractByPage(document, pagesToProcess, totalPages, textLayerPages,
+                        tesseractDataPath, language, preprocessor);
+            }
+
             // Try direct text extraction first
             String directText = extractDirectText(document, pagesToProcess, totalPages);
             if (directText != null && !directText.isBlank()) {
@@ -74,7 +136,7 @@ public final class PdfTextExtractor {
             // Fallback to OCR for scanned/image PDFs
             log.info("No direct text found, falling back to OCR for scanned PDF");
             return extractTextViaOcr(document, pagesToProcess, totalPages,
-                    tesseractDataPath, language);
+                    tesseractDataPath, language, preprocessor);
         }
     }
 
@@ -113,12 +175,61 @@ public final class PdfTextExtractor {
         return combinedText.toString();
     }
 
+    /**
+     * Extract each page from its text layer when it has one and OCR the rest. A page whose
+     * text layer yields no text, such as a scan carrying fonts but no glyphs, is OCR'd as
+     * well. The renderer and Tesseract are only set up if some page needs OCR.
+     */
+    private static String extractByPage(PDDocument document, List<Integer> pagesToProcess, int totalPages,
+            Set<Integer> textLayerPages, String tesseractDataPath, String language,
+            ImagePreprocessor preprocessor)
+            throws IOException, TesseractException {
+        long ocrPages = pagesToProcess.stream().filter(page -> !textLayerPages.contains(page)).count();
+        log.info("Extracting {} pages: {} with a text layer, {} by OCR",
+                pagesToProcess.size(), pagesToProcess.size() - ocrPages, ocrPages);
+
+        PDFRenderer renderer = null;
+        Tesseract tesseract = null;
+        StringBuilder combinedText = new StringBuilder();
+
+        for (int pageIndex : pagesToProcess) {
+            String pageText = null;
+            if (textLayerPages.contains(pageIndex)) {
+                PDFTextStripper stripper = new PDFTextStripper();
+                stripper.setStartPage(pageIndex + 1);
+                stripper.setEndPage(pageIndex + 1);
+                pageText = stripper.getText(document);
+                if (pageText == null || pageText.isBlank()) {
+                    log.debug("Text layer of PDF page {} is empty, falling back to OCR", pageIndex + 1);
+                    pageText = null;
+                }
+            }
+            if (pageText == null) {
+                if (renderer == null) {
+                    renderer = new PDFRenderer(document);
+                    tesseract = new Tesseract();
+                    tesseract.setDatapath(tesseractDataPath);
+                    tesseract.setLanguage(language != null ? language : "eng");
+                }
+                log.debug("OCR processing PDF page {} of {}", pageIndex + 1, totalPages);
+                pageText = tesseract.doOCR(renderForOcr(document, renderer, pageIndex, preprocessor));
+            }
+
+            if (!combinedText.isEmpty()) {
+                combinedText.append("\n--- Page ").append(pageIndex + 1).append(" ---\n");
+            }
+            combinedText.append(pageText != null ? pageText.strip() : "");
+        }
+
+        return combinedText.toString();
+    }
+
     /**
      * Render specified PDF pages to images and OCR with Tesseract.
      */
     private static String extractTextViaOcr(PDDocument document, List<Integer> pagesToProcess,
             int totalPages, String tesseractDataPath,
-            String language)
+            String language, ImagePreprocessor preprocessor)
             throws IOException, TesseractException {
         PDFRenderer renderer = new PDFRenderer(document);
 
@@ -130,8 +241,7 @@ public final class PdfTextExtractor {
 
         for (int pageIndex : pagesToProcess) {
             log.debug("OCR processing PDF page {} of {}", pageIndex + 1, totalPages);
-            BufferedImage pageImage = renderer.renderImageWithDPI(pageIndex, PDF_RENDER_DPI);
-            String pageText = tesseract.doOCR(pageImage);
+            String pageText = tesseract.doOCR(renderForOcr(document, renderer, pageIndex, preprocessor));
 
             if (!combinedText.isEmpty()) {
                 combinedText.append("\n--- Page ").append(pageIndex + 1).append(" ---\n");
@@ -141,4 +251,19 @@ public final class PdfTextExtractor {
 
         return combinedText.toString();
     }
+
+    /**
+     * Render a page for OCR. With a preprocessor the page is rendered straight to gray,
+     * saving the colour conversion, at a DPI that keeps large pages within its pixel cap.
+     */
+    private static BufferedImage renderForOcr(PDDocument document, PDFRenderer renderer, int pageIndex,
+            ImagePreprocessor preprocessor) throws IOException {
+        if (preprocessor == null || !preprocessor.isEnabled()) {
+            return renderer.renderImageWithDPI(pageIndex, PDF_RENDER_DPI);
+        }
+        PDRectangle box = document.getPage(pageIndex).getCropBox();
+        int dpi = preprocessor.renderDpi(box.getWidth(), box.getHeight());
+        BufferedImage pageImage = renderer.renderImageWithDPI(pageIndex, dpi, ImageType.GRAY);
+        return preprocessor.process(pageImage);
+    }
 }
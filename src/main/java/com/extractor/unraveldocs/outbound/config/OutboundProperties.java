@@ -0,0 +1,114 @@
+package com.extractor.unraveldocs.outbound.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Timeouts, pool sizes and resilience settings for calls to third-party providers.
+ * Each provider (paypal, paystack, mailgun, openai, ...) is configured under
+ * "outbound.providers.&lt;name&gt;"; providers without an entry use the built-in defaults.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "outbound")
+public class OutboundProperties {
+    /**
+     * Per-provider settings keyed by provider name.
+     */
+    private Map<String, ProviderSettings> providers = new HashMap<>();
+
+    /**
+     * Settings for the given provider, or the built-in defaults when it is not configured.
+     */
+    public ProviderSettings forProvider(String provider) {
+        ProviderSettings settings = providers.get(provider);
+        return settings != null ? settings : new ProviderSettings();
+    }
+
+    @Data
+    public static class ProviderSettings {
+        /**
+         * Time allowed to establish a TCP/TLS connection, in milliseconds.
+         */
+        private long connectTimeoutMs = 2000;
+
+        /**
+         * Time allowed between bytes of a response, in milliseconds.
+         */
+        private long readTimeoutMs = 10000;
+
+        /**
+         * Pooled connections kept for this provider.
+         */
+        private int maxConnections = 50;
+
+        /**
+         * Idle pooled connections are evicted after this long, in milliseconds.
+         */
+        private long idleConnectionTimeoutMs = 30000;
+
+        /**
+         * Calls allowed in flight at once. Further calls wait for a slot, then are rejected.
+         */
+        private int maxConcurrentCalls = 20;
+
+        /**
+         * Time a call may wait for a free concurrency slot, in milliseconds.
+         */
+        private long maxWaitMs = 50;
+
+        /**
+         * Failure percentage over the sliding window at which the circuit opens.
+         */
+        private int failureRateThreshold = 50;
+
+        /**
+         * Calls slower than this count as failures, in milliseconds. 0 disables slow-call tracking.
+         */
+        private long slowCallThresholdMs = 0;
+
+        /**
+         * Number of most recent calls the failure rate is computed over.
+         */
+        private int slidingWindowSize = 20;
+
+        /**
+         * Calls that must be recorded before the failure rate is evaluated.
+         */
+        private int minimumCalls = 10;
+
+        /**
+         * How long an open circuit rejects calls before letting probes through, in milliseconds.
+         */
+        private long openStateMs = 30000;
+
+        /**
+         * Probe calls allowed while half-open; all must succeed to close the circuit.
+         */
+        private int halfOpenProbes = 3;
+
+        /**
+         * Retries per call for idempotent requests that fail with an I/O error or a 502/503/504.
+         */
+        private int maxRetries = 2;
+
+        /**
+         * Delay before the first retry, doubled on each further retry, in milliseconds.
+         */
+        private long retryBackoffMs = 200;
+
+        /**
+         * Retries earned per call, as a percentage. Caps retries at this share of traffic.
+         */
+        private int retryBudgetPercent = 20;
+
+        /**
+         * Retry tokens held in reserve so low-traffic providers can still retry.
+         */
+        private int retryBudgetMinTokens = 5;
+    }
+}
@@ -0,0 +1,18 @@
+package com.extractor.unraveldocs.outbound.exception;
+
+import com.extractor.unraveldocs.exceptions.custom.ServiceUnavailableException;
+import lombok.Getter;
+
+/**
+ * Thrown when a call to a third-party provider is refused locally because its
+ * circuit is open or its concurrency limit is exhausted. The provider was not contacted.
+ */
+@Getter
+public class OutboundCallRejectedException extends ServiceUnavailableException {
+    private final String provider;
+
+    public OutboundCallRejectedException(String provider, String reason, long retryAfterSeconds) {
+        super(provider + " is temporarily unavailable: " + reason, retryAfterSeconds);
+        this.provider = provider;
+    }
+}
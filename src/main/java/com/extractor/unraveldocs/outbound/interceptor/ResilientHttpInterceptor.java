@@ -0,0 +1,98 @@
+package com.extractor.unraveldocs.outbound.interceptor;
+
+import com.extractor.unraveldocs.outbound.exception.OutboundCallRejectedException;
+import com.extractor.unraveldocs.outbound.resilience.ProviderGuard;
+import com.extractor.unraveldocs.outbound.resilience.TransientFailures;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Set;
+
+/**
+ * Runs every request of a provider's HTTP client through its {@link ProviderGuard}.
+ * 5xx and 429 responses and I/O errors count as failures. Idempotent requests that fail with an
+ * I/O error or a 502/503/504 are retried with exponential backoff while the provider's
+ * retry budget allows; non-idempotent requests (payment initialisation, sends) never are.
+ * <p>
+ * Local rejections surface as an {@link IOException}, so callers see the same
+ * {@code ResourceAccessException} they already handle for network failures.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ResilientHttpInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS = Set.of(
+            HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS,
+            HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.TRACE);
+
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(502, 503, 504);
+
+    private final ProviderGuard guard;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        int attempt = 0;
+        while (true) {
+            ClientHttpResponse response;
+            try {
+                response = guard.call(() -> execution.execute(request, body), ResilientHttpInterceptor::isTransientError);
+            } catch (OutboundCallRejectedException e) {
+                throw new IOException(e.getMessage(), e);
+            } catch (IOException e) {
+                if (!shouldRetry(request, attempt)) {
+                    throw e;
+                }
+                log.debug("Retrying {} {} after I/O error: {}", request.getMethod(), request.getURI(), e.getMessage());
+                backoff(attempt++);
+                continue;
+            }
+
+            if (RETRYABLE_STATUSES.contains(statusOf(response)) && shouldRetry(request, attempt)) {
+                log.debug("Retrying {} {} after status {}", request.getMethod(), request.getURI(), statusOf(response));
+                response.close();
+                backoff(attempt++);
+                continue;
+            }
+            return response;
+        }
+    }
+
+    private boolean shouldRetry(HttpRequest request, int attempt) {
+        return attempt < guard.getSettings().getMaxRetries()
+                && IDEMPOTENT_METHODS.contains(request.getMethod())
+                && guard.tryRetry();
+    }
+
+    private void backoff(int attempt) throws InterruptedIOException {
+        long delay = guard.getSettings().getRetryBackoffMs() << Math.min(attempt, 10);
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry " + guard.getProvider());
+        }
+    }
+
+    private static boolean isTransientError(ClientHttpResponse response) {
+        return TransientFailures.isTransientStatus(statusOf(response));
+    }
+
+    private static int statusOf(ClientHttpResponse response) {
+        try {
+            return response.getStatusCode().value();
+        } catch (IOException e) {
+            return 500;
+        }
+    }
+}
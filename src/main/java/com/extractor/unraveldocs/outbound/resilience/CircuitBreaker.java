@@ -0,0 +1,146 @@
+package com.extractor.unraveldocs.outbound.resilience;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker. Outcomes of the last {@code windowSize} calls are kept
+ * in a ring buffer; once at least {@code minimumCalls} are recorded and the failure
+ * percentage reaches the threshold, the circuit opens and rejects calls for
+ * {@code openStateNanos}. It then goes half-open and admits a fixed number of probes:
+ * if all succeed the circuit closes, and any failure opens it again.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openStateNanos;
+    private final int halfOpenProbes;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int recorded;
+    private int failures;
+    private long openedAt;
+    private int probesIssued;
+    private int probesSucceeded;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold,
+                          long openStateMillis, int halfOpenProbes) {
+        this(windowSize, minimumCalls, failureRateThreshold, openStateMillis, halfOpenProbes, System::nanoTime);
+    }
+
+    CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold,
+                   long openStateMillis, int halfOpenProbes, LongSupplier nanoClock) {
+        this.outcomes = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, outcomes.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openStateNanos = openStateMillis * 1_000_000L;
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Ask to make a call. Every {@code true} must be followed by exactly one of
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #releasePermission()}.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openStateNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesIssued = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesIssued >= halfOpenProbes) {
+                return false;
+            }
+            probesIssued++;
+        }
+        return true;
+    }
+
+    /**
+     * Return a permission whose call was never made (for example, rejected by a bulkhead).
+     */
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && probesIssued > 0) {
+            probesIssued--;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++probesSucceeded >= halfOpenProbes) {
+                close();
+            }
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * Whether a call made now could be let through, without reserving a permission.
+     * An open circuit whose wait has elapsed reports true so callers will send the probe.
+     */
+    public synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> nanoClock.getAsLong() - openedAt >= openStateNanos;
+            case HALF_OPEN -> probesIssued < halfOpenProbes;
+        };
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
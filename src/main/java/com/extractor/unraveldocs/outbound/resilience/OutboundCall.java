@@ -0,0 +1,12 @@
+package com.extractor.unraveldocs.outbound.resilience;
+
+/**
+ * A single attempt at a call to a third-party provider.
+ *
+ * @param <T> The result type
+ * @param <E> The checked exception the call may throw
+ */
+@FunctionalInterface
+public interface OutboundCall<T, E extends Exception> {
+    T call() throws E;
+}
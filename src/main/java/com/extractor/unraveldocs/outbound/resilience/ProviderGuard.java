@@ -0,0 +1,209 @@
+package com.extractor.unraveldocs.outbound.resilience;
+
+import com.extractor.unraveldocs.outbound.config.OutboundProperties.ProviderSettings;
+import com.extractor.unraveldocs.outbound.exception.OutboundCallRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Resilience state for one provider: a circuit breaker, a concurrency bulkhead and a
+ * retry budget, plus the metrics that describe them. Every attempt passes through
+ * {@link #call}; a rejected attempt never reaches the network.
+ */
+public class ProviderGuard {
+
+    @Getter
+    private final String provider;
+    @Getter
+    private final ProviderSettings settings;
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final RetryBudget retryBudget;
+
+    private final Timer successTimer;
+    private final Timer failureTimer;
+    private final Timer nonTransientTimer;
+    private final Counter circuitRejections;
+    private final Counter bulkheadRejections;
+    private final Counter retriesAttempted;
+    private final Counter retriesDenied;
+
+    public ProviderGuard(String provider, ProviderSettings settings, MeterRegistry meterRegistry) {
+        this(provider, settings, meterRegistry, new CircuitBreaker(
+                settings.getSlidingWindowSize(),
+                settings.getMinimumCalls(),
+                settings.getFailureRateThreshold(),
+                settings.getOpenStateMs(),
+                settings.getHalfOpenProbes()));
+    }
+
+    ProviderGuard(String provider, ProviderSettings settings, MeterRegistry meterRegistry,
+                  CircuitBreaker circuitBreaker) {
+        this.provider = provider;
+        this.settings = settings;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = new Semaphore(Math.max(1, settings.getMaxConcurrentCalls()));
+        this.retryBudget = new RetryBudget(settings.getRetryBudgetPercent(), settings.getRetryBudgetMinTokens());
+
+        this.successTimer = Timer.builder("outbound.calls")
+                .description("Calls to third-party providers")
+                .tag("provider", provider)
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.failureTimer = Timer.builder("outbound.calls")
+                .description("Calls to third-party providers")
+                .tag("provider", provider)
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        this.nonTransientTimer = Timer.builder("outbound.calls")
+                .description("Calls to third-party providers")
+                .tag("provider", provider)
+                .tag("outcome", "non_transient_error")
+                .register(meterRegistry);
+        this.circuitRejections = Counter.builder("outbound.calls.rejected")
+                .description("Calls refused locally without contacting the provider")
+                .tag("provider", provider)
+                .tag("reason", "circuit_open")
+                .register(meterRegistry);
+        this.bulkheadRejections = Counter.builder("outbound.calls.rejected")
+                .description("Calls refused locally without contacting the provider")
+                .tag("provider", provider)
+                .tag("reason", "bulkhead_full")
+                .register(meterRegistry);
+        this.retriesAttempted = Counter.builder("outbound.retries")
+                .description("Retries of failed provider calls")
+                .tag("provider", provider)
+                .tag("result", "attempted")
+                .register(meterRegistry);
+        this.retriesDenied = Counter.builder("outbound.retries")
+                .description("Retries of failed provider calls")
+                .tag("provider", provider)
+                .tag("result", "budget_exhausted")
+                .register(meterRegistry);
+        Gauge.builder("outbound.circuit.state", circuitBreaker, cb -> cb.getState().ordinal())
+                .description("Circuit state: 0 closed, 1 open, 2 half-open")
+                .tag("provider", provider)
+                .register(meterRegistry);
+        Gauge.builder("outbound.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("Free concurrency slots")
+                .tag("provider", provider)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Make one attempt at a call. Exceptions matching {@code isTransient}, and results
+     * matching {@code isFailure}, are recorded as failures; so are calls slower than the
+     * configured slow-call threshold. Any other exception is rethrown without counting
+     * against the circuit, since the provider answered.
+     *
+     * @throws OutboundCallRejectedException if the circuit is open or no concurrency slot frees up in time
+     */
+    public <T, E extends Exception> T call(OutboundCall<T, E> call, Predicate<? super T> isFailure,
+                                           Predicate<? super Exception> isTransient) throws E {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            circuitRejections.increment();
+            throw new OutboundCallRejectedException(provider, "circuit open",
+                    Math.max(1, TimeUnit.MILLISECONDS.toSeconds(settings.getOpenStateMs())));
+        }
+        if (!acquireSlot()) {
+            circuitBreaker.releasePermission();
+            bulkheadRejections.increment();
+            throw new OutboundCallRejectedException(provider, "too many concurrent calls", 1);
+        }
+
+        retryBudget.onCall();
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.FAILURE;
+        try {
+            T result = call.call();
+            outcome = isFailure.test(result) || isSlow(System.nanoTime() - start) ? Outcome.FAILURE : Outcome.SUCCESS;
+            return result;
+        } catch (Exception e) {
+            if (!isTransient.test(e) && !isSlow(System.nanoTime() - start)) {
+                outcome = Outcome.NON_TRANSIENT_ERROR;
+            }
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            bulkhead.release();
+            switch (outcome) {
+                case SUCCESS -> {
+                    circuitBreaker.onSuccess();
+                    successTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                }
+                case NON_TRANSIENT_ERROR -> {
+                    circuitBreaker.onSuccess();
+                    nonTransientTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                }
+                case FAILURE -> {
+                    circuitBreaker.onFailure();
+                    failureTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+    }
+
+    /**
+     * Make one attempt at a call, classifying exceptions with {@link TransientFailures}.
+     */
+    public <T, E extends Exception> T call(OutboundCall<T, E> call, Predicate<? super T> isFailure) throws E {
+        return call(call, isFailure, TransientFailures::isTransient);
+    }
+
+    /**
+     * Make one attempt at a call that signals failure only by throwing.
+     */
+    public <T, E extends Exception> T call(OutboundCall<T, E> call) throws E {
+        return call(call, result -> false);
+    }
+
+    /**
+     * Withdraw a retry from the budget.
+     *
+     * @return false if the provider has used up its retry share and the failure should surface
+     */
+    public boolean tryRetry() {
+        if (retryBudget.tryWithdraw()) {
+            retriesAttempted.increment();
+            return true;
+        }
+        retriesDenied.increment();
+        return false;
+    }
+
+    /**
+     * Whether the provider is currently accepting calls, i.e. its circuit is not open.
+     */
+    public boolean isAvailable() {
+        return circuitBreaker.isCallPermitted();
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private boolean acquireSlot() {
+        try {
+            return bulkhead.tryAcquire(settings.getMaxWaitMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private enum Outcome {
+        SUCCESS, FAILURE, NON_TRANSIENT_ERROR
+    }
+
+    private boolean isSlow(long elapsedNanos) {
+        long threshold = settings.getSlowCallThresholdMs();
+        return threshold > 0 && elapsedNanos > TimeUnit.MILLISECONDS.toNanos(threshold);
+    }
+}
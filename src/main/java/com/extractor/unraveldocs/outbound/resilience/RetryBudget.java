@@ -0,0 +1,32 @@
+package com.extractor.unraveldocs.outbound.resilience;
+
+/**
+ * Token bucket that limits retries to a share of total traffic. Every call deposits
+ * {@code percent / 100} of a token and every retry withdraws a whole one, so during an
+ * outage retries cannot multiply load on the provider beyond that share. A small
+ * reserve lets quiet providers retry occasional transient errors.
+ */
+public class RetryBudget {
+
+    private final double depositPerCall;
+    private final double maxTokens;
+    private double tokens;
+
+    public RetryBudget(int percent, int minTokens) {
+        this.depositPerCall = Math.max(0, percent) / 100.0;
+        this.maxTokens = Math.max(1, minTokens) + depositPerCall * 100;
+        this.tokens = Math.max(1, minTokens);
+    }
+
+    public synchronized void onCall() {
+        tokens = Math.min(maxTokens, tokens + depositPerCall);
+    }
+
+    public synchronized boolean tryWithdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
@@ -0,0 +1,46 @@
+package com.extractor.unraveldocs.outbound.resilience;
+
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tells transient provider failures from the rest. Only timeouts, I/O errors and 5xx or
+ * 429 responses say something about a provider's health; a rejected request, such as a
+ * 400 or 404, means the provider answered and is not counted against its circuit.
+ * <p>
+ * Callers of SDKs with their own exception types combine this with a check for them.
+ */
+public final class TransientFailures {
+
+    private static final int MAX_CAUSE_DEPTH = 10;
+
+    private TransientFailures() {
+    }
+
+    /**
+     * Whether the error, or one of its causes, is a timeout, an I/O error or a transient
+     * HTTP status.
+     */
+    public static boolean isTransient(Throwable error) {
+        Throwable current = error;
+        for (int depth = 0; current != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            if (current instanceof IOException || current instanceof TimeoutException) {
+                return true;
+            }
+            if (current instanceof RestClientResponseException response) {
+                return isTransientStatus(response.getStatusCode().value());
+            }
+            current = current.getCause() == current ? null : current.getCause();
+        }
+        return false;
+    }
+
+    /**
+     * 5xx responses and 429 Too Many Requests.
+     */
+    public static boolean isTransientStatus(int status) {
+        return status >= 500 || status == 429;
+    }
+}
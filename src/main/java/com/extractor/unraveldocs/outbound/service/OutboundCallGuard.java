@@ -0,0 +1,55 @@
+package com.extractor.unraveldocs.outbound.service;
+
+import com.extractor.unraveldocs.outbound.config.OutboundProperties;
+import com.extractor.unraveldocs.outbound.resilience.ProviderGuard;
+import com.extractor.unraveldocs.outbound.resilience.TransientFailures;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Entry point for guarding calls made through provider SDKs (Mailgun, Twilio,
+ * Google Vision, Spring AI). HTTP clients built by {@link OutboundHttpClientFactory}
+ * share the same per-provider guards, so a provider's circuit and concurrency limit
+ * cover all traffic to it.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboundCallGuard {
+
+    private final OutboundProperties outboundProperties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ProviderGuard> guards = new ConcurrentHashMap<>();
+
+    /**
+     * The guard for a provider, created on first use from its configured settings.
+     */
+    public ProviderGuard forProvider(String provider) {
+        return guards.computeIfAbsent(provider,
+                name -> new ProviderGuard(name, outboundProperties.forProvider(name), meterRegistry));
+    }
+
+    /**
+     * Run an SDK call under the provider's circuit breaker and bulkhead. SDK calls are
+     * not retried here; the SDKs either retry themselves or the caller has its own fallback.
+     * Only exceptions matching {@code isTransient} count against the circuit.
+     *
+     * @throws com.extractor.unraveldocs.outbound.exception.OutboundCallRejectedException
+     *         if the call was refused without contacting the provider
+     */
+    public <T> T execute(String provider, Supplier<T> call, Predicate<? super Exception> isTransient) {
+        return forProvider(provider).call(call::get, result -> false, isTransient);
+    }
+
+    /**
+     * Run an SDK call whose transient failures {@link TransientFailures} recognises.
+     */
+    public <T> T execute(String provider, Supplier<T> call) {
+        return execute(provider, call, TransientFailures::isTransient);
+    }
+}
@@ -0,0 +1,104 @@
+package com.extractor.unraveldocs.outbound.service;
+
+import com.extractor.unraveldocs.outbound.config.OutboundProperties.ProviderSettings;
+import com.extractor.unraveldocs.outbound.interceptor.ResilientHttpInterceptor;
+import com.extractor.unraveldocs.outbound.resilience.ProviderGuard;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds HTTP clients for third-party providers. Each provider gets its own pooled
+ * Apache HttpClient with its configured connect, read and pool-acquisition timeouts,
+ * and every request passes through the provider's {@link ProviderGuard}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboundHttpClientFactory {
+
+    private final OutboundCallGuard outboundCallGuard;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CloseableHttpClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * A RestClient builder preconfigured for the provider. Callers add the base URL and headers.
+     */
+    public RestClient.Builder restClientBuilder(String provider) {
+        return RestClient.builder()
+                .requestFactory(requestFactory(provider))
+                .requestInterceptor(new ResilientHttpInterceptor(outboundCallGuard.forProvider(provider)));
+    }
+
+    /**
+     * A RestTemplate preconfigured for the provider.
+     */
+    public RestTemplate restTemplate(String provider) {
+        RestTemplate restTemplate = new RestTemplate(requestFactory(provider));
+        restTemplate.getInterceptors().add(new ResilientHttpInterceptor(outboundCallGuard.forProvider(provider)));
+        return restTemplate;
+    }
+
+    private ClientHttpRequestFactory requestFactory(String provider) {
+        ProviderSettings settings = outboundCallGuard.forProvider(provider).getSettings();
+        CloseableHttpClient httpClient = clients.computeIfAbsent(provider, name -> createHttpClient(name, settings));
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    private CloseableHttpClient createHttpClient(String provider, ProviderSettings settings) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(settings.getMaxConnections())
+                .setMaxConnPerRoute(settings.getMaxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(settings.getConnectTimeoutMs()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(settings.getReadTimeoutMs()))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, provider).bindTo(meterRegistry);
+
+        log.info("Creating outbound HTTP client for {}: connect {}ms, read {}ms, pool {}",
+                provider, settings.getConnectTimeoutMs(), settings.getReadTimeoutMs(), settings.getMaxConnections());
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(settings.getConnectTimeoutMs()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(settings.getReadTimeoutMs()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(settings.getIdleConnectionTimeoutMs()))
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.forEach((provider, client) -> {
+            try {
+                client.close();
+            } catch (IOException e) {
+                log.warn("Failed to close outbound HTTP client for {}: {}", provider, e.getMessage());
+            }
+        });
+        clients.clear();
+    }
+}
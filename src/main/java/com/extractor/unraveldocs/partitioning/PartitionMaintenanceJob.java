@@ -0,0 +1,41 @@
+package com.extractor.unraveldocs.partitioning;
+
+import com.extractor.unraveldocs.scheduling.ChunkResult;
+import com.extractor.unraveldocs.scheduling.ClusterJob;
+import com.extractor.unraveldocs.scheduling.ClusterJobRunner;
+import com.extractor.unraveldocs.scheduling.KeyRange;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Daily upkeep of the month-partitioned tables, once per cluster as a single-chunk job:
+ * creates the coming months' partitions and drops those past their retention.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class PartitionMaintenanceJob {
+
+    static final String JOB_NAME = "partition-maintenance";
+
+    private final PartitionManager partitionManager;
+    private final ClusterJobRunner clusterJobRunner;
+
+    @Scheduled(cron = "${partitioning.maintenance-cron:0 15 2 * * *}")
+    public void maintainPartitions() {
+        clusterJobRunner.run(ClusterJob.single(JOB_NAME, this::maintain));
+    }
+
+    ChunkResult maintain(KeyRange range, OffsetDateTime runStartedAt) {
+        int created = partitionManager.createFuturePartitions(runStartedAt);
+        int dropped = partitionManager.applyConfiguredRetention(runStartedAt);
+        log.info("Partition maintenance completed: created={}, dropped={}", created, dropped);
+        return ChunkResult.of(created + dropped);
+    }
+}
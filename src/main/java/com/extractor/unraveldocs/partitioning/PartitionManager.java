@@ -0,0 +1,131 @@
+package com.extractor.unraveldocs.partitioning;
+
+import com.extractor.unraveldocs.partitioning.PartitionRepository.MonthlyPartition;
+import com.extractor.unraveldocs.partitioning.config.PartitionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * Creates future monthly partitions and applies retention by dropping whole partitions.
+ * <p>
+ * Dropping a month is a catalog change rather than a delete of its rows: it writes no
+ * WAL per row, leaves no dead tuples to vacuum and does not hold row locks against the
+ * inserts going into the current month.
+ */
+@Slf4j
+@Service
+public class PartitionManager {
+
+    private final PartitionRepository partitionRepository;
+    private final PartitionProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public PartitionManager(PartitionRepository partitionRepository,
+                            PartitionProperties properties,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.partitionRepository = partitionRepository;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        // Each DDL statement commits on its own, so a detach holds the table's lock only
+        // for itself and not for the rest of the maintenance run
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Make sure every table in {@code partitioning.monthly-tables} has partitions from the
+     * current month through {@code monthsAhead} months ahead.
+     *
+     * @return partitions created
+     */
+    public int createFuturePartitions(OffsetDateTime now) {
+        OffsetDateTime to = now.plusMonths(Math.max(0, properties.getMonthsAhead()));
+        int created = 0;
+        for (String table : properties.getMonthlyTables()) {
+            if (partitionRepository.defaultPartitionHasRows(table)) {
+                // Their month's partition cannot be created until the rows are moved
+                log.warn("Rows of {} fell through to its default partition; create missing partitions", table);
+            }
+            try {
+                Integer count = transactionTemplate.execute(status ->
+                        partitionRepository.createMonthlyPartitions(table, now, to));
+                created += count == null ? 0 : count;
+            } catch (DataAccessException e) {
+                log.error("Could not create partitions of {}: {}", table, e.getMessage());
+            }
+        }
+        if (created > 0) {
+            log.info("Created {} monthly partitions", created);
+        }
+        return created;
+    }
+
+    /**
+     * Detach and drop the table's partitions that hold only rows older than
+     * {@code cutoff}. The partition containing the cutoff is kept whole.
+     *
+     * @return partitions dropped
+     */
+    public int dropPartitionsBefore(String table, OffsetDateTime cutoff) {
+        YearMonth cutoffMonth = YearMonth.from(cutoff.withOffsetSameInstant(ZoneOffset.UTC));
+        int dropped = 0;
+        for (MonthlyPartition partition : partitionRepository.findMonthlyPartitions(table)) {
+            if (!partition.month().isBefore(cutoffMonth)) {
+                break;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> partitionRepository.detachPartition(
+                        table, partition.name(), properties.getLockTimeoutMs()));
+                transactionTemplate.executeWithoutResult(status ->
+                        partitionRepository.dropDetachedPartition(partition.name()));
+            } catch (DataAccessException e) {
+                // Usually the lock timeout; the partition is retried on the next run
+                log.warn("Could not drop partition {} of {}: {}", partition.name(), table, e.getMessage());
+                break;
+            }
+            dropped++;
+            Counter.builder("partitions.dropped")
+                    .description("Monthly partitions dropped by retention")
+                    .tag("table", table)
+                    .register(meterRegistry)
+                    .increment();
+            log.info("Dropped partition {} of {} (retention cutoff {})", partition.name(), table, cutoff);
+        }
+        return dropped;
+    }
+
+    /**
+     * Apply {@code partitioning.retention-months} to the tables listed there.
+     *
+     * @return partitions dropped
+     */
+    public int applyConfiguredRetention(OffsetDateTime now) {
+        YearMonth current = YearMonth.from(now.withOffsetSameInstant(ZoneOffset.UTC));
+        int dropped = 0;
+        for (var entry : properties.getRetentionMonths().entrySet()) {
+            Integer months = entry.getValue();
+            if (months == null || months <= 0) {
+                continue;
+            }
+            if (!properties.getMonthlyTables().contains(entry.getKey())) {
+                log.warn("Retention of {} ignored: it is not a monthly partitioned table", entry.getKey());
+                continue;
+            }
+            OffsetDateTime cutoff = current.minusMonths(months).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+            dropped += dropPartitionsBefore(entry.getKey(), cutoff);
+        }
+        return dropped;
+    }
+}
@@ -0,0 +1,116 @@
+package com.extractor.unraveldocs.partitioning;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JDBC access to the partitions of range-partitioned tables. Partitions are named
+ * {@code <table>_pYYYYMM} by {@code create_monthly_partitions}, see V65.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PartitionRepository {
+
+    static final String DEFAULT_SUFFIX = "_default";
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final Pattern MONTHLY_SUFFIX = Pattern.compile("_p(\\d{6})$");
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Monthly partitions attached to the table, oldest first.
+     */
+    public List<MonthlyPartition> findMonthlyPartitions(String table) {
+        return jdbcTemplate.queryForList("""
+                        SELECT c.relname
+                        FROM pg_inherits i
+                        JOIN pg_class c ON c.oid = i.inhrelid
+                        JOIN pg_class p ON p.oid = i.inhparent
+                        WHERE p.relname = ? AND p.relnamespace = current_schema()::regnamespace
+                        """, String.class, table).stream()
+                .map(MonthlyPartition::parse)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(MonthlyPartition::month))
+                .toList();
+    }
+
+    /**
+     * Create the missing monthly partitions of the table from {@code from} through
+     * {@code to}.
+     *
+     * @return partitions created
+     */
+    public int createMonthlyPartitions(String table, OffsetDateTime from, OffsetDateTime to) {
+        Integer created = jdbcTemplate.queryForObject("SELECT create_monthly_partitions(?, ?, ?)",
+                Integer.class, identifier(table), from, to);
+        return created == null ? 0 : created;
+    }
+
+    /**
+     * Whether rows have fallen through to the table's default partition. They block the
+     * creation of the partition for their month.
+     */
+    public boolean defaultPartitionHasRows(String table) {
+        String partition = identifier(table + DEFAULT_SUFFIX);
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition);
+        if (!Boolean.TRUE.equals(exists)) {
+            return false;
+        }
+        Boolean hasRows = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + partition + ")", Boolean.class);
+        return Boolean.TRUE.equals(hasRows);
+    }
+
+    /**
+     * Detach a partition from its table. Must run in a transaction; gives up once
+     * {@code lockTimeoutMs} passes waiting for the table's lock.
+     */
+    public void detachPartition(String table, String partition, long lockTimeoutMs) {
+        jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class,
+                lockTimeoutMs + "ms");
+        jdbcTemplate.execute("ALTER TABLE " + identifier(table) + " DETACH PARTITION " + identifier(partition));
+    }
+
+    /**
+     * Drop a partition that is no longer attached. Only the partition itself is locked.
+     */
+    public void dropDetachedPartition(String partition) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + identifier(partition));
+    }
+
+    /**
+     * Names are spliced into DDL, so anything but a plain lower-case identifier is refused.
+     */
+    private static String identifier(String name) {
+        if (name == null || !IDENTIFIER.matcher(name).matches()) {
+            throw new IllegalArgumentException("Not a plain table name: " + name);
+        }
+        return name;
+    }
+
+    /**
+     * A partition holding one UTC month of its table.
+     */
+    public record MonthlyPartition(String name, YearMonth month) {
+
+        static MonthlyPartition parse(String name) {
+            Matcher matcher = MONTHLY_SUFFIX.matcher(name);
+            if (!matcher.find()) {
+                return null;
+            }
+            return new MonthlyPartition(name, YearMonth.parse(matcher.group(1), MONTH_FORMAT));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.extractor.unraveldocs.partitioning.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Upkeep of the month-partitioned tables: how far ahead partitions are created and how
+ * long each table keeps its history.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "partitioning")
+public class PartitionProperties {
+    /**
+     * Tables partitioned by month that the maintenance job keeps up. Tables partitioned
+     * any other way, such as {@code outbox_events} by day, are maintained by their owner
+     * and must not be listed.
+     */
+    private List<String> monthlyTables = new ArrayList<>(
+            List.of("notifications", "credit_transactions", "coupon_usage"));
+
+    /**
+     * Months after the current one that always have a partition, so inserts never fall
+     * through to the default partition while the maintenance job is not running.
+     */
+    private int monthsAhead = 3;
+
+    /**
+     * Cron expression of the maintenance job.
+     */
+    private String maintenanceCron = "0 15 2 * * *";
+
+    /**
+     * How long detaching a partition may wait for the parent table's lock, in
+     * milliseconds. A detach that times out is retried on the next run instead of
+     * queueing inserts behind it.
+     */
+    private long lockTimeoutMs = 5000;
+
+    /**
+     * Full months of history kept per table, besides the current month. Older partitions
+     * are detached and dropped. Tables not listed keep their history; tables not in
+     * {@link #monthlyTables} are ignored.
+     * {@code notifications} is trimmed by {@code notification.notificationRetentionDays}.
+     */
+    private Map<String, Integer> retentionMonths = new HashMap<>();
+}
@@ -0,0 +1,80 @@
+package com.extractor.unraveldocs.payment.common.service;
+
+import com.extractor.unraveldocs.payment.common.dto.SubscriptionResponse;
+import com.extractor.unraveldocs.payment.common.enums.PaymentGateway;
+import com.extractor.unraveldocs.payment.common.exception.PaymentException;
+import com.extractor.unraveldocs.payment.enums.SubscriptionStatus;
+import com.extractor.unraveldocs.payment.paypal.model.PayPalSubscription;
+import com.extractor.unraveldocs.payment.paypal.repository.PayPalSubscriptionRepository;
+import com.extractor.unraveldocs.payment.paystack.repository.PaystackSubscriptionRepository;
+import com.extractor.unraveldocs.payment.stripe.model.StripeSubscription;
+import com.extractor.unraveldocs.payment.stripe.repository.StripeSubscriptionRepository;
+import com.extractor.unraveldocs.user.lifecycle.AccountPurgeStep;
+import com.extractor.unraveldocs.user.lifecycle.PurgeTarget;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cancels an account's live subscriptions with each payment provider so a deleted
+ * account is never billed again. Only subscriptions still active locally are
+ * cancelled, and each cancellation updates the local status, so a retry skips the
+ * ones already done. Payment records themselves go with the account.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentPurgeStep implements AccountPurgeStep {
+    private final PaymentGatewayFactory paymentGatewayFactory;
+    private final StripeSubscriptionRepository stripeSubscriptionRepository;
+    private final PaystackSubscriptionRepository paystackSubscriptionRepository;
+    private final PayPalSubscriptionRepository payPalSubscriptionRepository;
+
+    @Override
+    public String getStepName() {
+        return "payments";
+    }
+
+    @Override
+    public void purge(PurgeTarget target) {
+        String userId = target.userId();
+        List<String> failures = new ArrayList<>();
+
+        for (StripeSubscription subscription : stripeSubscriptionRepository.findAllActiveByUserId(userId)) {
+            if (cancel(PaymentGateway.STRIPE, subscription.getStripeSubscriptionId(), failures)) {
+                // Stripe reports the cancellation by webhook; record it now so a retry skips it
+                subscription.setStatus(SubscriptionStatus.CANCELED);
+                subscription.setCanceledAt(OffsetDateTime.now());
+                stripeSubscriptionRepository.save(subscription);
+            }
+        }
+        paystackSubscriptionRepository.findByUser_IdAndStatus(userId, "active")
+                .ifPresent(subscription -> cancel(PaymentGateway.PAYSTACK, subscription.getSubscriptionCode(), failures));
+        for (PayPalSubscription subscription : payPalSubscriptionRepository.findActiveOrSuspendedByUserId(userId)) {
+            cancel(PaymentGateway.PAYPAL, subscription.getSubscriptionId(), failures);
+        }
+
+        if (!failures.isEmpty()) {
+            throw new PaymentException("Could not cancel subscriptions: " + String.join("; ", failures));
+        }
+    }
+
+    private boolean cancel(PaymentGateway gateway, String subscriptionId, List<String> failures) {
+        var provider = paymentGatewayFactory.getProviderIfAvailable(gateway);
+        if (provider.isEmpty()) {
+            failures.add(gateway + " " + subscriptionId + ": provider not configured");
+            return false;
+        }
+        SubscriptionResponse response = provider.get().cancelSubscription(subscriptionId, true);
+        if (!response.isSuccess()) {
+            failures.add(gateway + " " + subscriptionId + ": " + response.getErrorMessage());
+            return false;
+        }
+        log.info("Cancelled {} subscription {} for account deletion", gateway, subscriptionId);
+        return true;
+    }
+}
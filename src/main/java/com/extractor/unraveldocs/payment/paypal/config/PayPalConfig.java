@@ -1,5 +1,6 @@
 package com.extractor.unraveldocs.payment.paypal.config;
 
+import com.extractor.unraveldocs.outbound.service.OutboundHttpClientFactory;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -69,11 +70,12 @@ public class PayPalConfig {
      * Create a RestClient for PayPal API calls.
      * Note: This client does not include authentication by default.
      * Authentication should be handled per-request using OAuth2 tokens.
+     * Timeouts, pooling and circuit breaking come from "outbound.providers.paypal".
      */
     @Bean
-    public RestClient paypalRestClient() {
+    public RestClient paypalRestClient(OutboundHttpClientFactory outboundHttpClientFactory) {
         log.info("Initializing PayPal RestClient in {} mode", mode);
-        return RestClient.builder()
+        return outboundHttpClientFactory.restClientBuilder("paypal")
                 .baseUrl(getBaseUrl())
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
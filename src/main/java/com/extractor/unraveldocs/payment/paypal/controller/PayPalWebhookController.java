@@ -1,8 +1,12 @@
 package com.extractor.unraveldocs.payment.paypal.controller;
 
 import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
-import com.extractor.unraveldocs.payment.paypal.service.PayPalWebhookService;
+import com.extractor.unraveldocs.payment.common.enums.PaymentGateway;
 import com.extractor.unraveldocs.payment.paypal.service.PayPalWebhookSignatureService;
+import com.extractor.unraveldocs.payment.webhook.service.WebhookInboxService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 
 /**
  * Controller for PayPal webhook events.
+ * Verified events are stored in the webhook inbox and processed by its workers.
  */
 @Slf4j
 @RestController
@@ -22,15 +27,16 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "PayPal Webhook", description = "Endpoint for receiving PayPal webhook events")
 public class PayPalWebhookController {
 
-    private final PayPalWebhookService webhookService;
+    private final WebhookInboxService webhookInboxService;
     private final PayPalWebhookSignatureService signatureService;
+    private final ObjectMapper objectMapper;
     private final SanitizeLogging sanitizer;
 
     @Value("${paypal.webhook.verification-enabled:true}")
     private boolean verificationEnabled;
 
     @PostMapping("/webhook")
-    @Operation(summary = "Receive PayPal webhook", description = "Process PayPal webhook events")
+    @Operation(summary = "Receive PayPal webhook", description = "Receive PayPal webhook events for processing")
     public ResponseEntity<String> handleWebhook(
             @RequestBody String payload,
             @RequestHeader(value = "PAYPAL-TRANSMISSION-ID", required = false) String transmissionId,
@@ -60,20 +66,40 @@ public class PayPalWebhookController {
                 log.debug("PayPal webhook signature verification is disabled");
             }
 
-            webhookService.processWebhookEvent(payload);
+            JsonNode event = objectMapper.readTree(payload);
+            String eventId = WebhookInboxService.firstText(event, "/id");
+            String eventType = WebhookInboxService.firstText(event, "/event_type");
+            if (eventId == null || eventType == null) {
+                log.warn("PayPal webhook without event id or type, transmission ID: {}",
+                        sanitizer.sanitizeLogging(transmissionId));
+                return ResponseEntity.badRequest().body("Webhook event id or type missing");
+            }
+
+            // Subscription events name the subscriber, payment events the order or agreement
+            String partitionKey = WebhookInboxService.firstText(event,
+                    "/resource/subscriber/payer_id",
+                    "/resource/payer/payer_id",
+                    "/resource/billing_agreement_id",
+                    "/resource/custom_id",
+                    "/resource/supplementary_data/related_ids/order_id");
 
-            return ResponseEntity.ok("Webhook processed successfully");
+            boolean stored = webhookInboxService.accept(PaymentGateway.PAYPAL, eventId, eventType, partitionKey, payload);
 
+            return ResponseEntity.ok(stored ? "Webhook received" : "Webhook already received");
+
+        } catch (JsonProcessingException e) {
+            log.warn("PayPal webhook payload could not be parsed: {}", sanitizer.sanitizeLogging(e.getOriginalMessage()));
+            return ResponseEntity.badRequest().body("Invalid payload");
         } catch (IllegalStateException e) {
             // Webhook ID not configured
             log.error("PayPal webhook configuration error: {}", sanitizer.sanitizeLogging(e.getMessage()));
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Webhook configuration error");
         } catch (Exception e) {
-            log.error("Failed to process PayPal webhook: {}", sanitizer.sanitizeLogging(e.getMessage()), e);
-            // Return 200 to prevent PayPal from retrying
-            // Log the error for investigation
-            return ResponseEntity.ok("Webhook received but processing failed: " + e.getMessage());
+            // Not stored: a non-2xx response makes PayPal deliver the event again
+            log.error("Failed to receive PayPal webhook: {}", sanitizer.sanitizeLogging(e.getMessage()), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Webhook could not be stored");
         }
     }
 }
@@ -129,6 +129,12 @@ public class PayPalPaymentService {
             JsonNode orderJson = objectMapper.readTree(response);
             PayPalOrderResponse orderResponse = parseOrderResponse(orderJson);
 
+            // Hold a usage slot until the capture webhook confirms or denies it. An order
+            // left without a slot is never recorded, so it cannot be paid with the coupon.
+            if (appliedCouponCode != null) {
+                couponValidationService.reserveCouponUsage(appliedCouponCode, user, orderResponse.getId());
+            }
+
             // Record the payment with coupon info
             recordPayment(user, customer, orderResponse, request,
                     originalAmount, finalAmount, discountAmount, appliedCouponCode);
@@ -0,0 +1,27 @@
+package com.extractor.unraveldocs.payment.paypal.service;
+
+import com.extractor.unraveldocs.payment.common.enums.PaymentGateway;
+import com.extractor.unraveldocs.payment.webhook.model.WebhookInboxEvent;
+import com.extractor.unraveldocs.payment.webhook.service.WebhookEventHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Processes PayPal events from the webhook inbox.
+ */
+@Component
+@RequiredArgsConstructor
+public class PayPalWebhookEventHandler implements WebhookEventHandler {
+
+    private final PayPalWebhookService webhookService;
+
+    @Override
+    public PaymentGateway getProvider() {
+        return PaymentGateway.PAYPAL;
+    }
+
+    @Override
+    public void handle(WebhookInboxEvent inboxEvent) {
+        webhookService.processWebhookEvent(inboxEvent.payload());
+    }
+}
@@ -197,6 +197,9 @@ public class PayPalWebhookService {
                         ? resource.get("status_details").toString()
                         : "Payment denied";
                 paymentService.updatePaymentStatus(payment.getOrderId(), PaymentStatus.FAILED, reason);
+                if (payment.getCouponCode() != null && !payment.getCouponCode().isBlank()) {
+                    couponValidationService.releaseCouponReservation(payment.getCouponCode(), payment.getOrderId());
+                }
             });
 
         } catch (Exception e) {
@@ -1,5 +1,6 @@
 package com.extractor.unraveldocs.payment.paystack.config;
 
+import com.extractor.unraveldocs.outbound.service.OutboundHttpClientFactory;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -36,8 +37,8 @@ public class PaystackConfig {
     private String defaultCurrency;
 
     @Bean
-    public RestClient paystackRestClient() {
-        return RestClient.builder()
+    public RestClient paystackRestClient(OutboundHttpClientFactory outboundHttpClientFactory) {
+        return outboundHttpClientFactory.restClientBuilder("paystack")
                 .baseUrl(baseUrl)
                 .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + secretKey)
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
@@ -1,9 +1,11 @@
 package com.extractor.unraveldocs.payment.paystack.controller;
 
 import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
-import com.extractor.unraveldocs.payment.paystack.dto.webhook.PaystackWebhookEvent;
+import com.extractor.unraveldocs.payment.common.enums.PaymentGateway;
 import com.extractor.unraveldocs.payment.paystack.exception.PaystackWebhookException;
 import com.extractor.unraveldocs.payment.paystack.service.PaystackWebhookService;
+import com.extractor.unraveldocs.payment.webhook.service.WebhookInboxService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,7 +15,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 /**
- * Controller for handling Paystack webhook events
+ * Controller for handling Paystack webhook events.
+ * Requests without a valid {@code x-paystack-signature} are rejected with 400.
+ * Verified events are stored in the webhook inbox and processed by its workers.
  */
 @Slf4j
 @RestController
@@ -23,6 +27,7 @@ import org.springframework.web.bind.annotation.*;
 public class PaystackWebhookController {
 
     private final PaystackWebhookService webhookService;
+    private final WebhookInboxService webhookInboxService;
     private final ObjectMapper objectMapper;
     private final SanitizeLogging sanitize;
 
@@ -31,33 +36,44 @@ public class PaystackWebhookController {
      * This endpoint should be publicly accessible and configured in Paystack dashboard
      */
     @PostMapping
-    @Operation(summary = "Handle webhook events", description = "Receive and process Paystack webhook events")
+    @Operation(summary = "Handle webhook events", description = "Receive Paystack webhook events for processing")
     public ResponseEntity<String> handleWebhook(
             @RequestHeader(value = "x-paystack-signature", required = false) String signature,
             @RequestBody String payload
     ) {
 
-        try {
-            // Parse payload to event object
-            PaystackWebhookEvent event = objectMapper.readValue(payload, PaystackWebhookEvent.class);
-
-            log.info("Received Paystack webhook event: {}", sanitize.sanitizeLogging(event.getEvent()));
+        // Verify signature; an unsigned request is rejected like a forged one
+        if (signature == null || signature.isBlank()) {
+            log.warn("Paystack webhook without signature rejected");
+            throw new PaystackWebhookException("Missing webhook signature");
+        }
+        if (!webhookService.verifyWebhookSignature(payload, signature)) {
+            log.warn("Invalid webhook signature");
+            throw new PaystackWebhookException("Invalid webhook signature");
+        }
 
-            // Verify signature
-            if (signature != null && !webhookService.verifyWebhookSignature(payload, signature)) {
-                log.warn("Invalid webhook signature");
-                throw new PaystackWebhookException("Invalid webhook signature");
+        try {
+            JsonNode event = objectMapper.readTree(payload);
+            String eventType = WebhookInboxService.firstText(event, "/event");
+            if (eventType == null) {
+                throw new PaystackWebhookException("Webhook event type missing");
             }
 
-            // Process the event
-            webhookService.processWebhookEvent(event);
+            log.info("Received Paystack webhook event: {}", sanitize.sanitizeLogging(eventType));
+
+            webhookInboxService.accept(
+                    PaymentGateway.PAYSTACK,
+                    webhookService.resolveEventId(eventType, payload),
+                    eventType,
+                    WebhookInboxService.firstText(event, "/data/customer/customer_code", "/data/customer/email"),
+                    payload);
 
-            return ResponseEntity.ok("Webhook processed successfully");
+            return ResponseEntity.ok("Webhook received");
         } catch (PaystackWebhookException e) {
             throw e;
         } catch (Exception e) {
-            log.error("Failed to process webhook: {}", e.getMessage(), e);
-            throw new PaystackWebhookException("Failed to process webhook", e);
+            log.error("Failed to receive webhook: {}", e.getMessage(), e);
+            throw new PaystackWebhookException("Failed to receive webhook", e);
         }
     }
 
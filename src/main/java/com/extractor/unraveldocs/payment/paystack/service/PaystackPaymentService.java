@@ -58,13 +58,13 @@ public class PaystackPaymentService {
     @Transactional
     public InitializeTransactionData initializeTransaction(
             User user, InitializeTransactionRequest request) {
+        // Generate unique reference if not provided
+        String reference = request.getReference() != null ? request.getReference() : generateReference();
+        String reservedCouponCode = null;
         try {
             // Get or create customer
             PaystackCustomer customer = customerService.getOrCreateCustomer(user);
 
-            // Generate unique reference if not provided
-            String reference = request.getReference() != null ? request.getReference() : generateReference();
-
             // Track coupon discount info
             BigDecimal originalAmount = request.getAmount();
             BigDecimal finalAmount = request.getAmount();
@@ -99,6 +99,10 @@ public class PaystackPaymentService {
                 discountAmount = discountData.getDiscountAmount();
                 appliedCouponCode = discountData.getCouponCode();
 
+                // Hold a usage slot until the charge webhook confirms or fails it
+                couponValidationService.reserveCouponUsage(appliedCouponCode, user, reference);
+                reservedCouponCode = appliedCouponCode;
+
                 log.info("Coupon applied. Original: {}, Discount: {}, Final: {}",
                         sanitize.sanitizeLoggingObject(originalAmount),
                         sanitize.sanitizeLoggingObject(discountAmount),
@@ -219,6 +223,9 @@ public class PaystackPaymentService {
         } catch (Exception e) {
             log.error("Failed to initialize transaction for user {}: {}", sanitize.sanitizeLogging(user.getId()),
                     e.getMessage());
+            if (reservedCouponCode != null) {
+                couponValidationService.releaseCouponReservation(reservedCouponCode, reference);
+            }
             throw new PaystackPaymentException("Failed to initialize transaction", e);
         }
     }
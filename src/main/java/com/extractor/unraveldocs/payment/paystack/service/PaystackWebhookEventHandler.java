@@ -0,0 +1,37 @@
+package com.extractor.unraveldocs.payment.paystack.service;
+
+import com.extractor.unraveldocs.payment.common.enums.PaymentGateway;
+import com.extractor.unraveldocs.payment.paystack.dto.webhook.PaystackWebhookEvent;
+import com.extractor.unraveldocs.payment.paystack.exception.PaystackWebhookException;
+import com.extractor.unraveldocs.payment.webhook.model.WebhookInboxEvent;
+import com.extractor.unraveldocs.payment.webhook.service.WebhookEventHandler;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Processes Paystack events from the webhook inbox.
+ */
+@Component
+@RequiredArgsConstructor
+public class PaystackWebhookEventHandler implements WebhookEventHandler {
+
+    private final PaystackWebhookService webhookService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public PaymentGateway getProvider() {
+        return PaymentGateway.PAYSTACK;
+    }
+
+    @Override
+    public void handle(WebhookInboxEvent inboxEvent) {
+        try {
+            webhookService.processWebhookEvent(
+                    objectMapper.readValue(inboxEvent.payload(), PaystackWebhookEvent.class));
+        } catch (JsonProcessingException e) {
+            throw new PaystackWebhookException("Failed to parse webhook event: " + inboxEvent.eventType(), e);
+        }
+    }
+}
@@ -37,6 +37,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.OffsetDateTime;
 import java.util.Map;
@@ -96,6 +97,19 @@ public class PaystackWebhookService {
         }
     }
 
+    /**
+     * Id under which an event is deduplicated. Paystack sends no event id and redelivers
+     * the same body, so the id is the event type and a SHA-256 digest of the body.
+     */
+    public String resolveEventId(String eventType, String payload) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(payload.getBytes(StandardCharsets.UTF_8));
+            return eventType + ":" + bytesToHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     /**
      * Process webhook event
      */
@@ -362,6 +376,9 @@ public class PaystackWebhookService {
                 payment.setGatewayResponse(transactionData.getGatewayResponse());
                 payment.setFailureMessage(transactionData.getGatewayResponse());
                 paymentRepository.save(payment);
+                if (payment.getCouponCode() != null && !payment.getCouponCode().isBlank()) {
+                    couponValidationService.releaseCouponReservation(payment.getCouponCode(), reference);
+                }
                 log.info("Updated payment {} to FAILED", sanitize.sanitizeLogging(reference));
             });
         } catch (Exception e) {
@@ -19,4 +19,58 @@ public class ReceiptConfig {
     private String logoUrl;
     private String receiptPrefix = "RCP";
     private String defaultCurrency = "USD";
+
+    /**
+     * Stage workers of the receipt pipeline.
+     */
+    private Pipeline pipeline = new Pipeline();
+
+    @Data
+    public static class Pipeline {
+        /**
+         * Whether this instance runs the stage workers. Receipts are still numbered and
+         * saved when disabled.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Delay between polls for due receipts, in milliseconds.
+         */
+        private long pollIntervalMs = 500;
+
+        /**
+         * Receipts rendered to PDF at the same time per instance. Rendering is CPU bound.
+         */
+        private int renderConcurrency = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        /**
+         * Receipts uploaded to storage at the same time per instance.
+         */
+        private int storeConcurrency = 16;
+
+        /**
+         * Receipt emails sent at the same time per instance.
+         */
+        private int deliverConcurrency = 8;
+
+        /**
+         * How long a claimed receipt is reserved for its worker, in seconds.
+         */
+        private long leaseSeconds = 120;
+
+        /**
+         * Attempts at a stage before the receipt is parked.
+         */
+        private int maxAttempts = 6;
+
+        /**
+         * Delay before the first retry of a stage, in seconds; doubled for every further attempt.
+         */
+        private long initialBackoffSeconds = 30;
+
+        /**
+         * Upper bound of the retry delay, in seconds.
+         */
+        private long maxBackoffSeconds = 1800;
+    }
 }
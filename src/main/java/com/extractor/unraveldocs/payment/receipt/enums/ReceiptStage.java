@@ -0,0 +1,15 @@
+package com.extractor.unraveldocs.payment.receipt.enums;
+
+/**
+ * Pipeline stage a receipt is waiting for. Each stage has its own workers and retries.
+ */
+public enum ReceiptStage {
+    /** Numbered and saved; the PDF is rendered next. */
+    RENDER,
+    /** PDF rendered; it is uploaded to storage next. */
+    STORE,
+    /** PDF stored; the receipt email is sent next. */
+    DELIVER,
+    /** Complete. */
+    DONE
+}
@@ -1,6 +1,7 @@
 package com.extractor.unraveldocs.payment.receipt.model;
 
 import com.extractor.unraveldocs.payment.receipt.enums.PaymentProvider;
+import com.extractor.unraveldocs.payment.receipt.enums.ReceiptStage;
 import com.extractor.unraveldocs.user.model.User;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -8,16 +9,20 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 /**
- * Entity for tracking payment receipts
+ * Entity for tracking payment receipts.
+ * Updates write only changed columns, so saving a loaded receipt does not overwrite
+ * stage progress made by the pipeline in the meantime.
  */
 @Data
 @Entity
+@DynamicUpdate
 @Builder
 @Table(name = "receipts", indexes = {
         @Index(name = "idx_receipt_number", columnList = "receipt_number", unique = true),
@@ -74,6 +79,34 @@ public class Receipt {
     @Column(name = "email_sent_at")
     private OffsetDateTime emailSentAt;
 
+    @Column(name = "customer_name")
+    private String customerName;
+
+    @Column(name = "customer_email")
+    private String customerEmail;
+
+    /**
+     * Stage the receipt waits for. Stage progress is written by {@code ReceiptPipelineRepository}.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReceiptStage stage;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    /**
+     * When the current stage is next attempted; null once parked after too many failures.
+     */
+    @Column(name = "next_attempt_at")
+    private OffsetDateTime nextAttemptAt;
+
+    @Column(name = "locked_until")
+    private OffsetDateTime lockedUntil;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false, name = "created_at")
     private OffsetDateTime createdAt;
@@ -0,0 +1,193 @@
+package com.extractor.unraveldocs.payment.receipt.repository;
+
+import com.extractor.unraveldocs.payment.receipt.enums.ReceiptStage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to the receipt pipeline state: the stage columns of {@code receipts} and
+ * the rendered PDFs in {@code receipt_documents}.
+ * <p>
+ * Workers claim due receipts of their stage with {@code FOR UPDATE SKIP LOCKED} under a
+ * lease, so every instance can run every stage. Stage changes are conditional on the
+ * stage the worker claimed, which makes a late duplicate completion a no-op.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReceiptPipelineRepository {
+
+    private static final String CLAIM_SQL = """
+            UPDATE receipts
+            SET locked_until = now() + ? * interval '1 second', attempts = attempts + 1
+            WHERE id IN (
+                SELECT id
+                FROM receipts
+                WHERE stage = ? AND next_attempt_at <= now()
+                  AND (locked_until IS NULL OR locked_until < now())
+                ORDER BY next_attempt_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            RETURNING id, attempts
+            """;
+
+    private static final String ADVANCE_SQL = """
+            UPDATE receipts
+            SET stage = ?, attempts = 0, next_attempt_at = now(), locked_until = NULL, last_error = NULL,
+                updated_at = now()
+            WHERE id = ? AND stage = ?
+            """;
+
+    private static final String STORED_SQL = """
+            UPDATE receipts
+            SET stage = 'DELIVER', receipt_url = ?, attempts = 0, next_attempt_at = now(), locked_until = NULL,
+                last_error = NULL, updated_at = now()
+            WHERE id = ? AND stage = 'STORE'
+            """;
+
+    private static final String DELIVERED_SQL = """
+            UPDATE receipts
+            SET stage = 'DONE', email_sent = ?, email_sent_at = CASE WHEN ? THEN now() ELSE email_sent_at END,
+                attempts = 0, next_attempt_at = NULL, locked_until = NULL, last_error = NULL, updated_at = now()
+            WHERE id = ? AND stage = 'DELIVER'
+            """;
+
+    private static final String RETRY_SQL = """
+            UPDATE receipts
+            SET next_attempt_at = ?, locked_until = NULL, last_error = ?
+            WHERE id = ? AND stage = ?
+            """;
+
+    private static final String PARK_SQL = """
+            UPDATE receipts
+            SET next_attempt_at = NULL, locked_until = NULL, last_error = ?
+            WHERE id = ? AND stage = ?
+            """;
+
+    private static final String RESUME_SQL = """
+            UPDATE receipts
+            SET attempts = 0, next_attempt_at = now(), locked_until = NULL
+            WHERE id = ? AND stage <> 'DONE' AND next_attempt_at IS NULL
+            """;
+
+    private static final String BACKLOG_SQL = """
+            SELECT stage,
+                   count(*) FILTER (WHERE next_attempt_at IS NOT NULL) AS waiting,
+                   count(*) FILTER (WHERE next_attempt_at IS NULL) AS parked
+            FROM receipts
+            WHERE stage <> 'DONE'
+            GROUP BY stage
+            """;
+
+    private static final RowMapper<ClaimedReceipt> CLAIM_MAPPER = (rs, rowNum) ->
+            new ClaimedReceipt(rs.getString("id"), rs.getInt("attempts"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Next receipt sequence number. Sequences are not rolled back, so a failed intake
+     * leaves a gap but never a duplicate.
+     */
+    public long nextReceiptSequence() {
+        Long next = jdbcTemplate.queryForObject("SELECT nextval('receipt_number_seq')", Long.class);
+        if (next == null) {
+            throw new IllegalStateException("receipt_number_seq returned no value");
+        }
+        return next;
+    }
+
+    /**
+     * Claim up to {@code limit} due receipts waiting for {@code stage}.
+     */
+    public List<ClaimedReceipt> claim(ReceiptStage stage, int limit, long leaseSeconds) {
+        return jdbcTemplate.query(CLAIM_SQL, CLAIM_MAPPER, leaseSeconds, stage.name(), limit);
+    }
+
+    /**
+     * Store the rendered PDF and hand the receipt to {@link ReceiptStage#STORE}.
+     */
+    public boolean rendered(String receiptId, byte[] pdfContent) {
+        jdbcTemplate.update("""
+                INSERT INTO receipt_documents (receipt_id, content) VALUES (?, ?)
+                ON CONFLICT (receipt_id) DO UPDATE SET content = EXCLUDED.content, created_at = now()
+                """, receiptId, pdfContent);
+        return advance(receiptId, ReceiptStage.RENDER, ReceiptStage.STORE);
+    }
+
+    /**
+     * Record the storage URL and hand the receipt to {@link ReceiptStage#DELIVER}.
+     */
+    public boolean stored(String receiptId, String receiptUrl) {
+        return jdbcTemplate.update(STORED_SQL, receiptUrl, receiptId) > 0;
+    }
+
+    /**
+     * Complete the receipt and drop its PDF, which is in storage by now.
+     */
+    public boolean delivered(String receiptId, boolean emailSent) {
+        boolean done = jdbcTemplate.update(DELIVERED_SQL, emailSent, emailSent, receiptId) > 0;
+        if (done) {
+            jdbcTemplate.update("DELETE FROM receipt_documents WHERE receipt_id = ?", receiptId);
+        }
+        return done;
+    }
+
+    public byte[] findDocument(String receiptId) {
+        List<byte[]> content = jdbcTemplate.query("SELECT content FROM receipt_documents WHERE receipt_id = ?",
+                (rs, rowNum) -> rs.getBytes("content"), receiptId);
+        return content.isEmpty() ? null : content.getFirst();
+    }
+
+    public void retry(String receiptId, ReceiptStage stage, OffsetDateTime nextAttemptAt, String error) {
+        jdbcTemplate.update(RETRY_SQL, nextAttemptAt, error, receiptId, stage.name());
+    }
+
+    /**
+     * Stop retrying the receipt's current stage until it is resumed.
+     */
+    public void park(String receiptId, ReceiptStage stage, String error) {
+        jdbcTemplate.update(PARK_SQL, error, receiptId, stage.name());
+    }
+
+    /**
+     * Give a parked receipt a fresh set of attempts at its current stage.
+     *
+     * @return true if the receipt was parked
+     */
+    public boolean resume(String receiptId) {
+        return jdbcTemplate.update(RESUME_SQL, receiptId) > 0;
+    }
+
+    /**
+     * Receipts waiting for and parked at each unfinished stage.
+     */
+    public Map<ReceiptStage, StageBacklog> backlog() {
+        Map<ReceiptStage, StageBacklog> backlog = new EnumMap<>(ReceiptStage.class);
+        jdbcTemplate.query(BACKLOG_SQL, rs -> {
+            backlog.put(ReceiptStage.valueOf(rs.getString("stage")),
+                    new StageBacklog(rs.getLong("waiting"), rs.getLong("parked")));
+        });
+        return backlog;
+    }
+
+    private boolean advance(String receiptId, ReceiptStage from, ReceiptStage to) {
+        return jdbcTemplate.update(ADVANCE_SQL, to.name(), receiptId, from.name()) > 0;
+    }
+
+    /**
+     * A receipt claimed for its current stage.
+     *
+     * @param attempt Number of this attempt at the stage, starting at 1
+     */
+    public record ClaimedReceipt(String id, int attempt) {
+    }
+
+    public record StageBacklog(long waiting, long parked) {
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Repository;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 @Repository
 public interface ReceiptRepository extends JpaRepository<Receipt, String>, JpaSpecificationExecutor<Receipt> {
@@ -22,6 +23,9 @@ public interface ReceiptRepository extends JpaRepository<Receipt, String>, JpaSp
 
     Optional<Receipt> findByExternalPaymentIdAndPaymentProvider(String externalPaymentId, PaymentProvider paymentProvider);
 
+    @Query("SELECT r FROM Receipt r JOIN FETCH r.user WHERE r.id = :id")
+    Optional<Receipt> findWithUserById(@Param("id") String id);
+
     // Admin Dashboard Aggregations
 
     @Query("SELECT SUM(r.amount) FROM Receipt r")
@@ -34,7 +34,7 @@ public class ReceiptEmailService {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMMM dd, yyyy");
 
     /**
-     * Send receipt email with PDF attachment
+     * Send receipt email with PDF attachment in the background
      *
      * @param receiptNumber Receipt number
      * @param data          Receipt data
@@ -42,6 +42,18 @@ public class ReceiptEmailService {
      */
     @Async
     public void sendReceiptEmail(String receiptNumber, ReceiptData data, byte[] pdfContent) {
+        deliverReceiptEmail(receiptNumber, data, pdfContent);
+    }
+
+    /**
+     * Send receipt email with PDF attachment and wait for the mail provider to accept it
+     *
+     * @param receiptNumber Receipt number
+     * @param data          Receipt data
+     * @param pdfContent    PDF content
+     * @throws RuntimeException if the email could not be sent
+     */
+    public void deliverReceiptEmail(String receiptNumber, ReceiptData data, byte[] pdfContent) {
         File tempFile = null;
         try {
             // Create temp file for attachment
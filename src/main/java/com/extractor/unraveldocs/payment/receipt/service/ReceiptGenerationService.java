@@ -1,13 +1,14 @@
 package com.extractor.unraveldocs.payment.receipt.service;
 
 import com.extractor.unraveldocs.exceptions.custom.NotFoundException;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiRecorder;
 import com.extractor.unraveldocs.payment.receipt.config.ReceiptConfig;
 import com.extractor.unraveldocs.payment.receipt.dto.ReceiptData;
 import com.extractor.unraveldocs.payment.receipt.enums.PaymentProvider;
+import com.extractor.unraveldocs.payment.receipt.enums.ReceiptStage;
 import com.extractor.unraveldocs.payment.receipt.model.Receipt;
+import com.extractor.unraveldocs.payment.receipt.repository.ReceiptPipelineRepository;
 import com.extractor.unraveldocs.payment.receipt.repository.ReceiptRepository;
-import com.extractor.unraveldocs.elasticsearch.events.IndexAction;
-import com.extractor.unraveldocs.elasticsearch.service.ElasticsearchIndexingService;
 import com.extractor.unraveldocs.user.model.User;
 import com.extractor.unraveldocs.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -18,12 +19,12 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Main service for receipt generation orchestration.
+ * Intake of the receipt pipeline.
  * This service is invoked by the ReceiptMessageListener after receiving
- * a receipt generation request from Kafka.
+ * a receipt generation request from Kafka. It numbers and saves the receipt;
+ * rendering, storage and delivery are done by {@link ReceiptPipeline}.
  */
 @Slf4j
 @Service
@@ -31,14 +32,10 @@ import java.util.concurrent.atomic.AtomicLong;
 public class ReceiptGenerationService {
 
     private final ReceiptRepository receiptRepository;
+    private final ReceiptPipelineRepository pipelineRepository;
     private final UserRepository userRepository;
-    private final ReceiptPdfService receiptPdfService;
-    private final ReceiptStorageService receiptStorageService;
-    private final ReceiptEmailService receiptEmailService;
     private final ReceiptConfig receiptConfig;
-    private final Optional<ElasticsearchIndexingService> elasticsearchIndexingService;
-
-    private static final AtomicLong receiptCounter = new AtomicLong(System.currentTimeMillis());
+    private final KpiRecorder kpiRecorder;
 
     /**
      * Process receipt generation for a payment.
@@ -46,7 +43,7 @@ public class ReceiptGenerationService {
      * and runs synchronously within the consumer thread.
      *
      * @param data Receipt data from payment
-     * @return Generated Receipt entity, or null if already exists (idempotency)
+     * @return Saved Receipt entity waiting for {@link ReceiptStage#RENDER}, or the existing receipt (idempotency)
      */
     @Transactional
     public Receipt processReceiptGeneration(ReceiptData data) {
@@ -68,13 +65,7 @@ public class ReceiptGenerationService {
             // Generate unique receipt number
             String receiptNumber = generateReceiptNumber();
 
-            // Generate PDF
-            byte[] pdfContent = receiptPdfService.generateReceiptPdf(receiptNumber, data);
-
-            // Upload to S3
-            String receiptUrl = receiptStorageService.uploadReceipt(pdfContent, receiptNumber);
-
-            // Save receipt entity
+            // Save receipt entity; the pipeline picks it up for rendering
             Receipt receipt = Receipt.builder()
                     .user(user)
                     .receiptNumber(receiptNumber)
@@ -85,20 +76,19 @@ public class ReceiptGenerationService {
                     .paymentMethod(data.getPaymentMethod())
                     .paymentMethodDetails(data.getPaymentMethodDetails())
                     .description(data.getDescription())
-                    .receiptUrl(receiptUrl)
                     .paidAt(data.getPaidAt())
+                    .customerName(data.getCustomerName())
+                    .customerEmail(data.getCustomerEmail())
                     .emailSent(false)
+                    .stage(ReceiptStage.RENDER)
+                    .attempts(0)
+                    .nextAttemptAt(OffsetDateTime.now())
                     .build();
 
-            final Receipt savedReceipt = receiptRepository.save(receipt);
+            Receipt savedReceipt = receiptRepository.save(receipt);
+            kpiRecorder.paymentReceived(data.getCurrency(), data.getAmount());
             log.info("Receipt saved: {}", receiptNumber);
 
-            // Index payment in Elasticsearch
-            elasticsearchIndexingService.ifPresent(service -> service.indexPayment(savedReceipt, IndexAction.CREATE));
-
-            // Send email (async)
-            sendReceiptEmailAsync(savedReceipt, data, pdfContent);
-
             return savedReceipt;
 
         } catch (Exception e) {
@@ -123,31 +113,15 @@ public class ReceiptGenerationService {
     }
 
     /**
-     * Generate a unique receipt number
-     * Format: RCP-YYYYMMDD-XXXXXX
+     * Generate a unique receipt number from the database sequence, so that numbers are
+     * unique across instances and restarts
+     * Format: RCP-YYYYMMDD-NNNNNNNN
      */
     private String generateReceiptNumber() {
         String datePrefix = OffsetDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        long sequence = receiptCounter.incrementAndGet() % 1000000;
-        return String.format("%s-%s-%06d",
+        return String.format("%s-%s-%08d",
                 receiptConfig.getReceiptPrefix(),
                 datePrefix,
-                sequence);
-    }
-
-    private void sendReceiptEmailAsync(Receipt receipt, ReceiptData data, byte[] pdfContent) {
-        try {
-            receiptEmailService.sendReceiptEmail(receipt.getReceiptNumber(), data, pdfContent);
-
-            // Update email sent status
-            receipt.setEmailSent(true);
-            receipt.setEmailSentAt(OffsetDateTime.now());
-            receiptRepository.save(receipt);
-
-            log.info("Receipt email sent and status updated for: {}", receipt.getReceiptNumber());
-        } catch (Exception e) {
-            log.error("Failed to send receipt email for {}: {}", receipt.getReceiptNumber(), e.getMessage());
-            // Don't throw - receipt is already saved, email failure shouldn't rollback
-        }
+                pipelineRepository.nextReceiptSequence());
     }
 }
@@ -0,0 +1,298 @@
+package com.extractor.unraveldocs.payment.receipt.service;
+
+import com.extractor.unraveldocs.elasticsearch.events.IndexAction;
+import com.extractor.unraveldocs.elasticsearch.service.ElasticsearchIndexingService;
+import com.extractor.unraveldocs.exceptions.custom.NotFoundException;
+import com.extractor.unraveldocs.payment.receipt.config.ReceiptConfig;
+import com.extractor.unraveldocs.payment.receipt.dto.ReceiptData;
+import com.extractor.unraveldocs.payment.receipt.enums.ReceiptStage;
+import com.extractor.unraveldocs.payment.receipt.model.Receipt;
+import com.extractor.unraveldocs.payment.receipt.repository.ReceiptPipelineRepository;
+import com.extractor.unraveldocs.payment.receipt.repository.ReceiptPipelineRepository.ClaimedReceipt;
+import com.extractor.unraveldocs.payment.receipt.repository.ReceiptPipelineRepository.StageBacklog;
+import com.extractor.unraveldocs.payment.receipt.repository.ReceiptRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stage workers of the receipt pipeline.
+ * <p>
+ * {@link ReceiptGenerationService} saves a numbered receipt waiting for
+ * {@link ReceiptStage#RENDER}. From there each stage runs on its own: every poll claims
+ * as many due receipts of a stage as the stage has free slots, works on each on a virtual
+ * thread and hands it to the next stage through the receipt's row. The rendered PDF is
+ * kept in {@code receipt_documents} until delivery, so a failed upload or email is retried
+ * without rendering again. A stage that keeps failing is parked after
+ * {@code max-attempts} without holding up other receipts.
+ */
+@Slf4j
+@Component
+public class ReceiptPipeline {
+
+    static final List<ReceiptStage> WORKER_STAGES = List.of(ReceiptStage.RENDER, ReceiptStage.STORE, ReceiptStage.DELIVER);
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final ReceiptRepository receiptRepository;
+    private final ReceiptPipelineRepository pipelineRepository;
+    private final ReceiptPdfService receiptPdfService;
+    private final ReceiptStorageService receiptStorageService;
+    private final ReceiptEmailService receiptEmailService;
+    private final Optional<ElasticsearchIndexingService> elasticsearchIndexingService;
+    private final ReceiptConfig.Pipeline properties;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+
+    private final Map<ReceiptStage, Semaphore> slots = new EnumMap<>(ReceiptStage.class);
+    private final Map<ReceiptStage, AtomicLong> waiting = new EnumMap<>(ReceiptStage.class);
+    private final Map<ReceiptStage, AtomicLong> parked = new EnumMap<>(ReceiptStage.class);
+
+    public ReceiptPipeline(ReceiptRepository receiptRepository,
+                           ReceiptPipelineRepository pipelineRepository,
+                           ReceiptPdfService receiptPdfService,
+                           ReceiptStorageService receiptStorageService,
+                           ReceiptEmailService receiptEmailService,
+                           Optional<ElasticsearchIndexingService> elasticsearchIndexingService,
+                           ReceiptConfig receiptConfig,
+                           MeterRegistry meterRegistry) {
+        this.receiptRepository = receiptRepository;
+        this.pipelineRepository = pipelineRepository;
+        this.receiptPdfService = receiptPdfService;
+        this.receiptStorageService = receiptStorageService;
+        this.receiptEmailService = receiptEmailService;
+        this.elasticsearchIndexingService = elasticsearchIndexingService;
+        this.properties = receiptConfig.getPipeline();
+        this.meterRegistry = meterRegistry;
+        // Rendering is bounded by its slots; storage and email mostly wait on the network
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        slots.put(ReceiptStage.RENDER, new Semaphore(Math.max(1, properties.getRenderConcurrency())));
+        slots.put(ReceiptStage.STORE, new Semaphore(Math.max(1, properties.getStoreConcurrency())));
+        slots.put(ReceiptStage.DELIVER, new Semaphore(Math.max(1, properties.getDeliverConcurrency())));
+
+        for (ReceiptStage stage : WORKER_STAGES) {
+            String tag = stage.name().toLowerCase();
+            waiting.put(stage, new AtomicLong());
+            parked.put(stage, new AtomicLong());
+            Gauge.builder("receipts.pipeline.waiting", waiting.get(stage), AtomicLong::get)
+                    .description("Receipts waiting for a pipeline stage")
+                    .tag("stage", tag)
+                    .register(meterRegistry);
+            Gauge.builder("receipts.pipeline.parked", parked.get(stage), AtomicLong::get)
+                    .description("Receipts parked at a pipeline stage after too many failures")
+                    .tag("stage", tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.receipt.pipeline.poll-interval-ms:500}")
+    public void poll() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (ReceiptStage stage : WORKER_STAGES) {
+            dispatch(stage);
+        }
+        refreshBacklog();
+    }
+
+    private void dispatch(ReceiptStage stage) {
+        Semaphore stageSlots = slots.get(stage);
+        try {
+            // Only this method acquires slots, so the free count can only grow before it does
+            int free = stageSlots.availablePermits();
+            if (free == 0) {
+                return;
+            }
+            for (ClaimedReceipt receipt : pipelineRepository.claim(stage, free, properties.getLeaseSeconds())) {
+                stageSlots.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        process(stage, receipt);
+                    } finally {
+                        stageSlots.release();
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            log.error("Receipt pipeline poll for {} failed: {}", stage, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Run one attempt at a stage and record its outcome.
+     */
+    void process(ReceiptStage stage, ClaimedReceipt claimed) {
+        try {
+            switch (stage) {
+                case RENDER -> render(claimed.id());
+                case STORE -> store(claimed.id());
+                case DELIVER -> deliver(claimed.id());
+                default -> throw new IllegalStateException("No worker for receipt stage " + stage);
+            }
+            count(stage, "completed");
+        } catch (RuntimeException e) {
+            fail(stage, claimed, e);
+        }
+    }
+
+    private void render(String receiptId) {
+        Receipt receipt = load(receiptId);
+        byte[] pdfContent = receiptPdfService.generateReceiptPdf(receipt.getReceiptNumber(), toReceiptData(receipt));
+        pipelineRepository.rendered(receiptId, pdfContent);
+        log.debug("Receipt rendered: {}", receipt.getReceiptNumber());
+    }
+
+    private void store(String receiptId) {
+        Receipt receipt = load(receiptId);
+        String receiptUrl = receiptStorageService.uploadReceipt(document(receiptId), receipt.getReceiptNumber());
+        if (pipelineRepository.stored(receiptId, receiptUrl)) {
+            receipt.setReceiptUrl(receiptUrl);
+            // Index payment in Elasticsearch once the receipt can be downloaded
+            elasticsearchIndexingService.ifPresent(service -> service.indexPayment(receipt, IndexAction.CREATE));
+        }
+        log.debug("Receipt stored: {}", receipt.getReceiptNumber());
+    }
+
+    private void deliver(String receiptId) {
+        Receipt receipt = load(receiptId);
+        boolean emailSent = false;
+        if (StringUtils.hasText(receipt.getCustomerEmail())) {
+            receiptEmailService.deliverReceiptEmail(
+                    receipt.getReceiptNumber(), toReceiptData(receipt), document(receiptId));
+            emailSent = true;
+        } else {
+            log.warn("Receipt {} has no customer email, skipping delivery", receipt.getReceiptNumber());
+        }
+        pipelineRepository.delivered(receiptId, emailSent);
+        log.info("Receipt completed: {}", receipt.getReceiptNumber());
+    }
+
+    private Receipt load(String receiptId) {
+        return receiptRepository.findWithUserById(receiptId)
+                .orElseThrow(() -> new NotFoundException("Receipt not found: " + receiptId));
+    }
+
+    private byte[] document(String receiptId) {
+        byte[] content = pipelineRepository.findDocument(receiptId);
+        if (content == null) {
+            throw new IllegalStateException("Rendered receipt missing for " + receiptId);
+        }
+        return content;
+    }
+
+    private void fail(ReceiptStage stage, ClaimedReceipt claimed, RuntimeException cause) {
+        String error = describe(cause);
+        try {
+            if (claimed.attempt() >= Math.max(1, properties.getMaxAttempts())) {
+                pipelineRepository.park(claimed.id(), stage, error);
+                count(stage, "parked");
+                log.error("Receipt {} failed {} {} times, parked: {}",
+                        claimed.id(), stage, claimed.attempt(), error, cause);
+            } else {
+                Duration delay = backoff(claimed.attempt());
+                pipelineRepository.retry(claimed.id(), stage, OffsetDateTime.now().plus(delay), error);
+                count(stage, "retried");
+                log.warn("Receipt {} failed {} attempt {}, retrying in {}s: {}",
+                        claimed.id(), stage, claimed.attempt(), delay.toSeconds(), error);
+            }
+        } catch (RuntimeException e) {
+            // The lease runs out and the receipt is claimed again
+            log.error("Could not record failure of receipt {}: {}", claimed.id(), e.getMessage());
+        }
+    }
+
+    /**
+     * Give a parked receipt a fresh set of attempts at the stage it is parked at.
+     *
+     * @return true if the receipt was parked
+     */
+    public boolean resume(String receiptId) {
+        return pipelineRepository.resume(receiptId);
+    }
+
+    /**
+     * Delay before the attempt after {@code attempt}: the initial backoff doubled per
+     * attempt and capped, of which the upper half is random.
+     */
+    Duration backoff(int attempt) {
+        long initial = Math.max(1, properties.getInitialBackoffSeconds());
+        long max = Math.max(initial, properties.getMaxBackoffSeconds());
+        long seconds = Math.min(max, initial << Math.min(Math.max(0, attempt - 1), 20));
+        long half = seconds / 2;
+        return Duration.ofSeconds(seconds - half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private void refreshBacklog() {
+        try {
+            Map<ReceiptStage, StageBacklog> backlog = pipelineRepository.backlog();
+            for (ReceiptStage stage : WORKER_STAGES) {
+                StageBacklog counts = backlog.getOrDefault(stage, new StageBacklog(0, 0));
+                waiting.get(stage).set(counts.waiting());
+                parked.get(stage).set(counts.parked());
+            }
+        } catch (RuntimeException e) {
+            log.debug("Could not read receipt pipeline backlog: {}", e.getMessage());
+        }
+    }
+
+    private void count(ReceiptStage stage, String result) {
+        Counter.builder("receipts.pipeline.attempts")
+                .description("Receipt pipeline stage attempts by outcome")
+                .tag("stage", stage.name().toLowerCase())
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static ReceiptData toReceiptData(Receipt receipt) {
+        return ReceiptData.builder()
+                .userId(receipt.getUser().getId())
+                .customerName(receipt.getCustomerName())
+                .customerEmail(receipt.getCustomerEmail())
+                .paymentProvider(receipt.getPaymentProvider())
+                .externalPaymentId(receipt.getExternalPaymentId())
+                .amount(receipt.getAmount())
+                .currency(receipt.getCurrency())
+                .paymentMethod(receipt.getPaymentMethod())
+                .paymentMethodDetails(receipt.getPaymentMethodDetails())
+                .description(receipt.getDescription())
+                .paidAt(receipt.getPaidAt())
+                .build();
+    }
+
+    private static String describe(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        String message = root == e
+                ? e.getClass().getSimpleName() + ": " + e.getMessage()
+                : e.getMessage() + " (caused by " + root.getClass().getSimpleName() + ": " + root.getMessage() + ")";
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Interrupted stages are claimed again when their lease runs out
+        executor.shutdownNow();
+    }
+}
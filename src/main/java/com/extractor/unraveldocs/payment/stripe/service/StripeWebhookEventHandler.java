@@ -0,0 +1,68 @@
+package com.extractor.unraveldocs.payment.stripe.service;
+
+import com.extractor.unraveldocs.payment.common.enums.PaymentGateway;
+import com.extractor.unraveldocs.payment.webhook.model.WebhookInboxEvent;
+import com.extractor.unraveldocs.payment.webhook.service.WebhookEventHandler;
+import com.stripe.model.*;
+import com.stripe.model.checkout.Session;
+import com.stripe.net.ApiResource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Processes Stripe events from the webhook inbox. The signature was verified when the
+ * event was received, so the payload is only deserialized here.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StripeWebhookEventHandler implements WebhookEventHandler {
+
+    private final StripeWebhookService webhookService;
+
+    @Override
+    public PaymentGateway getProvider() {
+        return PaymentGateway.STRIPE;
+    }
+
+    @Override
+    public void handle(WebhookInboxEvent inboxEvent) {
+        // Events processed before the inbox existed are recorded here
+        if (webhookService.isEventProcessed(inboxEvent.eventId())) {
+            log.info("Webhook event {} already processed", inboxEvent.eventId());
+            return;
+        }
+
+        Event event = StripeObject.deserializeStripeObject(
+                inboxEvent.payload(), Event.class, ApiResource.getGlobalResponseGetter());
+        webhookService.recordWebhookEvent(event.getId(), event.getType(), inboxEvent.payload());
+
+        EventDataObjectDeserializer deserializer = event.getDataObjectDeserializer();
+        StripeObject stripeObject = deserializer.getObject()
+                .orElseThrow(() -> new IllegalStateException(
+                        "Stripe event data could not be deserialized: " + event.getType()));
+
+        switch (event.getType()) {
+            case "checkout.session.completed" ->
+                    webhookService.handleCheckoutSessionCompleted((Session) stripeObject);
+            case "payment_intent.succeeded" ->
+                    webhookService.handlePaymentIntentSucceeded((PaymentIntent) stripeObject);
+            case "payment_intent.payment_failed" ->
+                    webhookService.handlePaymentIntentPaymentFailed((PaymentIntent) stripeObject);
+            case "customer.subscription.created" ->
+                    webhookService.handleCustomerSubscriptionCreated((Subscription) stripeObject);
+            case "customer.subscription.updated" ->
+                    webhookService.handleCustomerSubscriptionUpdated((Subscription) stripeObject);
+            case "customer.subscription.deleted" ->
+                    webhookService.handleCustomerSubscriptionDeleted((Subscription) stripeObject);
+            case "invoice.payment_succeeded" ->
+                    webhookService.handleInvoicePaymentSucceeded((Invoice) stripeObject);
+            case "invoice.payment_failed" ->
+                    webhookService.handleInvoicePaymentFailed((Invoice) stripeObject);
+            default -> log.info("Unhandled event type: {}", event.getType());
+        }
+
+        webhookService.markEventAsProcessed(event.getId(), null);
+    }
+}
@@ -0,0 +1,56 @@
+package com.extractor.unraveldocs.payment.webhook.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Processing of payment webhook events after they have been stored in the inbox.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "payment.webhook.inbox")
+public class WebhookInboxProperties {
+    /**
+     * Whether this instance processes inbox events. Webhooks are still accepted and
+     * stored when disabled.
+     */
+    private boolean workerEnabled = true;
+
+    /**
+     * Delay between polls for due events, in milliseconds.
+     */
+    private long pollIntervalMs = 1000;
+
+    /**
+     * Customers whose events this instance processes at the same time. Each customer's
+     * events are processed one after another on one virtual thread.
+     */
+    private int concurrency = 32;
+
+    /**
+     * How long a claimed event is reserved for its worker, in seconds. An event whose
+     * worker died is claimed again once its lease runs out.
+     */
+    private long leaseSeconds = 300;
+
+    /**
+     * Attempts before an event is moved to the dead-letter state.
+     */
+    private int maxAttempts = 8;
+
+    /**
+     * Delay before the first retry, in seconds; doubled for every further attempt.
+     */
+    private long initialBackoffSeconds = 30;
+
+    /**
+     * Upper bound of the retry delay, in seconds.
+     */
+    private long maxBackoffSeconds = 3600;
+
+    /**
+     * Days processed events are kept before cleanup deletes them. Dead events are kept.
+     */
+    private int retentionDays = 30;
+}
@@ -0,0 +1,39 @@
+package com.extractor.unraveldocs.payment.webhook.controller;
+
+import com.extractor.unraveldocs.payment.common.enums.PaymentGateway;
+import com.extractor.unraveldocs.payment.webhook.service.WebhookInboxService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Admin endpoints for payment webhook events that failed every attempt.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/webhooks")
+@RequiredArgsConstructor
+@Tag(name = "Webhook Inbox", description = "Admin endpoints for the payment webhook inbox")
+@PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+public class AdminWebhookInboxController {
+
+    private final WebhookInboxService inboxService;
+
+    @PostMapping("/{provider}/{eventId}/requeue")
+    @Operation(summary = "Requeue dead event", description = "Give a dead-lettered webhook event a fresh set of attempts")
+    public ResponseEntity<Map<String, String>> requeue(@PathVariable PaymentGateway provider,
+                                                       @PathVariable String eventId) {
+        if (!inboxService.requeue(provider, eventId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "message", "No dead webhook event " + eventId + " from " + provider));
+        }
+        return ResponseEntity.ok(Map.of(
+                "message", "Webhook event requeued",
+                "status", "PENDING"));
+    }
+}
@@ -0,0 +1,25 @@
+package com.extractor.unraveldocs.payment.webhook.model;
+
+import com.extractor.unraveldocs.payment.common.enums.PaymentGateway;
+
+/**
+ * A webhook event claimed from the inbox for processing.
+ *
+ * @param id           Sequence id; events of one customer are processed in this order
+ * @param provider     Gateway that sent the event
+ * @param eventId      Provider's id of the event, unique per provider
+ * @param eventType    Provider's event type, e.g. {@code invoice.payment_succeeded}
+ * @param partitionKey Customer the event belongs to; events sharing it are processed one at a time
+ * @param payload      Request body as received, already verified
+ * @param attempt      Number of this attempt, starting at 1
+ */
+public record WebhookInboxEvent(
+        long id,
+        PaymentGateway provider,
+        String eventId,
+        String eventType,
+        String partitionKey,
+        String payload,
+        int attempt
+) {
+}
@@ -0,0 +1,15 @@
+package com.extractor.unraveldocs.payment.webhook.model;
+
+/**
+ * Processing state of a webhook inbox event.
+ */
+public enum WebhookInboxStatus {
+    /** Waiting for its first attempt or for the next retry. */
+    PENDING,
+    /** Claimed by a worker until its lease runs out. */
+    PROCESSING,
+    /** Handled successfully. */
+    PROCESSED,
+    /** Failed every attempt; kept for manual review. */
+    DEAD
+}
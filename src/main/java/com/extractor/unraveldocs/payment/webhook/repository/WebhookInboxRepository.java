@@ -0,0 +1,207 @@
+package com.extractor.unraveldocs.payment.webhook.repository;
+
+import com.extractor.unraveldocs.payment.common.enums.PaymentGateway;
+import com.extractor.unraveldocs.payment.webhook.model.WebhookInboxEvent;
+import com.extractor.unraveldocs.payment.webhook.model.WebhookInboxStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to the {@code webhook_inbox} table.
+ * <p>
+ * Only the oldest open event of each {@code (provider, partition_key)} can be claimed, so
+ * a customer's events are processed one at a time and in arrival order, while events of
+ * different customers are claimed by any worker on any instance. Claims use
+ * {@code FOR UPDATE SKIP LOCKED} and a lease: a worker that dies leaves its event to be
+ * claimed again once the lease runs out.
+ * <p>
+ * Every claim increments {@code attempts}, so the attempt number a worker claimed with
+ * identifies its claim. Outcomes are recorded only while the event is still processing
+ * under that claim; a worker whose lease ran out and whose event was claimed again
+ * cannot overwrite the new claim's outcome.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WebhookInboxRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO webhook_inbox (provider, event_id, event_type, partition_key, payload)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (provider, event_id) DO NOTHING
+            """;
+
+    /**
+     * Claims up to {@code limit} events, each the head of its customer's queue. The status
+     * is checked again on the locked row, so a head another worker finished or claimed in
+     * the meantime is left alone.
+     */
+    private static final String CLAIM_HEADS_SQL = """
+            UPDATE webhook_inbox w
+            SET status = 'PROCESSING', attempts = w.attempts + 1, locked_until = now() + ? * interval '1 second'
+            WHERE w.id IN (
+                SELECT c.id
+                FROM webhook_inbox c
+                WHERE c.id IN (
+                    SELECT DISTINCT ON (provider, partition_key) id
+                    FROM webhook_inbox
+                    WHERE status IN ('PENDING', 'PROCESSING')
+                    ORDER BY provider, partition_key, id)
+                  AND ((c.status = 'PENDING' AND c.next_attempt_at <= now())
+                    OR (c.status = 'PROCESSING' AND c.locked_until < now()))
+                ORDER BY c.next_attempt_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            RETURNING w.id, w.provider, w.event_id, w.event_type, w.partition_key, w.payload, w.attempts
+            """;
+
+    private static final String CLAIM_NEXT_SQL = """
+            UPDATE webhook_inbox w
+            SET status = 'PROCESSING', attempts = w.attempts + 1, locked_until = now() + ? * interval '1 second'
+            WHERE w.id = (
+                SELECT c.id
+                FROM webhook_inbox c
+                WHERE c.id = (
+                    SELECT id
+                    FROM webhook_inbox
+                    WHERE provider = ? AND partition_key = ? AND status IN ('PENDING', 'PROCESSING')
+                    ORDER BY id
+                    LIMIT 1)
+                  AND ((c.status = 'PENDING' AND c.next_attempt_at <= now())
+                    OR (c.status = 'PROCESSING' AND c.locked_until < now()))
+                FOR UPDATE SKIP LOCKED)
+            RETURNING w.id, w.provider, w.event_id, w.event_type, w.partition_key, w.payload, w.attempts
+            """;
+
+    private static final String MARK_PROCESSED_SQL = """
+            UPDATE webhook_inbox
+            SET status = 'PROCESSED', processed_at = now(), locked_until = NULL, last_error = NULL
+            WHERE id = ? AND status = 'PROCESSING' AND attempts = ?
+            """;
+
+    private static final String MARK_RETRY_SQL = """
+            UPDATE webhook_inbox
+            SET status = 'PENDING', next_attempt_at = ?, locked_until = NULL, last_error = ?
+            WHERE id = ? AND status = 'PROCESSING' AND attempts = ?
+            """;
+
+    private static final String MARK_DEAD_SQL = """
+            UPDATE webhook_inbox
+            SET status = 'DEAD', locked_until = NULL, last_error = ?
+            WHERE id = ? AND status = 'PROCESSING' AND attempts = ?
+            """;
+
+    private static final String REQUEUE_DEAD_SQL = """
+            UPDATE webhook_inbox
+            SET status = 'PENDING', attempts = 0, next_attempt_at = now(), last_error = NULL
+            WHERE provider = ? AND event_id = ? AND status = 'DEAD'
+            """;
+
+    private static final String DELETE_PROCESSED_SQL = """
+            DELETE FROM webhook_inbox
+            WHERE id IN (
+                SELECT id FROM webhook_inbox
+                WHERE status = 'PROCESSED' AND processed_at < ?
+                LIMIT ?)
+            """;
+
+    private static final String COUNT_OPEN_SQL = """
+            SELECT status, count(*) AS events
+            FROM webhook_inbox
+            WHERE status IN ('PENDING', 'PROCESSING', 'DEAD')
+            GROUP BY status
+            """;
+
+    private static final RowMapper<WebhookInboxEvent> ROW_MAPPER = (rs, rowNum) -> new WebhookInboxEvent(
+            rs.getLong("id"),
+            PaymentGateway.valueOf(rs.getString("provider")),
+            rs.getString("event_id"),
+            rs.getString("event_type"),
+            rs.getString("partition_key"),
+            rs.getString("payload"),
+            rs.getInt("attempts"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Store an event unless the provider's event id is already in the inbox.
+     *
+     * @return true if the event was new
+     */
+    public boolean insert(PaymentGateway provider, String eventId, String eventType,
+                          String partitionKey, String payload) {
+        return jdbcTemplate.update(INSERT_SQL, provider.name(), eventId, eventType, partitionKey, payload) > 0;
+    }
+
+    /**
+     * Claim the oldest due open event of up to {@code limit} customers.
+     */
+    public List<WebhookInboxEvent> claimHeads(int limit, long leaseSeconds) {
+        return jdbcTemplate.query(CLAIM_HEADS_SQL, ROW_MAPPER, leaseSeconds, limit);
+    }
+
+    /**
+     * Claim the customer's next event if it is due, or return null.
+     */
+    public WebhookInboxEvent claimNext(PaymentGateway provider, String partitionKey, long leaseSeconds) {
+        List<WebhookInboxEvent> claimed = jdbcTemplate.query(CLAIM_NEXT_SQL, ROW_MAPPER,
+                leaseSeconds, provider.name(), partitionKey);
+        return claimed.isEmpty() ? null : claimed.getFirst();
+    }
+
+    /**
+     * Record that the claimed event was processed.
+     *
+     * @return false if the claim was lost to another worker
+     */
+    public boolean markProcessed(long id, int attempt) {
+        return jdbcTemplate.update(MARK_PROCESSED_SQL, id, attempt) > 0;
+    }
+
+    /**
+     * @return false if the claim was lost to another worker
+     */
+    public boolean markRetry(long id, int attempt, OffsetDateTime nextAttemptAt, String error) {
+        return jdbcTemplate.update(MARK_RETRY_SQL, nextAttemptAt, error, id, attempt) > 0;
+    }
+
+    /**
+     * @return false if the claim was lost to another worker
+     */
+    public boolean markDead(long id, int attempt, String error) {
+        return jdbcTemplate.update(MARK_DEAD_SQL, error, id, attempt) > 0;
+    }
+
+    /**
+     * Give a dead event a fresh set of attempts.
+     *
+     * @return true if the event was dead
+     */
+    public boolean requeueDead(PaymentGateway provider, String eventId) {
+        return jdbcTemplate.update(REQUEUE_DEAD_SQL, provider.name(), eventId) > 0;
+    }
+
+    /**
+     * Delete up to {@code limit} events processed before {@code cutoff}.
+     */
+    public int deleteProcessedBefore(OffsetDateTime cutoff, int limit) {
+        return jdbcTemplate.update(DELETE_PROCESSED_SQL, cutoff, limit);
+    }
+
+    /**
+     * Number of pending, processing and dead events.
+     */
+    public Map<WebhookInboxStatus, Long> countOpen() {
+        Map<WebhookInboxStatus, Long> counts = new EnumMap<>(WebhookInboxStatus.class);
+        jdbcTemplate.query(COUNT_OPEN_SQL, rs -> {
+            counts.put(WebhookInboxStatus.valueOf(rs.getString("status")), rs.getLong("events"));
+        });
+        return counts;
+    }
+}
@@ -0,0 +1,19 @@
+package com.extractor.unraveldocs.payment.webhook.service;
+
+import com.extractor.unraveldocs.payment.common.enums.PaymentGateway;
+import com.extractor.unraveldocs.payment.webhook.model.WebhookInboxEvent;
+
+/**
+ * Processes the inbox events of one payment gateway.
+ * <p>
+ * {@link #handle} runs in the transaction that marks the event processed, so its database
+ * changes commit exactly when the event is done. Throwing rolls them back and schedules a
+ * retry; an event may therefore be handled again after a failure and must not depend on
+ * changes of a failed attempt.
+ */
+public interface WebhookEventHandler {
+
+    PaymentGateway getProvider();
+
+    void handle(WebhookInboxEvent event);
+}
@@ -0,0 +1,52 @@
+package com.extractor.unraveldocs.payment.webhook.service;
+
+import com.extractor.unraveldocs.payment.webhook.config.WebhookInboxProperties;
+import com.extractor.unraveldocs.payment.webhook.repository.WebhookInboxRepository;
+import com.extractor.unraveldocs.scheduling.ChunkResult;
+import com.extractor.unraveldocs.scheduling.ClusterJob;
+import com.extractor.unraveldocs.scheduling.ClusterJobRunner;
+import com.extractor.unraveldocs.scheduling.KeyRange;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Daily removal of processed webhook events past their retention, once per cluster.
+ * Rows are deleted in small batches so no single statement holds locks for long.
+ * Dead events are kept until they are requeued or removed by hand.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class WebhookInboxCleanupJob {
+
+    static final String JOB_NAME = "webhook-inbox-cleanup";
+    static final int BATCH_SIZE = 1000;
+
+    private final WebhookInboxRepository inboxRepository;
+    private final WebhookInboxProperties properties;
+    private final ClusterJobRunner clusterJobRunner;
+
+    @Scheduled(cron = "0 45 3 * * *")
+    public void cleanupProcessedEvents() {
+        clusterJobRunner.run(ClusterJob.single(JOB_NAME, this::deleteExpired));
+    }
+
+    ChunkResult deleteExpired(KeyRange range, OffsetDateTime runStartedAt) {
+        OffsetDateTime cutoff = runStartedAt.minusDays(properties.getRetentionDays());
+        int deleted = 0;
+        int batch;
+        do {
+            batch = inboxRepository.deleteProcessedBefore(cutoff, BATCH_SIZE);
+            deleted += batch;
+        } while (batch == BATCH_SIZE);
+
+        log.info("Completed webhook inbox cleanup: deleted={}, retentionDays={}", deleted, properties.getRetentionDays());
+        return ChunkResult.of(deleted);
+    }
+}
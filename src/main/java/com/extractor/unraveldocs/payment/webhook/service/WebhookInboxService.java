@@ -0,0 +1,90 @@
+package com.extractor.unraveldocs.payment.webhook.service;
+
+import com.extractor.unraveldocs.payment.common.enums.PaymentGateway;
+import com.extractor.unraveldocs.payment.webhook.repository.WebhookInboxRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Entry point of the webhook inbox. Controllers verify the provider's signature and hand
+ * the raw body over here; storing it is a single insert, so the provider gets its
+ * acknowledgement without waiting for the event to be processed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WebhookInboxService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final WebhookInboxRepository inboxRepository;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Store a verified event for processing. A redelivery of an event already in the
+     * inbox is ignored.
+     *
+     * @param partitionKey Customer the event belongs to, or null if it names none; such
+     *                     events are processed independently of each other
+     * @return true if the event was new
+     */
+    public boolean accept(PaymentGateway provider, String eventId, String eventType,
+                          String partitionKey, String payload) {
+        String key = partitionKey == null || partitionKey.isBlank()
+                ? "event:" + eventId
+                : truncate(partitionKey);
+        boolean stored = inboxRepository.insert(provider, eventId, truncate(eventType), key, payload);
+        count(provider, stored ? "received" : "duplicate");
+        if (!stored) {
+            log.info("{} webhook event {} already received", provider, eventId);
+        }
+        return stored;
+    }
+
+    /**
+     * Give a dead-lettered event a fresh set of attempts.
+     *
+     * @return true if the event was dead
+     */
+    public boolean requeue(PaymentGateway provider, String eventId) {
+        boolean requeued = inboxRepository.requeueDead(provider, eventId);
+        if (requeued) {
+            log.info("Requeued dead {} webhook event {}", provider, eventId);
+        }
+        return requeued;
+    }
+
+    /**
+     * The first of the JSON pointers that leads to a non-blank value, e.g. the customer id
+     * of an event. An object is read through its {@code id}.
+     */
+    public static String firstText(JsonNode root, String... pointers) {
+        for (String pointer : pointers) {
+            JsonNode node = root.at(pointer);
+            if (node.isObject()) {
+                node = node.path("id");
+            }
+            if (node.isValueNode() && !node.isNull() && !node.asText().isBlank()) {
+                return node.asText();
+            }
+        }
+        return null;
+    }
+
+    private void count(PaymentGateway provider, String result) {
+        Counter.builder("webhook.inbox.events")
+                .description("Payment webhook events by provider and outcome")
+                .tag("provider", provider.name().toLowerCase())
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > MAX_KEY_LENGTH ? value.substring(0, MAX_KEY_LENGTH) : value;
+    }
+}
@@ -0,0 +1,249 @@
+package com.extractor.unraveldocs.payment.webhook.service;
+
+import com.extractor.unraveldocs.payment.common.enums.PaymentGateway;
+import com.extractor.unraveldocs.payment.webhook.config.WebhookInboxProperties;
+import com.extractor.unraveldocs.payment.webhook.model.WebhookInboxEvent;
+import com.extractor.unraveldocs.payment.webhook.model.WebhookInboxStatus;
+import com.extractor.unraveldocs.payment.webhook.repository.WebhookInboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Processes the events stored in the webhook inbox.
+ * <p>
+ * Each poll claims the oldest due event of as many customers as there are free slots and
+ * hands every customer to its own virtual thread. That thread processes the event, then
+ * claims the customer's next one, until the customer has nothing due. A failed event is
+ * rescheduled with exponential backoff and holds back the customer's later events until
+ * it succeeds or is moved to the dead-letter state after {@code max-attempts}.
+ */
+@Slf4j
+@Component
+public class WebhookInboxWorker {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final WebhookInboxRepository inboxRepository;
+    private final Map<PaymentGateway, WebhookEventHandler> handlers = new EnumMap<>(PaymentGateway.class);
+    private final WebhookInboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final Semaphore slots;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong dead = new AtomicLong();
+    private final Timer processingTimer;
+
+    public WebhookInboxWorker(WebhookInboxRepository inboxRepository,
+                              List<WebhookEventHandler> eventHandlers,
+                              WebhookInboxProperties properties,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.inboxRepository = inboxRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        eventHandlers.forEach(handler -> handlers.put(handler.getProvider(), handler));
+        // Handlers mostly wait on the database and provider APIs
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.slots = new Semaphore(Math.max(1, properties.getConcurrency()));
+
+        Gauge.builder("webhook.inbox.pending", pending, AtomicLong::get)
+                .description("Webhook events waiting for or in processing")
+                .register(meterRegistry);
+        Gauge.builder("webhook.inbox.dead", dead, AtomicLong::get)
+                .description("Webhook events that failed every attempt")
+                .register(meterRegistry);
+        this.processingTimer = Timer.builder("webhook.inbox.processing")
+                .description("Time to process one webhook event")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.webhook.inbox.poll-interval-ms:1000}")
+    public void poll() {
+        if (!properties.isWorkerEnabled()) {
+            return;
+        }
+        try {
+            // Only this method acquires slots, so the free count can only grow before it does
+            int free = slots.availablePermits();
+            if (free > 0) {
+                for (WebhookInboxEvent event : inboxRepository.claimHeads(free, properties.getLeaseSeconds())) {
+                    slots.acquireUninterruptibly();
+                    executor.execute(() -> {
+                        try {
+                            drain(event);
+                        } finally {
+                            slots.release();
+                        }
+                    });
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Webhook inbox poll failed: {}", e.getMessage(), e);
+        }
+        refreshBacklog();
+    }
+
+    /**
+     * Process a customer's events in order, starting with the claimed one.
+     */
+    void drain(WebhookInboxEvent first) {
+        WebhookInboxEvent event = first;
+        while (event != null && process(event)) {
+            try {
+                event = inboxRepository.claimNext(event.provider(), event.partitionKey(), properties.getLeaseSeconds());
+            } catch (RuntimeException e) {
+                // The next poll picks the customer up again
+                log.warn("Could not claim next webhook event of {}: {}", event.partitionKey(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return true if the event was processed
+     */
+    boolean process(WebhookInboxEvent event) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            WebhookEventHandler handler = handlers.get(event.provider());
+            if (handler == null) {
+                throw new IllegalStateException("No webhook handler for " + event.provider());
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                handler.handle(event);
+                if (!inboxRepository.markProcessed(event.id(), event.attempt())) {
+                    // Rolls back the handler's changes; the worker holding the claim applies them
+                    throw new ClaimLostException();
+                }
+            });
+            count(event, "processed");
+            log.debug("Processed {} webhook event {} ({})", event.provider(), event.eventId(), event.eventType());
+            return true;
+        } catch (ClaimLostException e) {
+            count(event, "lost");
+            log.warn("Lease of {} webhook event {} ran out and it was claimed again; result discarded",
+                    event.provider(), event.eventId());
+            return false;
+        } catch (RuntimeException e) {
+            fail(event, e);
+            return false;
+        } finally {
+            sample.stop(processingTimer);
+        }
+    }
+
+    private void fail(WebhookInboxEvent event, RuntimeException cause) {
+        String error = describe(cause);
+        try {
+            if (event.attempt() >= Math.max(1, properties.getMaxAttempts())) {
+                if (!inboxRepository.markDead(event.id(), event.attempt(), error)) {
+                    logClaimLost(event, error);
+                    return;
+                }
+                count(event, "dead");
+                log.error("{} webhook event {} ({}) failed {} times, moved to dead letter: {}",
+                        event.provider(), event.eventId(), event.eventType(), event.attempt(), error, cause);
+            } else {
+                Duration delay = backoff(event.attempt());
+                if (!inboxRepository.markRetry(event.id(), event.attempt(), OffsetDateTime.now().plus(delay), error)) {
+                    logClaimLost(event, error);
+                    return;
+                }
+                count(event, "retried");
+                log.warn("{} webhook event {} ({}) failed attempt {}, retrying in {}s: {}",
+                        event.provider(), event.eventId(), event.eventType(), event.attempt(),
+                        delay.toSeconds(), error);
+            }
+        } catch (RuntimeException e) {
+            // The lease runs out and the event is claimed again
+            log.error("Could not record failure of webhook event {}: {}", event.eventId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Delay before the attempt after {@code attempt}: the initial backoff doubled per
+     * attempt and capped, of which the upper half is random so that events failing
+     * together do not all come back at once.
+     */
+    Duration backoff(int attempt) {
+        long initial = Math.max(1, properties.getInitialBackoffSeconds());
+        long max = Math.max(initial, properties.getMaxBackoffSeconds());
+        long seconds = Math.min(max, initial << Math.min(Math.max(0, attempt - 1), 20));
+        long half = seconds / 2;
+        return Duration.ofSeconds(seconds - half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private void refreshBacklog() {
+        try {
+            Map<WebhookInboxStatus, Long> counts = inboxRepository.countOpen();
+            pending.set(counts.getOrDefault(WebhookInboxStatus.PENDING, 0L)
+                    + counts.getOrDefault(WebhookInboxStatus.PROCESSING, 0L));
+            dead.set(counts.getOrDefault(WebhookInboxStatus.DEAD, 0L));
+        } catch (RuntimeException e) {
+            log.debug("Could not read webhook inbox backlog: {}", e.getMessage());
+        }
+    }
+
+    private void logClaimLost(WebhookInboxEvent event, String error) {
+        count(event, "lost");
+        log.warn("{} webhook event {} failed after it was claimed again, failure not recorded: {}",
+                event.provider(), event.eventId(), error);
+    }
+
+    private void count(WebhookInboxEvent event, String result) {
+        Counter.builder("webhook.inbox.events")
+                .description("Payment webhook events by provider and outcome")
+                .tag("provider", event.provider().name().toLowerCase())
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String describe(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        String message = root == e
+                ? e.getClass().getSimpleName() + ": " + e.getMessage()
+                : e.getMessage() + " (caused by " + root.getClass().getSimpleName() + ": " + root.getMessage() + ")";
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Interrupted events roll back and are claimed again when their lease runs out
+        executor.shutdownNow();
+    }
+
+    /**
+     * The event's lease ran out and another worker claimed it before this one finished.
+     */
+    private static class ClaimLostException extends RuntimeException {
+        ClaimLostException() {
+            super("Webhook inbox claim lost");
+        }
+    }
+}
@@ -51,4 +51,50 @@ public class NotificationConfig {
      * Kafka topic for notification events.
      */
     private String kafkaTopic = "notification-events";
+
+    /**
+     * Unread counters, first-page caching and the live stream of the inbox.
+     */
+    private Inbox inbox = new Inbox();
+
+    @Getter
+    @Setter
+    public static class Inbox {
+
+        /**
+         * Page size served from the first-page cache. Other page sizes and later pages
+         * always read the database.
+         */
+        private int pageSize = 20;
+
+        /**
+         * How long a cached first page lives, in seconds. Changes to the inbox evict it
+         * sooner.
+         */
+        private long pageCacheTtlSeconds = 120;
+
+        /**
+         * How long an unread counter lives in Redis before it is recounted, in minutes.
+         * Bounds any drift, for example after the retention cleanup deletes unread
+         * notifications.
+         */
+        private long unreadCounterTtlMinutes = 60;
+
+        /**
+         * How long one stream connection stays open before the client reconnects, in
+         * milliseconds.
+         */
+        private long streamTimeoutMs = 1800000;
+
+        /**
+         * How often open streams receive a heartbeat, in milliseconds. Keeps proxies from
+         * closing idle connections and finds clients that went away.
+         */
+        private long heartbeatIntervalMs = 25000;
+
+        /**
+         * Open streams per user on one node. Opening another closes the oldest.
+         */
+        private int maxStreamsPerUser = 5;
+    }
 }
@@ -0,0 +1,25 @@
+package com.extractor.unraveldocs.pushnotification.config;
+
+import com.extractor.unraveldocs.pushnotification.inbox.NotificationStreamService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Subscribes this node to inbox changes published by every node.
+ */
+@Configuration
+public class NotificationStreamConfig {
+
+    @Bean
+    public RedisMessageListenerContainer notificationStreamListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            NotificationStreamService notificationStreamService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(notificationStreamService, new ChannelTopic(NotificationStreamService.CHANNEL));
+        return container;
+    }
+}
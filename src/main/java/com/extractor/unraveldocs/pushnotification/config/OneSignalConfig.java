@@ -1,5 +1,6 @@
 package com.extractor.unraveldocs.pushnotification.config;
 
+import com.extractor.unraveldocs.outbound.service.OutboundHttpClientFactory;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -25,7 +26,7 @@ public class OneSignalConfig {
 
     @Bean(name = "oneSignalRestTemplate")
     @ConditionalOnProperty(name = "onesignal.enabled", havingValue = "true")
-    public RestTemplate oneSignalRestTemplate() {
-        return new RestTemplate();
+    public RestTemplate oneSignalRestTemplate(OutboundHttpClientFactory outboundHttpClientFactory) {
+        return outboundHttpClientFactory.restTemplate("onesignal");
     }
 }
@@ -6,6 +6,7 @@ import com.extractor.unraveldocs.pushnotification.dto.request.UpdatePreferencesR
 import com.extractor.unraveldocs.pushnotification.dto.response.DeviceTokenResponse;
 import com.extractor.unraveldocs.pushnotification.dto.response.NotificationPreferencesResponse;
 import com.extractor.unraveldocs.pushnotification.dto.response.NotificationResponse;
+import com.extractor.unraveldocs.pushnotification.inbox.NotificationStreamService;
 import com.extractor.unraveldocs.pushnotification.interfaces.DeviceTokenService;
 import com.extractor.unraveldocs.pushnotification.interfaces.NotificationPreferencesService;
 import com.extractor.unraveldocs.pushnotification.interfaces.NotificationService;
@@ -19,9 +20,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -39,6 +42,7 @@ public class NotificationController {
     private final NotificationService notificationService;
     private final DeviceTokenService deviceTokenService;
     private final NotificationPreferencesService preferencesService;
+    private final NotificationStreamService notificationStreamService;
 
     // ==================== Device Token Endpoints ====================
 
@@ -120,6 +124,15 @@ public class NotificationController {
         return ResponseEntity.ok(Map.of("count", count));
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream inbox changes",
+            description = "Server-sent events: the unread count on connect, then new notifications and count changes")
+    public SseEmitter streamNotifications(
+            @AuthenticationPrincipal User user) {
+
+        return notificationStreamService.open(user.getId(), notificationService.getUnreadCount(user.getId()));
+    }
+
     @PatchMapping("/{id}/read")
     @Operation(summary = "Mark as read", description = "Mark a notification as read")
     public ResponseEntity<Void> markAsRead(
@@ -1,6 +1,7 @@
 package com.extractor.unraveldocs.pushnotification.dto.response;
 
 import com.extractor.unraveldocs.pushnotification.datamodel.NotificationType;
+import com.extractor.unraveldocs.pushnotification.model.Notification;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -28,4 +29,19 @@ public class NotificationResponse {
     private boolean isRead;
     private OffsetDateTime createdAt;
     private OffsetDateTime readAt;
+
+    public static NotificationResponse from(Notification notification) {
+        return NotificationResponse.builder()
+                .id(notification.getId())
+                .type(notification.getType())
+                .typeDisplayName(notification.getType().getDisplayName())
+                .category(notification.getType().getCategory())
+                .title(notification.getTitle())
+                .message(notification.getMessage())
+                .data(notification.getData())
+                .isRead(notification.isRead())
+                .createdAt(notification.getCreatedAt())
+                .readAt(notification.getReadAt())
+                .build();
+    }
 }
@@ -0,0 +1,44 @@
+package com.extractor.unraveldocs.pushnotification.impl;
+
+import com.extractor.unraveldocs.pushnotification.repository.DeviceTokenRepository;
+import com.extractor.unraveldocs.pushnotification.repository.NotificationRepository;
+import com.extractor.unraveldocs.user.config.AccountLifecycleProperties;
+import com.extractor.unraveldocs.user.lifecycle.AccountPurgeStep;
+import com.extractor.unraveldocs.user.lifecycle.PurgeTarget;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stops push delivery to an account's devices and deletes its notification history
+ * in bounded batches.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationPurgeStep implements AccountPurgeStep {
+    private final DeviceTokenRepository deviceTokenRepository;
+    private final NotificationRepository notificationRepository;
+    private final AccountLifecycleProperties lifecycleProperties;
+
+    @Override
+    public String getStepName() {
+        return "notifications";
+    }
+
+    @Override
+    public void purge(PurgeTarget target) {
+        int tokens = deviceTokenRepository.deleteAllByUserId(target.userId());
+
+        int batchSize = Math.max(1, lifecycleProperties.getPurgeDeleteBatchSize());
+        int notifications = 0;
+        int deleted;
+        do {
+            deleted = notificationRepository.deleteBatchByUserId(target.userId(), batchSize);
+            notifications += deleted;
+        } while (deleted == batchSize);
+
+        log.debug("Deleted {} device tokens and {} notifications for account {}",
+                tokens, notifications, target.userId());
+    }
+}
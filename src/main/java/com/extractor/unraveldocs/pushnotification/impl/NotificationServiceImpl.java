@@ -1,8 +1,13 @@
 package com.extractor.unraveldocs.pushnotification.impl;
 
 import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import com.extractor.unraveldocs.pushnotification.config.NotificationConfig;
 import com.extractor.unraveldocs.pushnotification.datamodel.NotificationType;
 import com.extractor.unraveldocs.pushnotification.dto.response.NotificationResponse;
+import com.extractor.unraveldocs.pushnotification.inbox.NotificationInboxCache;
+import com.extractor.unraveldocs.pushnotification.inbox.NotificationInboxCache.CachedPage;
+import com.extractor.unraveldocs.pushnotification.inbox.NotificationInboxCache.InboxView;
+import com.extractor.unraveldocs.pushnotification.inbox.NotificationInboxEvents;
 import com.extractor.unraveldocs.pushnotification.interfaces.NotificationPreferencesService;
 import com.extractor.unraveldocs.pushnotification.interfaces.NotificationService;
 import com.extractor.unraveldocs.pushnotification.kafka.NotificationKafkaProducer;
@@ -11,6 +16,7 @@ import com.extractor.unraveldocs.pushnotification.repository.NotificationReposit
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,6 +24,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Supplier;
 
 /**
  * Implementation of NotificationService.
@@ -29,6 +38,9 @@ public class NotificationServiceImpl implements NotificationService {
     private final NotificationRepository notificationRepository;
     private final NotificationKafkaProducer kafkaProducer;
     private final NotificationPreferencesService preferencesService;
+    private final NotificationInboxCache inboxCache;
+    private final NotificationInboxEvents inboxEvents;
+    private final NotificationConfig notificationConfig;
     private final SanitizeLogging sanitizer;
 
     @Autowired
@@ -36,10 +48,16 @@ public class NotificationServiceImpl implements NotificationService {
             NotificationRepository notificationRepository,
             @Autowired(required = false) NotificationKafkaProducer kafkaProducer,
             SanitizeLogging sanitizer,
-            NotificationPreferencesService preferencesService) {
+            NotificationPreferencesService preferencesService,
+            NotificationInboxCache inboxCache,
+            NotificationInboxEvents inboxEvents,
+            NotificationConfig notificationConfig) {
         this.notificationRepository = notificationRepository;
         this.kafkaProducer = kafkaProducer;
         this.preferencesService = preferencesService;
+        this.inboxCache = inboxCache;
+        this.inboxEvents = inboxEvents;
+        this.notificationConfig = notificationConfig;
         this.sanitizer = sanitizer;
 
         if (kafkaProducer == null) {
@@ -93,8 +111,9 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     @Transactional(readOnly = true)
     public Page<NotificationResponse> getUserNotifications(String userId, Pageable pageable) {
-        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable)
-                .map(this::mapToResponse);
+        return cachedFirstPage(userId, InboxView.ALL, pageable,
+                () -> notificationRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable)
+                        .map(NotificationResponse::from));
     }
 
     @Override
@@ -102,20 +121,27 @@ public class NotificationServiceImpl implements NotificationService {
     public Page<NotificationResponse> getNotificationsByType(String userId, NotificationType type,
             Pageable pageable) {
         return notificationRepository.findByUserIdAndTypeOrderByCreatedAtDesc(userId, type, pageable)
-                .map(this::mapToResponse);
+                .map(NotificationResponse::from);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<NotificationResponse> getUnreadNotifications(String userId, Pageable pageable) {
-        return notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId, pageable)
-                .map(this::mapToResponse);
+        return cachedFirstPage(userId, InboxView.UNREAD, pageable,
+                () -> notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId, pageable)
+                        .map(NotificationResponse::from));
     }
 
     @Override
     @Transactional(readOnly = true)
     public long getUnreadCount(String userId) {
-        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+        OptionalLong cached = inboxCache.getUnreadCount(userId);
+        if (cached.isPresent()) {
+            return cached.getAsLong();
+        }
+        long count = notificationRepository.countByUserIdAndIsReadFalse(userId);
+        inboxCache.seedUnreadCount(userId, count);
+        return count;
     }
 
     @Override
@@ -123,9 +149,11 @@ public class NotificationServiceImpl implements NotificationService {
     public void markAsRead(String userId, String notificationId) {
         notificationRepository.findById(notificationId)
                 .filter(n -> n.getUser().getId().equals(userId))
+                .filter(n -> !n.isRead())
                 .ifPresent(notification -> {
                     notification.markAsRead();
                     notificationRepository.save(notification);
+                    inboxEvents.notificationsRead(userId, 1);
                     log.debug("Marked notification {} as read for user {}",
                             sanitizer.sanitizeLogging(notificationId),
                             sanitizer.sanitizeLogging(userId));
@@ -136,6 +164,7 @@ public class NotificationServiceImpl implements NotificationService {
     @Transactional
     public void markAllAsRead(String userId) {
         int updated = notificationRepository.markAllAsRead(userId, OffsetDateTime.now());
+        inboxEvents.allRead(userId);
         log.debug("Marked {} notifications as read for user {}",
                 sanitizer.sanitizeLoggingInteger(updated),
                 sanitizer.sanitizeLogging(userId));
@@ -148,6 +177,7 @@ public class NotificationServiceImpl implements NotificationService {
                 .filter(n -> n.getUser().getId().equals(userId))
                 .ifPresent(notification -> {
                     notificationRepository.delete(notification);
+                    inboxEvents.notificationDeleted(userId, !notification.isRead());
                     log.debug("Deleted notification {} for user {}",
                             sanitizer.sanitizeLogging(notificationId),
                             sanitizer.sanitizeLogging(userId));
@@ -159,18 +189,21 @@ public class NotificationServiceImpl implements NotificationService {
         return preferencesService.isNotificationTypeEnabled(userId, type);
     }
 
-    private NotificationResponse mapToResponse(Notification notification) {
-        return NotificationResponse.builder()
-                .id(notification.getId())
-                .type(notification.getType())
-                .typeDisplayName(notification.getType().getDisplayName())
-                .category(notification.getType().getCategory())
-                .title(notification.getTitle())
-                .message(notification.getMessage())
-                .data(notification.getData())
-                .isRead(notification.isRead())
-                .createdAt(notification.getCreatedAt())
-                .readAt(notification.getReadAt())
-                .build();
+    /**
+     * Serve the first page of an inbox view from the cache when it has the standard
+     * page size; any other page goes to the database.
+     */
+    private Page<NotificationResponse> cachedFirstPage(String userId, InboxView view, Pageable pageable,
+            Supplier<Page<NotificationResponse>> query) {
+        if (pageable.getPageNumber() != 0 || pageable.getPageSize() != notificationConfig.getInbox().getPageSize()) {
+            return query.get();
+        }
+        Optional<CachedPage> cached = inboxCache.getFirstPage(userId, view);
+        if (cached.isPresent()) {
+            return new PageImpl<>(cached.get().content(), pageable, cached.get().totalElements());
+        }
+        Page<NotificationResponse> page = query.get();
+        inboxCache.putFirstPage(userId, view, new CachedPage(page.getContent(), page.getTotalElements()));
+        return page;
     }
 }
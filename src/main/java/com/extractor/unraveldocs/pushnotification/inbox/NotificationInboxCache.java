@@ -0,0 +1,158 @@
+package com.extractor.unraveldocs.pushnotification.inbox;
+
+import com.extractor.unraveldocs.pushnotification.config.NotificationConfig;
+import com.extractor.unraveldocs.pushnotification.dto.response.NotificationResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Redis copy of each user's unread count and of the first page of their inbox.
+ * <p>
+ * A counter is seeded from the database on the first read and then moved by the
+ * changes that affect it, so reading it does not count rows. A counter that is not
+ * in Redis is left alone by changes and recounted on its next read. Any failure to
+ * reach Redis falls back to the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationInboxCache {
+
+    private static final String UNREAD_KEY_PREFIX = "notifications:unread:";
+    private static final String PAGE_KEY_PREFIX = "notifications:inbox:";
+
+    /**
+     * Move an existing counter without letting it drop below zero. Returns nil when
+     * there is no counter to move.
+     */
+    private static final RedisScript<Long> ADJUST_IF_PRESENT = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return nil
+            end
+            local count = redis.call('INCRBY', KEYS[1], ARGV[1])
+            if count < 0 then
+                redis.call('SET', KEYS[1], 0, 'KEEPTTL')
+                count = 0
+            end
+            return count
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final NotificationConfig notificationConfig;
+
+    // ==================== Unread counters ====================
+
+    public OptionalLong getUnreadCount(String userId) {
+        try {
+            String cached = redisTemplate.opsForValue().get(UNREAD_KEY_PREFIX + userId);
+            return cached != null ? OptionalLong.of(Long.parseLong(cached)) : OptionalLong.empty();
+        } catch (DataAccessException | NumberFormatException e) {
+            log.warn("Could not read unread count of user {}: {}", userId, e.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Store a count just read from the database, unless a counter appeared meanwhile.
+     */
+    public void seedUnreadCount(String userId, long count) {
+        try {
+            redisTemplate.opsForValue().setIfAbsent(UNREAD_KEY_PREFIX + userId, String.valueOf(count),
+                    Duration.ofMinutes(notificationConfig.getInbox().getUnreadCounterTtlMinutes()));
+        } catch (DataAccessException e) {
+            log.warn("Could not cache unread count of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * @return the new count, or empty if the user has no counter in Redis
+     */
+    public OptionalLong adjustUnreadCount(String userId, long delta) {
+        try {
+            Long count = redisTemplate.execute(ADJUST_IF_PRESENT, List.of(UNREAD_KEY_PREFIX + userId),
+                    String.valueOf(delta));
+            return count != null ? OptionalLong.of(count) : OptionalLong.empty();
+        } catch (DataAccessException e) {
+            log.warn("Could not update unread count of user {}: {}", userId, e.getMessage());
+            evictUnreadCount(userId);
+            return OptionalLong.empty();
+        }
+    }
+
+    public void resetUnreadCount(String userId) {
+        try {
+            redisTemplate.opsForValue().set(UNREAD_KEY_PREFIX + userId, "0",
+                    Duration.ofMinutes(notificationConfig.getInbox().getUnreadCounterTtlMinutes()));
+        } catch (DataAccessException e) {
+            log.warn("Could not reset unread count of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private void evictUnreadCount(String userId) {
+        try {
+            redisTemplate.delete(UNREAD_KEY_PREFIX + userId);
+        } catch (DataAccessException e) {
+            // The counter expires on its own
+            log.debug("Could not evict unread count of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    // ==================== First pages ====================
+
+    public Optional<CachedPage> getFirstPage(String userId, InboxView view) {
+        try {
+            String json = redisTemplate.opsForValue().get(pageKey(userId, view));
+            return json != null ? Optional.of(objectMapper.readValue(json, CachedPage.class)) : Optional.empty();
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Could not read cached {} inbox of user {}: {}", view, userId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void putFirstPage(String userId, InboxView view, CachedPage page) {
+        try {
+            redisTemplate.opsForValue().set(pageKey(userId, view), objectMapper.writeValueAsString(page),
+                    Duration.ofSeconds(notificationConfig.getInbox().getPageCacheTtlSeconds()));
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Could not cache {} inbox of user {}: {}", view, userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop the user's cached first pages after any change to their inbox.
+     */
+    public void evictPages(String userId) {
+        try {
+            redisTemplate.delete(List.of(pageKey(userId, InboxView.ALL), pageKey(userId, InboxView.UNREAD)));
+        } catch (DataAccessException e) {
+            log.warn("Could not evict cached inbox of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private static String pageKey(String userId, InboxView view) {
+        return PAGE_KEY_PREFIX + userId + ":" + view.name().toLowerCase();
+    }
+
+    public enum InboxView {
+        ALL,
+        UNREAD
+    }
+
+    /**
+     * First page of an inbox view as served to the client.
+     */
+    public record CachedPage(List<NotificationResponse> content, long totalElements) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.extractor.unraveldocs.pushnotification.inbox;
+
+import com.extractor.unraveldocs.pushnotification.dto.response.NotificationResponse;
+import com.extractor.unraveldocs.pushnotification.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.OptionalLong;
+
+/**
+ * Applies committed inbox changes to the cache and pushes them to the user's streams.
+ * <p>
+ * Called inside a transaction, the work waits until it commits, so neither the cache
+ * nor a client sees a change that was rolled back.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationInboxEvents {
+
+    private final NotificationInboxCache inboxCache;
+    private final NotificationStreamService streamService;
+    private final NotificationRepository notificationRepository;
+
+    public void notificationAdded(String userId, NotificationResponse notification) {
+        afterCommit(() -> {
+            inboxCache.evictPages(userId);
+            OptionalLong unread = inboxCache.adjustUnreadCount(userId, 1);
+            streamService.publish(NotificationStreamEvent.notification(userId, notification,
+                    unread.isPresent() ? unread.getAsLong() : null));
+        });
+    }
+
+    /**
+     * @param markedRead Notifications that went from unread to read
+     */
+    public void notificationsRead(String userId, int markedRead) {
+        if (markedRead <= 0) {
+            return;
+        }
+        afterCommit(() -> {
+            inboxCache.evictPages(userId);
+            publishCount(userId, inboxCache.adjustUnreadCount(userId, -markedRead));
+        });
+    }
+
+    public void allRead(String userId) {
+        afterCommit(() -> {
+            inboxCache.evictPages(userId);
+            inboxCache.resetUnreadCount(userId);
+            streamService.publish(NotificationStreamEvent.unreadCount(userId, 0));
+        });
+    }
+
+    public void notificationDeleted(String userId, boolean wasUnread) {
+        afterCommit(() -> {
+            inboxCache.evictPages(userId);
+            if (wasUnread) {
+                publishCount(userId, inboxCache.adjustUnreadCount(userId, -1));
+            }
+        });
+    }
+
+    private void publishCount(String userId, OptionalLong cached) {
+        long count;
+        if (cached.isPresent()) {
+            count = cached.getAsLong();
+        } else {
+            count = notificationRepository.countByUserIdAndIsReadFalse(userId);
+            inboxCache.seedUnreadCount(userId, count);
+        }
+        streamService.publish(NotificationStreamEvent.unreadCount(userId, count));
+    }
+
+    private static void afterCommit(Runnable work) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    work.run();
+                }
+            });
+        } else {
+            work.run();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.extractor.unraveldocs.pushnotification.inbox;
+
+import com.extractor.unraveldocs.pushnotification.dto.response.NotificationResponse;
+
+/**
+ * Change to one user's inbox, published to every node so the node holding the user's
+ * stream can push it.
+ *
+ * @param userId       Owner of the inbox
+ * @param name         SSE event name: {@value #NOTIFICATION} or {@value #UNREAD_COUNT}
+ * @param notification The new notification, for {@value #NOTIFICATION} events
+ * @param unreadCount  Unread count after the change, or null if it is not known
+ */
+public record NotificationStreamEvent(String userId, String name, NotificationResponse notification,
+                                      Long unreadCount) {
+
+    public static final String NOTIFICATION = "notification";
+    public static final String UNREAD_COUNT = "unread-count";
+
+    public static NotificationStreamEvent notification(String userId, NotificationResponse notification,
+                                                       Long unreadCount) {
+        return new NotificationStreamEvent(userId, NOTIFICATION, notification, unreadCount);
+    }
+
+    public static NotificationStreamEvent unreadCount(String userId, long unreadCount) {
+        return new NotificationStreamEvent(userId, UNREAD_COUNT, null, unreadCount);
+    }
+}
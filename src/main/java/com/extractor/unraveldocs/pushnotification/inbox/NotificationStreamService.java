@@ -0,0 +1,160 @@
+package com.extractor.unraveldocs.pushnotification.inbox;
+
+import com.extractor.unraveldocs.pushnotification.config.NotificationConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent event streams of users' inboxes.
+ * <p>
+ * A stream is held by the node the client connected to. Inbox changes are published
+ * on one Redis channel; every node receives them and pushes those whose user has a
+ * stream on that node. Pushes run on virtual threads, so one slow client does not
+ * hold up the channel.
+ */
+@Slf4j
+@Component
+public class NotificationStreamService implements MessageListener {
+
+    public static final String CHANNEL = "notifications:stream";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final NotificationConfig notificationConfig;
+
+    private final Map<String, List<SseEmitter>> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public NotificationStreamService(StringRedisTemplate redisTemplate,
+                                     ObjectMapper objectMapper,
+                                     NotificationConfig notificationConfig,
+                                     MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.notificationConfig = notificationConfig;
+        Gauge.builder("notifications.stream.connections", openStreams, AtomicInteger::get)
+                .description("Notification streams open on this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream for the user and send the current unread count as its first event.
+     */
+    public SseEmitter open(String userId, long unreadCount) {
+        NotificationConfig.Inbox inbox = notificationConfig.getInbox();
+        SseEmitter emitter = new SseEmitter(inbox.getStreamTimeoutMs());
+        List<SseEmitter> userStreams = streams.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>());
+        userStreams.add(emitter);
+        openStreams.incrementAndGet();
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(userId, emitter));
+
+        // Keep one user from holding many connections, e.g. a tab reopened in a loop
+        while (userStreams.size() > Math.max(1, inbox.getMaxStreamsPerUser())) {
+            SseEmitter oldest = userStreams.getFirst();
+            remove(userId, oldest);
+            oldest.complete();
+        }
+
+        send(userId, emitter, NotificationStreamEvent.unreadCount(userId, unreadCount));
+        return emitter;
+    }
+
+    /**
+     * Publish an inbox change to whichever node holds the user's streams.
+     */
+    public void publish(NotificationStreamEvent event) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(event));
+        } catch (DataAccessException | JsonProcessingException e) {
+            // Clients still see the change on their next page load
+            log.warn("Could not publish {} event for user {}: {}", event.name(), event.userId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        NotificationStreamEvent event;
+        try {
+            event = objectMapper.readValue(new String(message.getBody(), StandardCharsets.UTF_8),
+                    NotificationStreamEvent.class);
+        } catch (IOException e) {
+            log.warn("Discarding unreadable notification stream event: {}", e.getMessage());
+            return;
+        }
+        List<SseEmitter> userStreams = streams.get(event.userId());
+        if (userStreams == null) {
+            return;
+        }
+        for (SseEmitter emitter : userStreams) {
+            executor.execute(() -> send(event.userId(), emitter, event));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.inbox.heartbeat-interval-ms:25000}")
+    public void sendHeartbeats() {
+        streams.forEach((userId, userStreams) -> {
+            for (SseEmitter emitter : userStreams) {
+                executor.execute(() -> {
+                    try {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } catch (IOException | IllegalStateException e) {
+                        remove(userId, emitter);
+                    }
+                });
+            }
+        });
+    }
+
+    private void send(String userId, SseEmitter emitter, NotificationStreamEvent event) {
+        try {
+            Object data = NotificationStreamEvent.NOTIFICATION.equals(event.name())
+                    ? event
+                    : Map.of("count", event.unreadCount());
+            emitter.send(SseEmitter.event().name(event.name()).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the servlet container completes the emitter
+            remove(userId, emitter);
+        }
+    }
+
+    private void remove(String userId, SseEmitter emitter) {
+        streams.computeIfPresent(userId, (id, userStreams) -> {
+            if (userStreams.remove(emitter)) {
+                openStreams.decrementAndGet();
+            }
+            return userStreams.isEmpty() ? null : userStreams;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streams.values().forEach(userStreams -> userStreams.forEach(SseEmitter::complete));
+        executor.shutdown();
+    }
+}
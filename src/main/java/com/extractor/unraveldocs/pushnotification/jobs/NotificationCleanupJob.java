@@ -1,18 +1,25 @@
 package com.extractor.unraveldocs.pushnotification.jobs;
 
+import com.extractor.unraveldocs.partitioning.PartitionManager;
 import com.extractor.unraveldocs.pushnotification.config.NotificationConfig;
-import com.extractor.unraveldocs.pushnotification.repository.NotificationRepository;
+import com.extractor.unraveldocs.scheduling.ChunkResult;
+import com.extractor.unraveldocs.scheduling.ClusterJob;
+import com.extractor.unraveldocs.scheduling.ClusterJobRunner;
+import com.extractor.unraveldocs.scheduling.KeyRange;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 
 /**
  * Scheduled cleanup for old notification history.
+ * <p>
+ * Notifications are partitioned by month, so history is trimmed by dropping the months
+ * that lie wholly before the retention cutoff. Rows are kept up to a month past
+ * {@code notificationRetentionDays} until their whole month has aged out.
  */
 @Slf4j
 @Component
@@ -20,21 +27,28 @@ import java.time.OffsetDateTime;
 @ConditionalOnProperty(name = "spring.scheduling.enabled", havingValue = "true", matchIfMissing = true)
 public class NotificationCleanupJob {
 
-    private final NotificationRepository notificationRepository;
+    static final String JOB_NAME = "notification-cleanup";
+    static final String TABLE = "notifications";
+
+    private final PartitionManager partitionManager;
     private final NotificationConfig notificationConfig;
+    private final ClusterJobRunner clusterJobRunner;
 
     /**
      * Run weekly at 3 AM on Sunday.
      */
     @Scheduled(cron = "0 0 3 * * SUN")
-    @Transactional
     public void cleanupOldNotifications() {
+        clusterJobRunner.run(ClusterJob.single(JOB_NAME, this::dropExpiredMonths));
+    }
+
+    ChunkResult dropExpiredMonths(KeyRange range, OffsetDateTime runStartedAt) {
         int retentionDays = notificationConfig.getNotificationRetentionDays();
-        OffsetDateTime cutoffDate = OffsetDateTime.now().minusDays(retentionDays);
+        OffsetDateTime cutoffDate = runStartedAt.minusDays(retentionDays);
 
-        int deleted = notificationRepository.deleteOlderThan(cutoffDate);
+        int dropped = partitionManager.dropPartitionsBefore(TABLE, cutoffDate);
 
-        log.info("Completed notification cleanup: deleted={}, retentionDays={}", deleted, retentionDays);
+        log.info("Completed notification cleanup: droppedPartitions={}, retentionDays={}", dropped, retentionDays);
+        return ChunkResult.of(dropped);
     }
 }
-
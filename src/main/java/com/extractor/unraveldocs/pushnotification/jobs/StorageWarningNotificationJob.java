@@ -4,6 +4,11 @@ import com.extractor.unraveldocs.pushnotification.datamodel.NotificationType;
 import com.extractor.unraveldocs.pushnotification.interfaces.NotificationService;
 import com.extractor.unraveldocs.pushnotification.model.StorageWarningSent;
 import com.extractor.unraveldocs.pushnotification.repository.StorageWarningSentRepository;
+import com.extractor.unraveldocs.scheduling.ChunkResult;
+import com.extractor.unraveldocs.scheduling.ClusterJob;
+import com.extractor.unraveldocs.scheduling.ClusterJobRunner;
+import com.extractor.unraveldocs.scheduling.KeyRange;
+import com.extractor.unraveldocs.scheduling.KeySpace;
 import com.extractor.unraveldocs.subscription.model.UserSubscription;
 import com.extractor.unraveldocs.subscription.repository.UserSubscriptionRepository;
 import com.extractor.unraveldocs.user.model.User;
@@ -12,8 +17,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -31,31 +36,49 @@ public class StorageWarningNotificationJob {
     private final UserSubscriptionRepository subscriptionRepository;
     private final StorageWarningSentRepository warningRepository;
     private final NotificationService notificationService;
+    private final ClusterJobRunner clusterJobRunner;
+
+    static final String JOB_NAME = "storage-warning-notifications";
 
     private static final int THRESHOLD_80 = 80;
     private static final int THRESHOLD_90 = 90;
     private static final int THRESHOLD_95 = 95;
 
     /**
-     * Run daily at 10 AM to check storage usage.
+     * Run daily at 10 AM to check storage usage, once across the cluster in chunks of
+     * subscriptions.
      */
     @Scheduled(cron = "0 0 10 * * *")
-    @Transactional
     public void checkStorageUsage() {
-        log.info("Starting storage warning notification job");
+        var report = clusterJobRunner.run(ClusterJob.chunked(JOB_NAME,
+                KeySpace.of("user_subscriptions", "storage_used > 0 OR EXISTS (SELECT 1 FROM storage_warning_sent w "
+                        + "WHERE w.user_id = user_subscriptions.user_id)"),
+                this::checkChunk));
+        log.info("Storage warning notification run: {}", report);
+    }
 
-        List<UserSubscription> subscriptions = subscriptionRepository.findAll();
+    /**
+     * Check one chunk of subscriptions.
+     */
+    ChunkResult checkChunk(KeyRange range, OffsetDateTime runStartedAt) {
+        List<UserSubscription> subscriptions = subscriptionRepository.findStorageWarningCandidatesInKeyRange(
+                range.afterKey(), range.upToKey());
         int warningsSent = 0;
+        int failed = 0;
 
         for (UserSubscription subscription : subscriptions) {
             try {
                 warningsSent += checkUserStorage(subscription);
             } catch (Exception e) {
+                failed++;
                 log.error("Error checking storage for subscription {}: {}", subscription.getId(), e.getMessage());
             }
         }
 
-        log.info("Completed storage warning job. Sent {} warnings", warningsSent);
+        if (warningsSent > 0) {
+            log.info("Sent {} storage warnings for subscriptions up to {}", warningsSent, range.upToKey());
+        }
+        return new ChunkResult(subscriptions.size() - failed, failed);
     }
 
     private int checkUserStorage(UserSubscription subscription) {
@@ -2,6 +2,8 @@ package com.extractor.unraveldocs.pushnotification.kafka;
 
 import com.extractor.unraveldocs.pushnotification.config.NotificationConfig;
 import com.extractor.unraveldocs.pushnotification.datamodel.NotificationProviderType;
+import com.extractor.unraveldocs.pushnotification.dto.response.NotificationResponse;
+import com.extractor.unraveldocs.pushnotification.inbox.NotificationInboxEvents;
 import com.extractor.unraveldocs.pushnotification.interfaces.DeviceTokenService;
 import com.extractor.unraveldocs.pushnotification.interfaces.NotificationPreferencesService;
 import com.extractor.unraveldocs.pushnotification.model.Notification;
@@ -37,6 +39,7 @@ public class NotificationKafkaConsumer {
     private final DeviceTokenService deviceTokenService;
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final NotificationInboxEvents inboxEvents;
     private final Map<NotificationProviderType, NotificationProviderService> providers;
 
     @Autowired
@@ -46,12 +49,14 @@ public class NotificationKafkaConsumer {
             DeviceTokenService deviceTokenService,
             NotificationRepository notificationRepository,
             UserRepository userRepository,
+            NotificationInboxEvents inboxEvents,
             List<NotificationProviderService> providerList) {
         this.config = config;
         this.preferencesService = preferencesService;
         this.deviceTokenService = deviceTokenService;
         this.notificationRepository = notificationRepository;
         this.userRepository = userRepository;
+        this.inboxEvents = inboxEvents;
 
         // Build a map of providers by type
         this.providers = new java.util.HashMap<>();
@@ -144,7 +149,8 @@ public class NotificationKafkaConsumer {
                     .data(event.getData())
                     .build();
 
-            notificationRepository.save(notification);
+            Notification saved = notificationRepository.save(notification);
+            inboxEvents.notificationAdded(event.getUserId(), NotificationResponse.from(saved));
             log.debug("Notification persisted for user {}", event.getUserId());
         } catch (Exception e) {
             log.error("Failed to persist notification: {}", e.getMessage());
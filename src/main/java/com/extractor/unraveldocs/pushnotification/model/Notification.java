@@ -21,7 +21,7 @@ import java.util.Map;
 @Data
 @Entity
 @Table(name = "notifications", indexes = {
-        @Index(columnList = "user_id"),
+        @Index(columnList = "user_id, created_at DESC"),
         @Index(columnList = "is_read"),
         @Index(columnList = "created_at"),
         @Index(columnList = "type")
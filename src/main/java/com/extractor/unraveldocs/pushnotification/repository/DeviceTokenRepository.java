@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -71,6 +72,7 @@ public interface DeviceTokenRepository extends JpaRepository<UserDeviceToken, St
     /**
      * Hard delete all device tokens for a user.
      */
+    @Transactional
     @Modifying
     @Query("DELETE FROM UserDeviceToken t WHERE t.user.id = :userId")
     int deleteAllByUserId(@Param("userId") String userId);
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -47,13 +48,6 @@ public interface NotificationRepository extends JpaRepository<Notification, Stri
     @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.user.id = :userId AND n.isRead = false")
     int markAllAsRead(@Param("userId") String userId, @Param("readAt") OffsetDateTime readAt);
 
-    /**
-     * Delete old notifications (for cleanup job).
-     */
-    @Modifying
-    @Query("DELETE FROM Notification n WHERE n.createdAt < :cutoffDate")
-    int deleteOlderThan(@Param("cutoffDate") OffsetDateTime cutoffDate);
-
     /**
      * Find notifications by user and type for deduplication.
      */
@@ -68,4 +62,14 @@ public interface NotificationRepository extends JpaRepository<Notification, Stri
 
     @Query("SELECT n.type, COUNT(n) FROM Notification n GROUP BY n.type")
     List<Object[]> countNotificationsByType();
+
+    /**
+     * Delete up to {@code limit} of a user's notifications in its own short transaction.
+     * Call repeatedly until it returns 0.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM notifications WHERE id IN (SELECT id FROM notifications WHERE user_id = :userId LIMIT :limit)",
+            nativeQuery = true)
+    int deleteBatchByUserId(@Param("userId") String userId, @Param("limit") int limit);
 }
@@ -0,0 +1,20 @@
+package com.extractor.unraveldocs.scheduling;
+
+/**
+ * Items handled in one chunk.
+ *
+ * @param processed Items handled
+ * @param failed    Items that could not be handled
+ */
+public record ChunkResult(long processed, long failed) {
+
+    public static final ChunkResult EMPTY = new ChunkResult(0, 0);
+
+    public static ChunkResult of(long processed) {
+        return new ChunkResult(processed, 0);
+    }
+
+    public ChunkResult plus(ChunkResult other) {
+        return new ChunkResult(processed + other.processed, failed + other.failed);
+    }
+}
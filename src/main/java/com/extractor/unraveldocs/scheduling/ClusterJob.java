@@ -0,0 +1,39 @@
+package com.extractor.unraveldocs.scheduling;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A scheduled job that runs once per schedule across the cluster.
+ *
+ * @param name      Unique job name, used as the key of its run and chunk rows
+ * @param keySpace  Rows split into chunks, or null to run the job as one chunk
+ * @param processor Work for one chunk
+ */
+public record ClusterJob(String name, KeySpace keySpace, ChunkProcessor processor) {
+
+    /**
+     * A job split into keyset chunks that any node may process.
+     */
+    public static ClusterJob chunked(String name, KeySpace keySpace, ChunkProcessor processor) {
+        return new ClusterJob(name, keySpace, processor);
+    }
+
+    /**
+     * A job run by one node as a single chunk, for work that is already one set-based
+     * statement or too small to split.
+     */
+    public static ClusterJob single(String name, ChunkProcessor processor) {
+        return new ClusterJob(name, null, processor);
+    }
+
+    @FunctionalInterface
+    public interface ChunkProcessor {
+        /**
+         * Process the rows in {@code range}. Runs in its own transaction.
+         *
+         * @param range        Keys of the chunk, {@link KeyRange#ALL} for a single-chunk job
+         * @param runStartedAt Start of the run, the same for every chunk of the run
+         */
+        ChunkResult process(KeyRange range, OffsetDateTime runStartedAt);
+    }
+}
@@ -0,0 +1,19 @@
+package com.extractor.unraveldocs.scheduling;
+
+/**
+ * What one node did in a call to {@link ClusterJobRunner#run(ClusterJob)}.
+ *
+ * @param jobName   Job that ran
+ * @param runId     Run the node worked on, 0 if it did not take part
+ * @param chunks    Chunks this node completed
+ * @param processed Items this node processed
+ * @param failed    Items this node could not process
+ * @param completed Whether this node closed the run
+ */
+public record ClusterJobReport(String jobName, long runId, int chunks, long processed, long failed,
+                               boolean completed) {
+
+    public static ClusterJobReport skipped(String jobName) {
+        return new ClusterJobReport(jobName, 0, 0, 0, 0, false);
+    }
+}
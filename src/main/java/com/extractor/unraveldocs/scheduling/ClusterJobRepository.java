@@ -0,0 +1,255 @@
+package com.extractor.unraveldocs.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC access to job runs and their chunks.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ClusterJobRepository {
+
+    static final String STATUS_RUNNING = "RUNNING";
+
+    private static final String RUN_STARTED_AT = ":runStartedAt";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // ==================== Runs ====================
+
+    /**
+     * Lock the job's run row, creating it on first use. Must be called inside a
+     * transaction; other nodes wait on the lock until it ends.
+     *
+     * @param minSpacingSeconds A run started within this many seconds counts as recent
+     */
+    public LockedRun lockRun(String jobName, long minSpacingSeconds) {
+        jdbcTemplate.update("""
+                INSERT INTO cluster_job_runs (job_name)
+                VALUES (?)
+                ON CONFLICT (job_name) DO NOTHING
+                """, jobName);
+        return jdbcTemplate.queryForObject("""
+                SELECT run_id, status, started_at,
+                       COALESCE(started_at > now() - make_interval(secs => ?), false) AS recently_started
+                FROM cluster_job_runs
+                WHERE job_name = ?
+                FOR UPDATE
+                """, (rs, rowNum) -> new LockedRun(toRunState(rs), rs.getBoolean("recently_started")),
+                minSpacingSeconds, jobName);
+    }
+
+    /**
+     * Start the next run and drop the chunks of earlier runs. Must hold the run lock.
+     */
+    public RunState beginRun(String jobName, String owner) {
+        jdbcTemplate.update("DELETE FROM cluster_job_chunks WHERE job_name = ?", jobName);
+        return jdbcTemplate.queryForObject("""
+                UPDATE cluster_job_runs
+                SET run_id = run_id + 1, status = 'RUNNING', started_by = ?, started_at = now(),
+                    finished_at = NULL, chunks_planned = 0, processed = 0, failed = 0, updated_at = now()
+                WHERE job_name = ?
+                RETURNING run_id, status, started_at
+                """, (rs, rowNum) -> toRunState(rs), owner, jobName);
+    }
+
+    /**
+     * Last key of the next chunk: the {@code chunkSize}-th matching key after
+     * {@code afterKey}, or the last matching key if fewer remain.
+     *
+     * @return null once no matching keys remain
+     */
+    public String findChunkEnd(KeySpace keySpace, OffsetDateTime runStartedAt, String afterKey, int chunkSize) {
+        String condition = keySpace.condition();
+        List<Object> args = new ArrayList<>();
+        int from = 0;
+        while ((from = condition.indexOf(RUN_STARTED_AT, from)) >= 0) {
+            args.add(runStartedAt);
+            from += RUN_STARTED_AT.length();
+        }
+        args.add(afterKey);
+        args.add(chunkSize);
+        String sql = "SELECT max(k) FROM (SELECT " + keySpace.keyColumn() + " AS k FROM " + keySpace.table()
+                + " WHERE (" + condition.replace(RUN_STARTED_AT, "?") + ") AND " + keySpace.keyColumn()
+                + " > ? ORDER BY " + keySpace.keyColumn() + " LIMIT ?) c";
+        return jdbcTemplate.queryForObject(sql, String.class, args.toArray());
+    }
+
+    public void insertChunks(String jobName, long runId, List<KeyRange> ranges) {
+        if (ranges.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            rows.add(new Object[]{jobName, runId, i, ranges.get(i).afterKey(), ranges.get(i).upToKey()});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO cluster_job_chunks (job_name, run_id, chunk_no, after_key, up_to_key)
+                VALUES (?, ?, ?, ?, ?)
+                """, rows);
+        jdbcTemplate.update("""
+                UPDATE cluster_job_runs SET chunks_planned = ?, updated_at = now()
+                WHERE job_name = ? AND run_id = ?
+                """, ranges.size(), jobName, runId);
+    }
+
+    /**
+     * Close the run once none of its chunks is pending or running.
+     *
+     * @return the closed run's totals, or empty if chunks remain or another node closed it
+     */
+    public Optional<RunTotals> completeRunIfDone(String jobName, long runId) {
+        List<RunTotals> closed = jdbcTemplate.query("""
+                UPDATE cluster_job_runs r
+                SET status = 'COMPLETED', finished_at = now(), updated_at = now(),
+                    processed = (SELECT COALESCE(sum(c.processed), 0) FROM cluster_job_chunks c
+                                 WHERE c.job_name = r.job_name AND c.run_id = r.run_id),
+                    failed = (SELECT COALESCE(sum(c.failed), 0) FROM cluster_job_chunks c
+                              WHERE c.job_name = r.job_name AND c.run_id = r.run_id)
+                WHERE r.job_name = ? AND r.run_id = ? AND r.status = 'RUNNING'
+                  AND NOT EXISTS (SELECT 1 FROM cluster_job_chunks c
+                                  WHERE c.job_name = r.job_name AND c.run_id = r.run_id
+                                    AND c.status IN ('PENDING', 'RUNNING'))
+                RETURNING r.started_at, r.finished_at, r.processed, r.failed,
+                          (SELECT count(*) FROM cluster_job_chunks c
+                           WHERE c.job_name = r.job_name AND c.run_id = r.run_id AND c.status = 'FAILED') AS failed_chunks
+                """, (rs, rowNum) -> new RunTotals(
+                rs.getObject("started_at", OffsetDateTime.class),
+                rs.getObject("finished_at", OffsetDateTime.class),
+                rs.getLong("processed"),
+                rs.getLong("failed"),
+                rs.getInt("failed_chunks")), jobName, runId);
+        return closed.stream().findFirst();
+    }
+
+    /**
+     * Names of jobs with a run in progress, for resuming runs whose nodes went away.
+     */
+    public List<String> findRunningJobs() {
+        return jdbcTemplate.queryForList(
+                "SELECT job_name FROM cluster_job_runs WHERE status = 'RUNNING'", String.class);
+    }
+
+    public Optional<RunState> findRun(String jobName) {
+        return jdbcTemplate.query("""
+                SELECT run_id, status, started_at
+                FROM cluster_job_runs
+                WHERE job_name = ?
+                """, (rs, rowNum) -> toRunState(rs), jobName).stream().findFirst();
+    }
+
+    // ==================== Chunks ====================
+
+    /**
+     * Claim the next chunk of the run: a pending chunk, or a running one whose lease has
+     * expired. Chunks claimed by other nodes are skipped, not waited on.
+     */
+    public Optional<ClaimedChunk> claimChunk(String jobName, long runId, String owner, long leaseSeconds,
+                                             int maxAttempts) {
+        return jdbcTemplate.query("""
+                UPDATE cluster_job_chunks c
+                SET status = 'RUNNING', lease_owner = ?, lease_expires_at = now() + make_interval(secs => ?),
+                    attempts = c.attempts + 1
+                WHERE (c.job_name, c.run_id, c.chunk_no) = (
+                    SELECT job_name, run_id, chunk_no
+                    FROM cluster_job_chunks
+                    WHERE job_name = ? AND run_id = ? AND attempts < ?
+                      AND (status = 'PENDING' OR (status = 'RUNNING' AND lease_expires_at < now()))
+                    ORDER BY chunk_no
+                    LIMIT 1
+                    FOR UPDATE SKIP LOCKED)
+                RETURNING c.chunk_no, c.after_key, c.up_to_key, c.attempts
+                """, (rs, rowNum) -> new ClaimedChunk(
+                rs.getInt("chunk_no"),
+                new KeyRange(rs.getString("after_key"), rs.getString("up_to_key")),
+                rs.getInt("attempts")), owner, leaseSeconds, jobName, runId, maxAttempts).stream().findFirst();
+    }
+
+    /**
+     * @return false if the chunk's lease was lost to another node, whose result counts instead
+     */
+    public boolean completeChunk(String jobName, long runId, int chunkNo, String owner, ChunkResult result) {
+        return jdbcTemplate.update("""
+                UPDATE cluster_job_chunks
+                SET status = 'DONE', processed = ?, failed = ?, lease_owner = NULL, lease_expires_at = NULL,
+                    last_error = NULL, finished_at = now()
+                WHERE job_name = ? AND run_id = ? AND chunk_no = ? AND lease_owner = ? AND status = 'RUNNING'
+                """, result.processed(), result.failed(), jobName, runId, chunkNo, owner) == 1;
+    }
+
+    /**
+     * Hand a chunk that threw back to the run, or mark it failed once it has used all
+     * its attempts.
+     */
+    public void releaseChunk(String jobName, long runId, int chunkNo, String owner, int maxAttempts, String error) {
+        jdbcTemplate.update("""
+                UPDATE cluster_job_chunks
+                SET status = CASE WHEN attempts >= ? THEN 'FAILED' ELSE 'PENDING' END,
+                    lease_owner = NULL, lease_expires_at = NULL, last_error = ?,
+                    finished_at = CASE WHEN attempts >= ? THEN now() END
+                WHERE job_name = ? AND run_id = ? AND chunk_no = ? AND lease_owner = ?
+                """, maxAttempts, error, maxAttempts, jobName, runId, chunkNo, owner);
+    }
+
+    /**
+     * Chunks of the run not yet finished.
+     */
+    public long countOpenChunks(String jobName, long runId) {
+        Long open = jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM cluster_job_chunks
+                WHERE job_name = ? AND run_id = ? AND status IN ('PENDING', 'RUNNING')
+                """, Long.class, jobName, runId);
+        return open != null ? open : 0;
+    }
+
+    /**
+     * Fail chunks that used all their attempts without finishing, so the run can close.
+     */
+    public int failExhaustedChunks(String jobName, long runId, int maxAttempts) {
+        return jdbcTemplate.update("""
+                UPDATE cluster_job_chunks
+                SET status = 'FAILED', lease_owner = NULL, lease_expires_at = NULL, finished_at = now(),
+                    last_error = COALESCE(last_error, 'lease expired')
+                WHERE job_name = ? AND run_id = ? AND attempts >= ?
+                  AND (status = 'PENDING' OR (status = 'RUNNING' AND lease_expires_at < now()))
+                """, jobName, runId, maxAttempts);
+    }
+
+    private static RunState toRunState(ResultSet rs) throws SQLException {
+        return new RunState(
+                rs.getLong("run_id"),
+                STATUS_RUNNING.equals(rs.getString("status")),
+                rs.getObject("started_at", OffsetDateTime.class));
+    }
+
+    /**
+     * @param runId     Current or last run
+     * @param running   Whether the run is in progress
+     * @param startedAt When the run started
+     */
+    public record RunState(long runId, boolean running, OffsetDateTime startedAt) {
+    }
+
+    /**
+     * @param run             The job's current or last run
+     * @param recentlyStarted Whether that run started within the minimum spacing
+     */
+    public record LockedRun(RunState run, boolean recentlyStarted) {
+    }
+
+    public record ClaimedChunk(int chunkNo, KeyRange range, int attempts) {
+    }
+
+    public record RunTotals(OffsetDateTime startedAt, OffsetDateTime finishedAt, long processed, long failed,
+                            int failedChunks) {
+    }
+}
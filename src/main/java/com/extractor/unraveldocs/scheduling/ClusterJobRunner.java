@@ -0,0 +1,252 @@
+package com.extractor.unraveldocs.scheduling;
+
+import com.extractor.unraveldocs.scheduling.ClusterJobRepository.ClaimedChunk;
+import com.extractor.unraveldocs.scheduling.ClusterJobRepository.LockedRun;
+import com.extractor.unraveldocs.scheduling.ClusterJobRepository.RunState;
+import com.extractor.unraveldocs.scheduling.ClusterJobRepository.RunTotals;
+import com.extractor.unraveldocs.scheduling.config.ClusterJobProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs {@link ClusterJob}s once per schedule across all nodes.
+ * <p>
+ * Every node calls {@link #run(ClusterJob)} from its own schedule. The first node to
+ * lock the job's run row starts a run and splits the key space into chunks; the others
+ * wait on the lock and then join that run. Nodes claim chunks with
+ * {@code FOR UPDATE SKIP LOCKED} under a lease, so each chunk is processed by one node
+ * and more nodes finish a run sooner. A chunk is processed and marked done in one
+ * transaction. A chunk whose node dies is claimed again once its lease expires, by a
+ * node joining on its next schedule or by the recovery pass.
+ */
+@Slf4j
+@Service
+public class ClusterJobRunner {
+
+    private final ClusterJobRepository repository;
+    private final ClusterJobProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService executor;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, ClusterJob> knownJobs = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> backlogs = new ConcurrentHashMap<>();
+
+    public ClusterJobRunner(ClusterJobRepository repository,
+                            ClusterJobProperties properties,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        // Chunk workers mostly wait on the database and outbound calls
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Start or join the job's current run and process chunks until none is left to claim.
+     */
+    public ClusterJobReport run(ClusterJob job) {
+        knownJobs.putIfAbsent(job.name(), job);
+        RunState run = transactionTemplate.execute(status -> startOrJoin(job));
+        if (run == null) {
+            log.debug("Skipping {}: the current run already completed", job.name());
+            return ClusterJobReport.skipped(job.name());
+        }
+        return work(job, run);
+    }
+
+    /**
+     * Resume runs left unfinished by nodes that stopped, for jobs this node has run.
+     */
+    @Scheduled(fixedDelayString = "${cluster-jobs.recovery-interval-ms:60000}")
+    public void resumeInterruptedRuns() {
+        for (String jobName : repository.findRunningJobs()) {
+            ClusterJob job = knownJobs.get(jobName);
+            if (job == null) {
+                continue;
+            }
+            repository.findRun(jobName)
+                    .filter(RunState::running)
+                    .ifPresent(run -> work(job, run));
+        }
+    }
+
+    private RunState startOrJoin(ClusterJob job) {
+        LockedRun locked = repository.lockRun(job.name(), properties.getMinRunSpacingSeconds());
+        if (locked.run().running()) {
+            log.info("Joining {} run {}", job.name(), locked.run().runId());
+            return locked.run();
+        }
+        if (locked.recentlyStarted()) {
+            return null;
+        }
+
+        RunState started = repository.beginRun(job.name(), nodeId);
+        List<KeyRange> chunks = plan(job, started);
+        repository.insertChunks(job.name(), started.runId(), chunks);
+        backlog(job.name()).set(chunks.size());
+        log.info("Started {} run {} with {} chunks", job.name(), started.runId(), chunks.size());
+        return started;
+    }
+
+    private List<KeyRange> plan(ClusterJob job, RunState run) {
+        if (job.keySpace() == null) {
+            return List.of(KeyRange.ALL);
+        }
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        List<KeyRange> chunks = new ArrayList<>();
+        String afterKey = "";
+        String chunkEnd;
+        while ((chunkEnd = repository.findChunkEnd(job.keySpace(), run.startedAt(), afterKey, chunkSize)) != null) {
+            chunks.add(new KeyRange(afterKey, chunkEnd));
+            afterKey = chunkEnd;
+        }
+        return chunks;
+    }
+
+    private ClusterJobReport work(ClusterJob job, RunState run) {
+        int workers = job.keySpace() == null ? 1 : Math.max(1, properties.getWorkersPerNode());
+        List<Future<ClusterJobReport>> running = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            running.add(executor.submit(() -> claimAndProcess(job, run)));
+        }
+
+        int chunks = 0;
+        long processed = 0;
+        long failed = 0;
+        for (Future<ClusterJobReport> worker : running) {
+            try {
+                ClusterJobReport report = worker.get();
+                chunks += report.chunks();
+                processed += report.processed();
+                failed += report.failed();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                log.error("{} worker stopped: {}", job.name(), e.getCause().getMessage(), e.getCause());
+            }
+        }
+
+        repository.failExhaustedChunks(job.name(), run.runId(), properties.getMaxChunkAttempts());
+        Optional<RunTotals> closed = repository.completeRunIfDone(job.name(), run.runId());
+        closed.ifPresentOrElse(totals -> {
+            Duration duration = Duration.between(totals.startedAt(), totals.finishedAt());
+            Timer.builder("cluster.jobs.run.duration")
+                    .description("Time from the start of a job run to its last chunk")
+                    .tag("job", job.name())
+                    .register(meterRegistry)
+                    .record(duration);
+            backlog(job.name()).set(0);
+            if (totals.failedChunks() > 0) {
+                log.warn("{} run {} completed in {} with {} failed chunks: {} processed, {} failed",
+                        job.name(), run.runId(), duration, totals.failedChunks(), totals.processed(), totals.failed());
+            } else {
+                log.info("{} run {} completed in {}: {} processed, {} failed",
+                        job.name(), run.runId(), duration, totals.processed(), totals.failed());
+            }
+        }, () -> backlog(job.name()).set(repository.countOpenChunks(job.name(), run.runId())));
+
+        return new ClusterJobReport(job.name(), run.runId(), chunks, processed, failed, closed.isPresent());
+    }
+
+    private ClusterJobReport claimAndProcess(ClusterJob job, RunState run) {
+        int chunks = 0;
+        long processed = 0;
+        long failed = 0;
+        Optional<ClaimedChunk> claimed;
+        while ((claimed = repository.claimChunk(job.name(), run.runId(), nodeId,
+                properties.getChunkLeaseSeconds(), properties.getMaxChunkAttempts())).isPresent()) {
+            ClaimedChunk chunk = claimed.get();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                ChunkResult result = transactionTemplate.execute(status -> {
+                    ChunkResult outcome = job.processor().process(chunk.range(), run.startedAt());
+                    if (!repository.completeChunk(job.name(), run.runId(), chunk.chunkNo(), nodeId, outcome)) {
+                        // Another node took the chunk over; its result counts instead
+                        status.setRollbackOnly();
+                        return null;
+                    }
+                    return outcome;
+                });
+                if (result == null) {
+                    log.warn("{} chunk {} lost its lease, discarded", job.name(), chunk.chunkNo());
+                    chunkCounter(job.name(), "lost").increment();
+                    continue;
+                }
+                chunks++;
+                processed += result.processed();
+                failed += result.failed();
+                chunkCounter(job.name(), "done").increment();
+                itemCounter(job.name(), "processed").increment(result.processed());
+                itemCounter(job.name(), "failed").increment(result.failed());
+            } catch (RuntimeException e) {
+                log.error("{} chunk {} failed on attempt {}: {}",
+                        job.name(), chunk.chunkNo(), chunk.attempts(), e.getMessage(), e);
+                repository.releaseChunk(job.name(), run.runId(), chunk.chunkNo(), nodeId,
+                        properties.getMaxChunkAttempts(), e.getMessage());
+                chunkCounter(job.name(), "error").increment();
+            } finally {
+                sample.stop(Timer.builder("cluster.jobs.chunk.duration")
+                        .description("Time to process one chunk")
+                        .tag("job", job.name())
+                        .register(meterRegistry));
+            }
+        }
+        return new ClusterJobReport(job.name(), run.runId(), chunks, processed, failed, false);
+    }
+
+    private AtomicLong backlog(String jobName) {
+        return backlogs.computeIfAbsent(jobName, name -> {
+            AtomicLong open = new AtomicLong();
+            Gauge.builder("cluster.jobs.backlog", open, AtomicLong::get)
+                    .description("Chunks of the current run not yet processed, as last seen by this node")
+                    .tag("job", name)
+                    .register(meterRegistry);
+            return open;
+        });
+    }
+
+    private Counter chunkCounter(String jobName, String outcome) {
+        return Counter.builder("cluster.jobs.chunks")
+                .description("Job chunks handled by this node")
+                .tag("job", jobName)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Counter itemCounter(String jobName, String outcome) {
+        return Counter.builder("cluster.jobs.items")
+                .description("Items handled by job chunks")
+                .tag("job", jobName)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
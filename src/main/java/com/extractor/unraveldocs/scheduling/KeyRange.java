@@ -0,0 +1,20 @@
+package com.extractor.unraveldocs.scheduling;
+
+/**
+ * Keys of one chunk: greater than {@code afterKey} and up to and including
+ * {@code upToKey}. Both are null for a job that runs as a single chunk.
+ *
+ * @param afterKey Exclusive lower bound
+ * @param upToKey  Inclusive upper bound
+ */
+public record KeyRange(String afterKey, String upToKey) {
+
+    /**
+     * The whole key space, for jobs that are not split.
+     */
+    public static final KeyRange ALL = new KeyRange(null, null);
+
+    public boolean isAll() {
+        return afterKey == null && upToKey == null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.extractor.unraveldocs.scheduling;
+
+/**
+ * Rows a chunked job walks, in key order. The condition may use {@code :runStartedAt},
+ * which is fixed when the run starts, so chunks resumed after a crash cover the same rows.
+ *
+ * @param table     Table to read keys from
+ * @param keyColumn Unique column the chunks are ranges of
+ * @param condition SQL condition selecting the rows to process
+ */
+public record KeySpace(String table, String keyColumn, String condition) {
+
+    public static KeySpace of(String table, String condition) {
+        return new KeySpace(table, "id", condition);
+    }
+}
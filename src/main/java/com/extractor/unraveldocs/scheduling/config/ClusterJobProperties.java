@@ -0,0 +1,46 @@
+package com.extractor.unraveldocs.scheduling.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tuning for scheduled jobs shared across the cluster: how work is split into chunks
+ * and how long a node may hold a chunk.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cluster-jobs")
+public class ClusterJobProperties {
+    /**
+     * Keys per chunk when a run is planned.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Chunks one node processes at the same time.
+     */
+    private int workersPerNode = 4;
+
+    /**
+     * How long a node holds a claimed chunk, in seconds. A chunk whose lease expires,
+     * for example because its node crashed, is handed to another node.
+     */
+    private long chunkLeaseSeconds = 600;
+
+    /**
+     * Attempts per chunk before it is marked failed and the run moves on.
+     */
+    private int maxChunkAttempts = 3;
+
+    /**
+     * A completed run started less than this many seconds ago is not started again, so
+     * nodes whose schedules fire a moment apart join one run instead of starting two.
+     */
+    private long minRunSpacingSeconds = 60;
+
+    /**
+     * How often each node looks for interrupted runs to resume, in milliseconds.
+     */
+    private long recoveryIntervalMs = 60000;
+}
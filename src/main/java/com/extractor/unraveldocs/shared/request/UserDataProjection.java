@@ -7,6 +7,7 @@ import java.time.OffsetDateTime;
 public interface UserDataProjection {
     void setId(String id);
     void setProfilePicture(String profilePicture);
+    void setProfilePictureThumbnail(String profilePictureThumbnail);
     void setFirstName(String firstName);
     void setLastName(String lastName);
     void setEmail(String email);
@@ -10,6 +10,7 @@ public class ResponseData {
         T data = supplier.get();
         data.setId(user.getId());
         data.setProfilePicture(user.getProfilePicture());
+        data.setProfilePictureThumbnail(user.getProfilePictureThumbnail());
         data.setFirstName(user.getFirstName());
         data.setLastName(user.getLastName());
         data.setEmail(user.getEmail());
@@ -2,6 +2,7 @@ package com.extractor.unraveldocs.storage.service;
 
 import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
 import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiRecorder;
 import com.extractor.unraveldocs.storage.dto.StorageInfo;
 import com.extractor.unraveldocs.storage.exception.StorageQuotaExceededException;
 import com.extractor.unraveldocs.subscription.datamodel.SubscriptionSource;
@@ -37,6 +38,7 @@ public class StorageAllocationService {
     private final TeamMemberRepository teamMemberRepository;
     private final DocumentCollectionRepository documentCollectionRepository;
     private final SanitizeLogging sanitizer;
+    private final KpiRecorder kpiRecorder;
 
     /**
      * Check if user has sufficient storage available for upload.
@@ -146,6 +148,7 @@ public class StorageAllocationService {
 
         subscription.setStorageUsed(newUsage);
         userSubscriptionRepository.save(subscription);
+        kpiRecorder.storageChanged(newUsage - currentUsage);
 
         log.info("Updated storage for user {}: {} -> {} (change: {})",
                 sanitizer.sanitizeLogging(user.getId()),
@@ -350,7 +353,9 @@ public class StorageAllocationService {
 
     /**
      * Team limits only apply when the subscription currently comes from team
-     * entitlement and the linked team still grants access.
+     * entitlement and the linked team still grants access. A subscription stamped with
+     * its team's current entitlement version resolves with one lookup; a stale or
+     * unstamped one falls back to the member's team memberships.
      */
     private Optional<Team> resolveEffectiveTeamContext(User user) {
         Optional<UserSubscription> subscriptionOpt = userSubscriptionRepository.findByUserId(user.getId());
@@ -358,6 +363,16 @@ public class StorageAllocationService {
             return Optional.empty();
         }
 
+        UserSubscription subscription = subscriptionOpt.get();
+        if (subscription.getTeamId() != null) {
+            Optional<Team> linkedTeam = teamRepository.findById(subscription.getTeamId());
+            if (linkedTeam.isPresent() && Long.valueOf(linkedTeam.get().getEntitlementVersion())
+                    .equals(subscription.getTeamEntitlementVersion())) {
+                return linkedTeam.filter(Team::isAccessAllowed);
+            }
+            log.debug("Stale team entitlement for user {}", sanitizer.sanitizeLogging(user.getId()));
+        }
+
         List<TeamMember> teamMemberships = teamMemberRepository.findByUserId(user.getId());
         return teamMemberships.stream()
                 .map(TeamMember::getTeam)
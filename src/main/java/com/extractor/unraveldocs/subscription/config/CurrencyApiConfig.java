@@ -1,5 +1,6 @@
 package com.extractor.unraveldocs.subscription.config;
 
+import com.extractor.unraveldocs.outbound.service.OutboundHttpClientFactory;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -15,8 +16,8 @@ import org.springframework.web.client.RestTemplate;
 public class CurrencyApiConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(OutboundHttpClientFactory outboundHttpClientFactory) {
+        return outboundHttpClientFactory.restTemplate("exchange-rate");
     }
 
     /**
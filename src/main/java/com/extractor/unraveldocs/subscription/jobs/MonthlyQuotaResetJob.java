@@ -1,17 +1,19 @@
 package com.extractor.unraveldocs.subscription.jobs;
 
-import com.extractor.unraveldocs.subscription.model.UserSubscription;
+import com.extractor.unraveldocs.scheduling.ChunkResult;
+import com.extractor.unraveldocs.scheduling.ClusterJob;
+import com.extractor.unraveldocs.scheduling.ClusterJobRunner;
+import com.extractor.unraveldocs.scheduling.KeyRange;
+import com.extractor.unraveldocs.scheduling.KeySpace;
 import com.extractor.unraveldocs.subscription.repository.UserSubscriptionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.TemporalAdjusters;
-import java.util.List;
 
 /**
  * Scheduled job to reset monthly quotas for user subscriptions.
@@ -23,13 +25,19 @@ import java.util.List;
  *
  * Storage usage (storageUsed) is NOT reset as it represents cumulative storage
  * consumption.
+ *
+ * Both jobs run once per schedule across the cluster, one bulk update per chunk of
+ * subscriptions.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class MonthlyQuotaResetJob {
+    static final String RESET_JOB = "monthly-quota-reset";
+    static final String INITIALIZE_JOB = "quota-reset-date-init";
 
     private final UserSubscriptionRepository userSubscriptionRepository;
+    private final ClusterJobRunner clusterJobRunner;
 
     /**
      * Reset monthly quotas at midnight on the first day of each month.
@@ -39,37 +47,12 @@ public class MonthlyQuotaResetJob {
      * (in case the server was down on the 1st of the month).
      */
     @Scheduled(cron = "0 0 * * * *") // Run every hour to check for quota resets
-    @Transactional
     public void resetMonthlyQuotas() {
-        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-        log.info("Starting monthly quota reset check at {}", now);
-
-        try {
-            // Find subscriptions that need quota reset
-            List<UserSubscription> subscriptionsToReset = userSubscriptionRepository
-                    .findSubscriptionsNeedingQuotaReset(now);
-
-            if (subscriptionsToReset.isEmpty()) {
-                log.debug("No subscriptions need quota reset at this time");
-                return;
-            }
-
-            int resetCount = 0;
-            for (UserSubscription subscription : subscriptionsToReset) {
-                try {
-                    resetSubscriptionQuotas(subscription);
-                    resetCount++;
-                } catch (Exception e) {
-                    log.error("Failed to reset quotas for subscription {}: {}",
-                            subscription.getId(), e.getMessage(), e);
-                }
-            }
-
-            log.info("Monthly quota reset completed. Reset {} subscriptions", resetCount);
-
-        } catch (Exception e) {
-            log.error("Failed to process monthly quota reset: {}", e.getMessage(), e);
-        }
+        var report = clusterJobRunner.run(ClusterJob.chunked(RESET_JOB,
+                KeySpace.of("user_subscriptions",
+                        "quota_reset_date IS NOT NULL AND quota_reset_date <= :runStartedAt"),
+                this::resetQuotas));
+        log.debug("Monthly quota reset run: {}", report);
     }
 
     /**
@@ -78,61 +61,35 @@ public class MonthlyQuotaResetJob {
      * reset date.
      */
     @Scheduled(cron = "0 30 0 * * *") // Run daily at 00:30 to initialize any new subscriptions
-    @Transactional
     public void initializeQuotaResetDates() {
-        log.info("Initializing quota reset dates for subscriptions without one");
-
-        try {
-            List<UserSubscription> subscriptionsWithoutResetDate = userSubscriptionRepository
-                    .findSubscriptionsWithoutQuotaResetDate();
-
-            if (subscriptionsWithoutResetDate.isEmpty()) {
-                log.debug("All subscriptions have quota reset dates");
-                return;
-            }
-
-            OffsetDateTime nextResetDate = calculateNextResetDate();
-
-            for (UserSubscription subscription : subscriptionsWithoutResetDate) {
-                subscription.setQuotaResetDate(nextResetDate);
-                userSubscriptionRepository.save(subscription);
-            }
-
-            log.info("Initialized quota reset date for {} subscriptions", subscriptionsWithoutResetDate.size());
+        var report = clusterJobRunner.run(ClusterJob.chunked(INITIALIZE_JOB,
+                KeySpace.of("user_subscriptions", "quota_reset_date IS NULL"),
+                this::initializeResetDates));
+        log.debug("Quota reset date initialization run: {}", report);
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to initialize quota reset dates: {}", e.getMessage(), e);
+    /**
+     * Reset the quotas of one chunk of subscriptions whose reset date has passed.
+     */
+    ChunkResult resetQuotas(KeyRange range, OffsetDateTime runStartedAt) {
+        int reset = userSubscriptionRepository.resetQuotasInKeyRange(
+                range.afterKey(), range.upToKey(), runStartedAt, calculateNextResetDate());
+        if (reset > 0) {
+            log.info("Reset monthly quotas for {} subscriptions up to {}", reset, range.upToKey());
         }
+        return ChunkResult.of(reset);
     }
 
     /**
-     * Reset quotas for a single subscription.
+     * Give one chunk of subscriptions without a reset date the next reset date.
      */
-    private void resetSubscriptionQuotas(UserSubscription subscription) {
-        String userId = subscription.getUser() != null ? subscription.getUser().getId() : "unknown";
-
-        int previousDocuments = subscription.getMonthlyDocumentsUploaded() != null
-                ? subscription.getMonthlyDocumentsUploaded()
-                : 0;
-        int previousOcrPages = subscription.getOcrPagesUsed() != null
-                ? subscription.getOcrPagesUsed()
-                : 0;
-        int previousAiOps = subscription.getAiOperationsUsed() != null
-                ? subscription.getAiOperationsUsed()
-                : 0;
-
-        // Reset monthly quotas
-        subscription.setMonthlyDocumentsUploaded(0);
-        subscription.setOcrPagesUsed(0);
-        subscription.setAiOperationsUsed(0);
-
-        // Set next reset date to first of next month
-        subscription.setQuotaResetDate(calculateNextResetDate());
-
-        userSubscriptionRepository.save(subscription);
-
-        log.info("Reset quotas for user {}: documents {} -> 0, OCR pages {} -> 0, AI ops {} -> 0, next reset: {}",
-                userId, previousDocuments, previousOcrPages, previousAiOps, subscription.getQuotaResetDate());
+    ChunkResult initializeResetDates(KeyRange range, OffsetDateTime runStartedAt) {
+        int initialized = userSubscriptionRepository.initializeQuotaResetDatesInKeyRange(
+                range.afterKey(), range.upToKey(), runStartedAt, calculateNextResetDate());
+        if (initialized > 0) {
+            log.info("Initialized quota reset date for {} subscriptions up to {}", initialized, range.upToKey());
+        }
+        return ChunkResult.of(initialized);
     }
 
     /**
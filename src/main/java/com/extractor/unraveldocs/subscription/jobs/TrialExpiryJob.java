@@ -1,5 +1,8 @@
 package com.extractor.unraveldocs.subscription.jobs;
 
+import com.extractor.unraveldocs.scheduling.ChunkResult;
+import com.extractor.unraveldocs.scheduling.ClusterJob;
+import com.extractor.unraveldocs.scheduling.ClusterJobRunner;
 import com.extractor.unraveldocs.subscription.service.UserSubscriptionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -7,14 +10,18 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 /**
- * Job to check for expired trials and reset them to the free plan.
+ * Job to check for expired trials and reset them to the free plan. Runs once per
+ * cluster as a single-chunk job.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class TrialExpiryJob {
 
+    static final String JOB_NAME = "trial-expiry";
+
     private final UserSubscriptionService userSubscriptionService;
+    private final ClusterJobRunner clusterJobRunner;
 
     /**
      * Run every hour to check for expired trials.
@@ -23,7 +30,10 @@ public class TrialExpiryJob {
     public void checkExpiredTrials() {
         log.info("Starting scheduled job: Check Expired Trials");
         try {
-            userSubscriptionService.checkAndExpireTrials();
+            clusterJobRunner.run(ClusterJob.single(JOB_NAME, (range, runStartedAt) -> {
+                userSubscriptionService.checkAndExpireTrials();
+                return ChunkResult.EMPTY;
+            }));
             log.info("Completed scheduled job: Check Expired Trials");
         } catch (Exception e) {
             log.error("Failed to execute scheduled job: Check Expired Trials", e);
@@ -37,6 +37,14 @@ public class UserSubscription {
     @Column(name = "subscription_source", nullable = false, length = 20)
     private SubscriptionSource subscriptionSource = SubscriptionSource.INDIVIDUAL;
 
+    // Team granting the entitlement while the source is TEAM
+    @Column(name = "team_id", length = 36)
+    private String teamId;
+
+    // Team entitlement version this subscription was last written against
+    @Column(name = "team_entitlement_version")
+    private Long teamEntitlementVersion;
+
     @Column(name = "payment_gateway_subscription_id")
     private String paymentGatewaySubscriptionId;
 
@@ -2,6 +2,7 @@ package com.extractor.unraveldocs.subscription.repository;
 
 import com.extractor.unraveldocs.subscription.model.UserSubscription;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -81,18 +82,40 @@ public interface UserSubscriptionRepository extends JpaRepository<UserSubscripti
         // ========== Monthly Quota Reset Query Methods ==========
 
         /**
-         * Find subscriptions that need quota reset (quota_reset_date <= now).
-         * Used by the scheduled quota reset job.
+         * Reset the monthly quotas of subscriptions in a key range whose reset date has passed.
+         * Used by the scheduled quota reset job, one chunk at a time.
+         *
+         * @return number of subscriptions reset
          */
-        @Query("SELECT us FROM UserSubscription us WHERE us.quotaResetDate IS NOT NULL AND us.quotaResetDate <= :now")
-        List<UserSubscription> findSubscriptionsNeedingQuotaReset(@Param("now") OffsetDateTime now);
+        @Modifying
+        @Query("UPDATE UserSubscription us SET us.monthlyDocumentsUploaded = 0, us.ocrPagesUsed = 0, " +
+                        "us.aiOperationsUsed = 0, us.quotaResetDate = :nextResetDate, us.updatedAt = :now " +
+                        "WHERE us.id > :afterKey AND us.id <= :upToKey " +
+                        "AND us.quotaResetDate IS NOT NULL AND us.quotaResetDate <= :now")
+        int resetQuotasInKeyRange(@Param("afterKey") String afterKey, @Param("upToKey") String upToKey,
+                        @Param("now") OffsetDateTime now, @Param("nextResetDate") OffsetDateTime nextResetDate);
 
         /**
-         * Find subscriptions without a quota reset date set.
-         * Used to initialize quota reset dates for existing subscriptions.
+         * Set the quota reset date of subscriptions in a key range that have none.
+         *
+         * @return number of subscriptions updated
          */
-        @Query("SELECT us FROM UserSubscription us WHERE us.quotaResetDate IS NULL")
-        List<UserSubscription> findSubscriptionsWithoutQuotaResetDate();
+        @Modifying
+        @Query("UPDATE UserSubscription us SET us.quotaResetDate = :nextResetDate, us.updatedAt = :now " +
+                        "WHERE us.id > :afterKey AND us.id <= :upToKey AND us.quotaResetDate IS NULL")
+        int initializeQuotaResetDatesInKeyRange(@Param("afterKey") String afterKey, @Param("upToKey") String upToKey,
+                        @Param("now") OffsetDateTime now, @Param("nextResetDate") OffsetDateTime nextResetDate);
+
+        /**
+         * Subscriptions in a key range that use storage or have a storage warning on record,
+         * with their plan and user, in key order. Used by the storage warning job.
+         */
+        @Query("SELECT us FROM UserSubscription us JOIN FETCH us.plan JOIN FETCH us.user " +
+                        "WHERE us.id > :afterKey AND us.id <= :upToKey " +
+                        "AND (us.storageUsed > 0 OR EXISTS (SELECT 1 FROM StorageWarningSent w WHERE w.user = us.user)) " +
+                        "ORDER BY us.id")
+        List<UserSubscription> findStorageWarningCandidatesInKeyRange(@Param("afterKey") String afterKey,
+                        @Param("upToKey") String upToKey);
 
         // ========== Dashboard KPI Query Methods ==========
 
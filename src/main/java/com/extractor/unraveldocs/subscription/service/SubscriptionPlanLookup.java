@@ -0,0 +1,40 @@
+package com.extractor.unraveldocs.subscription.service;
+
+import com.extractor.unraveldocs.exceptions.custom.NotFoundException;
+import com.extractor.unraveldocs.subscription.datamodel.SubscriptionPlans;
+import com.extractor.unraveldocs.subscription.model.SubscriptionPlan;
+import com.extractor.unraveldocs.subscription.repository.SubscriptionPlanRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves plan names to plan ids, querying each name once per process. A plan's id
+ * never changes once created, so the cached ids need no invalidation; prices and limits
+ * are still read from the plan row whenever the plan itself is loaded.
+ */
+@Component
+@RequiredArgsConstructor
+public class SubscriptionPlanLookup {
+
+    private final SubscriptionPlanRepository subscriptionPlanRepository;
+    private final Map<SubscriptionPlans, String> planIds = new ConcurrentHashMap<>();
+
+    /**
+     * @throws NotFoundException if no plan has this name
+     */
+    public String planId(SubscriptionPlans name) {
+        return planIds.computeIfAbsent(name, key -> subscriptionPlanRepository.findByName(key)
+                .map(SubscriptionPlan::getId)
+                .orElseThrow(() -> new NotFoundException("Subscription plan not found: " + key)));
+    }
+
+    /**
+     * Reference to the named plan for assigning to an entity, without loading the plan.
+     */
+    public SubscriptionPlan reference(SubscriptionPlans name) {
+        return subscriptionPlanRepository.getReferenceById(planId(name));
+    }
+}
@@ -0,0 +1,37 @@
+package com.extractor.unraveldocs.team.events;
+
+import com.extractor.unraveldocs.pushnotification.interfaces.NotificationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Sends entitlement change notifications after the change commits, off the request
+ * thread. A rolled-back change notifies nobody, and a slow notification provider never
+ * holds the subscription rows locked.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TeamEntitlementNotifier {
+
+    private final NotificationService notificationService;
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntitlementsChanged(TeamEntitlementsChangedEvent event) {
+        if (event.userIds().isEmpty()) {
+            return;
+        }
+        try {
+            notificationService.sendToUsers(event.userIds(), event.type(), event.title(), event.message(),
+                    event.data());
+        } catch (Exception ex) {
+            log.warn("Unable to send team subscription sync notification to {} users: {}",
+                    event.userIds().size(), ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.extractor.unraveldocs.team.events;
+
+import com.extractor.unraveldocs.pushnotification.datamodel.NotificationType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Published when team entitlements of one or more members change. Members are notified
+ * once the change has committed.
+ *
+ * @param userIds Members whose subscriptions changed
+ * @param type    Notification type sent to each member
+ * @param title   Notification title
+ * @param message Notification body
+ * @param data    Notification payload
+ */
+public record TeamEntitlementsChangedEvent(
+        List<String> userIds,
+        NotificationType type,
+        String title,
+        String message,
+        Map<String, String> data) {
+}
@@ -121,6 +121,7 @@ public class CloseTeamImpl {
         team.setClosedAt(null);
         team.setActive(true);
         teamRepository.save(team);
+        memberSubscriptionSyncService.upgradeTeamMembers(team);
 
         log.info("Team {} has been reactivated successfully", sanitizer.sanitizeLogging(teamId));
 
@@ -1,17 +1,23 @@
 package com.extractor.unraveldocs.team.jobs;
 
 import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import com.extractor.unraveldocs.scheduling.ChunkResult;
+import com.extractor.unraveldocs.scheduling.ClusterJob;
+import com.extractor.unraveldocs.scheduling.ClusterJobRunner;
+import com.extractor.unraveldocs.scheduling.KeyRange;
+import com.extractor.unraveldocs.scheduling.KeySpace;
 import com.extractor.unraveldocs.team.datamodel.TeamSubscriptionStatus;
 import com.extractor.unraveldocs.team.model.Team;
 import com.extractor.unraveldocs.team.repository.TeamRepository;
 import com.extractor.unraveldocs.team.service.TeamBillingService;
 import com.extractor.unraveldocs.team.service.TeamMemberSubscriptionSyncService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -21,53 +27,85 @@ import java.util.List;
  * 1. Auto-charge teams when trial expires (if auto-renew enabled)
  * 2. Expire teams that have cancelled and passed subscription end date
  * 3. Charge recurring subscriptions due for billing
+ * <p>
+ * Runs once per cluster: teams with due billing work are split into key ranges that
+ * nodes process in parallel, each range in its own transaction.
+ * <p>
+ * Charges are not part of the range's transaction, which a retry would replay. Each team
+ * is first marked with its charge's idempotency key in a transaction of its own, then
+ * charged with that key, then its outcome is recorded in another transaction. A range
+ * retried after a crash finds the key still pending and charges with it again, which
+ * the billing service recognizes as the same charge.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class TeamSubscriptionChargeJob {
 
     private final TeamRepository teamRepository;
     private final TeamBillingService teamBillingService;
     private final TeamMemberSubscriptionSyncService memberSubscriptionSyncService;
     private final SanitizeLogging sanitizer;
+    private final ClusterJobRunner clusterJobRunner;
+    private final TransactionTemplate chargeTransaction;
+
+    static final String JOB_NAME = "team-subscription-charges";
 
     @Value("${team.subscription.past-due-grace-days:7}")
     private int pastDueGraceDays;
 
+    public TeamSubscriptionChargeJob(TeamRepository teamRepository,
+                                     TeamBillingService teamBillingService,
+                                     TeamMemberSubscriptionSyncService memberSubscriptionSyncService,
+                                     SanitizeLogging sanitizer,
+                                     ClusterJobRunner clusterJobRunner,
+                                     PlatformTransactionManager transactionManager) {
+        this.teamRepository = teamRepository;
+        this.teamBillingService = teamBillingService;
+        this.memberSubscriptionSyncService = memberSubscriptionSyncService;
+        this.sanitizer = sanitizer;
+        this.clusterJobRunner = clusterJobRunner;
+        // Commits per team while the range's transaction stays open
+        this.chargeTransaction = new TransactionTemplate(transactionManager);
+        this.chargeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
     /**
      * Runs daily at 2:00 AM to process subscription charges.
      */
     @Scheduled(cron = "0 0 2 * * *")
-    @Transactional
     public void processSubscriptionCharges() {
         log.info("Starting team subscription charge job...");
+        clusterJobRunner.run(ClusterJob.chunked(JOB_NAME, KeySpace.of("teams", """
+                (subscription_status = 'TRIAL' AND trial_ends_at <= :runStartedAt)
+                OR (subscription_status = 'ACTIVE' AND auto_renew AND next_billing_date <= :runStartedAt)
+                OR (subscription_status = 'CANCELLED' AND subscription_ends_at <= :runStartedAt)
+                OR (subscription_status = 'PAST_DUE' AND past_due_since IS NOT NULL)
+                """), this::processChunk));
+    }
 
-        OffsetDateTime now = OffsetDateTime.now();
+    /**
+     * Charge and expire the teams of one key range, as of the run's start.
+     */
+    ChunkResult processChunk(KeyRange range, OffsetDateTime now) {
+        String afterKey = range.afterKey();
+        String upToKey = range.upToKey();
         int processedCount = 0;
         int failedCount = 0;
 
         // 1. Process trial expiry with auto-renew
-        List<Team> teamsForAutoCharge = teamRepository.findTeamsWithExpiredTrialForAutoCharge(now);
-        log.info("Found {} teams with expired trial for auto-charge", sanitizer.sanitizeLoggingInteger(teamsForAutoCharge.size()));
+        List<Team> teamsForAutoCharge = teamRepository.findTeamsWithExpiredTrialForAutoCharge(now, afterKey, upToKey);
+        log.debug("Found {} teams with expired trial for auto-charge", sanitizer.sanitizeLoggingInteger(teamsForAutoCharge.size()));
 
         for (Team team : teamsForAutoCharge) {
             try {
-                boolean success = teamBillingService.chargeSubscription(team);
+                Boolean success = charge(team, now);
+                if (success == null) {
+                    continue;
+                }
                 if (success) {
-                    team.setSubscriptionStatus(TeamSubscriptionStatus.ACTIVE);
-                    team.setPastDueSince(null);
-                    team.setLastBillingDate(now);
-                    team.setNextBillingDate(calculateNextBillingDate(team, now));
-                    teamRepository.save(team);
                     processedCount++;
                     log.info("Successfully charged team {} for subscription", sanitizer.sanitizeLogging(team.getTeamCode()));
                 } else {
-                    team.setSubscriptionStatus(TeamSubscriptionStatus.PAST_DUE);
-                    if (team.getPastDueSince() == null) {
-                        team.setPastDueSince(now);
-                    }
-                    teamRepository.save(team);
                     failedCount++;
                     log.warn("Payment failed for team {}", sanitizer.sanitizeLogging(team.getTeamCode()));
                 }
@@ -78,8 +116,8 @@ public class TeamSubscriptionChargeJob {
         }
 
         // 2. Expire teams with no auto-renew
-        List<Team> teamsToExpire = teamRepository.findTeamsWithExpiredTrialNoAutoRenew(now);
-        log.info("Found {} teams to expire (no auto-renew)", sanitizer.sanitizeLoggingInteger(teamsToExpire.size()));
+        List<Team> teamsToExpire = teamRepository.findTeamsWithExpiredTrialNoAutoRenew(now, afterKey, upToKey);
+        log.debug("Found {} teams to expire (no auto-renew)", sanitizer.sanitizeLoggingInteger(teamsToExpire.size()));
 
         for (Team team : teamsToExpire) {
             team.setSubscriptionStatus(TeamSubscriptionStatus.EXPIRED);
@@ -91,8 +129,8 @@ public class TeamSubscriptionChargeJob {
         }
 
         // 3. Expire cancelled teams past their subscription end date
-        List<Team> cancelledTeamsToExpire = teamRepository.findCancelledTeamsReadyToExpire(now);
-        log.info("Found {} cancelled teams to expire", sanitizer.sanitizeLoggingInteger(cancelledTeamsToExpire.size()));
+        List<Team> cancelledTeamsToExpire = teamRepository.findCancelledTeamsReadyToExpire(now, afterKey, upToKey);
+        log.debug("Found {} cancelled teams to expire", sanitizer.sanitizeLoggingInteger(cancelledTeamsToExpire.size()));
 
         for (Team team : cancelledTeamsToExpire) {
             team.setSubscriptionStatus(TeamSubscriptionStatus.EXPIRED);
@@ -104,28 +142,21 @@ public class TeamSubscriptionChargeJob {
         }
 
         // 4. Process recurring billing for active subscriptions
-        List<Team> teamsDueForBilling = teamRepository.findTeamsDueForBilling(now);
-        log.info("Found {} teams due for recurring billing",
+        List<Team> teamsDueForBilling = teamRepository.findTeamsDueForBilling(now, afterKey, upToKey);
+        log.debug("Found {} teams due for recurring billing",
                 sanitizer.sanitizeLoggingInteger(teamsDueForBilling.size()));
 
         for (Team team : teamsDueForBilling) {
             try {
-                boolean success = teamBillingService.chargeSubscription(team);
+                Boolean success = charge(team, now);
+                if (success == null) {
+                    continue;
+                }
                 if (success) {
-                    team.setSubscriptionStatus(TeamSubscriptionStatus.ACTIVE);
-                    team.setPastDueSince(null);
-                    team.setLastBillingDate(now);
-                    team.setNextBillingDate(calculateNextBillingDate(team, now));
-                    teamRepository.save(team);
                     processedCount++;
                     log.info("Successfully charged recurring billing for team {}",
                             sanitizer.sanitizeLogging(team.getTeamCode()));
                 } else {
-                    team.setSubscriptionStatus(TeamSubscriptionStatus.PAST_DUE);
-                    if (team.getPastDueSince() == null) {
-                        team.setPastDueSince(now);
-                    }
-                    teamRepository.save(team);
                     failedCount++;
                     log.warn("Recurring payment failed for team {}",
                             sanitizer.sanitizeLogging(team.getTeamCode()));
@@ -139,8 +170,8 @@ public class TeamSubscriptionChargeJob {
 
         // 5. Expire long-running past due teams once grace period elapses
         OffsetDateTime graceCutoff = now.minusDays(pastDueGraceDays);
-        List<Team> pastDueTeamsToExpire = teamRepository.findPastDueTeamsBeyondGrace(graceCutoff);
-        log.info("Found {} past-due teams past grace period",
+        List<Team> pastDueTeamsToExpire = teamRepository.findPastDueTeamsBeyondGrace(graceCutoff, afterKey, upToKey);
+        log.debug("Found {} past-due teams past grace period",
                 sanitizer.sanitizeLoggingInteger(pastDueTeamsToExpire.size()));
 
         for (Team team : pastDueTeamsToExpire) {
@@ -153,7 +184,80 @@ public class TeamSubscriptionChargeJob {
                     sanitizer.sanitizeLogging(team.getTeamCode()));
         }
 
-        log.info("Completed team subscription charge job. Processed: {}, Failed: {}", sanitizer.sanitizeLoggingInteger(processedCount), sanitizer.sanitizeLoggingInteger(failedCount));
+        log.info("Completed team subscription charge chunk. Processed: {}, Failed: {}", sanitizer.sanitizeLoggingInteger(processedCount), sanitizer.sanitizeLoggingInteger(failedCount));
+        return new ChunkResult(processedCount, failedCount);
+    }
+
+    /**
+     * Charge one team: reserve the charge's key, call the gateway, record the outcome.
+     * The reservation and the outcome commit on their own; the gateway call is in
+     * neither. {@code team} is the range transaction's copy, read but never modified, so
+     * the range commits nothing for it.
+     *
+     * @return whether the charge succeeded, or null if the team was no longer due
+     */
+    private Boolean charge(Team team, OffsetDateTime now) {
+        String chargeKey = chargeTransaction.execute(status -> reserveCharge(team.getId(), now));
+        if (chargeKey == null) {
+            return null;
+        }
+        boolean success = teamBillingService.chargeSubscription(team, chargeKey);
+        chargeTransaction.executeWithoutResult(status -> recordCharge(team.getId(), chargeKey, success, now));
+        return success;
+    }
+
+    /**
+     * Mark a due team with the key of this billing period's charge, keeping a key left
+     * pending by an interrupted run.
+     *
+     * @return the key to charge with, or null if the team is no longer due
+     */
+    private String reserveCharge(String teamId, OffsetDateTime now) {
+        Team team = teamRepository.findById(teamId).orElse(null);
+        OffsetDateTime dueAt = team != null ? chargeDueAt(team) : null;
+        if (dueAt == null || dueAt.isAfter(now)) {
+            return null;
+        }
+        if (team.getPendingChargeKey() == null) {
+            team.setPendingChargeKey("team-" + team.getId() + "-" + dueAt.toEpochSecond());
+            teamRepository.save(team);
+        }
+        return team.getPendingChargeKey();
+    }
+
+    private void recordCharge(String teamId, String chargeKey, boolean success, OffsetDateTime now) {
+        Team team = teamRepository.findById(teamId).orElse(null);
+        if (team == null || !chargeKey.equals(team.getPendingChargeKey())) {
+            // Already recorded by an earlier attempt
+            return;
+        }
+        team.setPendingChargeKey(null);
+        if (success) {
+            team.setSubscriptionStatus(TeamSubscriptionStatus.ACTIVE);
+            team.setPastDueSince(null);
+            team.setLastBillingDate(now);
+            team.setNextBillingDate(calculateNextBillingDate(team, now));
+        } else {
+            team.setSubscriptionStatus(TeamSubscriptionStatus.PAST_DUE);
+            if (team.getPastDueSince() == null) {
+                team.setPastDueSince(now);
+            }
+        }
+        teamRepository.save(team);
+    }
+
+    /**
+     * When the team's next charge falls due, or null if it is not charged automatically.
+     */
+    private static OffsetDateTime chargeDueAt(Team team) {
+        if (!team.isAutoRenew()) {
+            return null;
+        }
+        return switch (team.getSubscriptionStatus()) {
+            case TRIAL -> team.getTrialEndsAt();
+            case ACTIVE -> team.getNextBillingDate();
+            default -> null;
+        };
     }
 
     private OffsetDateTime calculateNextBillingDate(Team team, OffsetDateTime from) {
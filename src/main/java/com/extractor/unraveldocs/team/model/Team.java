@@ -108,6 +108,10 @@ public class Team {
     @Column(name = "past_due_since")
     private OffsetDateTime pastDueSince;
 
+    // Idempotency key of a charge sent to the gateway whose outcome is not yet recorded
+    @Column(name = "pending_charge_key", length = 100)
+    private String pendingChargeKey;
+
     // Price at time of subscription (for records)
     @Column(name = "subscription_price", precision = 10, scale = 2)
     private BigDecimal subscriptionPrice;
@@ -149,6 +153,10 @@ public class Team {
     @Column(name = "storage_used", nullable = false)
     private Long storageUsed = 0L; // Current storage usage in bytes
 
+    // Bumped by every team-wide entitlement change; written only through TeamEntitlementRepository
+    @Column(name = "entitlement_version", nullable = false, insertable = false, updatable = false)
+    private long entitlementVersion;
+
     // Members relationship
     @OneToMany(mappedBy = "team", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private Set<TeamMember> members = new HashSet<>();
@@ -0,0 +1,81 @@
+package com.extractor.unraveldocs.team.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Set-based writes of team entitlements. Each method is a single statement over all of
+ * a team's member subscriptions, so a team-wide change costs the same for ten seats as
+ * for a thousand.
+ * <p>
+ * These statements bypass the persistence context: callers must not hold modified
+ * {@code UserSubscription} entities for the affected members in the same transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TeamEntitlementRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Bump the team's entitlement version. The row lock taken here also serializes
+     * concurrent entitlement changes of the same team until the transaction ends.
+     *
+     * @return the new version
+     */
+    public long nextVersion(String teamId) {
+        Long version = jdbcTemplate.queryForObject("""
+                UPDATE teams
+                SET entitlement_version = entitlement_version + 1
+                WHERE id = ?
+                RETURNING entitlement_version
+                """, Long.class, teamId);
+        return version != null ? version : 0L;
+    }
+
+    /**
+     * Grant the team's plan to every member: subscriptions the team already grants are
+     * pointed at the plan, and members on their own plan (for example after the team was
+     * closed) keep it as their previous plan and switch to the team's. Members whose
+     * subscription another team grants are left alone.
+     *
+     * @return ids of the users whose subscriptions were updated
+     */
+    public List<String> applyTeamPlan(String teamId, String planId, long version) {
+        return jdbcTemplate.queryForList("""
+                UPDATE user_subscriptions us
+                SET previous_plan_id = CASE WHEN us.subscription_source = 'TEAM'
+                                            THEN us.previous_plan_id ELSE us.plan_id END,
+                    plan_id = ?, status = 'Active', subscription_source = 'TEAM', team_id = ?,
+                    team_entitlement_version = ?, updated_at = now()
+                FROM team_members tm
+                WHERE tm.team_id = ? AND tm.user_id = us.user_id
+                  AND (us.subscription_source <> 'TEAM' OR us.team_id = ?)
+                RETURNING us.user_id
+                """, String.class, planId, teamId, version, teamId, teamId);
+    }
+
+    /**
+     * Return every subscription granted by the team to the member's previous plan, or to
+     * the fallback plan when there is none.
+     *
+     * @return ids of the users whose subscriptions were reverted
+     */
+    public List<String> revertTeamMembers(String teamId, String fallbackPlanId) {
+        return jdbcTemplate.queryForList("""
+                UPDATE user_subscriptions
+                SET plan_id = COALESCE(previous_plan_id, ?),
+                    previous_plan_id = NULL,
+                    subscription_source = 'INDIVIDUAL',
+                    status = 'Active',
+                    team_id = NULL,
+                    team_entitlement_version = NULL,
+                    updated_at = now()
+                WHERE team_id = ? AND subscription_source = 'TEAM'
+                RETURNING user_id
+                """, String.class, fallbackPlanId, teamId);
+    }
+}
@@ -39,29 +39,39 @@ public interface TeamRepository extends JpaRepository<Team, String> {
 
         @Query("SELECT t FROM Team t WHERE t.subscriptionStatus = 'TRIAL' " +
                         "AND t.trialEndsAt <= :now " +
-                        "AND t.autoRenew = true")
-        List<Team> findTeamsWithExpiredTrialForAutoCharge(@Param("now") OffsetDateTime now);
+                        "AND t.autoRenew = true " +
+                        "AND t.id > :afterKey AND t.id <= :upToKey")
+        List<Team> findTeamsWithExpiredTrialForAutoCharge(@Param("now") OffsetDateTime now,
+                        @Param("afterKey") String afterKey, @Param("upToKey") String upToKey);
 
         @Query("SELECT t FROM Team t WHERE t.subscriptionStatus = 'TRIAL' " +
                         "AND t.trialEndsAt <= :now " +
-                        "AND t.autoRenew = false")
-        List<Team> findTeamsWithExpiredTrialNoAutoRenew(@Param("now") OffsetDateTime now);
+                        "AND t.autoRenew = false " +
+                        "AND t.id > :afterKey AND t.id <= :upToKey")
+        List<Team> findTeamsWithExpiredTrialNoAutoRenew(@Param("now") OffsetDateTime now,
+                        @Param("afterKey") String afterKey, @Param("upToKey") String upToKey);
 
         // Billing queries
         @Query("SELECT t FROM Team t WHERE t.subscriptionStatus = 'ACTIVE' " +
                         "AND t.autoRenew = true " +
-                        "AND t.nextBillingDate <= :now")
-        List<Team> findTeamsDueForBilling(@Param("now") OffsetDateTime now);
+                        "AND t.nextBillingDate <= :now " +
+                        "AND t.id > :afterKey AND t.id <= :upToKey")
+        List<Team> findTeamsDueForBilling(@Param("now") OffsetDateTime now,
+                        @Param("afterKey") String afterKey, @Param("upToKey") String upToKey);
 
         // Cancellation queries
         @Query("SELECT t FROM Team t WHERE t.subscriptionStatus = 'CANCELLED' " +
-                        "AND t.subscriptionEndsAt <= :now")
-        List<Team> findCancelledTeamsReadyToExpire(@Param("now") OffsetDateTime now);
+                        "AND t.subscriptionEndsAt <= :now " +
+                        "AND t.id > :afterKey AND t.id <= :upToKey")
+        List<Team> findCancelledTeamsReadyToExpire(@Param("now") OffsetDateTime now,
+                        @Param("afterKey") String afterKey, @Param("upToKey") String upToKey);
 
         @Query("SELECT t FROM Team t WHERE t.subscriptionStatus = 'PAST_DUE' " +
                         "AND t.pastDueSince IS NOT NULL " +
-                        "AND t.pastDueSince <= :cutoff")
-        List<Team> findPastDueTeamsBeyondGrace(@Param("cutoff") OffsetDateTime cutoff);
+                        "AND t.pastDueSince <= :cutoff " +
+                        "AND t.id > :afterKey AND t.id <= :upToKey")
+        List<Team> findPastDueTeamsBeyondGrace(@Param("cutoff") OffsetDateTime cutoff,
+                        @Param("afterKey") String afterKey, @Param("upToKey") String upToKey);
 
         // Admin queries
         @Query("SELECT t FROM Team t WHERE t.subscriptionStatus = :status")
@@ -13,11 +13,15 @@ public interface TeamBillingService {
 
     /**
      * Charge a team's subscription using their configured payment gateway.
+     * <p>
+     * Calls with the same idempotency key are one charge: a retry of a charge that
+     * already went through reports success without charging again.
      *
-     * @param team The team to charge
+     * @param team           The team to charge
+     * @param idempotencyKey Stable key of this billing period's charge
      * @return true if charge was successful, false otherwise
      */
-    boolean chargeSubscription(Team team);
+    boolean chargeSubscription(Team team, String idempotencyKey);
 
     /**
      * Create a subscription for a team in the payment gateway.
@@ -6,6 +6,7 @@ import com.extractor.unraveldocs.payment.paystack.service.PaystackSubscriptionSe
 import com.extractor.unraveldocs.payment.receipt.dto.ReceiptData;
 import com.extractor.unraveldocs.payment.receipt.enums.PaymentProvider;
 import com.extractor.unraveldocs.payment.receipt.events.ReceiptEventPublisher;
+import com.extractor.unraveldocs.payment.receipt.repository.ReceiptRepository;
 import com.extractor.unraveldocs.payment.stripe.repository.StripeSubscriptionRepository;
 import com.extractor.unraveldocs.payment.stripe.service.StripeSubscriptionService;
 import com.extractor.unraveldocs.team.datamodel.TeamBillingCycle;
@@ -33,11 +34,12 @@ public class TeamBillingServiceImpl implements TeamBillingService {
     private final StripeSubscriptionRepository stripeSubscriptionRepository;
     private final PaystackSubscriptionRepository paystackSubscriptionRepository;
     private final ReceiptEventPublisher receiptEventPublisher;
+    private final ReceiptRepository receiptRepository;
     private final TeamSubscriptionPlanService planService;
     private final SanitizeLogging sanitizer;
 
     @Override
-    public boolean chargeSubscription(Team team) {
+    public boolean chargeSubscription(Team team, String idempotencyKey) {
         String gateway = team.getPaymentGateway();
 
         if (gateway == null) {
@@ -46,6 +48,13 @@ public class TeamBillingServiceImpl implements TeamBillingService {
         }
 
         try {
+            // The receipt of a charge is keyed by its idempotency key, so it marks a retry
+            if (receiptRepository.existsByExternalPaymentIdAndPaymentProvider(idempotencyKey, provider(gateway))) {
+                log.info("Charge {} for team {} already went through",
+                        sanitizer.sanitizeLogging(idempotencyKey), sanitizer.sanitizeLogging(team.getTeamCode()));
+                return true;
+            }
+
             boolean success = switch (gateway.toLowerCase()) {
                 case "stripe" -> chargeViaStripe(team);
                 case "paystack" -> chargeViaPaystack(team);
@@ -57,7 +66,7 @@ public class TeamBillingServiceImpl implements TeamBillingService {
 
             // Generate and send receipt on successful charge
             if (success) {
-                publishReceipt(team, "Team Subscription Payment");
+                publishReceipt(team, "Team Subscription Payment", idempotencyKey);
             }
 
             return success;
@@ -88,7 +97,11 @@ public class TeamBillingServiceImpl implements TeamBillingService {
 
             // Generate and send receipt on successful subscription creation
             if (success) {
-                publishReceipt(team, "Team Subscription Activation");
+                String paymentId = team.getStripeSubscriptionId() != null
+                        ? team.getStripeSubscriptionId()
+                        : team.getPaystackSubscriptionCode();
+                publishReceipt(team, "Team Subscription Activation",
+                        paymentId != null ? paymentId : UUID.randomUUID().toString());
             }
 
             return success;
@@ -135,31 +148,22 @@ public class TeamBillingServiceImpl implements TeamBillingService {
     // ========== Receipt Generation ==========
 
     /**
-     * Publish receipt generation request for a team payment.
+     * Publish receipt generation request for a team payment. Receipts are unique per
+     * payment ID, so publishing one twice yields a single receipt.
      */
-    private void publishReceipt(Team team, String description) {
+    private void publishReceipt(Team team, String description, String paymentId) {
         try {
             if (team.getPaymentGateway() == null) {
                 log.warn("Cannot publish receipt for team {} - no payment gateway configured", sanitizer.sanitizeLogging(team.getTeamCode()));
                 return;
             }
 
-            PaymentProvider provider = switch (team.getPaymentGateway().toLowerCase()) {
-                case "stripe" -> PaymentProvider.STRIPE;
-                case "paystack" -> PaymentProvider.PAYSTACK;
-                default -> PaymentProvider.STRIPE;
-            };
-
-            String paymentId = team.getStripeSubscriptionId() != null
-                    ? team.getStripeSubscriptionId()
-                    : team.getPaystackSubscriptionCode();
-
             ReceiptData receiptData = ReceiptData.builder()
                     .userId(team.getCreatedBy().getId())
                     .customerName(team.getCreatedBy().getFirstName() + " " + team.getCreatedBy().getLastName())
                     .customerEmail(team.getCreatedBy().getEmail())
-                    .paymentProvider(provider)
-                    .externalPaymentId(paymentId != null ? paymentId : UUID.randomUUID().toString())
+                    .paymentProvider(provider(team.getPaymentGateway()))
+                    .externalPaymentId(paymentId)
                     .amount(team.getSubscriptionPrice())
                     .currency(team.getCurrency())
                     .paymentMethod(team.getPaymentGateway())
@@ -177,6 +181,14 @@ public class TeamBillingServiceImpl implements TeamBillingService {
         }
     }
 
+    private static PaymentProvider provider(String gateway) {
+        return switch (gateway.toLowerCase()) {
+            case "stripe" -> PaymentProvider.STRIPE;
+            case "paystack" -> PaymentProvider.PAYSTACK;
+            default -> PaymentProvider.STRIPE;
+        };
+    }
+
     // ========== Stripe Methods ==========
 
     private boolean chargeViaStripe(Team team) {
@@ -4,10 +4,18 @@ import com.extractor.unraveldocs.team.model.Team;
 import com.extractor.unraveldocs.user.model.User;
 
 public interface TeamMemberSubscriptionSyncService {
+    /**
+     * Revert every subscription the team grants, in one statement.
+     */
     void downgradeTeamMembers(Team team);
 
+    /**
+     * Grant the team's current mapped plan to every member, in one statement. Used when a
+     * closed team is reactivated.
+     */
+    void upgradeTeamMembers(Team team);
+
     void upgradeTeamMember(User user, Team team);
 
     void revertMemberSubscription(User user);
 }
-
@@ -1,51 +1,81 @@
 package com.extractor.unraveldocs.team.service;
 
 import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
-import com.extractor.unraveldocs.exceptions.custom.NotFoundException;
 import com.extractor.unraveldocs.pushnotification.datamodel.NotificationType;
-import com.extractor.unraveldocs.pushnotification.interfaces.NotificationService;
 import com.extractor.unraveldocs.subscription.datamodel.SubscriptionPlans;
 import com.extractor.unraveldocs.subscription.datamodel.SubscriptionSource;
 import com.extractor.unraveldocs.subscription.datamodel.SubscriptionStatus;
-import com.extractor.unraveldocs.subscription.model.SubscriptionPlan;
 import com.extractor.unraveldocs.subscription.model.UserSubscription;
-import com.extractor.unraveldocs.subscription.repository.SubscriptionPlanRepository;
 import com.extractor.unraveldocs.subscription.repository.UserSubscriptionRepository;
+import com.extractor.unraveldocs.subscription.service.SubscriptionPlanLookup;
 import com.extractor.unraveldocs.team.datamodel.TeamSubscriptionType;
+import com.extractor.unraveldocs.team.events.TeamEntitlementsChangedEvent;
 import com.extractor.unraveldocs.team.model.Team;
-import com.extractor.unraveldocs.team.model.TeamMember;
-import com.extractor.unraveldocs.team.repository.TeamMemberRepository;
+import com.extractor.unraveldocs.team.repository.TeamEntitlementRepository;
 import com.extractor.unraveldocs.user.model.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Keeps member subscriptions in line with their team's entitlement.
+ * <p>
+ * Team-wide changes are single set-based statements that also bump the team's
+ * entitlement version and stamp the rewritten subscriptions with it; single-member
+ * changes stamp the member with the team's current version. Notifications are published
+ * as events and sent after commit.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TeamMemberSubscriptionSyncServiceImpl implements TeamMemberSubscriptionSyncService {
 
-    private final TeamMemberRepository teamMemberRepository;
+    private static final String UPGRADE_TITLE = "Subscription Updated";
+    private static final String UPGRADE_MESSAGE = "Your subscription is now managed by your team.";
+    private static final String DOWNGRADE_TITLE = "Subscription Updated";
+    private static final String DOWNGRADE_MESSAGE =
+            "Your team-provided subscription has ended and your personal plan has been restored.";
+
+    private final TeamEntitlementRepository teamEntitlementRepository;
     private final UserSubscriptionRepository userSubscriptionRepository;
-    private final SubscriptionPlanRepository subscriptionPlanRepository;
-    private final NotificationService notificationService;
+    private final SubscriptionPlanLookup planLookup;
+    private final ApplicationEventPublisher eventPublisher;
     private final SanitizeLogging sanitizer;
 
     @Override
     @Transactional
     public void downgradeTeamMembers(Team team) {
-        for (TeamMember member : teamMemberRepository.findByTeamId(team.getId())) {
-            revertMemberSubscription(member.getUser());
-        }
+        team.setEntitlementVersion(teamEntitlementRepository.nextVersion(team.getId()));
+        List<String> userIds = teamEntitlementRepository.revertTeamMembers(
+                team.getId(), planLookup.planId(SubscriptionPlans.FREE));
+
+        log.info("Reverted {} member subscriptions of team {}",
+                sanitizer.sanitizeLoggingInteger(userIds.size()), sanitizer.sanitizeLogging(team.getId()));
+        publishDowngraded(userIds);
+    }
+
+    @Override
+    @Transactional
+    public void upgradeTeamMembers(Team team) {
+        long version = teamEntitlementRepository.nextVersion(team.getId());
+        team.setEntitlementVersion(version);
+        List<String> userIds = teamEntitlementRepository.applyTeamPlan(
+                team.getId(), planLookup.planId(mappedPlan(team)), version);
+
+        log.info("Applied team plan to {} member subscriptions of team {}",
+                sanitizer.sanitizeLoggingInteger(userIds.size()), sanitizer.sanitizeLogging(team.getId()));
+        publishUpgraded(userIds);
     }
 
     @Override
     @Transactional
     public void upgradeTeamMember(User user, Team team) {
-        SubscriptionPlan teamPlan = resolveTeamMappedPlan(team);
+        String teamPlanId = planLookup.planId(mappedPlan(team));
 
         UserSubscription subscription = userSubscriptionRepository.findByUserId(user.getId())
                 .orElseGet(() -> {
@@ -56,7 +86,10 @@ public class TeamMemberSubscriptionSyncServiceImpl implements TeamMemberSubscrip
 
         if (subscription.getSubscriptionSource() == SubscriptionSource.TEAM
                 && subscription.getPlan() != null
-                && subscription.getPlan().getId().equals(teamPlan.getId())) {
+                && subscription.getPlan().getId().equals(teamPlanId)
+                && team.getId() != null
+                && team.getId().equals(subscription.getTeamId())
+                && Long.valueOf(team.getEntitlementVersion()).equals(subscription.getTeamEntitlementVersion())) {
             return;
         }
 
@@ -64,15 +97,14 @@ public class TeamMemberSubscriptionSyncServiceImpl implements TeamMemberSubscrip
             subscription.setPreviousPlan(subscription.getPlan());
         }
 
-        subscription.setPlan(teamPlan);
+        subscription.setPlan(planLookup.reference(mappedPlan(team)));
         subscription.setStatus(SubscriptionStatus.ACTIVE.getStatusName());
         subscription.setSubscriptionSource(SubscriptionSource.TEAM);
+        subscription.setTeamId(team.getId());
+        subscription.setTeamEntitlementVersion(team.getEntitlementVersion());
 
         userSubscriptionRepository.save(subscription);
-        notifySafely(user.getId(), NotificationType.SUBSCRIPTION_UPGRADED,
-                "Subscription Updated",
-                "Your subscription is now managed by your team.",
-                Map.of("subscriptionSource", SubscriptionSource.TEAM.name()));
+        publishUpgraded(List.of(user.getId()));
     }
 
     @Override
@@ -83,43 +115,34 @@ public class TeamMemberSubscriptionSyncServiceImpl implements TeamMemberSubscrip
             return;
         }
 
-        SubscriptionPlan fallbackPlan = subscription.getPreviousPlan() != null
+        subscription.setPlan(subscription.getPreviousPlan() != null
                 ? subscription.getPreviousPlan()
-                : getFreePlan();
-
-        subscription.setPlan(fallbackPlan);
+                : planLookup.reference(SubscriptionPlans.FREE));
         subscription.setPreviousPlan(null);
         subscription.setSubscriptionSource(SubscriptionSource.INDIVIDUAL);
         subscription.setStatus(SubscriptionStatus.ACTIVE.getStatusName());
+        subscription.setTeamId(null);
+        subscription.setTeamEntitlementVersion(null);
 
         userSubscriptionRepository.save(subscription);
-        notifySafely(user.getId(), NotificationType.SUBSCRIPTION_DOWNGRADED,
-                "Subscription Updated",
-                "Your team-provided subscription has ended and your personal plan has been restored.",
-                Map.of("subscriptionSource", SubscriptionSource.INDIVIDUAL.name()));
+        publishDowngraded(List.of(user.getId()));
     }
 
-    private SubscriptionPlan resolveTeamMappedPlan(Team team) {
-        SubscriptionPlans mappedPlan = team.getSubscriptionType() == TeamSubscriptionType.TEAM_ENTERPRISE
+    private static SubscriptionPlans mappedPlan(Team team) {
+        return team.getSubscriptionType() == TeamSubscriptionType.TEAM_ENTERPRISE
                 ? SubscriptionPlans.BUSINESS_MONTHLY
                 : SubscriptionPlans.PRO_MONTHLY;
-
-        return subscriptionPlanRepository.findByName(mappedPlan)
-                .orElseThrow(() -> new NotFoundException("Mapped subscription plan not found: " + mappedPlan));
     }
 
-    private SubscriptionPlan getFreePlan() {
-        return subscriptionPlanRepository.findByName(SubscriptionPlans.FREE)
-                .orElseThrow(() -> new NotFoundException("Free subscription plan not found"));
+    private void publishUpgraded(List<String> userIds) {
+        eventPublisher.publishEvent(new TeamEntitlementsChangedEvent(userIds,
+                NotificationType.SUBSCRIPTION_UPGRADED, UPGRADE_TITLE, UPGRADE_MESSAGE,
+                Map.of("subscriptionSource", SubscriptionSource.TEAM.name())));
     }
 
-    private void notifySafely(String userId, NotificationType type, String title, String body, Map<String, String> data) {
-        try {
-            notificationService.sendToUser(userId, type, title, body, data);
-        } catch (Exception ex) {
-            log.warn("Unable to send team subscription sync notification for user {}: {}",
-                    sanitizer.sanitizeLogging(userId), ex.getMessage());
-        }
+    private void publishDowngraded(List<String> userIds) {
+        eventPublisher.publishEvent(new TeamEntitlementsChangedEvent(userIds,
+                NotificationType.SUBSCRIPTION_DOWNGRADED, DOWNGRADE_TITLE, DOWNGRADE_MESSAGE,
+                Map.of("subscriptionSource", SubscriptionSource.INDIVIDUAL.name())));
     }
 }
-
@@ -0,0 +1,55 @@
+package com.extractor.unraveldocs.user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tuning for the nightly account lifecycle jobs: deactivating inactive accounts and
+ * purging accounts whose deletion date has passed.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "user.lifecycle")
+public class AccountLifecycleProperties {
+    /**
+     * Accounts without a login for this many months are deactivated and scheduled for deletion.
+     */
+    private int inactivityMonths = 12;
+
+    /**
+     * Days between scheduling a deletion and purging the account.
+     */
+    private int deletionGraceDays = 10;
+
+    /**
+     * Accounts handled per committed chunk.
+     */
+    private int chunkSize = 100;
+
+    /**
+     * Purge steps run at the same time across a chunk.
+     */
+    private int purgeParallelism = 8;
+
+    /**
+     * Maximum time one purge step may take for one account, in seconds.
+     */
+    private long stepTimeoutSeconds = 120;
+
+    /**
+     * Rows removed per statement by purge steps that delete from large tables.
+     */
+    private int purgeDeleteBatchSize = 1000;
+
+    /**
+     * A run stops after this many minutes and resumes from its checkpoint on the next schedule.
+     */
+    private long maxRunMinutes = 30;
+
+    /**
+     * How long a node holds a job after its last checkpoint, in seconds. Another node
+     * can take over a job whose lease has expired.
+     */
+    private long leaseSeconds = 300;
+}
@@ -22,6 +22,7 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -29,6 +30,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
 import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -156,7 +158,11 @@ public class UserController {
                         throw new TooManyRequestsException(
                                         "You have made too many account deletion requests. Please try again later.");
                 }
-                userService.deleteUser(userId);
+                if (!userService.deleteUser(userId)) {
+                        // A purge step failed; the account is deactivated and the nightly purge finishes it
+                        return ResponseEntity.accepted()
+                                        .body("User profile deactivated; deletion will be completed shortly");
+                }
                 return ResponseEntity.ok("User profile deleted successfully");
         }
 
@@ -206,4 +212,17 @@ public class UserController {
 
                 return ResponseEntity.ok(userService.deleteProfilePicture(user));
         }
-}
\ No newline at end of file
+
+        @Operation(summary = "Get profile picture thumbnail", description = "Redirects to a resized JPEG of the user's profile picture. Thumbnails of pictures uploaded before thumbnails existed are generated on first request.", responses = {
+                        @ApiResponse(responseCode = "302", description = "Redirect to the thumbnail image"),
+                        @ApiResponse(responseCode = "404", description = "No profile picture, or no thumbnail can be made", content = @Content(schema = @Schema(implementation = UnravelDocsResponse.class)))
+        })
+        @GetMapping("/profile/{userId}/picture/thumbnail")
+        public ResponseEntity<Void> getProfilePictureThumbnail(
+                        @AuthenticationPrincipal UserDetails authenticatedUser,
+                        @PathVariable("userId") String userId) {
+                User user = getAuthenticatedUser(authenticatedUser);
+                String thumbnailUrl = userService.getProfilePictureThumbnail(user);
+                return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(thumbnailUrl)).build();
+        }
+}
@@ -14,6 +14,7 @@ import java.time.OffsetDateTime;
 public class UserData implements UserDataProjection {
     private String id;
     private String profilePicture;
+    private String profilePictureThumbnail;
     private String firstName;
     private String lastName;
     private String email;
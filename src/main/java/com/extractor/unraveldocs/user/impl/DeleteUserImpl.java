@@ -1,144 +1,63 @@
 package com.extractor.unraveldocs.user.impl;
 
-import com.extractor.unraveldocs.auth.repository.UserVerificationRepository;
 import com.extractor.unraveldocs.exceptions.custom.NotFoundException;
-import com.extractor.unraveldocs.brokers.kafka.events.BaseEvent;
-import com.extractor.unraveldocs.brokers.kafka.events.EventMetadata;
-import com.extractor.unraveldocs.brokers.kafka.events.EventPublisherService;
-import com.extractor.unraveldocs.brokers.kafka.events.EventTypes;
-import com.extractor.unraveldocs.user.events.UserDeletedEvent;
-import com.extractor.unraveldocs.user.events.UserDeletionScheduledEvent;
 import com.extractor.unraveldocs.user.interfaces.userimpl.DeleteUserService;
+import com.extractor.unraveldocs.user.lifecycle.AccountLifecycleEngine;
+import com.extractor.unraveldocs.user.lifecycle.AccountLifecycleEvents;
 import com.extractor.unraveldocs.user.model.User;
 import com.extractor.unraveldocs.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.OffsetDateTime;
-import java.util.List;
-import java.util.UUID;
-
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class DeleteUserImpl implements DeleteUserService {
-    private final EventPublisherService eventPublisherService;
     private final UserRepository userRepository;
-    private final UserVerificationRepository userVerificationRepository;
-
-    private static final int BATCH_SIZE = 100;
+    private final AccountLifecycleEngine lifecycleEngine;
+    private final AccountLifecycleEvents lifecycleEvents;
 
     @Override
     @Transactional
     public void scheduleUserDeletion(String userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
-        scheduleDeletionForUser(user);
+        lifecycleEvents.scheduleDeletion(user);
         userRepository.save(user);
     }
 
+    /**
+     * Runs in chunks with its own transactions, so it is deliberately not
+     * {@code @Transactional}.
+     */
     @Override
-    @Transactional
     @Scheduled(cron = "0 0 0 * * ?")
     public void checkAndScheduleInactiveUsers() {
-        OffsetDateTime threshold = OffsetDateTime.now().minusMonths(12);
-        Pageable pageable = PageRequest.of(0, BATCH_SIZE);
-        Page<User> inactiveUsersPage;
-
-        do {
-            inactiveUsersPage = userRepository.findAllByLastLoginDateBefore(threshold, pageable);
-            for (User user : inactiveUsersPage.getContent()) {
-                user.setActive(false);
-                scheduleDeletionForUser(user);
-            }
-            userRepository.saveAll(inactiveUsersPage.getContent());
-            pageable = inactiveUsersPage.nextPageable();
-        } while (inactiveUsersPage.hasNext());
+        var report = lifecycleEngine.deactivateInactiveAccounts();
+        log.info("Inactive account run: {}", report);
     }
 
     @Override
-    @Transactional
     @Scheduled(cron = "0 0 1 * * ?")
     @CacheEvict(value = { "getAllUsers", "getProfileByAdmin", "getProfileByUser" }, allEntries = true)
     public void processScheduledDeletions() {
-        OffsetDateTime threshold = OffsetDateTime.now();
-        Pageable pageable = PageRequest.of(0, BATCH_SIZE);
-        Page<User> usersToDeletePage;
-
-        do {
-            usersToDeletePage = userRepository.findAllByDeletedAtBefore(threshold, pageable);
-            List<User> usersToDelete = usersToDeletePage.getContent();
-
-            for (User user : usersToDelete) {
-                publishUserDeletedEvent(user);
-                if (user.getUserVerification() != null) {
-                    userVerificationRepository.delete(user.getUserVerification());
-                }
-            }
-            userRepository.deleteAll(usersToDelete);
-            pageable = usersToDeletePage.nextPageable();
-        } while (usersToDeletePage.hasNext());
+        var report = lifecycleEngine.purgeScheduledAccounts();
+        log.info("Scheduled account purge run: {}", report);
     }
 
     @Override
-    @Transactional
     @CacheEvict(value = { "getAllUsers", "getProfileByAdmin", "getProfileByUser" }, allEntries = true)
-    public void deleteUser(String userId) {
+    public boolean deleteUser(String userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
-
-        publishUserDeletedEvent(user);
-
-        if (user.getUserVerification() != null) {
-            userVerificationRepository.delete(user.getUserVerification());
+        boolean deleted = lifecycleEngine.deleteNow(user);
+        if (!deleted) {
+            log.warn("Deletion of user {} is pending; the nightly purge will finish it", userId);
         }
-
-        userRepository.delete(user);
-    }
-
-    private void scheduleDeletionForUser(User user) {
-        OffsetDateTime deletionDate = OffsetDateTime.now().plusDays(10);
-        user.setDeletedAt(deletionDate);
-        if (user.getUserVerification() != null) {
-            user.getUserVerification().setDeletedAt(deletionDate);
-        }
-
-        UserDeletionScheduledEvent payload = UserDeletionScheduledEvent.builder()
-                .email(user.getEmail())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .deletionDate(deletionDate)
-                .build();
-        EventMetadata metadata = createEventMetadata(EventTypes.USER_DELETION_SCHEDULED);
-        BaseEvent<UserDeletionScheduledEvent> event = new BaseEvent<>(metadata, payload);
-
-        eventPublisherService.publishUserEvent(event);
-    }
-
-    private void publishUserDeletedEvent(User user) {
-        UserDeletedEvent payload = UserDeletedEvent.builder()
-                .email(user.getEmail())
-                .profilePictureUrl(user.getProfilePicture())
-                .build();
-        EventMetadata metadata = createEventMetadata(EventTypes.USER_DELETED);
-        BaseEvent<UserDeletedEvent> event = new BaseEvent<>(metadata, payload);
-
-        eventPublisherService.publishUserEvent(event);
-    }
-
-    private EventMetadata createEventMetadata(String eventType) {
-        return EventMetadata.builder()
-                .eventType(eventType)
-                .eventSource("DeleteUserImpl")
-                .eventTimestamp(System.currentTimeMillis())
-                .correlationId(UUID.randomUUID().toString())
-                .build();
+        return deleted;
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.extractor.unraveldocs.user.impl;
 
 import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import com.extractor.unraveldocs.exceptions.custom.NotFoundException;
 import com.extractor.unraveldocs.shared.response.ResponseBuilderService;
 import com.extractor.unraveldocs.shared.response.UnravelDocsResponse;
 import com.extractor.unraveldocs.user.interfaces.userimpl.ProfilePictureService;
@@ -8,18 +9,24 @@ import com.extractor.unraveldocs.user.model.User;
 import com.extractor.unraveldocs.user.repository.UserRepository;
 import com.extractor.unraveldocs.utils.imageupload.aws.AwsS3Service;
 import com.extractor.unraveldocs.utils.imageupload.FileType;
+import com.extractor.unraveldocs.utils.imageupload.rendition.RenditionProfile;
+import com.extractor.unraveldocs.utils.imageupload.rendition.RenditionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URLConnection;
+import java.util.Objects;
+
 @Service
 @RequiredArgsConstructor
 public class ProfilePictureImpl implements ProfilePictureService {
     private final AwsS3Service awsS3Service;
     private final ResponseBuilderService builderService;
     private final UserRepository userRepository;
+    private final RenditionService renditionService;
 
     @Override
     @Transactional
@@ -30,10 +37,17 @@ public class ProfilePictureImpl implements ProfilePictureService {
 
         String fileName = awsS3Service.generateFileName(file.getOriginalFilename(), AwsS3Service.getPROFILE_PICTURE_FOLDER());
         String profilePictureUrl = awsS3Service.uploadFile(file, fileName);
+        String thumbnailUrl = renditionService.createRendition(file, RenditionProfile.AVATAR).orElse(null);
 
+        String previousThumbnail = user.getProfilePictureThumbnail();
         user.setProfilePicture(profilePictureUrl);
+        user.setProfilePictureThumbnail(thumbnailUrl);
         userRepository.save(user);
 
+        if (!Objects.equals(previousThumbnail, thumbnailUrl)) {
+            deleteThumbnailIfUnused(previousThumbnail);
+        }
+
         return builderService
                 .buildUserResponse(
                         profilePictureUrl,
@@ -54,8 +68,11 @@ public class ProfilePictureImpl implements ProfilePictureService {
         }
         awsS3Service.deleteFile(user.getProfilePicture());
 
+        String thumbnailUrl = user.getProfilePictureThumbnail();
         user.setProfilePicture(null);
+        user.setProfilePictureThumbnail(null);
         userRepository.save(user);
+        deleteThumbnailIfUnused(thumbnailUrl);
 
         return builderService.buildUserResponse(
                         null,
@@ -63,4 +80,36 @@ public class ProfilePictureImpl implements ProfilePictureService {
                         "Profile picture deleted successfully."
                 );
     }
+
+    /**
+     * Thumbnail of the user's profile picture. Pictures uploaded before thumbnails
+     * existed get theirs generated here on first request.
+     */
+    @Override
+    @Transactional
+    public String getProfilePictureThumbnail(User user) {
+        if (user.getProfilePictureThumbnail() != null) {
+            return user.getProfilePictureThumbnail();
+        }
+        if (user.getProfilePicture() == null || user.getProfilePicture().isEmpty()) {
+            throw new NotFoundException("No profile picture found.");
+        }
+
+        String contentType = Objects.requireNonNullElse(
+                URLConnection.guessContentTypeFromName(user.getProfilePicture()), "image/jpeg");
+        // The picture's size was bounded by the upload limits when it was stored.
+        String thumbnailUrl = renditionService.createRenditionFromStored(
+                        user.getProfilePicture(), contentType, 0L, RenditionProfile.AVATAR)
+                .orElseThrow(() -> new NotFoundException("No thumbnail is available for this profile picture."));
+
+        user.setProfilePictureThumbnail(thumbnailUrl);
+        userRepository.save(user);
+        return thumbnailUrl;
+    }
+
+    private void deleteThumbnailIfUnused(String thumbnailUrl) {
+        if (thumbnailUrl != null && userRepository.countByProfilePictureThumbnail(thumbnailUrl) == 0) {
+            renditionService.deleteRendition(thumbnailUrl);
+        }
+    }
 }
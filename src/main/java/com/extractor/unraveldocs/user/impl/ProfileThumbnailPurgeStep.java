@@ -0,0 +1,37 @@
+package com.extractor.unraveldocs.user.impl;
+
+import com.extractor.unraveldocs.user.lifecycle.AccountPurgeStep;
+import com.extractor.unraveldocs.user.lifecycle.PurgeTarget;
+import com.extractor.unraveldocs.user.repository.UserRepository;
+import com.extractor.unraveldocs.utils.imageupload.aws.AwsS3Service;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Removes an account's profile picture thumbnail from S3, unless another account
+ * uploaded the same picture and shares it. The picture itself is removed when the
+ * account deletion event is handled.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProfileThumbnailPurgeStep implements AccountPurgeStep {
+    private final UserRepository userRepository;
+    private final AwsS3Service awsS3Service;
+
+    @Override
+    public String getStepName() {
+        return "profile-thumbnail";
+    }
+
+    @Override
+    public void purge(PurgeTarget target) {
+        userRepository.findProfilePictureThumbnailById(target.userId())
+                .filter(thumbnailUrl -> userRepository.countByProfilePictureThumbnail(thumbnailUrl) <= 1)
+                .ifPresent(thumbnailUrl -> {
+                    awsS3Service.deleteFile(thumbnailUrl);
+                    log.debug("Deleted profile picture thumbnail for account {}", target.userId());
+                });
+    }
+}
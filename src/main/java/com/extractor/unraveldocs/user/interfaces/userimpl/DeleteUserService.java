@@ -4,5 +4,12 @@ public interface DeleteUserService {
     void scheduleUserDeletion(String userId);
     void checkAndScheduleInactiveUsers();
     void processScheduledDeletions();
-    void deleteUser(String userId);
+
+    /**
+     * Delete an account now.
+     *
+     * @return true if the account was deleted, false if a purge step failed and the
+     * account was deactivated for the nightly purge to finish
+     */
+    boolean deleteUser(String userId);
 }
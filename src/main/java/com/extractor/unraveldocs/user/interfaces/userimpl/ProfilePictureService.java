@@ -7,4 +7,5 @@ import org.springframework.web.multipart.MultipartFile;
 public interface ProfilePictureService {
     UnravelDocsResponse<String> uploadProfilePicture(User user, MultipartFile file);
     UnravelDocsResponse<Void> deleteProfilePicture(User user);
+    String getProfilePictureThumbnail(User user);
 }
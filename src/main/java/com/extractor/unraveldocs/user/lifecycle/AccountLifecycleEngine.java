@@ -0,0 +1,367 @@
+package com.extractor.unraveldocs.user.lifecycle;
+
+import com.extractor.unraveldocs.user.config.AccountLifecycleProperties;
+import com.extractor.unraveldocs.user.lifecycle.AccountLifecycleRepository.StepOutcome;
+import com.extractor.unraveldocs.user.model.User;
+import com.extractor.unraveldocs.user.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the account lifecycle jobs in small committed chunks.
+ * <p>
+ * Each job walks accounts in ID order from a persisted checkpoint. A chunk is read,
+ * handled and committed on its own, and the checkpoint moves past it, so no
+ * transaction spans more than one chunk and an interrupted run resumes where it
+ * stopped. A lease on the checkpoint row keeps a second node off a job that is
+ * already running.
+ * <p>
+ * Purging an account fans its {@link AccountPurgeStep}s out to parallel workers.
+ * Completed steps are recorded, so a retried account only repeats the steps that
+ * failed. The account row is deleted, and {@code UserDeleted} published, only once
+ * every step has succeeded; the delete returns the rows it removed, so an account is
+ * never announced twice.
+ */
+@Slf4j
+@Service
+public class AccountLifecycleEngine {
+    public static final String DEACTIVATION_JOB = "inactive-account-deactivation";
+    public static final String PURGE_JOB = "scheduled-account-purge";
+
+    private final AccountLifecycleRepository lifecycleRepository;
+    private final UserRepository userRepository;
+    private final AccountLifecycleEvents lifecycleEvents;
+    private final List<AccountPurgeStep> purgeSteps;
+    private final AccountLifecycleProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService executor;
+    private final Semaphore purgePermits;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public AccountLifecycleEngine(AccountLifecycleRepository lifecycleRepository,
+                                  UserRepository userRepository,
+                                  AccountLifecycleEvents lifecycleEvents,
+                                  List<AccountPurgeStep> purgeSteps,
+                                  AccountLifecycleProperties properties,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry) {
+        this.lifecycleRepository = lifecycleRepository;
+        this.userRepository = userRepository;
+        this.lifecycleEvents = lifecycleEvents;
+        this.purgeSteps = List.copyOf(purgeSteps);
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        // Purge steps mostly wait on S3, Elasticsearch and payment providers
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.purgePermits = new Semaphore(Math.max(1, properties.getPurgeParallelism()));
+        log.info("Account purge steps: {}", this.purgeSteps.stream().map(AccountPurgeStep::getStepName).toList());
+    }
+
+    /**
+     * Deactivate accounts without a login for the configured number of months and
+     * schedule them for deletion.
+     */
+    public LifecycleRunReport deactivateInactiveAccounts() {
+        return runJob(DEACTIVATION_JOB,
+                () -> OffsetDateTime.now().minusMonths(properties.getInactivityMonths()),
+                this::deactivateChunk);
+    }
+
+    /**
+     * Purge and delete accounts whose deletion date has passed.
+     */
+    public LifecycleRunReport purgeScheduledAccounts() {
+        return runJob(PURGE_JOB, OffsetDateTime::now, this::purgeChunk);
+    }
+
+    /**
+     * Delete one account now. The account is first marked for purge, so if a step
+     * fails it is deactivated and the nightly purge finishes the job.
+     *
+     * @return true if the account was purged and deleted immediately
+     */
+    public boolean deleteNow(User user) {
+        PurgeTarget target = new PurgeTarget(user.getId(), user.getEmail(), user.getProfilePicture());
+        lifecycleRepository.markForPurge(target.userId());
+
+        if (!runPurgeSteps(List.of(target)).contains(target.userId())) {
+            log.warn("Purge of account {} incomplete, left for the scheduled purge", target.userId());
+            return false;
+        }
+        return deleteAccounts(List.of(target.userId())) == 1;
+    }
+
+    // ==================== Job driver ====================
+
+    private LifecycleRunReport runJob(String jobName, Supplier<OffsetDateTime> newRunThreshold, ChunkHandler handler) {
+        long leaseSeconds = properties.getLeaseSeconds();
+        if (!lifecycleRepository.tryAcquireLease(jobName, nodeId, leaseSeconds)) {
+            log.info("Skipping {}: another node holds the job", jobName);
+            return LifecycleRunReport.notStarted(jobName);
+        }
+
+        boolean finished = false;
+        try {
+            LifecycleCheckpoint checkpoint = lifecycleRepository.findCheckpoint(jobName);
+            if (checkpoint == null || !checkpoint.running()) {
+                checkpoint = lifecycleRepository.startRun(jobName, nodeId, newRunThreshold.get());
+                log.info("Starting {} with threshold {}", jobName, checkpoint.threshold());
+            } else {
+                log.info("Resuming {} after key {} ({} processed, {} failed so far)",
+                        jobName, checkpoint.lastKey(), checkpoint.processed(), checkpoint.failed());
+            }
+
+            int chunkSize = Math.max(1, properties.getChunkSize());
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(properties.getMaxRunMinutes());
+            String lastKey = checkpoint.lastKey();
+            long processed = checkpoint.processed();
+            long failed = checkpoint.failed();
+
+            while (true) {
+                if (System.nanoTime() > deadline) {
+                    log.info("{} reached its time limit after {} accounts, will resume after key {}",
+                            jobName, processed, lastKey);
+                    return new LifecycleRunReport(jobName, true, false, processed, failed);
+                }
+
+                ChunkResult chunk = handler.handle(jobName, checkpoint.threshold(), lastKey, chunkSize);
+                if (chunk.leaseLost()) {
+                    log.warn("{} lost its lease to another node, stopping", jobName);
+                    return new LifecycleRunReport(jobName, true, false, processed, failed);
+                }
+
+                if (chunk.size() > 0) {
+                    lastKey = chunk.lastKey();
+                    processed += chunk.processed();
+                    failed += chunk.failed();
+                    accountsCounter(jobName, "processed").increment(chunk.processed());
+                    accountsCounter(jobName, "failed").increment(chunk.failed());
+                    log.info("{}: {} processed, {} failed, checkpoint at {}", jobName, processed, failed, lastKey);
+                }
+
+                if (chunk.size() < chunkSize) {
+                    lifecycleRepository.finishRun(jobName, nodeId);
+                    finished = true;
+                    log.info("{} completed: {} processed, {} failed", jobName, processed, failed);
+                    return new LifecycleRunReport(jobName, true, true, processed, failed);
+                }
+            }
+        } finally {
+            if (!finished) {
+                lifecycleRepository.releaseLease(jobName, nodeId);
+            }
+        }
+    }
+
+    // ==================== Deactivation ====================
+
+    private ChunkResult deactivateChunk(String jobName, OffsetDateTime threshold, String afterId, int limit) {
+        return transactionTemplate.execute(status -> {
+            List<User> users = userRepository.findInactiveAfter(threshold, afterId, PageRequest.of(0, limit));
+            if (users.isEmpty()) {
+                return ChunkResult.EMPTY;
+            }
+            for (User user : users) {
+                user.setActive(false);
+                lifecycleEvents.scheduleDeletion(user);
+            }
+            userRepository.saveAll(users);
+
+            String lastKey = users.getLast().getId();
+            if (!lifecycleRepository.advance(jobName, nodeId, lastKey, users.size(), 0, properties.getLeaseSeconds())) {
+                status.setRollbackOnly();
+                return ChunkResult.LEASE_LOST;
+            }
+            return new ChunkResult(users.size(), lastKey, users.size(), 0, false);
+        });
+    }
+
+    // ==================== Purge ====================
+
+    private ChunkResult purgeChunk(String jobName, OffsetDateTime threshold, String afterId, int limit) {
+        List<PurgeTarget> targets = lifecycleRepository.findPurgeTargets(threshold, afterId, limit);
+        if (targets.isEmpty()) {
+            return ChunkResult.EMPTY;
+        }
+
+        Set<String> purged = runPurgeSteps(targets);
+        List<String> ready = targets.stream().map(PurgeTarget::userId).filter(purged::contains).toList();
+        int deleted = deleteAccounts(ready);
+        int failed = targets.size() - deleted;
+
+        String lastKey = targets.getLast().userId();
+        if (!lifecycleRepository.advance(jobName, nodeId, lastKey, deleted, failed, properties.getLeaseSeconds())) {
+            return ChunkResult.LEASE_LOST;
+        }
+        return new ChunkResult(targets.size(), lastKey, deleted, failed, false);
+    }
+
+    /**
+     * Run every purge step not yet completed for the given accounts, in parallel.
+     *
+     * @return IDs of the accounts whose steps have all completed
+     */
+    Set<String> runPurgeSteps(List<PurgeTarget> targets) {
+        Map<String, Set<String>> alreadyDone = lifecycleRepository.findCompletedSteps(
+                targets.stream().map(PurgeTarget::userId).toList());
+
+        List<CompletableFuture<StepOutcome>> running = new ArrayList<>();
+        List<StepOutcome> pending = new ArrayList<>();
+        for (PurgeTarget target : targets) {
+            Set<String> done = alreadyDone.getOrDefault(target.userId(), Set.of());
+            for (AccountPurgeStep step : purgeSteps) {
+                if (!done.contains(step.getStepName())) {
+                    running.add(CompletableFuture.supplyAsync(() -> runStep(step, target), executor));
+                    pending.add(new StepOutcome(target.userId(), step.getStepName(), false, "timed out"));
+                }
+            }
+        }
+
+        // Steps wait for a permit, so allow one timeout per wave of parallel steps
+        int parallelism = Math.max(1, properties.getPurgeParallelism());
+        int waves = (running.size() + parallelism - 1) / parallelism;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(properties.getStepTimeoutSeconds() * Math.max(1, waves));
+
+        List<StepOutcome> outcomes = new ArrayList<>(running.size());
+        for (int i = 0; i < running.size(); i++) {
+            outcomes.add(await(running.get(i), pending.get(i), deadline));
+        }
+        lifecycleRepository.recordStepOutcomes(outcomes);
+
+        Set<String> failedAccounts = new HashSet<>();
+        for (StepOutcome outcome : outcomes) {
+            stepCounter(outcome.step(), outcome.succeeded() ? "success" : "failure").increment();
+            if (!outcome.succeeded()) {
+                failedAccounts.add(outcome.userId());
+            }
+        }
+        Set<String> purged = new HashSet<>();
+        for (PurgeTarget target : targets) {
+            if (!failedAccounts.contains(target.userId())) {
+                purged.add(target.userId());
+            }
+        }
+        return purged;
+    }
+
+    private StepOutcome runStep(AccountPurgeStep step, PurgeTarget target) {
+        try {
+            purgePermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new StepOutcome(target.userId(), step.getStepName(), false, "interrupted");
+        }
+        try {
+            step.purge(target);
+            return new StepOutcome(target.userId(), step.getStepName(), true, null);
+        } catch (RuntimeException e) {
+            log.warn("Purge step {} failed for account {}: {}", step.getStepName(), target.userId(), e.getMessage());
+            return new StepOutcome(target.userId(), step.getStepName(), false, e.getMessage());
+        } finally {
+            purgePermits.release();
+        }
+    }
+
+    private StepOutcome await(CompletableFuture<StepOutcome> future, StepOutcome onTimeout, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return onTimeout;
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Purge step {} for account {} did not finish in time", onTimeout.step(), onTimeout.userId());
+            return onTimeout;
+        }
+    }
+
+    /**
+     * Delete purged accounts and publish their {@code UserDeleted} events. If the batch
+     * is rejected (for example by a row that still references one of the accounts),
+     * the accounts are retried one at a time so one bad account does not hold back the rest.
+     *
+     * @return number of accounts deleted
+     */
+    private int deleteAccounts(List<String> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        try {
+            return transactionTemplate.execute(status -> deleteAndAnnounce(userIds));
+        } catch (DataAccessException e) {
+            log.warn("Batch delete of {} accounts failed, retrying one by one: {}", userIds.size(), e.getMessage());
+        }
+
+        int deleted = 0;
+        for (String userId : userIds) {
+            try {
+                deleted += transactionTemplate.execute(status -> deleteAndAnnounce(List.of(userId)));
+            } catch (DataAccessException e) {
+                log.error("Could not delete account {}: {}", userId, e.getMessage());
+            }
+        }
+        return deleted;
+    }
+
+    private int deleteAndAnnounce(List<String> userIds) {
+        List<PurgeTarget> deleted = lifecycleRepository.deleteAccounts(userIds);
+        deleted.forEach(lifecycleEvents::publishDeleted);
+        lifecycleRepository.deleteStepRecords(deleted.stream().map(PurgeTarget::userId).toList());
+        return deleted.size();
+    }
+
+    private Counter accountsCounter(String jobName, String outcome) {
+        return Counter.builder("user.lifecycle.accounts")
+                .description("Accounts handled by the lifecycle jobs")
+                .tag("job", jobName)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Counter stepCounter(String step, String outcome) {
+        return Counter.builder("user.lifecycle.purge.steps")
+                .description("Account purge steps run")
+                .tag("step", step)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface ChunkHandler {
+        ChunkResult handle(String jobName, OffsetDateTime threshold, String afterId, int limit);
+    }
+
+    private record ChunkResult(int size, String lastKey, int processed, int failed, boolean leaseLost) {
+        static final ChunkResult EMPTY = new ChunkResult(0, null, 0, 0, false);
+        static final ChunkResult LEASE_LOST = new ChunkResult(0, null, 0, 0, true);
+    }
+}
@@ -0,0 +1,65 @@
+package com.extractor.unraveldocs.user.lifecycle;
+
+import com.extractor.unraveldocs.brokers.kafka.events.BaseEvent;
+import com.extractor.unraveldocs.brokers.kafka.events.EventMetadata;
+import com.extractor.unraveldocs.brokers.kafka.events.EventPublisherService;
+import com.extractor.unraveldocs.brokers.kafka.events.EventTypes;
+import com.extractor.unraveldocs.user.config.AccountLifecycleProperties;
+import com.extractor.unraveldocs.user.events.UserDeletedEvent;
+import com.extractor.unraveldocs.user.events.UserDeletionScheduledEvent;
+import com.extractor.unraveldocs.user.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Account lifecycle transitions that emit events. Events go through the outbox, so
+ * they are published only if the surrounding transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountLifecycleEvents {
+    private final EventPublisherService eventPublisherService;
+    private final AccountLifecycleProperties lifecycleProperties;
+
+    /**
+     * Set the account's deletion date after the grace period and announce it.
+     * The caller saves the user.
+     */
+    public void scheduleDeletion(User user) {
+        OffsetDateTime deletionDate = OffsetDateTime.now().plusDays(lifecycleProperties.getDeletionGraceDays());
+        user.setDeletedAt(deletionDate);
+        if (user.getUserVerification() != null) {
+            user.getUserVerification().setDeletedAt(deletionDate);
+        }
+
+        UserDeletionScheduledEvent payload = UserDeletionScheduledEvent.builder()
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .deletionDate(deletionDate)
+                .build();
+        eventPublisherService.publishUserEvent(
+                new BaseEvent<>(createEventMetadata(EventTypes.USER_DELETION_SCHEDULED), payload));
+    }
+
+    public void publishDeleted(PurgeTarget account) {
+        UserDeletedEvent payload = UserDeletedEvent.builder()
+                .email(account.email())
+                .profilePictureUrl(account.profilePictureUrl())
+                .build();
+        eventPublisherService.publishUserEvent(
+                new BaseEvent<>(createEventMetadata(EventTypes.USER_DELETED), payload));
+    }
+
+    private EventMetadata createEventMetadata(String eventType) {
+        return EventMetadata.builder()
+                .eventType(eventType)
+                .eventSource("DeleteUserImpl")
+                .eventTimestamp(System.currentTimeMillis())
+                .correlationId(UUID.randomUUID().toString())
+                .build();
+    }
+}
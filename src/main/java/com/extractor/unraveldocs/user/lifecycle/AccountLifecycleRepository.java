@@ -0,0 +1,247 @@
+package com.extractor.unraveldocs.user.lifecycle;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JDBC access to lifecycle checkpoints, the purge step ledger and the keyset scans
+ * over accounts due for purge.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountLifecycleRepository {
+
+    static final String STATUS_RUNNING = "RUNNING";
+    static final String STEP_DONE = "DONE";
+    static final String STEP_FAILED = "FAILED";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // ==================== Checkpoints ====================
+
+    /**
+     * Take or renew the job's lease.
+     *
+     * @return false if another node holds an unexpired lease
+     */
+    public boolean tryAcquireLease(String jobName, String owner, long leaseSeconds) {
+        jdbcTemplate.update("""
+                INSERT INTO account_lifecycle_checkpoints (job_name, status)
+                VALUES (?, 'COMPLETED')
+                ON CONFLICT (job_name) DO NOTHING
+                """, jobName);
+        return jdbcTemplate.update("""
+                UPDATE account_lifecycle_checkpoints
+                SET lease_owner = ?, lease_expires_at = now() + make_interval(secs => ?), updated_at = now()
+                WHERE job_name = ?
+                  AND (lease_owner IS NULL OR lease_owner = ? OR lease_expires_at < now())
+                """, owner, leaseSeconds, jobName, owner) == 1;
+    }
+
+    public void releaseLease(String jobName, String owner) {
+        jdbcTemplate.update("""
+                UPDATE account_lifecycle_checkpoints
+                SET lease_owner = NULL, lease_expires_at = NULL, updated_at = now()
+                WHERE job_name = ? AND lease_owner = ?
+                """, jobName, owner);
+    }
+
+    public LifecycleCheckpoint findCheckpoint(String jobName) {
+        List<LifecycleCheckpoint> rows = jdbcTemplate.query("""
+                SELECT job_name, status, threshold, last_key, processed, failed
+                FROM account_lifecycle_checkpoints
+                WHERE job_name = ?
+                """, (rs, rowNum) -> new LifecycleCheckpoint(
+                rs.getString("job_name"),
+                STATUS_RUNNING.equals(rs.getString("status")),
+                rs.getObject("threshold", OffsetDateTime.class),
+                rs.getString("last_key"),
+                rs.getLong("processed"),
+                rs.getLong("failed")), jobName);
+        return rows.isEmpty() ? null : rows.getFirst();
+    }
+
+    /**
+     * Begin a new run from the start of the key space.
+     */
+    public LifecycleCheckpoint startRun(String jobName, String owner, OffsetDateTime threshold) {
+        jdbcTemplate.update("""
+                UPDATE account_lifecycle_checkpoints
+                SET status = 'RUNNING', threshold = ?, last_key = '', processed = 0, failed = 0,
+                    started_at = now(), finished_at = NULL, updated_at = now()
+                WHERE job_name = ? AND lease_owner = ?
+                """, threshold, jobName, owner);
+        return new LifecycleCheckpoint(jobName, true, threshold, "", 0, 0);
+    }
+
+    /**
+     * Move the checkpoint past a chunk and renew the lease.
+     *
+     * @return false if this node no longer holds the lease and must stop
+     */
+    public boolean advance(String jobName, String owner, String lastKey, int processed, int failed,
+                           long leaseSeconds) {
+        return jdbcTemplate.update("""
+                UPDATE account_lifecycle_checkpoints
+                SET last_key = ?, processed = processed + ?, failed = failed + ?,
+                    lease_expires_at = now() + make_interval(secs => ?), updated_at = now()
+                WHERE job_name = ? AND lease_owner = ?
+                """, lastKey, processed, failed, leaseSeconds, jobName, owner) == 1;
+    }
+
+    public void finishRun(String jobName, String owner) {
+        jdbcTemplate.update("""
+                UPDATE account_lifecycle_checkpoints
+                SET status = 'COMPLETED', finished_at = now(), lease_owner = NULL, lease_expires_at = NULL,
+                    updated_at = now()
+                WHERE job_name = ? AND lease_owner = ?
+                """, jobName, owner);
+    }
+
+    // ==================== Purge candidates ====================
+
+    /**
+     * Next accounts due for purge after {@code afterId}, in ID order.
+     */
+    public List<PurgeTarget> findPurgeTargets(OffsetDateTime threshold, String afterId, int limit) {
+        return jdbcTemplate.query("""
+                SELECT id, email, image_url
+                FROM users
+                WHERE deleted_at IS NOT NULL AND deleted_at < ? AND id > ?
+                ORDER BY id
+                LIMIT ?
+                """, (rs, rowNum) -> toTarget(rs), threshold, afterId, limit);
+    }
+
+    /**
+     * Delete accounts that are still due for purge. Every foreign key to users carries an
+     * ON DELETE action (V70): rows the user owns, such as teams, organizations, memberships
+     * and coupon redemptions, cascade; shared rows such as coupons they created or members
+     * they invited keep existing with the reference set to null. The sign-up time of each
+     * deleted account is kept in {@code purged_user_signups}, so the KPI recount still
+     * counts the sign-up.
+     *
+     * @return the accounts actually deleted by this call
+     */
+    public List<PurgeTarget> deleteAccounts(List<String> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.execute((Connection connection) -> {
+            Array ids = connection.createArrayOf("varchar", userIds.toArray());
+            try (PreparedStatement ps = connection.prepareStatement("""
+                    WITH deleted AS (
+                        DELETE FROM users
+                        WHERE id = ANY(?) AND deleted_at IS NOT NULL AND deleted_at <= now()
+                        RETURNING id, email, image_url, created_at),
+                    signups AS (
+                        INSERT INTO purged_user_signups (user_id, created_at)
+                        SELECT id, created_at FROM deleted
+                        ON CONFLICT (user_id) DO NOTHING)
+                    SELECT id, email, image_url FROM deleted
+                    """)) {
+                ps.setArray(1, ids);
+                List<PurgeTarget> deleted = new ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        deleted.add(toTarget(rs));
+                    }
+                }
+                return deleted;
+            } finally {
+                ids.free();
+            }
+        });
+    }
+
+    /**
+     * Immediately schedule an account for purge, for a deletion whose purge could not finish inline.
+     */
+    public void markForPurge(String userId) {
+        jdbcTemplate.update("UPDATE users SET deleted_at = now(), is_active = false WHERE id = ?", userId);
+    }
+
+    // ==================== Purge step ledger ====================
+
+    public Map<String, Set<String>> findCompletedSteps(List<String> userIds) {
+        Map<String, Set<String>> completed = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return completed;
+        }
+        jdbcTemplate.execute((Connection connection) -> {
+            Array ids = connection.createArrayOf("varchar", userIds.toArray());
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "SELECT user_id, step FROM account_purge_steps WHERE user_id = ANY(?) AND status = 'DONE'")) {
+                ps.setArray(1, ids);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        completed.computeIfAbsent(rs.getString("user_id"), key -> new HashSet<>())
+                                .add(rs.getString("step"));
+                    }
+                }
+                return null;
+            } finally {
+                ids.free();
+            }
+        });
+        return completed;
+    }
+
+    public void recordStepOutcomes(List<StepOutcome> outcomes) {
+        if (outcomes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO account_purge_steps (user_id, step, status, attempts, last_error, updated_at)
+                VALUES (?, ?, ?, 1, ?, now())
+                ON CONFLICT (user_id, step) DO UPDATE
+                SET status = EXCLUDED.status, attempts = account_purge_steps.attempts + 1,
+                    last_error = EXCLUDED.last_error, updated_at = now()
+                """, outcomes, outcomes.size(), (ps, outcome) -> {
+            ps.setString(1, outcome.userId());
+            ps.setString(2, outcome.step());
+            ps.setString(3, outcome.succeeded() ? STEP_DONE : STEP_FAILED);
+            ps.setString(4, outcome.error());
+        });
+    }
+
+    public void deleteStepRecords(List<String> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((Connection connection) -> {
+            Array ids = connection.createArrayOf("varchar", userIds.toArray());
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "DELETE FROM account_purge_steps WHERE user_id = ANY(?)")) {
+                ps.setArray(1, ids);
+                return ps.executeUpdate();
+            } finally {
+                ids.free();
+            }
+        });
+    }
+
+    private static PurgeTarget toTarget(ResultSet rs) throws SQLException {
+        return new PurgeTarget(rs.getString("id"), rs.getString("email"), rs.getString("image_url"));
+    }
+
+    /**
+     * Result of one purge step for one account.
+     */
+    public record StepOutcome(String userId, String step, boolean succeeded, String error) {
+    }
+}
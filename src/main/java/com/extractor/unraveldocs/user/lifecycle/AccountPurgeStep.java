@@ -0,0 +1,19 @@
+package com.extractor.unraveldocs.user.lifecycle;
+
+/**
+ * One part of removing an account's data outside the users table, owned by the module
+ * that stores it (files, search index, notifications, payments).
+ * <p>
+ * Steps run in parallel with each other and must be idempotent: a step that fails, or
+ * whose result was not recorded, runs again on the next attempt. A step that throws
+ * keeps the account from being deleted until it succeeds.
+ */
+public interface AccountPurgeStep {
+
+    /**
+     * Stable name recorded with the step's outcome.
+     */
+    String getStepName();
+
+    void purge(PurgeTarget target);
+}
@@ -0,0 +1,23 @@
+package com.extractor.unraveldocs.user.lifecycle;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Persisted position of a lifecycle job.
+ *
+ * @param jobName   Job the checkpoint belongs to
+ * @param running   Whether a run is in progress and should be resumed
+ * @param threshold Cut-off time fixed when the run started, so a resumed run selects the same accounts
+ * @param lastKey   Highest account ID handled so far in this run
+ * @param processed Accounts handled in this run
+ * @param failed    Accounts that could not be handled in this run
+ */
+public record LifecycleCheckpoint(
+        String jobName,
+        boolean running,
+        OffsetDateTime threshold,
+        String lastKey,
+        long processed,
+        long failed
+) {
+}
@@ -0,0 +1,17 @@
+package com.extractor.unraveldocs.user.lifecycle;
+
+/**
+ * Outcome of one invocation of a lifecycle job.
+ *
+ * @param jobName   Job that ran
+ * @param started   False if another node held the job and this call did nothing
+ * @param completed Whether the run reached the end of the key space; otherwise it resumes next time
+ * @param processed Accounts handled in the run so far, including earlier invocations
+ * @param failed    Accounts left for a later run
+ */
+public record LifecycleRunReport(String jobName, boolean started, boolean completed, long processed, long failed) {
+
+    public static LifecycleRunReport notStarted(String jobName) {
+        return new LifecycleRunReport(jobName, false, false, 0, 0);
+    }
+}
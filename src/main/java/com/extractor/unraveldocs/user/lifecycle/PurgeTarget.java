@@ -0,0 +1,12 @@
+package com.extractor.unraveldocs.user.lifecycle;
+
+/**
+ * The account a purge step works on. Carries only what steps need, so steps do not
+ * have to load the user entity.
+ *
+ * @param userId            ID of the account
+ * @param email             Email address, for steps that notify or log
+ * @param profilePictureUrl Profile picture URL, or null
+ */
+public record PurgeTarget(String userId, String email, String profilePictureUrl) {
+}
@@ -38,6 +38,9 @@ public class User implements UserDetails {
     @Column(name = "image_url")
     private String profilePicture;
 
+    @Column(name = "image_thumbnail_url", length = 1024)
+    private String profilePictureThumbnail;
+
     @Column(nullable = false, name = "first_name")
     private String firstName;
 
@@ -3,13 +3,15 @@ package com.extractor.unraveldocs.user.repository;
 import com.extractor.unraveldocs.auth.datamodel.Role;
 import com.extractor.unraveldocs.user.model.User;
 import lombok.NonNull;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,11 +26,34 @@ public interface UserRepository extends JpaRepository<@NonNull User, @NonNull St
 
         boolean existsByEmail(String email);
 
-        @Query("SELECT u FROM User u WHERE u.lastLogin < :threshold AND u.deletedAt IS NULL")
-        Page<User> findAllByLastLoginDateBefore(@Param("threshold") OffsetDateTime threshold, Pageable pageable);
+        /**
+         * Number of accounts using a profile picture thumbnail. Identical pictures share
+         * one content-addressed thumbnail.
+         */
+        long countByProfilePictureThumbnail(String profilePictureThumbnail);
+
+        @Query("SELECT u.profilePictureThumbnail FROM User u WHERE u.id = :userId")
+        Optional<String> findProfilePictureThumbnailById(@Param("userId") String userId);
+
+        /**
+         * Keyset page of accounts inactive since before the threshold and not yet scheduled
+         * for deletion, in ID order after {@code afterId}. Scheduling an account removes it
+         * from this query, so the key never skips or repeats accounts between chunks.
+         */
+        @Query("SELECT u FROM User u LEFT JOIN FETCH u.userVerification " +
+                        "WHERE u.lastLogin < :threshold AND u.deletedAt IS NULL AND u.id > :afterId ORDER BY u.id")
+        List<User> findInactiveAfter(@Param("threshold") OffsetDateTime threshold,
+                        @Param("afterId") String afterId, Pageable limit);
 
-        @Query("SELECT u FROM User u WHERE u.deletedAt < :threshold")
-        Page<User> findAllByDeletedAtBefore(@Param("threshold") OffsetDateTime threshold, Pageable pageable);
+        /**
+         * Bulk-apply buffered login timestamps. Never moves lastLogin backwards, so
+         * flushes from several instances can interleave safely.
+         */
+        @Transactional
+        @Modifying
+        @Query("UPDATE User u SET u.lastLogin = :lastLogin " +
+                        "WHERE u.id IN :ids AND (u.lastLogin IS NULL OR u.lastLogin < :lastLogin)")
+        int updateLastLogin(@Param("ids") Collection<String> ids, @Param("lastLogin") OffsetDateTime lastLogin);
 
         // ========== Coupon Notification Query Methods (Performance Optimized)
         // ==========
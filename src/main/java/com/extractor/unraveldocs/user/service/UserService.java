@@ -43,8 +43,8 @@ public class UserService {
         return profileUpdateService.updateProfile(request, userId);
     }
 
-    public void deleteUser(String userId) {
-        deleteUserService.deleteUser(userId);
+    public boolean deleteUser(String userId) {
+        return deleteUserService.deleteUser(userId);
     }
 
     public UnravelDocsResponse<String> uploadProfilePicture(User user, MultipartFile file) {
@@ -54,4 +54,8 @@ public class UserService {
     public UnravelDocsResponse<Void> deleteProfilePicture(User user) {
         return profilePictureService.deleteProfilePicture(user);
     }
+
+    public String getProfilePictureThumbnail(User user) {
+        return profilePictureService.getProfilePictureThumbnail(user);
+    }
 }
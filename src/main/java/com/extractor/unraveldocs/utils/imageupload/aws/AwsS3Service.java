@@ -10,11 +10,32 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListPartsRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
@@ -22,6 +43,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class AwsS3Service {
     private final S3Client s3Client;
+    private final S3Presigner s3Presigner;
 
     @Value("${aws.s3.bucket}")
     private String bucketName;
@@ -32,6 +54,11 @@ public class AwsS3Service {
     @Getter
     private static final String DOCUMENT_PICTURE_FOLDER = FileFolder.DOCUMENT_PICTURE.getFolder();
 
+    /**
+     * Maximum keys S3 accepts in one DeleteObjects request.
+     */
+    private static final int MAX_KEYS_PER_DELETE = 1000;
+
     public String uploadFile(MultipartFile file, String fileName) {
         try {
             PutObjectRequest putObjectRequest = PutObjectRequest.builder()
@@ -49,6 +76,179 @@ public class AwsS3Service {
         }
     }
 
+    /**
+     * Store bytes under a fixed key, for content the server generates itself.
+     *
+     * @param cacheControl Cache-Control header to store with the object, or null
+     * @return URL of the stored object
+     */
+    public String uploadBytes(String key, byte[] content, String contentType, String cacheControl) {
+        try {
+            s3Client.putObject(PutObjectRequest.builder()
+                            .bucket(bucketName)
+                            .key(key)
+                            .contentType(contentType)
+                            .cacheControl(cacheControl)
+                            .build(),
+                    RequestBody.fromBytes(content));
+            return getFileUrl(key);
+        } catch (S3Exception ex) {
+            log.error("Error uploading {} to S3: {}", key, ex.awsErrorDetails().errorMessage());
+            throw new RuntimeException("Failed to upload file to S3", ex);
+        }
+    }
+
+    /**
+     * Read a stored file into memory.
+     *
+     * @param fileUrl URL of a file in the bucket
+     */
+    public byte[] downloadFile(String fileUrl) {
+        String key = extractKey(fileUrl);
+        if (key == null) {
+            throw new RuntimeException("Invalid file URL: Bucket name not found");
+        }
+        try {
+            return s3Client.getObjectAsBytes(GetObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .build()).asByteArray();
+        } catch (S3Exception ex) {
+            log.error("Error downloading {} from S3: {}", key, ex.awsErrorDetails().errorMessage());
+            throw new RuntimeException("Failed to download file from S3", ex);
+        }
+    }
+
+    public String getFileUrl(String key) {
+        return s3Client.utilities().getUrl(builder -> builder.bucket(bucketName).key(key)).toString();
+    }
+
+    // ==================== Direct uploads ====================
+
+    /**
+     * Presign a single PUT of an object. Content type and length are part of the
+     * signature, so S3 rejects an upload that does not match them.
+     */
+    public String presignPut(String key, String contentType, long contentLength, Duration validity) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .build();
+
+        return s3Presigner.presignPutObject(presign -> presign
+                        .signatureDuration(validity)
+                        .putObjectRequest(putObjectRequest))
+                .url().toString();
+    }
+
+    /**
+     * Start a multipart upload whose parts the client sends directly to S3.
+     *
+     * @return the upload ID
+     */
+    public String createMultipartUpload(String key, String contentType) {
+        try {
+            return s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .contentType(contentType)
+                    .build()).uploadId();
+        } catch (S3Exception ex) {
+            log.error("Error starting multipart upload: {}", ex.awsErrorDetails().errorMessage());
+            throw new RuntimeException("Failed to start multipart upload", ex);
+        }
+    }
+
+    public String presignUploadPart(String key, String uploadId, int partNumber, long partLength, Duration validity) {
+        UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength(partLength)
+                .build();
+
+        return s3Presigner.presignUploadPart(presign -> presign
+                        .signatureDuration(validity)
+                        .uploadPartRequest(uploadPartRequest))
+                .url().toString();
+    }
+
+    /**
+     * Parts S3 has received for a multipart upload, in part order. Reading them from S3
+     * means the client never has to report ETags.
+     */
+    public List<CompletedPart> listUploadedParts(String key, String uploadId) {
+        try {
+            return s3Client.listPartsPaginator(ListPartsRequest.builder()
+                            .bucket(bucketName)
+                            .key(key)
+                            .uploadId(uploadId)
+                            .build())
+                    .parts().stream()
+                    .map(part -> CompletedPart.builder().partNumber(part.partNumber()).eTag(part.eTag()).build())
+                    .sorted(Comparator.comparing(CompletedPart::partNumber))
+                    .toList();
+        } catch (S3Exception ex) {
+            log.error("Error listing parts of upload {}: {}", uploadId, ex.awsErrorDetails().errorMessage());
+            throw new RuntimeException("Failed to list uploaded parts", ex);
+        }
+    }
+
+    public void completeMultipartUpload(String key, String uploadId, List<CompletedPart> parts) {
+        try {
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+        } catch (S3Exception ex) {
+            log.error("Error completing multipart upload {}: {}", uploadId, ex.awsErrorDetails().errorMessage());
+            throw new RuntimeException("Failed to complete multipart upload", ex);
+        }
+    }
+
+    /**
+     * Abort a multipart upload and free its stored parts. An upload that is already
+     * gone is ignored.
+     */
+    public void abortMultipartUpload(String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (S3Exception ex) {
+            if (ex.statusCode() != 404) {
+                log.warn("Error aborting multipart upload {}: {}", uploadId, ex.awsErrorDetails().errorMessage());
+            }
+        }
+    }
+
+    /**
+     * Metadata of an object, or empty if it does not exist.
+     */
+    public Optional<HeadObjectResponse> headObject(String key) {
+        try {
+            return Optional.of(s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .build()));
+        } catch (NoSuchKeyException ex) {
+            return Optional.empty();
+        } catch (S3Exception ex) {
+            if (ex.statusCode() == 404) {
+                return Optional.empty();
+            }
+            log.error("Error reading metadata of {}: {}", key, ex.awsErrorDetails().errorMessage());
+            throw new RuntimeException("Failed to read file metadata from S3", ex);
+        }
+    }
+
     public String generateFileName(String originalFileName, String folderName) {
         if (originalFileName == null || originalFileName.isEmpty()) {
             throw new BadRequestException("Original file name cannot be null or empty");
@@ -90,4 +290,48 @@ public class AwsS3Service {
         }
     }
 
+    /**
+     * Delete many files with DeleteObjects, up to 1000 keys per request. Keys that no
+     * longer exist count as deleted, so the call can be repeated safely.
+     *
+     * @param fileUrls URLs of the files to delete; URLs outside the bucket are skipped
+     * @throws RuntimeException if S3 rejects a request or reports a key it could not delete
+     */
+    public void deleteFiles(List<String> fileUrls) {
+        List<ObjectIdentifier> keys = fileUrls.stream()
+                .map(this::extractKey)
+                .filter(Objects::nonNull)
+                .map(key -> ObjectIdentifier.builder().key(key).build())
+                .toList();
+
+        for (int from = 0; from < keys.size(); from += MAX_KEYS_PER_DELETE) {
+            List<ObjectIdentifier> batch = keys.subList(from, Math.min(from + MAX_KEYS_PER_DELETE, keys.size()));
+            try {
+                DeleteObjectsResponse response = s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                        .bucket(bucketName)
+                        .delete(Delete.builder().objects(batch).quiet(true).build())
+                        .build());
+                if (response.hasErrors() && !response.errors().isEmpty()) {
+                    log.error("S3 could not delete {} of {} files, first error: {}",
+                            response.errors().size(), batch.size(), response.errors().getFirst().message());
+                    throw new RuntimeException("Failed to delete " + response.errors().size() + " files from S3");
+                }
+            } catch (S3Exception ex) {
+                log.error("Error deleting files from S3: {}", ex.awsErrorDetails().errorMessage());
+                throw new RuntimeException("Failed to delete files from S3", ex);
+            }
+        }
+    }
+
+    private String extractKey(String fileUrl) {
+        if (fileUrl == null || fileUrl.isEmpty()) {
+            return null;
+        }
+        int bucketIndex = fileUrl.indexOf(bucketName);
+        if (bucketIndex == -1) {
+            log.warn("Bucket name not found in file URL, skipping: {}", fileUrl);
+            return null;
+        }
+        return fileUrl.substring(bucketIndex + bucketName.length() + 1);
+    }
 }
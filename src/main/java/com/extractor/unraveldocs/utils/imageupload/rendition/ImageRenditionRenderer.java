@@ -0,0 +1,137 @@
+package com.extractor.unraveldocs.utils.imageupload.rendition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Renders a scaled-down JPEG of an image or of the first page of a PDF.
+ * Uses ImageIO and PDFBox only, so no native libraries are needed.
+ */
+@Slf4j
+@Component
+public class ImageRenditionRenderer {
+    private static final String PDF_CONTENT_TYPE = "application/pdf";
+
+    /**
+     * Whether a rendition can be made from files of this content type.
+     */
+    public boolean supports(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase();
+        return type.equals(PDF_CONTENT_TYPE) || type.startsWith("image/");
+    }
+
+    /**
+     * Render a JPEG whose longest side is at most {@code maxDimension}. Images smaller
+     * than that are re-encoded but not enlarged.
+     *
+     * @return the JPEG bytes, or empty if the source cannot be decoded
+     */
+    public Optional<byte[]> render(byte[] source, String contentType, int maxDimension, float quality, int pdfDpi) {
+        if (!supports(contentType)) {
+            return Optional.empty();
+        }
+        try {
+            BufferedImage image = PDF_CONTENT_TYPE.equalsIgnoreCase(contentType)
+                    ? renderFirstPage(source, pdfDpi)
+                    : ImageIO.read(new ByteArrayInputStream(source));
+            if (image == null) {
+                return Optional.empty();
+            }
+            return Optional.of(writeJpeg(scale(image, maxDimension), quality));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not render {} source: {}", contentType, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Render a JPEG of the first page of a PDF the caller has open.
+     *
+     * @return the JPEG bytes, or empty if the document has no pages or cannot be rendered
+     */
+    public Optional<byte[]> render(PDDocument document, int maxDimension, float quality, int pdfDpi) {
+        try {
+            BufferedImage image = renderFirstPage(document, pdfDpi);
+            if (image == null) {
+                return Optional.empty();
+            }
+            return Optional.of(writeJpeg(scale(image, maxDimension), quality));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not render PDF source: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private BufferedImage renderFirstPage(byte[] pdf, int dpi) throws IOException {
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            return renderFirstPage(document, dpi);
+        }
+    }
+
+    private BufferedImage renderFirstPage(PDDocument document, int dpi) throws IOException {
+        if (document.getNumberOfPages() == 0) {
+            return null;
+        }
+        return new PDFRenderer(document).renderImageWithDPI(0, dpi, ImageType.RGB);
+    }
+
+    /**
+     * Scale to fit within a square of {@code maxDimension} and flatten onto white, since
+     * JPEG has no alpha channel.
+     */
+    private BufferedImage scale(BufferedImage source, int maxDimension) {
+        int longest = Math.max(source.getWidth(), source.getHeight());
+        double ratio = longest > maxDimension ? (double) maxDimension / longest : 1.0;
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] writeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,18 @@
+package com.extractor.unraveldocs.utils.imageupload.rendition;
+
+import lombok.Getter;
+
+/**
+ * Kinds of derived image, each stored under its own folder.
+ */
+@Getter
+public enum RenditionProfile {
+    DOCUMENT_PREVIEW("renditions/previews/"),
+    AVATAR("renditions/avatars/");
+
+    private final String folder;
+
+    RenditionProfile(String folder) {
+        this.folder = folder;
+    }
+}
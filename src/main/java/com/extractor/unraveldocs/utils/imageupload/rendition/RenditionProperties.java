@@ -0,0 +1,51 @@
+package com.extractor.unraveldocs.utils.imageupload.rendition;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration for derived images: document previews and profile picture thumbnails.
+ * Renditions are keyed by a hash of their source, so a stored rendition never changes
+ * and can be cached for as long as browsers and CDNs allow.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rendition")
+public class RenditionProperties {
+
+    /**
+     * Whether renditions are generated. When disabled, uploads store only the original.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Longest side of a document preview, in pixels.
+     */
+    private int previewMaxDimension = 480;
+
+    /**
+     * Longest side of a profile picture thumbnail, in pixels.
+     */
+    private int avatarMaxDimension = 256;
+
+    /**
+     * JPEG quality of renditions, from 0.0 to 1.0.
+     */
+    private float jpegQuality = 0.8f;
+
+    /**
+     * Resolution the first page of a PDF is rendered at before scaling.
+     */
+    private int pdfDpi = 72;
+
+    /**
+     * Largest source file a rendition is generated for, in megabytes.
+     */
+    private long maxSourceMb = 50;
+
+    /**
+     * max-age sent in the Cache-Control header of stored renditions, in seconds.
+     */
+    private long cacheMaxAgeSeconds = 31_536_000;
+}
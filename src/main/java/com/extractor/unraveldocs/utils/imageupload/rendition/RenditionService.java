@@ -0,0 +1,167 @@
+package com.extractor.unraveldocs.utils.imageupload.rendition;
+
+import com.extractor.unraveldocs.utils.imageupload.aws.AwsS3Service;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Creates and stores resized JPEG renditions of uploaded files.
+ * <p>
+ * A rendition's key is derived from a SHA-256 hash of its source and the target size,
+ * so the same source always maps to the same object. Stored renditions are therefore
+ * immutable and are served with a long Cache-Control lifetime, and an upload of a file
+ * that was seen before reuses the existing rendition.
+ * <p>
+ * Rendition failures never fail the upload that triggered them: callers get an empty
+ * result and the rendition can be generated lazily later.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RenditionService {
+    private static final String JPEG_CONTENT_TYPE = "image/jpeg";
+    private static final String PDF_CONTENT_TYPE = "application/pdf";
+
+    private final AwsS3Service awsS3Service;
+    private final ImageRenditionRenderer renderer;
+    private final RenditionProperties properties;
+
+    public boolean supports(String contentType) {
+        return properties.isEnabled() && renderer.supports(contentType);
+    }
+
+    /**
+     * Create a rendition of an uploaded file.
+     *
+     * @return URL of the stored rendition, or empty if none could be made
+     */
+    public Optional<String> createRendition(MultipartFile file, RenditionProfile profile) {
+        if (!supports(file.getContentType()) || exceedsSourceLimit(file.getSize())) {
+            return Optional.empty();
+        }
+        try {
+            return createRendition(file.getBytes(), file.getContentType(), profile);
+        } catch (IOException e) {
+            log.warn("Could not read {} for rendition: {}", file.getOriginalFilename(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Create a rendition of a file already in storage, for files uploaded before
+     * renditions existed or whose bytes never passed through the server.
+     *
+     * @return URL of the stored rendition, or empty if none could be made
+     */
+    public Optional<String> createRenditionFromStored(String sourceUrl, String contentType, long sourceSize,
+                                                      RenditionProfile profile) {
+        if (!supports(contentType) || exceedsSourceLimit(sourceSize)) {
+            return Optional.empty();
+        }
+        try {
+            return createRendition(awsS3Service.downloadFile(sourceUrl), contentType, profile);
+        } catch (RuntimeException e) {
+            log.warn("Could not download {} for rendition: {}", sourceUrl, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Create a rendition of the given bytes, or return the stored one if this source
+     * was rendered before.
+     *
+     * @return URL of the stored rendition, or empty if none could be made
+     */
+    public Optional<String> createRendition(byte[] source, String contentType, RenditionProfile profile) {
+        if (!supports(contentType)) {
+            return Optional.empty();
+        }
+        int maxDimension = maxDimension(profile);
+        return store(sha256(source), profile, () -> renderer.render(
+                source, contentType, maxDimension, properties.getJpegQuality(), properties.getPdfDpi()));
+    }
+
+    /**
+     * Create a rendition of the first page of a PDF the caller already has open, or return
+     * the stored one, so the PDF is not parsed again for it.
+     *
+     * @param sourceHash Hex SHA-256 of the PDF file, the same hash the byte-based
+     *                   method keys renditions by
+     * @param sourceSize Size of the PDF file in bytes
+     * @return URL of the stored rendition, or empty if none could be made
+     */
+    public Optional<String> createRendition(PDDocument document, String sourceHash, long sourceSize,
+                                            RenditionProfile profile) {
+        if (!supports(PDF_CONTENT_TYPE) || exceedsSourceLimit(sourceSize)) {
+            return Optional.empty();
+        }
+        int maxDimension = maxDimension(profile);
+        return store(sourceHash, profile, () -> renderer.render(
+                document, maxDimension, properties.getJpegQuality(), properties.getPdfDpi()));
+    }
+
+    private Optional<String> store(String sourceHash, RenditionProfile profile, Supplier<Optional<byte[]>> render) {
+        String key = profile.getFolder() + sourceHash + "-" + maxDimension(profile) + ".jpg";
+
+        try {
+            if (awsS3Service.headObject(key).isPresent()) {
+                return Optional.of(awsS3Service.getFileUrl(key));
+            }
+
+            Optional<byte[]> rendition = render.get();
+            if (rendition.isEmpty()) {
+                return Optional.empty();
+            }
+
+            String cacheControl = "public, max-age=" + properties.getCacheMaxAgeSeconds() + ", immutable";
+            return Optional.of(awsS3Service.uploadBytes(key, rendition.get(), JPEG_CONTENT_TYPE, cacheControl));
+        } catch (RuntimeException e) {
+            log.warn("Could not store {} rendition {}: {}", profile, key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Delete a stored rendition. Callers must make sure no other record still points at
+     * it, since identical sources share one rendition.
+     */
+    public void deleteRendition(String renditionUrl) {
+        if (renditionUrl == null || renditionUrl.isEmpty()) {
+            return;
+        }
+        try {
+            awsS3Service.deleteFile(renditionUrl);
+        } catch (RuntimeException e) {
+            log.error("Failed to delete rendition {}: {}", renditionUrl, e.getMessage());
+        }
+    }
+
+    private boolean exceedsSourceLimit(long size) {
+        return size > properties.getMaxSourceMb() * 1024 * 1024;
+    }
+
+    private int maxDimension(RenditionProfile profile) {
+        return switch (profile) {
+            case DOCUMENT_PREVIEW -> properties.getPreviewMaxDimension();
+            case AVATAR -> properties.getAvatarMaxDimension();
+        };
+    }
+
+    private static String sha256(byte[] source) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(source));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
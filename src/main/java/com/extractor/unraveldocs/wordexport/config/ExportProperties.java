@@ -0,0 +1,25 @@
+package com.extractor.unraveldocs.wordexport.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for OCR result exports.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.export")
+public class ExportProperties {
+
+    /**
+     * Number of OCR records loaded per batch while streaming a collection ZIP.
+     * Only one batch is held in memory at a time.
+     */
+    private int zipBatchSize = 10;
+
+    /**
+     * Maximum number of documents allowed in a single collection export.
+     */
+    private int maxDocumentsPerZip = 1000;
+}
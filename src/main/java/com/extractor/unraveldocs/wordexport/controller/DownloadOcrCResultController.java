@@ -2,12 +2,12 @@ package com.extractor.unraveldocs.wordexport.controller;
 
 import com.extractor.unraveldocs.security.CurrentUser;
 import com.extractor.unraveldocs.user.model.User;
+import com.extractor.unraveldocs.wordexport.datamodel.ExportFormat;
 import com.extractor.unraveldocs.wordexport.interfaces.DownloadOcrResultService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -17,38 +17,86 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
-@RequestMapping("/api/v1/collections/{collectionId}/documents/{documentId}/download")
+@RequestMapping("/api/v1/collections/{collectionId}")
 @RequiredArgsConstructor
 @PreAuthorize("isAuthenticated()")
-@Tag(name = "Download OCR Result", description = "Controller for downloading OCR results as DOCX files")
+@Tag(name = "Download OCR Result", description = "Controller for downloading OCR results as DOCX, TXT, PDF or ZIP files")
 public class DownloadOcrCResultController {
     private final DownloadOcrResultService downloadOcrResultService;
 
     /**
-     * Generates and streams a DOCX file containing the extracted text of a specific document.
+     * Streams a DOCX file containing the extracted text of a specific document.
      * The response headers are set to trigger a file download dialog in the browser.
      *
      * @param collectionId The ID of the document's collection.
      * @param documentId   The ID of the document whose OCR text is to be downloaded.
      * @param user         The currently authenticated user, injected by Spring Security.
-     * @return A {@link ResponseEntity} containing the {@link InputStreamResource} of the DOCX file.
+     * @return A {@link ResponseEntity} whose body renders the DOCX file into the response.
      */
-    @GetMapping(value = "/docx", produces = "application/vnd.openxmlformats-officedocument.wordprocessingml.document")
+    @GetMapping(value = "/documents/{documentId}/download/docx", produces = "application/vnd.openxmlformats-officedocument.wordprocessingml.document")
     @Operation(summary = "Download extracted Text as DOCX file",
                description = "Generates and downloads the OCR result of a document in DOCX format.")
-    public ResponseEntity<InputStreamResource> downloadOcrResultAsDocx(
+    public ResponseEntity<StreamingResponseBody> downloadOcrResultAsDocx(
             @Parameter(description = "ID of the document collection", required = true) @PathVariable String collectionId,
             @Parameter(description = "ID of the document to export text", required = true) @PathVariable String documentId,
             @Parameter(description = "Type of text to download (original or edited)", example = "original") @RequestParam(defaultValue = "original", required = false) String type,
             @Parameter(hidden = true) @CurrentUser User user
             ) {
-        DownloadOcrResultService.DownloadableFile downloadableFile = downloadOcrResultService
-                .downloadAsDocx(collectionId, documentId, type, user.getId());
+        return toResponse(downloadOcrResultService
+                .downloadDocument(collectionId, documentId, type, ExportFormat.DOCX, user.getId()));
+    }
+
+    /**
+     * Streams the extracted text of a specific document as a plain text or PDF file.
+     *
+     * @param collectionId The ID of the document's collection.
+     * @param documentId   The ID of the document whose OCR text is to be downloaded.
+     * @param format       The file format, either {@code txt} or {@code pdf}.
+     * @param user         The currently authenticated user, injected by Spring Security.
+     * @return A {@link ResponseEntity} whose body renders the file into the response.
+     */
+    @GetMapping("/documents/{documentId}/download/{format:txt|pdf}")
+    @Operation(summary = "Download extracted Text as TXT or PDF file",
+               description = "Generates and downloads the OCR result of a document in plain text or PDF format.")
+    public ResponseEntity<StreamingResponseBody> downloadOcrResult(
+            @Parameter(description = "ID of the document collection", required = true) @PathVariable String collectionId,
+            @Parameter(description = "ID of the document to export text", required = true) @PathVariable String documentId,
+            @Parameter(description = "File format (txt or pdf)", required = true) @PathVariable String format,
+            @Parameter(description = "Type of text to download (original or edited)", example = "original") @RequestParam(defaultValue = "original", required = false) String type,
+            @Parameter(hidden = true) @CurrentUser User user
+            ) {
+        return toResponse(downloadOcrResultService
+                .downloadDocument(collectionId, documentId, type, ExportFormat.fromValue(format), user.getId()));
+    }
+
+    /**
+     * Streams a ZIP archive containing the OCR results of every completed document in a collection.
+     * Entries are rendered and sent one by one, so the whole collection is exported in a single request.
+     *
+     * @param collectionId The ID of the collection to export.
+     * @param format       The file format for each entry (docx, txt or pdf).
+     * @param user         The currently authenticated user, injected by Spring Security.
+     * @return A {@link ResponseEntity} whose body writes the ZIP archive into the response.
+     */
+    @GetMapping(value = "/download/zip", produces = "application/zip")
+    @Operation(summary = "Download all extracted text in a collection as a ZIP archive",
+               description = "Streams a ZIP archive with one file per completed document in the requested format.")
+    public ResponseEntity<StreamingResponseBody> downloadCollectionAsZip(
+            @Parameter(description = "ID of the document collection", required = true) @PathVariable String collectionId,
+            @Parameter(description = "File format of each entry (docx, txt or pdf)", example = "docx") @RequestParam(defaultValue = "docx", required = false) String format,
+            @Parameter(description = "Type of text to download (original or edited)", example = "original") @RequestParam(defaultValue = "original", required = false) String type,
+            @Parameter(hidden = true) @CurrentUser User user
+            ) {
+        return toResponse(downloadOcrResultService
+                .downloadCollectionAsZip(collectionId, type, ExportFormat.fromValue(format), user.getId()));
+    }
 
+    private ResponseEntity<StreamingResponseBody> toResponse(DownloadOcrResultService.StreamingDownload download) {
         HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + downloadableFile.fileName() + "\"");
+        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + download.fileName() + "\"");
 
         headers.add(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate");
         headers.add(HttpHeaders.PRAGMA, "no-cache");
@@ -57,7 +105,7 @@ public class DownloadOcrCResultController {
         return ResponseEntity
                 .ok()
                 .headers(headers)
-                .contentType(MediaType.valueOf("application/vnd.openxmlformats-officedocument.wordprocessingml.document"))
-                .body(downloadableFile.resource());
+                .contentType(MediaType.parseMediaType(download.contentType()))
+                .body(download.body());
     }
 }
@@ -0,0 +1,28 @@
+package com.extractor.unraveldocs.wordexport.datamodel;
+
+import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import lombok.Getter;
+
+@Getter
+public enum ExportFormat {
+    DOCX("docx", "application/vnd.openxmlformats-officedocument.wordprocessingml.document"),
+    TXT("txt", "text/plain;charset=UTF-8"),
+    PDF("pdf", "application/pdf");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public static ExportFormat fromValue(String value) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new BadRequestException("Unsupported export format: " + value);
+    }
+}
@@ -0,0 +1,109 @@
+package com.extractor.unraveldocs.wordexport.impl;
+
+import com.extractor.unraveldocs.wordexport.datamodel.ExportFormat;
+import com.extractor.unraveldocs.wordexport.interfaces.DocumentExportService;
+import com.extractor.unraveldocs.wordexport.interfaces.DocxExportService;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Font;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfWriter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementation of {@link DocumentExportService}.
+ * Every format is written incrementally to the caller's stream instead of being
+ * buffered into a byte array first.
+ */
+@Service
+@RequiredArgsConstructor
+public class DocumentExportServiceImpl implements DocumentExportService {
+    private static final Set<String> BLOCK_TAGS = Set.of(
+            "p", "h1", "h2", "h3", "h4", "h5", "h6", "li", "div", "blockquote", "pre");
+    private static final Font BODY_FONT = new Font(Font.HELVETICA, 11, Font.NORMAL);
+
+    private final DocxExportService docxExportService;
+
+    @Override
+    public void write(ExportFormat format, String text, OutputStream outputStream) throws IOException {
+        switch (format) {
+            case DOCX -> docxExportService.writeDocx(text, outputStream);
+            case TXT -> writeText(text, outputStream);
+            case PDF -> writePdf(text, outputStream);
+        }
+    }
+
+    private void writeText(String text, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        for (String paragraph : toParagraphs(text)) {
+            writer.write(paragraph);
+            writer.write(System.lineSeparator());
+        }
+        writer.flush();
+    }
+
+    private void writePdf(String text, OutputStream outputStream) throws IOException {
+        Document document = new Document(PageSize.A4, 50, 50, 50, 50);
+        try {
+            // PdfWriter closes its target when the document closes; completed pages are flushed as we go
+            PdfWriter.getInstance(document, CloseShieldOutputStream.wrap(outputStream));
+            document.open();
+            for (String paragraph : toParagraphs(text)) {
+                document.add(new Paragraph(paragraph, BODY_FONT));
+            }
+        } catch (DocumentException e) {
+            throw new IOException("Failed to render PDF export", e);
+        } finally {
+            if (document.isOpen()) {
+                document.close();
+            }
+        }
+        outputStream.flush();
+    }
+
+    private List<String> toParagraphs(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        if (!isHtml(text)) {
+            return List.of(text.split("\\r?\\n"));
+        }
+
+        List<String> paragraphs = new ArrayList<>();
+        collectParagraphs(Jsoup.parseBodyFragment(text).body(), paragraphs);
+        return paragraphs;
+    }
+
+    private void collectParagraphs(Element parent, List<String> paragraphs) {
+        for (Element child : parent.children()) {
+            boolean hasBlockChildren = child.children().stream()
+                    .anyMatch(c -> BLOCK_TAGS.contains(c.tagName().toLowerCase()) || "ul".equals(c.tagName())
+                            || "ol".equals(c.tagName()));
+            if (hasBlockChildren) {
+                collectParagraphs(child, paragraphs);
+            } else {
+                String prefix = "li".equalsIgnoreCase(child.tagName()) ? "- " : "";
+                paragraphs.add(prefix + child.text());
+            }
+        }
+    }
+
+    private boolean isHtml(String text) {
+        return text.contains("<p>") || text.contains("<h3>") || text.contains("<ul>") || text.contains("<li>");
+    }
+}
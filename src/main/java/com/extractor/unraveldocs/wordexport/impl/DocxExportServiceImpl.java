@@ -1,6 +1,7 @@
 package com.extractor.unraveldocs.wordexport.impl;
 
 import com.extractor.unraveldocs.wordexport.interfaces.DocxExportService;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.apache.poi.xwpf.usermodel.*;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTInd;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPr;
@@ -14,13 +15,22 @@ import org.springframework.stereotype.Service;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 @Service
 public class DocxExportServiceImpl implements DocxExportService {
 
     @Override
     public ByteArrayInputStream generateDocxFromText(String text) throws IOException {
-        try (XWPFDocument document = new XWPFDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            writeDocx(text, out);
+            return new ByteArrayInputStream(out.toByteArray());
+        }
+    }
+
+    @Override
+    public void writeDocx(String text, OutputStream outputStream) throws IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
 
             if (isHtml(text)) {
                 parseHtmlToDocx(document, text);
@@ -33,8 +43,10 @@ public class DocxExportServiceImpl implements DocxExportService {
                 }
             }
 
-            document.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
+            // POI finishes its own zip container on write; shield the caller's stream from being closed
+            OutputStream shielded = CloseShieldOutputStream.wrap(outputStream);
+            document.write(shielded);
+            shielded.flush();
         }
     }
 
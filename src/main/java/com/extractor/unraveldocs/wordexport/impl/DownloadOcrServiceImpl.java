@@ -1,48 +1,69 @@
 package com.extractor.unraveldocs.wordexport.impl;
 
+import com.extractor.unraveldocs.documents.model.DocumentCollection;
 import com.extractor.unraveldocs.documents.model.FileEntry;
 import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
 import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import com.extractor.unraveldocs.exceptions.custom.ForbiddenException;
 import com.extractor.unraveldocs.exceptions.custom.NotFoundException;
 import com.extractor.unraveldocs.ocrprocessing.datamodel.OcrStatus;
 import com.extractor.unraveldocs.ocrprocessing.model.OcrData;
 import com.extractor.unraveldocs.ocrprocessing.repository.OcrDataRepository;
 import com.extractor.unraveldocs.ocrprocessing.utils.FindAndValidateFileEntry;
-import com.extractor.unraveldocs.wordexport.interfaces.DocxExportService;
+import com.extractor.unraveldocs.wordexport.config.ExportProperties;
+import com.extractor.unraveldocs.wordexport.datamodel.ExportFormat;
+import com.extractor.unraveldocs.wordexport.interfaces.DocumentExportService;
 import com.extractor.unraveldocs.wordexport.interfaces.DownloadOcrResultService;
 import lombok.RequiredArgsConstructor;
-import org.hibernate.service.spi.ServiceException;
-import org.springframework.core.io.InputStreamResource;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.IOException;
+import java.io.BufferedOutputStream;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /**
  * Implementation of {@link DownloadOcrResultService}.
  * This service orchestrates the validation, data retrieval, and file generation
- * required to download a document's OCR text as a DOCX file.
+ * required to download OCR text as DOCX, TXT or PDF files.
+ * <p>
+ * Access checks and status validation run eagerly inside the read-only transaction,
+ * while rendering is deferred to a {@code StreamingResponseBody} that writes straight
+ * to the servlet output stream. A slow client therefore throttles rendering instead of
+ * letting rendered bytes pile up on the heap.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class DownloadOcrServiceImpl implements DownloadOcrResultService {
+    private static final String ZIP_CONTENT_TYPE = "application/zip";
+
     private final DocumentCollectionRepository documentCollectionRepository;
     private final OcrDataRepository ocrDataRepository;
     private final FindAndValidateFileEntry validateFileEntry;
-    private final DocxExportService docxExportService;
+    private final DocumentExportService documentExportService;
+    private final ExportProperties exportProperties;
 
     /**
      * {@inheritDoc}
      * This implementation validates user access, checks OCR processing status,
-     * and then uses the {@link DocxExportService} to generate the file.
+     * and then uses the {@link DocumentExportService} to render the file into the response.
      *
      * @throws NotFoundException   if the document or its OCR data cannot be found.
      * @throws BadRequestException if OCR processing is not complete or if there is no text to export.
-     * @throws ServiceException    if an error occurs during DOCX file generation.
      */
     @Override
     @Transactional(readOnly = true)
-    public DownloadableFile downloadAsDocx(String collectionId, String documentId, String type, String userId) {
+    public StreamingDownload downloadDocument(String collectionId, String documentId, String type,
+                                              ExportFormat format, String userId) {
         FileEntry fileEntry = validateFileEntry
                 .findAndValidateFileEntry(collectionId, documentId, userId, documentCollectionRepository);
 
@@ -54,7 +75,7 @@ public class DownloadOcrServiceImpl implements DownloadOcrResultService {
         }
 
         String textToExport = ocrData.getExtractedText();
-        
+
         if ("edited".equalsIgnoreCase(type)) {
             if (ocrData.getEditedContent() == null || ocrData.getEditedContent().isBlank()) {
                 throw new BadRequestException("No edited text available for the document: " + documentId);
@@ -66,14 +87,123 @@ public class DownloadOcrServiceImpl implements DownloadOcrResultService {
             }
         }
 
-        try {
-            InputStreamResource resource = new InputStreamResource(docxExportService.generateDocxFromText(textToExport));
-            String originalFileName = fileEntry.getOriginalFileName();
-            String docxFileName = originalFileName.substring(0, originalFileName.lastIndexOf('.')) + ".docx";
+        String content = textToExport;
+        String fileName = replaceExtension(fileEntry.getOriginalFileName(), format);
+
+        return new StreamingDownload(fileName, format.getContentType(),
+                outputStream -> documentExportService.write(format, content, outputStream));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Documents whose OCR has not completed, or which have no text, are skipped.
+     * When edited text is requested, documents without edits fall back to the extracted text.
+     *
+     * @throws NotFoundException   if the collection cannot be found.
+     * @throws ForbiddenException  if the collection belongs to another user.
+     * @throws BadRequestException if the collection is empty or exceeds the export limit.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public StreamingDownload downloadCollectionAsZip(String collectionId, String type, ExportFormat format,
+                                                     String userId) {
+        DocumentCollection collection = documentCollectionRepository.findById(collectionId)
+                .orElseThrow(() -> new NotFoundException("Document collection not found with ID: " + collectionId));
+
+        if (!collection.getUser().getId().equals(userId)) {
+            throw new ForbiddenException("You are not authorized to access this document.");
+        }
+
+        // Copy the lightweight entry metadata now; the lazy collection is gone once streaming starts
+        Map<String, String> fileNamesByDocumentId = collection.getFiles().stream()
+                .collect(Collectors.toMap(FileEntry::getDocumentId, FileEntry::getOriginalFileName,
+                        (first, second) -> first, LinkedHashMap::new));
+
+        if (fileNamesByDocumentId.isEmpty()) {
+            throw new BadRequestException("Document collection has no documents to export: " + collectionId);
+        }
+        if (fileNamesByDocumentId.size() > exportProperties.getMaxDocumentsPerZip()) {
+            throw new BadRequestException("Collection exceeds the maximum of "
+                    + exportProperties.getMaxDocumentsPerZip() + " documents per export");
+        }
+
+        boolean useEdited = "edited".equalsIgnoreCase(type);
+        List<String> documentIds = List.copyOf(fileNamesByDocumentId.keySet());
+        String zipFileName = sanitizeFileName(collection.getName()) + ".zip";
+
+        return new StreamingDownload(zipFileName, ZIP_CONTENT_TYPE, outputStream -> {
+            int batchSize = Math.max(1, exportProperties.getZipBatchSize());
+            Set<String> usedNames = new HashSet<>();
+            int written = 0;
+
+            ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(outputStream));
+            for (int from = 0; from < documentIds.size(); from += batchSize) {
+                List<String> batch = documentIds.subList(from, Math.min(from + batchSize, documentIds.size()));
+                Map<String, OcrData> ocrDataByDocumentId = ocrDataRepository.findByDocumentIdIn(batch).stream()
+                        .collect(Collectors.toMap(OcrData::getDocumentId, Function.identity()));
+
+                for (String documentId : batch) {
+                    String text = resolveExportText(ocrDataByDocumentId.get(documentId), useEdited);
+                    if (text == null) {
+                        log.debug("Skipping document {} in export of collection {}", documentId, collectionId);
+                        continue;
+                    }
+
+                    String entryName = uniqueEntryName(
+                            replaceExtension(fileNamesByDocumentId.get(documentId), format), usedNames);
+                    zip.putNextEntry(new ZipEntry(entryName));
+                    documentExportService.write(format, text, zip);
+                    zip.closeEntry();
+                    written++;
+                }
+                // Push completed entries to the client before loading the next batch
+                zip.flush();
+            }
+            zip.finish();
+            zip.flush();
+
+            log.info("Exported {} of {} documents from collection {} as {}",
+                    written, documentIds.size(), collectionId, format);
+        });
+    }
+
+    private String resolveExportText(OcrData ocrData, boolean useEdited) {
+        if (ocrData == null || ocrData.getStatus() != OcrStatus.COMPLETED) {
+            return null;
+        }
+        if (useEdited && ocrData.getEditedContent() != null && !ocrData.getEditedContent().isBlank()) {
+            return ocrData.getEditedContent();
+        }
+        String extracted = ocrData.getExtractedText();
+        return extracted == null || extracted.isBlank() ? null : extracted;
+    }
+
+    private String replaceExtension(String originalFileName, ExportFormat format) {
+        int dot = originalFileName.lastIndexOf('.');
+        String baseName = dot > 0 ? originalFileName.substring(0, dot) : originalFileName;
+        return baseName + "." + format.getExtension();
+    }
+
+    private String uniqueEntryName(String fileName, Set<String> usedNames) {
+        String candidate = sanitizeFileName(fileName);
+        if (usedNames.add(candidate)) {
+            return candidate;
+        }
+
+        int dot = candidate.lastIndexOf('.');
+        String baseName = dot > 0 ? candidate.substring(0, dot) : candidate;
+        String extension = dot > 0 ? candidate.substring(dot) : "";
+        int counter = 2;
+        while (!usedNames.add(baseName + " (" + counter + ")" + extension)) {
+            counter++;
+        }
+        return baseName + " (" + counter + ")" + extension;
+    }
 
-            return new DownloadableFile(docxFileName, resource);
-        } catch (IOException e) {
-            throw new ServiceException("Error generating DOCX file for document: " + documentId, e);
+    private String sanitizeFileName(String fileName) {
+        if (fileName == null || fileName.isBlank()) {
+            return "export";
         }
+        return fileName.replaceAll("[\\\\/:*?\"<>|]", "_");
     }
 }
@@ -0,0 +1,23 @@
+package com.extractor.unraveldocs.wordexport.interfaces;
+
+import com.extractor.unraveldocs.wordexport.datamodel.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Service interface for rendering OCR text into a downloadable file format.
+ */
+public interface DocumentExportService {
+    /**
+     * Renders the text in the requested format straight into the given stream.
+     * The stream is flushed but never closed, so callers can write several
+     * documents into the same stream (e.g. ZIP entries).
+     *
+     * @param format       The target file format.
+     * @param text         The plain text or HTML content to render.
+     * @param outputStream The destination stream.
+     * @throws IOException if writing to the stream fails.
+     */
+    void write(ExportFormat format, String text, OutputStream outputStream) throws IOException;
+}
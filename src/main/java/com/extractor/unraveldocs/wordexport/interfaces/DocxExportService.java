@@ -2,7 +2,18 @@ package com.extractor.unraveldocs.wordexport.interfaces;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 public interface DocxExportService {
     ByteArrayInputStream generateDocxFromText(String text) throws IOException;
+
+    /**
+     * Renders the text as a DOCX document directly into the given stream.
+     * The stream is flushed but not closed.
+     *
+     * @param text         The plain text or HTML content to render.
+     * @param outputStream The destination stream.
+     * @throws IOException if writing to the stream fails.
+     */
+    void writeDocx(String text, OutputStream outputStream) throws IOException;
 }
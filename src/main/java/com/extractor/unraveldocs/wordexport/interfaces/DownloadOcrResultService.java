@@ -1,27 +1,45 @@
 package com.extractor.unraveldocs.wordexport.interfaces;
 
-import org.springframework.core.io.InputStreamResource;
+import com.extractor.unraveldocs.wordexport.datamodel.ExportFormat;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Service interface for preparing and providing OCR results for download.
  */
 public interface DownloadOcrResultService {
     /**
-     * A record to hold the file data for download.
+     * A record to hold a download that is rendered while it is being sent.
      *
-     * @param fileName The name of the file to be suggested to the client.
-     * @param resource The binary content of the file as a streamable resource.
+     * @param fileName    The name of the file to be suggested to the client.
+     * @param contentType The MIME type of the file.
+     * @param body        The callback that writes the file to the response stream.
      */
-    record DownloadableFile(String fileName, InputStreamResource resource) {}
+    record StreamingDownload(String fileName, String contentType, StreamingResponseBody body) {}
 
     /**
-     * Retrieves OCR data for a document, generates a DOCX file, and wraps it for download.
+     * Retrieves OCR data for a document and prepares it to be streamed in the requested format.
+     * Validation happens eagerly so errors surface before the response is committed.
      *
      * @param collectionId The ID of the document's collection.
      * @param documentId   The ID of the document to process.
      * @param type         The type of text to download (original or edited).
+     * @param format       The file format to render.
      * @param userId       The ID of the user requesting the download.
-     * @return A {@link DownloadableFile} record containing the file name and resource.
+     * @return A {@link StreamingDownload} that renders the file straight into the response.
      */
-    DownloadableFile downloadAsDocx(String collectionId, String documentId, String type, String userId);
+    StreamingDownload downloadDocument(String collectionId, String documentId, String type,
+                                       ExportFormat format, String userId);
+
+    /**
+     * Prepares a ZIP archive with the OCR results of every completed document in a collection.
+     * Entries are rendered one at a time while the archive is streamed, so only a small
+     * batch of OCR records is held in memory.
+     *
+     * @param collectionId The ID of the collection to export.
+     * @param type         The type of text to download (original or edited).
+     * @param format       The file format used for each entry in the archive.
+     * @param userId       The ID of the user requesting the download.
+     * @return A {@link StreamingDownload} that writes the ZIP archive into the response.
+     */
+    StreamingDownload downloadCollectionAsZip(String collectionId, String type, ExportFormat format, String userId);
 }
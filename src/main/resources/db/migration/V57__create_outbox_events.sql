@@ -0,0 +1,22 @@
+-- Transactional outbox: events are written in the business transaction and relayed to Kafka.
+-- Partitioned by day so published events are removed by dropping partitions, not by DELETE.
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id             BIGSERIAL                NOT NULL,
+    created_at     TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    message_id     VARCHAR(36)              NOT NULL,
+    topic          VARCHAR(255)             NOT NULL,
+    message_key    VARCHAR(255),
+    event_type     VARCHAR(100)             NOT NULL,
+    payload_type   VARCHAR(255)             NOT NULL,
+    payload        TEXT                     NOT NULL,
+    published_at   TIMESTAMP WITH TIME ZONE,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Catches rows outside the pre-created daily partitions (e.g. if maintenance has not run yet)
+CREATE TABLE IF NOT EXISTS outbox_events_default PARTITION OF outbox_events DEFAULT;
+
+-- The relay only ever scans unpublished rows in id order
+CREATE INDEX IF NOT EXISTS idx_outbox_events_unpublished
+    ON outbox_events (id)
+    WHERE published_at IS NULL;
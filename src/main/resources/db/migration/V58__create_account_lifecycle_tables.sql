@@ -0,0 +1,32 @@
+-- Checkpoints for the chunked account lifecycle jobs. One row per job; a run in
+-- progress resumes from last_key, and the lease keeps two nodes off the same job.
+CREATE TABLE IF NOT EXISTS account_lifecycle_checkpoints (
+    job_name          VARCHAR(100) PRIMARY KEY,
+    status            VARCHAR(20)              NOT NULL,
+    threshold         TIMESTAMP WITH TIME ZONE,
+    last_key          VARCHAR(36)              NOT NULL DEFAULT '',
+    processed         BIGINT                   NOT NULL DEFAULT 0,
+    failed            BIGINT                   NOT NULL DEFAULT 0,
+    started_at        TIMESTAMP WITH TIME ZONE,
+    finished_at       TIMESTAMP WITH TIME ZONE,
+    lease_owner       VARCHAR(100),
+    lease_expires_at  TIMESTAMP WITH TIME ZONE,
+    updated_at        TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+-- Completed purge steps per account, so a retried account skips work already done.
+-- Rows are removed together with the account.
+CREATE TABLE IF NOT EXISTS account_purge_steps (
+    user_id     VARCHAR(36)              NOT NULL,
+    step        VARCHAR(50)              NOT NULL,
+    status      VARCHAR(20)              NOT NULL,
+    attempts    INT                      NOT NULL DEFAULT 0,
+    last_error  TEXT,
+    updated_at  TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    PRIMARY KEY (user_id, step)
+);
+
+-- Keyset scan of accounts due for purge
+CREATE INDEX IF NOT EXISTS idx_users_scheduled_deletion
+    ON users (id)
+    WHERE deleted_at IS NOT NULL;
@@ -0,0 +1,38 @@
+-- Direct-to-storage upload sessions. The client uploads to presigned S3 URLs and the
+-- server turns the verified objects into a document collection on completion.
+CREATE TABLE IF NOT EXISTS upload_sessions (
+    id               VARCHAR(255) PRIMARY KEY,
+    user_id          VARCHAR(255)             NOT NULL,
+    collection_name  VARCHAR(255),
+    extract_text     BOOLEAN                  NOT NULL DEFAULT FALSE,
+    status           VARCHAR(20)              NOT NULL,
+    collection_id    VARCHAR(255),
+    expires_at       TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at       TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at       TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT fk_upload_session_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS upload_session_files (
+    upload_session_id    VARCHAR(255)  NOT NULL,
+    file_index           INT           NOT NULL,
+    document_id          VARCHAR(255)  NOT NULL,
+    original_file_name   VARCHAR(255)  NOT NULL,
+    storage_key          VARCHAR(1024) NOT NULL,
+    content_type         VARCHAR(255)  NOT NULL,
+    declared_size        BIGINT        NOT NULL,
+    multipart_upload_id  VARCHAR(1024),
+    part_count           INT           NOT NULL DEFAULT 1,
+    status               VARCHAR(20)   NOT NULL,
+    error_message        TEXT,
+    PRIMARY KEY (upload_session_id, file_index),
+    CONSTRAINT fk_upload_session_file_session FOREIGN KEY (upload_session_id)
+        REFERENCES upload_sessions(id) ON DELETE CASCADE
+);
+
+-- Sweeper scan of sessions still waiting for uploads
+CREATE INDEX IF NOT EXISTS idx_upload_sessions_open
+    ON upload_sessions (created_at)
+    WHERE status = 'OPEN';
+
+CREATE INDEX IF NOT EXISTS idx_upload_sessions_user_id ON upload_sessions (user_id);
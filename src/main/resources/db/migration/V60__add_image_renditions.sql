@@ -0,0 +1,11 @@
+-- Derived JPEG renditions: a preview for each document and a thumbnail for each
+-- profile picture. Renditions are keyed by a hash of their source, so identical
+-- sources share one stored object; the indexes back the reference checks made
+-- before a rendition is deleted.
+ALTER TABLE document_file_entries ADD COLUMN IF NOT EXISTS preview_url VARCHAR(1024);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS image_thumbnail_url VARCHAR(1024);
+
+CREATE INDEX IF NOT EXISTS idx_document_file_entries_preview_url
+    ON document_file_entries (preview_url) WHERE preview_url IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_users_image_thumbnail_url
+    ON users (image_thumbnail_url) WHERE image_thumbnail_url IS NOT NULL;
@@ -0,0 +1,40 @@
+-- Team entitlement stamp. Every team-wide entitlement change bumps the team's version
+-- and stamps the member subscriptions it rewrites with the same value, so a reader can
+-- tell from one row whether a member's entitlement is current.
+ALTER TABLE teams
+    ADD COLUMN IF NOT EXISTS entitlement_version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE user_subscriptions
+    ADD COLUMN IF NOT EXISTS team_id VARCHAR(36);
+
+ALTER TABLE user_subscriptions
+    ADD COLUMN IF NOT EXISTS team_entitlement_version BIGINT;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1
+        FROM pg_constraint
+        WHERE conname = 'fk_user_subscriptions_team'
+    ) THEN
+        ALTER TABLE user_subscriptions
+            ADD CONSTRAINT fk_user_subscriptions_team
+            FOREIGN KEY (team_id) REFERENCES teams(id) ON DELETE SET NULL;
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_user_subscriptions_team_id
+    ON user_subscriptions (team_id) WHERE team_id IS NOT NULL;
+
+-- Link existing team-managed subscriptions to the team the member joined first
+UPDATE user_subscriptions us
+SET team_id = first_team.team_id,
+    team_entitlement_version = 0
+FROM (
+    SELECT DISTINCT ON (user_id) user_id, team_id
+    FROM team_members
+    ORDER BY user_id, joined_at
+) first_team
+WHERE first_team.user_id = us.user_id
+  AND us.subscription_source = 'TEAM'
+  AND us.team_id IS NULL;
@@ -0,0 +1,38 @@
+-- Scheduled jobs shared across the cluster. One row per job holds its current run;
+-- the run's key space is split into chunks that nodes claim under a lease.
+CREATE TABLE IF NOT EXISTS cluster_job_runs (
+    job_name       VARCHAR(100) PRIMARY KEY,
+    run_id         BIGINT NOT NULL DEFAULT 0,
+    status         VARCHAR(20) NOT NULL DEFAULT 'COMPLETED',
+    started_by     VARCHAR(64),
+    started_at     TIMESTAMP WITH TIME ZONE,
+    finished_at    TIMESTAMP WITH TIME ZONE,
+    chunks_planned INTEGER NOT NULL DEFAULT 0,
+    processed      BIGINT NOT NULL DEFAULT 0,
+    failed         BIGINT NOT NULL DEFAULT 0,
+    updated_at     TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+CREATE TABLE IF NOT EXISTS cluster_job_chunks (
+    job_name         VARCHAR(100) NOT NULL,
+    run_id           BIGINT NOT NULL,
+    chunk_no         INTEGER NOT NULL,
+    after_key        VARCHAR(255),
+    up_to_key        VARCHAR(255),
+    status           VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    lease_owner      VARCHAR(64),
+    lease_expires_at TIMESTAMP WITH TIME ZONE,
+    attempts         INTEGER NOT NULL DEFAULT 0,
+    processed        BIGINT NOT NULL DEFAULT 0,
+    failed           BIGINT NOT NULL DEFAULT 0,
+    last_error       TEXT,
+    finished_at      TIMESTAMP WITH TIME ZONE,
+    PRIMARY KEY (job_name, run_id, chunk_no),
+    CONSTRAINT fk_cluster_job_chunks_job FOREIGN KEY (job_name)
+        REFERENCES cluster_job_runs (job_name) ON DELETE CASCADE
+);
+
+-- Claims scan the open chunks of one run
+CREATE INDEX IF NOT EXISTS idx_cluster_job_chunks_open
+    ON cluster_job_chunks (job_name, run_id, chunk_no)
+    WHERE status IN ('PENDING', 'RUNNING');
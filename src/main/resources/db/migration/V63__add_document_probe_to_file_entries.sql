@@ -0,0 +1,6 @@
+-- What the upload probe found about each file, read by credit checks, OCR routing and
+-- page fan-out instead of parsing the file again. Null for files uploaded before the
+-- probe existed and for files uploaded straight to storage.
+ALTER TABLE document_file_entries ADD COLUMN IF NOT EXISTS page_count INTEGER;
+ALTER TABLE document_file_entries ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+ALTER TABLE document_file_entries ADD COLUMN IF NOT EXISTS probe JSONB;
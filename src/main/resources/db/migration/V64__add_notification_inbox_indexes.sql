@@ -0,0 +1,11 @@
+-- Inbox pages and unread counts filter by user and read state and order by recency.
+-- The single-column indexes forced a scan of all of a user's rows for each of them.
+CREATE INDEX IF NOT EXISTS idx_notifications_user_created
+    ON notifications (user_id, created_at DESC);
+
+CREATE INDEX IF NOT EXISTS idx_notifications_user_unread_created
+    ON notifications (user_id, created_at DESC)
+    WHERE is_read = FALSE;
+
+-- Superseded by the composite indexes above
+DROP INDEX IF EXISTS idx_notifications_user_id;
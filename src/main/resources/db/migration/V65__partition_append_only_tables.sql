@@ -0,0 +1,146 @@
+-- Notifications, credit transactions and coupon usages are only ever appended to and
+-- trimmed by age. Range-partitioning them by month lets retention drop whole partitions
+-- instead of deleting rows, and lets time-bounded queries skip months they cannot match.
+--
+-- A primary key on a partitioned table must include the partition column, so the keys
+-- become (id, <timestamp>). Ids are still UUIDs generated by the application.
+-- Each table keeps a DEFAULT partition so an insert never fails for want of a month;
+-- the partition maintenance job creates months ahead so it stays empty.
+
+-- Create the monthly partitions of p_parent for every UTC month from p_from through p_to
+-- that does not have one yet, named <parent>_pYYYYMM. Returns the number created.
+CREATE OR REPLACE FUNCTION create_monthly_partitions(p_parent TEXT, p_from TIMESTAMPTZ, p_to TIMESTAMPTZ)
+RETURNS INTEGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_month   TIMESTAMP := date_trunc('month', p_from AT TIME ZONE 'UTC');
+    v_last    TIMESTAMP := date_trunc('month', p_to AT TIME ZONE 'UTC');
+    v_name    TEXT;
+    v_created INTEGER := 0;
+BEGIN
+    WHILE v_month <= v_last LOOP
+        v_name := p_parent || '_p' || to_char(v_month, 'YYYYMM');
+        IF to_regclass(v_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                           v_name, p_parent,
+                           v_month AT TIME ZONE 'UTC',
+                           (v_month + INTERVAL '1 month') AT TIME ZONE 'UTC');
+            v_created := v_created + 1;
+        END IF;
+        v_month := v_month + INTERVAL '1 month';
+    END LOOP;
+    RETURN v_created;
+END;
+$$;
+
+-- ==================== notifications ====================
+
+ALTER TABLE notifications RENAME TO notifications_unpartitioned;
+ALTER TABLE notifications_unpartitioned RENAME CONSTRAINT notifications_pkey TO notifications_unpartitioned_pkey;
+
+CREATE TABLE notifications (
+    id VARCHAR(36) NOT NULL,
+    user_id VARCHAR(36) NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    type VARCHAR(50) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    message TEXT NOT NULL,
+    data JSONB,
+    is_read BOOLEAN DEFAULT FALSE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    read_at TIMESTAMP WITH TIME ZONE,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+SELECT create_monthly_partitions('notifications',
+       COALESCE((SELECT min(created_at) FROM notifications_unpartitioned), now()),
+       now() + INTERVAL '3 months');
+CREATE TABLE notifications_default PARTITION OF notifications DEFAULT;
+
+INSERT INTO notifications (id, user_id, type, title, message, data, is_read, created_at, read_at)
+SELECT id, user_id, type, title, message, data, is_read, COALESCE(created_at, now()), read_at
+FROM notifications_unpartitioned;
+
+DROP TABLE notifications_unpartitioned;
+
+-- Indexes are built after the copy; created on the parent, they cascade to every partition
+CREATE INDEX idx_notifications_user_created ON notifications (user_id, created_at DESC);
+CREATE INDEX idx_notifications_user_unread_created ON notifications (user_id, created_at DESC)
+    WHERE is_read = FALSE;
+CREATE INDEX idx_notifications_is_read ON notifications (is_read);
+CREATE INDEX idx_notifications_created_at ON notifications (created_at);
+CREATE INDEX idx_notifications_type ON notifications (type);
+
+-- ==================== credit_transactions ====================
+
+ALTER TABLE credit_transactions RENAME TO credit_transactions_unpartitioned;
+ALTER TABLE credit_transactions_unpartitioned RENAME CONSTRAINT credit_transactions_pkey TO credit_transactions_unpartitioned_pkey;
+
+CREATE TABLE credit_transactions (
+    id VARCHAR(255) NOT NULL DEFAULT gen_random_uuid()::VARCHAR,
+    user_id VARCHAR(255) NOT NULL,
+    type VARCHAR(30) NOT NULL,
+    amount INTEGER NOT NULL,
+    balance_after INTEGER NOT NULL,
+    description VARCHAR(500),
+    reference_id VARCHAR(255),
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    sender_id VARCHAR(255),
+    PRIMARY KEY (id, created_at),
+    CONSTRAINT fk_credit_transaction_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_credit_transaction_sender FOREIGN KEY (sender_id) REFERENCES users(id) ON DELETE SET NULL
+) PARTITION BY RANGE (created_at);
+
+SELECT create_monthly_partitions('credit_transactions',
+       COALESCE((SELECT min(created_at) FROM credit_transactions_unpartitioned), now()),
+       now() + INTERVAL '3 months');
+CREATE TABLE credit_transactions_default PARTITION OF credit_transactions DEFAULT;
+
+INSERT INTO credit_transactions (id, user_id, type, amount, balance_after, description, reference_id, created_at, sender_id)
+SELECT id, user_id, type, amount, balance_after, description, reference_id, created_at, sender_id
+FROM credit_transactions_unpartitioned;
+
+DROP TABLE credit_transactions_unpartitioned;
+
+CREATE INDEX idx_credit_transactions_user_created ON credit_transactions (user_id, created_at DESC);
+CREATE INDEX idx_credit_transactions_created_at ON credit_transactions (created_at DESC);
+CREATE INDEX idx_credit_transactions_type ON credit_transactions (type);
+CREATE INDEX idx_credit_transactions_sender ON credit_transactions (sender_id);
+
+-- ==================== coupon_usage ====================
+
+ALTER TABLE coupon_usage RENAME TO coupon_usage_unpartitioned;
+ALTER TABLE coupon_usage_unpartitioned RENAME CONSTRAINT coupon_usage_pkey TO coupon_usage_unpartitioned_pkey;
+
+CREATE TABLE coupon_usage (
+    id VARCHAR(255) NOT NULL,
+    coupon_id VARCHAR(255) NOT NULL,
+    user_id VARCHAR(255) NOT NULL,
+    original_amount DECIMAL(10,2) NOT NULL,
+    discount_amount DECIMAL(10,2) NOT NULL,
+    final_amount DECIMAL(10,2) NOT NULL,
+    payment_reference VARCHAR(255),
+    subscription_plan VARCHAR(100),
+    used_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, used_at),
+    CONSTRAINT fk_coupon_usage_coupon FOREIGN KEY (coupon_id) REFERENCES coupons(id),
+    CONSTRAINT fk_coupon_usage_user FOREIGN KEY (user_id) REFERENCES users(id)
+) PARTITION BY RANGE (used_at);
+
+SELECT create_monthly_partitions('coupon_usage',
+       COALESCE((SELECT min(used_at) FROM coupon_usage_unpartitioned), now()),
+       now() + INTERVAL '3 months');
+CREATE TABLE coupon_usage_default PARTITION OF coupon_usage DEFAULT;
+
+INSERT INTO coupon_usage (id, coupon_id, user_id, original_amount, discount_amount, final_amount,
+                          payment_reference, subscription_plan, used_at)
+SELECT id, coupon_id, user_id, original_amount, discount_amount, final_amount,
+       payment_reference, subscription_plan, used_at
+FROM coupon_usage_unpartitioned;
+
+DROP TABLE coupon_usage_unpartitioned;
+
+CREATE INDEX idx_coupon_usage_coupon_id ON coupon_usage (coupon_id);
+CREATE INDEX idx_coupon_usage_user_id ON coupon_usage (user_id);
+CREATE INDEX idx_coupon_usage_payment_ref ON coupon_usage (payment_reference);
+CREATE INDEX idx_coupon_usage_used_at ON coupon_usage (used_at);
+CREATE INDEX idx_coupon_usage_coupon_user ON coupon_usage (coupon_id, user_id);
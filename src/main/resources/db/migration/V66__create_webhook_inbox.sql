@@ -0,0 +1,33 @@
+-- Payment webhook inbox: provider events are stored as received and acknowledged at once,
+-- then processed by workers. One row per provider event; a redelivery hits the unique key.
+CREATE TABLE IF NOT EXISTS webhook_inbox (
+    id              BIGSERIAL PRIMARY KEY,
+    provider        VARCHAR(20)              NOT NULL,
+    event_id        VARCHAR(255)             NOT NULL,
+    event_type      VARCHAR(255)             NOT NULL,
+    partition_key   VARCHAR(255)             NOT NULL,
+    payload         TEXT                     NOT NULL,
+    status          VARCHAR(20)              NOT NULL DEFAULT 'PENDING',
+    attempts        INTEGER                  NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    locked_until    TIMESTAMP WITH TIME ZONE,
+    last_error      TEXT,
+    received_at     TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    processed_at    TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT uk_webhook_inbox_event UNIQUE (provider, event_id),
+    CONSTRAINT chk_webhook_inbox_status CHECK (status IN ('PENDING', 'PROCESSING', 'PROCESSED', 'DEAD'))
+);
+
+-- Workers look for the oldest open event of each customer
+CREATE INDEX IF NOT EXISTS idx_webhook_inbox_open
+    ON webhook_inbox (provider, partition_key, id)
+    WHERE status IN ('PENDING', 'PROCESSING');
+
+-- Cleanup removes processed events by age
+CREATE INDEX IF NOT EXISTS idx_webhook_inbox_processed
+    ON webhook_inbox (processed_at)
+    WHERE status = 'PROCESSED';
+
+CREATE INDEX IF NOT EXISTS idx_webhook_inbox_dead
+    ON webhook_inbox (received_at)
+    WHERE status = 'DEAD';
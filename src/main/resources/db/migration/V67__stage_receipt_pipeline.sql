@@ -0,0 +1,32 @@
+-- Receipt numbers come from a sequence shared by every instance
+CREATE SEQUENCE IF NOT EXISTS receipt_number_seq;
+
+-- Receipts move through RENDER -> STORE -> DELIVER -> DONE, one worker pool per stage.
+-- Existing receipts were produced in one go and are complete.
+ALTER TABLE receipts
+    ADD COLUMN stage           VARCHAR(20)              NOT NULL DEFAULT 'DONE',
+    ADD COLUMN attempts        INTEGER                  NOT NULL DEFAULT 0,
+    ADD COLUMN next_attempt_at TIMESTAMP WITH TIME ZONE,
+    ADD COLUMN locked_until    TIMESTAMP WITH TIME ZONE,
+    ADD COLUMN last_error      TEXT,
+    ADD COLUMN customer_name   VARCHAR(255),
+    ADD COLUMN customer_email  VARCHAR(255),
+    ADD CONSTRAINT chk_receipts_stage CHECK (stage IN ('RENDER', 'STORE', 'DELIVER', 'DONE'));
+
+ALTER TABLE receipts ALTER COLUMN stage SET DEFAULT 'RENDER';
+
+-- Stage workers claim due receipts of their stage; parked receipts have no next attempt
+CREATE INDEX IF NOT EXISTS idx_receipts_stage_due
+    ON receipts (stage, next_attempt_at)
+    WHERE stage <> 'DONE';
+
+-- Rendered PDFs wait here for upload and email, and are removed once delivered
+CREATE TABLE IF NOT EXISTS receipt_documents (
+    receipt_id  VARCHAR(36)              PRIMARY KEY,
+    content     BYTEA                    NOT NULL,
+    created_at  TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    CONSTRAINT fk_receipt_documents_receipt
+        FOREIGN KEY (receipt_id)
+        REFERENCES receipts(id)
+        ON DELETE CASCADE
+);
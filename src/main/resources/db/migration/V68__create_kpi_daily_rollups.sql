@@ -0,0 +1,17 @@
+-- Dashboard KPIs: per-day totals of domain events, added to as events happen and
+-- recomputed for recent days by the kpi-reconcile job.
+-- Days are UTC dates; dimension is '' for metrics without one (e.g. the currency of a payment).
+CREATE TABLE IF NOT EXISTS kpi_daily_rollups (
+    metric     VARCHAR(50)              NOT NULL,
+    day        DATE                     NOT NULL,
+    dimension  VARCHAR(100)             NOT NULL DEFAULT '',
+    value      BIGINT                   NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    PRIMARY KEY (metric, day, dimension)
+);
+
+-- Reconciliation recounts recent days from the source tables
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at);
+CREATE INDEX IF NOT EXISTS idx_users_last_login ON users (last_login) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_document_file_entries_created_at ON document_file_entries (created_at);
+CREATE INDEX IF NOT EXISTS idx_ocr_data_created_at ON ocr_data (created_at);
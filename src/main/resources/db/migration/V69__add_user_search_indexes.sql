@@ -0,0 +1,22 @@
+-- Admin user search: trigram indexes let substring searches (LIKE '%term%') on the
+-- lowered names and email use an index instead of scanning every user.
+-- pg_trgm is a trusted extension, so the database owner can create it.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_first_name_trgm
+    ON users USING gin (lower(first_name) gin_trgm_ops) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_users_last_name_trgm
+    ON users USING gin (lower(last_name) gin_trgm_ops) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm
+    ON users USING gin (lower(email) gin_trgm_ops) WHERE deleted_at IS NULL;
+
+-- Keyset pagination: one index per sortable column, with the id as tie-breaker, so
+-- every page is an index range scan from the last row of the previous page.
+CREATE INDEX IF NOT EXISTS idx_users_keyset_created_at ON users (created_at, id) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_users_keyset_last_login ON users (last_login, id) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_users_keyset_email ON users (email, id) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_users_keyset_first_name ON users (first_name, id) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_users_keyset_last_name ON users (last_name, id) WHERE deleted_at IS NULL;
+
+-- Covered by idx_users_keyset_last_login
+DROP INDEX IF EXISTS idx_users_last_login;
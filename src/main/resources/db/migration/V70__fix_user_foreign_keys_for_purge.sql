@@ -0,0 +1,58 @@
+-- Account purge deletes users rows and relies on the foreign keys to clear what hangs
+-- off them. These constraints had no ON DELETE action, so purging a user who owned a
+-- team or organization, belonged to a team, redeemed a coupon or created one failed.
+
+-- ==================== Owned by the user: removed with the account ====================
+
+-- Teams and organizations are billed to their creator; their members and invitations
+-- already cascade from them.
+ALTER TABLE teams DROP CONSTRAINT fk_teams_created_by;
+ALTER TABLE teams
+    ADD CONSTRAINT fk_teams_created_by
+        FOREIGN KEY (created_by_id) REFERENCES users(id) ON DELETE CASCADE;
+
+ALTER TABLE organizations DROP CONSTRAINT fk_organizations_created_by;
+ALTER TABLE organizations
+    ADD CONSTRAINT fk_organizations_created_by
+        FOREIGN KEY (created_by_id) REFERENCES users(id) ON DELETE CASCADE;
+
+ALTER TABLE team_members DROP CONSTRAINT fk_team_members_user;
+ALTER TABLE team_members
+    ADD CONSTRAINT fk_team_members_user
+        FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
+
+ALTER TABLE team_otp_verifications DROP CONSTRAINT fk_team_otp_user;
+ALTER TABLE team_otp_verifications
+    ADD CONSTRAINT fk_team_otp_user
+        FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
+
+-- Partitioned: the constraint on the parent applies to every partition.
+ALTER TABLE coupon_usage DROP CONSTRAINT fk_coupon_usage_user;
+ALTER TABLE coupon_usage
+    ADD CONSTRAINT fk_coupon_usage_user
+        FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
+
+-- ==================== Shared records: kept, reference cleared ====================
+
+ALTER TABLE organization_members DROP CONSTRAINT fk_org_members_invited_by;
+ALTER TABLE organization_members
+    ADD CONSTRAINT fk_org_members_invited_by
+        FOREIGN KEY (invited_by_id) REFERENCES users(id) ON DELETE SET NULL;
+
+ALTER TABLE team_members DROP CONSTRAINT fk_team_members_invited_by;
+ALTER TABLE team_members
+    ADD CONSTRAINT fk_team_members_invited_by
+        FOREIGN KEY (invited_by_id) REFERENCES users(id) ON DELETE SET NULL;
+
+-- Coupons outlive the admin who created them.
+ALTER TABLE coupon_templates ALTER COLUMN created_by DROP NOT NULL;
+ALTER TABLE coupon_templates DROP CONSTRAINT fk_template_created_by;
+ALTER TABLE coupon_templates
+    ADD CONSTRAINT fk_template_created_by
+        FOREIGN KEY (created_by) REFERENCES users(id) ON DELETE SET NULL;
+
+ALTER TABLE coupons ALTER COLUMN created_by DROP NOT NULL;
+ALTER TABLE coupons DROP CONSTRAINT fk_coupon_created_by;
+ALTER TABLE coupons
+    ADD CONSTRAINT fk_coupon_created_by
+        FOREIGN KEY (created_by) REFERENCES users(id) ON DELETE SET NULL;
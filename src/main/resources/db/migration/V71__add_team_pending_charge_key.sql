@@ -0,0 +1,5 @@
+-- Idempotency key of a team charge sent to the payment gateway but not yet recorded.
+-- Committed before the gateway call, so a retried charge job reuses it instead of
+-- charging the team again.
+ALTER TABLE teams
+    ADD COLUMN IF NOT EXISTS pending_charge_key VARCHAR(100);
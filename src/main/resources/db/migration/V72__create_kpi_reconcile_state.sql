@@ -0,0 +1,12 @@
+-- Watermark of the last KPI recount. The recount counts source rows created before it,
+-- so rollup increments of events recorded at or before it, on the days it recounted,
+-- are already in the recounted rows and are dropped when a node flushes them.
+-- One row; flushes read it FOR SHARE and the recount updates it first, so a flush never
+-- interleaves with a recount.
+CREATE TABLE IF NOT EXISTS kpi_reconcile_state (
+    id             SMALLINT PRIMARY KEY DEFAULT 1 CHECK (id = 1),
+    recounted_from DATE,
+    watermark      TIMESTAMP WITH TIME ZONE
+);
+
+INSERT INTO kpi_reconcile_state (id) VALUES (1) ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,21 @@
+-- The KPI recount attributes events to the same day as the live increments.
+
+-- OCR runs are counted on the day they finished. Runs finished before this column
+-- existed keep the day they were counted on, their start.
+ALTER TABLE ocr_data ADD COLUMN IF NOT EXISTS completed_at TIMESTAMP WITH TIME ZONE;
+
+UPDATE ocr_data
+SET completed_at = created_at
+WHERE completed_at IS NULL AND status IN ('COMPLETED', 'FAILED');
+
+CREATE INDEX IF NOT EXISTS idx_ocr_data_completed_at ON ocr_data (completed_at);
+
+-- Sign-up times of purged accounts, so a recount still counts their sign-up.
+-- Written in the statement that deletes the account; rows older than any recounted
+-- day are pruned by the recount.
+CREATE TABLE IF NOT EXISTS purged_user_signups (
+    user_id    VARCHAR(36) PRIMARY KEY,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_purged_user_signups_created_at ON purged_user_signups (created_at);
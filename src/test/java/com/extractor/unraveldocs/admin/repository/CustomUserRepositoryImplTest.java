@@ -0,0 +1,154 @@
+package com.extractor.unraveldocs.admin.repository;
+
+import com.extractor.unraveldocs.admin.dto.request.UserFilterDto;
+import com.extractor.unraveldocs.admin.dto.response.UserSummary;
+import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserRepositoryImplTest {
+
+    private static final OffsetDateTime CREATED = OffsetDateTime.of(2026, 10, 1, 12, 0, 0, 123_456_000, ZoneOffset.UTC);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private CustomUserRepositoryImpl repository;
+    private UserFilterDto filter;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CustomUserRepositoryImpl(jdbcTemplate, objectMapper);
+        filter = new UserFilterDto();
+        filter.setSize(2);
+    }
+
+    @Test
+    void searchUsers_LastPage_TotalKnownWithoutCounting() {
+        returnRows(1);
+
+        UserSearchPage page = repository.searchUsers(filter);
+
+        assertEquals(1, page.users().size());
+        assertEquals(1, page.total());
+        assertTrue(page.totalExact());
+        assertNull(page.nextCursor());
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class), any(Object[].class));
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), any(Object[].class));
+    }
+
+    @Test
+    void searchUsers_MorePages_UsesPlannerEstimateAndReturnsCursor() {
+        returnRows(3);
+        when(jdbcTemplate.queryForList(startsWith("EXPLAIN "), eq(String.class), any(Object[].class)))
+                .thenReturn(List.of("Seq Scan on users u  (cost=0.00..21.00 rows=5000 width=4)"));
+
+        UserSearchPage page = repository.searchUsers(filter);
+
+        assertEquals(2, page.users().size());
+        assertEquals(5000, page.total());
+        assertFalse(page.totalExact());
+        UserSearchCursor cursor = UserSearchCursor.decode(page.nextCursor(), objectMapper);
+        assertEquals(new UserSearchCursor("createdAt", false, CREATED.plusSeconds(1).toString(), "u1", 1), cursor);
+    }
+
+    @Test
+    void searchUsers_ExactCountRequested_Counts() {
+        filter.setExactCount(true);
+        returnRows(3);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT count(*)"), eq(Long.class), any(Object[].class)))
+                .thenReturn(42L);
+
+        UserSearchPage page = repository.searchUsers(filter);
+
+        assertEquals(42, page.total());
+        assertTrue(page.totalExact());
+    }
+
+    @Test
+    void searchUsers_WithCursor_ReadsAfterLastRowInsteadOfOffset() {
+        filter.setCursor(new UserSearchCursor("createdAt", false, CREATED.toString(), "u9", 4).encode(objectMapper));
+        filter.setPage(0);
+        returnRows(1);
+
+        UserSearchPage page = repository.searchUsers(filter);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), args.capture());
+        assertTrue(sql.getValue().contains("(u.created_at, u.id) > (?, ?)"));
+        assertTrue(sql.getValue().contains("ORDER BY u.created_at ASC, u.id ASC"));
+        assertFalse(sql.getValue().contains("OFFSET"));
+        assertArrayEquals(new Object[]{CREATED, "u9", 3}, args.getValue());
+        assertEquals(4, page.page());
+        assertEquals(9, page.total());
+    }
+
+    @Test
+    void searchUsers_Search_EscapesLikeWildcards() {
+        filter.setSearch("jo_hn");
+        returnRows(0);
+
+        repository.searchUsers(filter);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), args.capture());
+        assertTrue(sql.getValue().contains("lower(u.email) LIKE ?"));
+        assertEquals("%jo\\_hn%", args.getValue()[0]);
+    }
+
+    @Test
+    void searchUsers_CursorForOtherSort_Rejected() {
+        filter.setCursor(new UserSearchCursor("email", false, "a@b.c", "u1", 1).encode(objectMapper));
+
+        assertThrows(BadRequestException.class, () -> repository.searchUsers(filter));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void searchUsers_RunsInOneReadOnlySnapshot() throws NoSuchMethodException {
+        Transactional transactional = CustomUserRepositoryImpl.class
+                .getMethod("searchUsers", UserFilterDto.class)
+                .getAnnotation(Transactional.class);
+
+        assertNotNull(transactional);
+        assertTrue(transactional.readOnly());
+        assertEquals(Isolation.REPEATABLE_READ, transactional.isolation());
+    }
+
+    private void returnRows(int count) {
+        List<UserSummary> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UserSummary user = new UserSummary();
+            user.setId("u" + i);
+            user.setCreatedAt(CREATED.plusSeconds(i));
+            rows.add(user);
+        }
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(rows);
+    }
+}
@@ -1,7 +1,8 @@
 package com.extractor.unraveldocs.admin.service.impl;
 
 import com.extractor.unraveldocs.admin.dto.response.DocumentStatsDto;
-import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
+import com.extractor.unraveldocs.metrics.kpi.model.KpiTotals;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiQueryService;
 import com.extractor.unraveldocs.shared.response.ResponseBuilderService;
 import com.extractor.unraveldocs.shared.response.UnravelDocsResponse;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,8 +13,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -26,7 +26,7 @@ import static org.mockito.Mockito.when;
 class AdminDocumentStatsServiceImplTest {
 
     @Mock
-    private DocumentCollectionRepository documentCollectionRepository;
+    private KpiQueryService kpiQueryService;
 
     @Mock
     private ResponseBuilderService responseBuilderService;
@@ -41,20 +41,16 @@ class AdminDocumentStatsServiceImplTest {
     @Test
     void getDocumentStats_Success() {
         // Arrange
-        when(documentCollectionRepository.count()).thenReturn(100L);
-        when(documentCollectionRepository.countTotalFiles()).thenReturn(500L);
-        when(documentCollectionRepository.sumTotalStorageBytes()).thenReturn(1024000L);
-        when(documentCollectionRepository.countEncryptedDocuments()).thenReturn(50L);
-
-        List<Object[]> filesByTypeRaw = new ArrayList<>();
-        filesByTypeRaw.add(new Object[]{"PDF", 400L});
-        filesByTypeRaw.add(new Object[]{"JPG", 100L});
-        when(documentCollectionRepository.countFilesByType()).thenReturn(filesByTypeRaw);
-
-        List<Object[]> filesByStatusRaw = new ArrayList<>();
-        filesByStatusRaw.add(new Object[]{"COMPLETED", 450L});
-        filesByStatusRaw.add(new Object[]{"FAILED", 50L});
-        when(documentCollectionRepository.countFilesByStatus()).thenReturn(filesByStatusRaw);
+        Map<String, Long> values = new HashMap<>();
+        values.put(KpiTotals.COLLECTIONS, 100L);
+        values.put(KpiTotals.FILES, 500L);
+        values.put(KpiTotals.FILE_BYTES, 1024000L);
+        values.put(KpiTotals.FILES_ENCRYPTED, 50L);
+        values.put(KpiTotals.FILES_BY_TYPE + "PDF", 400L);
+        values.put(KpiTotals.FILES_BY_TYPE + "JPG", 100L);
+        values.put(KpiTotals.FILES_BY_STATUS + "COMPLETED", 450L);
+        values.put(KpiTotals.FILES_BY_STATUS + "FAILED", 50L);
+        when(kpiQueryService.totals()).thenReturn(new KpiTotals(values));
 
         DocumentStatsDto expectedStats = DocumentStatsDto.builder()
                 .totalCollections(100L)
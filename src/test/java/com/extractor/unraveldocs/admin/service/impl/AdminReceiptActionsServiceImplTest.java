@@ -2,10 +2,12 @@ package com.extractor.unraveldocs.admin.service.impl;
 
 import com.extractor.unraveldocs.payment.receipt.dto.ReceiptData;
 import com.extractor.unraveldocs.payment.receipt.enums.PaymentProvider;
+import com.extractor.unraveldocs.payment.receipt.enums.ReceiptStage;
 import com.extractor.unraveldocs.payment.receipt.model.Receipt;
 import com.extractor.unraveldocs.payment.receipt.repository.ReceiptRepository;
 import com.extractor.unraveldocs.payment.receipt.service.ReceiptEmailService;
 import com.extractor.unraveldocs.payment.receipt.service.ReceiptPdfService;
+import com.extractor.unraveldocs.payment.receipt.service.ReceiptPipeline;
 import com.extractor.unraveldocs.shared.response.ResponseBuilderService;
 import com.extractor.unraveldocs.shared.response.UnravelDocsResponse;
 import com.extractor.unraveldocs.user.model.User;
@@ -27,6 +29,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -42,6 +45,9 @@ class AdminReceiptActionsServiceImplTest {
     @Mock
     private ReceiptEmailService receiptEmailService;
 
+    @Mock
+    private ReceiptPipeline receiptPipeline;
+
     @Mock
     private ResponseBuilderService responseBuilderService;
 
@@ -132,4 +138,37 @@ class AdminReceiptActionsServiceImplTest {
                 
         assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    @Test
+    void resendReceiptEmail_parkedInPipeline_resumesInsteadOfSending() {
+        mockReceipt.setStage(ReceiptStage.DELIVER);
+        when(receiptRepository.findById("rec_123")).thenReturn(Optional.of(mockReceipt));
+        when(receiptPipeline.resume("rec_123")).thenReturn(true);
+        when(responseBuilderService.buildUserResponse(any(), eq(HttpStatus.OK), anyString()))
+                .thenAnswer(invocation -> new UnravelDocsResponse<>(
+                        HttpStatus.OK.value(),
+                        "success",
+                        "Success",
+                        invocation.getArgument(0)
+                ));
+
+        UnravelDocsResponse<String> response = adminReceiptActionsService.resendReceiptEmail("rec_123");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK.value());
+        verify(receiptEmailService, never()).sendReceiptEmail(anyString(), any(), any());
+        verify(receiptRepository, never()).save(any());
+    }
+
+    @Test
+    void resendReceiptEmail_stillInPipeline_throwsConflict() {
+        mockReceipt.setStage(ReceiptStage.RENDER);
+        when(receiptRepository.findById("rec_123")).thenReturn(Optional.of(mockReceipt));
+        when(receiptPipeline.resume("rec_123")).thenReturn(false);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> adminReceiptActionsService.resendReceiptEmail("rec_123"));
+
+        assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        verify(receiptPdfService, never()).generateReceiptPdf(anyString(), any());
+    }
 }
@@ -2,6 +2,7 @@ package com.extractor.unraveldocs.admin.service.impl;
 
 import com.extractor.unraveldocs.admin.dto.response.SecurityStatsDto;
 import com.extractor.unraveldocs.auth.datamodel.Role;
+import com.extractor.unraveldocs.loginattempts.interfaces.LoginAttemptsService;
 import com.extractor.unraveldocs.loginattempts.repository.LoginAttemptsRepository;
 import com.extractor.unraveldocs.shared.response.ResponseBuilderService;
 import com.extractor.unraveldocs.shared.response.UnravelDocsResponse;
@@ -14,7 +15,6 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +34,9 @@ class AdminSecurityStatsServiceImplTest {
     @Mock
     private LoginAttemptsRepository loginAttemptsRepository;
 
+    @Mock
+    private LoginAttemptsService loginAttemptsService;
+
     @Mock
     private ResponseBuilderService responseBuilderService;
 
@@ -48,7 +51,7 @@ class AdminSecurityStatsServiceImplTest {
     void getSecurityStats_Success() {
         // Arrange
         when(loginAttemptsRepository.countByIsBlockedTrue()).thenReturn(15L);
-        when(loginAttemptsRepository.sumFailedLoginsSince(any(LocalDateTime.class))).thenReturn(45L);
+        when(loginAttemptsService.countRecentFailedLogins()).thenReturn(45L);
 
         List<Object[]> rolesRaw = new ArrayList<>();
         rolesRaw.add(new Object[]{Role.USER, 1000L});
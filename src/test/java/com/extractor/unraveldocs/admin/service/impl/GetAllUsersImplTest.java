@@ -4,6 +4,7 @@ import com.extractor.unraveldocs.admin.dto.request.UserFilterDto;
 import com.extractor.unraveldocs.admin.dto.response.UserListData;
 import com.extractor.unraveldocs.admin.dto.response.UserSummary;
 import com.extractor.unraveldocs.admin.impl.GetAllUsersImpl;
+import com.extractor.unraveldocs.admin.repository.UserSearchPage;
 import com.extractor.unraveldocs.auth.datamodel.Role;
 import com.extractor.unraveldocs.shared.response.ResponseBuilderService;
 import com.extractor.unraveldocs.shared.response.UnravelDocsResponse;
@@ -15,11 +16,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 
 import java.time.OffsetDateTime;
@@ -46,7 +42,7 @@ class GetAllUsersImplTest {
 
     private UserFilterDto userFilterDto;
     private User user;
-    private Page<User> userPage;
+    private UserSearchPage userPage;
     private UnravelDocsResponse<UserListData> expectedResponse;
 
     @BeforeEach
@@ -77,9 +73,6 @@ class GetAllUsersImplTest {
         user.setLastLogin(OffsetDateTime.now());
         user.setProfilePicture("profile.jpg");
 
-        List<User> userList = Collections.singletonList(user);
-        userPage = new PageImpl<>(userList, PageRequest.of(userFilterDto.getPage(), userFilterDto.getSize(), Sort.by(Sort.Direction.ASC, "createdAt")), 1);
-
         UserListData userListData = new UserListData();
         UserSummary userSummary = new UserSummary();
         userSummary.setId(user.getId());
@@ -94,6 +87,7 @@ class GetAllUsersImplTest {
         userSummary.setLastLogin(user.getLastLogin());
         userSummary.setProfilePicture(user.getProfilePicture());
         userListData.setUsers(Collections.singletonList(userSummary));
+        userPage = new UserSearchPage(List.of(userSummary), 0, 1, true, null);
         userListData.setTotalUsers(1);
         userListData.setTotalPages(1);
         userListData.setCurrentPage(0);
@@ -108,13 +102,7 @@ class GetAllUsersImplTest {
 
     @Test
     void getAllUsers_success() {
-        Pageable pageable = PageRequest.of(
-                userFilterDto.getPage(),
-                userFilterDto.getSize(),
-                Sort.by(Sort.Direction.fromString(userFilterDto.getSortOrder()), userFilterDto.getSortBy())
-        );
-
-        when(userRepository.findAllUsers(userFilterDto, pageable)).thenReturn(userPage);
+        when(userRepository.searchUsers(userFilterDto)).thenReturn(userPage);
 
         when(responseBuilder.buildUserResponse(
                 any(UserListData.class),
@@ -136,13 +124,13 @@ class GetAllUsersImplTest {
         assertNotNull(actualResponse.getData());
         assertEquals(1, actualResponse.getData().getUsers().size());
         assertEquals(user.getFirstName(), actualResponse.getData().getUsers().getFirst().getFirstName());
-        assertEquals(userPage.getTotalElements(), actualResponse.getData().getTotalUsers());
-        assertEquals(userPage.getTotalPages(), actualResponse.getData().getTotalPages());
-        assertEquals(userPage.getNumber(), actualResponse.getData().getCurrentPage());
-        assertEquals(userPage.getSize(), actualResponse.getData().getPageSize());
+        assertEquals(userPage.total(), actualResponse.getData().getTotalUsers());
+        assertEquals(1, actualResponse.getData().getTotalPages());
+        assertEquals(userPage.page(), actualResponse.getData().getCurrentPage());
+        assertEquals(userFilterDto.getSize(), actualResponse.getData().getPageSize());
 
 
-        verify(userRepository).findAllUsers(userFilterDto, pageable);
+        verify(userRepository).searchUsers(userFilterDto);
         verify(responseBuilder).buildUserResponse(
                 any(UserListData.class),
                 eq(HttpStatus.OK),
@@ -153,15 +141,9 @@ class GetAllUsersImplTest {
     @Test
     void getAllUsers_emptyResult() {
         userFilterDto.setSearch("nonexistent");
-        Page<User> emptyPage = new PageImpl<>(Collections.emptyList(), PageRequest.of(userFilterDto.getPage(), userFilterDto.getSize(), Sort.by(Sort.Direction.ASC, "createdAt")), 0);
-
-        Pageable pageable = PageRequest.of(
-                userFilterDto.getPage(),
-                userFilterDto.getSize(),
-                Sort.by(Sort.Direction.fromString(userFilterDto.getSortOrder()), userFilterDto.getSortBy())
-        );
+        UserSearchPage emptyPage = new UserSearchPage(Collections.emptyList(), 0, 0, true, null);
 
-        when(userRepository.findAllUsers(userFilterDto, pageable)).thenReturn(emptyPage);
+        when(userRepository.searchUsers(userFilterDto)).thenReturn(emptyPage);
 
         UserListData emptyUserListData = new UserListData();
         emptyUserListData.setUsers(Collections.emptyList());
@@ -190,11 +172,33 @@ class GetAllUsersImplTest {
         assertTrue(actualResponse.getData().getUsers().isEmpty());
         assertEquals(0, actualResponse.getData().getTotalUsers());
 
-        verify(userRepository).findAllUsers(userFilterDto, pageable);
+        verify(userRepository).searchUsers(userFilterDto);
         verify(responseBuilder).buildUserResponse(
                 any(UserListData.class),
                 eq(HttpStatus.OK),
                 eq("Successfully fetched all users.")
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllUsers_estimatedTotal_passesCursorAndEstimate() {
+        UserSummary summary = new UserSummary();
+        summary.setId(user.getId());
+        when(userRepository.searchUsers(userFilterDto))
+                .thenReturn(new UserSearchPage(List.of(summary), 3, 1_000_001, false, "next-cursor"));
+        when(responseBuilder.buildUserResponse(any(UserListData.class), eq(HttpStatus.OK), eq("Successfully fetched all users.")))
+                .thenAnswer(invocation -> {
+                    UnravelDocsResponse<UserListData> response = new UnravelDocsResponse<>();
+                    response.setData(invocation.getArgument(0));
+                    return response;
+                });
+
+        UserListData data = getAllUsersService.getAllUsers(userFilterDto).getData();
+
+        assertEquals(1_000_001, data.getTotalUsers());
+        assertEquals(100_001, data.getTotalPages());
+        assertEquals(3, data.getCurrentPage());
+        assertEquals("next-cursor", data.getNextCursor());
+        assertFalse(data.isTotalExact());
+    }
+}
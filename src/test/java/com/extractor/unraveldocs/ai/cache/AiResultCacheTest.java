@@ -0,0 +1,136 @@
+package com.extractor.unraveldocs.ai.cache;
+
+import com.extractor.unraveldocs.ai.config.AiModelConfig;
+import com.extractor.unraveldocs.ai.config.AiProperties;
+import com.extractor.unraveldocs.ai.datamodel.AiCacheOperation;
+import com.extractor.unraveldocs.ai.provider.AiModelProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AiResultCacheTest {
+
+    private static final String TEMPLATE = "Summarize: %s";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private AiModelConfig aiModelConfig;
+
+    private AiProperties aiProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private AiResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        aiProperties = new AiProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(aiModelConfig.getModelName(AiModelProvider.OPENAI)).thenReturn("gpt-4o-mini");
+        lenient().when(aiModelConfig.getModelName(AiModelProvider.MISTRAL_AI)).thenReturn("mistral-small-latest");
+        cache = new AiResultCache(redisTemplate, aiProperties, aiModelConfig, meterRegistry);
+    }
+
+    @Test
+    void hashContent_IgnoresWhitespaceDifferences() {
+        assertEquals(cache.hashContent("Invoice  total:\r\n 42 EUR "), cache.hashContent("Invoice total: 42 EUR"));
+        assertNotEquals(cache.hashContent("Invoice total: 42 EUR"), cache.hashContent("Invoice total: 43 EUR"));
+    }
+
+    @Test
+    void put_ThenGet_ServesFromLocalTierWithoutRedisRead() {
+        String hash = cache.hashContent("some text");
+        cache.put(AiCacheOperation.SHORT_SUMMARY, AiModelProvider.OPENAI, TEMPLATE, hash, "summary");
+
+        Optional<AiResultCache.CachedAiResult> result = cache.get(AiCacheOperation.SHORT_SUMMARY,
+                List.of(AiModelProvider.OPENAI), TEMPLATE, hash);
+
+        assertTrue(result.isPresent());
+        assertEquals("summary", result.get().content());
+        verify(valueOperations).set(anyString(), eq("summary"), eq(Duration.ofHours(720)));
+        verify(valueOperations, never()).get(anyString());
+        assertEquals(1.0, meterRegistry.counter("ai.cache.lookups",
+                "operation", "summary-short", "result", "hit_local").count());
+    }
+
+    @Test
+    void get_FallbackProviderEntry_IsAcceptable() {
+        String hash = cache.hashContent("some text");
+        String fallbackKey = cache.buildKey(AiCacheOperation.CLASSIFICATION, AiModelProvider.MISTRAL_AI, TEMPLATE, hash);
+        when(valueOperations.get(anyString())).thenAnswer(inv ->
+                fallbackKey.equals(inv.getArgument(0)) ? "{\"document_type\":\"invoice\"}" : null);
+
+        Optional<AiResultCache.CachedAiResult> result = cache.get(AiCacheOperation.CLASSIFICATION,
+                List.of(AiModelProvider.OPENAI, AiModelProvider.MISTRAL_AI), TEMPLATE, hash);
+
+        assertTrue(result.isPresent());
+        assertEquals(AiModelProvider.MISTRAL_AI, result.get().provider());
+    }
+
+    @Test
+    void get_PromptTemplateChanged_Misses() {
+        String hash = cache.hashContent("some text");
+        cache.put(AiCacheOperation.SHORT_SUMMARY, AiModelProvider.OPENAI, TEMPLATE, hash, "summary");
+
+        Optional<AiResultCache.CachedAiResult> result = cache.get(AiCacheOperation.SHORT_SUMMARY,
+                List.of(AiModelProvider.OPENAI), "Summarize briefly: %s", hash);
+
+        assertTrue(result.isEmpty());
+        assertEquals(1.0, meterRegistry.counter("ai.cache.lookups",
+                "operation", "summary-short", "result", "miss").count());
+    }
+
+    @Test
+    void get_ModelChanged_Misses() {
+        String hash = cache.hashContent("some text");
+        cache.put(AiCacheOperation.SHORT_SUMMARY, AiModelProvider.OPENAI, TEMPLATE, hash, "summary");
+        String oldKey = cache.buildKey(AiCacheOperation.SHORT_SUMMARY, AiModelProvider.OPENAI, TEMPLATE, hash);
+
+        when(aiModelConfig.getModelName(AiModelProvider.OPENAI)).thenReturn("gpt-4o");
+        Optional<AiResultCache.CachedAiResult> result = cache.get(AiCacheOperation.SHORT_SUMMARY,
+                List.of(AiModelProvider.OPENAI), TEMPLATE, hash);
+
+        assertTrue(result.isEmpty());
+        assertNotEquals(oldKey, cache.buildKey(AiCacheOperation.SHORT_SUMMARY, AiModelProvider.OPENAI, TEMPLATE, hash));
+    }
+
+    @Test
+    void get_RedisUnavailable_TreatedAsMiss() {
+        when(valueOperations.get(anyString())).thenThrow(new IllegalStateException("connection refused"));
+
+        Optional<AiResultCache.CachedAiResult> result = cache.get(AiCacheOperation.SHORT_SUMMARY,
+                List.of(AiModelProvider.OPENAI), TEMPLATE, cache.hashContent("text"));
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void get_CacheDisabled_SkipsAllTiers() {
+        aiProperties.getCache().setEnabled(false);
+
+        Optional<AiResultCache.CachedAiResult> result = cache.get(AiCacheOperation.SHORT_SUMMARY,
+                List.of(AiModelProvider.OPENAI), TEMPLATE, cache.hashContent("text"));
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(redisTemplate);
+    }
+}
@@ -0,0 +1,134 @@
+package com.extractor.unraveldocs.ai.service;
+
+import com.extractor.unraveldocs.ai.cache.AiResultCache;
+import com.extractor.unraveldocs.ai.config.AiModelConfig;
+import com.extractor.unraveldocs.ai.config.AiProperties;
+import com.extractor.unraveldocs.ai.datamodel.SummaryType;
+import com.extractor.unraveldocs.ai.dto.request.SummarizeRequest;
+import com.extractor.unraveldocs.ai.dto.response.SummarizeResponse;
+import com.extractor.unraveldocs.ai.provider.AiModelProvider;
+import com.extractor.unraveldocs.ai.quota.AiQuotaService;
+import com.extractor.unraveldocs.credit.datamodel.CreditTransactionType;
+import com.extractor.unraveldocs.credit.model.CreditTransaction;
+import com.extractor.unraveldocs.credit.model.UserCreditBalance;
+import com.extractor.unraveldocs.credit.repository.CreditTransactionRepository;
+import com.extractor.unraveldocs.credit.repository.UserCreditBalanceRepository;
+import com.extractor.unraveldocs.credit.service.CreditBalanceService;
+import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import com.extractor.unraveldocs.messaging.emailtemplates.UserEmailTemplateService;
+import com.extractor.unraveldocs.ocrprocessing.datamodel.OcrStatus;
+import com.extractor.unraveldocs.ocrprocessing.model.OcrData;
+import com.extractor.unraveldocs.ocrprocessing.repository.OcrDataRepository;
+import com.extractor.unraveldocs.pushnotification.interfaces.NotificationService;
+import com.extractor.unraveldocs.subscription.repository.UserSubscriptionRepository;
+import com.extractor.unraveldocs.user.model.User;
+import com.extractor.unraveldocs.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AiSummarizationServiceTest {
+
+    private static final String USER_ID = "user-1";
+    private static final String DOCUMENT_ID = "doc-1";
+
+    @Mock
+    private AiModelConfig aiModelConfig;
+    @Mock
+    private OcrDataRepository ocrDataRepository;
+    @Mock
+    private SummarizationEngine summarizationEngine;
+    @Mock
+    private AiResultCache aiResultCache;
+    @Mock
+    private UserSubscriptionRepository userSubscriptionRepository;
+    @Mock
+    private UserCreditBalanceRepository creditBalanceRepository;
+    @Mock
+    private CreditTransactionRepository transactionRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private NotificationService notificationService;
+    @Mock
+    private UserEmailTemplateService emailTemplateService;
+
+    private UserCreditBalance balance;
+    private AiSummarizationService service;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(USER_ID);
+        balance = UserCreditBalance.builder().user(user).balance(10).totalPurchased(10).totalUsed(0).build();
+
+        OcrData ocrData = new OcrData();
+        ocrData.setDocumentId(DOCUMENT_ID);
+        ocrData.setStatus(OcrStatus.COMPLETED);
+        ocrData.setExtractedText("Some extracted text");
+
+        when(ocrDataRepository.findByDocumentId(DOCUMENT_ID)).thenReturn(Optional.of(ocrData));
+        when(aiModelConfig.getDefaultProvider()).thenReturn(AiModelProvider.OPENAI);
+        when(aiResultCache.get(any(), any(), any(), any())).thenReturn(Optional.empty());
+        when(userSubscriptionRepository.findByUserIdWithPlan(USER_ID)).thenReturn(Optional.empty());
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+        when(creditBalanceRepository.findByUserId(USER_ID)).thenReturn(Optional.of(balance));
+
+        CreditBalanceService creditBalanceService = new CreditBalanceService(creditBalanceRepository,
+                transactionRepository, userRepository, notificationService, emailTemplateService);
+        AiQuotaService aiQuotaService = new AiQuotaService(userSubscriptionRepository, creditBalanceService,
+                userRepository, new SanitizeLogging());
+        service = new AiSummarizationService(aiModelConfig, new AiProperties(), aiQuotaService,
+                ocrDataRepository, summarizationEngine, aiResultCache);
+    }
+
+    @Test
+    void summarize_ModelFails_CreditsRefunded() {
+        when(summarizationEngine.summarize(anyString(), eq(SummaryType.SHORT), eq(AiModelProvider.OPENAI)))
+                .thenThrow(new BadRequestException("AI summarization failed. Please try again later."));
+
+        assertThrows(BadRequestException.class, () -> service.summarize(USER_ID, request()));
+
+        assertEquals(10, balance.getBalance());
+        assertEquals(0, balance.getTotalUsed());
+        ArgumentCaptor<CreditTransaction> transactions = ArgumentCaptor.forClass(CreditTransaction.class);
+        verify(transactionRepository, times(2)).save(transactions.capture());
+        assertEquals(List.of(CreditTransactionType.DEDUCTION, CreditTransactionType.REFUND),
+                transactions.getAllValues().stream().map(CreditTransaction::getType).toList());
+        verify(ocrDataRepository, never()).updateAiSummary(anyString(), anyString(), any());
+    }
+
+    @Test
+    void summarize_ModelSucceeds_CreditsCharged() {
+        when(summarizationEngine.summarize(anyString(), eq(SummaryType.SHORT), eq(AiModelProvider.OPENAI)))
+                .thenReturn(new SummarizationEngine.SummarizationResult("A summary", AiModelProvider.OPENAI, 1));
+
+        SummarizeResponse response = service.summarize(USER_ID, request());
+
+        assertEquals("A summary", response.getSummary());
+        assertEquals(1, response.getCreditsCharged());
+        assertEquals(9, balance.getBalance());
+        verify(ocrDataRepository).updateAiSummary(eq(DOCUMENT_ID), eq("A summary"), any());
+    }
+
+    private static SummarizeRequest request() {
+        SummarizeRequest request = new SummarizeRequest();
+        request.setDocumentId(DOCUMENT_ID);
+        request.setSummaryType(SummaryType.SHORT);
+        return request;
+    }
+}
@@ -0,0 +1,171 @@
+package com.extractor.unraveldocs.ai.service;
+
+import com.extractor.unraveldocs.ai.cache.AiResultCache;
+import com.extractor.unraveldocs.ai.config.AiModelConfig;
+import com.extractor.unraveldocs.ai.config.AiProperties;
+import com.extractor.unraveldocs.ai.datamodel.SummaryType;
+import com.extractor.unraveldocs.ai.provider.AiModelProvider;
+import com.extractor.unraveldocs.ai.support.FakeChatModel;
+import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SummarizationEngineTest {
+
+    @Mock
+    private AiModelConfig aiModelConfig;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private AiProperties aiProperties;
+    private TextChunker textChunker;
+    private FakeChatModel primaryModel;
+    private FakeChatModel fallbackModel;
+    private SummarizationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        aiProperties = new AiProperties();
+        aiProperties.getSummarization().setChunkTokenBudget(50);
+        aiProperties.getSummarization().setCharsPerToken(4);
+        aiProperties.getSummarization().setMaxConcurrency(2);
+        textChunker = new TextChunker();
+
+        primaryModel = new FakeChatModel(prompt -> "partial summary", 20);
+        fallbackModel = new FakeChatModel(prompt -> "fallback summary", 0);
+        lenient().when(aiModelConfig.getModel(AiModelProvider.OPENAI)).thenReturn(primaryModel);
+        lenient().when(aiModelConfig.getModel(AiModelProvider.MISTRAL_AI)).thenReturn(fallbackModel);
+        lenient().when(aiModelConfig.getFallbackProvider()).thenReturn(AiModelProvider.MISTRAL_AI);
+        lenient().when(aiModelConfig.getAcceptableProviders(AiModelProvider.OPENAI))
+                .thenReturn(List.of(AiModelProvider.OPENAI));
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(valueOperations.get(anyString())).thenReturn(null);
+
+        lenient().when(aiModelConfig.getModelName(any())).thenReturn("test-model");
+
+        AiResultCache aiResultCache = new AiResultCache(redisTemplate, aiProperties, aiModelConfig,
+                new SimpleMeterRegistry());
+        engine = new SummarizationEngine(aiModelConfig, aiProperties, textChunker, aiResultCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void summarize_ShortText_UsesSingleCall() {
+        SummarizationEngine.SummarizationResult result =
+                engine.summarize("A short receipt.", SummaryType.SHORT, AiModelProvider.OPENAI);
+
+        assertEquals("partial summary", result.summary());
+        assertEquals(AiModelProvider.OPENAI, result.provider());
+        assertEquals(1, result.chunkCount());
+        assertEquals(1, primaryModel.getCallCount());
+    }
+
+    @Test
+    void summarize_LongText_SummarizesEveryPageUnderConcurrencyLimit() {
+        String text = IntStream.rangeClosed(1, 8)
+                .mapToObj(page -> "Page " + page + " content " + "word ".repeat(30))
+                .collect(Collectors.joining("\n--- Page N ---\n"));
+
+        SummarizationEngine.SummarizationResult result =
+                engine.summarize(text, SummaryType.DETAILED, AiModelProvider.OPENAI);
+
+        assertTrue(result.chunkCount() > 1);
+        // Every page reaches the model, not just the first slice
+        List<String> prompts = primaryModel.getPrompts();
+        for (int page = 1; page <= 8; page++) {
+            String marker = "Page " + page + " content";
+            assertTrue(prompts.stream().anyMatch(p -> p.contains(marker)), "missing " + marker);
+        }
+        assertTrue(primaryModel.getPeakConcurrency() <= 2);
+        assertTrue(prompts.getLast().startsWith("Provide a detailed summary"));
+    }
+
+    @Test
+    void summarize_RepeatedPages_ReusesCachedChunkSummaries() {
+        String terms = "Standard terms and conditions " + "clause ".repeat(15);
+        engine.summarize(terms + "\n--- Page 2 ---\nFirst cover letter " + "word ".repeat(20),
+                SummaryType.SHORT, AiModelProvider.OPENAI);
+        engine.summarize(terms + "\n--- Page 2 ---\nSecond cover letter " + "text ".repeat(20),
+                SummaryType.SHORT, AiModelProvider.OPENAI);
+
+        long termsPrompts = primaryModel.getPrompts().stream()
+                .filter(p -> p.contains("Standard terms and conditions"))
+                .count();
+        assertEquals(1, termsPrompts);
+    }
+
+    @Test
+    void summarize_RepeatedPageAtAnotherPosition_IsSummarizedAgain() {
+        String terms = "Standard terms and conditions " + "clause ".repeat(15);
+        engine.summarize(terms + "\n--- Page 2 ---\nCover letter " + "word ".repeat(20),
+                SummaryType.SHORT, AiModelProvider.OPENAI);
+        engine.summarize("Cover letter " + "word ".repeat(20) + "\n--- Page 2 ---\n" + terms
+                        + "\n--- Page 3 ---\nAppendix " + "text ".repeat(20),
+                SummaryType.SHORT, AiModelProvider.OPENAI);
+
+        List<String> termsPrompts = primaryModel.getPrompts().stream()
+                .filter(p -> p.contains("Standard terms and conditions") && p.startsWith("The following text is"))
+                .toList();
+        assertEquals(2, termsPrompts.size());
+        assertTrue(termsPrompts.get(0).startsWith("The following text is section 1 of 2"));
+        assertTrue(termsPrompts.get(1).startsWith("The following text is section 2 of 3"));
+    }
+
+    @Test
+    void summarize_PrimaryFails_FallsBackPerCall() {
+        primaryModel.setFailing(true);
+        when(aiModelConfig.isFallbackEnabled()).thenReturn(true);
+
+        SummarizationEngine.SummarizationResult result =
+                engine.summarize("word ".repeat(200), SummaryType.SHORT, AiModelProvider.OPENAI);
+
+        assertEquals("fallback summary", result.summary());
+        assertEquals(AiModelProvider.MISTRAL_AI, result.provider());
+    }
+
+    @Test
+    void summarize_PrimaryFailsWithoutFallback_ThrowsBadRequest() {
+        primaryModel.setFailing(true);
+        when(aiModelConfig.isFallbackEnabled()).thenReturn(false);
+
+        assertThrows(BadRequestException.class,
+                () -> engine.summarize("word ".repeat(200), SummaryType.SHORT, AiModelProvider.OPENAI));
+    }
+
+    @Test
+    void chunk_PrefersPageBoundaries() {
+        String text = "first page text\n--- Page 2 ---\nsecond page text";
+
+        List<String> chunks = textChunker.chunk(text, 10, 4);
+
+        assertEquals(2, chunks.size());
+        assertEquals("first page text", chunks.get(0));
+        assertTrue(chunks.get(1).contains("second page text"));
+    }
+}
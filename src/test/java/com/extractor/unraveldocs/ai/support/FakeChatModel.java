@@ -0,0 +1,73 @@
+package com.extractor.unraveldocs.ai.support;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Local, deterministic {@link ChatModel} for tests.
+ * Records every prompt, tracks peak concurrency and can simulate latency or failures.
+ */
+public class FakeChatModel implements ChatModel {
+
+    private final Function<String, String> responder;
+    private final long latencyMillis;
+    private final List<String> prompts = new CopyOnWriteArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakConcurrency = new AtomicInteger();
+    private volatile boolean failing;
+
+    public FakeChatModel(Function<String, String> responder, long latencyMillis) {
+        this.responder = responder;
+        this.latencyMillis = latencyMillis;
+    }
+
+    public static FakeChatModel echoing(String label) {
+        return new FakeChatModel(prompt -> label + "#" + prompt.length(), 0);
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        int current = inFlight.incrementAndGet();
+        peakConcurrency.accumulateAndGet(current, Math::max);
+        try {
+            String text = prompt.getContents();
+            prompts.add(text);
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            if (failing) {
+                throw new IllegalStateException("Simulated provider outage");
+            }
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(responder.apply(text)))));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    public void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    public List<String> getPrompts() {
+        return prompts;
+    }
+
+    public int getCallCount() {
+        return prompts.size();
+    }
+
+    public int getPeakConcurrency() {
+        return peakConcurrency.get();
+    }
+}
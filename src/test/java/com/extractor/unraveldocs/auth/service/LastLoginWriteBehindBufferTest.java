@@ -0,0 +1,96 @@
+package com.extractor.unraveldocs.auth.service;
+
+import com.extractor.unraveldocs.auth.config.LoginProperties;
+import com.extractor.unraveldocs.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LastLoginWriteBehindBufferTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2026, 10, 19, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    @Mock
+    private UserRepository userRepository;
+
+    private LoginProperties loginProperties;
+    private LastLoginWriteBehindBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        loginProperties = new LoginProperties();
+        buffer = new LastLoginWriteBehindBuffer(userRepository, loginProperties);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_LoginsInSameSecond_WrittenWithOneStatement() {
+        buffer.record("u1", NOW.plusNanos(100));
+        buffer.record("u2", NOW.plusNanos(900_000));
+        buffer.record("u3", NOW.plusNanos(5));
+        when(userRepository.updateLastLogin(anyCollection(), any(OffsetDateTime.class))).thenReturn(3);
+
+        buffer.flush();
+
+        ArgumentCaptor<Collection<String>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(userRepository, times(1)).updateLastLogin(ids.capture(), eq(NOW));
+        assertEquals(3, ids.getValue().size());
+        assertEquals(0, buffer.pendingCount());
+    }
+
+    @Test
+    void record_RepeatedLogins_KeepsLatestOnly() {
+        buffer.record("u1", NOW.plusSeconds(10));
+        buffer.record("u1", NOW);
+
+        buffer.flush();
+
+        verify(userRepository).updateLastLogin(List.of("u1"), NOW.plusSeconds(10));
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void flush_RespectsBatchSize() {
+        loginProperties.setLastLoginBatchSize(2);
+        for (int i = 0; i < 5; i++) {
+            buffer.record("u" + i, NOW);
+        }
+
+        buffer.flush();
+
+        verify(userRepository, times(3)).updateLastLogin(anyCollection(), eq(NOW));
+    }
+
+    @Test
+    void flush_DatabaseFailure_RequeuesEntries() {
+        buffer.record("u1", NOW);
+        when(userRepository.updateLastLogin(anyCollection(), any(OffsetDateTime.class)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        buffer.flush();
+
+        assertEquals(1, buffer.pendingCount());
+    }
+
+    @Test
+    void flush_NothingPending_SkipsDatabase() {
+        buffer.flush();
+
+        verifyNoInteractions(userRepository);
+    }
+}
@@ -0,0 +1,88 @@
+package com.extractor.unraveldocs.auth.service;
+
+import com.extractor.unraveldocs.auth.config.LoginProperties;
+import com.extractor.unraveldocs.exceptions.custom.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PasswordVerificationServiceTest {
+
+    private PasswordEncoder passwordEncoder;
+    private LoginProperties loginProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordVerificationService service;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(anyString())).thenReturn("dummy-hash");
+        loginProperties = new LoginProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void matches_ValidPassword_ReturnsTrue() {
+        when(passwordEncoder.matches("secret", "stored-hash")).thenReturn(true);
+        service = new PasswordVerificationService(passwordEncoder, loginProperties, meterRegistry);
+
+        assertTrue(service.matches("secret", "stored-hash"));
+    }
+
+    @Test
+    void matches_UnknownAccount_ComparesAgainstDummyHashAndReturnsFalse() {
+        when(passwordEncoder.matches("secret", "dummy-hash")).thenReturn(true);
+        service = new PasswordVerificationService(passwordEncoder, loginProperties, meterRegistry);
+
+        assertFalse(service.matches("secret", null));
+        verify(passwordEncoder).matches("secret", "dummy-hash");
+    }
+
+    @Test
+    void matches_PoolAndQueueFull_ShedsWithServiceUnavailable() throws Exception {
+        loginProperties.setHashingThreads(1);
+        loginProperties.setHashingQueueCapacity(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.matches(anyString(), anyString())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        service = new PasswordVerificationService(passwordEncoder, loginProperties, meterRegistry);
+
+        Future<Boolean> running = callers.submit(() -> service.matches("a", "hash"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Boolean> queued = callers.submit(() -> service.matches("b", "hash"));
+        while (meterRegistry.get("auth.password.verification.queued").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                () -> service.matches("c", "hash"));
+        assertEquals(1, exception.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.counter("auth.password.verification.shed").count());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -7,6 +7,7 @@ import com.extractor.unraveldocs.auth.model.UserVerification;
 import com.extractor.unraveldocs.brokers.kafka.events.BaseEvent;
 import com.extractor.unraveldocs.brokers.kafka.events.EventPublisherService;
 import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiRecorder;
 import com.extractor.unraveldocs.shared.response.ResponseBuilderService;
 import com.extractor.unraveldocs.shared.response.UnravelDocsResponse;
 import com.extractor.unraveldocs.user.model.User;
@@ -49,6 +50,8 @@ class EmailVerificationImplTest {
 
         @Mock
         private EventPublisherService eventPublisherService;
+        @Mock
+        private KpiRecorder kpiRecorder;
 
         @InjectMocks
         private EmailVerificationImpl emailVerificationService;
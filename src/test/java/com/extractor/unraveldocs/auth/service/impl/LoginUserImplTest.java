@@ -5,10 +5,14 @@ import com.extractor.unraveldocs.auth.dto.LoginResult;
 import com.extractor.unraveldocs.auth.dto.request.LoginRequestDto;
 import com.extractor.unraveldocs.auth.datamodel.Role;
 import com.extractor.unraveldocs.auth.impl.LoginUserImpl;
+import com.extractor.unraveldocs.auth.service.LastLoginWriteBehindBuffer;
+import com.extractor.unraveldocs.auth.service.PasswordVerificationService;
 import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
 import com.extractor.unraveldocs.exceptions.custom.ForbiddenException;
+import com.extractor.unraveldocs.exceptions.custom.ServiceUnavailableException;
 import com.extractor.unraveldocs.exceptions.custom.TokenProcessingException;
 import com.extractor.unraveldocs.exceptions.custom.UnauthorizedException;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiRecorder;
 import com.extractor.unraveldocs.shared.response.ResponseBuilderService;
 import com.extractor.unraveldocs.shared.response.UnravelDocsResponse;
 import com.extractor.unraveldocs.loginattempts.interfaces.LoginAttemptsService;
@@ -22,8 +26,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.authentication.*;
-import org.springframework.security.core.Authentication;
 
 import java.time.OffsetDateTime;
 import java.util.Optional;
@@ -41,7 +43,10 @@ public class LoginUserImplTest {
         private JwtTokenProvider jwtTokenProvider;
 
         @Mock
-        private AuthenticationManager authenticationManager;
+        private PasswordVerificationService passwordVerificationService;
+
+        @Mock
+        private LastLoginWriteBehindBuffer lastLoginWriteBehindBuffer;
 
         @Mock
         private ResponseBuilderService responseBuilder;
@@ -51,13 +56,14 @@ public class LoginUserImplTest {
 
         @Mock
         private RefreshTokenService refreshTokenService;
+        @Mock
+        private KpiRecorder kpiRecorder;
 
         @InjectMocks
         private LoginUserImpl loginUserImpl;
 
         private User user;
         private LoginRequestDto loginRequest;
-        private Authentication authentication;
 
         @BeforeEach
         void setUp() {
@@ -76,8 +82,6 @@ public class LoginUserImplTest {
                 user.setCreatedAt(OffsetDateTime.now().minusDays(1));
                 user.setUpdatedAt(OffsetDateTime.now().minusHours(1));
                 user.setLastLogin(null);
-
-                authentication = mock(Authentication.class);
         }
 
         @Test
@@ -97,9 +101,7 @@ public class LoginUserImplTest {
                 expectedResponse.setData(loginData);
 
                 when(userRepository.findByEmail(loginRequest.email())).thenReturn(Optional.of(user));
-                when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                                .thenReturn(authentication);
-                when(authentication.getPrincipal()).thenReturn(user);
+                when(passwordVerificationService.matches("password", "encodedPassword")).thenReturn(true);
                 when(jwtTokenProvider.generateAccessToken(user)).thenReturn("jwtAccessToken");
                 when(jwtTokenProvider.generateRefreshToken(user)).thenReturn("jwtRefreshToken");
                 when(jwtTokenProvider.getJtiFromToken("jwtRefreshToken")).thenReturn("refreshTokenJti");
@@ -130,14 +132,15 @@ public class LoginUserImplTest {
                 assertNotNull(user.getLastLogin());
 
                 verify(loginAttemptsService).checkIfUserBlocked(user);
-                verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
+                verify(passwordVerificationService).matches("password", "encodedPassword");
                 verify(userRepository, times(1)).findByEmail(eq("test@example.com"));
                 verify(loginAttemptsService).resetLoginAttempts(user);
                 verify(jwtTokenProvider).generateAccessToken(user);
                 verify(jwtTokenProvider).generateRefreshToken(user);
                 verify(jwtTokenProvider).getJtiFromToken("jwtRefreshToken");
                 verify(refreshTokenService).storeRefreshToken("refreshTokenJti", user.getId());
-                verify(userRepository, atLeastOnce()).save(user);
+                verify(lastLoginWriteBehindBuffer).record(user.getId(), user.getLastLogin());
+                verify(userRepository, never()).save(any(User.class));
                 verify(responseBuilder).buildUserResponse(any(LoginData.class), eq(HttpStatus.OK),
                                 eq("User logged in successfully"));
         }
@@ -158,7 +161,7 @@ public class LoginUserImplTest {
                 assertEquals("ACCOUNT_DEACTIVATED", exception.getErrorCode());
 
                 verify(userRepository).findByEmail(loginRequest.email());
-                verify(authenticationManager, never()).authenticate(any());
+                verify(passwordVerificationService, never()).matches(anyString(), anyString());
                 verify(jwtTokenProvider, never()).generateAccessToken(any(User.class));
         }
 
@@ -166,8 +169,7 @@ public class LoginUserImplTest {
         void loginUser_invalidCredentials_throwsUnauthorizedExceptionAndRecordsAttempt() {
                 // Arrange — Issue #6: invalid credentials now throw UnauthorizedException (401)
                 when(userRepository.findByEmail(loginRequest.email())).thenReturn(Optional.of(user));
-                when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                                .thenThrow(new BadCredentialsException("Bad credentials"));
+                when(passwordVerificationService.matches("password", "encodedPassword")).thenReturn(false);
 
                 // Act & Assert
                 UnauthorizedException exception = assertThrows(UnauthorizedException.class,
@@ -176,9 +178,9 @@ public class LoginUserImplTest {
                 assertEquals("INVALID_CREDENTIALS", exception.getErrorCode());
 
                 verify(loginAttemptsService).checkIfUserBlocked(user);
-                verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
+                verify(passwordVerificationService).matches("password", "encodedPassword");
                 verify(loginAttemptsService).recordFailedLoginAttempt(user);
-                verify(userRepository, never()).save(any(User.class));
+                verify(lastLoginWriteBehindBuffer, never()).record(anyString(), any());
                 verify(jwtTokenProvider, never()).generateAccessToken(any(User.class));
                 verify(jwtTokenProvider, never()).generateRefreshToken(any(User.class));
                 verify(refreshTokenService, never()).storeRefreshToken(anyString(), anyString());
@@ -188,9 +190,8 @@ public class LoginUserImplTest {
         @Test
         void loginUser_userAccountDisabled_throwsForbiddenException() {
                 // Arrange — Issue #6: disabled accounts now throw ForbiddenException (403)
+                user.setVerified(false);
                 when(userRepository.findByEmail(loginRequest.email())).thenReturn(Optional.of(user));
-                when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                                .thenThrow(new DisabledException("User account is disabled"));
 
                 // Act & Assert
                 ForbiddenException exception = assertThrows(ForbiddenException.class,
@@ -200,10 +201,10 @@ public class LoginUserImplTest {
                 assertEquals("ACCOUNT_NOT_VERIFIED", exception.getErrorCode());
 
                 verify(loginAttemptsService).checkIfUserBlocked(user);
-                verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
+                verify(passwordVerificationService, never()).matches(anyString(), anyString());
                 verify(loginAttemptsService, never()).recordFailedLoginAttempt(any(User.class));
                 verify(loginAttemptsService, never()).resetLoginAttempts(any(User.class));
-                verify(userRepository, never()).save(any(User.class));
+                verify(lastLoginWriteBehindBuffer, never()).record(anyString(), any());
                 verify(jwtTokenProvider, never()).generateAccessToken(any(User.class));
                 verify(jwtTokenProvider, never()).generateRefreshToken(any(User.class));
                 verify(refreshTokenService, never()).storeRefreshToken(anyString(), anyString());
@@ -212,9 +213,9 @@ public class LoginUserImplTest {
         @Test
         void loginUser_userAccountLocked_throwsForbiddenException() {
                 // Arrange
-                when(userRepository.findByEmail(loginRequest.email())).thenReturn(Optional.of(user));
-                when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                                .thenThrow(new LockedException("User account is locked"));
+                User lockedUser = spy(user);
+                doReturn(false).when(lockedUser).isAccountNonLocked();
+                when(userRepository.findByEmail(loginRequest.email())).thenReturn(Optional.of(lockedUser));
 
                 // Act & Assert
                 ForbiddenException exception = assertThrows(ForbiddenException.class,
@@ -223,8 +224,8 @@ public class LoginUserImplTest {
                                 exception.getMessage());
                 assertEquals("ACCOUNT_LOCKED", exception.getErrorCode());
 
-                verify(loginAttemptsService).checkIfUserBlocked(user);
-                verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
+                verify(loginAttemptsService).checkIfUserBlocked(lockedUser);
+                verify(passwordVerificationService, never()).matches(anyString(), anyString());
                 verify(loginAttemptsService, never()).recordFailedLoginAttempt(any(User.class));
                 verify(jwtTokenProvider, never()).generateAccessToken(any(User.class));
                 verify(jwtTokenProvider, never()).generateRefreshToken(any(User.class));
@@ -235,9 +236,9 @@ public class LoginUserImplTest {
         void loginUser_genericAuthenticationException_throwsUnauthorizedExceptionAndRecordsAttempt() {
                 // Arrange — Issue #6: generic auth failures now throw UnauthorizedException
                 // (401)
-                when(userRepository.findByEmail(loginRequest.email())).thenReturn(Optional.of(user));
-                when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                                .thenThrow(new AuthenticationServiceException("Some other auth error"));
+                User expiredUser = spy(user);
+                doReturn(false).when(expiredUser).isAccountNonExpired();
+                when(userRepository.findByEmail(loginRequest.email())).thenReturn(Optional.of(expiredUser));
 
                 // Act & Assert
                 UnauthorizedException exception = assertThrows(UnauthorizedException.class,
@@ -245,9 +246,8 @@ public class LoginUserImplTest {
                 assertEquals("Authentication failed. Please check your credentials.", exception.getMessage());
                 assertEquals("INVALID_CREDENTIALS", exception.getErrorCode());
 
-                verify(loginAttemptsService).checkIfUserBlocked(user);
-                verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-                verify(loginAttemptsService).recordFailedLoginAttempt(user);
+                verify(loginAttemptsService).checkIfUserBlocked(expiredUser);
+                verify(loginAttemptsService).recordFailedLoginAttempt(expiredUser);
                 verify(jwtTokenProvider, never()).generateAccessToken(any(User.class));
                 verify(jwtTokenProvider, never()).generateRefreshToken(any(User.class));
                 verify(refreshTokenService, never()).storeRefreshToken(anyString(), anyString());
@@ -257,8 +257,7 @@ public class LoginUserImplTest {
         void loginUser_userNotFoundByRequestEmail_throwsUnauthorizedException() {
                 // Arrange — Issue #6: user not found now throws UnauthorizedException (401)
                 when(userRepository.findByEmail(loginRequest.email())).thenReturn(Optional.empty());
-                when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                                .thenThrow(new BadCredentialsException("User not found"));
+                when(passwordVerificationService.matches("password", null)).thenReturn(false);
 
                 // Act & Assert
                 UnauthorizedException exception = assertThrows(UnauthorizedException.class,
@@ -268,7 +267,8 @@ public class LoginUserImplTest {
 
                 verify(userRepository).findByEmail(loginRequest.email());
                 verify(loginAttemptsService, never()).checkIfUserBlocked(any(User.class));
-                verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
+                // Unknown emails still pay for a hash comparison
+                verify(passwordVerificationService).matches("password", null);
                 verify(loginAttemptsService, never()).recordFailedLoginAttempt(any(User.class));
                 verify(responseBuilder, never()).buildUserResponse(any(), any(), anyString());
                 verify(jwtTokenProvider, never()).generateAccessToken(any(User.class));
@@ -297,7 +297,7 @@ public class LoginUserImplTest {
 
                 verify(userRepository).findByEmail(blockedLoginRequest.email());
                 verify(loginAttemptsService).checkIfUserBlocked(blockedUser);
-                verify(authenticationManager, never()).authenticate(any());
+                verify(passwordVerificationService, never()).matches(anyString(), any());
                 verify(loginAttemptsService, never()).recordFailedLoginAttempt(any());
                 verify(loginAttemptsService, never()).resetLoginAttempts(any());
                 verify(jwtTokenProvider, never()).generateAccessToken(any(User.class));
@@ -310,9 +310,7 @@ public class LoginUserImplTest {
         void loginUser_tokenProcessingException_whenJtiIsNull() {
                 // Arrange
                 when(userRepository.findByEmail(loginRequest.email())).thenReturn(Optional.of(user));
-                when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                                .thenReturn(authentication);
-                when(authentication.getPrincipal()).thenReturn(user);
+                when(passwordVerificationService.matches("password", "encodedPassword")).thenReturn(true);
                 when(jwtTokenProvider.generateAccessToken(user)).thenReturn("accessToken");
                 when(jwtTokenProvider.generateRefreshToken(user)).thenReturn("refreshToken");
                 when(jwtTokenProvider.getJtiFromToken("refreshToken")).thenReturn(null);
@@ -323,13 +321,27 @@ public class LoginUserImplTest {
                 assertEquals("Error processing refresh token.", exception.getMessage());
 
                 verify(loginAttemptsService).checkIfUserBlocked(user);
-                verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
+                verify(passwordVerificationService).matches("password", "encodedPassword");
                 verify(loginAttemptsService).resetLoginAttempts(user);
                 verify(jwtTokenProvider).generateAccessToken(user);
                 verify(jwtTokenProvider).generateRefreshToken(user);
                 verify(jwtTokenProvider).getJtiFromToken("refreshToken");
                 verify(refreshTokenService, never()).storeRefreshToken(anyString(), anyString());
-                verify(userRepository, never()).save(user);
+                verify(lastLoginWriteBehindBuffer, never()).record(anyString(), any());
                 verify(responseBuilder, never()).buildUserResponse(any(), any(), anyString());
         }
-}
\ No newline at end of file
+
+        @Test
+        void loginUser_passwordVerificationSaturated_propagatesServiceUnavailable() {
+                // Arrange
+                when(userRepository.findByEmail(loginRequest.email())).thenReturn(Optional.of(user));
+                when(passwordVerificationService.matches("password", "encodedPassword"))
+                                .thenThrow(new ServiceUnavailableException("Too many sign-in requests", 1));
+
+                // Act & Assert
+                assertThrows(ServiceUnavailableException.class, () -> loginUserImpl.loginUser(loginRequest));
+
+                verify(loginAttemptsService, never()).recordFailedLoginAttempt(any(User.class));
+                verify(jwtTokenProvider, never()).generateAccessToken(any(User.class));
+        }
+}
@@ -15,6 +15,7 @@ import com.extractor.unraveldocs.credit.service.CreditBalanceService;
 import com.extractor.unraveldocs.shared.response.ResponseBuilderService;
 import com.extractor.unraveldocs.shared.response.UnravelDocsResponse;
 import com.extractor.unraveldocs.loginattempts.model.LoginAttempts;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiRecorder;
 import com.extractor.unraveldocs.subscription.impl.AssignSubscriptionService;
 import com.extractor.unraveldocs.subscription.model.UserSubscription;
 import com.extractor.unraveldocs.user.model.User;
@@ -68,6 +69,8 @@ class SignupUserImplTest {
         private NotificationService notificationService;
         @Mock
         private CreditBalanceService creditBalanceService;
+        @Mock
+        private KpiRecorder kpiRecorder;
 
         @InjectMocks
         private SignupUserImpl signupUserService;
@@ -96,7 +99,8 @@ class SignupUserImplTest {
                                 userRepository,
                                 Optional.of(elasticsearchIndexingService),
                                 notificationService,
-                                creditBalanceService);
+                                creditBalanceService,
+                                kpiRecorder);
 
                 request = new SignupRequestDto(
                                 "john",
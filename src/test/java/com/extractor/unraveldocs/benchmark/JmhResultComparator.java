@@ -0,0 +1,155 @@
+package com.extractor.unraveldocs.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Compares a JMH JSON result file against a stored baseline and exits non-zero when any
+ * benchmark regressed by more than the threshold.
+ * <p>
+ * Throughput scores must not drop, time-per-operation scores must not rise, and the
+ * normalized allocation rate ({@code gc.alloc.rate.norm}, bytes per operation) must not
+ * rise. Benchmarks present on only one side are reported but never fail the run. When no
+ * baseline exists yet, the current result is saved as the baseline.
+ * <p>
+ * Usage: {@code JmhResultComparator <current.json> <baseline.json> <thresholdPercent>}
+ */
+public final class JmhResultComparator {
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    /**
+     * Allocation below this many bytes per operation is noise (escape analysis flips).
+     */
+    private static final double ALLOCATION_NOISE_FLOOR_BYTES = 64;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private JmhResultComparator() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: JmhResultComparator <current.json> <baseline.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        Path current = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        double thresholdPercent = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        if (!Files.exists(baseline)) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(current, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("No baseline found; saved current results as baseline at " + baseline);
+            return;
+        }
+
+        List<String> regressions = compare(read(current), read(baseline), thresholdPercent);
+        if (!regressions.isEmpty()) {
+            System.err.printf("%d benchmark metric(s) regressed by more than %.1f%%%n", regressions.size(), thresholdPercent);
+            System.exit(1);
+        }
+        System.out.printf("No regressions beyond %.1f%%%n", thresholdPercent);
+    }
+
+    /**
+     * Compare two parsed result sets, print a report, and return the regressed metrics.
+     */
+    static List<String> compare(Map<String, Result> current, Map<String, Result> baseline, double thresholdPercent) {
+        double threshold = thresholdPercent / 100.0;
+        List<String> regressions = new ArrayList<>();
+
+        System.out.printf("%-80s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            String name = entry.getKey();
+            Result now = entry.getValue();
+            Result before = baseline.get(name);
+            if (before == null) {
+                System.out.printf("%-80s %14s %14.3f %9s%n", name, "-", now.score(), "new");
+                continue;
+            }
+
+            double change = relativeChange(before.score(), now.score());
+            boolean higherIsBetter = now.higherIsBetter();
+            boolean regressed = higherIsBetter ? change < -threshold : change > threshold;
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%%%s%n", name + " [" + now.unit() + "]",
+                    before.score(), now.score(), change * 100, regressed ? "  REGRESSION" : "");
+            if (regressed) {
+                regressions.add(name);
+            }
+
+            if (now.allocatedBytesPerOp() != null && before.allocatedBytesPerOp() != null
+                    && now.allocatedBytesPerOp() > ALLOCATION_NOISE_FLOOR_BYTES) {
+                double allocationChange = relativeChange(before.allocatedBytesPerOp(), now.allocatedBytesPerOp());
+                boolean allocationRegressed = allocationChange > threshold;
+                System.out.printf("%-80s %14.0f %14.0f %+8.1f%%%s%n", "  " + ALLOCATION_METRIC + " [B/op]",
+                        before.allocatedBytesPerOp(), now.allocatedBytesPerOp(), allocationChange * 100,
+                        allocationRegressed ? "  REGRESSION" : "");
+                if (allocationRegressed) {
+                    regressions.add(name + ":" + ALLOCATION_METRIC);
+                }
+            }
+        }
+
+        for (String name : baseline.keySet()) {
+            if (!current.containsKey(name)) {
+                System.out.printf("%-80s %14.3f %14s %9s%n", name, baseline.get(name).score(), "-", "missing");
+            }
+        }
+        return regressions;
+    }
+
+    private static double relativeChange(double before, double now) {
+        if (before == 0) {
+            return now == 0 ? 0 : Double.POSITIVE_INFINITY;
+        }
+        return (now - before) / before;
+    }
+
+    static Map<String, Result> read(Path file) throws IOException {
+        return parse(MAPPER.readTree(file.toFile()));
+    }
+
+    static Map<String, Result> parse(JsonNode results) {
+        Map<String, Result> byName = new TreeMap<>();
+        for (JsonNode run : results) {
+            JsonNode primary = run.path("primaryMetric");
+            JsonNode allocation = run.path("secondaryMetrics").path(ALLOCATION_METRIC);
+            Result result = new Result(
+                    primary.path("score").asDouble(),
+                    primary.path("scoreUnit").asText(),
+                    run.path("mode").asText(),
+                    allocation.isMissingNode() ? null : allocation.path("score").asDouble());
+            byName.put(key(run), result);
+        }
+        return byName;
+    }
+
+    private static String key(JsonNode run) {
+        StringBuilder key = new StringBuilder(run.path("benchmark").asText())
+                .append(':').append(run.path("mode").asText());
+        JsonNode params = run.path("params");
+        if (params.isObject()) {
+            List<String> names = new ArrayList<>();
+            params.fieldNames().forEachRemaining(names::add);
+            Collections.sort(names);
+            for (String param : names) {
+                key.append(' ').append(param).append('=').append(params.path(param).asText());
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * One benchmark's primary score plus its normalized allocation, when profiled.
+     */
+    record Result(double score, String unit, String mode, Double allocatedBytesPerOp) {
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.extractor.unraveldocs.benchmark;
+
+import com.extractor.unraveldocs.benchmark.JmhResultComparator.Result;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JmhResultComparatorTest {
+
+    private static final String DOCX = "com.extractor.unraveldocs.wordexport.impl.DocxExportBenchmark.export:thrpt";
+    private static final String PREPROCESS =
+            "com.extractor.unraveldocs.ocrprocessing.preprocessing.ImagePreprocessorBenchmark.processCleanPage:avgt";
+
+    @Test
+    @DisplayName("A throughput drop beyond the threshold is a regression")
+    void throughputDropBeyondThresholdRegresses() {
+        Map<String, Result> baseline = Map.of(DOCX, throughput(1000, 4096.0));
+        Map<String, Result> current = Map.of(DOCX, throughput(850, 4096.0));
+
+        assertThat(JmhResultComparator.compare(current, baseline, 10)).containsExactly(DOCX);
+        assertThat(JmhResultComparator.compare(current, baseline, 20)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A slower time per operation and more bytes per operation are both regressions")
+    void averageTimeAndAllocationIncreasesRegress() {
+        Map<String, Result> baseline = Map.of(PREPROCESS, averageTime(100, 10_000.0));
+        Map<String, Result> current = Map.of(PREPROCESS, averageTime(125, 12_000.0));
+
+        assertThat(JmhResultComparator.compare(current, baseline, 10))
+                .containsExactly(PREPROCESS, PREPROCESS + ":gc.alloc.rate.norm");
+    }
+
+    @Test
+    @DisplayName("Improvements in either direction never fail the run")
+    void improvementsDoNotRegress() {
+        Map<String, Result> baseline = Map.of(
+                DOCX, throughput(1000, 4096.0),
+                PREPROCESS, averageTime(100, 10_000.0));
+        Map<String, Result> current = Map.of(
+                DOCX, throughput(1500, 2048.0),
+                PREPROCESS, averageTime(60, 8_000.0));
+
+        assertThat(JmhResultComparator.compare(current, baseline, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Benchmarks on only one side are reported but not failed")
+    void benchmarkMissingFromBaselineIsNotARegression() {
+        Map<String, Result> baseline = Map.of(DOCX, throughput(1000, null));
+        Map<String, Result> current = Map.of(PREPROCESS, averageTime(100, null));
+
+        assertThat(JmhResultComparator.compare(current, baseline, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Allocation below the noise floor is ignored")
+    void allocationBelowNoiseFloorIsIgnored() {
+        Map<String, Result> baseline = Map.of(DOCX, throughput(1000, 16.0));
+        Map<String, Result> current = Map.of(DOCX, throughput(1000, 48.0));
+
+        assertThat(JmhResultComparator.compare(current, baseline, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Results are keyed by benchmark, mode and sorted parameters")
+    void parseKeysByBenchmarkModeAndParams() throws Exception {
+        String json = """
+                [{"benchmark": "com.example.Bench.run", "mode": "avgt",
+                  "params": {"size": "10", "format": "png"},
+                  "primaryMetric": {"score": 12.5, "scoreUnit": "ms/op"},
+                  "secondaryMetrics": {"gc.alloc.rate.norm": {"score": 2048.0}}}]
+                """;
+
+        Map<String, Result> results = JmhResultComparator.parse(new ObjectMapper().readTree(json));
+
+        assertThat(results).containsOnlyKeys("com.example.Bench.run:avgt format=png size=10");
+        Result result = results.values().iterator().next();
+        assertThat(result.score()).isEqualTo(12.5);
+        assertThat(result.unit()).isEqualTo("ms/op");
+        assertThat(result.higherIsBetter()).isFalse();
+        assertThat(result.allocatedBytesPerOp()).isEqualTo(2048.0);
+    }
+
+    private static Result throughput(double opsPerSecond, Double bytesPerOp) {
+        return new Result(opsPerSecond, "ops/s", "thrpt", bytesPerOp);
+    }
+
+    private static Result averageTime(double millisPerOp, Double bytesPerOp) {
+        return new Result(millisPerOp, "ms/op", "avgt", bytesPerOp);
+    }
+}
@@ -0,0 +1,70 @@
+package com.extractor.unraveldocs.brokers.outbox;
+
+import com.extractor.unraveldocs.brokers.config.MessagingProperties;
+import com.extractor.unraveldocs.brokers.outbox.repository.OutboxRepository;
+import com.extractor.unraveldocs.brokers.outbox.service.OutboxPartitionMaintainer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxPartitionMaintainerTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    private MeterRegistry meterRegistry;
+    private OutboxPartitionMaintainer maintainer;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        MessagingProperties messagingProperties = new MessagingProperties();
+        messagingProperties.getOutbox().setPartitionsAhead(1);
+        meterRegistry = new SimpleMeterRegistry();
+        maintainer = new OutboxPartitionMaintainer(outboxRepository, messagingProperties, meterRegistry);
+        today = LocalDate.now(ZoneOffset.UTC);
+        lenient().when(outboxRepository.listPartitions()).thenReturn(List.of());
+    }
+
+    @Test
+    @DisplayName("Should move rows out of the default partition when creating a day that landed there")
+    void shouldCreatePartitionFromDefaultRows() {
+        when(outboxRepository.partitionExists(any())).thenReturn(false);
+        when(outboxRepository.defaultHasRows(today)).thenReturn(true);
+        when(outboxRepository.createDailyPartitionFromDefault(today)).thenReturn(12);
+
+        maintainer.maintain();
+
+        verify(outboxRepository).createDailyPartitionFromDefault(today);
+        verify(outboxRepository, never()).createDailyPartition(today);
+        verify(outboxRepository).createDailyPartition(today.plusDays(1));
+    }
+
+    @Test
+    @DisplayName("Should count failed partition creation")
+    void shouldCountCreateFailures() {
+        when(outboxRepository.partitionExists(any())).thenReturn(true);
+        doThrow(new IllegalStateException("updated partition constraint for default partition would be violated"))
+                .when(outboxRepository).createDailyPartition(today);
+
+        maintainer.maintain();
+
+        verify(outboxRepository).createDailyPartition(today.plusDays(1));
+        assertThat(meterRegistry.get("outbox.partition.failures").tag("operation", "create").counter().count())
+                .isEqualTo(1);
+    }
+}
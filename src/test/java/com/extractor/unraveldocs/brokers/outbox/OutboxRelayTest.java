@@ -0,0 +1,182 @@
+package com.extractor.unraveldocs.brokers.outbox;
+
+import com.extractor.unraveldocs.brokers.config.MessagingProperties;
+import com.extractor.unraveldocs.brokers.outbox.model.OutboxEvent;
+import com.extractor.unraveldocs.brokers.outbox.repository.OutboxRepository;
+import com.extractor.unraveldocs.brokers.outbox.service.OutboxRelay;
+import com.extractor.unraveldocs.user.events.UserDeletionScheduledEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private MessagingProperties messagingProperties;
+    private MeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        messagingProperties = new MessagingProperties();
+        messagingProperties.getOutbox().setBatchSize(2);
+        messagingProperties.getOutbox().setSendTimeoutSeconds(1);
+        meterRegistry = new SimpleMeterRegistry();
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(outboxRepository.pendingStats())
+                .thenReturn(new OutboxRepository.PendingStats(0, null));
+
+        relay = new OutboxRelay(outboxRepository, kafkaTemplate, transactionTemplate,
+                new ObjectMapper(), messagingProperties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should send locked events in order and mark them published")
+    void shouldRelayBatchInOrder() {
+        when(outboxRepository.lockUnpublished(2)).thenReturn(List.of(row(1L), row(2L)), List.of());
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(acknowledged());
+
+        relay.relay();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<ProducerRecord<String, Object>> records = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(records.capture());
+        ProducerRecord<String, Object> first = records.getAllValues().getFirst();
+        assertThat(first.topic()).isEqualTo("unraveldocs-users");
+        assertThat(first.key()).isEqualTo("corr-1");
+        assertThat(first.value()).isInstanceOf(UserDeletionScheduledEvent.class);
+        assertThat(new String(first.headers().lastHeader("message-id").value(), StandardCharsets.UTF_8))
+                .isEqualTo("msg-1");
+        assertThat(new String(first.headers().lastHeader("event-type").value(), StandardCharsets.UTF_8))
+                .isEqualTo("UserDeletionScheduled");
+
+        verify(outboxRepository).markPublished(List.of(1L, 2L));
+        assertThat(meterRegistry.get("outbox.events").tag("result", "published").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should leave unacknowledged events for the next poll")
+    void shouldLeaveFailedEventsUnpublished() {
+        when(outboxRepository.lockUnpublished(2)).thenReturn(List.of(row(1L), row(2L)));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(acknowledged())
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+
+        relay.relay();
+
+        verify(outboxRepository).markPublished(List.of(1L));
+        // A failed batch ends the poll instead of locking the next one
+        verify(outboxRepository, times(1)).lockUnpublished(anyInt());
+        assertThat(meterRegistry.get("outbox.events").tag("result", "failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not publish events of a key past its first failed event")
+    void shouldStopKeyAtFirstFailure() {
+        messagingProperties.getOutbox().setBatchSize(3);
+        OutboxEvent first = row(1L, "corr-a");
+        OutboxEvent other = row(2L, "corr-b");
+        OutboxEvent sameKey = row(3L, "corr-a");
+        when(outboxRepository.lockUnpublished(3)).thenReturn(List.of(first, other, sameKey));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")))
+                .thenReturn(acknowledged())
+                .thenReturn(acknowledged());
+
+        relay.relay();
+
+        // corr-a's later event was acknowledged but must wait for the failed one to be resent first
+        verify(outboxRepository).markPublished(List.of(2L));
+        assertThat(meterRegistry.get("outbox.events").tag("result", "failed").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should send the payload as a map when its class cannot be loaded")
+    void shouldFallBackToMapPayload() {
+        OutboxEvent unknownType = new OutboxEvent(3L, OffsetDateTime.now(), "msg-3", "unraveldocs-users",
+                "corr-3", "UserDeletionScheduled", "com.example.RemovedEvent", "{\"email\":\"a@b.c\"}");
+        when(outboxRepository.lockUnpublished(2)).thenReturn(List.of(unknownType));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(acknowledged());
+
+        relay.relay();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<ProducerRecord<String, Object>> record = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(record.capture());
+        assertThat(record.getValue().value()).isEqualTo(Map.of("email", "a@b.c"));
+        verify(outboxRepository).markPublished(List.of(3L));
+    }
+
+    @Test
+    @DisplayName("Should report the age of the oldest unpublished event")
+    void shouldExposeLag() {
+        when(outboxRepository.lockUnpublished(2)).thenReturn(List.of());
+        when(outboxRepository.pendingStats())
+                .thenReturn(new OutboxRepository.PendingStats(42, OffsetDateTime.now().minusSeconds(30)));
+
+        relay.relay();
+
+        assertThat(meterRegistry.get("outbox.pending").gauge().value()).isEqualTo(42);
+        assertThat(meterRegistry.get("outbox.lag.seconds").gauge().value()).isBetween(29.0, 40.0);
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    @DisplayName("Should do nothing when the relay is disabled")
+    void shouldSkipWhenDisabled() {
+        messagingProperties.getOutbox().setRelayEnabled(false);
+
+        relay.relay();
+
+        verifyNoInteractions(outboxRepository, kafkaTemplate);
+    }
+
+    private OutboxEvent row(long id) {
+        return row(id, "corr-" + id);
+    }
+
+    private OutboxEvent row(long id, String key) {
+        return new OutboxEvent(id, OffsetDateTime.now(), "msg-" + id, "unraveldocs-users", key,
+                "UserDeletionScheduled", UserDeletionScheduledEvent.class.getName(),
+                "{\"email\":\"user" + id + "@example.com\",\"firstName\":\"Test\"}");
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<SendResult<String, Object>> acknowledged() {
+        return CompletableFuture.completedFuture(mock(SendResult.class));
+    }
+}
@@ -0,0 +1,114 @@
+package com.extractor.unraveldocs.brokers.outbox;
+
+import com.extractor.unraveldocs.brokers.kafka.events.BaseEvent;
+import com.extractor.unraveldocs.brokers.kafka.events.EventMetadata;
+import com.extractor.unraveldocs.brokers.outbox.model.OutboxEvent;
+import com.extractor.unraveldocs.brokers.outbox.repository.OutboxRepository;
+import com.extractor.unraveldocs.brokers.outbox.service.OutboxService;
+import com.extractor.unraveldocs.user.events.UserDeletionScheduledEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = new OutboxService(outboxRepository, new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should insert immediately when no transaction is active")
+    void shouldInsertImmediatelyWithoutTransaction() {
+        outboxService.enqueue("users", event("corr-1"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutboxEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).insertAll(captor.capture());
+
+        OutboxEvent written = captor.getValue().getFirst();
+        assertThat(written.topic()).isEqualTo("users");
+        assertThat(written.messageKey()).isEqualTo("corr-1");
+        assertThat(written.eventType()).isEqualTo("UserDeletionScheduled");
+        assertThat(written.payloadType()).isEqualTo(UserDeletionScheduledEvent.class.getName());
+        assertThat(written.payload()).contains("\"email\":\"user@example.com\"");
+        assertThat(written.messageId()).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("Should write all events of a transaction as one batch before commit")
+    void shouldBatchEventsUntilCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        outboxService.enqueue("users", event("corr-1"));
+        outboxService.enqueue("users", event("corr-2"));
+        outboxService.enqueue("users", event("corr-3"));
+
+        verify(outboxRepository, never()).insertAll(anyList());
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertThat(synchronizations).hasSize(1);
+
+        synchronizations.getFirst().beforeCommit(false);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutboxEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository, times(1)).insertAll(captor.capture());
+        assertThat(captor.getValue()).extracting(OutboxEvent::messageKey)
+                .containsExactly("corr-1", "corr-2", "corr-3");
+    }
+
+    @Test
+    @DisplayName("Should write nothing when the transaction rolls back")
+    void shouldDiscardEventsOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        outboxService.enqueue("users", event("corr-1"));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verifyNoInteractions(outboxRepository);
+    }
+
+    private BaseEvent<UserDeletionScheduledEvent> event(String correlationId) {
+        return BaseEvent.<UserDeletionScheduledEvent>builder()
+                .metadata(EventMetadata.builder()
+                        .eventType("UserDeletionScheduled")
+                        .eventSource("DeleteUserImpl")
+                        .eventTimestamp(System.currentTimeMillis())
+                        .correlationId(correlationId)
+                        .build())
+                .payload(UserDeletionScheduledEvent.builder()
+                        .email("user@example.com")
+                        .firstName("Test")
+                        .lastName("User")
+                        .build())
+                .build();
+    }
+}
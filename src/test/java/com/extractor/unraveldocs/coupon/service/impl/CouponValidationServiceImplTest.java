@@ -6,8 +6,13 @@ import com.extractor.unraveldocs.coupon.dto.request.ApplyCouponRequest;
 import com.extractor.unraveldocs.coupon.dto.response.CouponValidationResponse;
 import com.extractor.unraveldocs.coupon.dto.response.DiscountCalculationData;
 import com.extractor.unraveldocs.coupon.enums.RecipientCategory;
+import com.extractor.unraveldocs.coupon.exception.InvalidCouponException;
 import com.extractor.unraveldocs.coupon.helpers.CouponMapper;
 import com.extractor.unraveldocs.coupon.model.Coupon;
+import com.extractor.unraveldocs.coupon.model.CouponUsage;
+import com.extractor.unraveldocs.coupon.redemption.CouponRedemptionStore;
+import com.extractor.unraveldocs.coupon.redemption.CouponRedemptionStore.ReservationOutcome;
+import com.extractor.unraveldocs.coupon.redemption.CouponUsageReconciler;
 import com.extractor.unraveldocs.coupon.repository.CouponRecipientRepository;
 import com.extractor.unraveldocs.coupon.repository.CouponRepository;
 import com.extractor.unraveldocs.coupon.repository.CouponUsageRepository;
@@ -28,9 +33,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.lenient;
@@ -54,6 +61,12 @@ class CouponValidationServiceImplTest {
     @Mock
     private CouponMapper couponMapper;
 
+    @Mock
+    private CouponRedemptionStore redemptionStore;
+
+    @Mock
+    private CouponUsageReconciler usageReconciler;
+
     @Mock
     private SanitizeLogging sanitizer;
 
@@ -237,7 +250,6 @@ class CouponValidationServiceImplTest {
             when(couponUsageRepository.countByCouponIdAndUserId(anyString(), anyString())).thenReturn(0);
             when(userSubscriptionRepository.findByUserId(testUser.getId()))
                     .thenReturn(Optional.of(activeSubscription));
-            when(couponMapper.toCouponData(validCoupon)).thenReturn(mock(CouponData.class));
 
             // Act
             DiscountCalculationData result = validationService.applyCouponToAmount(request, testUser);
@@ -263,4 +275,92 @@ class CouponValidationServiceImplTest {
                     () -> validationService.applyCouponToAmount(request, testUser));
         }
     }
+
+    // ========== Redemption Tests ==========
+
+    @Nested
+    @DisplayName("Redemption Tests")
+    class RedemptionTests {
+
+        @Test
+        @DisplayName("Should load the coupon once when applying it")
+        void applyCoupon_readsCouponOnce() {
+            ApplyCouponRequest request = ApplyCouponRequest.builder()
+                    .couponCode("VALID20")
+                    .amount(new BigDecimal("100.00"))
+                    .build();
+            when(couponRepository.findByCode("VALID20")).thenReturn(Optional.of(validCoupon));
+            when(couponUsageRepository.countByCouponIdAndUserId(anyString(), anyString())).thenReturn(0);
+            when(userSubscriptionRepository.findByUserId(testUser.getId()))
+                    .thenReturn(Optional.of(activeSubscription));
+
+            DiscountCalculationData result = validationService.applyCouponToAmount(request, testUser);
+
+            assertEquals(new BigDecimal("80.00"), result.getFinalAmount());
+            verify(couponRepository, times(1)).findByCode("VALID20");
+        }
+
+        @Test
+        @DisplayName("Should reject a checkout when no usage slot is left")
+        void reserve_failure_limitReached() {
+            when(couponRepository.findByCode("VALID20")).thenReturn(Optional.of(validCoupon));
+            when(redemptionStore.reserve(validCoupon, testUser.getId(), "ref-1"))
+                    .thenReturn(ReservationOutcome.TOTAL_LIMIT_REACHED);
+
+            assertThrows(InvalidCouponException.class,
+                    () -> validationService.reserveCouponUsage("valid20", testUser, "ref-1"));
+        }
+
+        @Test
+        @DisplayName("Should let a checkout through when the redemption store is unavailable")
+        void reserve_storeUnavailable() {
+            when(couponRepository.findByCode("VALID20")).thenReturn(Optional.of(validCoupon));
+            when(redemptionStore.reserve(validCoupon, testUser.getId(), "ref-1"))
+                    .thenReturn(ReservationOutcome.UNAVAILABLE);
+
+            assertDoesNotThrow(() -> validationService.reserveCouponUsage("VALID20", testUser, "ref-1"));
+        }
+
+        @Test
+        @DisplayName("Should record usage and confirm the slot without writing the coupon row")
+        void recordUsage_confirmsReservation() {
+            when(couponUsageRepository.existsByCouponIdAndPaymentReference("coupon-id-123", "ref-1"))
+                    .thenReturn(false);
+            when(redemptionStore.confirm("coupon-id-123", testUser.getId(), "ref-1")).thenReturn(true);
+
+            validationService.recordCouponUsage(validCoupon, testUser,
+                    new BigDecimal("100.00"), new BigDecimal("80.00"), "ref-1", null);
+
+            verify(couponUsageRepository).save(any(CouponUsage.class));
+            verify(redemptionStore).confirm("coupon-id-123", testUser.getId(), "ref-1");
+            verify(couponRepository, never()).save(any());
+            verifyNoInteractions(usageReconciler);
+        }
+
+        @Test
+        @DisplayName("Should reconcile the coupon directly when the slot cannot be confirmed")
+        void recordUsage_reconcilesWhenStoreUnavailable() {
+            when(couponUsageRepository.existsByCouponIdAndPaymentReference("coupon-id-123", "ref-1"))
+                    .thenReturn(false);
+            when(redemptionStore.confirm("coupon-id-123", testUser.getId(), "ref-1")).thenReturn(false);
+
+            validationService.recordCouponUsage(validCoupon, testUser,
+                    new BigDecimal("100.00"), new BigDecimal("80.00"), "ref-1", null);
+
+            verify(usageReconciler).reconcile(List.of("coupon-id-123"));
+        }
+
+        @Test
+        @DisplayName("Should ignore a payment whose usage is already recorded")
+        void recordUsage_duplicatePayment() {
+            when(couponUsageRepository.existsByCouponIdAndPaymentReference("coupon-id-123", "ref-1"))
+                    .thenReturn(true);
+
+            validationService.recordCouponUsage(validCoupon, testUser,
+                    new BigDecimal("100.00"), new BigDecimal("80.00"), "ref-1", null);
+
+            verify(couponUsageRepository, never()).save(any());
+            verifyNoInteractions(redemptionStore);
+        }
+    }
 }
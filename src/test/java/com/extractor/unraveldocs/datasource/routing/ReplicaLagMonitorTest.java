@@ -0,0 +1,84 @@
+package com.extractor.unraveldocs.datasource.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaLagMonitorTest {
+
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection connection;
+    @Mock
+    private Statement statement;
+    @Mock
+    private ResultSet resultSet;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaPool replica;
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        replica = new ReplicaPool("one", dataSource);
+        monitor = new ReplicaLagMonitor(List.of(replica), new ReadYourWritesTracker(5000), 2000, meterRegistry);
+    }
+
+    private void givenLag(double lagMs) throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(ReplicaLagMonitor.LAG_QUERY)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(lagMs);
+    }
+
+    @Test
+    void replicaWithinLagLimitServesReads() throws SQLException {
+        givenLag(150);
+
+        monitor.checkReplicas();
+
+        assertTrue(replica.isHealthy());
+        assertEquals(150, replica.getLagMs());
+        assertEquals(150.0, meterRegistry.get("db.replica.lag").tag("replica", "one").gauge().value());
+        assertEquals(1.0, meterRegistry.get("db.replica.healthy").tag("replica", "one").gauge().value());
+        verify(statement).setQueryTimeout(1);
+    }
+
+    @Test
+    void replicaBeyondLagLimitIsSkipped() throws SQLException {
+        replica.setHealthy(true);
+        givenLag(4500);
+
+        monitor.checkReplicas();
+
+        assertFalse(replica.isHealthy());
+        assertEquals(4500, replica.getLagMs());
+    }
+
+    @Test
+    void unreachableReplicaIsSkipped() throws SQLException {
+        replica.setHealthy(true);
+        when(dataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        monitor.checkReplicas();
+
+        assertFalse(replica.isHealthy());
+    }
+}
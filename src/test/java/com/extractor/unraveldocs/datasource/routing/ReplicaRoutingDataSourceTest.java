@@ -0,0 +1,159 @@
+package com.extractor.unraveldocs.datasource.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource replicaOneSource;
+    @Mock
+    private DataSource replicaTwoSource;
+    @Mock
+    private Connection primaryConnection;
+    @Mock
+    private Connection replicaOneConnection;
+    @Mock
+    private Connection replicaTwoConnection;
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private SimpleMeterRegistry meterRegistry;
+    private ReadYourWritesTracker tracker;
+    private ReplicaPool replicaOne;
+    private ReplicaPool replicaTwo;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new ReadYourWritesTracker(5000, clock::get);
+        replicaOne = new ReplicaPool("one", replicaOneSource);
+        replicaTwo = new ReplicaPool("two", replicaTwoSource);
+        replicaOne.setHealthy(true);
+        replicaTwo.setHealthy(true);
+        routingDataSource = new ReplicaRoutingDataSource(
+                primary, List.of(replicaOne, replicaTwo), tracker, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticateAs(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+
+    private double reads(String target, String reason) {
+        return meterRegistry.get("db.routing.reads").tag("target", target).tag("reason", reason).counter().count();
+    }
+
+    @Test
+    void readsAlternateBetweenHealthyReplicas() throws SQLException {
+        when(replicaOneSource.getConnection()).thenReturn(replicaOneConnection);
+        when(replicaTwoSource.getConnection()).thenReturn(replicaTwoConnection);
+
+        assertSame(replicaOneConnection, routingDataSource.getConnection());
+        assertSame(replicaTwoConnection, routingDataSource.getConnection());
+        assertSame(replicaOneConnection, routingDataSource.getConnection());
+
+        verifyNoInteractions(primary);
+        assertEquals(2.0, reads("one", "replica"));
+    }
+
+    @Test
+    void laggingReplicaIsSkipped() throws SQLException {
+        replicaOne.setHealthy(false);
+        when(replicaTwoSource.getConnection()).thenReturn(replicaTwoConnection);
+
+        assertSame(replicaTwoConnection, routingDataSource.getConnection());
+        assertSame(replicaTwoConnection, routingDataSource.getConnection());
+
+        verifyNoInteractions(replicaOneSource);
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenNoReplicaIsHealthy() throws SQLException {
+        replicaOne.setHealthy(false);
+        replicaTwo.setHealthy(false);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        assertEquals(1.0, reads("primary", "no_healthy_replica"));
+    }
+
+    @Test
+    void unreachableReplicaIsMarkedDownAndPrimaryServesTheRead() throws SQLException {
+        replicaTwo.setHealthy(false);
+        when(replicaOneSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        assertFalse(replicaOne.isHealthy());
+        assertEquals(1.0, reads("primary", "replica_unreachable"));
+    }
+
+    @Test
+    void userWhoJustWroteReadsFromPrimaryUntilWindowCloses() throws SQLException {
+        authenticateAs("writer@example.com");
+        tracker.recordWrite();
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaOneSource.getConnection()).thenReturn(replicaOneConnection);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        assertEquals(1.0, reads("primary", "read_your_writes"));
+
+        clock.addAndGet(5000);
+        assertSame(replicaOneConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void otherUsersAreNotPinnedBySomeoneElsesWrite() throws SQLException {
+        authenticateAs("writer@example.com");
+        tracker.recordWrite();
+        authenticateAs("reader@example.com");
+        when(replicaOneSource.getConnection()).thenReturn(replicaOneConnection);
+
+        assertSame(replicaOneConnection, routingDataSource.getConnection());
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void anonymousWritesAreNotTracked() {
+        tracker.recordWrite();
+
+        assertFalse(tracker.isPinnedToPrimary());
+        assertEquals(0, tracker.pinnedUsers());
+    }
+
+    @Test
+    void evictExpiredDropsClosedWindows() {
+        authenticateAs("writer@example.com");
+        tracker.recordWrite();
+        clock.addAndGet(6000);
+
+        tracker.evictExpired();
+
+        assertEquals(0, tracker.pinnedUsers());
+    }
+}
@@ -0,0 +1,128 @@
+package com.extractor.unraveldocs.documents.probe;
+
+import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentProbeServiceTest {
+
+    private final DocumentProbeService probeService = new DocumentProbeService(new SanitizeLogging());
+
+    @Test
+    @DisplayName("probe records page count, text layer, dimensions and hash of a PDF")
+    void probesPdf() throws Exception {
+        byte[] pdf = pdfWithTextAndBlankPage();
+
+        DocumentProbe probe = probeService.probe(
+                new MockMultipartFile("files", "mixed.pdf", "application/pdf", pdf));
+
+        assertThat(probe.pageCount()).isEqualTo(2);
+        assertThat(probe.pdfEncrypted()).isFalse();
+        assertThat(probe.contentHash()).isEqualTo(sha256(pdf));
+        assertThat(probe.pages()).extracting(PageProbe::textLayer).containsExactly(true, false);
+        assertThat(probe.pages().getFirst().widthPt()).isEqualTo(PDRectangle.A4.getWidth());
+        assertThat(probe.textLayerPages()).containsExactly(0);
+        assertThat(probe.allHaveTextLayer(List.of(0))).isTrue();
+        assertThat(probe.allHaveTextLayer(null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("probe reads image dimensions without decoding and counts one page")
+    void probesImage() throws Exception {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(40, 30, BufferedImage.TYPE_INT_RGB), "png", png);
+
+        DocumentProbe probe = probeService.probe(
+                new MockMultipartFile("files", "scan.png", "image/png", png.toByteArray()));
+
+        assertThat(probe.pageCount()).isEqualTo(1);
+        assertThat(probe.contentHash()).isEqualTo(sha256(png.toByteArray()));
+        assertThat(probe.pages()).containsExactly(new PageProbe(40, 30, false, null));
+    }
+
+    @Test
+    @DisplayName("probe hands the open PDF and its hash to the handler, and only for PDFs it opens")
+    void handsOpenPdfToHandler() throws Exception {
+        byte[] pdf = pdfWithTextAndBlankPage();
+        List<String> hashes = new ArrayList<>();
+        List<Integer> pageCounts = new ArrayList<>();
+        DocumentProbeService.OpenPdfHandler handler = (document, contentHash) -> {
+            hashes.add(contentHash);
+            pageCounts.add(document.getNumberOfPages());
+        };
+
+        probeService.probe(new MockMultipartFile("files", "mixed.pdf", "application/pdf", pdf), handler);
+        probeService.probe(new MockMultipartFile("files", "broken.pdf", "application/pdf", "x".getBytes()), handler);
+        DocumentProbe probe = probeService.probe(
+                new MockMultipartFile("files", "mixed.pdf", "application/pdf", pdf),
+                (document, contentHash) -> {
+                    throw new IllegalStateException("render failed");
+                });
+
+        assertThat(hashes).containsExactly(sha256(pdf));
+        assertThat(pageCounts).containsExactly(2);
+        assertThat(probe.pageCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("probe hashes files it cannot parse and records no pages")
+    void probesUnpagedAndBrokenFiles() {
+        byte[] text = "plain text".getBytes();
+        DocumentProbe unpaged = probeService.probe(
+                new MockMultipartFile("files", "notes.txt", "text/plain", text));
+        DocumentProbe broken = probeService.probe(
+                new MockMultipartFile("files", "broken.pdf", "application/pdf", text));
+
+        assertThat(unpaged.pageCount()).isNull();
+        assertThat(unpaged.contentHash()).isEqualTo(sha256(text));
+        assertThat(broken.pageCount()).isNull();
+        assertThat(broken.contentHash()).isEqualTo(sha256(text));
+        assertThat(broken.textLayerPages()).isEqualTo(Set.of());
+    }
+
+    private static byte[] pdfWithTextAndBlankPage() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage textPage = new PDPage(PDRectangle.A4);
+            document.addPage(textPage);
+            try (PDPageContentStream content = new PDPageContentStream(document, textPage)) {
+                content.beginText();
+                content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                content.newLineAtOffset(72, 720);
+                content.showText("Invoice 42");
+                content.endText();
+            }
+            document.addPage(new PDPage(PDRectangle.A4));
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.extractor.unraveldocs.documents.service;
+
+import com.extractor.unraveldocs.documents.datamodel.DocumentStatus;
+import com.extractor.unraveldocs.documents.datamodel.DocumentUploadState;
+import com.extractor.unraveldocs.documents.datamodel.UploadSessionStatus;
+import com.extractor.unraveldocs.documents.dto.response.DocumentCollectionUploadData;
+import com.extractor.unraveldocs.documents.model.DocumentCollection;
+import com.extractor.unraveldocs.documents.model.UploadSession;
+import com.extractor.unraveldocs.documents.model.UploadSessionFile;
+import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
+import com.extractor.unraveldocs.documents.repository.UploadSessionRepository;
+import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiRecorder;
+import com.extractor.unraveldocs.ocrprocessing.events.OcrEventMapper;
+import com.extractor.unraveldocs.ocrprocessing.events.OcrEventPublisher;
+import com.extractor.unraveldocs.ocrprocessing.repository.OcrDataRepository;
+import com.extractor.unraveldocs.pushnotification.interfaces.NotificationService;
+import com.extractor.unraveldocs.storage.service.StorageAllocationService;
+import com.extractor.unraveldocs.user.model.User;
+import com.extractor.unraveldocs.utils.imageupload.aws.AwsS3Service;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UploadSessionFinalizerTest {
+
+    @Mock
+    private UploadSessionRepository uploadSessionRepository;
+    @Mock
+    private DocumentCollectionRepository documentCollectionRepository;
+    @Mock
+    private OcrDataRepository ocrDataRepository;
+    @Mock
+    private OcrEventPublisher ocrEventPublisher;
+    @Mock
+    private OcrEventMapper ocrEventMapper;
+    @Mock
+    private AwsS3Service awsS3Service;
+    @Mock
+    private StorageAllocationService storageAllocationService;
+    @Mock
+    private NotificationService notificationService;
+    @Mock
+    private KpiRecorder kpiRecorder;
+    @Mock
+    private SanitizeLogging s;
+
+    private UploadSessionFinalizer finalizer;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+        finalizer = new UploadSessionFinalizer(uploadSessionRepository, documentCollectionRepository,
+                ocrDataRepository, Optional.of(ocrEventPublisher), ocrEventMapper, awsS3Service,
+                storageAllocationService, notificationService, kpiRecorder, s);
+
+        user = new User();
+        user.setId("user-1");
+        lenient().when(awsS3Service.getFileUrl(anyString())).thenAnswer(inv -> "https://bucket/" + inv.getArgument(0));
+        lenient().when(documentCollectionRepository.saveAndFlush(any(DocumentCollection.class))).thenAnswer(inv -> {
+            DocumentCollection collection = inv.getArgument(0);
+            collection.setId("collection-1");
+            return collection;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("Should create a collection from verified uploads and queue OCR")
+    void finalizeSession_createsCollectionFromVerifiedUploads() {
+        UploadSession session = session(true,
+                file("a.pdf", "k1", 100, null, 1),
+                file("b.pdf", "k2", 300, "upload-2", 2));
+        List<CompletedPart> parts = List.of(
+                CompletedPart.builder().partNumber(1).eTag("e1").build(),
+                CompletedPart.builder().partNumber(2).eTag("e2").build());
+        when(awsS3Service.headObject("k1")).thenReturn(Optional.of(head(100, "application/pdf")));
+        when(awsS3Service.listUploadedParts("k2", "upload-2")).thenReturn(parts);
+        when(awsS3Service.headObject("k2")).thenReturn(Optional.of(head(300, "application/pdf")));
+
+        DocumentCollectionUploadData data = finalizer.finalizeSession("session-1", "user-1", true);
+
+        assertEquals("collection-1", data.getCollectionId());
+        assertEquals(DocumentStatus.PROCESSING, data.getOverallStatus());
+        assertEquals(UploadSessionStatus.COMPLETED, session.getStatus());
+        assertEquals("collection-1", session.getCollectionId());
+        verify(awsS3Service).completeMultipartUpload("k2", "upload-2", parts);
+
+        ArgumentCaptor<DocumentCollection> collection = ArgumentCaptor.forClass(DocumentCollection.class);
+        verify(documentCollectionRepository).saveAndFlush(collection.capture());
+        assertEquals(2, collection.getValue().getFiles().size());
+        assertEquals("https://bucket/k2", collection.getValue().getFiles().get(1).getFileUrl());
+        verify(storageAllocationService).updateStorageUsed(user, 400);
+        verify(ocrDataRepository).saveAll(argThat(list -> ((List<?>) list).size() == 2));
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+    }
+
+    @Test
+    @DisplayName("Should reject an object whose size differs from the declared size")
+    void finalizeSession_rejectsSizeMismatch() {
+        UploadSession session = session(false,
+                file("a.pdf", "k1", 100, null, 1),
+                file("b.pdf", "k2", 200, null, 1));
+        when(awsS3Service.headObject("k1")).thenReturn(Optional.of(head(100, "application/pdf")));
+        when(awsS3Service.headObject("k2")).thenReturn(Optional.of(head(999, "application/pdf")));
+
+        DocumentCollectionUploadData data = finalizer.finalizeSession("session-1", "user-1", true);
+
+        assertEquals(DocumentStatus.PARTIALLY_COMPLETED, data.getOverallStatus());
+        assertEquals(DocumentUploadState.FAILED_VALIDATION.toString(), session.getFiles().get(1).getStatus());
+        verify(awsS3Service).deleteFiles(List.of("https://bucket/k2"));
+        verify(storageAllocationService).updateStorageUsed(user, 100);
+        verifyNoInteractions(ocrDataRepository);
+    }
+
+    @Test
+    @DisplayName("Should keep waiting for missing parts unless forced")
+    void finalizeSession_waitsForMissingParts() {
+        UploadSession session = session(false, file("b.pdf", "k2", 300, "upload-2", 3));
+        when(awsS3Service.listUploadedParts("k2", "upload-2"))
+                .thenReturn(List.of(CompletedPart.builder().partNumber(1).eTag("e1").build()));
+
+        assertNull(finalizer.finalizeSession("session-1", "user-1", false));
+
+        assertEquals(UploadSessionStatus.OPEN, session.getStatus());
+        assertTrue(session.getFiles().getFirst().isPending());
+        verify(awsS3Service, never()).completeMultipartUpload(anyString(), anyString(), anyList());
+        verifyNoInteractions(documentCollectionRepository);
+    }
+
+    @Test
+    @DisplayName("Should expire a session with no uploads once its time is up")
+    void finalizeSession_expiresEmptySession() {
+        UploadSession session = session(false, file("a.pdf", "k1", 100, null, 1));
+        session.setExpiresAt(OffsetDateTime.now().minusMinutes(1));
+        when(awsS3Service.headObject("k1")).thenReturn(Optional.empty());
+
+        DocumentCollectionUploadData data = finalizer.finalizeSession("session-1", "user-1", true);
+
+        assertEquals(DocumentStatus.FAILED_UPLOAD, data.getOverallStatus());
+        assertEquals(UploadSessionStatus.EXPIRED, session.getStatus());
+        assertEquals(DocumentUploadState.FAILED_STORAGE_UPLOAD.toString(), session.getFiles().getFirst().getStatus());
+        verifyNoInteractions(documentCollectionRepository, storageAllocationService);
+    }
+
+    @Test
+    @DisplayName("Should return the earlier result when a completed session is completed again")
+    void finalizeSession_isIdempotent() {
+        UploadSessionFile uploaded = file("a.pdf", "k1", 100, null, 1);
+        uploaded.setStatus(DocumentUploadState.SUCCESS.toString());
+        UploadSession session = session(false, uploaded);
+        session.setStatus(UploadSessionStatus.COMPLETED);
+        session.setCollectionId("collection-1");
+
+        DocumentCollectionUploadData data = finalizer.finalizeSession("session-1", "user-1", true);
+
+        assertEquals("collection-1", data.getCollectionId());
+        assertEquals(DocumentStatus.COMPLETED, data.getOverallStatus());
+        verify(awsS3Service, never()).headObject(anyString());
+        verifyNoInteractions(documentCollectionRepository);
+    }
+
+    private UploadSession session(boolean extractText, UploadSessionFile... files) {
+        UploadSession session = UploadSession.builder()
+                .id("session-1")
+                .user(user)
+                .extractText(extractText)
+                .status(UploadSessionStatus.OPEN)
+                .expiresAt(OffsetDateTime.now().plusHours(1))
+                .files(new ArrayList<>(List.of(files)))
+                .build();
+        when(uploadSessionRepository.findByIdForUpdate("session-1")).thenReturn(Optional.of(session));
+        return session;
+    }
+
+    private static UploadSessionFile file(String name, String key, long size, String uploadId, int parts) {
+        return UploadSessionFile.builder()
+                .originalFileName(name)
+                .storageKey(key)
+                .contentType("application/pdf")
+                .declaredSize(size)
+                .multipartUploadId(uploadId)
+                .partCount(parts)
+                .build();
+    }
+
+    private static HeadObjectResponse head(long size, String contentType) {
+        return HeadObjectResponse.builder().contentLength(size).contentType(contentType).build();
+    }
+}
@@ -50,6 +50,7 @@ class ClearAllCollectionsImplTest {
         List<DocumentCollection> collections = List.of(collection1, collection2);
 
         when(documentCollectionRepository.findAllByUserId(userId)).thenReturn(collections);
+        when(documentCollectionRepository.findUnsharedPreviewUrlsByUserId(userId)).thenReturn(List.of("preview1"));
         doNothing().when(awsS3Service).deleteFile(anyString());
         doNothing().when(documentCollectionRepository).deleteAllByUserId(userId);
 
@@ -61,6 +62,8 @@ class ClearAllCollectionsImplTest {
         verify(awsS3Service).deleteFile("url1");
         verify(awsS3Service).deleteFile("url2");
         verify(awsS3Service).deleteFile("url3");
+        verify(documentCollectionRepository).findUnsharedPreviewUrlsByUserId(userId);
+        verify(awsS3Service).deleteFiles(List.of("preview1"));
         verify(documentCollectionRepository).deleteAllByUserId(userId);
         verifyNoMoreInteractions(awsS3Service, documentCollectionRepository);
     }
@@ -4,6 +4,7 @@ import com.extractor.unraveldocs.auth.datamodel.Role;
 import com.extractor.unraveldocs.documents.datamodel.DocumentStatus;
 import com.extractor.unraveldocs.documents.datamodel.DocumentUploadState;
 import com.extractor.unraveldocs.documents.impl.DocumentDeleteImpl;
+import com.extractor.unraveldocs.documents.interfaces.DocumentPreviewService;
 import com.extractor.unraveldocs.documents.model.DocumentCollection;
 import com.extractor.unraveldocs.documents.model.FileEntry;
 import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
@@ -45,6 +46,9 @@ public class DocumentDeleteImplTest {
     @Mock
     private StorageAllocationService storageAllocationService;
 
+    @Mock
+    private DocumentPreviewService documentPreviewService;
+
     @InjectMocks
     private DocumentDeleteImpl documentDeleteService;
 
@@ -168,6 +172,7 @@ public class DocumentDeleteImplTest {
 
         // Assert
         verify(awsS3Service).deleteFile(urlToRemove);
+        verify(documentPreviewService).deleteUnreferencedPreviews(List.of(fileToRemove));
 
         ArgumentCaptor<DocumentCollection> collectionCaptor = ArgumentCaptor.forClass(DocumentCollection.class);
         verify(documentCollectionRepository).save(collectionCaptor.capture());
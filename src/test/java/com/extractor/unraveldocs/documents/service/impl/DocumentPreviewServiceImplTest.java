@@ -0,0 +1,145 @@
+package com.extractor.unraveldocs.documents.service.impl;
+
+import com.extractor.unraveldocs.documents.datamodel.DocumentUploadState;
+import com.extractor.unraveldocs.documents.impl.DocumentPreviewServiceImpl;
+import com.extractor.unraveldocs.documents.model.DocumentCollection;
+import com.extractor.unraveldocs.documents.model.FileEntry;
+import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
+import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import com.extractor.unraveldocs.exceptions.custom.ForbiddenException;
+import com.extractor.unraveldocs.exceptions.custom.NotFoundException;
+import com.extractor.unraveldocs.user.model.User;
+import com.extractor.unraveldocs.utils.imageupload.rendition.RenditionProfile;
+import com.extractor.unraveldocs.utils.imageupload.rendition.RenditionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentPreviewServiceImplTest {
+
+    @Mock
+    private DocumentCollectionRepository documentCollectionRepository;
+    @Mock
+    private RenditionService renditionService;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private SanitizeLogging s;
+    @Mock
+    private Cache cache;
+
+    private DocumentPreviewServiceImpl previewService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        previewService = new DocumentPreviewServiceImpl(documentCollectionRepository, renditionService, cacheManager, s);
+        user = new User();
+        user.setId("user-1");
+    }
+
+    @Test
+    @DisplayName("Returns the stored preview without rendering")
+    void getPreviewUrl_existingPreview() {
+        FileEntry entry = storedEntry("doc-1");
+        entry.setPreviewUrl("https://bucket.s3/renditions/previews/abc-480.jpg");
+        when(documentCollectionRepository.findById("col-1")).thenReturn(Optional.of(collection(entry)));
+
+        String url = previewService.getPreviewUrl("col-1", "doc-1", "user-1");
+
+        assertEquals("https://bucket.s3/renditions/previews/abc-480.jpg", url);
+        verifyNoInteractions(renditionService);
+        verify(documentCollectionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Generates a missing preview from the stored file and evicts cached views")
+    void getPreviewUrl_generatesLazily() {
+        FileEntry entry = storedEntry("doc-1");
+        DocumentCollection collection = collection(entry);
+        when(documentCollectionRepository.findById("col-1")).thenReturn(Optional.of(collection));
+        when(renditionService.createRenditionFromStored(entry.getFileUrl(), "application/pdf", 2048L,
+                RenditionProfile.DOCUMENT_PREVIEW)).thenReturn(Optional.of("https://bucket.s3/preview.jpg"));
+        when(cacheManager.getCache(anyString())).thenReturn(cache);
+
+        String url = previewService.getPreviewUrl("col-1", "doc-1", "user-1");
+
+        assertEquals("https://bucket.s3/preview.jpg", url);
+        assertEquals("https://bucket.s3/preview.jpg", entry.getPreviewUrl());
+        verify(documentCollectionRepository).save(collection);
+        verify(cache).evict("col-1");
+        verify(cache).evict("col-1-doc-1");
+    }
+
+    @Test
+    @DisplayName("Encrypted documents get no preview")
+    void getPreviewUrl_encrypted() {
+        FileEntry entry = storedEntry("doc-1");
+        entry.setEncrypted(true);
+        when(documentCollectionRepository.findById("col-1")).thenReturn(Optional.of(collection(entry)));
+
+        assertThrows(NotFoundException.class, () -> previewService.getPreviewUrl("col-1", "doc-1", "user-1"));
+        verifyNoInteractions(renditionService);
+    }
+
+    @Test
+    @DisplayName("Rejects previews of another user's documents")
+    void getPreviewUrl_forbidden() {
+        when(documentCollectionRepository.findById("col-1")).thenReturn(Optional.of(collection(storedEntry("doc-1"))));
+
+        assertThrows(ForbiddenException.class, () -> previewService.getPreviewUrl("col-1", "doc-1", "user-2"));
+    }
+
+    @Test
+    @DisplayName("Deletes only previews no remaining document shares")
+    void deleteUnreferencedPreviews_keepsSharedPreviews() {
+        FileEntry unshared = storedEntry("doc-1");
+        unshared.setPreviewUrl("https://bucket.s3/unshared.jpg");
+        FileEntry shared = storedEntry("doc-2");
+        shared.setPreviewUrl("https://bucket.s3/shared.jpg");
+        FileEntry noPreview = storedEntry("doc-3");
+        List<String> removedIds = List.of("doc-1", "doc-2", "doc-3");
+        when(documentCollectionRepository.countPreviewReferences("https://bucket.s3/unshared.jpg", removedIds))
+                .thenReturn(0L);
+        when(documentCollectionRepository.countPreviewReferences("https://bucket.s3/shared.jpg", removedIds))
+                .thenReturn(1L);
+
+        previewService.deleteUnreferencedPreviews(List.of(unshared, shared, noPreview));
+
+        verify(renditionService).deleteRendition("https://bucket.s3/unshared.jpg");
+        verify(renditionService, never()).deleteRendition("https://bucket.s3/shared.jpg");
+    }
+
+    private FileEntry storedEntry(String documentId) {
+        return FileEntry.builder()
+                .documentId(documentId)
+                .originalFileName(documentId + ".pdf")
+                .fileUrl("https://bucket.s3/documents/" + documentId + ".pdf")
+                .fileType("application/pdf")
+                .fileSize(2048L)
+                .uploadStatus(DocumentUploadState.SUCCESS.toString())
+                .build();
+    }
+
+    private DocumentCollection collection(FileEntry... entries) {
+        return DocumentCollection.builder()
+                .id("col-1")
+                .user(user)
+                .files(new ArrayList<>(List.of(entries)))
+                .build();
+    }
+}
@@ -12,6 +12,7 @@ import com.extractor.unraveldocs.documents.model.FileEntry;
 import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
 import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
 import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiRecorder;
 import com.extractor.unraveldocs.ocrprocessing.utils.FileStorageService;
 import com.extractor.unraveldocs.user.model.User;
 import com.extractor.unraveldocs.utils.imageupload.FileUploadValidationUtil;
@@ -64,6 +65,8 @@ class DocumentUploadImplTest {
 
         @Mock
         private com.extractor.unraveldocs.subscription.service.SubscriptionFeatureService subscriptionFeatureService;
+        @Mock
+        private KpiRecorder kpiRecorder;
 
         @InjectMocks
         private DocumentUploadImpl documentUploadService;
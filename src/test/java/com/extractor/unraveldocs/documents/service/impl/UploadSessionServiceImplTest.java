@@ -0,0 +1,184 @@
+package com.extractor.unraveldocs.documents.service.impl;
+
+import com.extractor.unraveldocs.documents.config.UploadSessionProperties;
+import com.extractor.unraveldocs.documents.datamodel.UploadMethod;
+import com.extractor.unraveldocs.documents.datamodel.UploadSessionStatus;
+import com.extractor.unraveldocs.documents.dto.request.CreateUploadSessionRequest;
+import com.extractor.unraveldocs.documents.dto.response.DocumentCollectionResponse;
+import com.extractor.unraveldocs.documents.dto.response.UploadSessionData;
+import com.extractor.unraveldocs.documents.impl.UploadSessionServiceImpl;
+import com.extractor.unraveldocs.documents.model.UploadSession;
+import com.extractor.unraveldocs.documents.model.UploadSessionFile;
+import com.extractor.unraveldocs.documents.repository.UploadSessionRepository;
+import com.extractor.unraveldocs.documents.service.UploadSessionFinalizer;
+import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import com.extractor.unraveldocs.exceptions.custom.ForbiddenException;
+import com.extractor.unraveldocs.storage.service.StorageAllocationService;
+import com.extractor.unraveldocs.user.model.User;
+import com.extractor.unraveldocs.utils.imageupload.aws.AwsS3Service;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UploadSessionServiceImplTest {
+    private static final long MB = 1024 * 1024;
+
+    @Mock
+    private UploadSessionRepository uploadSessionRepository;
+    @Mock
+    private UploadSessionFinalizer uploadSessionFinalizer;
+    @Mock
+    private AwsS3Service awsS3Service;
+    @Mock
+    private StorageAllocationService storageAllocationService;
+    @Mock
+    private SanitizeLogging s;
+
+    private UploadSessionProperties properties;
+    private UploadSessionServiceImpl uploadSessionService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UploadSessionProperties();
+        uploadSessionService = new UploadSessionServiceImpl(uploadSessionRepository, uploadSessionFinalizer,
+                awsS3Service, storageAllocationService, properties, s);
+
+        user = new User();
+        user.setId("user-1");
+    }
+
+    @Test
+    @DisplayName("Should presign a single PUT for small files and parts for large files")
+    void createSession_presignsSingleAndMultipartUploads() {
+        when(awsS3Service.generateFileName(anyString(), any())).thenAnswer(inv -> "documents/" + inv.getArgument(0));
+        when(awsS3Service.presignPut(anyString(), anyString(), anyLong(), any(Duration.class))).thenReturn("https://put");
+        when(awsS3Service.createMultipartUpload(anyString(), anyString())).thenReturn("upload-1");
+        when(awsS3Service.presignUploadPart(anyString(), eq("upload-1"), anyInt(), anyLong(), any(Duration.class)))
+                .thenAnswer(inv -> "https://part/" + inv.getArgument(2));
+        when(uploadSessionRepository.save(any(UploadSession.class))).thenAnswer(inv -> {
+            UploadSession session = inv.getArgument(0);
+            session.setId("session-1");
+            return session;
+        });
+
+        long largeSize = 100 * MB;
+        CreateUploadSessionRequest request = new CreateUploadSessionRequest("Scans", true, List.of(
+                new CreateUploadSessionRequest.UploadFile("small.pdf", "application/pdf", 2 * MB),
+                new CreateUploadSessionRequest.UploadFile("large.pdf", "application/pdf", largeSize)));
+
+        DocumentCollectionResponse<UploadSessionData> response = uploadSessionService.createSession(request, user);
+
+        assertEquals(HttpStatus.CREATED.value(), response.getStatusCode());
+        UploadSessionData data = response.getData();
+        assertEquals("session-1", data.getSessionId());
+        assertEquals(UploadSessionStatus.OPEN, data.getStatus());
+
+        UploadSessionData.UploadTarget small = data.getFiles().get(0);
+        assertEquals(UploadMethod.SINGLE, small.getMethod());
+        assertEquals("https://put", small.getUploadUrl());
+        verify(awsS3Service).presignPut("documents/small.pdf", "application/pdf", 2 * MB,
+                Duration.ofMinutes(properties.getTtlMinutes()));
+
+        UploadSessionData.UploadTarget large = data.getFiles().get(1);
+        assertEquals(UploadMethod.MULTIPART, large.getMethod());
+        assertEquals(7, large.getParts().size());
+        assertEquals("https://part/7", large.getParts().get(6).getUploadUrl());
+        // Last part carries the remainder: 100 MB = 6 x 16 MB + 4 MB
+        verify(awsS3Service).presignUploadPart(eq("documents/large.pdf"), eq("upload-1"), eq(7), eq(4 * MB), any());
+
+        ArgumentCaptor<UploadSession> saved = ArgumentCaptor.forClass(UploadSession.class);
+        verify(uploadSessionRepository).save(saved.capture());
+        UploadSessionFile largeFile = saved.getValue().getFiles().get(1);
+        assertEquals("upload-1", largeFile.getMultipartUploadId());
+        assertEquals(7, largeFile.getPartCount());
+        assertTrue(saved.getValue().isExtractText());
+        verify(storageAllocationService).checkStorageAvailable(user, 2 * MB + largeSize);
+    }
+
+    @Test
+    @DisplayName("Should reject unsupported content types before presigning")
+    void createSession_rejectsInvalidContentType() {
+        CreateUploadSessionRequest request = new CreateUploadSessionRequest(null, false, List.of(
+                new CreateUploadSessionRequest.UploadFile("clip.mp4", "video/mp4", MB)));
+
+        assertThrows(BadRequestException.class, () -> uploadSessionService.createSession(request, user));
+        verifyNoInteractions(awsS3Service, uploadSessionRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject files above the configured size limit")
+    void createSession_rejectsOversizedFile() {
+        CreateUploadSessionRequest request = new CreateUploadSessionRequest(null, false, List.of(
+                new CreateUploadSessionRequest.UploadFile("huge.pdf", "application/pdf",
+                        (properties.getMaxFileSizeMb() + 1) * MB)));
+
+        assertThrows(BadRequestException.class, () -> uploadSessionService.createSession(request, user));
+        verifyNoInteractions(awsS3Service);
+    }
+
+    @Test
+    @DisplayName("Should reject sessions with too many files")
+    void createSession_rejectsTooManyFiles() {
+        List<CreateUploadSessionRequest.UploadFile> files = new ArrayList<>(Collections.nCopies(
+                properties.getMaxFilesPerSession() + 1,
+                new CreateUploadSessionRequest.UploadFile("page.png", "image/png", MB)));
+
+        assertThrows(BadRequestException.class,
+                () -> uploadSessionService.createSession(new CreateUploadSessionRequest(null, false, files), user));
+    }
+
+    @Test
+    @DisplayName("Should abort multipart uploads and delete objects when a session is aborted")
+    void abortSession_releasesUploads() {
+        UploadSession session = UploadSession.builder()
+                .id("session-1")
+                .user(user)
+                .status(UploadSessionStatus.OPEN)
+                .expiresAt(OffsetDateTime.now().plusHours(1))
+                .files(new ArrayList<>(List.of(
+                        UploadSessionFile.builder().originalFileName("a.pdf").storageKey("k1").build(),
+                        UploadSessionFile.builder().originalFileName("b.pdf").storageKey("k2")
+                                .multipartUploadId("upload-2").partCount(3).build())))
+                .build();
+        when(uploadSessionRepository.findByIdForUpdate("session-1")).thenReturn(Optional.of(session));
+        when(awsS3Service.getFileUrl(anyString())).thenAnswer(inv -> "https://bucket/" + inv.getArgument(0));
+
+        uploadSessionService.abortSession("session-1", user);
+
+        assertEquals(UploadSessionStatus.ABORTED, session.getStatus());
+        verify(awsS3Service).abortMultipartUpload("k2", "upload-2");
+        verify(awsS3Service).deleteFiles(List.of("https://bucket/k1", "https://bucket/k2"));
+    }
+
+    @Test
+    @DisplayName("Should not let another user abort a session")
+    void abortSession_rejectsOtherUser() {
+        User owner = new User();
+        owner.setId("owner");
+        UploadSession session = UploadSession.builder().id("session-1").user(owner)
+                .status(UploadSessionStatus.OPEN).build();
+        when(uploadSessionRepository.findByIdForUpdate("session-1")).thenReturn(Optional.of(session));
+
+        assertThrows(ForbiddenException.class, () -> uploadSessionService.abortSession("session-1", user));
+        verifyNoInteractions(awsS3Service);
+    }
+}
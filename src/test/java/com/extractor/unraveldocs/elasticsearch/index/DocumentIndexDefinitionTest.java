@@ -0,0 +1,70 @@
+package com.extractor.unraveldocs.elasticsearch.index;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DocumentIndexDefinitionTest {
+    private static final String SETTINGS = """
+            {"index": {"number_of_shards": 1, "analysis": {"analyzer": {"standard": {"type": "standard"}}}}}
+            """;
+    private static final Map<String, Object> MAPPING = Map.of(
+            "properties", Map.of("userId", Map.of("type", "keyword")));
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should keep the version when only shards or replicas change")
+    void versionIgnoresShardsAndReplicas() {
+        DocumentIndexDefinition six = DocumentIndexDefinition.of("documents", SETTINGS, MAPPING, 6, 48, 1, mapper);
+        DocumentIndexDefinition twelve = DocumentIndexDefinition.of("documents", SETTINGS, MAPPING, 12, 48, 2, mapper);
+
+        assertThat(twelve.version()).isEqualTo(six.version());
+        assertThat(six.indexName()).isEqualTo("documents-" + six.version() + "-6");
+        assertThat(six.indexName(12)).isEqualTo(twelve.indexName());
+        assertThat(six.isVersionOf(twelve.indexName())).isTrue();
+        assertThat(six.isVersionOf("documents")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should change the version when the mapping or routing shards change")
+    void versionFollowsDefinition() {
+        DocumentIndexDefinition base = DocumentIndexDefinition.of("documents", SETTINGS, MAPPING, 6, 48, 1, mapper);
+        Map<String, Object> changedMapping = Map.of(
+                "properties", Map.of("userId", Map.of("type", "keyword"), "tags", Map.of("type", "keyword")));
+
+        assertThat(DocumentIndexDefinition.of("documents", SETTINGS, changedMapping, 6, 48, 1, mapper).version())
+                .isNotEqualTo(base.version());
+        assertThat(DocumentIndexDefinition.of("documents", SETTINGS, MAPPING, 6, 96, 1, mapper).version())
+                .isNotEqualTo(base.version());
+    }
+
+    @Test
+    @DisplayName("Should require routing and use the configured shard layout")
+    void bodyRequiresRouting() throws Exception {
+        DocumentIndexDefinition definition = DocumentIndexDefinition.of("documents", SETTINGS, MAPPING, 6, 48, 1, mapper);
+
+        JsonNode body = mapper.readTree(definition.body());
+        assertThat(body.at("/mappings/_routing/required").asBoolean()).isTrue();
+        assertThat(body.at("/mappings/_meta/version").asText()).isEqualTo(definition.version());
+        assertThat(body.at("/settings/index/number_of_shards").asInt()).isEqualTo(6);
+        assertThat(body.at("/settings/index/number_of_routing_shards").asInt()).isEqualTo(48);
+        assertThat(body.at("/settings/index/number_of_replicas").asInt()).isEqualTo(1);
+        assertThat(body.at("/settings/index/analysis/analyzer/standard/type").asText()).isEqualTo("standard");
+    }
+
+    @Test
+    @DisplayName("Should reject routing shards that are not a multiple of shards")
+    void rejectsInvalidRoutingShards() {
+        assertThatThrownBy(() -> DocumentIndexDefinition.of("documents", SETTINGS, MAPPING, 6, 40, 1, mapper))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DocumentIndexDefinition.of("documents", SETTINGS, MAPPING, 6, 3, 1, mapper))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,138 @@
+package com.extractor.unraveldocs.elasticsearch.query;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.extractor.unraveldocs.elasticsearch.document.PaymentSearchIndex;
+import com.extractor.unraveldocs.elasticsearch.dto.SearchRequest;
+import com.extractor.unraveldocs.elasticsearch.dto.SearchResponse;
+import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CursorSearchExecutorTest {
+    private static final Set<String> SORT_FIELDS = Set.of("createdAt", "paidAt");
+    private static final Query QUERY = Query.of(q -> q.matchAll(m -> m));
+
+    @Mock
+    private ElasticsearchOperations operations;
+
+    @Mock
+    private SearchHits<PaymentSearchIndex> hits;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CursorSearchExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new CursorSearchExecutor(operations, objectMapper);
+    }
+
+    @Test
+    @DisplayName("Should open a point in time, return aggregations and a cursor on the first page")
+    void firstPage() {
+        IndexCoordinates index = IndexCoordinates.of("payments");
+        when(operations.getIndexCoordinatesFor(PaymentSearchIndex.class)).thenReturn(index);
+        when(operations.openPointInTime(eq(index), any(Duration.class))).thenReturn("pit-1");
+        stubHits(2, 5, "pit-2");
+        Aggregate currency = Aggregate.of(a -> a.sterms(t -> t.buckets(b -> b.array(List.of(
+                StringTermsBucket.of(k -> k.key("USD").docCount(3)
+                        .aggregations(CursorSearchExecutor.TOTAL_AGGREGATION, s -> s.sum(v -> v.value(120.5)))),
+                StringTermsBucket.of(k -> k.key("NGN").docCount(2)
+                        .aggregations(CursorSearchExecutor.TOTAL_AGGREGATION, s -> s.sum(v -> v.value(9000.0)))))))));
+        doReturn(new ElasticsearchAggregations(Map.of("currency", currency))).when(hits).getAggregations();
+
+        SearchResponse<PaymentSearchIndex> response = executor.search(PaymentSearchIndex.class,
+                SearchRequest.builder().size(2).sortBy("paidAt").build(), QUERY, SORT_FIELDS,
+                Map.of("currency", SearchAggregations.facetWithTotal("currency", 20, "amount")));
+
+        ArgumentCaptor<NativeQuery> captor = ArgumentCaptor.forClass(NativeQuery.class);
+        verify(operations).search(captor.capture(), eq(PaymentSearchIndex.class));
+        assertThat(captor.getValue().getPointInTime().id()).isEqualTo("pit-1");
+        assertThat(captor.getValue().getAggregations()).containsKey("currency");
+
+        assertThat(response.getResults()).hasSize(2);
+        assertThat(response.getTotalHits()).isEqualTo(5);
+        assertThat(response.getTotalPages()).isEqualTo(3);
+        assertThat(response.getFacets().get("currency")).containsEntry("USD", 3L).containsEntry("NGN", 2L);
+        assertThat(response.getTotals().get("currency")).containsEntry("USD", 120.5);
+
+        SearchCursor cursor = SearchCursor.decode(response.getNextCursor(), objectMapper);
+        assertThat(cursor.pointInTimeId()).isEqualTo("pit-2");
+        assertThat(cursor.page()).isEqualTo(1);
+        verify(operations, never()).closePointInTime(any());
+    }
+
+    @Test
+    @DisplayName("Should continue after the cursor without aggregations and close the point in time on the last page")
+    void lastPageFromCursor() {
+        String cursor = new SearchCursor("pit-2", List.of(1700000000000L, 7), 2).encode(objectMapper);
+        stubHits(1, 5, "pit-3");
+
+        SearchResponse<PaymentSearchIndex> response = executor.search(PaymentSearchIndex.class,
+                SearchRequest.builder().size(2).cursor(cursor).build(), QUERY, SORT_FIELDS,
+                Map.of("currency", SearchAggregations.facet("currency", 20)));
+
+        ArgumentCaptor<NativeQuery> captor = ArgumentCaptor.forClass(NativeQuery.class);
+        verify(operations).search(captor.capture(), eq(PaymentSearchIndex.class));
+        assertThat(captor.getValue().getPointInTime().id()).isEqualTo("pit-2");
+        assertThat(captor.getValue().getSearchAfter()).hasSize(2);
+        assertThat(captor.getValue().getAggregations()).isEmpty();
+        verify(operations, never()).openPointInTime(any(), any());
+
+        assertThat(response.getPage()).isEqualTo(2);
+        assertThat(response.getNextCursor()).isNull();
+        verify(operations).closePointInTime("pit-3");
+    }
+
+    @Test
+    @DisplayName("Should reject unsupported sort fields and malformed cursors")
+    void rejectsInvalidInput() {
+        assertThatThrownBy(() -> executor.search(PaymentSearchIndex.class,
+                SearchRequest.builder().sortBy("userName").build(), QUERY, SORT_FIELDS, Map.of()))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> executor.search(PaymentSearchIndex.class,
+                SearchRequest.builder().cursor("not-a-cursor").build(), QUERY, SORT_FIELDS, Map.of()))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(operations);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubHits(int count, long total, String pointInTimeId) {
+        List<SearchHit<PaymentSearchIndex>> searchHits = new java.util.ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SearchHit<PaymentSearchIndex> hit = mock(SearchHit.class);
+            lenient().when(hit.getContent()).thenReturn(PaymentSearchIndex.builder().id("p" + i).build());
+            lenient().when(hit.getSortValues()).thenReturn(List.of(1700000000000L + i, i));
+            searchHits.add(hit);
+        }
+        when(operations.search(any(NativeQuery.class), eq(PaymentSearchIndex.class))).thenReturn(hits);
+        when(hits.getSearchHits()).thenReturn(searchHits);
+        when(hits.getTotalHits()).thenReturn(total);
+        when(hits.getPointInTimeId()).thenReturn(pointInTimeId);
+    }
+}
@@ -0,0 +1,70 @@
+package com.extractor.unraveldocs.elasticsearch.query;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchFiltersTest {
+    private static final Set<String> ALLOWED = Set.of("role", "isActive", "country");
+
+    @Test
+    @DisplayName("Should build one clause per filter so filters combine")
+    void combinesFilters() {
+        Map<String, Object> filters = new LinkedHashMap<>();
+        filters.put("role", "ADMIN");
+        filters.put("isActive", true);
+        filters.put("country", List.of("NG", "GH"));
+
+        List<Query> clauses = SearchFilters.of(filters, ALLOWED);
+
+        assertThat(clauses).hasSize(3);
+        assertThat(clauses.get(0).term().field()).isEqualTo("role");
+        assertThat(clauses.get(0).term().value().stringValue()).isEqualTo("ADMIN");
+        assertThat(clauses.get(1).term().value().booleanValue()).isTrue();
+        assertThat(clauses.get(2).terms().field()).isEqualTo("country");
+        assertThat(clauses.get(2).terms().terms().value()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should skip null and empty filter values")
+    void skipsEmptyValues() {
+        Map<String, Object> filters = new LinkedHashMap<>();
+        filters.put("role", null);
+        filters.put("country", List.of());
+
+        assertThat(SearchFilters.of(filters, ALLOWED)).isEmpty();
+        assertThat(SearchFilters.of(null, ALLOWED)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject filters on fields that are not allowed")
+    void rejectsUnknownFilter() {
+        assertThatThrownBy(() -> SearchFilters.of(Map.of("password", "x"), ALLOWED))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("password");
+    }
+
+    @Test
+    @DisplayName("Should build an open-ended date range")
+    void buildsDateRange() {
+        OffsetDateTime from = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+
+        List<Query> clauses = SearchFilters.dateRange("paidAt", from, null);
+
+        assertThat(clauses).hasSize(1);
+        assertThat(clauses.getFirst().range().date().field()).isEqualTo("paidAt");
+        assertThat(clauses.getFirst().range().date().gte()).isEqualTo(from.toString());
+        assertThat(clauses.getFirst().range().date().lte()).isNull();
+        assertThat(SearchFilters.dateRange("paidAt", null, null)).isEmpty();
+    }
+}
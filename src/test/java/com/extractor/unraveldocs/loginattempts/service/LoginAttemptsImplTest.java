@@ -1,5 +1,6 @@
 package com.extractor.unraveldocs.loginattempts.service;
 
+import com.extractor.unraveldocs.auth.config.LoginProperties;
 import com.extractor.unraveldocs.exceptions.custom.ForbiddenException;
 import com.extractor.unraveldocs.loginattempts.model.LoginAttempts;
 import com.extractor.unraveldocs.loginattempts.repository.LoginAttemptsRepository;
@@ -8,272 +9,217 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class LoginAttemptsImplTest {
 
+    private static final String FAILURES_KEY = "login:failures:1";
+    private static final String LOCK_KEY = "login:lock:1";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
     @Mock
     private LoginAttemptsRepository loginAttemptsRepository;
 
-    @InjectMocks
     private LoginAttemptsImpl loginAttemptsService;
 
     private User user;
 
     @BeforeEach
     void setUp() {
+        loginAttemptsService = new LoginAttemptsImpl(redisTemplate, loginAttemptsRepository, new LoginProperties());
+
         user = new User();
         user.setId("1");
         user.setEmail("test@example.com");
     }
 
-    @Test
-    void checkIfUserBlocked_whenUserNotFound_shouldNotThrowException() {
-        when(loginAttemptsRepository.findByUser(user)).thenReturn(Optional.empty());
-        assertDoesNotThrow(() -> loginAttemptsService.checkIfUserBlocked(user));
-    }
-
-    @Test
-    void checkIfUserBlocked_whenUserNotBlocked_shouldNotThrowException() {
-        LoginAttempts attempts = new LoginAttempts();
-        attempts.setUser(user);
-        attempts.setBlocked(false);
-        when(loginAttemptsRepository.findByUser(user)).thenReturn(Optional.of(attempts));
-        assertDoesNotThrow(() -> loginAttemptsService.checkIfUserBlocked(user));
+    @SuppressWarnings("unchecked")
+    private void givenFailureCount(long count) {
+        when(redisTemplate.execute(any(RedisScript.class),
+                argThat((List<String> keys) -> keys.size() == 2 && keys.get(0).equals(FAILURES_KEY)
+                        && keys.get(1).startsWith("login:failed-total:")),
+                anyString(), anyString()))
+                .thenReturn(count);
     }
 
     @Test
-    void checkIfUserBlocked_whenUserBlockedAndBlockExpired_shouldNotThrowException() {
-        LoginAttempts attempts = new LoginAttempts();
-        attempts.setUser(user);
-        attempts.setBlocked(true);
-        attempts.setBlockedUntil(LocalDateTime.now().minusDays(1));
-        when(loginAttemptsRepository.findByUser(user)).thenReturn(Optional.of(attempts));
+    void checkIfUserBlocked_whenNoLockKey_shouldNotThrowException() {
+        when(redisTemplate.getExpire(LOCK_KEY, TimeUnit.SECONDS)).thenReturn(-2L);
         assertDoesNotThrow(() -> loginAttemptsService.checkIfUserBlocked(user));
+        verifyNoInteractions(loginAttemptsRepository);
     }
 
     @Test
     void checkIfUserBlocked_whenUserBlocked_DaysRemaining_shouldThrowForbiddenException() {
-        LoginAttempts attempts = new LoginAttempts();
-        attempts.setUser(user);
-        attempts.setBlocked(true);
-        attempts.setBlockedUntil(LocalDateTime.now().plusDays(2).plusHours(1));
-        when(loginAttemptsRepository.findByUser(user)).thenReturn(Optional.of(attempts));
+        when(redisTemplate.getExpire(LOCK_KEY, TimeUnit.SECONDS))
+                .thenReturn(Duration.ofDays(2).plusHours(1).toSeconds());
 
         ForbiddenException exception = assertThrows(ForbiddenException.class,
                 () -> loginAttemptsService.checkIfUserBlocked(user));
-        String expectedMessagePart = "Your account is temporarily locked. Try again in 2 days";
-        assertTrue(exception.getMessage().contains(expectedMessagePart),
-                "Exception message was: " + exception.getMessage() + ", expected to contain: " + expectedMessagePart);
+        assertEquals("Your account is temporarily locked. Try again in 2 days.", exception.getMessage());
     }
 
     @Test
     void checkIfUserBlocked_whenUserBlocked_HoursRemaining_shouldThrowForbiddenException() {
-        LoginAttempts attempts = new LoginAttempts();
-        attempts.setUser(user);
-        attempts.setBlocked(true);
-        attempts.setBlockedUntil(LocalDateTime.now().plusHours(3).plusMinutes(10));
-        when(loginAttemptsRepository.findByUser(user)).thenReturn(Optional.of(attempts));
+        when(redisTemplate.getExpire(LOCK_KEY, TimeUnit.SECONDS))
+                .thenReturn(Duration.ofHours(1).plusMinutes(30).toSeconds());
 
         ForbiddenException exception = assertThrows(ForbiddenException.class,
                 () -> loginAttemptsService.checkIfUserBlocked(user));
-        String expectedMessagePart = "Your account is temporarily locked. Try again in 3 hours";
-        assertTrue(exception.getMessage().contains(expectedMessagePart),
-                "Exception message was: " + exception.getMessage() + ", expected to contain: " + expectedMessagePart);
+        assertEquals("Your account is temporarily locked. Try again in 1 hour.", exception.getMessage());
     }
 
     @Test
-    void checkIfUserBlocked_whenUserBlocked_MinutesRemaining_shouldThrowForbiddenException() {
-        LoginAttempts attempts = new LoginAttempts();
-        attempts.setUser(user);
-        attempts.setBlocked(true);
-        attempts.setBlockedUntil(LocalDateTime.now().plusMinutes(30).plusSeconds(10));
-        when(loginAttemptsRepository.findByUser(user)).thenReturn(Optional.of(attempts));
+    void checkIfUserBlocked_whenUserBlocked_LessThanOneMinuteRemaining_shouldThrowWithOneMinute() {
+        when(redisTemplate.getExpire(LOCK_KEY, TimeUnit.SECONDS)).thenReturn(30L);
 
         ForbiddenException exception = assertThrows(ForbiddenException.class,
                 () -> loginAttemptsService.checkIfUserBlocked(user));
-        String expectedMessagePart = "Your account is temporarily locked. Try again in 30 minutes";
-        assertTrue(exception.getMessage().contains(expectedMessagePart),
-                "Exception message was: " + exception.getMessage() + ", expected to contain: " + expectedMessagePart);
+        assertEquals("Your account is temporarily locked. Try again in 1 minute.", exception.getMessage());
     }
 
     @Test
-    void checkIfUserBlocked_whenUserBlocked_LessThanOneMinuteRemaining_shouldThrowForbiddenExceptionWithOneMinute() {
-        LoginAttempts attempts = new LoginAttempts();
-        attempts.setUser(user);
-        attempts.setBlocked(true);
-        attempts.setBlockedUntil(LocalDateTime.now().plusSeconds(30));
-        when(loginAttemptsRepository.findByUser(user)).thenReturn(Optional.of(attempts));
+    void checkIfUserBlocked_whenRedisUnavailable_shouldNotThrowException() {
+        when(redisTemplate.getExpire(LOCK_KEY, TimeUnit.SECONDS))
+                .thenThrow(new QueryTimeoutException("Redis timed out"));
 
-        ForbiddenException exception = assertThrows(ForbiddenException.class,
-                () -> loginAttemptsService.checkIfUserBlocked(user));
-        String expectedMessagePart = "Your account is temporarily locked. Try again in 1 minute";
-        assertTrue(exception.getMessage().contains(expectedMessagePart),
-                "Exception message was: " + exception.getMessage() + ", expected to contain: " + expectedMessagePart);
+        when(loginAttemptsRepository.findByUser(user)).thenReturn(Optional.empty());
+
+        assertDoesNotThrow(() -> loginAttemptsService.checkIfUserBlocked(user));
     }
 
     @Test
-    void checkIfUserBlocked_whenUserBlocked_ZeroOrNegativeSecondsRemaining_shouldThrowForbiddenExceptionWithOneMinute() {
+    void checkIfUserBlocked_whenRedisUnavailable_shouldHonorRecordedLockout() {
+        when(redisTemplate.getExpire(LOCK_KEY, TimeUnit.SECONDS))
+                .thenThrow(new QueryTimeoutException("Redis timed out"));
         LoginAttempts attempts = new LoginAttempts();
         attempts.setUser(user);
         attempts.setBlocked(true);
-        LocalDateTime testStartTime = LocalDateTime.now();
-        attempts.setBlockedUntil(testStartTime.plus(500, ChronoUnit.MILLIS));
+        attempts.setBlockedUntil(LocalDateTime.now().plusHours(3).plusMinutes(5));
         when(loginAttemptsRepository.findByUser(user)).thenReturn(Optional.of(attempts));
 
         ForbiddenException exception = assertThrows(ForbiddenException.class,
                 () -> loginAttemptsService.checkIfUserBlocked(user));
-        String expectedMessagePart = "Your account is temporarily locked. Try again in 1 minute.";
-        assertTrue(exception.getMessage().contains(expectedMessagePart),
-                "Exception message was: " + exception.getMessage() + ", expected to contain: " + expectedMessagePart);
+        assertEquals("Your account is temporarily locked. Try again in 3 hours.", exception.getMessage());
     }
 
-
     @Test
-    void recordFailedLoginAttempt_newUser_shouldCreateRecordAndThrowException() {
-        when(loginAttemptsRepository.findByUser(user)).thenReturn(Optional.empty());
-        ArgumentCaptor<LoginAttempts> attemptsCaptor = ArgumentCaptor.forClass(LoginAttempts.class);
+    void recordFailedLoginAttempt_firstFailure_shouldReportRemainingAttemptsWithoutDatabaseWrite() {
+        givenFailureCount(1);
 
         ForbiddenException exception = assertThrows(ForbiddenException.class,
                 () -> loginAttemptsService.recordFailedLoginAttempt(user));
 
-        verify(loginAttemptsRepository).save(attemptsCaptor.capture());
-        LoginAttempts savedAttempts = attemptsCaptor.getValue();
-        assertEquals(1, savedAttempts.getLoginAttempts());
-        assertFalse(savedAttempts.isBlocked());
-        assertNull(savedAttempts.getBlockedUntil());
-        assertEquals(user, savedAttempts.getUser());
-        assertTrue(exception.getMessage().contains("Invalid credentials. You have 3 attempts left."));
+        assertEquals("Invalid credentials. You have 3 attempts left.", exception.getMessage());
+        verifyNoInteractions(loginAttemptsRepository);
     }
 
     @Test
-    void recordFailedLoginAttempt_existingUser_belowMaxAttempts_shouldIncrementAndThrowException() {
-        LoginAttempts attempts = new LoginAttempts();
-        attempts.setUser(user);
-        attempts.setLoginAttempts(1);
-        when(loginAttemptsRepository.findByUser(user)).thenReturn(Optional.of(attempts));
-        ArgumentCaptor<LoginAttempts> attemptsCaptor = ArgumentCaptor.forClass(LoginAttempts.class);
+    void recordFailedLoginAttempt_oneAttemptLeft_shouldUseSingularWording() {
+        givenFailureCount(3);
 
         ForbiddenException exception = assertThrows(ForbiddenException.class,
                 () -> loginAttemptsService.recordFailedLoginAttempt(user));
 
-        verify(loginAttemptsRepository).save(attemptsCaptor.capture());
-        LoginAttempts savedAttempts = attemptsCaptor.getValue();
-        assertEquals(2, savedAttempts.getLoginAttempts());
-        assertFalse(savedAttempts.isBlocked());
-        assertTrue(exception.getMessage().contains("Invalid credentials. You have 2 attempts left."));
+        assertEquals("Invalid credentials. You have 1 attempt left.", exception.getMessage());
     }
 
     @Test
-    void recordFailedLoginAttempt_existingUser_reachesMaxAttempts_shouldBlockAndThrowException() {
-        LoginAttempts attempts = new LoginAttempts();
-        attempts.setUser(user);
-        attempts.setLoginAttempts(3);
-        when(loginAttemptsRepository.findByUser(user)).thenReturn(Optional.of(attempts));
-        ArgumentCaptor<LoginAttempts> attemptsCaptor = ArgumentCaptor.forClass(LoginAttempts.class);
+    void recordFailedLoginAttempt_reachesMaxAttempts_shouldLockAndRecordLockout() {
+        givenFailureCount(4);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(loginAttemptsRepository.findByUser(user)).thenReturn(Optional.empty());
 
         ForbiddenException exception = assertThrows(ForbiddenException.class,
                 () -> loginAttemptsService.recordFailedLoginAttempt(user));
 
-        verify(loginAttemptsRepository).save(attemptsCaptor.capture());
-        LoginAttempts savedAttempts = attemptsCaptor.getValue();
-        assertEquals(4, savedAttempts.getLoginAttempts());
-        assertTrue(savedAttempts.isBlocked());
-        assertNotNull(savedAttempts.getBlockedUntil());
-        assertTrue(exception.getMessage().contains("Your account has been locked. Try again in 5 days."));
+        assertEquals("Your account has been locked. Try again in 5 days.", exception.getMessage());
+        verify(valueOperations).set(LOCK_KEY, "1", Duration.ofDays(5));
+        verify(redisTemplate).delete(FAILURES_KEY);
+
+        ArgumentCaptor<LoginAttempts> captor = ArgumentCaptor.forClass(LoginAttempts.class);
+        verify(loginAttemptsRepository).save(captor.capture());
+        LoginAttempts saved = captor.getValue();
+        assertEquals(user, saved.getUser());
+        assertEquals(4, saved.getLoginAttempts());
+        assertTrue(saved.isBlocked());
+        assertTrue(saved.getBlockedUntil().isAfter(LocalDateTime.now().plusDays(4)));
     }
 
     @Test
-    void recordFailedLoginAttempt_blockedUserWithExpiredBlock_shouldResetBlockAndRecordAttempt() {
-        LoginAttempts attempts = new LoginAttempts();
-        attempts.setUser(user);
-        attempts.setLoginAttempts(0);
-        attempts.setBlocked(true);
-        attempts.setBlockedUntil(LocalDateTime.now().minusDays(1));
-
-        when(loginAttemptsRepository.findByUser(user)).thenReturn(Optional.of(attempts));
-        ArgumentCaptor<LoginAttempts> attemptsCaptor = ArgumentCaptor.forClass(LoginAttempts.class);
-
-        ForbiddenException exception = assertThrows(ForbiddenException.class,
-                () -> loginAttemptsService.recordFailedLoginAttempt(user));
-
-        verify(loginAttemptsRepository).save(attemptsCaptor.capture());
-        LoginAttempts savedAttempts = attemptsCaptor.getValue();
+    void resetLoginAttempts_shouldDeleteCounterOnly() {
+        loginAttemptsService.resetLoginAttempts(user);
 
-        assertEquals(1, savedAttempts.getLoginAttempts());
-        assertFalse(savedAttempts.isBlocked(), "Block should be reset as it was expired");
-        assertNull(savedAttempts.getBlockedUntil(), "BlockedUntil should be null after reset");
-        assertTrue(exception.getMessage().contains("Invalid credentials. You have 3 attempts left."));
+        verify(redisTemplate).delete(FAILURES_KEY);
+        verifyNoInteractions(loginAttemptsRepository);
     }
 
-
     @Test
-    void resetLoginAttempts_userNotFound_shouldDoNothing() {
-        when(loginAttemptsRepository.findByUser(user)).thenReturn(Optional.empty());
-        loginAttemptsService.resetLoginAttempts(user);
-        verify(loginAttemptsRepository, never()).save(any(LoginAttempts.class));
+    void countRecentFailedLogins_shouldSumHourlyBuckets() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        List<String> counts = new ArrayList<>(Collections.nCopies(24, null));
+        counts.set(0, "3");
+        counts.set(5, "2");
+        when(valueOperations.multiGet(argThat((List<String> keys) -> keys.size() == 24))).thenReturn(counts);
+
+        assertEquals(5L, loginAttemptsService.countRecentFailedLogins());
     }
 
     @Test
-    void resetLoginAttempts_userFoundWithAttempts_shouldResetAndSave() {
-        LoginAttempts attempts = new LoginAttempts();
-        attempts.setUser(user);
-        attempts.setLoginAttempts(2);
-        attempts.setBlocked(true);
-        attempts.setBlockedUntil(LocalDateTime.now().plusDays(1));
-        when(loginAttemptsRepository.findByUser(user)).thenReturn(Optional.of(attempts));
-        ArgumentCaptor<LoginAttempts> attemptsCaptor = ArgumentCaptor.forClass(LoginAttempts.class);
+    void countRecentFailedLogins_whenRedisUnavailable_shouldReturnZero() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList())).thenThrow(new QueryTimeoutException("Redis timed out"));
 
-        loginAttemptsService.resetLoginAttempts(user);
-
-        verify(loginAttemptsRepository).save(attemptsCaptor.capture());
-        LoginAttempts savedAttempts = attemptsCaptor.getValue();
-        assertEquals(0, savedAttempts.getLoginAttempts());
-        assertFalse(savedAttempts.isBlocked());
-        assertNull(savedAttempts.getBlockedUntil());
+        assertEquals(0L, loginAttemptsService.countRecentFailedLogins());
     }
 
     @Test
-    void resetLoginAttempts_userFoundWithNoAttemptsAndNotBlocked_shouldNotSave() {
+    void restoreRecordedLockouts_shouldCopyRunningLockoutsIntoRedis() {
         LoginAttempts attempts = new LoginAttempts();
         attempts.setUser(user);
-        attempts.setLoginAttempts(0);
-        attempts.setBlocked(false);
-        attempts.setBlockedUntil(null);
-        when(loginAttemptsRepository.findByUser(user)).thenReturn(Optional.of(attempts));
+        attempts.setBlocked(true);
+        attempts.setBlockedUntil(LocalDateTime.now().plusHours(2));
+        when(loginAttemptsRepository.findActiveBlocks(any(LocalDateTime.class))).thenReturn(List.of(attempts));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), eq("1"), any(Duration.class))).thenReturn(true);
 
-        loginAttemptsService.resetLoginAttempts(user);
+        loginAttemptsService.restoreRecordedLockouts();
 
-        verify(loginAttemptsRepository, never()).save(any(LoginAttempts.class));
+        ArgumentCaptor<Duration> ttl = ArgumentCaptor.forClass(Duration.class);
+        verify(valueOperations).setIfAbsent(eq(LOCK_KEY), eq("1"), ttl.capture());
+        assertTrue(ttl.getValue().compareTo(Duration.ofHours(2)) <= 0);
+        assertTrue(ttl.getValue().compareTo(Duration.ofMinutes(119)) > 0);
     }
 
     @Test
-    void resetLoginAttempts_userFoundOnlyBlocked_shouldResetAndSave() {
-        LoginAttempts attempts = new LoginAttempts();
-        attempts.setUser(user);
-        attempts.setLoginAttempts(0);
-        attempts.setBlocked(true);
-        attempts.setBlockedUntil(LocalDateTime.now().plusDays(1));
-        when(loginAttemptsRepository.findByUser(user)).thenReturn(Optional.of(attempts));
-        ArgumentCaptor<LoginAttempts> attemptsCaptor = ArgumentCaptor.forClass(LoginAttempts.class);
+    void releaseExpiredLockouts_shouldClearExpiredBlocks() {
+        when(loginAttemptsRepository.releaseExpiredBlocks(any(LocalDateTime.class))).thenReturn(2);
 
-        loginAttemptsService.resetLoginAttempts(user);
+        loginAttemptsService.releaseExpiredLockouts();
 
-        verify(loginAttemptsRepository).save(attemptsCaptor.capture());
-        LoginAttempts savedAttempts = attemptsCaptor.getValue();
-        assertEquals(0, savedAttempts.getLoginAttempts());
-        assertFalse(savedAttempts.isBlocked());
-        assertNull(savedAttempts.getBlockedUntil());
+        verify(loginAttemptsRepository).releaseExpiredBlocks(any(LocalDateTime.class));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,127 @@
+package com.extractor.unraveldocs.messaging.emailservice.mailgun.service;
+
+import com.extractor.unraveldocs.messaging.config.MailgunConfig;
+import com.extractor.unraveldocs.messaging.dto.BulkEmailRecipient;
+import com.extractor.unraveldocs.messaging.dto.BulkEmailResult;
+import com.extractor.unraveldocs.outbound.config.OutboundProperties;
+import com.extractor.unraveldocs.outbound.service.OutboundCallGuard;
+import com.mailgun.api.v3.MailgunMessagesApi;
+import com.mailgun.client.MailgunClient;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sends batches to a local HTTP stub standing in for the Mailgun API.
+ */
+@ExtendWith(MockitoExtension.class)
+class MailgunEmailServiceTest {
+
+    private static final String DOMAIN = "mg.example.com";
+
+    @Mock
+    private MailgunConfig mailgunConfig;
+
+    @Mock
+    private EmailCampaignTracker campaignTracker;
+
+    private HttpServer stub;
+    private final List<String> requestBodies = new CopyOnWriteArrayList<>();
+    private volatile int responseStatus = 200;
+
+    private MailgunEmailService mailgunEmailService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub.createContext("/", exchange -> {
+            requestBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] response = "{\"id\":\"<queued@mg.example.com>\",\"message\":\"Queued. Thank you.\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(responseStatus, response.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(response);
+            }
+        });
+        stub.start();
+
+        MailgunMessagesApi api = MailgunClient
+                .config("http://localhost:" + stub.getAddress().getPort() + "/", "test-key")
+                .createApi(MailgunMessagesApi.class);
+        when(mailgunConfig.getMailgunDomain()).thenReturn(DOMAIN);
+        when(mailgunConfig.getMailgunFromEmail()).thenReturn("noreply@example.com");
+        mailgunEmailService = new MailgunEmailService(api, mailgunConfig,
+                new OutboundCallGuard(new OutboundProperties(), new SimpleMeterRegistry()), campaignTracker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.stop(0);
+    }
+
+    @Test
+    void sendBatchedHtmlEmail_splitsRecipientsIntoBatches() {
+        when(mailgunConfig.getBatchSize()).thenReturn(2);
+
+        BulkEmailResult result = mailgunEmailService.sendBatchedHtmlEmail(
+                "coupon-1", "Subject", "<p>Hi %recipient.userName%</p>", recipients(5));
+
+        assertThat(result.accepted()).isEqualTo(5);
+        assertThat(result.rejectedRecipients()).isEmpty();
+        assertThat(requestBodies).hasSize(3);
+        verify(campaignTracker).recordBatch("coupon-1", 1, 0);
+    }
+
+    @Test
+    void sendBatchedHtmlEmail_sendsEscapedVariablesForEveryRecipient() {
+        when(mailgunConfig.getBatchSize()).thenReturn(1000);
+
+        mailgunEmailService.sendBatchedHtmlEmail("coupon-1", "Subject", "<p>Hi %recipient.userName%</p>",
+                List.of(new BulkEmailRecipient("a@example.com", Map.of("userName", "<Ann>")),
+                        new BulkEmailRecipient("b@example.com", Map.of())));
+
+        assertThat(requestBodies).hasSize(1);
+        String body = requestBodies.getFirst();
+        assertThat(body).contains("recipient-variables");
+        assertThat(body).contains("&lt;Ann&gt;");
+        assertThat(body).contains("b@example.com");
+    }
+
+    @Test
+    void sendBatchedHtmlEmail_countsFailedBatchAsRejected() {
+        when(mailgunConfig.getBatchSize()).thenReturn(1000);
+        responseStatus = 400;
+
+        BulkEmailResult result = mailgunEmailService.sendBatchedHtmlEmail(
+                "coupon-1", "Subject", "<p>Hi</p>", recipients(3));
+
+        assertThat(result.accepted()).isZero();
+        assertThat(result.rejectedRecipients()).hasSize(3);
+        verify(campaignTracker).recordBatch("coupon-1", 0, 3);
+    }
+
+    private static List<BulkEmailRecipient> recipients(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new BulkEmailRecipient("user" + i + "@example.com", Map.of("userName", "User " + i)))
+                .toList();
+    }
+}
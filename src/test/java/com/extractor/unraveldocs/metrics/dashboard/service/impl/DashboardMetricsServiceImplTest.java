@@ -1,67 +1,74 @@
 package com.extractor.unraveldocs.metrics.dashboard.service.impl;
 
-import com.extractor.unraveldocs.loginattempts.repository.LoginAttemptsRepository;
+import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
 import com.extractor.unraveldocs.metrics.dashboard.dto.DashboardKpiStatsDto;
-import com.extractor.unraveldocs.subscription.datamodel.SubscriptionPlans;
-import com.extractor.unraveldocs.subscription.repository.UserSubscriptionRepository;
-import com.extractor.unraveldocs.user.repository.UserRepository;
+import com.extractor.unraveldocs.metrics.dashboard.dto.KpiDailyValueDto;
+import com.extractor.unraveldocs.metrics.kpi.model.KpiDailyValue;
+import com.extractor.unraveldocs.metrics.kpi.model.KpiMetric;
+import com.extractor.unraveldocs.metrics.kpi.model.KpiTotals;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiQueryService;
+import com.extractor.unraveldocs.shared.response.ResponseBuilderService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 
-import java.util.Arrays;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class DashboardMetricsServiceImplTest {
 
     @Mock
-    private UserRepository userRepository;
+    private KpiQueryService kpiQueryService;
 
     @Mock
-    private LoginAttemptsRepository loginAttemptsRepository;
-
-    @Mock
-    private UserSubscriptionRepository userSubscriptionRepository;
+    private ResponseBuilderService responseBuilderService;
 
     @InjectMocks
     private DashboardMetricsCacheService dashboardMetricsCacheService;
 
     @Test
     void getDashboardKpiStatsData_returnsCorrectMetrics_whenDataExists() {
-        // Arrange User KPIs
-        when(userRepository.countByDeletedAtIsNull()).thenReturn(100L);
-        when(userRepository.countByIsActiveTrueAndIsVerifiedTrueAndDeletedAtIsNull()).thenReturn(80L);
-        when(userRepository.countByIsVerifiedTrueAndDeletedAtIsNull()).thenReturn(90L);
-        when(userRepository.countByIsVerifiedFalseAndDeletedAtIsNull()).thenReturn(10L);
-        when(loginAttemptsRepository.countByIsBlockedTrue()).thenReturn(5L);
-        
-        when(userRepository.countByCreatedAtAfterAndDeletedAtIsNull(any())).thenReturn(5L, 15L, 30L); 
-        when(userRepository.countByLastLoginAfterAndDeletedAtIsNull(any())).thenReturn(20L, 50L, 85L);
-
-        // Arrange Subscription KPIs
-        when(userSubscriptionRepository.countByStatusIgnoreCase("ACTIVE")).thenReturn(60L);
-        when(userSubscriptionRepository.countByStatusIgnoreCase("TRIAL")).thenReturn(10L);
-        when(userSubscriptionRepository.countByStatusIgnoreCase("CANCELLED")).thenReturn(5L);
-        when(userSubscriptionRepository.countByStatusIgnoreCase("EXPIRED")).thenReturn(25L);
-
-        Object[] plan1 = {SubscriptionPlans.PRO_MONTHLY, 40L};
-        Object[] plan2 = {"BUSINESS_MONTHLY", 20L};
-        when(userSubscriptionRepository.countUsersByPlan()).thenReturn(Arrays.asList(plan1, plan2));
-
-        Object[] status1 = {"ACTIVE", 60L};
-        Object[] status2 = {"TRIAL", 10L};
-        when(userSubscriptionRepository.countUsersByStatus()).thenReturn(Arrays.asList(status1, status2));
-
-        // Arrange Storage KPIs
-        when(userSubscriptionRepository.sumTotalStorageUsed()).thenReturn(500000L); // 500KB total over 100 users (avg 5000)
+        // Arrange totals
+        Map<String, Long> values = new HashMap<>();
+        values.put(KpiTotals.USERS_TOTAL, 100L);
+        values.put(KpiTotals.USERS_ACTIVE, 80L);
+        values.put(KpiTotals.USERS_VERIFIED, 90L);
+        values.put(KpiTotals.USERS_UNVERIFIED, 10L);
+        values.put(KpiTotals.USERS_BLOCKED, 5L);
+        values.put(KpiTotals.SUBSCRIPTIONS_BY_STATUS + "ACTIVE", 60L);
+        values.put(KpiTotals.SUBSCRIPTIONS_BY_STATUS + "TRIAL", 10L);
+        values.put(KpiTotals.SUBSCRIPTIONS_BY_STATUS + "CANCELLED", 5L);
+        values.put(KpiTotals.SUBSCRIPTIONS_BY_PLAN + "PRO_MONTHLY", 40L);
+        values.put(KpiTotals.SUBSCRIPTIONS_BY_PLAN + "BUSINESS_MONTHLY", 20L);
+        values.put(KpiTotals.STORAGE_USED, 500000L); // 500KB total over 100 users (avg 5000)
+        when(kpiQueryService.totals()).thenReturn(new KpiTotals(values));
+
+        // Arrange windows of days
+        when(kpiQueryService.sumLastDays(eq(KpiMetric.USERS_SIGNED_UP), anyInt())).thenReturn(5L, 15L, 30L);
+        when(kpiQueryService.activeUsers(anyInt())).thenReturn(20L, 50L, 85L);
+        when(kpiQueryService.sumLastDays(eq(KpiMetric.DOCUMENTS_UPLOADED), anyInt())).thenReturn(3L, 70L);
+        when(kpiQueryService.sumLastDays(KpiMetric.OCR_COMPLETED, 30)).thenReturn(60L);
+        when(kpiQueryService.sumLastDays(KpiMetric.OCR_FAILED, 30)).thenReturn(4L);
+        when(kpiQueryService.sumLastDays(KpiMetric.PAYMENTS_RECEIVED, 30)).thenReturn(12L);
+        when(kpiQueryService.sumLastDaysByDimension(KpiMetric.PAYMENT_AMOUNT_MINOR, 30))
+                .thenReturn(Map.of("USD", 123450L, "NGN", 5000000L));
 
         // Act
         DashboardKpiStatsDto dto = dashboardMetricsCacheService.getDashboardKpiStatsData();
@@ -84,35 +91,32 @@ class DashboardMetricsServiceImplTest {
 
         assertEquals(60L, dto.getActiveSubscriptions());
         assertEquals(10L, dto.getTrialSubscriptions());
-        
+        assertEquals(5L, dto.getCancelledSubscriptions());
+        assertEquals(0L, dto.getExpiredSubscriptions());
+
         assertEquals(40L, dto.getUsersByPlan().get("PRO_MONTHLY"));
         assertEquals(20L, dto.getUsersByPlan().get("BUSINESS_MONTHLY"));
         assertEquals(0L, dto.getUsersByPlan().get("FREE")); // ensure default keys exist
-        
+
         assertEquals(60L, dto.getUsersByStatus().get("ACTIVE"));
         assertEquals(0L, dto.getUsersByStatus().get("EXPIRED"));
 
         assertEquals(500000L, dto.getTotalStorageUsed());
         assertEquals(5000.0, dto.getAverageStorageUsed(), 0.01);
+
+        assertEquals(3L, dto.getDocumentsUploadedToday());
+        assertEquals(70L, dto.getDocumentsUploadedThisMonth());
+        assertEquals(60L, dto.getOcrCompletedThisMonth());
+        assertEquals(4L, dto.getOcrFailedThisMonth());
+        assertEquals(12L, dto.getPaymentsThisMonth());
+        assertEquals(new BigDecimal("1234.50"), dto.getRevenueThisMonth().get("USD"));
+        assertEquals(new BigDecimal("50000.00"), dto.getRevenueThisMonth().get("NGN"));
     }
 
     @Test
     void getDashboardKpiStatsData_handlesNullAndEmptyData_correctly() {
-        // Arrange returning zeros and nulls where appropriate
-        when(userRepository.countByDeletedAtIsNull()).thenReturn(0L);
-        when(userRepository.countByIsActiveTrueAndIsVerifiedTrueAndDeletedAtIsNull()).thenReturn(0L);
-        when(userRepository.countByIsVerifiedTrueAndDeletedAtIsNull()).thenReturn(0L);
-        when(userRepository.countByIsVerifiedFalseAndDeletedAtIsNull()).thenReturn(0L);
-        when(loginAttemptsRepository.countByIsBlockedTrue()).thenReturn(0L);
-        when(userRepository.countByCreatedAtAfterAndDeletedAtIsNull(any())).thenReturn(0L);
-        when(userRepository.countByLastLoginAfterAndDeletedAtIsNull(any())).thenReturn(0L);
-
-        when(userSubscriptionRepository.countByStatusIgnoreCase(anyString())).thenReturn(0L);
-        when(userSubscriptionRepository.countUsersByPlan()).thenReturn(Collections.emptyList());
-        when(userSubscriptionRepository.countUsersByStatus()).thenReturn(Collections.emptyList());
-        
-        // Null storage
-        when(userSubscriptionRepository.sumTotalStorageUsed()).thenReturn(null);
+        when(kpiQueryService.totals()).thenReturn(new KpiTotals(Collections.emptyMap()));
+        when(kpiQueryService.sumLastDaysByDimension(any(), anyInt())).thenReturn(Collections.emptyMap());
 
         // Act
         DashboardKpiStatsDto dto = dashboardMetricsCacheService.getDashboardKpiStatsData();
@@ -122,9 +126,40 @@ class DashboardMetricsServiceImplTest {
         assertEquals(0L, dto.getTotalUsers());
         assertEquals(0L, dto.getTotalStorageUsed());
         assertEquals(0.0, dto.getAverageStorageUsed(), 0.01);
-        
+        assertEquals(0, dto.getRevenueThisMonth().size());
+
         // Default statuses and plans should still exist with 0
         assertEquals(0L, dto.getUsersByPlan().get("FREE"));
         assertEquals(0L, dto.getUsersByStatus().get("ACTIVE"));
     }
+
+    @Test
+    void getDailyKpi_mapsRollupRows() {
+        DashboardMetricsServiceImpl service = new DashboardMetricsServiceImpl(
+                dashboardMetricsCacheService, kpiQueryService, responseBuilderService);
+        LocalDate from = LocalDate.of(2026, 1, 1);
+        LocalDate to = LocalDate.of(2026, 1, 31);
+        when(kpiQueryService.daily(KpiMetric.DOCUMENTS_UPLOADED, from, to))
+                .thenReturn(List.of(new KpiDailyValue(from, "", 7L)));
+
+        service.getDailyKpi("documents-uploaded", from, to);
+
+        verify(responseBuilderService).buildUserResponse(
+                eq(List.of(KpiDailyValueDto.builder().day(from).dimension("").value(7L).build())),
+                eq(HttpStatus.OK),
+                anyString());
+    }
+
+    @Test
+    void getDailyKpi_rejectsUnknownMetricAndInvalidRanges() {
+        DashboardMetricsServiceImpl service = new DashboardMetricsServiceImpl(
+                dashboardMetricsCacheService, kpiQueryService, responseBuilderService);
+        LocalDate day = LocalDate.of(2026, 1, 1);
+
+        assertThrows(BadRequestException.class, () -> service.getDailyKpi("nope", day, day));
+        assertThrows(BadRequestException.class, () -> service.getDailyKpi("OCR_COMPLETED", day, day.minusDays(1)));
+        assertThrows(BadRequestException.class, () -> service.getDailyKpi("OCR_COMPLETED", day, day.plusDays(366)));
+        verify(kpiQueryService, never()).daily(any(), any(), any());
+        verify(responseBuilderService, never()).buildUserResponse(anyList(), any(), anyString());
+    }
 }
@@ -0,0 +1,191 @@
+package com.extractor.unraveldocs.metrics.kpi.service;
+
+import com.extractor.unraveldocs.documents.datamodel.DocumentUploadState;
+import com.extractor.unraveldocs.documents.model.FileEntry;
+import com.extractor.unraveldocs.metrics.kpi.model.KpiMetric;
+import com.extractor.unraveldocs.metrics.kpi.model.KpiTotals;
+import com.extractor.unraveldocs.metrics.kpi.model.RollupIncrement;
+import com.extractor.unraveldocs.metrics.kpi.model.RollupKey;
+import com.extractor.unraveldocs.metrics.kpi.repository.KpiRollupRepository;
+import com.extractor.unraveldocs.ocrprocessing.datamodel.OcrStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KpiRecorderTest {
+
+    @Mock
+    private KpiRollupRepository rollupRepository;
+
+    @Mock
+    private KpiCounterStore counterStore;
+
+    private KpiRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new KpiRecorder(rollupRepository, counterStore);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void documentsUploaded_CountsStoredFilesAndMovesTotals() {
+        recorder.documentsUploaded(List.of(
+                file("pdf", DocumentUploadState.SUCCESS, 100, true),
+                file("png", DocumentUploadState.SUCCESS, 50, false),
+                file("png", DocumentUploadState.FAILED_STORAGE_UPLOAD, 70, false)));
+
+        ArgumentCaptor<Map<String, Long>> totals = ArgumentCaptor.forClass(Map.class);
+        verify(counterStore).adjustTotals(totals.capture());
+        assertEquals(1L, totals.getValue().get(KpiTotals.COLLECTIONS));
+        assertEquals(3L, totals.getValue().get(KpiTotals.FILES));
+        assertEquals(220L, totals.getValue().get(KpiTotals.FILE_BYTES));
+        assertEquals(1L, totals.getValue().get(KpiTotals.FILES_ENCRYPTED));
+        assertEquals(2L, totals.getValue().get(KpiTotals.FILES_BY_TYPE + "png"));
+
+        recorder.flush();
+
+        ArgumentCaptor<List<RollupIncrement>> batch = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).addAll(batch.capture());
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        assertEquals(2L, byKey(batch.getValue()).get(RollupKey.of(KpiMetric.DOCUMENTS_UPLOADED, today)));
+        assertEquals(150L, byKey(batch.getValue()).get(RollupKey.of(KpiMetric.DOCUMENT_BYTES_UPLOADED, today)));
+        assertEquals(0, recorder.pendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_EventsOnSameDay_MergedIntoOneIncrement() {
+        for (int i = 0; i < 5; i++) {
+            recorder.userSignedUp();
+        }
+
+        recorder.flush();
+
+        ArgumentCaptor<List<RollupIncrement>> batch = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).addAll(batch.capture());
+        assertEquals(Map.of(RollupKey.of(KpiMetric.USERS_SIGNED_UP, LocalDate.now(ZoneOffset.UTC)), 5L),
+                byKey(batch.getValue()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_IncrementsBoundedByTheSecondTheyWereRecordedIn() {
+        OffsetDateTime before = OffsetDateTime.now(ZoneOffset.UTC);
+        recorder.userSignedUp();
+        OffsetDateTime after = OffsetDateTime.now(ZoneOffset.UTC);
+
+        recorder.flush();
+
+        ArgumentCaptor<List<RollupIncrement>> batch = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).addAll(batch.capture());
+        assertEquals(1, batch.getValue().size());
+        OffsetDateTime recordedBefore = batch.getValue().getFirst().recordedBefore();
+        assertTrue(recordedBefore.isAfter(before));
+        assertFalse(recordedBefore.isAfter(after.plusSeconds(1)));
+    }
+
+    @Test
+    void flush_DatabaseFailure_RequeuesIncrements() {
+        recorder.userSignedUp();
+        doThrow(new QueryTimeoutException("timeout")).when(rollupRepository).addAll(anyList());
+
+        recorder.flush();
+
+        assertEquals(1, recorder.pendingCount());
+    }
+
+    @Test
+    void userSignedUp_InTransaction_RecordedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        recorder.userSignedUp();
+
+        assertEquals(0, recorder.pendingCount());
+        verifyNoInteractions(counterStore);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(1, recorder.pendingCount());
+        verify(counterStore).adjustTotals(Map.of(KpiTotals.USERS_TOTAL, 1L, KpiTotals.USERS_UNVERIFIED, 1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ocrFinished_CountedOnCompletionDay_AndIgnoresUnfinishedRuns() {
+        OffsetDateTime completedAt = OffsetDateTime.of(2026, 10, 18, 23, 30, 0, 0, ZoneOffset.ofHours(-2));
+
+        recorder.ocrFinished(OcrStatus.PROCESSING, completedAt);
+        recorder.ocrFinished(OcrStatus.FAILED, completedAt);
+        recorder.flush();
+
+        ArgumentCaptor<List<RollupIncrement>> batch = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).addAll(batch.capture());
+        assertEquals(Map.of(RollupKey.of(KpiMetric.OCR_FAILED, LocalDate.of(2026, 10, 19)), 1L), byKey(batch.getValue()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void paymentReceived_RecordedByCurrencyInMinorUnits() {
+        recorder.paymentReceived("usd", new BigDecimal("19.99"));
+        recorder.paymentReceived("USD", new BigDecimal("5.005"));
+        recorder.flush();
+
+        ArgumentCaptor<List<RollupIncrement>> batch = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).addAll(batch.capture());
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        assertEquals(2L, byKey(batch.getValue()).get(new RollupKey(KpiMetric.PAYMENTS_RECEIVED, today, "USD")));
+        assertEquals(2500L, byKey(batch.getValue()).get(new RollupKey(KpiMetric.PAYMENT_AMOUNT_MINOR, today, "USD")));
+    }
+
+    @Test
+    void recording_RedisFailure_DoesNotFailCaller() {
+        doThrow(new IllegalStateException("redis down")).when(counterStore).adjustTotals(any());
+
+        assertDoesNotThrow(() -> recorder.userVerified());
+        assertDoesNotThrow(() -> recorder.storageChanged(1024));
+    }
+
+    private static FileEntry file(String type, DocumentUploadState state, long size, boolean encrypted) {
+        FileEntry file = new FileEntry();
+        file.setFileType(type);
+        file.setUploadStatus(state.toString());
+        file.setFileSize(size);
+        file.setEncrypted(encrypted);
+        return file;
+    }
+
+    private static Map<RollupKey, Long> byKey(List<RollupIncrement> increments) {
+        Map<RollupKey, Long> totals = new HashMap<>();
+        increments.forEach(increment -> totals.merge(increment.key(), increment.delta(), Long::sum));
+        return totals;
+    }
+}
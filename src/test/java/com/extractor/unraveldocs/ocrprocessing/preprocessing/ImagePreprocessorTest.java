@@ -0,0 +1,147 @@
+package com.extractor.unraveldocs.ocrprocessing.preprocessing;
+
+import com.extractor.unraveldocs.ocrprocessing.config.OcrProperties;
+import com.extractor.unraveldocs.ocrprocessing.metrics.OcrMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ImagePreprocessorTest {
+
+    @Mock
+    private OcrMetrics ocrMetrics;
+
+    private OcrProperties ocrProperties;
+    private ImagePreprocessor preprocessor;
+
+    @BeforeEach
+    void setUp() {
+        ocrProperties = new OcrProperties();
+        preprocessor = new ImagePreprocessor(ocrProperties, ocrMetrics);
+    }
+
+    @Test
+    void process_CleanImage_TakesFastPathAndCropsMargins() {
+        BufferedImage page = page(1200, 1600, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = page.createGraphics();
+        graphics.setColor(Color.BLACK);
+        graphics.fillRect(300, 400, 600, 40);
+        graphics.fillRect(300, 500, 600, 40);
+        graphics.dispose();
+
+        BufferedImage result = preprocessor.process(page);
+
+        assertEquals(BufferedImage.TYPE_BYTE_GRAY, result.getType());
+        assertEquals(600 + 2 * 20, result.getWidth());
+        assertEquals(140 + 2 * 20, result.getHeight());
+        verify(ocrMetrics).recordPreprocessedImage(true);
+        verify(ocrMetrics).recordPreprocessingStep(eq("crop"), anyLong());
+        verify(ocrMetrics, never()).recordPreprocessingStep(eq("binarize"), anyLong());
+        verify(ocrMetrics, never()).recordPreprocessingStep(eq("denoise"), anyLong());
+    }
+
+    @Test
+    void process_ShadedPhoto_IsBinarized() {
+        BufferedImage photo = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = photo.createGraphics();
+        for (int x = 0; x < 800; x++) {
+            int shade = 120 + x * 100 / 800;
+            graphics.setColor(new Color(shade, shade, shade));
+            graphics.drawLine(x, 0, x, 599);
+        }
+        graphics.setColor(new Color(30, 30, 30));
+        graphics.fillRect(100, 200, 600, 20);
+        graphics.dispose();
+
+        BufferedImage result = preprocessor.process(photo);
+
+        verify(ocrMetrics).recordPreprocessedImage(false);
+        verify(ocrMetrics).recordPreprocessingStep(eq("binarize"), anyLong());
+        for (int y = 0; y < result.getHeight(); y++) {
+            for (int x = 0; x < result.getWidth(); x++) {
+                int gray = result.getRaster().getSample(x, y, 0);
+                assertTrue(gray == 0 || gray == 255, "pixel " + x + "," + y + " is " + gray);
+            }
+        }
+    }
+
+    @Test
+    void process_SkewedScan_IsStraightened() {
+        ocrProperties.getPreprocessing().setCropMargins(false);
+        BufferedImage scan = page(2000, 2000, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = scan.createGraphics();
+        graphics.setColor(Color.BLACK);
+        graphics.rotate(Math.toRadians(5), 1000, 1000);
+        graphics.fillRect(250, 980, 1500, 40);
+        graphics.dispose();
+        assertTrue(inkHeight(scan) > 150);
+
+        BufferedImage result = preprocessor.process(scan);
+
+        assertTrue(inkHeight(result) < 60, "ink spans " + inkHeight(result) + " rows");
+    }
+
+    @Test
+    void process_OversizedPhoto_ScaledDownToTargetDpi() {
+        BufferedImage photo = page(4000, 6000, BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage result = preprocessor.process(photo);
+
+        assertEquals(Math.round(300 * 11.7), Math.max(result.getWidth(), result.getHeight()));
+        verify(ocrMetrics).recordPreprocessingStep(eq("downscale"), anyLong());
+    }
+
+    @Test
+    void process_Disabled_ReturnsImageUnchanged() {
+        ocrProperties.getPreprocessing().setEnabled(false);
+        BufferedImage image = page(100, 100, BufferedImage.TYPE_INT_RGB);
+
+        assertSame(image, preprocessor.process(image));
+    }
+
+    @Test
+    void renderDpi_LargeFormatPage_CappedToPixelLimit() {
+        // US Letter and A0, in points
+        assertEquals(300, preprocessor.renderDpi(612, 792));
+        assertEquals(74, preprocessor.renderDpi(2384, 3370));
+    }
+
+    private static BufferedImage page(int width, int height, int type) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+        return image;
+    }
+
+    private static int inkHeight(BufferedImage image) {
+        int top = -1;
+        int bottom = -1;
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                if ((image.getRGB(x, y) & 0xFF) < 128) {
+                    if (top < 0) {
+                        top = y;
+                    }
+                    bottom = y;
+                    break;
+                }
+            }
+        }
+        return top < 0 ? 0 : bottom - top + 1;
+    }
+}
@@ -9,6 +9,7 @@ import com.extractor.unraveldocs.documents.model.FileEntry;
 import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
 import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
 import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiRecorder;
 import com.extractor.unraveldocs.ocrprocessing.events.OcrEventMapper;
 import com.extractor.unraveldocs.ocrprocessing.events.OcrEventPublisher;
 import com.extractor.unraveldocs.ocrprocessing.events.OcrRequestedEvent;
@@ -60,6 +61,8 @@ class BulkDocumentUploadExtractionImplTest {
         private FileStorageService fileStorageService;
         @Mock
         private StorageAllocationService storageAllocationService;
+        @Mock
+        private KpiRecorder kpiRecorder;
 
         @InjectMocks
         private BulkDocumentUploadExtractionImpl bulkDocumentUploadExtractionService;
@@ -87,7 +90,8 @@ class BulkDocumentUploadExtractionImplTest {
                                 ocrEventMapper,
                                 s,
                                 fileStorageService,
-                                storageAllocationService);
+                                storageAllocationService,
+                                kpiRecorder);
 
                 byte[] smallContent = "c".getBytes();
                 validFile1 = new MockMultipartFile("files", "test1.png", "image/png", smallContent);
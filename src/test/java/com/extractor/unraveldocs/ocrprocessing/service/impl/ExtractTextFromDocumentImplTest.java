@@ -4,6 +4,7 @@ import com.extractor.unraveldocs.documents.model.FileEntry;
 import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
 import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
 import com.extractor.unraveldocs.exceptions.custom.NotFoundException;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiRecorder;
 import com.extractor.unraveldocs.ocrprocessing.datamodel.OcrStatus;
 import com.extractor.unraveldocs.ocrprocessing.impl.ExtractTextFromDocumentImpl;
 import com.extractor.unraveldocs.ocrprocessing.model.OcrData;
@@ -64,6 +65,8 @@ class ExtractTextFromDocumentImplTest {
 
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private KpiRecorder kpiRecorder;
 
     @InjectMocks
     private ExtractTextFromDocumentImpl extractTextFromDocumentService;
@@ -0,0 +1,108 @@
+package com.extractor.unraveldocs.outbound.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        // window 4, evaluate after 4 calls, open at 50% failures for 1s, 2 probes
+        circuitBreaker = new CircuitBreaker(4, 4, 50, 1000, 2, clock::get);
+    }
+
+    private void recordCall(boolean success) {
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        if (success) {
+            circuitBreaker.onSuccess();
+        } else {
+            circuitBreaker.onFailure();
+        }
+    }
+
+    private void tripOpen() {
+        recordCall(true);
+        recordCall(true);
+        recordCall(false);
+        recordCall(false);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        recordCall(false);
+        recordCall(false);
+        recordCall(false);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        tripOpen();
+
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        assertFalse(circuitBreaker.isCallPermitted());
+    }
+
+    @Test
+    void slidingWindowForgetsOldFailures() {
+        recordCall(false);
+        recordCall(true);
+        recordCall(true);
+        recordCall(true);
+        // the failure falls out of the window; 1 of 4 still below 50%
+        recordCall(false);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void halfOpenAfterWaitAndClosesWhenAllProbesSucceed() {
+        tripOpen();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        assertTrue(circuitBreaker.isCallPermitted());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertFalse(circuitBreaker.tryAcquirePermission(), "only two probes may be in flight");
+
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void failedProbeReopensCircuit() {
+        tripOpen();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void releasedProbeCanBeReissued() {
+        tripOpen();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.releasePermission();
+
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+}
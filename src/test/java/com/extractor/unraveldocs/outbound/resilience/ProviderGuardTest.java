@@ -0,0 +1,146 @@
+package com.extractor.unraveldocs.outbound.resilience;
+
+import com.extractor.unraveldocs.outbound.config.OutboundProperties.ProviderSettings;
+import com.extractor.unraveldocs.outbound.exception.OutboundCallRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderGuardTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProviderSettings settings;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        settings = new ProviderSettings();
+        settings.setSlidingWindowSize(2);
+        settings.setMinimumCalls(2);
+        settings.setFailureRateThreshold(100);
+        settings.setOpenStateMs(60000);
+        settings.setMaxConcurrentCalls(1);
+        settings.setMaxWaitMs(0);
+        settings.setRetryBudgetPercent(0);
+        settings.setRetryBudgetMinTokens(1);
+    }
+
+    @Test
+    void openCircuitRejectsWithoutCallingProvider() {
+        ProviderGuard guard = new ProviderGuard("paypal", settings, meterRegistry);
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IOException.class, () -> guard.call(() -> {
+                throw new IOException("gateway down");
+            }));
+        }
+
+        OutboundCallRejectedException rejected = assertThrows(OutboundCallRejectedException.class,
+                () -> guard.call(() -> fail("provider must not be called")));
+
+        assertEquals("paypal", rejected.getProvider());
+        assertEquals(60, rejected.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("outbound.calls.rejected")
+                .tag("provider", "paypal").tag("reason", "circuit_open").counter().count());
+        assertEquals(2, meterRegistry.get("outbound.calls")
+                .tag("provider", "paypal").tag("outcome", "failure").timer().count());
+        assertEquals(1.0, meterRegistry.get("outbound.circuit.state").tag("provider", "paypal").gauge().value());
+    }
+
+    @Test
+    void resultClassifiedAsFailureCountsTowardsCircuit() {
+        ProviderGuard guard = new ProviderGuard("paystack", settings, meterRegistry);
+
+        assertEquals(503, guard.call(() -> 503, status -> status >= 500));
+        assertEquals(503, guard.call(() -> 503, status -> status >= 500));
+
+        assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitState());
+        assertFalse(guard.isAvailable());
+    }
+
+    @Test
+    void nonTransientExceptionPassesThroughWithoutCountingTowardsCircuit() {
+        ProviderGuard guard = new ProviderGuard("twilio", settings, meterRegistry);
+        for (int i = 0; i < 3; i++) {
+            assertThrows(HttpClientErrorException.class, () -> guard.call(() -> {
+                throw HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "invalid number", null, null, null);
+            }));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitState());
+        assertEquals(3, meterRegistry.get("outbound.calls")
+                .tag("provider", "twilio").tag("outcome", "non_transient_error").timer().count());
+        assertEquals(0, meterRegistry.get("outbound.calls")
+                .tag("provider", "twilio").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    void rateLimitedResponseCountsTowardsCircuit() {
+        ProviderGuard guard = new ProviderGuard("openai", settings, meterRegistry);
+        for (int i = 0; i < 2; i++) {
+            assertThrows(HttpClientErrorException.class, () -> guard.call(() -> {
+                throw HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "slow down", null, null, null);
+            }));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitState());
+    }
+
+    @Test
+    void callerClassifierDecidesWhichExceptionsAreTransient() {
+        ProviderGuard guard = new ProviderGuard("google-vision", settings, meterRegistry);
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IllegalStateException.class, () -> guard.call(() -> {
+                throw new IllegalStateException("UNAVAILABLE");
+            }, result -> false, e -> e.getMessage().equals("UNAVAILABLE")));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitState());
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondConcurrencyLimit() throws Exception {
+        ProviderGuard guard = new ProviderGuard("openai", settings, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> slowCall = executor.submit(() -> guard.call(() -> {
+                started.countDown();
+                release.await();
+                return "done";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(OutboundCallRejectedException.class, () -> guard.call(() -> "second"));
+            assertEquals(1.0, meterRegistry.get("outbound.calls.rejected")
+                    .tag("provider", "openai").tag("reason", "bulkhead_full").counter().count());
+
+            release.countDown();
+            assertEquals("done", slowCall.get(5, TimeUnit.SECONDS));
+            assertEquals("third", guard.call(() -> "third"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void retryBudgetLimitsRetries() {
+        ProviderGuard guard = new ProviderGuard("mailgun", settings, meterRegistry);
+
+        assertTrue(guard.tryRetry());
+        assertFalse(guard.tryRetry());
+        assertEquals(1.0, meterRegistry.get("outbound.retries")
+                .tag("provider", "mailgun").tag("result", "budget_exhausted").counter().count());
+    }
+}
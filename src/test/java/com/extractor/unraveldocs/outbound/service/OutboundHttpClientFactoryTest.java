@@ -0,0 +1,149 @@
+package com.extractor.unraveldocs.outbound.service;
+
+import com.extractor.unraveldocs.outbound.config.OutboundProperties;
+import com.extractor.unraveldocs.outbound.config.OutboundProperties.ProviderSettings;
+import com.extractor.unraveldocs.outbound.exception.OutboundCallRejectedException;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises provider clients against a local stub server.
+ */
+class OutboundHttpClientFactoryTest {
+
+    private HttpServer server;
+    private final Deque<Integer> statuses = new ArrayDeque<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private volatile long responseDelayMs;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboundProperties properties;
+    private OutboundHttpClientFactory factory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            hits.incrementAndGet();
+            if (responseDelayMs > 0) {
+                try {
+                    Thread.sleep(responseDelayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            Integer next;
+            synchronized (statuses) {
+                next = statuses.poll();
+            }
+            int status = next != null ? next : 200;
+            byte[] body = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new OutboundProperties();
+        ProviderSettings settings = new ProviderSettings();
+        settings.setReadTimeoutMs(500);
+        settings.setRetryBackoffMs(1);
+        settings.setSlidingWindowSize(4);
+        settings.setMinimumCalls(4);
+        settings.setFailureRateThreshold(100);
+        settings.setOpenStateMs(60000);
+        properties.getProviders().put("stub", settings);
+        factory = new OutboundHttpClientFactory(new OutboundCallGuard(properties, meterRegistry), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        factory.shutdown();
+        server.stop(0);
+    }
+
+    private RestClient client() {
+        return factory.restClientBuilder("stub")
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .build();
+    }
+
+    private void respondWith(Integer... codes) {
+        synchronized (statuses) {
+            statuses.addAll(List.of(codes));
+        }
+    }
+
+    @Test
+    void idempotentRequestIsRetriedOnServiceUnavailable() {
+        respondWith(503);
+
+        String body = client().get().uri("/rates").retrieve().body(String.class);
+
+        assertEquals("{\"ok\":true}", body);
+        assertEquals(2, hits.get());
+        assertEquals(1.0, meterRegistry.get("outbound.retries")
+                .tag("provider", "stub").tag("result", "attempted").counter().count());
+    }
+
+    @Test
+    void postIsNeverRetried() {
+        respondWith(503);
+
+        assertThrows(HttpServerErrorException.class,
+                () -> client().post().uri("/transaction/initialize").body("{}").retrieve().toBodilessEntity());
+
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    void slowProviderTimesOut() {
+        responseDelayMs = 1500;
+
+        assertThrows(ResourceAccessException.class,
+                () -> client().post().uri("/orders").body("{}").retrieve().toBodilessEntity());
+    }
+
+    @Test
+    void openCircuitFailsFastWithoutContactingProvider() {
+        respondWith(500, 500, 500, 500);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpServerErrorException.class,
+                    () -> client().post().uri("/orders").body("{}").retrieve().toBodilessEntity());
+        }
+
+        ResourceAccessException rejected = assertThrows(ResourceAccessException.class,
+                () -> client().post().uri("/orders").body("{}").retrieve().toBodilessEntity());
+
+        assertInstanceOf(OutboundCallRejectedException.class, rejected.getCause().getCause());
+        assertEquals(4, hits.get());
+    }
+
+    @Test
+    void registersConnectionPoolMetrics() {
+        client().get().uri("/ping").retrieve().toBodilessEntity();
+
+        assertNotNull(meterRegistry.find("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "stub").gauge());
+    }
+}
@@ -0,0 +1,114 @@
+package com.extractor.unraveldocs.partitioning;
+
+import com.extractor.unraveldocs.partitioning.PartitionRepository.MonthlyPartition;
+import com.extractor.unraveldocs.partitioning.config.PartitionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PartitionManagerTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2026, 10, 19, 2, 15, 0, 0, ZoneOffset.UTC);
+
+    @Mock
+    private PartitionRepository partitionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PartitionProperties properties;
+    private PartitionManager partitionManager;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PartitionProperties();
+        partitionManager = new PartitionManager(partitionRepository, properties, transactionManager,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void createFuturePartitions_coversConfiguredMonthsAhead() {
+        properties.setMonthlyTables(List.of("notifications"));
+        when(partitionRepository.createMonthlyPartitions("notifications", NOW, NOW.plusMonths(3))).thenReturn(1);
+
+        assertThat(partitionManager.createFuturePartitions(NOW)).isEqualTo(1);
+    }
+
+    @Test
+    void createFuturePartitions_leavesDailyPartitionedOutboxAlone() {
+        when(partitionRepository.createMonthlyPartitions(anyString(), eq(NOW), eq(NOW.plusMonths(3)))).thenReturn(0);
+
+        partitionManager.createFuturePartitions(NOW);
+
+        verify(partitionRepository).createMonthlyPartitions("notifications", NOW, NOW.plusMonths(3));
+        verify(partitionRepository).createMonthlyPartitions("credit_transactions", NOW, NOW.plusMonths(3));
+        verify(partitionRepository).createMonthlyPartitions("coupon_usage", NOW, NOW.plusMonths(3));
+        verify(partitionRepository, never()).createMonthlyPartitions(eq("outbox_events"), any(), any());
+        verify(partitionRepository, never()).defaultPartitionHasRows("outbox_events");
+    }
+
+    @Test
+    void dropPartitionsBefore_keepsTheMonthContainingTheCutoff() {
+        when(partitionRepository.findMonthlyPartitions("notifications")).thenReturn(List.of(
+                partition("notifications", 2026, 6),
+                partition("notifications", 2026, 7),
+                partition("notifications", 2026, 8)));
+
+        int dropped = partitionManager.dropPartitionsBefore("notifications", NOW.minusDays(90));
+
+        assertThat(dropped).isEqualTo(1);
+        verify(partitionRepository).detachPartition(eq("notifications"), eq("notifications_p202606"), anyLong());
+        verify(partitionRepository).dropDetachedPartition("notifications_p202606");
+        verify(partitionRepository, never()).dropDetachedPartition("notifications_p202607");
+    }
+
+    @Test
+    void dropPartitionsBefore_stopsWhenDetachTimesOut() {
+        when(partitionRepository.findMonthlyPartitions("notifications")).thenReturn(List.of(
+                partition("notifications", 2026, 5), partition("notifications", 2026, 6)));
+        doThrow(new CannotAcquireLockException("lock timeout"))
+                .when(partitionRepository).detachPartition(eq("notifications"), eq("notifications_p202605"), anyLong());
+
+        assertThat(partitionManager.dropPartitionsBefore("notifications", NOW.minusDays(90))).isZero();
+        verify(partitionRepository, never()).dropDetachedPartition(anyString());
+    }
+
+    @Test
+    void applyConfiguredRetention_keepsFullMonthsBesidesTheCurrentOne() {
+        properties.setRetentionMonths(Map.of("credit_transactions", 12, "coupon_usage", 0, "outbox_events", 1));
+        when(partitionRepository.findMonthlyPartitions("credit_transactions")).thenReturn(List.of(
+                partition("credit_transactions", 2025, 9), partition("credit_transactions", 2025, 10)));
+
+        assertThat(partitionManager.applyConfiguredRetention(NOW)).isEqualTo(1);
+        verify(partitionRepository).dropDetachedPartition("credit_transactions_p202509");
+        verify(partitionRepository, never()).findMonthlyPartitions("coupon_usage");
+        verify(partitionRepository, never()).findMonthlyPartitions("outbox_events");
+    }
+
+    private static MonthlyPartition partition(String table, int year, int month) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return new MonthlyPartition(String.format("%s_p%d%02d", table, year, month), yearMonth);
+    }
+}
@@ -0,0 +1,79 @@
+package com.extractor.unraveldocs.payment.paystack.controller;
+
+import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import com.extractor.unraveldocs.payment.common.enums.PaymentGateway;
+import com.extractor.unraveldocs.payment.paystack.exception.PaystackWebhookException;
+import com.extractor.unraveldocs.payment.paystack.service.PaystackWebhookService;
+import com.extractor.unraveldocs.payment.webhook.service.WebhookInboxService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaystackWebhookControllerTest {
+
+    private static final String PAYLOAD = """
+            {"event":"charge.success","data":{"reference":"ref-1","customer":{"customer_code":"CUS_1"}}}
+            """;
+
+    @Mock
+    private PaystackWebhookService webhookService;
+
+    @Mock
+    private WebhookInboxService webhookInboxService;
+
+    private PaystackWebhookController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new PaystackWebhookController(webhookService, webhookInboxService, new ObjectMapper(),
+                new SanitizeLogging());
+    }
+
+    @Test
+    @DisplayName("A request without a signature header is rejected and not stored")
+    void rejectsMissingSignature() {
+        assertThatThrownBy(() -> controller.handleWebhook(null, PAYLOAD))
+                .isInstanceOf(PaystackWebhookException.class)
+                .hasMessage("Missing webhook signature");
+
+        verify(webhookService, never()).verifyWebhookSignature(anyString(), anyString());
+        verifyNoInteractions(webhookInboxService);
+    }
+
+    @Test
+    @DisplayName("A request whose signature does not match is rejected and not stored")
+    void rejectsInvalidSignature() {
+        when(webhookService.verifyWebhookSignature(PAYLOAD, "forged")).thenReturn(false);
+
+        assertThatThrownBy(() -> controller.handleWebhook("forged", PAYLOAD))
+                .isInstanceOf(PaystackWebhookException.class)
+                .hasMessage("Invalid webhook signature");
+
+        verifyNoInteractions(webhookInboxService);
+    }
+
+    @Test
+    @DisplayName("A signed request is stored in the inbox")
+    void storesSignedEvent() {
+        when(webhookService.verifyWebhookSignature(PAYLOAD, "signed")).thenReturn(true);
+        when(webhookService.resolveEventId("charge.success", PAYLOAD)).thenReturn("charge.success:ref-1");
+
+        assertThat(controller.handleWebhook("signed", PAYLOAD).getStatusCode().value()).isEqualTo(200);
+
+        verify(webhookInboxService).accept(PaymentGateway.PAYSTACK, "charge.success:ref-1", "charge.success",
+                "CUS_1", PAYLOAD);
+    }
+}
@@ -1,10 +1,17 @@
 package com.extractor.unraveldocs.payment.paystack.service;
 
+import com.extractor.unraveldocs.coupon.dto.response.DiscountCalculationData;
+import com.extractor.unraveldocs.coupon.exception.InvalidCouponException;
+import com.extractor.unraveldocs.coupon.service.CouponValidationService;
+import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
 import com.extractor.unraveldocs.payment.enums.PaymentStatus;
+import com.extractor.unraveldocs.payment.paystack.config.PaystackConfig;
+import com.extractor.unraveldocs.payment.paystack.dto.request.InitializeTransactionRequest;
 import com.extractor.unraveldocs.payment.paystack.model.PaystackCustomer;
 import com.extractor.unraveldocs.payment.paystack.model.PaystackPayment;
 import com.extractor.unraveldocs.payment.paystack.repository.PaystackPaymentRepository;
 import com.extractor.unraveldocs.user.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -18,12 +25,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.client.RestClient;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 /**
@@ -37,6 +46,15 @@ class PaystackPaymentServiceTest {
     @Mock
     private PaystackPaymentRepository paymentRepository;
 
+    @Mock
+    private RestClient paystackRestClient;
+
+    @Mock
+    private PaystackCustomerService customerService;
+
+    @Mock
+    private CouponValidationService couponValidationService;
+
     @Captor
     private ArgumentCaptor<PaystackPayment> paymentCaptor;
 
@@ -321,4 +339,43 @@ class PaystackPaymentServiceTest {
             assertThat(payment.getFees()).isEqualTo(new BigDecimal("1.00"));
         }
     }
+
+    @Nested
+    @DisplayName("Initialize Transaction Tests")
+    class InitializeTransactionTests {
+
+        @Test
+        @DisplayName("Should surface a coupon usage limit instead of a generic initialization failure")
+        void shouldRethrowCouponLimitReached() {
+            // Given
+            PaystackPaymentService service = new PaystackPaymentService(paystackRestClient, new PaystackConfig(),
+                    customerService, paymentRepository, new ObjectMapper(), new SanitizeLogging(),
+                    couponValidationService);
+            InitializeTransactionRequest request = InitializeTransactionRequest.builder()
+                    .email("test@example.com")
+                    .amount(new BigDecimal("5000"))
+                    .reference("PAY_LIMIT")
+                    .couponCode("SAVE10")
+                    .build();
+
+            when(customerService.getOrCreateCustomer(testUser)).thenReturn(testCustomer);
+            when(couponValidationService.applyCouponToAmount(any(), eq(testUser)))
+                    .thenReturn(DiscountCalculationData.builder()
+                            .couponCode("SAVE10")
+                            .discountAmount(new BigDecimal("500"))
+                            .finalAmount(new BigDecimal("4500"))
+                            .minPurchaseRequirementMet(true)
+                            .build());
+            doThrow(new InvalidCouponException("Coupon usage limit reached"))
+                    .when(couponValidationService).reserveCouponUsage("SAVE10", testUser, "PAY_LIMIT");
+
+            // When / Then
+            assertThatThrownBy(() -> service.initializeTransaction(testUser, request))
+                    .isInstanceOf(InvalidCouponException.class)
+                    .hasMessage("Coupon usage limit reached");
+
+            verify(couponValidationService, never()).releaseCouponReservation(anyString(), anyString());
+            verifyNoInteractions(paystackRestClient, paymentRepository);
+        }
+    }
 }
@@ -0,0 +1,175 @@
+package com.extractor.unraveldocs.payment.receipt.service;
+
+import com.extractor.unraveldocs.elasticsearch.events.IndexAction;
+import com.extractor.unraveldocs.elasticsearch.service.ElasticsearchIndexingService;
+import com.extractor.unraveldocs.payment.receipt.config.ReceiptConfig;
+import com.extractor.unraveldocs.payment.receipt.dto.ReceiptData;
+import com.extractor.unraveldocs.payment.receipt.enums.PaymentProvider;
+import com.extractor.unraveldocs.payment.receipt.enums.ReceiptStage;
+import com.extractor.unraveldocs.payment.receipt.model.Receipt;
+import com.extractor.unraveldocs.payment.receipt.repository.ReceiptPipelineRepository;
+import com.extractor.unraveldocs.payment.receipt.repository.ReceiptPipelineRepository.ClaimedReceipt;
+import com.extractor.unraveldocs.payment.receipt.repository.ReceiptRepository;
+import com.extractor.unraveldocs.user.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReceiptPipelineTest {
+
+    private static final String RECEIPT_ID = "rec_123";
+    private static final String RECEIPT_NUMBER = "RCP-20261019-00000042";
+    private static final byte[] PDF = {1, 2, 3};
+
+    @Mock
+    private ReceiptRepository receiptRepository;
+
+    @Mock
+    private ReceiptPipelineRepository pipelineRepository;
+
+    @Mock
+    private ReceiptPdfService receiptPdfService;
+
+    @Mock
+    private ReceiptStorageService receiptStorageService;
+
+    @Mock
+    private ReceiptEmailService receiptEmailService;
+
+    @Mock
+    private ElasticsearchIndexingService elasticsearchIndexingService;
+
+    private ReceiptConfig receiptConfig;
+    private Receipt receipt;
+    private ReceiptPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        receiptConfig = new ReceiptConfig();
+        receiptConfig.getPipeline().setMaxAttempts(3);
+        receiptConfig.getPipeline().setInitialBackoffSeconds(30);
+        receiptConfig.getPipeline().setMaxBackoffSeconds(600);
+
+        User user = new User();
+        user.setId("usr_123");
+        receipt = Receipt.builder()
+                .id(RECEIPT_ID)
+                .user(user)
+                .receiptNumber(RECEIPT_NUMBER)
+                .paymentProvider(PaymentProvider.STRIPE)
+                .externalPaymentId("pi_123")
+                .amount(new BigDecimal("29.99"))
+                .currency("USD")
+                .customerName("Test User")
+                .customerEmail("test@example.com")
+                .build();
+        lenient().when(receiptRepository.findWithUserById(RECEIPT_ID)).thenReturn(Optional.of(receipt));
+
+        pipeline = new ReceiptPipeline(receiptRepository, pipelineRepository, receiptPdfService,
+                receiptStorageService, receiptEmailService, Optional.of(elasticsearchIndexingService),
+                receiptConfig, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Render stage stores the PDF from the saved receipt")
+    void renderStoresPdf() {
+        when(receiptPdfService.generateReceiptPdf(eq(RECEIPT_NUMBER), any())).thenReturn(PDF);
+
+        pipeline.process(ReceiptStage.RENDER, new ClaimedReceipt(RECEIPT_ID, 1));
+
+        ArgumentCaptor<ReceiptData> data = ArgumentCaptor.forClass(ReceiptData.class);
+        verify(receiptPdfService).generateReceiptPdf(eq(RECEIPT_NUMBER), data.capture());
+        assertThat(data.getValue().getUserId()).isEqualTo("usr_123");
+        assertThat(data.getValue().getCustomerEmail()).isEqualTo("test@example.com");
+        verify(pipelineRepository).rendered(RECEIPT_ID, PDF);
+    }
+
+    @Test
+    @DisplayName("Store stage uploads the rendered PDF and indexes the payment")
+    void storeUploadsAndIndexes() {
+        when(pipelineRepository.findDocument(RECEIPT_ID)).thenReturn(PDF);
+        when(receiptStorageService.uploadReceipt(PDF, RECEIPT_NUMBER)).thenReturn("https://s3/receipt.pdf");
+        when(pipelineRepository.stored(RECEIPT_ID, "https://s3/receipt.pdf")).thenReturn(true);
+
+        pipeline.process(ReceiptStage.STORE, new ClaimedReceipt(RECEIPT_ID, 1));
+
+        verify(elasticsearchIndexingService).indexPayment(receipt, IndexAction.CREATE);
+        assertThat(receipt.getReceiptUrl()).isEqualTo("https://s3/receipt.pdf");
+        verifyNoInteractions(receiptPdfService);
+    }
+
+    @Test
+    @DisplayName("Deliver stage emails the stored PDF and completes the receipt")
+    void deliverSendsEmail() {
+        when(pipelineRepository.findDocument(RECEIPT_ID)).thenReturn(PDF);
+
+        pipeline.process(ReceiptStage.DELIVER, new ClaimedReceipt(RECEIPT_ID, 1));
+
+        verify(receiptEmailService).deliverReceiptEmail(eq(RECEIPT_NUMBER), any(), eq(PDF));
+        verify(pipelineRepository).delivered(RECEIPT_ID, true);
+    }
+
+    @Test
+    @DisplayName("Deliver stage completes a receipt without customer email unsent")
+    void deliverWithoutEmailCompletes() {
+        receipt.setCustomerEmail(null);
+
+        pipeline.process(ReceiptStage.DELIVER, new ClaimedReceipt(RECEIPT_ID, 1));
+
+        verifyNoInteractions(receiptEmailService);
+        verify(pipelineRepository).delivered(RECEIPT_ID, false);
+    }
+
+    @Test
+    @DisplayName("A failed stage is retried later without repeating earlier stages")
+    void failureSchedulesRetry() {
+        when(pipelineRepository.findDocument(RECEIPT_ID)).thenReturn(PDF);
+        when(receiptStorageService.uploadReceipt(PDF, RECEIPT_NUMBER)).thenThrow(new RuntimeException("S3 down"));
+
+        OffsetDateTime before = OffsetDateTime.now();
+        pipeline.process(ReceiptStage.STORE, new ClaimedReceipt(RECEIPT_ID, 1));
+
+        ArgumentCaptor<OffsetDateTime> nextAttempt = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(pipelineRepository).retry(eq(RECEIPT_ID), eq(ReceiptStage.STORE), nextAttempt.capture(),
+                contains("S3 down"));
+        assertThat(nextAttempt.getValue()).isAfterOrEqualTo(before.plusSeconds(15));
+        verify(pipelineRepository, never()).stored(any(), any());
+        verify(pipelineRepository, never()).park(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("A stage failing on its last attempt is parked")
+    void lastAttemptParks() {
+        when(pipelineRepository.findDocument(RECEIPT_ID)).thenReturn(PDF);
+        doThrow(new RuntimeException("Mailgun rejected")).when(receiptEmailService)
+                .deliverReceiptEmail(any(), any(), any());
+
+        pipeline.process(ReceiptStage.DELIVER, new ClaimedReceipt(RECEIPT_ID, 3));
+
+        verify(pipelineRepository).park(eq(RECEIPT_ID), eq(ReceiptStage.DELIVER), contains("Mailgun rejected"));
+        verify(pipelineRepository, never()).delivered(any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Backoff doubles per attempt, is capped and keeps at least half the delay")
+    void backoffIsCappedWithJitter() {
+        assertThat(pipeline.backoff(1)).isBetween(Duration.ofSeconds(15), Duration.ofSeconds(30));
+        assertThat(pipeline.backoff(3)).isBetween(Duration.ofSeconds(60), Duration.ofSeconds(120));
+        assertThat(pipeline.backoff(10)).isBetween(Duration.ofSeconds(300), Duration.ofSeconds(600));
+    }
+}
@@ -0,0 +1,71 @@
+package com.extractor.unraveldocs.payment.webhook.service;
+
+import com.extractor.unraveldocs.payment.common.enums.PaymentGateway;
+import com.extractor.unraveldocs.payment.webhook.repository.WebhookInboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookInboxServiceTest {
+
+    @Mock
+    private WebhookInboxRepository inboxRepository;
+
+    private MeterRegistry meterRegistry;
+    private WebhookInboxService inboxService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        inboxService = new WebhookInboxService(inboxRepository, meterRegistry);
+    }
+
+    @Test
+    void acceptStoresEventUnderItsCustomer() {
+        when(inboxRepository.insert(PaymentGateway.STRIPE, "evt_1", "invoice.paid", "cus_1", "{}")).thenReturn(true);
+
+        assertThat(inboxService.accept(PaymentGateway.STRIPE, "evt_1", "invoice.paid", "cus_1", "{}")).isTrue();
+
+        assertThat(meterRegistry.get("webhook.inbox.events").tag("result", "received").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void redeliveryIsCountedAsDuplicate() {
+        when(inboxRepository.insert(PaymentGateway.PAYPAL, "WH-1", "PAYMENT.CAPTURE.COMPLETED", "ORDER-1", "{}"))
+                .thenReturn(false);
+
+        assertThat(inboxService.accept(PaymentGateway.PAYPAL, "WH-1", "PAYMENT.CAPTURE.COMPLETED", "ORDER-1", "{}"))
+                .isFalse();
+
+        assertThat(meterRegistry.get("webhook.inbox.events").tag("result", "duplicate").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void eventWithoutCustomerGetsItsOwnPartition() {
+        inboxService.accept(PaymentGateway.STRIPE, "evt_2", "charge.refunded", null, "{}");
+
+        verify(inboxRepository).insert(PaymentGateway.STRIPE, "evt_2", "charge.refunded", "event:evt_2", "{}");
+    }
+
+    @Test
+    void firstTextReadsFirstPresentValueAndObjectIds() throws Exception {
+        var json = new ObjectMapper().readTree("""
+                {"data": {"object": {"customer": {"id": "cus_9"}, "empty": "", "none": null}}}
+                """);
+
+        assertThat(WebhookInboxService.firstText(json, "/data/object/none", "/data/object/empty",
+                "/data/object/customer")).isEqualTo("cus_9");
+        assertThat(WebhookInboxService.firstText(json, "/missing")).isNull();
+    }
+}
@@ -0,0 +1,142 @@
+package com.extractor.unraveldocs.payment.webhook.service;
+
+import com.extractor.unraveldocs.payment.common.enums.PaymentGateway;
+import com.extractor.unraveldocs.payment.webhook.config.WebhookInboxProperties;
+import com.extractor.unraveldocs.payment.webhook.model.WebhookInboxEvent;
+import com.extractor.unraveldocs.payment.webhook.repository.WebhookInboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookInboxWorkerTest {
+
+    private static final String CUSTOMER = "cus_123";
+
+    @Mock
+    private WebhookInboxRepository inboxRepository;
+
+    @Mock
+    private WebhookEventHandler stripeHandler;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private WebhookInboxProperties properties;
+    private WebhookInboxWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WebhookInboxProperties();
+        properties.setMaxAttempts(3);
+        properties.setInitialBackoffSeconds(30);
+        properties.setMaxBackoffSeconds(600);
+
+        when(stripeHandler.getProvider()).thenReturn(PaymentGateway.STRIPE);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        worker = new WebhookInboxWorker(inboxRepository, List.of(stripeHandler), properties,
+                transactionManager, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Processes a customer's events in order until none is due")
+    void drainProcessesCustomerEventsInOrder() {
+        WebhookInboxEvent first = event(1, PaymentGateway.STRIPE, 1);
+        WebhookInboxEvent second = event(2, PaymentGateway.STRIPE, 1);
+        when(inboxRepository.claimNext(PaymentGateway.STRIPE, CUSTOMER, properties.getLeaseSeconds()))
+                .thenReturn(second, (WebhookInboxEvent) null);
+        when(inboxRepository.markProcessed(anyLong(), eq(1))).thenReturn(true);
+
+        worker.drain(first);
+
+        InOrder inOrder = inOrder(stripeHandler, inboxRepository);
+        inOrder.verify(stripeHandler).handle(first);
+        inOrder.verify(inboxRepository).markProcessed(1, 1);
+        inOrder.verify(stripeHandler).handle(second);
+        inOrder.verify(inboxRepository).markProcessed(2, 1);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("A failed event is retried later and holds back the customer's next events")
+    void failureSchedulesRetryAndStopsDrain() {
+        WebhookInboxEvent first = event(1, PaymentGateway.STRIPE, 1);
+        doThrow(new IllegalStateException("database unavailable")).when(stripeHandler).handle(first);
+
+        OffsetDateTime before = OffsetDateTime.now();
+        worker.drain(first);
+
+        ArgumentCaptor<OffsetDateTime> nextAttempt = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(inboxRepository).markRetry(eq(1L), eq(1), nextAttempt.capture(), contains("database unavailable"));
+        assertThat(nextAttempt.getValue()).isAfterOrEqualTo(before.plusSeconds(15));
+        verify(inboxRepository, never()).markProcessed(anyLong(), anyInt());
+        verify(inboxRepository, never()).claimNext(any(), any(), anyLong());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("An event that fails its last attempt is moved to dead letter")
+    void lastAttemptMovesEventToDeadLetter() {
+        WebhookInboxEvent event = event(7, PaymentGateway.STRIPE, 3);
+        doThrow(new IllegalStateException("bad payload")).when(stripeHandler).handle(event);
+
+        assertThat(worker.process(event)).isFalse();
+
+        verify(inboxRepository).markDead(eq(7L), eq(3), contains("bad payload"));
+        verify(inboxRepository, never()).markRetry(anyLong(), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("An event of a provider without a handler is retried, not dropped")
+    void missingHandlerIsAFailure() {
+        WebhookInboxEvent event = event(4, PaymentGateway.PAYSTACK, 1);
+
+        assertThat(worker.process(event)).isFalse();
+
+        verify(inboxRepository).markRetry(eq(4L), eq(1), any(), contains("No webhook handler"));
+        verify(inboxRepository, never()).markProcessed(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("An event claimed again after its lease ran out is rolled back and left to the new claim")
+    void lostClaimRollsBackWithoutRecordingAnOutcome() {
+        WebhookInboxEvent event = event(5, PaymentGateway.STRIPE, 1);
+        when(inboxRepository.markProcessed(5, 1)).thenReturn(false);
+
+        worker.drain(event);
+
+        verify(stripeHandler).handle(event);
+        verify(transactionManager).rollback(any());
+        verify(inboxRepository, never()).markRetry(anyLong(), anyInt(), any(), any());
+        verify(inboxRepository, never()).claimNext(any(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Backoff doubles per attempt with jitter and stays under the cap")
+    void backoffGrowsExponentiallyAndIsCapped() {
+        assertThat(worker.backoff(1)).isBetween(Duration.ofSeconds(15), Duration.ofSeconds(30));
+        assertThat(worker.backoff(3)).isBetween(Duration.ofSeconds(60), Duration.ofSeconds(120));
+        assertThat(worker.backoff(30)).isBetween(Duration.ofSeconds(300), Duration.ofSeconds(600));
+    }
+
+    private static WebhookInboxEvent event(long id, PaymentGateway provider, int attempt) {
+        return new WebhookInboxEvent(id, provider, "evt_" + id, "invoice.payment_succeeded", CUSTOMER, "{}", attempt);
+    }
+}
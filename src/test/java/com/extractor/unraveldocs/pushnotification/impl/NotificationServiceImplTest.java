@@ -0,0 +1,126 @@
+package com.extractor.unraveldocs.pushnotification.impl;
+
+import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import com.extractor.unraveldocs.pushnotification.config.NotificationConfig;
+import com.extractor.unraveldocs.pushnotification.datamodel.NotificationType;
+import com.extractor.unraveldocs.pushnotification.dto.response.NotificationResponse;
+import com.extractor.unraveldocs.pushnotification.inbox.NotificationInboxCache;
+import com.extractor.unraveldocs.pushnotification.inbox.NotificationInboxCache.CachedPage;
+import com.extractor.unraveldocs.pushnotification.inbox.NotificationInboxCache.InboxView;
+import com.extractor.unraveldocs.pushnotification.inbox.NotificationInboxEvents;
+import com.extractor.unraveldocs.pushnotification.interfaces.NotificationPreferencesService;
+import com.extractor.unraveldocs.pushnotification.model.Notification;
+import com.extractor.unraveldocs.pushnotification.repository.NotificationRepository;
+import com.extractor.unraveldocs.user.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceImplTest {
+
+    private static final String USER_ID = "user-1";
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationPreferencesService preferencesService;
+
+    @Mock
+    private NotificationInboxCache inboxCache;
+
+    @Mock
+    private NotificationInboxEvents inboxEvents;
+
+    @Mock
+    private SanitizeLogging sanitizer;
+
+    private NotificationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new NotificationServiceImpl(notificationRepository, null, sanitizer, preferencesService,
+                inboxCache, inboxEvents, new NotificationConfig());
+    }
+
+    @Test
+    void getUnreadCount_whenCounterCached_doesNotCountRows() {
+        when(inboxCache.getUnreadCount(USER_ID)).thenReturn(OptionalLong.of(4));
+
+        assertThat(service.getUnreadCount(USER_ID)).isEqualTo(4);
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void getUnreadCount_whenCounterMissing_countsAndSeeds() {
+        when(inboxCache.getUnreadCount(USER_ID)).thenReturn(OptionalLong.empty());
+        when(notificationRepository.countByUserIdAndIsReadFalse(USER_ID)).thenReturn(7L);
+
+        assertThat(service.getUnreadCount(USER_ID)).isEqualTo(7);
+        verify(inboxCache).seedUnreadCount(USER_ID, 7);
+    }
+
+    @Test
+    void getUserNotifications_firstPageServedFromCache() {
+        NotificationResponse cached = NotificationResponse.builder().id("n-1").build();
+        when(inboxCache.getFirstPage(USER_ID, InboxView.ALL))
+                .thenReturn(Optional.of(new CachedPage(List.of(cached), 31)));
+
+        Page<NotificationResponse> page = service.getUserNotifications(USER_ID, PageRequest.of(0, 20));
+
+        assertThat(page.getContent()).containsExactly(cached);
+        assertThat(page.getTotalElements()).isEqualTo(31);
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void getUserNotifications_laterPagesSkipTheCache() {
+        when(notificationRepository.findByUserIdOrderByCreatedAtDesc(eq(USER_ID), any()))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        service.getUserNotifications(USER_ID, PageRequest.of(1, 20));
+
+        verify(inboxCache, never()).getFirstPage(anyString(), any());
+        verify(inboxCache, never()).putFirstPage(anyString(), any(), any());
+    }
+
+    @Test
+    void markAsRead_onlyCountsNotificationsThatWereUnread() {
+        User user = new User();
+        user.setId(USER_ID);
+        Notification alreadyRead = Notification.builder()
+                .id("n-1").user(user).type(NotificationType.SYSTEM_ANNOUNCEMENT).isRead(true).build();
+        when(notificationRepository.findById("n-1")).thenReturn(Optional.of(alreadyRead));
+
+        service.markAsRead(USER_ID, "n-1");
+
+        verify(notificationRepository, never()).save(any());
+        verifyNoInteractions(inboxEvents);
+    }
+
+    @Test
+    void markAllAsRead_resetsTheInbox() {
+        service.markAllAsRead(USER_ID);
+
+        verify(inboxEvents).allRead(USER_ID);
+    }
+}
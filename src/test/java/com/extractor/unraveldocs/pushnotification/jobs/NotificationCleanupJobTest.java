@@ -1,14 +1,19 @@
 package com.extractor.unraveldocs.pushnotification.jobs;
 
+import com.extractor.unraveldocs.partitioning.PartitionManager;
 import com.extractor.unraveldocs.pushnotification.config.NotificationConfig;
-import com.extractor.unraveldocs.pushnotification.repository.NotificationRepository;
+import com.extractor.unraveldocs.scheduling.ClusterJobRunner;
+import com.extractor.unraveldocs.scheduling.KeyRange;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import static org.mockito.ArgumentMatchers.any;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -16,22 +21,26 @@ import static org.mockito.Mockito.when;
 class NotificationCleanupJobTest {
 
     @Mock
-    private NotificationRepository notificationRepository;
+    private PartitionManager partitionManager;
 
     @Mock
     private NotificationConfig notificationConfig;
 
+    @Mock
+    private ClusterJobRunner clusterJobRunner;
+
     @InjectMocks
     private NotificationCleanupJob job;
 
     @Test
-    void cleanupOldNotifications_deletesUsingConfiguredRetention() {
+    void dropExpiredMonths_dropsPartitionsBeforeConfiguredRetention() {
+        OffsetDateTime runStartedAt = OffsetDateTime.of(2026, 10, 19, 3, 0, 0, 0, ZoneOffset.UTC);
         when(notificationConfig.getNotificationRetentionDays()).thenReturn(90);
-        when(notificationRepository.deleteOlderThan(any())).thenReturn(5);
+        when(partitionManager.dropPartitionsBefore(eq("notifications"), eq(runStartedAt.minusDays(90))))
+                .thenReturn(1);
 
-        job.cleanupOldNotifications();
+        job.dropExpiredMonths(KeyRange.ALL, runStartedAt);
 
-        verify(notificationRepository).deleteOlderThan(any());
+        verify(partitionManager).dropPartitionsBefore("notifications", runStartedAt.minusDays(90));
     }
 }
-
@@ -0,0 +1,135 @@
+package com.extractor.unraveldocs.scheduling;
+
+import com.extractor.unraveldocs.scheduling.ClusterJobRepository.ClaimedChunk;
+import com.extractor.unraveldocs.scheduling.ClusterJobRepository.LockedRun;
+import com.extractor.unraveldocs.scheduling.ClusterJobRepository.RunState;
+import com.extractor.unraveldocs.scheduling.ClusterJobRepository.RunTotals;
+import com.extractor.unraveldocs.scheduling.config.ClusterJobProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterJobRunnerTest {
+
+    private static final String JOB = "test-job";
+    private static final KeySpace KEY_SPACE = KeySpace.of("items", "due_at <= :runStartedAt");
+
+    @Mock
+    private ClusterJobRepository repository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OffsetDateTime startedAt = OffsetDateTime.now();
+    private ClusterJobRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        ClusterJobProperties properties = new ClusterJobProperties();
+        properties.setChunkSize(2);
+        properties.setWorkersPerNode(1);
+        runner = new ClusterJobRunner(repository, properties, transactionTemplate, meterRegistry);
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(new SimpleTransactionStatus());
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        runner.shutdown();
+    }
+
+    @Test
+    @DisplayName("run plans keyset chunks, processes each one and closes the run")
+    void runPlansProcessesAndCloses() {
+        RunState run = new RunState(7, true, startedAt);
+        when(repository.lockRun(eq(JOB), anyLong())).thenReturn(new LockedRun(new RunState(6, false, null), false));
+        when(repository.beginRun(eq(JOB), anyString())).thenReturn(run);
+        when(repository.findChunkEnd(KEY_SPACE, startedAt, "", 2)).thenReturn("b");
+        when(repository.findChunkEnd(KEY_SPACE, startedAt, "b", 2)).thenReturn("c");
+        when(repository.findChunkEnd(KEY_SPACE, startedAt, "c", 2)).thenReturn(null);
+        when(repository.claimChunk(eq(JOB), eq(7L), anyString(), anyLong(), anyInt()))
+                .thenReturn(Optional.of(new ClaimedChunk(0, new KeyRange("", "b"), 1)))
+                .thenReturn(Optional.of(new ClaimedChunk(1, new KeyRange("b", "c"), 1)))
+                .thenReturn(Optional.empty());
+        when(repository.completeChunk(eq(JOB), eq(7L), anyInt(), anyString(), any())).thenReturn(true);
+        when(repository.completeRunIfDone(JOB, 7L))
+                .thenReturn(Optional.of(new RunTotals(startedAt, startedAt.plusSeconds(5), 3, 0, 0)));
+
+        ClusterJobReport report = runner.run(ClusterJob.chunked(JOB, KEY_SPACE,
+                (range, runStartedAt) -> ChunkResult.of(range.upToKey().equals("b") ? 2 : 1)));
+
+        verify(repository).insertChunks(JOB, 7L, List.of(new KeyRange("", "b"), new KeyRange("b", "c")));
+        assertThat(report.chunks()).isEqualTo(2);
+        assertThat(report.processed()).isEqualTo(3);
+        assertThat(report.completed()).isTrue();
+        assertThat(meterRegistry.get("cluster.jobs.run.duration").tag("job", JOB).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("run skips when another node started this schedule's run")
+    void runSkipsRecentlyStartedRun() {
+        when(repository.lockRun(eq(JOB), anyLong())).thenReturn(new LockedRun(new RunState(3, false, startedAt), true));
+
+        ClusterJobReport report = runner.run(ClusterJob.single(JOB, (range, runStartedAt) -> ChunkResult.EMPTY));
+
+        assertThat(report.runId()).isZero();
+        verify(repository, never()).beginRun(any(), any());
+        verify(repository, never()).claimChunk(any(), anyLong(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("run joins a run in progress without planning it again")
+    void runJoinsRunningRun() {
+        when(repository.lockRun(eq(JOB), anyLong())).thenReturn(new LockedRun(new RunState(4, true, startedAt), false));
+        when(repository.claimChunk(eq(JOB), eq(4L), anyString(), anyLong(), anyInt())).thenReturn(Optional.empty());
+        when(repository.completeRunIfDone(JOB, 4L)).thenReturn(Optional.empty());
+        when(repository.countOpenChunks(JOB, 4L)).thenReturn(2L);
+
+        runner.run(ClusterJob.chunked(JOB, KEY_SPACE, (range, runStartedAt) -> ChunkResult.EMPTY));
+
+        verify(repository, never()).beginRun(any(), any());
+        verify(repository, never()).insertChunks(any(), anyLong(), any());
+        assertThat(meterRegistry.get("cluster.jobs.backlog").tag("job", JOB).gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("a chunk that throws is released for another attempt")
+    void failingChunkIsReleased() {
+        RunState run = new RunState(1, true, startedAt);
+        when(repository.lockRun(eq(JOB), anyLong())).thenReturn(new LockedRun(new RunState(0, false, null), false));
+        when(repository.beginRun(eq(JOB), anyString())).thenReturn(run);
+        when(repository.claimChunk(eq(JOB), eq(1L), anyString(), anyLong(), anyInt()))
+                .thenReturn(Optional.of(new ClaimedChunk(0, KeyRange.ALL, 1)))
+                .thenReturn(Optional.empty());
+        when(repository.completeRunIfDone(JOB, 1L)).thenReturn(Optional.empty());
+
+        runner.run(ClusterJob.single(JOB, (range, runStartedAt) -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        verify(repository).insertChunks(JOB, 1L, List.of(KeyRange.ALL));
+        verify(repository).releaseChunk(eq(JOB), eq(1L), eq(0), anyString(), eq(3), eq("boom"));
+        verify(repository, never()).completeChunk(any(), anyLong(), anyInt(), any(), any());
+    }
+}
@@ -2,6 +2,7 @@ package com.extractor.unraveldocs.storage.service;
 
 import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
 import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import com.extractor.unraveldocs.metrics.kpi.service.KpiRecorder;
 import com.extractor.unraveldocs.storage.dto.StorageInfo;
 import com.extractor.unraveldocs.subscription.datamodel.SubscriptionPlans;
 import com.extractor.unraveldocs.subscription.datamodel.SubscriptionSource;
@@ -47,6 +48,8 @@ class StorageAllocationServiceTest {
 
     @Mock
     private SanitizeLogging sanitizer;
+    @Mock
+    private KpiRecorder kpiRecorder;
 
     @InjectMocks
     private StorageAllocationService storageAllocationService;
@@ -141,8 +144,69 @@ class StorageAllocationServiceTest {
         assertThat(result.getDocumentUploadLimit()).isEqualTo(200);
         assertThat(result.getDocumentsUploaded()).isEqualTo(3);
     }
-}
 
+    @Test
+    @DisplayName("getStorageInfo resolves the linked team directly when the entitlement version is current")
+    void getStorageInfoUsesLinkedTeamWhenEntitlementIsCurrent() {
+        UserSubscription userSubscription = new UserSubscription();
+        userSubscription.setUser(user);
+        userSubscription.setSubscriptionSource(SubscriptionSource.TEAM);
+        userSubscription.setTeamId("team-1");
+        userSubscription.setTeamEntitlementVersion(4L);
 
+        TeamSubscriptionPlan teamPlan = new TeamSubscriptionPlan();
+        teamPlan.setDisplayName("Team Premium");
+        teamPlan.setMonthlyDocumentLimit(200);
 
+        Team team = new Team();
+        team.setId("team-1");
+        team.setSubscriptionStatus(TeamSubscriptionStatus.ACTIVE);
+        team.setPlan(teamPlan);
+        team.setEntitlementVersion(4L);
 
+        when(userSubscriptionRepository.findByUserId(user.getId())).thenReturn(Optional.of(userSubscription));
+        when(teamRepository.findById("team-1")).thenReturn(Optional.of(team));
+        when(documentCollectionRepository.countByUserId(user.getId())).thenReturn(3L);
+
+        StorageInfo result = storageAllocationService.getStorageInfo(user);
+
+        assertThat(result.getSubscriptionPlan()).isEqualTo("Team Premium");
+        verify(teamMemberRepository, never()).findByUserId(any());
+    }
+
+    @Test
+    @DisplayName("getStorageInfo falls back to team memberships when the entitlement version is stale")
+    void getStorageInfoFallsBackWhenEntitlementIsStale() {
+        SubscriptionPlan freePlan = new SubscriptionPlan();
+        freePlan.setName(SubscriptionPlans.FREE);
+        freePlan.setStorageLimit(125829120L);
+        freePlan.setDocumentUploadLimit(5);
+        freePlan.setOcrPageLimit(25);
+
+        UserSubscription userSubscription = new UserSubscription();
+        userSubscription.setUser(user);
+        userSubscription.setPlan(freePlan);
+        userSubscription.setSubscriptionSource(SubscriptionSource.TEAM);
+        userSubscription.setTeamId("team-1");
+        userSubscription.setTeamEntitlementVersion(3L);
+
+        Team team = new Team();
+        team.setId("team-1");
+        team.setSubscriptionStatus(TeamSubscriptionStatus.EXPIRED);
+        team.setEntitlementVersion(4L);
+
+        TeamMember member = new TeamMember();
+        member.setTeam(team);
+        member.setUser(user);
+
+        when(userSubscriptionRepository.findByUserId(user.getId())).thenReturn(Optional.of(userSubscription));
+        when(userSubscriptionRepository.findByUserIdWithPlan(user.getId())).thenReturn(Optional.of(userSubscription));
+        when(teamRepository.findById("team-1")).thenReturn(Optional.of(team));
+        when(teamMemberRepository.findByUserId(user.getId())).thenReturn(List.of(member));
+
+        StorageInfo result = storageAllocationService.getStorageInfo(user);
+
+        assertThat(result.getStorageLimit()).isEqualTo(125829120L);
+        verify(teamMemberRepository).findByUserId(user.getId());
+    }
+}
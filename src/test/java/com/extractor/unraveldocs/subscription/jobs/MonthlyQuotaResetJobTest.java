@@ -1,9 +1,11 @@
 package com.extractor.unraveldocs.subscription.jobs;
 
-import com.extractor.unraveldocs.subscription.model.UserSubscription;
+import com.extractor.unraveldocs.scheduling.ChunkResult;
+import com.extractor.unraveldocs.scheduling.ClusterJob;
+import com.extractor.unraveldocs.scheduling.ClusterJobReport;
+import com.extractor.unraveldocs.scheduling.ClusterJobRunner;
+import com.extractor.unraveldocs.scheduling.KeyRange;
 import com.extractor.unraveldocs.subscription.repository.UserSubscriptionRepository;
-import com.extractor.unraveldocs.user.model.User;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,11 +17,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.TemporalAdjusters;
-import java.util.Collections;
-import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,135 +29,76 @@ class MonthlyQuotaResetJobTest {
     @Mock
     private UserSubscriptionRepository userSubscriptionRepository;
 
+    @Mock
+    private ClusterJobRunner clusterJobRunner;
+
     @InjectMocks
     private MonthlyQuotaResetJob monthlyQuotaResetJob;
 
-    private UserSubscription testSubscription;
-    private User testUser;
-
-    @BeforeEach
-    void setUp() {
-        testUser = new User();
-        testUser.setId("user-123");
-        testUser.setEmail("test@example.com");
-
-        testSubscription = new UserSubscription();
-        testSubscription.setId("sub-123");
-        testSubscription.setUser(testUser);
-        testSubscription.setMonthlyDocumentsUploaded(15);
-        testSubscription.setOcrPagesUsed(20);
-        testSubscription.setQuotaResetDate(OffsetDateTime.now(ZoneOffset.UTC).minusDays(1)); // Past due for reset
-    }
+    private final KeyRange range = new KeyRange("sub-100", "sub-200");
 
     @Test
-    @DisplayName("Should reset monthly quotas when subscription is due for reset")
-    void shouldResetMonthlyQuotasWhenDue() {
-        // Given
-        when(userSubscriptionRepository.findSubscriptionsNeedingQuotaReset(any(OffsetDateTime.class)))
-                .thenReturn(List.of(testSubscription));
-        when(userSubscriptionRepository.save(any(UserSubscription.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-
-        // When
-        monthlyQuotaResetJob.resetMonthlyQuotas();
+    @DisplayName("Should run the quota reset as a chunked job over subscriptions due for reset")
+    void shouldRunResetAsChunkedJob() {
+        when(clusterJobRunner.run(any(ClusterJob.class)))
+                .thenReturn(ClusterJobReport.skipped(MonthlyQuotaResetJob.RESET_JOB));
 
-        // Then
-        ArgumentCaptor<UserSubscription> captor = ArgumentCaptor.forClass(UserSubscription.class);
-        verify(userSubscriptionRepository).save(captor.capture());
-
-        UserSubscription savedSubscription = captor.getValue();
-        assertThat(savedSubscription.getMonthlyDocumentsUploaded()).isZero();
-        assertThat(savedSubscription.getOcrPagesUsed()).isZero();
-        assertThat(savedSubscription.getQuotaResetDate()).isAfter(OffsetDateTime.now(ZoneOffset.UTC));
-    }
-
-    @Test
-    @DisplayName("Should not process when no subscriptions need reset")
-    void shouldNotProcessWhenNoSubscriptionsNeedReset() {
-        // Given
-        when(userSubscriptionRepository.findSubscriptionsNeedingQuotaReset(any(OffsetDateTime.class)))
-                .thenReturn(Collections.emptyList());
-
-        // When
         monthlyQuotaResetJob.resetMonthlyQuotas();
 
-        // Then
-        verify(userSubscriptionRepository, never()).save(any());
+        ArgumentCaptor<ClusterJob> captor = ArgumentCaptor.forClass(ClusterJob.class);
+        verify(clusterJobRunner).run(captor.capture());
+        ClusterJob job = captor.getValue();
+        assertThat(job.name()).isEqualTo(MonthlyQuotaResetJob.RESET_JOB);
+        assertThat(job.keySpace().table()).isEqualTo("user_subscriptions");
+        assertThat(job.keySpace().condition()).contains("quota_reset_date <= :runStartedAt");
     }
 
     @Test
-    @DisplayName("Should set next reset date to first day of next month")
-    void shouldSetNextResetDateToFirstDayOfNextMonth() {
-        // Given
-        when(userSubscriptionRepository.findSubscriptionsNeedingQuotaReset(any(OffsetDateTime.class)))
-                .thenReturn(List.of(testSubscription));
-        when(userSubscriptionRepository.save(any(UserSubscription.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-
+    @DisplayName("Should reset quotas in the chunk's key range and move the reset date to next month")
+    void shouldResetQuotasInChunk() {
+        OffsetDateTime runStartedAt = OffsetDateTime.now(ZoneOffset.UTC);
         OffsetDateTime expectedResetDate = OffsetDateTime.now(ZoneOffset.UTC)
                 .with(TemporalAdjusters.firstDayOfNextMonth())
                 .withHour(0)
                 .withMinute(0)
                 .withSecond(0)
                 .withNano(0);
+        when(userSubscriptionRepository.resetQuotasInKeyRange(eq("sub-100"), eq("sub-200"), eq(runStartedAt), any()))
+                .thenReturn(3);
 
-        // When
-        monthlyQuotaResetJob.resetMonthlyQuotas();
+        ChunkResult result = monthlyQuotaResetJob.resetQuotas(range, runStartedAt);
 
-        // Then
-        ArgumentCaptor<UserSubscription> captor = ArgumentCaptor.forClass(UserSubscription.class);
-        verify(userSubscriptionRepository).save(captor.capture());
-
-        UserSubscription savedSubscription = captor.getValue();
-        assertThat(savedSubscription.getQuotaResetDate()).isEqualTo(expectedResetDate);
+        assertThat(result.processed()).isEqualTo(3);
+        ArgumentCaptor<OffsetDateTime> nextReset = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(userSubscriptionRepository).resetQuotasInKeyRange(eq("sub-100"), eq("sub-200"), eq(runStartedAt),
+                nextReset.capture());
+        assertThat(nextReset.getValue()).isEqualTo(expectedResetDate);
     }
 
     @Test
-    @DisplayName("Should initialize quota reset dates for subscriptions without one")
-    void shouldInitializeQuotaResetDatesForSubscriptionsWithoutOne() {
-        // Given
-        UserSubscription subscriptionWithoutResetDate = new UserSubscription();
-        subscriptionWithoutResetDate.setId("sub-456");
-        subscriptionWithoutResetDate.setQuotaResetDate(null);
-
-        when(userSubscriptionRepository.findSubscriptionsWithoutQuotaResetDate())
-                .thenReturn(List.of(subscriptionWithoutResetDate));
-        when(userSubscriptionRepository.save(any(UserSubscription.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-
-        // When
-        monthlyQuotaResetJob.initializeQuotaResetDates();
-
-        // Then
-        ArgumentCaptor<UserSubscription> captor = ArgumentCaptor.forClass(UserSubscription.class);
-        verify(userSubscriptionRepository).save(captor.capture());
-
-        UserSubscription savedSubscription = captor.getValue();
-        assertThat(savedSubscription.getQuotaResetDate()).isNotNull();
-        assertThat(savedSubscription.getQuotaResetDate()).isAfter(OffsetDateTime.now(ZoneOffset.UTC));
+    @DisplayName("Should initialize reset dates in the chunk's key range")
+    void shouldInitializeResetDatesInChunk() {
+        OffsetDateTime runStartedAt = OffsetDateTime.now(ZoneOffset.UTC);
+        when(userSubscriptionRepository.initializeQuotaResetDatesInKeyRange(eq("sub-100"), eq("sub-200"),
+                eq(runStartedAt), any())).thenReturn(2);
+
+        ChunkResult result = monthlyQuotaResetJob.initializeResetDates(range, runStartedAt);
+
+        assertThat(result.processed()).isEqualTo(2);
+        ArgumentCaptor<OffsetDateTime> nextReset = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(userSubscriptionRepository).initializeQuotaResetDatesInKeyRange(eq("sub-100"), eq("sub-200"),
+                eq(runStartedAt), nextReset.capture());
+        assertThat(nextReset.getValue()).isAfter(runStartedAt);
     }
 
     @Test
-    @DisplayName("Should handle null values in subscription gracefully during reset")
-    void shouldHandleNullValuesInSubscriptionGracefully() {
-        // Given
-        testSubscription.setMonthlyDocumentsUploaded(null);
-        testSubscription.setOcrPagesUsed(null);
-
-        when(userSubscriptionRepository.findSubscriptionsNeedingQuotaReset(any(OffsetDateTime.class)))
-                .thenReturn(List.of(testSubscription));
-        when(userSubscriptionRepository.save(any(UserSubscription.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-
-        // When
-        monthlyQuotaResetJob.resetMonthlyQuotas();
+    @DisplayName("Should report an empty chunk when nothing is due")
+    void shouldReportEmptyChunk() {
+        when(userSubscriptionRepository.resetQuotasInKeyRange(any(), any(), any(), any())).thenReturn(0);
 
-        // Then
-        ArgumentCaptor<UserSubscription> captor = ArgumentCaptor.forClass(UserSubscription.class);
-        verify(userSubscriptionRepository).save(captor.capture());
+        ChunkResult result = monthlyQuotaResetJob.resetQuotas(range, OffsetDateTime.now());
 
-        UserSubscription savedSubscription = captor.getValue();
-        assertThat(savedSubscription.getMonthlyDocumentsUploaded()).isZero();
-        assertThat(savedSubscription.getOcrPagesUsed()).isZero();
+        assertThat(result.processed()).isZero();
+        verify(userSubscriptionRepository, never()).save(any());
     }
 }
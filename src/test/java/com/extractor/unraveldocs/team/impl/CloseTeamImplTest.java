@@ -0,0 +1,129 @@
+package com.extractor.unraveldocs.team.impl;
+
+import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import com.extractor.unraveldocs.exceptions.custom.ForbiddenException;
+import com.extractor.unraveldocs.shared.datamodel.MemberRole;
+import com.extractor.unraveldocs.shared.response.ResponseBuilderService;
+import com.extractor.unraveldocs.shared.response.UnravelDocsResponse;
+import com.extractor.unraveldocs.team.datamodel.TeamBillingCycle;
+import com.extractor.unraveldocs.team.datamodel.TeamSubscriptionStatus;
+import com.extractor.unraveldocs.team.datamodel.TeamSubscriptionType;
+import com.extractor.unraveldocs.team.dto.response.TeamResponse;
+import com.extractor.unraveldocs.team.model.Team;
+import com.extractor.unraveldocs.team.model.TeamMember;
+import com.extractor.unraveldocs.team.repository.TeamMemberRepository;
+import com.extractor.unraveldocs.team.repository.TeamRepository;
+import com.extractor.unraveldocs.team.service.TeamMemberSubscriptionSyncService;
+import com.extractor.unraveldocs.user.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CloseTeamImplTest {
+
+    @Mock
+    private TeamRepository teamRepository;
+
+    @Mock
+    private TeamMemberRepository teamMemberRepository;
+
+    @Mock
+    private TeamMemberSubscriptionSyncService memberSubscriptionSyncService;
+
+    @Mock
+    private ResponseBuilderService responseBuilder;
+
+    @Mock
+    private SanitizeLogging sanitizer;
+
+    @InjectMocks
+    private CloseTeamImpl closeTeam;
+
+    private User owner;
+    private Team team;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setId("owner-1");
+
+        team = new Team();
+        team.setId("team-1");
+        team.setName("Acme");
+        team.setTeamCode("T1234567");
+        team.setBillingCycle(TeamBillingCycle.MONTHLY);
+        team.setSubscriptionType(TeamSubscriptionType.TEAM_PREMIUM);
+        team.setSubscriptionStatus(TeamSubscriptionStatus.ACTIVE);
+        team.setCreatedBy(owner);
+        team.setClosed(true);
+        team.setClosedAt(OffsetDateTime.now().minusDays(1));
+        team.setActive(false);
+
+        TeamMember ownerMember = new TeamMember();
+        ownerMember.setRole(MemberRole.OWNER);
+        ownerMember.setTeam(team);
+        ownerMember.setUser(owner);
+
+        when(sanitizer.sanitizeLogging(any())).thenReturn("value");
+        when(teamRepository.findById(team.getId())).thenReturn(Optional.of(team));
+        when(teamMemberRepository.findByTeamIdAndUserId(team.getId(), owner.getId()))
+                .thenReturn(Optional.of(ownerMember));
+    }
+
+    @Test
+    @DisplayName("reactivate grants the team plan back to the members closing reverted")
+    void reactivateUpgradesMembers() {
+        when(teamRepository.save(any(Team.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(teamMemberRepository.countByTeamId(team.getId())).thenReturn(3L);
+        when(responseBuilder.buildUserResponse(any(TeamResponse.class), any(), anyString()))
+                .thenReturn(new UnravelDocsResponse<>());
+
+        closeTeam.reactivate(team.getId(), owner);
+
+        assertThat(team.isClosed()).isFalse();
+        assertThat(team.isActive()).isTrue();
+        InOrder order = inOrder(teamRepository, memberSubscriptionSyncService);
+        order.verify(teamRepository).save(team);
+        order.verify(memberSubscriptionSyncService).upgradeTeamMembers(team);
+    }
+
+    @Test
+    @DisplayName("reactivate of an expired team leaves member subscriptions alone")
+    void reactivateExpiredTeamDoesNotUpgrade() {
+        team.setSubscriptionStatus(TeamSubscriptionStatus.EXPIRED);
+
+        assertThatThrownBy(() -> closeTeam.reactivate(team.getId(), owner))
+                .isInstanceOf(ForbiddenException.class);
+
+        verify(memberSubscriptionSyncService, never()).upgradeTeamMembers(any(Team.class));
+        verify(teamRepository, never()).save(any(Team.class));
+    }
+
+    @Test
+    @DisplayName("close reverts the members' subscriptions")
+    void closeDowngradesMembers() {
+        team.setClosed(false);
+        team.setActive(true);
+        when(teamRepository.save(any(Team.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        closeTeam.close(team.getId(), owner);
+
+        assertThat(team.isClosed()).isTrue();
+        verify(memberSubscriptionSyncService).downgradeTeamMembers(team);
+        verify(memberSubscriptionSyncService, never()).upgradeTeamMembers(any(Team.class));
+    }
+}
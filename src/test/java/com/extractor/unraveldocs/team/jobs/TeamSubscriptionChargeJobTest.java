@@ -1,6 +1,10 @@
 package com.extractor.unraveldocs.team.jobs;
 
 import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import com.extractor.unraveldocs.scheduling.ChunkResult;
+import com.extractor.unraveldocs.scheduling.ClusterJob;
+import com.extractor.unraveldocs.scheduling.ClusterJobRunner;
+import com.extractor.unraveldocs.scheduling.KeyRange;
 import com.extractor.unraveldocs.team.datamodel.TeamBillingCycle;
 import com.extractor.unraveldocs.team.datamodel.TeamSubscriptionStatus;
 import com.extractor.unraveldocs.team.model.Team;
@@ -11,16 +15,24 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,51 +50,172 @@ class TeamSubscriptionChargeJobTest {
     @Mock
     private SanitizeLogging sanitizer;
 
+    @Mock
+    private ClusterJobRunner clusterJobRunner;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private TeamSubscriptionChargeJob teamSubscriptionChargeJob;
 
+    private final KeyRange range = new KeyRange("team-0", "team-z");
+
     @BeforeEach
     void setUp() {
         ReflectionTestUtils.setField(teamSubscriptionChargeJob, "pastDueGraceDays", 7);
-        when(sanitizer.sanitizeLogging(any())).thenReturn("value");
+    }
+
+    private void stubChunkQueries() {
+        lenient().when(sanitizer.sanitizeLogging(any())).thenReturn("value");
         when(sanitizer.sanitizeLoggingInteger(any())).thenReturn("0");
 
-        when(teamRepository.findTeamsWithExpiredTrialForAutoCharge(any())).thenReturn(Collections.emptyList());
-        when(teamRepository.findTeamsDueForBilling(any())).thenReturn(Collections.emptyList());
+        when(teamRepository.findTeamsWithExpiredTrialForAutoCharge(any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+        when(teamRepository.findTeamsDueForBilling(any(), any(), any())).thenReturn(Collections.emptyList());
     }
 
     @Test
-    @DisplayName("processSubscriptionCharges downgrades members when teams expire")
-    void processSubscriptionChargesDowngradesOnExpiry() {
+    @DisplayName("processSubscriptionCharges runs as a chunked cluster job over teams")
+    void processSubscriptionChargesRunsClusterJob() {
+        teamSubscriptionChargeJob.processSubscriptionCharges();
+
+        ArgumentCaptor<ClusterJob> job = ArgumentCaptor.forClass(ClusterJob.class);
+        verify(clusterJobRunner).run(job.capture());
+        assertThat(job.getValue().name()).isEqualTo(TeamSubscriptionChargeJob.JOB_NAME);
+        assertThat(job.getValue().keySpace().table()).isEqualTo("teams");
+        verifyNoInteractions(teamRepository, teamBillingService);
+    }
+
+    @Test
+    @DisplayName("processChunk downgrades members when teams expire")
+    void processChunkDowngradesOnExpiry() {
+        stubChunkQueries();
         Team expiredTrialTeam = team("team-a", TeamSubscriptionStatus.TRIAL);
         Team cancelledTeam = team("team-b", TeamSubscriptionStatus.CANCELLED);
 
-        when(teamRepository.findTeamsWithExpiredTrialNoAutoRenew(any())).thenReturn(List.of(expiredTrialTeam));
-        when(teamRepository.findCancelledTeamsReadyToExpire(any())).thenReturn(List.of(cancelledTeam));
-        when(teamRepository.findPastDueTeamsBeyondGrace(any())).thenReturn(Collections.emptyList());
+        when(teamRepository.findTeamsWithExpiredTrialNoAutoRenew(any(), eq("team-0"), eq("team-z"))).thenReturn(List.of(expiredTrialTeam));
+        when(teamRepository.findCancelledTeamsReadyToExpire(any(), eq("team-0"), eq("team-z"))).thenReturn(List.of(cancelledTeam));
+        when(teamRepository.findPastDueTeamsBeyondGrace(any(), eq("team-0"), eq("team-z"))).thenReturn(Collections.emptyList());
 
-        teamSubscriptionChargeJob.processSubscriptionCharges();
+        ChunkResult result = teamSubscriptionChargeJob.processChunk(range, OffsetDateTime.now());
 
+        assertThat(result.failed()).isZero();
         verify(memberSubscriptionSyncService).downgradeTeamMembers(expiredTrialTeam);
         verify(memberSubscriptionSyncService).downgradeTeamMembers(cancelledTeam);
     }
 
     @Test
-    @DisplayName("processSubscriptionCharges expires past-due teams after grace period")
-    void processSubscriptionChargesExpiresPastDueTeamsAfterGrace() {
+    @DisplayName("processChunk expires past-due teams after grace period")
+    void processChunkExpiresPastDueTeamsAfterGrace() {
+        stubChunkQueries();
         Team pastDueTeam = team("team-c", TeamSubscriptionStatus.PAST_DUE);
         pastDueTeam.setPastDueSince(OffsetDateTime.now().minusDays(8));
 
-        when(teamRepository.findTeamsWithExpiredTrialNoAutoRenew(any())).thenReturn(Collections.emptyList());
-        when(teamRepository.findCancelledTeamsReadyToExpire(any())).thenReturn(Collections.emptyList());
-        when(teamRepository.findPastDueTeamsBeyondGrace(any())).thenReturn(List.of(pastDueTeam));
+        when(teamRepository.findTeamsWithExpiredTrialNoAutoRenew(any(), eq("team-0"), eq("team-z"))).thenReturn(Collections.emptyList());
+        when(teamRepository.findCancelledTeamsReadyToExpire(any(), eq("team-0"), eq("team-z"))).thenReturn(Collections.emptyList());
+        when(teamRepository.findPastDueTeamsBeyondGrace(any(), eq("team-0"), eq("team-z"))).thenReturn(List.of(pastDueTeam));
 
-        teamSubscriptionChargeJob.processSubscriptionCharges();
+        teamSubscriptionChargeJob.processChunk(range, OffsetDateTime.now());
 
         verify(teamRepository).save(pastDueTeam);
         verify(memberSubscriptionSyncService).downgradeTeamMembers(pastDueTeam);
     }
 
+    @Test
+    @DisplayName("processChunk commits the charge key before calling the gateway and records the outcome after")
+    void processChunkReservesChargeBeforeGatewayCall() {
+        stubChunkQueries();
+        OffsetDateTime now = OffsetDateTime.now();
+        Team listed = team("team-d", TeamSubscriptionStatus.TRIAL);
+        listed.setTrialEndsAt(now.minusDays(1));
+        Team stored = team("team-d", TeamSubscriptionStatus.TRIAL);
+        stored.setTrialEndsAt(listed.getTrialEndsAt());
+        String expectedKey = "team-team-d-id-" + listed.getTrialEndsAt().toEpochSecond();
+
+        when(teamRepository.findTeamsWithExpiredTrialForAutoCharge(any(), eq("team-0"), eq("team-z"))).thenReturn(List.of(listed));
+        stubNothingToExpire();
+        when(teamRepository.findById("team-d-id")).thenReturn(Optional.of(stored));
+        List<String> savedKeys = new ArrayList<>();
+        when(teamRepository.save(stored)).thenAnswer(invocation -> {
+            savedKeys.add(stored.getPendingChargeKey());
+            return stored;
+        });
+        when(teamBillingService.chargeSubscription(listed, expectedKey)).thenReturn(true);
+
+        ChunkResult result = teamSubscriptionChargeJob.processChunk(range, now);
+
+        assertThat(result.processed()).isEqualTo(1);
+        assertThat(savedKeys).containsExactly(expectedKey, null);
+        assertThat(stored.getSubscriptionStatus()).isEqualTo(TeamSubscriptionStatus.ACTIVE);
+        assertThat(stored.getNextBillingDate()).isEqualTo(now.plusMonths(1));
+        // The range's copy is only read
+        assertThat(listed.getSubscriptionStatus()).isEqualTo(TeamSubscriptionStatus.TRIAL);
+
+        InOrder order = inOrder(transactionManager, teamBillingService);
+        order.verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        order.verify(transactionManager).commit(any());
+        order.verify(teamBillingService).chargeSubscription(listed, expectedKey);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("processChunk retries a charge left pending with its original key")
+    void processChunkReusesPendingChargeKey() {
+        stubChunkQueries();
+        OffsetDateTime now = OffsetDateTime.now();
+        Team listed = team("team-e", TeamSubscriptionStatus.ACTIVE);
+        listed.setNextBillingDate(now.minusHours(1));
+        Team stored = team("team-e", TeamSubscriptionStatus.ACTIVE);
+        stored.setNextBillingDate(listed.getNextBillingDate());
+        stored.setPendingChargeKey("team-team-e-id-earlier");
+
+        when(teamRepository.findTeamsDueForBilling(any(), eq("team-0"), eq("team-z"))).thenReturn(List.of(listed));
+        stubNothingToExpire();
+        when(teamRepository.findById("team-e-id")).thenReturn(Optional.of(stored));
+        when(teamBillingService.chargeSubscription(listed, "team-team-e-id-earlier")).thenReturn(false);
+
+        ChunkResult result = teamSubscriptionChargeJob.processChunk(range, now);
+
+        assertThat(result.failed()).isEqualTo(1);
+        verify(teamBillingService).chargeSubscription(listed, "team-team-e-id-earlier");
+        // Only the outcome is written; the pending key was already committed
+        verify(teamRepository, times(1)).save(stored);
+        assertThat(stored.getPendingChargeKey()).isNull();
+        assertThat(stored.getSubscriptionStatus()).isEqualTo(TeamSubscriptionStatus.PAST_DUE);
+        assertThat(stored.getPastDueSince()).isEqualTo(now);
+    }
+
+    @Test
+    @DisplayName("processChunk skips a team that is no longer due when its charge is reserved")
+    void processChunkSkipsTeamNoLongerDue() {
+        stubChunkQueries();
+        OffsetDateTime now = OffsetDateTime.now();
+        Team listed = team("team-f", TeamSubscriptionStatus.ACTIVE);
+        listed.setNextBillingDate(now.minusHours(1));
+        Team stored = team("team-f", TeamSubscriptionStatus.ACTIVE);
+        stored.setNextBillingDate(now.plusMonths(1));
+
+        when(teamRepository.findTeamsDueForBilling(any(), eq("team-0"), eq("team-z"))).thenReturn(List.of(listed));
+        stubNothingToExpire();
+        when(teamRepository.findById("team-f-id")).thenReturn(Optional.of(stored));
+
+        ChunkResult result = teamSubscriptionChargeJob.processChunk(range, now);
+
+        assertThat(result.processed()).isZero();
+        assertThat(result.failed()).isZero();
+        verifyNoInteractions(teamBillingService);
+        verify(teamRepository, never()).save(any(Team.class));
+    }
+
+    private void stubNothingToExpire() {
+        when(teamRepository.findTeamsWithExpiredTrialNoAutoRenew(any(), eq("team-0"), eq("team-z"))).thenReturn(Collections.emptyList());
+        when(teamRepository.findCancelledTeamsReadyToExpire(any(), eq("team-0"), eq("team-z"))).thenReturn(Collections.emptyList());
+        when(teamRepository.findPastDueTeamsBeyondGrace(any(), eq("team-0"), eq("team-z"))).thenReturn(Collections.emptyList());
+    }
+
     private Team team(String code, TeamSubscriptionStatus status) {
         Team team = new Team();
         team.setId(code + "-id");
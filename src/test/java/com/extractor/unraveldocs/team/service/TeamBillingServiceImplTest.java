@@ -0,0 +1,113 @@
+package com.extractor.unraveldocs.team.service;
+
+import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import com.extractor.unraveldocs.payment.paystack.repository.PaystackSubscriptionRepository;
+import com.extractor.unraveldocs.payment.paystack.service.PaystackSubscriptionService;
+import com.extractor.unraveldocs.payment.receipt.dto.ReceiptData;
+import com.extractor.unraveldocs.payment.receipt.enums.PaymentProvider;
+import com.extractor.unraveldocs.payment.receipt.events.ReceiptEventPublisher;
+import com.extractor.unraveldocs.payment.receipt.repository.ReceiptRepository;
+import com.extractor.unraveldocs.payment.stripe.model.StripeSubscription;
+import com.extractor.unraveldocs.payment.stripe.repository.StripeSubscriptionRepository;
+import com.extractor.unraveldocs.payment.stripe.service.StripeSubscriptionService;
+import com.extractor.unraveldocs.team.datamodel.TeamBillingCycle;
+import com.extractor.unraveldocs.team.datamodel.TeamSubscriptionType;
+import com.extractor.unraveldocs.team.model.Team;
+import com.extractor.unraveldocs.user.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TeamBillingServiceImplTest {
+
+    @Mock
+    private StripeSubscriptionService stripeSubscriptionService;
+
+    @Mock
+    private PaystackSubscriptionService paystackSubscriptionService;
+
+    @Mock
+    private StripeSubscriptionRepository stripeSubscriptionRepository;
+
+    @Mock
+    private PaystackSubscriptionRepository paystackSubscriptionRepository;
+
+    @Mock
+    private ReceiptEventPublisher receiptEventPublisher;
+
+    @Mock
+    private ReceiptRepository receiptRepository;
+
+    @Mock
+    private TeamSubscriptionPlanService planService;
+
+    @Mock
+    private SanitizeLogging sanitizer;
+
+    @InjectMocks
+    private TeamBillingServiceImpl teamBillingService;
+
+    private Team team;
+
+    @BeforeEach
+    void setUp() {
+        User owner = new User();
+        owner.setId("owner-1");
+        owner.setFirstName("Ada");
+        owner.setLastName("Lovelace");
+        owner.setEmail("ada@example.com");
+
+        team = new Team();
+        team.setId("team-1");
+        team.setName("Acme");
+        team.setTeamCode("T1234567");
+        team.setCreatedBy(owner);
+        team.setBillingCycle(TeamBillingCycle.MONTHLY);
+        team.setSubscriptionType(TeamSubscriptionType.TEAM_PREMIUM);
+        team.setSubscriptionPrice(new BigDecimal("29.00"));
+        team.setCurrency("USD");
+        team.setPaymentGateway("stripe");
+        team.setStripeSubscriptionId("sub_123");
+
+        lenient().when(sanitizer.sanitizeLogging(any())).thenReturn("value");
+    }
+
+    @Test
+    @DisplayName("chargeSubscription issues the receipt under the charge's idempotency key")
+    void chargeSubscriptionKeysReceiptByIdempotencyKey() {
+        when(receiptRepository.existsByExternalPaymentIdAndPaymentProvider("team-team-1-100", PaymentProvider.STRIPE))
+                .thenReturn(false);
+        when(stripeSubscriptionRepository.findByStripeSubscriptionId("sub_123"))
+                .thenReturn(Optional.of(new StripeSubscription()));
+
+        assertThat(teamBillingService.chargeSubscription(team, "team-team-1-100")).isTrue();
+
+        ArgumentCaptor<ReceiptData> receipt = ArgumentCaptor.forClass(ReceiptData.class);
+        verify(receiptEventPublisher).publishReceiptRequest(receipt.capture());
+        assertThat(receipt.getValue().getExternalPaymentId()).isEqualTo("team-team-1-100");
+    }
+
+    @Test
+    @DisplayName("chargeSubscription does not charge again for a key that already went through")
+    void chargeSubscriptionSkipsCompletedCharge() {
+        when(receiptRepository.existsByExternalPaymentIdAndPaymentProvider("team-team-1-100", PaymentProvider.STRIPE))
+                .thenReturn(true);
+
+        assertThat(teamBillingService.chargeSubscription(team, "team-team-1-100")).isTrue();
+
+        verifyNoInteractions(stripeSubscriptionRepository, receiptEventPublisher);
+    }
+}
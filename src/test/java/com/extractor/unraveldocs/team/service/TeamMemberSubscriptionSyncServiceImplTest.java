@@ -1,16 +1,17 @@
 package com.extractor.unraveldocs.team.service;
 
-import com.extractor.unraveldocs.pushnotification.interfaces.NotificationService;
+import com.extractor.unraveldocs.documents.utils.SanitizeLogging;
+import com.extractor.unraveldocs.pushnotification.datamodel.NotificationType;
 import com.extractor.unraveldocs.subscription.datamodel.SubscriptionPlans;
 import com.extractor.unraveldocs.subscription.datamodel.SubscriptionSource;
 import com.extractor.unraveldocs.subscription.model.SubscriptionPlan;
 import com.extractor.unraveldocs.subscription.model.UserSubscription;
-import com.extractor.unraveldocs.subscription.repository.SubscriptionPlanRepository;
 import com.extractor.unraveldocs.subscription.repository.UserSubscriptionRepository;
+import com.extractor.unraveldocs.subscription.service.SubscriptionPlanLookup;
 import com.extractor.unraveldocs.team.datamodel.TeamSubscriptionType;
+import com.extractor.unraveldocs.team.events.TeamEntitlementsChangedEvent;
 import com.extractor.unraveldocs.team.model.Team;
-import com.extractor.unraveldocs.team.model.TeamMember;
-import com.extractor.unraveldocs.team.repository.TeamMemberRepository;
+import com.extractor.unraveldocs.team.repository.TeamEntitlementRepository;
 import com.extractor.unraveldocs.user.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -20,6 +21,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.Optional;
@@ -32,16 +34,19 @@ import static org.mockito.Mockito.*;
 class TeamMemberSubscriptionSyncServiceImplTest {
 
     @Mock
-    private TeamMemberRepository teamMemberRepository;
+    private TeamEntitlementRepository teamEntitlementRepository;
 
     @Mock
     private UserSubscriptionRepository userSubscriptionRepository;
 
     @Mock
-    private SubscriptionPlanRepository subscriptionPlanRepository;
+    private SubscriptionPlanLookup planLookup;
 
     @Mock
-    private NotificationService notificationService;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SanitizeLogging sanitizer;
 
     @InjectMocks
     private TeamMemberSubscriptionSyncServiceImpl syncService;
@@ -65,7 +70,7 @@ class TeamMemberSubscriptionSyncServiceImplTest {
     }
 
     @Test
-    @DisplayName("upgradeTeamMember stores previous plan and marks subscription as team-managed")
+    @DisplayName("upgradeTeamMember stores previous plan and stamps the subscription with the team version")
     void upgradeTeamMemberStoresPreviousPlanAndMarksTeamSource() {
         UserSubscription existing = new UserSubscription();
         existing.setUser(user);
@@ -74,10 +79,13 @@ class TeamMemberSubscriptionSyncServiceImplTest {
         existing.setStatus("ACTIVE");
 
         Team team = new Team();
+        team.setId("team-1");
         team.setSubscriptionType(TeamSubscriptionType.TEAM_PREMIUM);
+        team.setEntitlementVersion(7L);
 
         when(userSubscriptionRepository.findByUserId(user.getId())).thenReturn(Optional.of(existing));
-        when(subscriptionPlanRepository.findByName(SubscriptionPlans.PRO_MONTHLY)).thenReturn(Optional.of(proMonthly));
+        when(planLookup.planId(SubscriptionPlans.PRO_MONTHLY)).thenReturn(proMonthly.getId());
+        when(planLookup.reference(SubscriptionPlans.PRO_MONTHLY)).thenReturn(proMonthly);
         when(userSubscriptionRepository.save(any(UserSubscription.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         syncService.upgradeTeamMember(user, team);
@@ -90,10 +98,13 @@ class TeamMemberSubscriptionSyncServiceImplTest {
         assertThat(saved.getPlan()).isEqualTo(proMonthly);
         assertThat(saved.getSubscriptionSource()).isEqualTo(SubscriptionSource.TEAM);
         assertThat(saved.getStatus()).isEqualTo("Active");
+        assertThat(saved.getTeamId()).isEqualTo("team-1");
+        assertThat(saved.getTeamEntitlementVersion()).isEqualTo(7L);
+        verify(eventPublisher).publishEvent(any(TeamEntitlementsChangedEvent.class));
     }
 
     @Test
-    @DisplayName("revertMemberSubscription restores previous plan and clears team source")
+    @DisplayName("revertMemberSubscription restores previous plan and clears the team link")
     void revertMemberSubscriptionRestoresPreviousPlan() {
         UserSubscription subscription = new UserSubscription();
         subscription.setUser(user);
@@ -101,6 +112,8 @@ class TeamMemberSubscriptionSyncServiceImplTest {
         subscription.setPreviousPlan(freePlan);
         subscription.setSubscriptionSource(SubscriptionSource.TEAM);
         subscription.setStatus("ACTIVE");
+        subscription.setTeamId("team-1");
+        subscription.setTeamEntitlementVersion(7L);
 
         when(userSubscriptionRepository.findByUserId(user.getId())).thenReturn(Optional.of(subscription));
         when(userSubscriptionRepository.save(any(UserSubscription.class))).thenAnswer(invocation -> invocation.getArgument(0));
@@ -115,44 +128,51 @@ class TeamMemberSubscriptionSyncServiceImplTest {
         assertThat(saved.getPreviousPlan()).isNull();
         assertThat(saved.getSubscriptionSource()).isEqualTo(SubscriptionSource.INDIVIDUAL);
         assertThat(saved.getStatus()).isEqualTo("Active");
+        assertThat(saved.getTeamId()).isNull();
+        assertThat(saved.getTeamEntitlementVersion()).isNull();
+        verifyNoInteractions(planLookup);
     }
 
     @Test
-    @DisplayName("downgradeTeamMembers reverts each team member subscription")
-    void downgradeTeamMembersRevertsEachMember() {
+    @DisplayName("downgradeTeamMembers reverts all member subscriptions in one statement and notifies once")
+    void downgradeTeamMembersRevertsInBulk() {
         Team team = new Team();
         team.setId("team-1");
 
-        User userA = new User();
-        userA.setId("user-a");
-        User userB = new User();
-        userB.setId("user-b");
-
-        UserSubscription subA = new UserSubscription();
-        subA.setUser(userA);
-        subA.setPlan(proMonthly);
-        subA.setPreviousPlan(freePlan);
-        subA.setSubscriptionSource(SubscriptionSource.TEAM);
-
-        UserSubscription subB = new UserSubscription();
-        subB.setUser(userB);
-        subB.setPlan(proMonthly);
-        subB.setPreviousPlan(freePlan);
-        subB.setSubscriptionSource(SubscriptionSource.TEAM);
-
-        TeamMember memberA = new TeamMember();
-        memberA.setUser(userA);
-        TeamMember memberB = new TeamMember();
-        memberB.setUser(userB);
-
-        when(teamMemberRepository.findByTeamId(team.getId())).thenReturn(List.of(memberA, memberB));
-        when(userSubscriptionRepository.findByUserId("user-a")).thenReturn(Optional.of(subA));
-        when(userSubscriptionRepository.findByUserId("user-b")).thenReturn(Optional.of(subB));
-        when(userSubscriptionRepository.save(any(UserSubscription.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(teamEntitlementRepository.nextVersion("team-1")).thenReturn(3L);
+        when(planLookup.planId(SubscriptionPlans.FREE)).thenReturn(freePlan.getId());
+        when(teamEntitlementRepository.revertTeamMembers("team-1", freePlan.getId()))
+                .thenReturn(List.of("user-a", "user-b"));
 
         syncService.downgradeTeamMembers(team);
 
-        verify(userSubscriptionRepository, times(2)).save(any(UserSubscription.class));
+        assertThat(team.getEntitlementVersion()).isEqualTo(3L);
+        verifyNoInteractions(userSubscriptionRepository);
+
+        ArgumentCaptor<TeamEntitlementsChangedEvent> captor = ArgumentCaptor.forClass(TeamEntitlementsChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().userIds()).containsExactly("user-a", "user-b");
+        assertThat(captor.getValue().type()).isEqualTo(NotificationType.SUBSCRIPTION_DOWNGRADED);
     }
-}
 
+    @Test
+    @DisplayName("upgradeTeamMembers applies the mapped plan with the new team version")
+    void upgradeTeamMembersAppliesMappedPlanInBulk() {
+        Team team = new Team();
+        team.setId("team-1");
+        team.setSubscriptionType(TeamSubscriptionType.TEAM_ENTERPRISE);
+
+        when(teamEntitlementRepository.nextVersion("team-1")).thenReturn(5L);
+        when(planLookup.planId(SubscriptionPlans.BUSINESS_MONTHLY)).thenReturn("plan-business-monthly");
+        when(teamEntitlementRepository.applyTeamPlan("team-1", "plan-business-monthly", 5L))
+                .thenReturn(List.of("user-a"));
+
+        syncService.upgradeTeamMembers(team);
+
+        assertThat(team.getEntitlementVersion()).isEqualTo(5L);
+        ArgumentCaptor<TeamEntitlementsChangedEvent> captor = ArgumentCaptor.forClass(TeamEntitlementsChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().userIds()).containsExactly("user-a");
+        assertThat(captor.getValue().type()).isEqualTo(NotificationType.SUBSCRIPTION_UPGRADED);
+    }
+}
@@ -0,0 +1,252 @@
+package com.extractor.unraveldocs.user.lifecycle;
+
+import com.extractor.unraveldocs.user.config.AccountLifecycleProperties;
+import com.extractor.unraveldocs.user.lifecycle.AccountLifecycleRepository.StepOutcome;
+import com.extractor.unraveldocs.user.model.User;
+import com.extractor.unraveldocs.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountLifecycleEngineTest {
+
+    @Mock
+    private AccountLifecycleRepository lifecycleRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private AccountLifecycleEvents lifecycleEvents;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    private final RecordingStep storageStep = new RecordingStep("document-storage");
+    private final RecordingStep paymentStep = new RecordingStep("payments");
+
+    private AccountLifecycleProperties properties;
+    private MeterRegistry meterRegistry;
+    private AccountLifecycleEngine engine;
+
+    private final OffsetDateTime threshold = OffsetDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        properties = new AccountLifecycleProperties();
+        properties.setChunkSize(2);
+        properties.setStepTimeoutSeconds(5);
+        meterRegistry = new SimpleMeterRegistry();
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(transactionStatus));
+        lenient().when(lifecycleRepository.tryAcquireLease(anyString(), anyString(), anyLong())).thenReturn(true);
+        lenient().when(lifecycleRepository.advance(anyString(), anyString(), anyString(), anyInt(), anyInt(), anyLong()))
+                .thenReturn(true);
+        lenient().when(lifecycleRepository.findCompletedSteps(anyList())).thenReturn(Map.of());
+
+        engine = new AccountLifecycleEngine(lifecycleRepository, userRepository, lifecycleEvents,
+                List.of(storageStep, paymentStep), properties, transactionTemplate, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should do nothing when another node holds the job")
+    void shouldSkipWhenLeaseNotAcquired() {
+        when(lifecycleRepository.tryAcquireLease(eq(AccountLifecycleEngine.PURGE_JOB), anyString(), anyLong()))
+                .thenReturn(false);
+
+        LifecycleRunReport report = engine.purgeScheduledAccounts();
+
+        assertThat(report.started()).isFalse();
+        verify(lifecycleRepository, never()).findPurgeTargets(any(), anyString(), anyInt());
+        verify(lifecycleRepository, never()).releaseLease(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should delete only accounts whose purge steps all succeeded")
+    void shouldDeleteOnlyFullyPurgedAccounts() {
+        PurgeTarget ok = new PurgeTarget("a", "a@example.com", null);
+        PurgeTarget broken = new PurgeTarget("b", "b@example.com", null);
+        paymentStep.failFor("b");
+        startNewRun(AccountLifecycleEngine.PURGE_JOB);
+        when(lifecycleRepository.findPurgeTargets(threshold, "", 2)).thenReturn(List.of(ok, broken));
+        when(lifecycleRepository.findPurgeTargets(threshold, "b", 2)).thenReturn(List.of());
+        when(lifecycleRepository.deleteAccounts(List.of("a"))).thenReturn(List.of(ok));
+
+        LifecycleRunReport report = engine.purgeScheduledAccounts();
+
+        assertThat(report.completed()).isTrue();
+        assertThat(report.processed()).isEqualTo(1);
+        assertThat(report.failed()).isEqualTo(1);
+        verify(lifecycleEvents).publishDeleted(ok);
+        verify(lifecycleEvents, never()).publishDeleted(broken);
+        verify(lifecycleRepository).advance(eq(AccountLifecycleEngine.PURGE_JOB), anyString(), eq("b"), eq(1), eq(1), anyLong());
+        verify(lifecycleRepository).finishRun(eq(AccountLifecycleEngine.PURGE_JOB), anyString());
+
+        ArgumentCaptor<List<StepOutcome>> outcomes = ArgumentCaptor.captor();
+        verify(lifecycleRepository).recordStepOutcomes(outcomes.capture());
+        assertThat(outcomes.getValue()).hasSize(4)
+                .filteredOn(outcome -> !outcome.succeeded())
+                .extracting(StepOutcome::userId, StepOutcome::step)
+                .containsExactly(tuple("b", "payments"));
+    }
+
+    @Test
+    @DisplayName("Should not repeat purge steps that already completed")
+    void shouldSkipCompletedSteps() {
+        PurgeTarget target = new PurgeTarget("a", "a@example.com", null);
+        when(lifecycleRepository.findCompletedSteps(List.of("a"))).thenReturn(Map.of("a", Set.of("document-storage")));
+
+        Set<String> purged = engine.runPurgeSteps(List.of(target));
+
+        assertThat(purged).containsExactly("a");
+        assertThat(storageStep.purged).isEmpty();
+        assertThat(paymentStep.purged).containsExactly("a");
+    }
+
+    @Test
+    @DisplayName("Should resume an interrupted run from its checkpoint")
+    void shouldResumeFromCheckpoint() {
+        when(lifecycleRepository.findCheckpoint(AccountLifecycleEngine.PURGE_JOB))
+                .thenReturn(new LifecycleCheckpoint(AccountLifecycleEngine.PURGE_JOB, true, threshold, "m", 40, 2));
+        when(lifecycleRepository.findPurgeTargets(threshold, "m", 2)).thenReturn(List.of());
+
+        LifecycleRunReport report = engine.purgeScheduledAccounts();
+
+        assertThat(report.processed()).isEqualTo(40);
+        assertThat(report.failed()).isEqualTo(2);
+        verify(lifecycleRepository, never()).startRun(anyString(), anyString(), any());
+        verify(lifecycleRepository).finishRun(eq(AccountLifecycleEngine.PURGE_JOB), anyString());
+    }
+
+    @Test
+    @DisplayName("Should deactivate and schedule inactive accounts chunk by chunk")
+    void shouldDeactivateInactiveAccountsInChunks() {
+        User first = user("u1");
+        User second = user("u2");
+        User third = user("u3");
+        when(lifecycleRepository.findCheckpoint(AccountLifecycleEngine.DEACTIVATION_JOB)).thenReturn(null);
+        when(lifecycleRepository.startRun(eq(AccountLifecycleEngine.DEACTIVATION_JOB), anyString(), any()))
+                .thenReturn(new LifecycleCheckpoint(AccountLifecycleEngine.DEACTIVATION_JOB, true, threshold, "", 0, 0));
+        when(userRepository.findInactiveAfter(eq(threshold), eq(""), any(Pageable.class))).thenReturn(List.of(first, second));
+        when(userRepository.findInactiveAfter(eq(threshold), eq("u2"), any(Pageable.class))).thenReturn(List.of(third));
+
+        LifecycleRunReport report = engine.deactivateInactiveAccounts();
+
+        assertThat(report.completed()).isTrue();
+        assertThat(report.processed()).isEqualTo(3);
+        assertThat(first.isActive()).isFalse();
+        assertThat(third.isActive()).isFalse();
+        verify(lifecycleEvents, times(3)).scheduleDeletion(any(User.class));
+        verify(userRepository, times(2)).saveAll(anyList());
+        verify(lifecycleRepository).advance(eq(AccountLifecycleEngine.DEACTIVATION_JOB), anyString(), eq("u3"), eq(1), eq(0), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should roll back and stop when the lease is lost mid-run")
+    void shouldStopWhenLeaseLost() {
+        startNewRun(AccountLifecycleEngine.DEACTIVATION_JOB);
+        when(userRepository.findInactiveAfter(eq(threshold), eq(""), any(Pageable.class))).thenReturn(List.of(user("u1")));
+        when(lifecycleRepository.advance(anyString(), anyString(), anyString(), anyInt(), anyInt(), anyLong()))
+                .thenReturn(false);
+
+        LifecycleRunReport report = engine.deactivateInactiveAccounts();
+
+        assertThat(report.completed()).isFalse();
+        verify(transactionStatus).setRollbackOnly();
+        verify(lifecycleRepository, never()).finishRun(anyString(), anyString());
+        verify(lifecycleRepository).releaseLease(eq(AccountLifecycleEngine.DEACTIVATION_JOB), anyString());
+    }
+
+    @Test
+    @DisplayName("Should fall back to one-by-one deletes when the batch delete fails")
+    void shouldFallBackToSingleDeletes() {
+        PurgeTarget a = new PurgeTarget("a", "a@example.com", null);
+        PurgeTarget b = new PurgeTarget("b", "b@example.com", null);
+        startNewRun(AccountLifecycleEngine.PURGE_JOB);
+        when(lifecycleRepository.findPurgeTargets(threshold, "", 2)).thenReturn(List.of(a, b));
+        when(lifecycleRepository.findPurgeTargets(threshold, "b", 2)).thenReturn(List.of());
+        when(lifecycleRepository.deleteAccounts(List.of("a", "b")))
+                .thenThrow(new DataIntegrityViolationException("fk_team_members_user"));
+        when(lifecycleRepository.deleteAccounts(List.of("a"))).thenReturn(List.of(a));
+        when(lifecycleRepository.deleteAccounts(List.of("b")))
+                .thenThrow(new DataIntegrityViolationException("fk_team_members_user"));
+
+        LifecycleRunReport report = engine.purgeScheduledAccounts();
+
+        assertThat(report.processed()).isEqualTo(1);
+        assertThat(report.failed()).isEqualTo(1);
+        verify(lifecycleEvents).publishDeleted(a);
+        verify(lifecycleEvents, never()).publishDeleted(b);
+    }
+
+    private void startNewRun(String jobName) {
+        when(lifecycleRepository.findCheckpoint(jobName))
+                .thenReturn(new LifecycleCheckpoint(jobName, false, null, "", 0, 0));
+        when(lifecycleRepository.startRun(eq(jobName), anyString(), any()))
+                .thenReturn(new LifecycleCheckpoint(jobName, true, threshold, "", 0, 0));
+    }
+
+    private static User user(String id) {
+        User user = new User();
+        user.setId(id);
+        user.setActive(true);
+        return user;
+    }
+
+    private static final class RecordingStep implements AccountPurgeStep {
+        private final String name;
+        private final List<String> purged = Collections.synchronizedList(new ArrayList<>());
+        private String failingUserId;
+
+        RecordingStep(String name) {
+            this.name = name;
+        }
+
+        void failFor(String userId) {
+            this.failingUserId = userId;
+        }
+
+        @Override
+        public String getStepName() {
+            return name;
+        }
+
+        @Override
+        public void purge(PurgeTarget target) {
+            if (target.userId().equals(failingUserId)) {
+                throw new IllegalStateException("provider unavailable");
+            }
+            purged.add(target.userId());
+        }
+    }
+}
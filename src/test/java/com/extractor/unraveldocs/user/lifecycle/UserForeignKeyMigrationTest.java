@@ -0,0 +1,97 @@
+package com.extractor.unraveldocs.user.lifecycle;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Account purge deletes users rows outright, so every foreign key to users must say what
+ * happens to the referencing rows. Replays the Flyway migrations in version order and
+ * checks the foreign keys they leave behind.
+ */
+class UserForeignKeyMigrationTest {
+
+    private static final Pattern USER_FOREIGN_KEY = Pattern.compile(
+            "(?:CONSTRAINT\\s+(\\w+)\\s+)?(?:FOREIGN\\s+KEY\\s*\\([^)]*\\)\\s*)?REFERENCES\\s+users\\s*\\(id\\)"
+                    + "(?:\\s+ON\\s+DELETE\\s+(CASCADE|SET\\s+NULL))?",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern VERSION = Pattern.compile("V(\\d+)__");
+
+    /**
+     * ON DELETE action of each foreign key to users, by constraint name; unnamed ones
+     * are keyed by file and position. Null means no action.
+     */
+    private static final Map<String, String> foreignKeys = new LinkedHashMap<>();
+
+    @BeforeAll
+    static void replayMigrations() throws IOException {
+        Resource[] migrations = new PathMatchingResourcePatternResolver()
+                .getResources("classpath:db/migration/V*__*.sql");
+        List<Resource> ordered = new ArrayList<>(Arrays.asList(migrations));
+        ordered.sort(Comparator.comparingInt(UserForeignKeyMigrationTest::version));
+
+        for (Resource migration : ordered) {
+            String sql = migration.getContentAsString(StandardCharsets.UTF_8).replaceAll("--[^\\n]*", "");
+            Matcher matcher = USER_FOREIGN_KEY.matcher(sql);
+            while (matcher.find()) {
+                String name = matcher.group(1) != null
+                        ? matcher.group(1).toLowerCase()
+                        : migration.getFilename() + "@" + matcher.start();
+                String action = matcher.group(2) == null ? null : matcher.group(2).toUpperCase().replaceAll("\\s+", " ");
+                foreignKeys.put(name, action);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Every foreign key to users has an ON DELETE action")
+    void everyUserForeignKeyHasDeleteAction() {
+        assertThat(foreignKeys).isNotEmpty();
+        assertThat(foreignKeys.entrySet())
+                .filteredOn(entry -> entry.getValue() == null)
+                .extracting(Map.Entry::getKey)
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Rows owned by a purged user are deleted with it")
+    void ownedRowsCascade() {
+        assertThat(foreignKeys)
+                .containsEntry("fk_teams_created_by", "CASCADE")
+                .containsEntry("fk_organizations_created_by", "CASCADE")
+                .containsEntry("fk_team_members_user", "CASCADE")
+                .containsEntry("fk_team_otp_user", "CASCADE")
+                .containsEntry("fk_coupon_usage_user", "CASCADE")
+                .containsEntry("fk_receipts_user", "CASCADE");
+    }
+
+    @Test
+    @DisplayName("Shared rows keep existing with the reference to a purged user cleared")
+    void sharedRowsSetNull() {
+        assertThat(foreignKeys)
+                .containsEntry("fk_org_members_invited_by", "SET NULL")
+                .containsEntry("fk_team_members_invited_by", "SET NULL")
+                .containsEntry("fk_template_created_by", "SET NULL")
+                .containsEntry("fk_coupon_created_by", "SET NULL");
+    }
+
+    private static int version(Resource migration) {
+        Matcher matcher = VERSION.matcher(String.valueOf(migration.getFilename()));
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : Integer.MAX_VALUE;
+    }
+}
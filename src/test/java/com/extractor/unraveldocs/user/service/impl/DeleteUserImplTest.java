@@ -1,33 +1,28 @@
 package com.extractor.unraveldocs.user.service.impl;
 
 import com.extractor.unraveldocs.auth.model.UserVerification;
-import com.extractor.unraveldocs.auth.repository.UserVerificationRepository;
 import com.extractor.unraveldocs.brokers.kafka.events.BaseEvent;
 import com.extractor.unraveldocs.brokers.kafka.events.EventPublisherService;
 import com.extractor.unraveldocs.exceptions.custom.NotFoundException;
+import com.extractor.unraveldocs.user.config.AccountLifecycleProperties;
 import com.extractor.unraveldocs.user.impl.DeleteUserImpl;
+import com.extractor.unraveldocs.user.lifecycle.AccountLifecycleEngine;
+import com.extractor.unraveldocs.user.lifecycle.AccountLifecycleEvents;
+import com.extractor.unraveldocs.user.lifecycle.LifecycleRunReport;
 import com.extractor.unraveldocs.user.model.User;
 import com.extractor.unraveldocs.user.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 
 import java.time.OffsetDateTime;
-import java.util.Collections;
-import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,17 +31,20 @@ class DeleteUserImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
-    private UserVerificationRepository userVerificationRepository;
+    private AccountLifecycleEngine lifecycleEngine;
     @Mock
     private EventPublisherService eventPublisherService;
 
-    @InjectMocks
     private DeleteUserImpl deleteUserImpl;
 
     private User user;
 
     @BeforeEach
     void setUp() {
+        AccountLifecycleEvents lifecycleEvents =
+                new AccountLifecycleEvents(eventPublisherService, new AccountLifecycleProperties());
+        deleteUserImpl = new DeleteUserImpl(userRepository, lifecycleEngine, lifecycleEvents);
+
         user = new User();
         user.setId("1");
         user.setEmail("test@example.com");
@@ -70,6 +68,7 @@ class DeleteUserImplTest {
         User savedUser = userCaptor.getValue();
 
         assertNotNull(savedUser.getDeletedAt());
+        assertTrue(savedUser.getDeletedAt().isAfter(OffsetDateTime.now().plusDays(9)));
         assertNotNull(savedUser.getUserVerification().getDeletedAt());
         assertEquals(savedUser.getDeletedAt(), savedUser.getUserVerification().getDeletedAt());
 
@@ -86,58 +85,56 @@ class DeleteUserImplTest {
     }
 
     @Test
-    void checkAndScheduleInactiveUsers_shouldScheduleForInactiveUsers() {
+    void checkAndScheduleInactiveUsers_shouldRunDeactivationJob() {
         // Arrange
-        user.setActive(true);
-        List<User> inactiveUsers = Collections.singletonList(user);
-        Page<User> inactiveUsersPage = new PageImpl<>(inactiveUsers, PageRequest.of(0, 100), 1);
-
-        when(userRepository.findAllByLastLoginDateBefore(any(OffsetDateTime.class), any(Pageable.class)))
-                .thenReturn(inactiveUsersPage)
-                .thenReturn(new PageImpl<>(Collections.emptyList())); // Stop the loop
+        when(lifecycleEngine.deactivateInactiveAccounts()).thenReturn(
+                new LifecycleRunReport(AccountLifecycleEngine.DEACTIVATION_JOB, true, true, 1, 0));
 
         // Act
         deleteUserImpl.checkAndScheduleInactiveUsers();
 
         // Assert
-        assertFalse(user.isActive());
-        assertNotNull(user.getDeletedAt());
-        assertNotNull(user.getUserVerification().getDeletedAt());
-        verify(eventPublisherService).publishUserEvent(any(BaseEvent.class));
-        verify(userRepository).saveAll(inactiveUsers);
+        verify(lifecycleEngine).deactivateInactiveAccounts();
+        verifyNoInteractions(userRepository);
     }
 
     @Test
-    void processScheduledDeletions_shouldDeleteUsersAndPublishEvent() {
+    void processScheduledDeletions_shouldRunPurgeJob() {
         // Arrange
-        List<User> usersToDelete = Collections.singletonList(user);
-        Page<User> usersToDeletePage = new PageImpl<>(usersToDelete, PageRequest.of(0, 100), 1);
-
-        when(userRepository.findAllByDeletedAtBefore(any(OffsetDateTime.class), any(Pageable.class)))
-                .thenReturn(usersToDeletePage)
-                .thenReturn(new PageImpl<>(Collections.emptyList()));
+        when(lifecycleEngine.purgeScheduledAccounts()).thenReturn(
+                LifecycleRunReport.notStarted(AccountLifecycleEngine.PURGE_JOB));
 
         // Act
         deleteUserImpl.processScheduledDeletions();
 
         // Assert
-        verify(eventPublisherService).publishUserEvent(any(BaseEvent.class));
-        verify(userVerificationRepository).delete(user.getUserVerification());
-        verify(userRepository).deleteAll(usersToDelete);
+        verify(lifecycleEngine).purgeScheduledAccounts();
+        verifyNoInteractions(userRepository);
     }
 
     @Test
-    void deleteUser_shouldPublishEventThenDeleteUserAndRelatedData() {
+    void deleteUser_shouldPurgeAndDeleteThroughEngine() {
         // Arrange
         when(userRepository.findById("1")).thenReturn(Optional.of(user));
+        when(lifecycleEngine.deleteNow(user)).thenReturn(true);
 
         // Act
-        deleteUserImpl.deleteUser("1");
+        boolean deleted = deleteUserImpl.deleteUser("1");
 
         // Assert
-        verify(eventPublisherService).publishUserEvent(any(BaseEvent.class));
-        verify(userVerificationRepository).delete(user.getUserVerification());
-        verify(userRepository).delete(user);
+        assertTrue(deleted);
+        verify(lifecycleEngine).deleteNow(user);
+        verify(userRepository, never()).delete(any(User.class));
+    }
+
+    @Test
+    void deleteUser_shouldReportPendingWhenPurgeStepFails() {
+        // Arrange
+        when(userRepository.findById("1")).thenReturn(Optional.of(user));
+        when(lifecycleEngine.deleteNow(user)).thenReturn(false);
+
+        // Act & Assert
+        assertFalse(deleteUserImpl.deleteUser("1"));
     }
 
     @Test
@@ -147,5 +144,6 @@ class DeleteUserImplTest {
 
         // Act & Assert
         assertThrows(NotFoundException.class, () -> deleteUserImpl.deleteUser("6"));
+        verifyNoInteractions(lifecycleEngine);
     }
-}
\ No newline at end of file
+}
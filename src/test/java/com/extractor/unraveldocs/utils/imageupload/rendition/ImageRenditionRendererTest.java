@@ -0,0 +1,91 @@
+package com.extractor.unraveldocs.utils.imageupload.rendition;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageRenditionRendererTest {
+
+    private final ImageRenditionRenderer renderer = new ImageRenditionRenderer();
+
+    @Test
+    @DisplayName("Scales an image so its longest side fits the limit")
+    void render_scalesImage() throws IOException {
+        byte[] png = png(1200, 600);
+
+        BufferedImage rendition = decode(renderer.render(png, "image/png", 480, 0.8f, 72));
+
+        assertEquals(480, rendition.getWidth());
+        assertEquals(240, rendition.getHeight());
+    }
+
+    @Test
+    @DisplayName("Does not enlarge images smaller than the limit")
+    void render_keepsSmallImageSize() throws IOException {
+        BufferedImage rendition = decode(renderer.render(png(100, 50), "image/png", 480, 0.8f, 72));
+
+        assertEquals(100, rendition.getWidth());
+        assertEquals(50, rendition.getHeight());
+    }
+
+    @Test
+    @DisplayName("Renders the first page of a PDF")
+    void render_pdfFirstPage() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage(PDRectangle.A4));
+            document.addPage(new PDPage(PDRectangle.A4));
+            document.save(out);
+        }
+
+        BufferedImage rendition = decode(renderer.render(out.toByteArray(), "application/pdf", 300, 0.8f, 72));
+
+        assertEquals(300, rendition.getHeight());
+        assertTrue(rendition.getWidth() < rendition.getHeight());
+    }
+
+    @Test
+    @DisplayName("Renders the first page of a PDF the caller has open")
+    void render_openPdf() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage(PDRectangle.A4));
+
+            BufferedImage rendition = decode(renderer.render(document, 300, 0.8f, 72));
+
+            assertEquals(300, rendition.getHeight());
+        }
+        try (PDDocument empty = new PDDocument()) {
+            assertTrue(renderer.render(empty, 300, 0.8f, 72).isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Returns empty for undecodable or unsupported sources")
+    void render_unsupported() {
+        assertTrue(renderer.render(new byte[]{1, 2, 3}, "image/png", 480, 0.8f, 72).isEmpty());
+        assertTrue(renderer.render(new byte[]{1, 2, 3}, "application/pdf", 480, 0.8f, 72).isEmpty());
+        assertTrue(renderer.render(new byte[]{1, 2, 3}, "application/msword", 480, 0.8f, 72).isEmpty());
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", out);
+        return out.toByteArray();
+    }
+
+    private static BufferedImage decode(Optional<byte[]> jpeg) throws IOException {
+        assertTrue(jpeg.isPresent());
+        return ImageIO.read(new ByteArrayInputStream(jpeg.get()));
+    }
+}
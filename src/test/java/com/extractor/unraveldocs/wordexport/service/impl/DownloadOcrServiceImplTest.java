@@ -0,0 +1,186 @@
+package com.extractor.unraveldocs.wordexport.service.impl;
+
+import com.extractor.unraveldocs.documents.model.DocumentCollection;
+import com.extractor.unraveldocs.documents.model.FileEntry;
+import com.extractor.unraveldocs.documents.repository.DocumentCollectionRepository;
+import com.extractor.unraveldocs.exceptions.custom.BadRequestException;
+import com.extractor.unraveldocs.exceptions.custom.ForbiddenException;
+import com.extractor.unraveldocs.ocrprocessing.datamodel.OcrStatus;
+import com.extractor.unraveldocs.ocrprocessing.model.OcrData;
+import com.extractor.unraveldocs.ocrprocessing.repository.OcrDataRepository;
+import com.extractor.unraveldocs.ocrprocessing.utils.FindAndValidateFileEntry;
+import com.extractor.unraveldocs.user.model.User;
+import com.extractor.unraveldocs.wordexport.config.ExportProperties;
+import com.extractor.unraveldocs.wordexport.datamodel.ExportFormat;
+import com.extractor.unraveldocs.wordexport.impl.DownloadOcrServiceImpl;
+import com.extractor.unraveldocs.wordexport.interfaces.DocumentExportService;
+import com.extractor.unraveldocs.wordexport.interfaces.DownloadOcrResultService.StreamingDownload;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DownloadOcrServiceImplTest {
+
+    @Mock
+    private DocumentCollectionRepository documentCollectionRepository;
+
+    @Mock
+    private OcrDataRepository ocrDataRepository;
+
+    @Mock
+    private FindAndValidateFileEntry validateFileEntry;
+
+    @Mock
+    private DocumentExportService documentExportService;
+
+    @Spy
+    private ExportProperties exportProperties = new ExportProperties();
+
+    @InjectMocks
+    private DownloadOcrServiceImpl downloadOcrService;
+
+    private DocumentCollection collection;
+
+    @BeforeEach
+    void setUp() {
+        User owner = new User();
+        owner.setId("user-1");
+
+        collection = DocumentCollection.builder()
+                .id("col-1")
+                .name("Invoices")
+                .user(owner)
+                .files(List.of(
+                        FileEntry.builder().documentId("doc-1").originalFileName("scan.png").build(),
+                        FileEntry.builder().documentId("doc-2").originalFileName("scan.jpg").build(),
+                        FileEntry.builder().documentId("doc-3").originalFileName("pending.png").build()))
+                .build();
+    }
+
+    @Test
+    void downloadDocument_StreamsRenderedFile() throws Exception {
+        FileEntry fileEntry = FileEntry.builder().documentId("doc-1").originalFileName("scan.png").build();
+        when(validateFileEntry.findAndValidateFileEntry("col-1", "doc-1", "user-1", documentCollectionRepository))
+                .thenReturn(fileEntry);
+        when(ocrDataRepository.findByDocumentId("doc-1")).thenReturn(Optional.of(ocrData("doc-1", OcrStatus.COMPLETED, "Hello")));
+        stubExportWritesText();
+
+        StreamingDownload download = downloadOcrService
+                .downloadDocument("col-1", "doc-1", "original", ExportFormat.TXT, "user-1");
+
+        assertEquals("scan.txt", download.fileName());
+        assertEquals(ExportFormat.TXT.getContentType(), download.contentType());
+        // Nothing is rendered until the body is written to the response
+        verify(documentExportService, never()).write(any(), anyString(), any());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        download.body().writeTo(out);
+        assertEquals("Hello", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void downloadDocument_OcrNotCompleted_ThrowsBadRequest() {
+        FileEntry fileEntry = FileEntry.builder().documentId("doc-3").originalFileName("pending.png").build();
+        when(validateFileEntry.findAndValidateFileEntry("col-1", "doc-3", "user-1", documentCollectionRepository))
+                .thenReturn(fileEntry);
+        when(ocrDataRepository.findByDocumentId("doc-3")).thenReturn(Optional.of(ocrData("doc-3", OcrStatus.PROCESSING, null)));
+
+        assertThrows(BadRequestException.class, () -> downloadOcrService
+                .downloadDocument("col-1", "doc-3", "original", ExportFormat.DOCX, "user-1"));
+    }
+
+    @Test
+    void downloadCollectionAsZip_StreamsCompletedDocumentsInBatches() throws Exception {
+        exportProperties.setZipBatchSize(2);
+        when(documentCollectionRepository.findById("col-1")).thenReturn(Optional.of(collection));
+        when(ocrDataRepository.findByDocumentIdIn(List.of("doc-1", "doc-2")))
+                .thenReturn(List.of(ocrData("doc-1", OcrStatus.COMPLETED, "first"),
+                        ocrData("doc-2", OcrStatus.COMPLETED, "second")));
+        when(ocrDataRepository.findByDocumentIdIn(List.of("doc-3")))
+                .thenReturn(List.of(ocrData("doc-3", OcrStatus.PROCESSING, null)));
+        stubExportWritesText();
+
+        StreamingDownload download = downloadOcrService
+                .downloadCollectionAsZip("col-1", "original", ExportFormat.TXT, "user-1");
+
+        assertEquals("Invoices.zip", download.fileName());
+        verify(ocrDataRepository, never()).findByDocumentIdIn(anyList());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        download.body().writeTo(out);
+
+        Map<String, String> entries = readZip(out.toByteArray());
+        assertEquals(2, entries.size());
+        assertEquals("first", entries.get("scan.txt"));
+        assertEquals("second", entries.get("scan (2).txt"));
+        verify(ocrDataRepository, times(2)).findByDocumentIdIn(anyList());
+    }
+
+    @Test
+    void downloadCollectionAsZip_OtherUsersCollection_ThrowsForbidden() {
+        when(documentCollectionRepository.findById("col-1")).thenReturn(Optional.of(collection));
+
+        assertThrows(ForbiddenException.class, () -> downloadOcrService
+                .downloadCollectionAsZip("col-1", "original", ExportFormat.DOCX, "someone-else"));
+    }
+
+    @Test
+    void downloadCollectionAsZip_TooManyDocuments_ThrowsBadRequest() {
+        exportProperties.setMaxDocumentsPerZip(2);
+        when(documentCollectionRepository.findById("col-1")).thenReturn(Optional.of(collection));
+
+        assertThrows(BadRequestException.class, () -> downloadOcrService
+                .downloadCollectionAsZip("col-1", "original", ExportFormat.DOCX, "user-1"));
+    }
+
+    private void stubExportWritesText() throws Exception {
+        doAnswer(invocation -> {
+            String text = invocation.getArgument(1);
+            OutputStream out = invocation.getArgument(2);
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(documentExportService).write(eq(ExportFormat.TXT), anyString(), any(OutputStream.class));
+    }
+
+    private OcrData ocrData(String documentId, OcrStatus status, String text) {
+        OcrData ocrData = new OcrData();
+        ocrData.setDocumentId(documentId);
+        ocrData.setStatus(status);
+        ocrData.setExtractedText(text);
+        return ocrData;
+    }
+
+    private Map<String, String> readZip(byte[] bytes) throws Exception {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bytes))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+}